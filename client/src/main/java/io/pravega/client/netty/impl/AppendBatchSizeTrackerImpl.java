@@ -9,12 +9,15 @@
  */
 package io.pravega.client.netty.impl;
 
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.common.ExponentialMovingAverage;
 import io.pravega.common.MathHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * See {@link AppendBatchSizeTracker}.
@@ -26,12 +29,18 @@ import java.util.function.Supplier;
  * 
  * If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and 
  * synchronous writers. Otherwise the batch size is set to the amount of data that will be written in the next
- * {@link #MAX_BATCH_TIME_MILLIS} or half the server round trip time (whichever is less)
+ * linger time of the {@link AppendBatchingPolicy} or half the server round trip time (whichever is less), capped at
+ * the policy's maximum batch size.
+ *
+ * If the policy is not adaptive, every block is opened at the maximum batch size and is closed either when it fills
+ * up or when the linger time elapses.
+ *
+ * The size of the blocks actually sent and how long they waited to be sent are tracked as well, so that the effect
+ * of a policy can be observed.
  */
+@Slf4j
 class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
-    private static final int MAX_BATCH_TIME_MILLIS = 100;
-    private static final int MAX_BATCH_SIZE = 32 * 1024;
-
+    private final AppendBatchingPolicy policy;
     private final Supplier<Long> clock;
     private final AtomicLong lastAppendNumber;
     private final AtomicLong lastAppendTime;
@@ -39,8 +48,13 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
     private final ExponentialMovingAverage eventSize = new ExponentialMovingAverage(1024, 0.1, true);
     private final ExponentialMovingAverage millisBetweenAppends = new ExponentialMovingAverage(10, 0.1, false);
     private final ExponentialMovingAverage appendsOutstanding = new ExponentialMovingAverage(2, 0.05, false);
+    private final ExponentialMovingAverage blockSize = new ExponentialMovingAverage(0, 0.1, false);
+    private final ExponentialMovingAverage blockWaitMillis = new ExponentialMovingAverage(0, 0.1, false);
+    private final AtomicLong blockCount = new AtomicLong(0);
+    private final AtomicLong timedOutBlockCount = new AtomicLong(0);
 
-    AppendBatchSizeTrackerImpl() {
+    AppendBatchSizeTrackerImpl(AppendBatchingPolicy policy) {
+        this.policy = policy;
         clock = System::currentTimeMillis;
         lastAppendTime = new AtomicLong(clock.get());
         lastAckNumber = new AtomicLong(0);
@@ -64,24 +78,67 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
     }
 
     /**
-     * Returns a block size that is an estimate of how much data will be written in the next
-     * {@link #MAX_BATCH_TIME_MILLIS} or half the server round trip time (whichever is less).
+     * Returns a block size that is an estimate of how much data will be written in the next linger time or half the
+     * server round trip time (whichever is less). If the policy is not adaptive, this is always the maximum batch size.
      */
     @Override
     public int getAppendBlockSize() {
+        if (!policy.isAdaptive()) {
+            return policy.getMaxBatchSizeBytes();
+        }
         long numInflight = lastAppendNumber.get() - lastAckNumber.get();
         if (numInflight <= 1) {
             return 0;
         }
-        double appendsInMaxBatch = Math.max(1.0, MAX_BATCH_TIME_MILLIS / millisBetweenAppends.getCurrentValue());
+        double appendsInMaxBatch = Math.max(1.0, policy.getLingerMillis() / millisBetweenAppends.getCurrentValue());
         double targetAppendsOutstanding = MathHelpers.minMax(appendsOutstanding.getCurrentValue() * 0.5, 1.0,
                                                              appendsInMaxBatch);
         return (int) MathHelpers.minMax((long) (targetAppendsOutstanding * eventSize.getCurrentValue()), 0,
-                                        MAX_BATCH_SIZE);
+                                        policy.getMaxBatchSizeBytes());
     }
 
     @Override
     public int getBatchTimeout() {
-        return MAX_BATCH_TIME_MILLIS;
+        return policy.getLingerMillis();
+    }
+
+    @Override
+    public void recordAppendBlock(int size, long waitNanos, boolean timedOut) {
+        blockCount.incrementAndGet();
+        if (timedOut) {
+            timedOutBlockCount.incrementAndGet();
+        }
+        blockSize.addNewSample(size);
+        blockWaitMillis.addNewSample((double) waitNanos / TimeUnit.MILLISECONDS.toNanos(1));
+        log.trace("Sent append block of {} bytes after {} ns (timed out: {}).", size, waitNanos, timedOut);
+    }
+
+    /**
+     * Returns a moving average of the number of bytes in the append blocks that have been sent.
+     */
+    double getAverageBlockSize() {
+        return blockSize.getCurrentValue();
+    }
+
+    /**
+     * Returns a moving average of the time (in milliseconds) the append blocks that have been sent waited before they
+     * were sent.
+     */
+    double getAverageBlockWaitMillis() {
+        return blockWaitMillis.getCurrentValue();
+    }
+
+    /**
+     * Returns the number of append blocks that have been sent.
+     */
+    long getBlockCount() {
+        return blockCount.get();
+    }
+
+    /**
+     * Returns the number of append blocks that were sent before they were full because the linger time elapsed.
+     */
+    long getTimedOutBlockCount() {
+        return timedOutBlockCount.get();
     }
 }
@@ -12,6 +12,7 @@ package io.pravega.client.netty.impl;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 
@@ -30,6 +31,20 @@ public interface ConnectionFactory extends AutoCloseable {
      */
     CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp);
 
+    /**
+     * Establishes a connection between server and client with given parameters, grouping any appends sent on it
+     * according to the given policy. Implementations that do not batch appends may ignore the policy.
+     *
+     * @param endpoint       The Pravega Node URI.
+     * @param rp             Reply Processor instance.
+     * @param batchingPolicy The policy that controls the size of the append blocks sent on the connection.
+     * @return An instance of client connection.
+     */
+    default CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp,
+                                                                    AppendBatchingPolicy batchingPolicy) {
+        return establishConnection(endpoint, rp);
+    }
+
     /**
      * Get the internal executor which is used by the client.
      * @return A ScheduledExecutorService.
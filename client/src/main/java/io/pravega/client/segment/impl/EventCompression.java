@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import io.pravega.shared.protocol.netty.InvalidMessageException;
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses the payloads of events that are written as
+ * {@link io.pravega.shared.protocol.netty.WireCommands.CompressedEvent}s.
+ *
+ * A compressed payload consists of the length of the original data (4 bytes) followed by the original data compressed
+ * using Deflate. Each event is compressed on its own so that every event still begins at its own offset in the segment,
+ * which is what reader positions and stream cuts refer to.
+ */
+public final class EventCompression {
+    /**
+     * Events smaller than this are never compressed: the savings would not be worth the cost.
+     */
+    static final int MIN_COMPRESSION_SIZE = 128;
+
+    private EventCompression() {
+    }
+
+    /**
+     * Attempts to compress the given event data.
+     *
+     * @param data The data to compress. Its position is not modified.
+     * @return The compressed payload, or null if the data is too small or does not compress well enough to be worth it.
+     */
+    public static ByteBuffer compress(ByteBuffer data) {
+        int length = data.remaining();
+        if (length < MIN_COMPRESSION_SIZE) {
+            return null;
+        }
+        byte[] input = new byte[length];
+        data.duplicate().get(input);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            // Anything that does not fit in less than the original size is not worth sending compressed.
+            byte[] output = new byte[length];
+            int compressedLength = 0;
+            while (!deflater.finished() && compressedLength < output.length - Integer.BYTES) {
+                compressedLength += deflater.deflate(output, compressedLength, output.length - Integer.BYTES - compressedLength);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            ByteBuffer result = ByteBuffer.allocate(Integer.BYTES + compressedLength);
+            result.putInt(length);
+            result.put(output, 0, compressedLength);
+            result.flip();
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a payload produced by {@link #compress(ByteBuffer)}.
+     *
+     * @param payload The compressed payload.
+     * @return The original event data.
+     * @throws InvalidMessageException If the payload is not valid.
+     */
+    public static ByteBuffer decompress(ByteBuffer payload) {
+        if (payload.remaining() < Integer.BYTES) {
+            throw new InvalidMessageException("Compressed event is too short: " + payload.remaining());
+        }
+        ByteBuffer input = payload.duplicate();
+        int length = input.getInt();
+        if (length < 0 || length > WireCommands.MAX_WIRECOMMAND_SIZE) {
+            throw new InvalidMessageException("Compressed event of invalid length: " + length);
+        }
+        byte[] compressed = new byte[input.remaining()];
+        input.get(compressed);
+        byte[] output = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int decompressedLength = 0;
+            while (!inflater.finished() && decompressedLength < length) {
+                int read = inflater.inflate(output, decompressedLength, length - decompressedLength);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                decompressedLength += read;
+            }
+            if (decompressedLength != length || !inflater.finished()) {
+                throw new InvalidMessageException("Compressed event is corrupted.");
+            }
+            return ByteBuffer.wrap(output);
+        } catch (DataFormatException e) {
+            throw new InvalidMessageException("Compressed event is corrupted: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
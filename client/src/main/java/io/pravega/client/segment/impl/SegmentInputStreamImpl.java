@@ -145,7 +145,8 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         headerReadingBuffer.flip();
         int type = headerReadingBuffer.getInt();
         int length = headerReadingBuffer.getInt();
-        if (type != WireCommandType.EVENT.getCode()) {
+        boolean compressed = type == WireCommandType.COMPRESSED_EVENT.getCode();
+        if (type != WireCommandType.EVENT.getCode() && !compressed) {
             throw new InvalidMessageException("Event was of wrong type: " + type);
         }
         if (length < 0 || length > WireCommands.MAX_WIRECOMMAND_SIZE) {
@@ -159,7 +160,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             offset += buffer.read(result);
         }
         result.flip();
-        return result;
+        return compressed ? EventCompression.decompress(result) : result;
     }
 
     private boolean dataWaitingToGoInBuffer() {
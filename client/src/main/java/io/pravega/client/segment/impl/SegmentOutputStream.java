@@ -37,6 +37,16 @@ public interface SegmentOutputStream extends AutoCloseable {
      */
     public abstract void write(PendingEvent event);
 
+    /**
+     * Writes the provided events to the SegmentOutputStream, in order. This is equivalent to calling
+     * {@link #write(PendingEvent)} for each of them, but implementations may be able to do so more efficiently.
+     *
+     * @param events The events to be added to the segment.
+     */
+    public default void write(List<PendingEvent> events) {
+        events.forEach(this::write);
+    }
+
     /**
      * Flushes and then closes the output stream.
      * Frees any resources associated with it.
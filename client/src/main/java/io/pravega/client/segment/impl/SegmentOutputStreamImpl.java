@@ -14,6 +14,7 @@ import com.google.common.base.Preconditions;
 import io.netty.buffer.Unpooled;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.client.stream.AppendBatchingPolicy;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.client.stream.impl.PendingEvent;
 import io.pravega.common.Exceptions;
@@ -44,6 +45,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -70,6 +72,15 @@ import static com.google.common.base.Preconditions.checkState;
 @Slf4j
 @ToString(of = {"segmentName", "writerId", "state"})
 class SegmentOutputStreamImpl implements SegmentOutputStream {
+    /**
+     * The smallest number of bytes the writer limits itself to having inflight while the server is throttling.
+     */
+    @VisibleForTesting
+    static final long MIN_THROTTLED_WINDOW = 64 * 1024;
+    /**
+     * Once the window has grown back to this many bytes after throttling has ended, it is removed altogether.
+     */
+    private static final long MAX_THROTTLED_WINDOW = 32 * 1024 * 1024;
 
     @Getter
     private final String segmentName;
@@ -83,6 +94,17 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
     private final RetryWithBackoff retrySchedule;
     private final Object writeOrderLock = new Object();
     private final String delegationToken;
+    private final AppendBatchingPolicy batchingPolicy;
+
+    /**
+     * Creates a new instance of the SegmentOutputStreamImpl class which batches appends according to
+     * {@link AppendBatchingPolicy#DEFAULT}.
+     */
+    SegmentOutputStreamImpl(String segmentName, Controller controller, ConnectionFactory connectionFactory, UUID writerId,
+                            Consumer<Segment> resendToSuccessorsCallback, RetryWithBackoff retrySchedule, String delegationToken) {
+        this(segmentName, controller, connectionFactory, writerId, resendToSuccessorsCallback, retrySchedule, delegationToken,
+                AppendBatchingPolicy.DEFAULT);
+    }
 
     /**
      * Internal object that tracks the state of the connection.
@@ -92,7 +114,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
      * SegmentOutputStreamImpl.State#newConnection is invoked as we do not want connection setup and teardown to occur
      * within the scope of the lock.
      */
-    @ToString(of = {"closed", "exception", "eventNumber"})
+    @ToString(of = {"closed", "exception", "eventNumber", "inflightBytes", "credit", "throttledWindow"})
     private final class State {
         private final Object lock = new Object();
         @GuardedBy("lock")
@@ -107,8 +129,21 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         private final ConcurrentSkipListMap<Long, PendingEvent> inflight = new ConcurrentSkipListMap<>();
         @GuardedBy("lock")
         private long eventNumber = 0;
+        @GuardedBy("lock")
+        private long inflightBytes = 0;
+        @GuardedBy("lock")
+        private long credit = WireCommands.UNLIMITED_CREDIT;
+        @GuardedBy("lock")
+        private long throttledWindow = WireCommands.UNLIMITED_CREDIT;
+        @GuardedBy("lock")
+        private long throttleDelayMillis = 0;
+        @GuardedBy("lock")
+        private long lastWindowDecreaseNanos = 0;
+        @GuardedBy("lock")
+        private long throttledAckCount = 0;
         private final ReusableFutureLatch<ClientConnection> setupConnection = new ReusableFutureLatch<>();
         private final ReusableLatch waitingInflight = new ReusableLatch(true);
+        private final ReusableLatch waitingCredit = new ReusableLatch(true);
         private final AtomicBoolean needSuccessors = new AtomicBoolean();
 
         /**
@@ -118,6 +153,72 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
            Exceptions.handleInterrupted(() -> waitingInflight.await());
         }
 
+        /**
+         * Block until the server has granted enough credit to send an event of the given size. An event is always
+         * allowed if there are no others inflight, and waiting stops if the connection fails or the segment is sealed,
+         * as the event will then be retransmitted (or resent to the successors) rather than sent on this connection.
+         */
+        private void waitForCredit(int eventSize) {
+            while (true) {
+                synchronized (lock) {
+                    if (closed || connection == null || needSuccessors.get() || inflight.isEmpty()
+                            || inflightBytes + eventSize <= Math.min(credit, throttledWindow)) {
+                        return;
+                    }
+                    log.trace("Writer {} is waiting for credit: {} bytes inflight, {} bytes of credit, {} bytes of window",
+                              writerId, inflightBytes, credit, throttledWindow);
+                    waitingCredit.reset();
+                }
+                Exceptions.handleInterrupted(() -> waitingCredit.await());
+            }
+        }
+
+        /**
+         * @param newCredit The number of bytes the server allows to be inflight.
+         */
+        private void setCredit(long newCredit) {
+            synchronized (lock) {
+                credit = newCredit;
+                waitingCredit.release();
+            }
+        }
+
+        /**
+         * Adapts to the throttling hint sent by the server with an ack. While the server is throttling, the number of bytes
+         * that may be inflight is halved (at most once per throttling delay, and down to {@link #MIN_THROTTLED_WINDOW}) so
+         * that fewer events pile up waiting for acks. Once the server stops throttling, the window grows again by the number
+         * of bytes acked, until it is removed.
+         *
+         * @param delayMillis The delay the server is currently applying to writes, or 0 if it is not throttling.
+         */
+        private void throttlingHint(long delayMillis) {
+            synchronized (lock) {
+                if (delayMillis > 0) {
+                    throttledAckCount++;
+                    long now = System.nanoTime();
+                    if (throttleDelayMillis == 0 || now - lastWindowDecreaseNanos >= TimeUnit.MILLISECONDS.toNanos(delayMillis)) {
+                        throttledWindow = Math.max(MIN_THROTTLED_WINDOW, Math.min(throttledWindow, inflightBytes) / 2);
+                        lastWindowDecreaseNanos = now;
+                        log.debug("Server is throttling writer {} ({} ms, {} throttled acks); limiting inflight data to {} bytes.",
+                                  writerId, delayMillis, throttledAckCount, throttledWindow);
+                    }
+                } else if (throttleDelayMillis > 0) {
+                    log.debug("Server is no longer throttling writer {}; growing inflight window from {} bytes.", writerId,
+                              throttledWindow);
+                }
+                throttleDelayMillis = delayMillis;
+            }
+        }
+
+        /**
+         * Wake up any writes that are waiting for credit, so they can re-check why they are waiting.
+         */
+        private void releaseCreditWaiters() {
+            synchronized (lock) {
+                waitingCredit.release();
+            }
+        }
+
         private boolean isAlreadySealed() {
             synchronized (lock) {
                 return connection == null && exception != null && exception instanceof SegmentSealedException;
@@ -187,6 +288,8 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                 }
                 connection = null;
                 connectionSetupCompleted = null;
+                credit = WireCommands.UNLIMITED_CREDIT;
+                waitingCredit.release();
                 if (closed || throwable instanceof SegmentSealedException) {
                     waitingInflight.release();
                 } 
@@ -217,6 +320,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                 eventNumber++;
                 log.trace("Adding event {} to inflight on writer {}", eventNumber, writerId);
                 inflight.put(eventNumber, event);
+                inflightBytes += event.getData().remaining();
                 if (!needSuccessors.get()) {
                     waitingInflight.reset();
                 }
@@ -232,6 +336,19 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                 ConcurrentNavigableMap<Long, PendingEvent> acked = inflight.headMap(ackLevel, true);
                 List<PendingEvent> result = new ArrayList<>(acked.values());
                 acked.clear();
+                long ackedBytes = 0;
+                for (PendingEvent event : result) {
+                    ackedBytes += event.getData().remaining();
+                }
+                inflightBytes -= ackedBytes;
+                if (throttleDelayMillis == 0 && throttledWindow != WireCommands.UNLIMITED_CREDIT) {
+                    throttledWindow += ackedBytes;
+                    if (throttledWindow >= MAX_THROTTLED_WINDOW) {
+                        log.debug("Writer {} is no longer limiting its inflight data.", writerId);
+                        throttledWindow = WireCommands.UNLIMITED_CREDIT;
+                    }
+                }
+                waitingCredit.release();
                 return result;
             }
         }
@@ -272,6 +389,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         private void setClosed(boolean closed) {
             synchronized (lock) {
                 this.closed = closed;
+                waitingCredit.release();
             }
         }
 
@@ -331,6 +449,8 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
             long previousAckLevel = dataAppended.getPreviousEventNumber();
             try {
                 checkAckLevels(ackLevel, previousAckLevel);
+                state.throttlingHint(dataAppended.getThrottleDelayMillis());
+                state.setCredit(dataAppended.getCredit());
                 ackUpTo(ackLevel);
             } catch (Exception e) {
                 failConnection(e);
@@ -341,13 +461,14 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         public void appendSetup(AppendSetup appendSetup) {
             log.info("Received AppendSetup {}", appendSetup);
             long ackLevel = appendSetup.getLastEventNumber();
+            state.setCredit(appendSetup.getCredit());
             ackUpTo(ackLevel);
             List<Append> toRetransmit = state.getAllInflight()
                                              .stream()
                                              .map(entry -> new Append(segmentName, writerId, entry.getKey(),
                                                                       Unpooled.wrappedBuffer(entry.getValue()
                                                                                                   .getData()),
-                                                                      null))
+                                                                      entry.getValue().isCompressed()))
                                              .collect(Collectors.toList());
             ClientConnection connection = state.getConnection();
             if (connection == null) {
@@ -370,6 +491,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
 
         private void invokeResendCallBack(WireCommand wireCommand) {
             if (state.needSuccessors.compareAndSet(false, true)) {
+                state.releaseCreditWaiters();
                 Retry.indefinitelyWithExpBackoff(retrySchedule.getInitialMillis(), retrySchedule.getMultiplier(),
                         retrySchedule.getMaxDelay(),
                         t -> log.error(writerId + " to invoke resendToSuccessors callback: ", t))
@@ -386,7 +508,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
 
         private void ackUpTo(long ackLevel) {
             for (PendingEvent toAck : state.removeInflightBelow(ackLevel)) {
-                if (toAck != null) {
+                if (toAck != null && toAck.getAckFuture() != null) {
                     toAck.getAckFuture().complete(null);
                 }
             }
@@ -422,6 +544,15 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
      */
     @Override
     public void write(PendingEvent event) {
+        write(Collections.singletonList(event));
+    }
+
+    /**
+     * @see SegmentOutputStream#write(List)
+     *
+     */
+    @Override
+    public void write(List<PendingEvent> events) {
         //State is set to sealed during a Transaction abort and the segment writer should not throw an {@link IllegalStateException} in such a case.
         checkState(StreamSegmentNameUtils.isTransactionSegment(segmentName) || !state.isAlreadySealed(), "Segment: %s is already sealed", segmentName);
         synchronized (writeOrderLock) {
@@ -431,18 +562,27 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                 // list.
                 connection = Futures.getThrowingException(getConnection());
             } catch (SegmentSealedException | NoSuchSegmentException e) {
-                // Add the event to inflight, this will be resent to the succesor during the execution of resendToSuccessorsCallback
-                state.addToInflight(event);
+                // Add the events to inflight, they will be resent to the succesor during the execution of resendToSuccessorsCallback
+                events.forEach(state::addToInflight);
                 return;
             }
-            long eventNumber = state.addToInflight(event);
+            int sent = 0;
             try {
-                Append append = new Append(segmentName, writerId, eventNumber, Unpooled.wrappedBuffer(event.getData()), null);
-                log.trace("Sending append request: {}", append);
-                connection.send(append);
+                while (sent < events.size()) {
+                    PendingEvent event = events.get(sent);
+                    state.waitForCredit(event.getData().remaining());
+                    long eventNumber = state.addToInflight(event);
+                    sent++;
+                    Append append = new Append(segmentName, writerId, eventNumber, Unpooled.wrappedBuffer(event.getData()),
+                                               event.isCompressed());
+                    log.trace("Sending append request: {}", append);
+                    connection.send(append);
+                }
             } catch (ConnectionFailedException e) {
                 log.warn("Connection " + writerId + " failed due to: ", e);
-                reconnect(); // As the message is inflight, this will perform the retransmission.
+                // Once all the events are inflight, the reconnect will perform the retransmission.
+                events.subList(sent, events.size()).forEach(state::addToInflight);
+                reconnect();
             }
         }
     }
@@ -534,7 +674,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                      log.info("Fetching endpoint for segment {}, writerID: {}", segmentName, writerId);
                      return controller.getEndpointForSegment(segmentName).thenComposeAsync((PravegaNodeUri uri) -> {
                          log.info("Establishing connection to {} for {}, writerID: {}", uri, segmentName, writerId);
-                         return connectionFactory.establishConnection(uri, responseProcessor);
+                         return connectionFactory.establishConnection(uri, responseProcessor, batchingPolicy);
                      }, connectionFactory.getInternalExecutor()).thenComposeAsync(connection -> {
                          CompletableFuture<Void> connectionSetupFuture = state.newConnection(connection);
                          SetupAppend cmd = new SetupAppend(requestIdGenerator.get(), writerId, segmentName, delegationToken);
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream;
+
+import io.pravega.shared.protocol.netty.WireCommands;
+import java.io.Serializable;
+import lombok.Builder;
+import lombok.Data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Controls how a writer groups its events into append blocks on the wire.
+ *
+ * Larger blocks and a longer linger time allow more events to be sent (and persisted) together, which increases
+ * throughput at the expense of latency. When the policy is adaptive, the size of each block is estimated from the rate
+ * of recent appends and the number of appends that are still outstanding (batching is disabled entirely for writers
+ * that have at most one event in flight), and is capped at {@link #getMaxBatchSizeBytes()}. When it is not adaptive,
+ * every block is opened at {@link #getMaxBatchSizeBytes()} and is sent once it is full or once
+ * {@link #getLingerMillis()} has passed, whichever comes first.
+ */
+@Data
+@Builder
+public class AppendBatchingPolicy implements Serializable {
+
+    /**
+     * The largest block size that may be configured. Blocks are sent as a single wire command, so this must stay well
+     * below {@link WireCommands#MAX_WIRECOMMAND_SIZE}.
+     */
+    public static final int MAX_BATCH_SIZE_LIMIT = WireCommands.MAX_WIRECOMMAND_SIZE / 2;
+
+    /**
+     * Small blocks and a short linger time, for writers that care about the latency of individual events.
+     */
+    public static final AppendBatchingPolicy LATENCY_OPTIMIZED = builder().adaptive(true)
+                                                                          .maxBatchSizeBytes(16 * 1024)
+                                                                          .lingerMillis(10)
+                                                                          .build();
+
+    /**
+     * The policy used when none is specified.
+     */
+    public static final AppendBatchingPolicy DEFAULT = builder().build();
+
+    /**
+     * Large fixed-size blocks, for bulk-ingest writers that care about throughput rather than the latency of
+     * individual events.
+     */
+    public static final AppendBatchingPolicy THROUGHPUT_OPTIMIZED = builder().adaptive(false)
+                                                                             .maxBatchSizeBytes(1024 * 1024)
+                                                                             .lingerMillis(20)
+                                                                             .build();
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Whether the size of each block is estimated from the recent write pattern, or is always the maximum.
+     */
+    private final boolean adaptive;
+
+    /**
+     * The maximum number of bytes of event data in a single block.
+     */
+    private final int maxBatchSizeBytes;
+
+    /**
+     * The maximum amount of time an open block waits for more events before it is sent.
+     */
+    private final int lingerMillis;
+
+    public static final class AppendBatchingPolicyBuilder {
+        private boolean adaptive = true;
+        private int maxBatchSizeBytes = 32 * 1024;
+        private int lingerMillis = 100;
+
+        public AppendBatchingPolicy build() {
+            checkArgument(maxBatchSizeBytes > 0 && maxBatchSizeBytes <= MAX_BATCH_SIZE_LIMIT,
+                          "maxBatchSizeBytes must be a positive number no greater than %s.", MAX_BATCH_SIZE_LIMIT);
+            checkArgument(lingerMillis > 0, "lingerMillis must be a positive number.");
+            return new AppendBatchingPolicy(adaptive, maxBatchSizeBytes, lingerMillis);
+        }
+    }
+}
@@ -9,6 +9,9 @@
  */
 package io.pravega.client.stream;
 
+import io.pravega.common.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -59,6 +62,26 @@ public interface EventStreamWriter<Type> extends AutoCloseable {
      */
     CompletableFuture<Void> writeEvent(String routingKey, Type event);
 
+    /**
+     * Write a batch of events to the stream. This is equivalent to calling {@link #writeEvent(String, Object)} for each
+     * of the events in order, except that a single future is returned for the whole batch. Implementations may use this
+     * to reduce the per-event overhead of writing many small events.
+     *
+     * @param routingKey A free form string that is used to route messages to readers. All the events in the batch are
+     *        written with this routingKey, so they are read in the same order as they appear in the list.
+     * @param events The events to be written to the stream (Null events are disallowed)
+     * @return A completableFuture that will complete when all the events have been durably stored on the configured
+     *         number of replicas, and are available for readers to see. This future may complete exceptionally
+     *         if this cannot happen, in which case some of the events may not have been written.
+     */
+    default CompletableFuture<Void> writeEvents(String routingKey, List<Type> events) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(events.size());
+        for (Type event : events) {
+            futures.add(writeEvent(routingKey, event));
+        }
+        return Futures.allOf(futures);
+    }
+
     /**
      * Start a new transaction on this stream. This allows events written to the transaction be written an committed atomically.
      * Note that transactions can only be open for {@link EventWriterConfig#getTransactionTimeoutTime()}.
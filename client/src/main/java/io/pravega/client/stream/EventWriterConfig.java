@@ -45,6 +45,22 @@ public class EventWriterConfig implements Serializable {
      * it affects all transactions.
      */
     private final long transactionTimeoutTime;
+    /*
+     * Controls how events are grouped into append blocks on the wire. See AppendBatchingPolicy for the
+     * predefined latency and throughput optimized policies.
+     */
+    private final AppendBatchingPolicy appendBatchingPolicy;
+    /*
+     * If enabled, the data of each event is compressed before it is sent (unless it is too small or does not compress
+     * well). Readers detect compressed events and decompress them transparently, and the segment store stores them as
+     * is, so this reduces both network and storage usage at the cost of CPU on writers and readers.
+     *
+     * This is disabled by default because compressed events are stored using a new event type, which readers that
+     * predate compression do not recognize and fail to read. It must only be enabled once every client that reads the
+     * stream (including readers of any stream cuts or checkpoints taken after this point) has been upgraded. There is
+     * no way to negotiate this: writers never talk to readers, and the segment store stores events as is.
+     */
+    private final boolean enableCompression;
 
     public static final class EventWriterConfigBuilder {
         private int initalBackoffMillis = 1;
@@ -52,5 +68,7 @@ public class EventWriterConfig implements Serializable {
         private int retryAttempts = 10;
         private int backoffMultiple = 10;
         private long transactionTimeoutTime = 30 * 1000 - 1;
+        private AppendBatchingPolicy appendBatchingPolicy = AppendBatchingPolicy.DEFAULT;
+        private boolean enableCompression = false;
     }
 }
@@ -47,9 +47,36 @@ public class ReaderGroupConfig implements Serializable {
     private final Map<Stream, StreamCut> startingStreamCuts;
     private final Map<Stream, StreamCut> endingStreamCuts;
 
+    /**
+     * Whether readers should use batched coordination. In this mode each reader coalesces its distance-to-tail reports
+     * and publishes them as unconditional updates, and compactions of the reader group state are spread across readers.
+     * This reduces the contention on the reader group state for groups with a large number of readers.
+     */
+    private final boolean batchedCoordination;
+
+    /**
+     * Whether segments should be balanced across readers based on the rate at which data is read from them (as
+     * reported by the readers), rather than based on the number of segments each reader owns.
+     *
+     * This is disabled by default because readers publish their loads to the reader group state using a new type of
+     * update, which readers that predate load aware assignment cannot deserialize. It must only be enabled once every
+     * reader in the group has been upgraded.
+     */
+    private final boolean loadAwareAssignment;
+
+    /**
+     * When {@link #isLoadAwareAssignment()} is set, how much a reader's load may exceed the average load per reader
+     * (as a fraction of it) before the reader gives up a segment. Higher values cause less movement of segments between
+     * readers at the expense of a less even distribution.
+     */
+    private final double loadImbalanceTolerance;
+
    public static class ReaderGroupConfigBuilder implements ObjectBuilder<ReaderGroupConfig> {
        private long groupRefreshTimeMillis = 3000; //default value
        private long automaticCheckpointIntervalMillis = 120000; //default value
+       private boolean batchedCoordination = false; //default value
+       private boolean loadAwareAssignment = false; //default value
+       private double loadImbalanceTolerance = 0.2; //default value
 
        /**
         * Disables automatic checkpointing. Checkpoints need to be
@@ -190,8 +217,10 @@ public class ReaderGroupConfig implements Serializable {
            //basic check to verify if endStreamCut > startStreamCut.
            validateStartAndEndStreamCuts(startingStreamCuts, endingStreamCuts);
 
+           checkArgument(loadImbalanceTolerance >= 0, "loadImbalanceTolerance must be a non-negative number.");
+
            return new ReaderGroupConfig(groupRefreshTimeMillis, automaticCheckpointIntervalMillis,
-                   startingStreamCuts, endingStreamCuts);
+                   startingStreamCuts, endingStreamCuts, batchedCoordination, loadAwareAssignment, loadImbalanceTolerance);
        }
 
        private void validateStartAndEndStreamCuts(Map<Stream, StreamCut> startStreamCuts,
@@ -248,7 +277,9 @@ public class ReaderGroupConfig implements Serializable {
 
         @Override
         protected void declareVersions() {
-            version(0).revision(0, this::write00, this::read00);
+            version(0).revision(0, this::write00, this::read00)
+                      .revision(1, this::write01, this::read01)
+                      .revision(2, this::write02, this::read02);
         }
 
         private void read00(RevisionDataInput revisionDataInput, ReaderGroupConfigBuilder builder) throws IOException {
@@ -268,6 +299,24 @@ public class ReaderGroupConfig implements Serializable {
             revisionDataOutput.writeMap(object.startingStreamCuts, keySerializer, valueSerializer);
             revisionDataOutput.writeMap(object.endingStreamCuts, keySerializer, valueSerializer);
         }
+
+        private void read01(RevisionDataInput revisionDataInput, ReaderGroupConfigBuilder builder) throws IOException {
+            builder.batchedCoordination(revisionDataInput.readBoolean());
+        }
+
+        private void write01(ReaderGroupConfig object, RevisionDataOutput revisionDataOutput) throws IOException {
+            revisionDataOutput.writeBoolean(object.isBatchedCoordination());
+        }
+
+        private void read02(RevisionDataInput revisionDataInput, ReaderGroupConfigBuilder builder) throws IOException {
+            builder.loadAwareAssignment(revisionDataInput.readBoolean());
+            builder.loadImbalanceTolerance(revisionDataInput.readDouble());
+        }
+
+        private void write02(ReaderGroupConfig object, RevisionDataOutput revisionDataOutput) throws IOException {
+            revisionDataOutput.writeBoolean(object.isLoadAwareAssignment());
+            revisionDataOutput.writeDouble(object.getLoadImbalanceTolerance());
+        }
     }
 
     @SneakyThrows(IOException.class)
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
 /**
  * Stream Controller APIs.
@@ -214,6 +215,28 @@ public interface Controller extends AutoCloseable {
      */
     CompletableFuture<Map<Segment, Long>> getSegmentsAtTime(final Stream stream, final long timestamp);
 
+    /**
+     * Returns a stream cut from which a reader observes every event written to the stream at or after the given
+     * time. The controller resolves it from the stream cuts it periodically records for streams with a retention
+     * policy, so it may precede the given time by up to the recording interval. For streams without recorded stream
+     * cuts it falls back to the start of the segments that were active at the given time.
+     *
+     * @param stream    The stream.
+     * @param timestamp The time in millis.
+     * @return A stream cut, or {@link StreamCut#UNBOUNDED} if the head of the stream should be used.
+     */
+    CompletableFuture<StreamCut> getStreamCutAtTime(final Stream stream, final long timestamp);
+
+    /**
+     * Returns the latest stream cut recorded by the controller that has at most the given number of bytes of the
+     * stream preceding it.
+     *
+     * @param stream The stream.
+     * @param size   The number of bytes of the stream preceding the stream cut.
+     * @return A stream cut, or {@link StreamCut#UNBOUNDED} if the head of the stream should be used.
+     */
+    CompletableFuture<StreamCut> getStreamCutAtSize(final Stream stream, final long size);
+
     /**
      * Returns StreamSegmentsWithPredecessors containing each of the segments that are successors to the segment
      * requested mapped to a list of their predecessors.
@@ -246,6 +269,20 @@ public interface Controller extends AutoCloseable {
      */
     CompletableFuture<StreamSegmentSuccessors> getSuccessors(StreamCut from);
 
+    /**
+     * Subscribes to the epoch transitions of a stream. The listener is invoked with every transition the controller
+     * publishes after the stream is scaled, which allows readers and writers to learn the successors of sealed
+     * segments without each of them calling {@link #getSuccessors(Segment)} at the same time.
+     *
+     * Delivery is best effort: transitions may be missed while the subscription reconnects, so callers must still
+     * be able to look up successors on demand.
+     *
+     * @param stream   The stream to watch.
+     * @param listener The listener invoked with every epoch transition.
+     * @return A subscription which stops delivering transitions once closed.
+     */
+    EpochTransitionSubscription watchEpochTransitions(final Stream stream, final Consumer<StreamEpochTransition> listener);
+
     /**
      * Returns all the segments from the fromStreamCut till toStreamCut.
      *
@@ -14,11 +14,14 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.auth.MoreCallCredentials;
 import io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.NegotiationType;
 import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import io.grpc.util.RoundRobinLoadBalancerFactory;
 import io.netty.handler.ssl.SslContextBuilder;
@@ -40,6 +43,8 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.CreateTxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateTxnResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteStreamStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransition;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransitionRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.GetSegmentsRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnRequest;
@@ -49,10 +54,13 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScopeInfo;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMap;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMapRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentRange;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentRanges;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentValidityResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentsAtTime;
+import io.pravega.controller.stream.api.grpc.v1.Controller.StreamCutLookupRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.StreamInfo;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SuccessorResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnRequest;
@@ -62,6 +70,7 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.UpdateStreamStatus;
 import io.pravega.controller.stream.api.grpc.v1.ControllerServiceGrpc;
 import io.pravega.controller.stream.api.grpc.v1.Controller.StreamCutRangeResponse;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
@@ -72,9 +81,12 @@ import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.net.ssl.SSLException;
 
@@ -90,6 +102,9 @@ public class ControllerImpl implements Controller {
     // This value should be greater than the permissible value configured at the server which is by default 5 minutes.
     private static final long DEFAULT_KEEPALIVE_TIME_MINUTES = 6;
 
+    // The delay before re-establishing a failed watch on the segment container map or on epoch transitions.
+    private static final long WATCH_RETRY_MILLIS = 10000;
+
     // The internal retry object to handle RPC failures.
     private final Retry.RetryAndThrowExceptionally<StatusRuntimeException, Exception> retryConfig;
 
@@ -105,6 +120,9 @@ public class ControllerImpl implements Controller {
     // The gRPC client for the Controller Service.
     private final ControllerServiceGrpc.ControllerServiceStub client;
 
+    // Local copy of the segment container map, used to resolve segment endpoints without calling the controller.
+    private final SegmentContainerMapWatcher containerMapWatcher = new SegmentContainerMapWatcher();
+
     /**
      * Creates a new instance of the Controller client class.
      *
@@ -591,6 +609,45 @@ public class ControllerImpl implements Controller {
         });
     }
 
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtTime(final Stream stream, final long timestamp) {
+        Exceptions.checkNotClosed(closed.get(), this);
+        Preconditions.checkNotNull(stream, "stream");
+        return getStreamCutAt(StreamCutLookupRequest.newBuilder()
+                .setStreamInfo(ModelHelper.createStreamInfo(stream.getScope(), stream.getStreamName()))
+                .setTimestamp(timestamp)
+                .build());
+    }
+
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtSize(final Stream stream, final long size) {
+        Exceptions.checkNotClosed(closed.get(), this);
+        Preconditions.checkNotNull(stream, "stream");
+        return getStreamCutAt(StreamCutLookupRequest.newBuilder()
+                .setStreamInfo(ModelHelper.createStreamInfo(stream.getScope(), stream.getStreamName()))
+                .setSize(size)
+                .build());
+    }
+
+    private CompletableFuture<StreamCut> getStreamCutAt(final StreamCutLookupRequest request) {
+        long traceId = LoggerHelpers.traceEnter(log, "getStreamCutAt", request);
+
+        final CompletableFuture<io.pravega.controller.stream.api.grpc.v1.Controller.StreamCut> result =
+                this.retryConfig.runAsync(() -> {
+                    RPCAsyncCallback<io.pravega.controller.stream.api.grpc.v1.Controller.StreamCut> callback =
+                            new RPCAsyncCallback<>(traceId, "getStreamCutAt");
+                    client.getStreamCutAt(request, callback);
+                    return callback.getFuture();
+                }, this.executor);
+        return result.thenApply(ModelHelper::createStreamCut)
+                     .whenComplete((x, e) -> {
+                         if (e != null) {
+                             log.warn("getStreamCutAt failed: ", e);
+                         }
+                         LoggerHelpers.traceLeave(log, "getStreamCutAt", traceId);
+                     });
+    }
+
     @Override
     public CompletableFuture<StreamSegmentsWithPredecessors> getSuccessors(Segment segment) {
         Exceptions.checkNotClosed(closed.get(), this);
@@ -630,6 +687,19 @@ public class ControllerImpl implements Controller {
         });
     }
 
+    @Override
+    public EpochTransitionSubscription watchEpochTransitions(final Stream stream,
+                                                             final Consumer<StreamEpochTransition> listener) {
+        Exceptions.checkNotClosed(closed.get(), this);
+        Preconditions.checkNotNull(stream, "stream");
+        Preconditions.checkNotNull(listener, "listener");
+        log.info("Watching epoch transitions of stream {}", stream);
+
+        EpochTransitionWatcher watcher = new EpochTransitionWatcher(stream, listener);
+        watcher.subscribe();
+        return watcher;
+    }
+
     @Override
     public CompletableFuture<StreamSegmentSuccessors> getSegments(final StreamCut fromStreamCut, final StreamCut toStreamCut) {
         Exceptions.checkNotClosed(closed.get(), this);
@@ -713,6 +783,13 @@ public class ControllerImpl implements Controller {
         Exceptions.checkNotNullOrEmpty(qualifiedSegmentName, "qualifiedSegmentName");
         long traceId = LoggerHelpers.traceEnter(log, "getEndpointForSegment", qualifiedSegmentName);
 
+        containerMapWatcher.start();
+        PravegaNodeUri cachedEndpoint = containerMapWatcher.getEndpoint(qualifiedSegmentName);
+        if (cachedEndpoint != null) {
+            LoggerHelpers.traceLeave(log, "getEndpointForSegment", traceId);
+            return CompletableFuture.completedFuture(cachedEndpoint);
+        }
+
         final CompletableFuture<NodeUri> result = this.retryConfig.runAsync(() -> {
             RPCAsyncCallback<NodeUri> callback = new RPCAsyncCallback<>(traceId, "getEndpointForSegment");
             Segment segment = Segment.fromScopedName(qualifiedSegmentName);
@@ -957,4 +1034,189 @@ public class ControllerImpl implements Controller {
             return future;
         }
     }
+
+    private static boolean isAuthFailure(Status.Code code) {
+        return code == Status.Code.UNAUTHENTICATED || code == Status.Code.PERMISSION_DENIED;
+    }
+
+    /**
+     * Keeps a local copy of the segment container map pushed by the controller. Lookups return null whenever no map
+     * is available, in which case callers fall back to asking the controller for the segment endpoint.
+     */
+    private final class SegmentContainerMapWatcher implements StreamObserver<SegmentContainerMap> {
+        private final AtomicBoolean started = new AtomicBoolean(false);
+        private final AtomicReference<ContainerMapSnapshot> current = new AtomicReference<>();
+
+        void start() {
+            if (!started.getAndSet(true)) {
+                subscribe();
+            }
+        }
+
+        PravegaNodeUri getEndpoint(String qualifiedSegmentName) {
+            ContainerMapSnapshot snapshot = current.get();
+            if (snapshot == null) {
+                return null;
+            }
+            return snapshot.endpoints.get(snapshot.mapper.getContainerId(qualifiedSegmentName));
+        }
+
+        @Override
+        public void onNext(SegmentContainerMap value) {
+            log.debug("Received segment container map version {}.", value.getVersion());
+            current.set(value.getContainerCount() > 0 ? new ContainerMapSnapshot(value) : null);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // Without a live watch the local copy may go stale, so stop using it until we resubscribe.
+            current.set(null);
+            Status.Code code = Status.fromThrowable(t).getCode();
+            if (code == Status.Code.UNIMPLEMENTED) {
+                log.info("Controller does not support segment container map watches, using per segment lookups.");
+                return;
+            }
+            if (isAuthFailure(code)) {
+                // Retrying with the same credentials cannot succeed.
+                log.warn("Not allowed to watch the segment container map ({}), using per segment lookups.", code);
+                return;
+            }
+            log.warn("Segment container map watch failed, will retry in {} ms.", WATCH_RETRY_MILLIS, t);
+            resubscribe();
+        }
+
+        @Override
+        public void onCompleted() {
+            current.set(null);
+            resubscribe();
+        }
+
+        private void subscribe() {
+            if (closed.get()) {
+                return;
+            }
+            ContainerMapSnapshot snapshot = current.get();
+            client.watchSegmentContainerMap(SegmentContainerMapRequest.newBuilder()
+                                                                      .setKnownVersion(snapshot == null ? -1 : snapshot.version)
+                                                                      .build(), this);
+        }
+
+        private void resubscribe() {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                executor.schedule(this::subscribe, WATCH_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Executor rejected segment container map watch, not resubscribing.");
+            }
+        }
+    }
+
+    /**
+     * Delivers the epoch transitions of a single stream to a listener, resubscribing whenever the underlying gRPC
+     * stream fails. Resubscriptions pass the last epoch seen so the controller can replay missed transitions.
+     */
+    private final class EpochTransitionWatcher implements ClientResponseObserver<EpochTransitionRequest, EpochTransition>,
+            EpochTransitionSubscription {
+        private final Stream stream;
+        private final Consumer<StreamEpochTransition> listener;
+        private final AtomicBoolean stopped = new AtomicBoolean(false);
+        private final AtomicReference<ClientCallStreamObserver<EpochTransitionRequest>> call = new AtomicReference<>();
+        private volatile int lastEpoch = -1;
+
+        EpochTransitionWatcher(Stream stream, Consumer<StreamEpochTransition> listener) {
+            this.stream = stream;
+            this.listener = listener;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<EpochTransitionRequest> requestStream) {
+            call.set(requestStream);
+        }
+
+        @Override
+        public void onNext(EpochTransition value) {
+            Map<SegmentWithRange, List<Long>> newSegments = new HashMap<>();
+            for (SuccessorResponse.SegmentEntry entry : value.getNewSegmentsList()) {
+                newSegments.put(ModelHelper.encode(entry.getSegment()), entry.getValueList());
+            }
+            lastEpoch = value.getEpoch();
+            log.debug("Stream {} transitioned to epoch {}", stream, value.getEpoch());
+            try {
+                listener.accept(new StreamEpochTransition(stream, value.getEpoch(), newSegments,
+                        value.getDelegationToken()));
+            } catch (Exception e) {
+                log.warn("Epoch transition listener for stream {} failed.", stream, e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Status.Code code = Status.fromThrowable(t).getCode();
+            if (code == Status.Code.UNIMPLEMENTED || code == Status.Code.NOT_FOUND) {
+                log.info("Stopped watching epoch transitions of stream {}: {}", stream, code);
+                return;
+            }
+            if (isAuthFailure(code)) {
+                // Retrying with the same credentials cannot succeed.
+                log.warn("Not allowed to watch epoch transitions of stream {}: {}", stream, code);
+                return;
+            }
+            if (!stopped.get()) {
+                log.warn("Epoch transition watch for stream {} failed, will retry in {} ms.", stream,
+                        WATCH_RETRY_MILLIS, t);
+            }
+            resubscribe();
+        }
+
+        @Override
+        public void onCompleted() {
+            resubscribe();
+        }
+
+        @Override
+        public void close() {
+            if (!stopped.getAndSet(true)) {
+                ClientCallStreamObserver<EpochTransitionRequest> current = call.get();
+                if (current != null) {
+                    current.cancel("Subscription closed", null);
+                }
+            }
+        }
+
+        private void subscribe() {
+            if (stopped.get() || closed.get()) {
+                return;
+            }
+            client.watchEpochTransitions(EpochTransitionRequest.newBuilder()
+                                                               .setStreamInfo(ModelHelper.createStreamInfo(stream.getScope(), stream.getStreamName()))
+                                                               .setKnownEpoch(lastEpoch)
+                                                               .build(), this);
+        }
+
+        private void resubscribe() {
+            if (stopped.get() || closed.get()) {
+                return;
+            }
+            try {
+                executor.schedule(this::subscribe, WATCH_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Executor rejected epoch transition watch, not resubscribing.");
+            }
+        }
+    }
+
+    private static final class ContainerMapSnapshot {
+        private final long version;
+        private final SegmentToContainerMapper mapper;
+        private final Map<Integer, PravegaNodeUri> endpoints;
+
+        ContainerMapSnapshot(SegmentContainerMap map) {
+            this.version = map.getVersion();
+            this.mapper = new SegmentToContainerMapper(map.getContainerCount());
+            this.endpoints = map.getContainerEndpointsMap().entrySet().stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, e -> ModelHelper.encode(e.getValue())));
+        }
+    }
 }
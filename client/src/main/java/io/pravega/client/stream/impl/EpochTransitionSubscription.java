@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+/**
+ * A subscription to the epoch transitions of a stream, obtained from
+ * {@link Controller#watchEpochTransitions(io.pravega.client.stream.Stream, java.util.function.Consumer)}.
+ */
+public interface EpochTransitionSubscription extends AutoCloseable {
+
+    /**
+     * Stops delivering epoch transitions to the listener of this subscription.
+     */
+    @Override
+    void close();
+}
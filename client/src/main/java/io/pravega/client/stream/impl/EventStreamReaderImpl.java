@@ -156,6 +156,10 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                     releaseSegmentsIfNeeded();
                     atCheckpoint = false;
                 }
+                if (groupState.isLoadAwareAssignment()) {
+                    // Only build the position (which copies the offsets of all owned segments) if it will be used.
+                    groupState.updateReadProgress(getPosition().getOwnedSegmentsWithOffsets());
+                }
                 acquireSegmentsIfNeeded();
                 return null;
             } else {
@@ -104,24 +104,57 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         return writeEventInternal(routingKey, event);
     }
     
+    /**
+     * Serializes all the events before taking the locks, then writes them to the segment for the routing key in a single
+     * call, with only the last one carrying the returned future.
+     */
+    @Override
+    public CompletableFuture<Void> writeEvents(String routingKey, List<Type> events) {
+        Preconditions.checkNotNull(routingKey);
+        Preconditions.checkNotNull(events);
+        Exceptions.checkNotClosed(closed.get(), this);
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<ByteBuffer> data = new ArrayList<>(events.size());
+        for (Type event : events) {
+            Preconditions.checkNotNull(event);
+            data.add(serializer.serialize(event));
+        }
+        CompletableFuture<Void> ackFuture = new CompletableFuture<Void>();
+        List<PendingEvent> batch = PendingEvent.createBatch(routingKey, data, config.isEnableCompression(), ackFuture);
+        synchronized (writeFlushLock) {
+            synchronized (writeSealLock) {
+                getSegmentOutputStreamForKey(routingKey).write(batch);
+            }
+        }
+        return ackFuture;
+    }
+    
     private CompletableFuture<Void> writeEventInternal(String routingKey, Type event) {
         Preconditions.checkNotNull(event);
         Exceptions.checkNotClosed(closed.get(), this);
         ByteBuffer data = serializer.serialize(event);
         CompletableFuture<Void> ackFuture = new CompletableFuture<Void>();
+        PendingEvent pendingEvent = PendingEvent.create(routingKey, data, config.isEnableCompression(), ackFuture);
         synchronized (writeFlushLock) {
             synchronized (writeSealLock) {                
-                SegmentOutputStream segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
-                while (segmentWriter == null) {
-                    log.info("Don't have a writer for segment: {}", selector.getSegmentForEvent(routingKey));
-                    handleMissingLog();
-                    segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
-                }
-                segmentWriter.write(new PendingEvent(routingKey, data, ackFuture));
+                getSegmentOutputStreamForKey(routingKey).write(pendingEvent);
             }
         }
         return ackFuture;
     }
+
+    @GuardedBy("writeSealLock")
+    private SegmentOutputStream getSegmentOutputStreamForKey(String routingKey) {
+        SegmentOutputStream segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
+        while (segmentWriter == null) {
+            log.info("Don't have a writer for segment: {}", selector.getSegmentForEvent(routingKey));
+            handleMissingLog();
+            segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
+        }
+        return segmentWriter;
+    }
     
     @GuardedBy("writeSealLock")
     private void handleMissingLog() {
@@ -303,7 +336,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         for (Segment s : txnSegments.getSteamSegments().getSegments()) {
             SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txnId,
                     config, txnSegments.getSteamSegments().getDelegationToken());
-            SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txnId, out, serializer);
+            SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txnId, out, serializer, config.isEnableCompression());
             transactions.put(s, impl);
         }
         pinger.startPing(txnId);
@@ -322,7 +355,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         Map<Segment, SegmentTransaction<Type>> transactions = new HashMap<>();
         for (Segment s : segments.getSegments()) {
             SegmentOutputStream out = outputStreamFactory.createOutputStreamForTransaction(s, txId, config, segments.getDelegationToken());
-            SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txId, out, serializer);
+            SegmentTransactionImpl<Type> impl = new SegmentTransactionImpl<>(txId, out, serializer, config.isEnableCompression());
             transactions.put(s, impl);
         }
         return new TransactionImpl<Type>(txId, transactions, segments, controller, stream, pinger);
@@ -376,6 +409,7 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
                 }
             }
         }
+        selector.close();
         ExecutorServiceHelpers.shutdown(retransmitPool);
     }
 
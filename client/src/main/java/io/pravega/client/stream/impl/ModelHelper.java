@@ -13,6 +13,8 @@ import com.google.common.base.Preconditions;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.stream.RetentionPolicy;
 import io.pravega.client.stream.ScalingPolicy;
+import io.pravega.client.stream.Stream;
+import io.pravega.client.stream.StreamCut;
 import io.pravega.client.stream.StreamConfiguration;
 import io.pravega.client.stream.Transaction;
 import io.pravega.common.Exceptions;
@@ -360,6 +362,23 @@ public final class ModelHelper {
                 .build();
     }
 
+    /**
+     * Creates a client stream cut from a stream cut received from the controller. A stream cut without any segments
+     * denotes the head of the stream.
+     *
+     * @param streamCut stream cut received from the controller
+     * @return stream cut
+     */
+    public static final StreamCut createStreamCut(final Controller.StreamCut streamCut) {
+        if (streamCut.getCutMap().isEmpty()) {
+            return StreamCut.UNBOUNDED;
+        }
+        String scope = streamCut.getStreamInfo().getScope();
+        String stream = streamCut.getStreamInfo().getStream();
+        return new StreamCutImpl(Stream.of(scope, stream), streamCut.getCutMap().entrySet().stream()
+                .collect(Collectors.toMap(entry -> new Segment(scope, stream, entry.getKey()), Map.Entry::getValue)));
+    }
+
     public static final SuccessorResponse.Builder createSuccessorResponse(Map<SegmentRange, List<Long>> segments) {
         Preconditions.checkNotNull(segments);
         return SuccessorResponse.newBuilder()
@@ -9,9 +9,12 @@
  */
 package io.pravega.client.stream.impl;
 
+import io.pravega.client.segment.impl.EventCompression;
 import io.pravega.client.stream.Serializer;
 import com.google.common.base.Preconditions;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import lombok.Data;
@@ -32,16 +35,74 @@ public class PendingEvent {
      */
     private final ByteBuffer data;
     /**
-     * Callback to be invoked when the data is written.
+     * Callback to be invoked when the data is written. This is null for all but the last event of a batch written using
+     * {@link io.pravega.client.stream.EventStreamWriter#writeEvents(String, java.util.List)}: since the events of a batch
+     * are written to the same segment in order, the last one being acknowledged implies all the others were too.
      */
     private final CompletableFuture<Void> ackFuture;
+    /**
+     * True if data has been compressed using {@link EventCompression}, and needs to be written as a compressed event.
+     */
+    private final boolean compressed;
     
     public PendingEvent(String routingKey, ByteBuffer data, CompletableFuture<Void> ackFuture) {
+        this(routingKey, data, false, ackFuture, false);
+    }
+
+    private PendingEvent(String routingKey, ByteBuffer data, boolean compressed, CompletableFuture<Void> ackFuture,
+                         boolean partOfBatch) {
         Preconditions.checkNotNull(data);
-        Preconditions.checkNotNull(ackFuture);
+        if (!partOfBatch) {
+            Preconditions.checkNotNull(ackFuture);
+        }
         Preconditions.checkArgument(data.remaining() <= MAX_WRITE_SIZE, "Write size too large: %s", data.remaining());
         this.routingKey = routingKey;
         this.data = data;
+        this.compressed = compressed;
         this.ackFuture = ackFuture;
     }
+
+    /**
+     * Creates a PendingEvent, compressing its data if requested and if it is worthwhile.
+     *
+     * @param routingKey The routing key that was provided to route the data.
+     * @param data       The data to be written.
+     * @param compress   True if the data should be compressed (if it is worthwhile).
+     * @param ackFuture  Callback to be invoked when the data is written.
+     * @return A new PendingEvent.
+     */
+    static PendingEvent create(String routingKey, ByteBuffer data, boolean compress, CompletableFuture<Void> ackFuture) {
+        return create(routingKey, data, compress, ackFuture, false);
+    }
+
+    private static PendingEvent create(String routingKey, ByteBuffer data, boolean compress,
+                                       CompletableFuture<Void> ackFuture, boolean partOfBatch) {
+        ByteBuffer compressedData = compress ? EventCompression.compress(data) : null;
+        if (compressedData == null) {
+            return new PendingEvent(routingKey, data, false, ackFuture, partOfBatch);
+        }
+        return new PendingEvent(routingKey, compressedData, true, ackFuture, partOfBatch);
+    }
+
+    /**
+     * Creates the PendingEvents for a batch of events which share the same routing key. Only the last one is given the
+     * ackFuture.
+     *
+     * @param routingKey The routing key of all the events.
+     * @param data       The data of each event, in the order they are to be written. Must not be empty.
+     * @param compress   True if the data of each event should be compressed (if it is worthwhile).
+     * @param ackFuture  Callback to be invoked when all the events are written.
+     * @return The PendingEvents, in the same order as data.
+     */
+    static List<PendingEvent> createBatch(String routingKey, List<ByteBuffer> data, boolean compress,
+                                          CompletableFuture<Void> ackFuture) {
+        Preconditions.checkArgument(!data.isEmpty(), "data must not be empty");
+        Preconditions.checkNotNull(ackFuture);
+        List<PendingEvent> result = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            boolean last = i == data.size() - 1;
+            result.add(create(routingKey, data.get(i), compress, last ? ackFuture : null, !last));
+        }
+        return result;
+    }
 }
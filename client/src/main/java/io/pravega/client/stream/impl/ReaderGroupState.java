@@ -58,7 +58,7 @@ import lombok.val;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class ReaderGroupState implements Revisioned {
 
-    private static final long ASSUMED_LAG_MILLIS = 30000;
+    static final long ASSUMED_LAG_MILLIS = 30000;
     private final String scopedSynchronizerStream;
     @Getter
     private final ReaderGroupConfig config;
@@ -77,6 +77,8 @@ public class ReaderGroupState implements Revisioned {
     @GuardedBy("$lock")
     private final Map<Segment, Long> unassignedSegments;
     private final Map<Segment, Long> endSegments;
+    @GuardedBy("$lock")
+    private final Map<Segment, Long> segmentLoads;
     
     ReaderGroupState(String scopedSynchronizerStream, Revision revision, ReaderGroupConfig config, Map<Segment, Long> segmentsToOffsets,
                      Map<Segment, Long> endSegments) {
@@ -93,6 +95,7 @@ public class ReaderGroupState implements Revisioned {
         this.assignedSegments = new HashMap<>();
         this.unassignedSegments = new LinkedHashMap<>(segmentsToOffsets);
         this.endSegments = ImmutableMap.copyOf(endSegments);
+        this.segmentLoads = new HashMap<>();
     }
     
     /**
@@ -101,6 +104,9 @@ public class ReaderGroupState implements Revisioned {
      */
     @Synchronized
     Map<String, Double> getRelativeSizes() {
+        if (config.isLoadAwareAssignment() && !segmentLoads.isEmpty()) {
+            return getRelativeLoads();
+        }
         long maxDistance = Long.MIN_VALUE;
         Map<String, Double> result = new HashMap<>();
         for (Entry<String, Long> entry : distanceToTail.entrySet()) {
@@ -119,6 +125,45 @@ public class ReaderGroupState implements Revisioned {
         }
         return result;
     }
+
+    /**
+     * Same as {@link #getRelativeSizes()}, but based on the reported load of each segment, so that 1.0 is equal to the
+     * load of the busiest segment.
+     */
+    @GuardedBy("$lock")
+    private Map<String, Double> getRelativeLoads() {
+        double maxLoad = Math.max(1, segmentLoads.values().stream().mapToLong(Long::longValue).max().orElse(1));
+        Map<String, Double> result = new HashMap<>();
+        for (Entry<String, Long> entry : getReaderLoads().entrySet()) {
+            result.put(entry.getKey(), entry.getValue() / maxLoad);
+        }
+        return result;
+    }
+
+    /**
+     * @return A map from Reader to the sum of the reported loads (bytes per second) of the segments assigned to it.
+     *         Segments whose load has not been reported count as having no load.
+     */
+    @Synchronized
+    Map<String, Long> getReaderLoads() {
+        Map<String, Long> result = new HashMap<>();
+        for (Entry<String, Map<Segment, Long>> entry : assignedSegments.entrySet()) {
+            long load = 0;
+            for (Segment segment : entry.getValue().keySet()) {
+                load += segmentLoads.getOrDefault(segment, 0L);
+            }
+            result.put(entry.getKey(), load);
+        }
+        return result;
+    }
+
+    /**
+     * @return The last reported load (bytes per second) of the given segment, or 0 if it was never reported.
+     */
+    @Synchronized
+    long getSegmentLoad(Segment segment) {
+        return segmentLoads.getOrDefault(segment, 0L);
+    }
     
     @Synchronized
     int getNumberOfReaders() {
@@ -344,6 +389,7 @@ public class ReaderGroupState implements Revisioned {
         private final Map<String, Map<Segment, Long>> assignedSegments;
         private final Map<Segment, Long> unassignedSegments;
         private final Map<Segment, Long> endSegments;
+        private final Map<Segment, Long> segmentLoads;
         
         CompactReaderGroupState(ReaderGroupState state) {
             synchronized (state.$lock) {
@@ -360,13 +406,16 @@ public class ReaderGroupState implements Revisioned {
                 }
                 unassignedSegments = new LinkedHashMap<>(state.unassignedSegments);
                 endSegments = state.endSegments;
+                segmentLoads = new HashMap<>(state.segmentLoads);
             }
         }
         
         @Override
         public ReaderGroupState create(String scopedStreamName, Revision revision) {
+            // Segment loads are not present in states that were compacted before they were introduced.
             return new ReaderGroupState(scopedStreamName, config, revision, checkpointState, distanceToTail,
-                                        futureSegments, assignedSegments, unassignedSegments, endSegments);
+                                        futureSegments, assignedSegments, unassignedSegments, endSegments,
+                                        segmentLoads == null ? new HashMap<>() : new HashMap<>(segmentLoads));
         }
         
         @VisibleForTesting
@@ -387,7 +436,8 @@ public class ReaderGroupState implements Revisioned {
 
             @Override
             protected void declareVersions() {
-                version(0).revision(0, this::write00, this::read00);
+                version(0).revision(0, this::write00, this::read00)
+                          .revision(1, this::write01, this::read01);
             }
 
             private void read00(RevisionDataInput revisionDataInput, CompactReaderGroupStateBuilder builder) throws IOException {
@@ -419,6 +469,16 @@ public class ReaderGroupState implements Revisioned {
                 revisionDataOutput.writeMap(object.unassignedSegments, segmentSerializer, longSerializer);
                 revisionDataOutput.writeMap(object.endSegments, segmentSerializer, longSerializer);
             }
+
+            private void read01(RevisionDataInput revisionDataInput, CompactReaderGroupStateBuilder builder) throws IOException {
+                ElementDeserializer<Segment> segmentDeserializer = in -> Segment.fromScopedName(in.readUTF());
+                builder.segmentLoads(revisionDataInput.readMap(segmentDeserializer, RevisionDataInput::readLong));
+            }
+
+            private void write01(CompactReaderGroupState object, RevisionDataOutput revisionDataOutput) throws IOException {
+                ElementSerializer<Segment> segmentSerializer = (out, segment) -> out.writeUTF(segment.getScopedName());
+                revisionDataOutput.writeMap(object.segmentLoads, segmentSerializer, RevisionDataOutput::writeLong);
+            }
         }
     }
     
@@ -699,7 +759,10 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            state.distanceToTail.put(readerId, Math.max(ASSUMED_LAG_MILLIS, distanceToTail));
+            // This may be applied unconditionally, so it may arrive after the reader has been removed.
+            if (state.assignedSegments.containsKey(readerId)) {
+                state.distanceToTail.put(readerId, Math.max(ASSUMED_LAG_MILLIS, distanceToTail));
+            }
         }
 
         private static class UpdateDistanceToTailBuilder implements ObjectBuilder<UpdateDistanceToTail> {
@@ -735,6 +798,66 @@ public class ReaderGroupState implements Revisioned {
         }
     }
     
+    /**
+     * Records the load (bytes per second) of the segments a reader is reading from. Loads of segments which are not
+     * (or no longer) assigned to the reader are ignored, so this may be applied unconditionally.
+     */
+    @Builder
+    @RequiredArgsConstructor
+    static class UpdateSegmentLoads extends ReaderGroupStateUpdate {
+
+        private final String readerId;
+        private final Map<Segment, Long> segmentLoads; //Immutable
+
+        /**
+         * @see ReaderGroupState.ReaderGroupStateUpdate#update(ReaderGroupState)
+         */
+        @Override
+        void update(ReaderGroupState state) {
+            Map<Segment, Long> assigned = state.assignedSegments.get(readerId);
+            if (assigned == null) {
+                return;
+            }
+            for (Entry<Segment, Long> entry : segmentLoads.entrySet()) {
+                if (assigned.containsKey(entry.getKey())) {
+                    state.segmentLoads.put(entry.getKey(), Math.max(0, entry.getValue()));
+                }
+            }
+        }
+
+        private static class UpdateSegmentLoadsBuilder implements ObjectBuilder<UpdateSegmentLoads> {
+
+        }
+
+        private static class UpdateSegmentLoadsSerializer
+                extends VersionedSerializer.WithBuilder<UpdateSegmentLoads, UpdateSegmentLoadsBuilder> {
+            @Override
+            protected UpdateSegmentLoadsBuilder newBuilder() {
+                return builder();
+            }
+
+            @Override
+            protected byte getWriteVersion() {
+                return 0;
+            }
+
+            @Override
+            protected void declareVersions() {
+                version(0).revision(0, this::write00, this::read00);
+            }
+
+            private void read00(RevisionDataInput in, UpdateSegmentLoadsBuilder builder) throws IOException {
+                builder.readerId(in.readUTF());
+                builder.segmentLoads(in.readMap(i -> Segment.fromScopedName(i.readUTF()), RevisionDataInput::readLong));
+            }
+
+            private void write00(UpdateSegmentLoads object, RevisionDataOutput out) throws IOException {
+                out.writeUTF(object.readerId);
+                out.writeMap(object.segmentLoads, (o, segment) -> o.writeUTF(segment.getScopedName()), RevisionDataOutput::writeLong);
+            }
+        }
+    }
+    
     /**
      * Updates a position object when the reader has completed a segment.
      */
@@ -757,6 +880,7 @@ public class ReaderGroupState implements Revisioned {
                 throw new IllegalStateException(
                         readerId + " asked to complete a segment that was not assigned to it " + segmentCompleted);
             }
+            state.segmentLoads.remove(segmentCompleted);
             for (Entry<Segment, List<Long>> entry : successorsMappedToTheirPredecessors.entrySet()) {
                 if (!state.futureSegments.containsKey(entry.getKey())) {
                     Set<Long> requiredToComplete = new HashSet<>(entry.getValue());
@@ -981,7 +1105,8 @@ public class ReaderGroupState implements Revisioned {
              .serializer(SegmentCompleted.class, 7, new SegmentCompleted.SegmentCompletedSerializer())
              .serializer(CheckpointReader.class, 8, new CheckpointReader.CheckpointReaderSerializer())
              .serializer(CreateCheckpoint.class, 9, new CreateCheckpoint.CreateCheckpointSerializer())
-             .serializer(ClearCheckpointsBefore.class, 10, new ClearCheckpointsBefore.ClearCheckpointsBeforeSerializer());
+             .serializer(ClearCheckpointsBefore.class, 10, new ClearCheckpointsBefore.ClearCheckpointsBeforeSerializer())
+             .serializer(UpdateSegmentLoads.class, 11, new UpdateSegmentLoads.UpdateSegmentLoadsSerializer());
         }
     }
     
@@ -13,6 +13,8 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.state.StateSynchronizer;
+import io.pravega.client.state.StateSynchronizer.UpdateGenerator;
+import io.pravega.client.state.StateSynchronizer.UpdateGeneratorFunction;
 import io.pravega.client.stream.Position;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.impl.ReaderGroupState.AcquireSegment;
@@ -24,6 +26,7 @@ import io.pravega.client.stream.impl.ReaderGroupState.ReleaseSegment;
 import io.pravega.client.stream.impl.ReaderGroupState.RemoveReader;
 import io.pravega.client.stream.impl.ReaderGroupState.SegmentCompleted;
 import io.pravega.client.stream.impl.ReaderGroupState.UpdateDistanceToTail;
+import io.pravega.client.stream.impl.ReaderGroupState.UpdateSegmentLoads;
 import io.pravega.common.TimeoutTimer;
 import io.pravega.common.hash.HashHelper;
 import java.time.Duration;
@@ -36,7 +39,10 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -62,14 +68,27 @@ import static io.pravega.common.concurrent.Futures.getAndHandleExceptions;
  * Finally when a segment is sealed it may have one or more successors. So when a reader comes to the end of a
  * segment it should call {@link #handleEndOfSegment(Segment)} so that it can continue reading from the
  * successor to that segment.
+ * 
+ * If the reader group is configured with {@link io.pravega.client.stream.ReaderGroupConfig#isBatchedCoordination()},
+ * distance-to-tail reports are not included in the (conditional) acquire and release updates. Instead the latest
+ * report is kept locally and published as an unconditional update at most once per group refresh interval, and the
+ * probability of compacting the state is scaled down by the number of readers. Both reduce the number of conflicting
+ * updates when there are many readers in the group.
+ * 
+ * If the reader group is configured with {@link io.pravega.client.stream.ReaderGroupConfig#isLoadAwareAssignment()},
+ * readers periodically publish the rate at which they read from each of their segments (see
+ * {@link #updateReadProgress(Map)}), and segments are released so as to equalize the load of the readers rather than
+ * the number of segments they own.
  */
 @Slf4j
 public class ReaderGroupStateManager {
     
     static final Duration TIME_UNIT = Duration.ofMillis(1000);
     static final Duration UPDATE_WINDOW = Duration.ofMillis(30000);
+    static final Duration LOAD_REPORT_INTERVAL = Duration.ofMillis(10000);
     private static final double COMPACTION_PROBABILITY = 0.05;
     private static final int MIN_BYTES_BETWEEN_COMPACTIONS = 512 * 1024;
+    private static final long NO_PENDING_DISTANCE = Long.MIN_VALUE;
     private final Object decisionLock = new Object();
     private final HashHelper hashHelper;
     @Getter
@@ -80,6 +99,18 @@ public class ReaderGroupStateManager {
     private final TimeoutTimer acquireTimer;
     private final TimeoutTimer fetchStateTimer;
     private final TimeoutTimer checkpointTimer;
+    private final TimeoutTimer loadReportTimer;
+    private final SegmentSuccessorsCache successorsCache;
+    private final Supplier<Long> nanoClock;
+    private final AtomicLong pendingDistanceToTail = new AtomicLong(NO_PENDING_DISTANCE);
+    private final AtomicLong publishedDistanceToTail = new AtomicLong(NO_PENDING_DISTANCE);
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong updateConflictCount = new AtomicLong();
+    private final AtomicLong updateLatencyNanos = new AtomicLong();
+    @GuardedBy("decisionLock")
+    private final Map<Segment, Long> loadReportOffsets = new HashMap<>();
+    @GuardedBy("decisionLock")
+    private long loadReportTime;
 
     ReaderGroupStateManager(String readerId, StateSynchronizer<ReaderGroupState> sync, Controller controller, Supplier<Long> nanoClock) {
         Preconditions.checkNotNull(readerId);
@@ -89,20 +120,23 @@ public class ReaderGroupStateManager {
         this.hashHelper = HashHelper.seededWith(readerId);
         this.sync = sync;
         this.controller = controller;
+        this.successorsCache = new SegmentSuccessorsCache(controller);
         if (nanoClock == null) {
             nanoClock = System::nanoTime;
         }
+        this.nanoClock = nanoClock;
         releaseTimer = new TimeoutTimer(TIME_UNIT, nanoClock);
         acquireTimer = new TimeoutTimer(TIME_UNIT, nanoClock);
         fetchStateTimer = new TimeoutTimer(TIME_UNIT, nanoClock);
         checkpointTimer = new TimeoutTimer(TIME_UNIT, nanoClock);
+        loadReportTimer = new TimeoutTimer(TIME_UNIT, nanoClock);
     }
 
     /**
      * Add this reader to the reader group so that it is able to acquire segments
      */
     void initializeReader(long initialAllocationDelay) {
-        boolean alreadyAdded = sync.updateState((state, updates) -> {
+        boolean alreadyAdded = updateState((state, updates) -> {
             if (state.getSegments(readerId) == null) {
                 log.debug("Adding reader {} to reader grop. CurrentState is: {}", readerId, state);
                 updates.add(new AddReader(readerId));
@@ -148,23 +182,25 @@ public class ReaderGroupStateManager {
     }
     
     void close() {
+        successorsCache.close();
         sync.close();
     }
 
     /**
-     * Handles a segment being completed by calling the controller to gather all successors to the completed segment.
+     * Handles a segment being completed by gathering all successors to the completed segment. These are usually
+     * already known from the epoch transitions published by the controller, and are fetched from it otherwise.
      */
     void handleEndOfSegment(Segment segmentCompleted, boolean fetchSuccesors) throws ReinitializationRequiredException {
         final Map<Segment, List<Long>> segmentToPredecessor;
         if (fetchSuccesors) {
-            val successors = getAndHandleExceptions(controller.getSuccessors(segmentCompleted), RuntimeException::new);
+            val successors = getAndHandleExceptions(successorsCache.getSuccessors(segmentCompleted), RuntimeException::new);
             segmentToPredecessor = successors.getSegmentToPredecessor();
         } else {
             segmentToPredecessor = Collections.emptyMap();
         }
 
         AtomicBoolean reinitRequired = new AtomicBoolean(false);
-        sync.updateState((state, updates) -> {
+        updateState((state, updates) -> {
             if (!state.isReaderOnline(readerId)) {
                 reinitRequired.set(true);
             } else {
@@ -204,6 +240,9 @@ public class ReaderGroupStateManager {
      * the reader with the least assigned to it.
      */
     private boolean doesReaderOwnTooManySegments(ReaderGroupState state) {
+        if (isLoadKnown(state)) {
+            return findSegmentToShed(state) != null;
+        }
         Map<String, Double> sizesOfAssignemnts = state.getRelativeSizes();
         Set<Segment> assignedSegments = state.getSegments(readerId);
         if (sizesOfAssignemnts.isEmpty() || assignedSegments == null || assignedSegments.size() <= 1) {
@@ -217,13 +256,56 @@ public class ReaderGroupStateManager {
      * Given a set of segments returns one to release. The one returned is arbitrary.
      */
     private Segment findSegmentToRelease() {
-        Set<Segment> segments = sync.getState().getSegments(readerId);
+        ReaderGroupState state = sync.getState();
+        if (isLoadKnown(state)) {
+            return findSegmentToShed(state);
+        }
+        Set<Segment> segments = state.getSegments(readerId);
         return segments.stream()
                        .max((s1, s2) -> Double.compare(hashHelper.hashToRange(s1.getScopedName()),
                                                        hashHelper.hashToRange(s2.getScopedName())))
                        .orElse(null);
     }
 
+    /**
+     * Returns true if the reader group uses load aware assignment and the load of at least one assigned segment is known.
+     */
+    private boolean isLoadKnown(ReaderGroupState state) {
+        return state.getConfig().isLoadAwareAssignment()
+                && state.getReaderLoads().values().stream().anyMatch(load -> load > 0);
+    }
+
+    /**
+     * If this reader's load exceeds the average load per reader by more than the configured tolerance, returns the
+     * segment whose move to the least loaded reader would best even out the two readers' loads (or null if moving
+     * any of them would not reduce the imbalance).
+     */
+    private Segment findSegmentToShed(ReaderGroupState state) {
+        Set<Segment> segments = state.getSegments(readerId);
+        Map<String, Long> loads = state.getReaderLoads();
+        if (segments == null || segments.size() <= 1 || loads.isEmpty()) {
+            return null;
+        }
+        long load = loads.get(readerId);
+        long minLoad = loads.values().stream().mapToLong(Long::longValue).min().getAsLong();
+        double averageLoad = loads.values().stream().mapToLong(Long::longValue).average().getAsDouble();
+        if (load <= averageLoad * (1 + state.getConfig().getLoadImbalanceTolerance())) {
+            return null;
+        }
+        double idealLoadToShed = (load - minLoad) / 2.0;
+        Segment result = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (Segment segment : segments) {
+            long segmentLoad = state.getSegmentLoad(segment);
+            double distance = Math.abs(segmentLoad - idealLoadToShed);
+            if (segmentLoad > 0 && minLoad + segmentLoad < load && distance < bestDistance) {
+                result = segment;
+                bestDistance = distance;
+            }
+        }
+        return result;
+    }
+
     /**
      * Fetch the configured end offset for a configured segment. If end offset is not configured return Long.MAX_VALUE.
      *
@@ -244,14 +326,20 @@ public class ReaderGroupStateManager {
      * @throws ReinitializationRequiredException If the reader has been declared offline.
      */
     boolean releaseSegment(Segment segment, long lastOffset, long timeLag) throws ReinitializationRequiredException {
-        sync.updateState((state, updates) -> {
+        boolean batched = sync.getState().getConfig().isBatchedCoordination();
+        updateState((state, updates) -> {
             Set<Segment> segments = state.getSegments(readerId);
             if (segments != null && segments.contains(segment) && state.getCheckpointForReader(readerId) == null
                     && doesReaderOwnTooManySegments(state)) {
                 updates.add(new ReleaseSegment(readerId, segment, lastOffset));
-                updates.add(new UpdateDistanceToTail(readerId, timeLag));
+                if (!batched) {
+                    updates.add(new UpdateDistanceToTail(readerId, timeLag));
+                }
             }
         });
+        if (batched) {
+            pendingDistanceToTail.set(timeLag);
+        }
         ReaderGroupState state = sync.getState();
         releaseTimer.reset(calculateReleaseTime(readerId, state));
         acquireTimer.reset(calculateAcquireTime(readerId, state));
@@ -271,16 +359,71 @@ public class ReaderGroupStateManager {
      * @return A map from the new segment that was acquired to the offset to begin reading from within the segment.
      */
     Map<Segment, Long> acquireNewSegmentsIfNeeded(long timeLag) throws ReinitializationRequiredException {
+        if (sync.getState().getConfig().isBatchedCoordination()) {
+            pendingDistanceToTail.set(timeLag);
+        }
         fetchUpdatesIfNeeded();
         if (shouldAcquireSegment()) {
-            return acquireSegment(timeLag);
+            Map<Segment, Long> acquired = acquireSegment(timeLag);
+            acquired.keySet().forEach(segment -> successorsCache.watch(segment.getStream()));
+            return acquired;
         } else {
             return Collections.emptyMap();
         }
     }
 
+    /**
+     * Gets a value indicating whether the reader group uses load aware assignment, which is the only case in which
+     * {@link #updateReadProgress(Map)} needs to be invoked.
+     *
+     * @return True if the reader group uses load aware assignment, false otherwise.
+     */
+    boolean isLoadAwareAssignment() {
+        return sync.getState().getConfig().isLoadAwareAssignment();
+    }
+
+    /**
+     * Records how far this reader has read into each of the segments it owns. If the reader group uses load aware
+     * assignment, this is used to periodically publish the rate at which each of these segments is being read (as an
+     * unconditional update, since each reader only reports on its own segments).
+     *
+     * @param offsets The current read offsets of the segments owned by this reader.
+     */
+    void updateReadProgress(Map<Segment, Long> offsets) {
+        if (!isLoadAwareAssignment()) {
+            return;
+        }
+        Map<Segment, Long> segmentLoads = new HashMap<>();
+        synchronized (decisionLock) {
+            if (loadReportTimer.hasRemaining()) {
+                return;
+            }
+            long now = nanoClock.get();
+            long elapsedNanos = now - loadReportTime;
+            if (!loadReportOffsets.isEmpty() && elapsedNanos > 0) {
+                for (Entry<Segment, Long> entry : offsets.entrySet()) {
+                    Long previousOffset = loadReportOffsets.get(entry.getKey());
+                    if (previousOffset != null && entry.getValue() >= previousOffset) {
+                        segmentLoads.put(entry.getKey(), (long) ((entry.getValue() - previousOffset) * 1e9 / elapsedNanos));
+                    }
+                }
+            }
+            loadReportOffsets.clear();
+            loadReportOffsets.putAll(offsets);
+            loadReportTime = now;
+            loadReportTimer.reset(LOAD_REPORT_INTERVAL);
+        }
+        if (!segmentLoads.isEmpty()) {
+            long startTime = nanoClock.get();
+            sync.updateStateUnconditionally(new UpdateSegmentLoads(readerId, segmentLoads));
+            recordUpdate(startTime, 1);
+            sync.fetchUpdates();
+        }
+    }
+
     private void fetchUpdatesIfNeeded() {
         if (!fetchStateTimer.hasRemaining()) {
+            publishDistanceToTailIfNeeded();
             sync.fetchUpdates();
             long groupRefreshTimeMillis = sync.getState().getConfig().getGroupRefreshTimeMillis();
             fetchStateTimer.reset(Duration.ofMillis(groupRefreshTimeMillis));
@@ -288,10 +431,39 @@ public class ReaderGroupStateManager {
         }
     }
     
+    /**
+     * Publishes the last distance-to-tail reported by this reader (if any) using an unconditional update. This is
+     * only used with batched coordination; the update is commutative with respect to all other readers' updates, so
+     * there is no need to risk a conflict (and a retry) for it. Nothing is published if the value would not change
+     * the state (all distances below the assumed lag are equivalent).
+     *
+     * @return True if an update was published (the local state does not reflect it until updates are fetched).
+     */
+    private boolean publishDistanceToTailIfNeeded() {
+        long pending = pendingDistanceToTail.getAndSet(NO_PENDING_DISTANCE);
+        if (pending == NO_PENDING_DISTANCE) {
+            return false;
+        }
+        long distance = Math.max(ReaderGroupState.ASSUMED_LAG_MILLIS, pending);
+        if (publishedDistanceToTail.getAndSet(distance) == distance) {
+            return false;
+        }
+        long startTime = nanoClock.get();
+        sync.updateStateUnconditionally(new UpdateDistanceToTail(readerId, distance));
+        recordUpdate(startTime, 1);
+        return true;
+    }
+
     private void compactIfNeeded() {
         //Make sure it has been a while, and compaction are staggered.
-        if (sync.bytesWrittenSinceCompaction() > MIN_BYTES_BETWEEN_COMPACTIONS && Math.random() < COMPACTION_PROBABILITY) {
-            log.debug("Compacting reader group state {}", sync.getState());
+        ReaderGroupState state = sync.getState();
+        double probability = COMPACTION_PROBABILITY;
+        if (state.getConfig().isBatchedCoordination()) {
+            // Aim for roughly one reader compacting per refresh interval, regardless of how many readers there are.
+            probability = Math.min(COMPACTION_PROBABILITY, 1.0 / Math.max(1, state.getNumberOfReaders()));
+        }
+        if (sync.bytesWrittenSinceCompaction() > MIN_BYTES_BETWEEN_COMPACTIONS && Math.random() < probability) {
+            log.debug("Compacting reader group state {}. Coordination stats for {}: {}", state, readerId, getCoordinationStats());
             sync.compact(s -> new ReaderGroupState.CompactReaderGroupState(s));
         }
     }
@@ -322,7 +494,8 @@ public class ReaderGroupStateManager {
 
     private Map<Segment, Long> acquireSegment(long timeLag) throws ReinitializationRequiredException {
         AtomicBoolean reinitRequired = new AtomicBoolean();
-        Map<Segment, Long> result = sync.updateState((state, updates) -> {
+        boolean batched = sync.getState().getConfig().isBatchedCoordination();
+        Map<Segment, Long> result = updateState((state, updates) -> {
             if (!state.isReaderOnline(readerId)) {
                 reinitRequired.set(true);
                 return Collections.<Segment, Long>emptyMap();
@@ -344,12 +517,22 @@ public class ReaderGroupStateManager {
                 acquired.put(segment.getKey(), segment.getValue());
                 updates.add(new AcquireSegment(readerId, segment.getKey()));
             }
-            updates.add(new UpdateDistanceToTail(readerId, timeLag));
+            if (!batched) {
+                updates.add(new UpdateDistanceToTail(readerId, timeLag));
+            }
             return acquired;
         });
         if (reinitRequired.get()) {
             throw new ReinitializationRequiredException();
         }
+        if (batched && !result.isEmpty()) {
+            // Other readers rank this one based on its distance, so don't wait for the next refresh to publish it.
+            pendingDistanceToTail.set(timeLag);
+            if (publishDistanceToTailIfNeeded()) {
+                // Otherwise our next conditional update would conflict with our own unconditional one.
+                sync.fetchUpdates();
+            }
+        }
         releaseTimer.reset(calculateReleaseTime(readerId, sync.getState()));
         acquireTimer.reset(calculateAcquireTime(readerId, sync.getState()));
         return result;
@@ -388,7 +571,7 @@ public class ReaderGroupStateManager {
         if (automaticCpInterval <= 0 || checkpointTimer.hasRemaining() || state.hasOngoingCheckpoint()) {
             return null;
         }
-        sync.updateState((s, u) -> {
+        updateState((s, u) -> {
             if (!s.hasOngoingCheckpoint()) {
                 CreateCheckpoint newCp = new CreateCheckpoint();
                 u.add(newCp);
@@ -402,7 +585,7 @@ public class ReaderGroupStateManager {
     
     void checkpoint(String checkpointName, PositionInternal lastPosition) throws ReinitializationRequiredException {
         AtomicBoolean reinitRequired = new AtomicBoolean(false);
-        sync.updateState((state, updates) -> {
+        updateState((state, updates) -> {
             if (!state.isReaderOnline(readerId)) {
                 reinitRequired.set(true);
             } else {
@@ -418,4 +601,74 @@ public class ReaderGroupStateManager {
     public String getOrRefreshDelegationTokenFor(Segment segmentId) {
             return getAndHandleExceptions(controller.getOrRefreshDelegationTokenFor(segmentId.getScope(), segmentId.getStreamName()), RuntimeException::new);
     }
+
+    /**
+     * @return The statistics about the conditional updates this reader made to the reader group state.
+     */
+    CoordinationStats getCoordinationStats() {
+        long updates = updateCount.get();
+        long averageLatency = updates == 0 ? 0 : updateLatencyNanos.get() / updates;
+        return new CoordinationStats(updates, updateConflictCount.get(), Duration.ofNanos(averageLatency));
+    }
+
+    /**
+     * Same as {@link StateSynchronizer#updateState(UpdateGenerator)}, but records the number of attempts (each attempt
+     * after the first one is due to a conflicting update from another reader) and the time it took.
+     */
+    private void updateState(UpdateGenerator<ReaderGroupState> updateGenerator) {
+        AtomicLong attempts = new AtomicLong();
+        long startTime = nanoClock.get();
+        sync.updateState((state, updates) -> {
+            attempts.incrementAndGet();
+            updateGenerator.accept(state, updates);
+        });
+        recordUpdate(startTime, attempts.get());
+    }
+
+    /**
+     * Same as {@link StateSynchronizer#updateState(UpdateGeneratorFunction)}, but records the number of attempts (each
+     * attempt after the first one is due to a conflicting update from another reader) and the time it took.
+     */
+    private <ReturnT> ReturnT updateState(UpdateGeneratorFunction<ReaderGroupState, ReturnT> updateGenerator) {
+        AtomicLong attempts = new AtomicLong();
+        long startTime = nanoClock.get();
+        ReturnT result = sync.updateState((state, updates) -> {
+            attempts.incrementAndGet();
+            return updateGenerator.apply(state, updates);
+        });
+        recordUpdate(startTime, attempts.get());
+        return result;
+    }
+
+    private void recordUpdate(long startTime, long attempts) {
+        updateCount.incrementAndGet();
+        updateConflictCount.addAndGet(Math.max(0, attempts - 1));
+        updateLatencyNanos.addAndGet(Math.max(0, nanoClock.get() - startTime));
+    }
+
+    /**
+     * Statistics about the updates a reader made to the reader group state.
+     */
+    @Data
+    static class CoordinationStats {
+        /**
+         * The number of updates made.
+         */
+        private final long updateCount;
+        /**
+         * The number of times an update had to be regenerated because of a conflicting update by another reader.
+         */
+        private final long conflictCount;
+        /**
+         * The average time it took to apply an update.
+         */
+        private final Duration averageLatency;
+
+        /**
+         * @return The number of conflicts per update.
+         */
+        double getConflictRate() {
+            return updateCount == 0 ? 0 : (double) conflictCount / updateCount;
+        }
+    }
 }
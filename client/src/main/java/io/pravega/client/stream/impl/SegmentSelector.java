@@ -28,7 +28,6 @@ import java.util.Map.Entry;
 import java.util.Random;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.GuardedBy;
-import lombok.RequiredArgsConstructor;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,8 +38,7 @@ import lombok.extern.slf4j.Slf4j;
  * has been sealed.
  */
 @Slf4j
-@RequiredArgsConstructor
-public class SegmentSelector {
+public class SegmentSelector implements AutoCloseable {
 
     private final Stream stream;
     private final Controller controller;
@@ -52,6 +50,16 @@ public class SegmentSelector {
     @GuardedBy("$lock")
     private final Map<Segment, SegmentOutputStream> writers = new HashMap<>();
     private final EventWriterConfig config;
+    private final SegmentSuccessorsCache successorsCache;
+
+    public SegmentSelector(Stream stream, Controller controller, SegmentOutputStreamFactory outputStreamFactory,
+                           EventWriterConfig config) {
+        this.stream = stream;
+        this.controller = controller;
+        this.outputStreamFactory = outputStreamFactory;
+        this.config = config;
+        this.successorsCache = new SegmentSuccessorsCache(controller);
+    }
 
     /**
      * Selects which segment an event should be written to.
@@ -83,7 +91,7 @@ public class SegmentSelector {
     public List<PendingEvent> refreshSegmentEventWritersUponSealed(Segment sealedSegment, Consumer<Segment>
             segmentSealedCallback) {
         StreamSegmentsWithPredecessors successors = Futures.getAndHandleExceptions(
-                controller.getSuccessors(sealedSegment), t -> {
+                successorsCache.getSuccessors(sealedSegment), t -> {
                     log.error("Error while fetching successors for segment: {}", sealedSegment, t);
                     return null;
                 });
@@ -91,8 +99,10 @@ public class SegmentSelector {
         if (successors == null) {
             // Stream is deleted, complete all pending writes exceptionally.
             log.error("Stream is deleted, all pending writes will be completed exceptionally");
-            removeAllWriters().forEach(event -> event.getAckFuture()
-                    .completeExceptionally(new NoSuchSegmentException(sealedSegment.toString())));
+            removeAllWriters().stream()
+                              .filter(event -> event.getAckFuture() != null)
+                              .forEach(event -> event.getAckFuture()
+                                      .completeExceptionally(new NoSuchSegmentException(sealedSegment.toString())));
             return Collections.emptyList();
         } else {
             return updateSegmentsUponSealed(successors, sealedSegment, segmentSealedCallback);
@@ -108,6 +118,8 @@ public class SegmentSelector {
      */
     public List<PendingEvent> refreshSegmentEventWriters(Consumer<Segment> segmentSealedCallBack) {
         log.info("Refreshing segments for stream {}", stream);
+        // Learn about scale events as they happen, so successors of sealed segments are usually known in advance.
+        successorsCache.watch(stream);
         return updateSegments(Futures.getAndHandleExceptions(
                 controller.getCurrentSegments(stream.getScope(), stream.getStreamName()), RuntimeException::new),
                 segmentSealedCallBack);
@@ -181,4 +193,9 @@ public class SegmentSelector {
         return new ArrayList<>(writers.values());
     }
 
+    @Override
+    public void close() {
+        successorsCache.close();
+    }
+
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.stream.Stream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.RequiredArgsConstructor;
+import lombok.Synchronized;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the successors of sealed segments as published by the controller through epoch transitions, so that
+ * after a scale readers and writers do not all ask the controller for them at the same time. Lookups of segments
+ * whose transition has not been seen fall back to {@link Controller#getSuccessors(Segment)}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SegmentSuccessorsCache implements AutoCloseable {
+    // Upper bound on the number of sealed segments remembered across all watched streams.
+    private static final int MAX_CACHED_SEGMENTS = 1000;
+
+    private final Controller controller;
+    @GuardedBy("$lock")
+    private final Map<Stream, EpochTransitionSubscription> subscriptions = new HashMap<>();
+    @GuardedBy("$lock")
+    private final Map<Segment, StreamSegmentsWithPredecessors> successors = new LinkedHashMap<>();
+    @GuardedBy("$lock")
+    private boolean closed;
+
+    /**
+     * Starts watching the epoch transitions of the given stream, if not already watching it.
+     *
+     * @param stream The stream to watch.
+     */
+    @Synchronized
+    void watch(Stream stream) {
+        if (closed || subscriptions.containsKey(stream)) {
+            return;
+        }
+        try {
+            EpochTransitionSubscription subscription = controller.watchEpochTransitions(stream, this::onTransition);
+            if (subscription != null) {
+                subscriptions.put(stream, subscription);
+            }
+        } catch (Exception e) {
+            // Successors will be fetched on demand.
+            log.warn("Unable to watch epoch transitions of stream {}", stream, e);
+        }
+    }
+
+    /**
+     * Returns the successors of the given sealed segment, from the cache if a transition replacing it has been seen
+     * and from the controller otherwise.
+     *
+     * @param sealedSegment The sealed segment.
+     * @return A future which, upon completion, holds the successors of the segment.
+     */
+    CompletableFuture<StreamSegmentsWithPredecessors> getSuccessors(Segment sealedSegment) {
+        StreamSegmentsWithPredecessors cached = removeCached(sealedSegment);
+        if (cached != null) {
+            log.debug("Using successors of segment {} published by the controller", sealedSegment);
+            return CompletableFuture.completedFuture(cached);
+        }
+        return controller.getSuccessors(sealedSegment);
+    }
+
+    @Synchronized
+    private StreamSegmentsWithPredecessors removeCached(Segment sealedSegment) {
+        return successors.remove(sealedSegment);
+    }
+
+    @Synchronized
+    private void onTransition(StreamEpochTransition transition) {
+        Stream stream = transition.getStream();
+        for (List<Long> predecessors : transition.getNewSegments().values()) {
+            for (Long predecessor : predecessors) {
+                Segment sealed = new Segment(stream.getScope(), stream.getStreamName(), predecessor);
+                if (!successors.containsKey(sealed)) {
+                    successors.put(sealed, transition.getSuccessors(sealed));
+                }
+            }
+        }
+        // Evict the oldest entries; their successors will be fetched on demand if ever needed.
+        Iterator<Segment> oldest = successors.keySet().iterator();
+        while (successors.size() > MAX_CACHED_SEGMENTS) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    @Override
+    @Synchronized
+    public void close() {
+        closed = true;
+        subscriptions.values().forEach(EpochTransitionSubscription::close);
+        subscriptions.clear();
+        successors.clear();
+    }
+}
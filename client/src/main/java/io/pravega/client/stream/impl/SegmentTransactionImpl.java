@@ -32,11 +32,17 @@ final class SegmentTransactionImpl<Type> implements SegmentTransaction<Type> {
     @GuardedBy("lock")
     private final LinkedList<CompletableFuture<Void>> outstanding = new LinkedList<>();
     private final AtomicReference<Throwable> txnFailedCause = new AtomicReference<>();
+    private final boolean compress;
 
     SegmentTransactionImpl(UUID txId, SegmentOutputStream out, Serializer<Type> serializer) {
+        this(txId, out, serializer, false);
+    }
+
+    SegmentTransactionImpl(UUID txId, SegmentOutputStream out, Serializer<Type> serializer, boolean compress) {
         this.txId = txId;
         this.out = out;
         this.serializer = serializer;
+        this.compress = compress;
     }
 
     @Override
@@ -44,7 +50,7 @@ final class SegmentTransactionImpl<Type> implements SegmentTransaction<Type> {
         checkFailed();
         ByteBuffer buffer = serializer.serialize(event);
         CompletableFuture<Void> ack = new CompletableFuture<Void>();
-        PendingEvent pendingEvent = new PendingEvent(null, buffer, ack);
+        PendingEvent pendingEvent = PendingEvent.create(null, buffer, compress, ack);
         synchronized (lock) {
             out.write(pendingEvent);
             outstanding.addLast(ack);
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.stream.Stream;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * A transition of a stream into a new epoch, as published by the controller after a scale.
+ */
+@Data
+public class StreamEpochTransition {
+    @NonNull
+    private final Stream stream;
+    private final int epoch;
+    /**
+     * The segments created by this transition, each mapped to the segments of the previous epoch it replaces.
+     */
+    @NonNull
+    private final Map<SegmentWithRange, List<Long>> newSegments;
+    private final String delegationToken;
+
+    /**
+     * Returns the successors of a segment sealed by this transition, in the same form as
+     * {@link Controller#getSuccessors(Segment)}.
+     *
+     * @param sealedSegment The sealed segment.
+     * @return The successors of the given segment, or null if this transition did not replace it.
+     */
+    public StreamSegmentsWithPredecessors getSuccessors(Segment sealedSegment) {
+        Map<SegmentWithRange, List<Long>> successors = newSegments.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(sealedSegment.getSegmentId()))
+                .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+        if (successors.isEmpty()) {
+            return null;
+        }
+        return new StreamSegmentsWithPredecessors(successors, delegationToken);
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import io.pravega.client.stream.AppendBatchingPolicy;
+import io.pravega.test.common.AssertExtensions;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AppendBatchSizeTrackerImplTest {
+
+    @Test
+    public void testAdaptivePolicy() {
+        AppendBatchingPolicy policy = AppendBatchingPolicy.builder().maxBatchSizeBytes(1000).lingerMillis(50).build();
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(policy);
+        assertEquals(50, tracker.getBatchTimeout());
+
+        // Batching is disabled while there is at most one append outstanding.
+        tracker.recordAppend(1, 100);
+        assertEquals(0, tracker.getAppendBlockSize());
+        tracker.recordAck(1);
+
+        for (int i = 2; i < 1000; i++) {
+            tracker.recordAppend(i, 100);
+        }
+        int blockSize = tracker.getAppendBlockSize();
+        assertTrue(blockSize > 0);
+        assertTrue(blockSize <= policy.getMaxBatchSizeBytes());
+    }
+
+    @Test
+    public void testNonAdaptivePolicy() {
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.THROUGHPUT_OPTIMIZED);
+        assertEquals(AppendBatchingPolicy.THROUGHPUT_OPTIMIZED.getLingerMillis(), tracker.getBatchTimeout());
+
+        // The block is always opened at the maximum size, even if nothing is outstanding.
+        assertEquals(AppendBatchingPolicy.THROUGHPUT_OPTIMIZED.getMaxBatchSizeBytes(), tracker.getAppendBlockSize());
+        tracker.recordAppend(1, 100);
+        tracker.recordAck(1);
+        assertEquals(AppendBatchingPolicy.THROUGHPUT_OPTIMIZED.getMaxBatchSizeBytes(), tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testBlockStats() {
+        AppendBatchSizeTrackerImpl tracker = new AppendBatchSizeTrackerImpl(AppendBatchingPolicy.DEFAULT);
+        assertEquals(0, tracker.getBlockCount());
+        for (int i = 0; i < 100; i++) {
+            tracker.recordAppendBlock(1000, TimeUnit.MILLISECONDS.toNanos(5), i % 2 == 0);
+        }
+        assertEquals(100, tracker.getBlockCount());
+        assertEquals(50, tracker.getTimedOutBlockCount());
+        assertEquals(1000, tracker.getAverageBlockSize(), 1);
+        assertEquals(5, tracker.getAverageBlockWaitMillis(), 0.1);
+    }
+
+    @Test
+    public void testInvalidPolicy() {
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> AppendBatchingPolicy.builder().maxBatchSizeBytes(0).build());
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> AppendBatchingPolicy.builder().maxBatchSizeBytes(AppendBatchingPolicy.MAX_BATCH_SIZE_LIMIT + 1).build());
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> AppendBatchingPolicy.builder().lingerMillis(0).build());
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.segment.impl;
+
+import io.pravega.shared.protocol.netty.InvalidMessageException;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventCompressionTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] data = new byte[10000];
+        Arrays.fill(data, (byte) 7);
+        ByteBuffer original = ByteBuffer.wrap(data);
+        ByteBuffer compressed = EventCompression.compress(original);
+        assertNotNull(compressed);
+        assertTrue(compressed.remaining() < data.length);
+        assertEquals(0, original.position());
+        assertEquals(ByteBuffer.wrap(data), EventCompression.decompress(compressed));
+    }
+
+    @Test
+    public void testNotWorthCompressing() {
+        assertNull(EventCompression.compress(ByteBuffer.allocate(EventCompression.MIN_COMPRESSION_SIZE - 1)));
+        byte[] random = new byte[10000];
+        new Random(0).nextBytes(random);
+        assertNull(EventCompression.compress(ByteBuffer.wrap(random)));
+    }
+
+    @Test
+    public void testCorrupted() {
+        ByteBuffer compressed = EventCompression.compress(ByteBuffer.allocate(1000));
+        assertNotNull(compressed);
+        ByteBuffer truncated = ByteBuffer.allocate(compressed.remaining() / 2);
+        truncated.put(compressed.array(), compressed.arrayOffset(), truncated.capacity());
+        truncated.flip();
+        AssertExtensions.assertThrows(InvalidMessageException.class, () -> EventCompression.decompress(truncated));
+        AssertExtensions.assertThrows(InvalidMessageException.class, () -> EventCompression.decompress(ByteBuffer.allocate(2)));
+        ByteBuffer wrongLength = ByteBuffer.allocate(Integer.BYTES + 1);
+        wrongLength.putInt(-1).put((byte) 0).flip();
+        AssertExtensions.assertThrows(InvalidMessageException.class, () -> EventCompression.decompress(wrongLength));
+    }
+}
@@ -120,6 +120,34 @@ public class SegmentInputStreamTest {
         assertEquals(ByteBuffer.wrap(data), read);
     }
 
+    @Test
+    public void testReadCompressed() throws EndOfSegmentException, SegmentTruncatedException {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 10);
+        }
+        ByteBuffer compressed = EventCompression.compress(ByteBuffer.wrap(data));
+        assertNotNull(compressed);
+        ByteBuffer wireData = ByteBuffer.allocate(2 * WireCommands.TYPE_PLUS_LENGTH_SIZE + compressed.remaining() + data.length);
+        wireData.putInt(WireCommandType.COMPRESSED_EVENT.getCode());
+        wireData.putInt(compressed.remaining());
+        wireData.put(compressed);
+        wireData.putInt(WireCommandType.EVENT.getCode());
+        wireData.putInt(data.length);
+        wireData.put(data);
+        wireData.flip();
+        TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 2);
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData.slice()));
+        @Cleanup
+        SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
+
+        // Compressed and uncompressed events can be interleaved, and offsets refer to the data as stored.
+        assertEquals(ByteBuffer.wrap(data), stream.read());
+        assertEquals(WireCommands.TYPE_PLUS_LENGTH_SIZE + compressed.remaining(), stream.getOffset());
+        assertEquals(ByteBuffer.wrap(data), stream.read());
+        assertEquals(wireData.capacity(), stream.getOffset());
+    }
+
     @Test
     public void testLongerThanRequestedRead() throws EndOfSegmentException, SegmentTruncatedException {
         byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
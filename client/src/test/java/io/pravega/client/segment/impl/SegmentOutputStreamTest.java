@@ -285,6 +285,68 @@ public class SegmentOutputStreamTest extends ThreadPooledTestSuite {
         }).when(connection).sendAsync(Mockito.any(), Mockito.any());
     }
 
+    @Test(timeout = 10000)
+    public void testWaitForCredit() throws Exception {
+        UUID cid = UUID.randomUUID();
+        PravegaNodeUri uri = new PravegaNodeUri("endpoint", SERVICE_PORT);
+        MockConnectionFactoryImpl cf = new MockConnectionFactoryImpl();
+        cf.setExecutor(executorService());
+        MockController controller = new MockController(uri.getEndpoint(), uri.getPort(), cf);
+        ClientConnection connection = mock(ClientConnection.class);
+        cf.provideConnection(uri, connection);
+        @Cleanup
+        SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
+        output.reconnect();
+        verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        ByteBuffer data = getBuffer("test");
+        cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0, data.remaining()));
+
+        // The first event always fits, the second has to wait until the first is acked.
+        sendAndVerifyEvent(cid, connection, output, data, 1);
+        CompletableFuture<Void> acked2 = new CompletableFuture<>();
+        AssertExtensions.assertBlocks(() -> output.write(new PendingEvent(null, data, acked2)),
+                () -> cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 1, 0, data.remaining())));
+        verify(connection).send(new Append(SEGMENT, cid, 2, Unpooled.wrappedBuffer(data), null));
+
+        // With more credit, events no longer wait for each other.
+        cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 2, 1, 3 * data.remaining()));
+        sendAndVerifyEvent(cid, connection, output, data, 3);
+        sendAndVerifyEvent(cid, connection, output, data, 4);
+        sendAndVerifyEvent(cid, connection, output, data, 5);
+        assertTrue(acked2.isDone());
+        cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 5, 2, 3 * data.remaining()));
+    }
+
+    @Test(timeout = 10000)
+    public void testThrottlingHint() throws Exception {
+        UUID cid = UUID.randomUUID();
+        PravegaNodeUri uri = new PravegaNodeUri("endpoint", SERVICE_PORT);
+        MockConnectionFactoryImpl cf = new MockConnectionFactoryImpl();
+        cf.setExecutor(executorService());
+        MockController controller = new MockController(uri.getEndpoint(), uri.getPort(), cf);
+        ClientConnection connection = mock(ClientConnection.class);
+        cf.provideConnection(uri, connection);
+        @Cleanup
+        SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, controller, cf, cid, segmentSealedCallback, RETRY_SCHEDULE, "");
+        output.reconnect();
+        verify(connection).send(new SetupAppend(1, cid, SEGMENT, ""));
+        cf.getProcessor(uri).appendSetup(new AppendSetup(1, SEGMENT, cid, 0));
+
+        ByteBuffer data = ByteBuffer.allocate((int) SegmentOutputStreamImpl.MIN_THROTTLED_WINDOW);
+        sendAndVerifyEvent(cid, connection, output, data, 1);
+        sendAndVerifyEvent(cid, connection, output, data, 2);
+
+        // The server is throttling: the writer halves the amount of data it has inflight.
+        cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 1, 0, WireCommands.UNLIMITED_CREDIT, 100));
+        AssertExtensions.assertBlocks(() -> output.write(new PendingEvent(null, data, new CompletableFuture<>())),
+                () -> cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 2, 1, WireCommands.UNLIMITED_CREDIT, 0)));
+        verify(connection).send(new Append(SEGMENT, cid, 3, Unpooled.wrappedBuffer(data), null));
+
+        // Throttling has ended, so the window grows back.
+        sendAndVerifyEvent(cid, connection, output, data, 4);
+        cf.getProcessor(uri).dataAppended(new WireCommands.DataAppended(cid, 4, 2, WireCommands.UNLIMITED_CREDIT, 0));
+    }
+
     private void sendAndVerifyEvent(UUID cid, ClientConnection connection, SegmentOutputStreamImpl output,
             ByteBuffer data, int num) throws SegmentSealedException, ConnectionFailedException {
         CompletableFuture<Void> acked = new CompletableFuture<>();
@@ -176,6 +176,15 @@ public class ReaderGroupConfigTest {
                          .build();
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLoadImbalanceTolerance() {
+        ReaderGroupConfig.builder()
+                         .stream(Stream.of(SCOPE, "s1"))
+                         .loadAwareAssignment(true)
+                         .loadImbalanceTolerance(-0.1)
+                         .build();
+    }
+
     private StreamCut getStreamCut(String streamName) {
         return getStreamCut(streamName, 10L);
     }
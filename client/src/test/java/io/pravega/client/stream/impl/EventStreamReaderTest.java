@@ -27,6 +27,7 @@ import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.client.stream.mock.MockSegmentStreamFactory;
+import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.test.common.AssertExtensions;
 import java.nio.ByteBuffer;
 import java.util.Collections;
@@ -78,6 +79,33 @@ public class EventStreamReaderTest {
         reader.close();
     }
 
+    @Test(timeout = 10000)
+    public void testReadProgressOnlyReportedIfLoadAware() throws SegmentSealedException, ReinitializationRequiredException {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<>(segmentStreamFactory, segmentStreamFactory,
+                                                                           new ByteArraySerializer(), groupState,
+                                                                           orderer, clock::get,
+                                                                           ReaderConfig.builder().build());
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L))
+               .thenReturn(ImmutableMap.of(segment, 0L))
+               .thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, segmentSealedCallback, writerConfig, "");
+        writeInt(stream, 1);
+        writeInt(stream, 2);
+        assertEquals(1, ByteBuffer.wrap(reader.readNextEvent(0).getEvent()).getInt());
+        Mockito.verify(groupState, Mockito.never()).updateReadProgress(any());
+
+        Mockito.when(groupState.isLoadAwareAssignment()).thenReturn(true);
+        assertEquals(2, ByteBuffer.wrap(reader.readNextEvent(0).getEvent()).getInt());
+        long offsetAfterFirstEvent = Integer.BYTES + WireCommands.TYPE_PLUS_LENGTH_SIZE;
+        Mockito.verify(groupState).updateReadProgress(ImmutableMap.of(segment, offsetAfterFirstEvent));
+        reader.close();
+    }
+
     @SuppressWarnings("unchecked")
     @Test(timeout = 10000)
     public void testReadWithEndOfSegmentException() throws Exception {
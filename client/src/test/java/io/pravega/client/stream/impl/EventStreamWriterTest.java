@@ -10,6 +10,7 @@
 package io.pravega.client.stream.impl;
 
 import io.pravega.client.segment.impl.EndOfSegmentException;
+import io.pravega.client.segment.impl.EventCompression;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentOutputStream;
 import io.pravega.client.segment.impl.SegmentOutputStreamFactory;
@@ -25,6 +26,7 @@ import io.pravega.common.util.ReusableLatch;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -42,6 +44,9 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -74,6 +79,66 @@ public class EventStreamWriterTest extends ThreadPooledTestSuite {
         }
     }
 
+    @Test
+    public void testWriteCompressed() {
+        String scope = "scope";
+        String streamName = "stream";
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        Segment segment = new Segment(scope, streamName, 0);
+        EventWriterConfig config = EventWriterConfig.builder().enableCompression(true).build();
+        SegmentOutputStreamFactory streamFactory = Mockito.mock(SegmentOutputStreamFactory.class);
+        Controller controller = Mockito.mock(Controller.class);
+        Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment));
+        FakeSegmentOutputStream outputStream = new FakeSegmentOutputStream(segment);
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment), any(), any(), any())).thenReturn(outputStream);
+        JavaSerializer<String> serializer = new JavaSerializer<>();
+        @Cleanup
+        EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream, controller, streamFactory,
+                serializer, config, executorService());
+        String large = String.join("", Collections.nCopies(1000, "Foo"));
+        writer.writeEvent(large);
+        writer.writeEvent("Bar");
+        assertEquals(2, outputStream.unacked.size());
+
+        // Only events that are worth compressing are compressed.
+        PendingEvent compressed = outputStream.unacked.get(0);
+        assertTrue(compressed.isCompressed());
+        assertTrue(compressed.getData().remaining() < serializer.serialize(large).remaining());
+        assertEquals(large, serializer.deserialize(EventCompression.decompress(compressed.getData())));
+        PendingEvent uncompressed = outputStream.unacked.get(1);
+        assertFalse(uncompressed.isCompressed());
+        assertEquals("Bar", serializer.deserialize(uncompressed.getData()));
+    }
+
+    @Test
+    public void testCompressionDisabledByDefault() {
+        String scope = "scope";
+        String streamName = "stream";
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        Segment segment = new Segment(scope, streamName, 0);
+        EventWriterConfig config = EventWriterConfig.builder().build();
+        assertFalse(config.isEnableCompression());
+        SegmentOutputStreamFactory streamFactory = Mockito.mock(SegmentOutputStreamFactory.class);
+        Controller controller = Mockito.mock(Controller.class);
+        Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment));
+        FakeSegmentOutputStream outputStream = new FakeSegmentOutputStream(segment);
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment), any(), any(), any())).thenReturn(outputStream);
+        JavaSerializer<String> serializer = new JavaSerializer<>();
+        @Cleanup
+        EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream, controller, streamFactory,
+                serializer, config, executorService());
+
+        // Readers that predate compression cannot read compressed events, so even compressible events are sent as is.
+        String large = String.join("", Collections.nCopies(1000, "Foo"));
+        writer.writeEvent(large);
+        writer.writeEvents("key", Collections.singletonList(large));
+        assertEquals(2, outputStream.unacked.size());
+        for (PendingEvent event : outputStream.unacked) {
+            assertFalse(event.isCompressed());
+            assertEquals(large, serializer.deserialize(event.getData()));
+        }
+    }
+
     private StreamSegments getSegments(Segment segment) {
         NavigableMap<Double, Segment> segments = new TreeMap<>();
         segments.put(1.0, segment);
@@ -263,6 +328,65 @@ public class EventStreamWriterTest extends ThreadPooledTestSuite {
         assertEquals("Bar", serializer.deserialize(outputStream2.unacked.get(0).getData()));
     }
 
+    @Test
+    public void testWriteEventsEndOfSegment() {
+        String scope = "scope";
+        String streamName = "stream";
+        String routingKey = "RoutingKey";
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        Segment segment1 = new Segment(scope, streamName, 0);
+        Segment segment2 = new Segment(scope, streamName, 1);
+        EventWriterConfig config = EventWriterConfig.builder().build();
+        SegmentOutputStreamFactory streamFactory = Mockito.mock(SegmentOutputStreamFactory.class);
+        Controller controller = Mockito.mock(Controller.class);
+
+        FakeSegmentOutputStream outputStream1 = new FakeSegmentOutputStream(segment1);
+        FakeSegmentOutputStream outputStream2 = new FakeSegmentOutputStream(segment2);
+
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment1), any(), any(), any())).thenAnswer(i -> {
+            outputStream1.callBackForSealed = i.getArgument(1);
+            return outputStream1;
+        });
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment2), any(), any(), any())).thenAnswer(i -> {
+            outputStream2.callBackForSealed = i.getArgument(1);
+            return outputStream2;
+        });
+
+        JavaSerializer<String> serializer = new JavaSerializer<>();
+        Mockito.when(controller.getCurrentSegments(scope, streamName))
+               .thenReturn(getSegmentsFuture(segment1))
+               .thenReturn(getSegmentsFuture(segment2));
+        @Cleanup
+        EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream, controller, streamFactory, serializer,
+                config, executorService());
+
+        assertTrue(writer.writeEvents(routingKey, Collections.emptyList()).isDone());
+        CompletableFuture<Void> batchFuture = writer.writeEvents(routingKey, Arrays.asList("Foo", "Bar", "Baz"));
+        assertEquals(3, outputStream1.unacked.size());
+        assertNull(outputStream1.unacked.get(0).getAckFuture());
+        assertNull(outputStream1.unacked.get(1).getAckFuture());
+        assertSame(batchFuture, outputStream1.unacked.get(2).getAckFuture());
+
+        Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment2));
+        Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
+
+        //invoke the sealed callback invocation simulating a netty call back with segment sealed exception.
+        outputStream1.invokeSealedCallBack();
+
+        writer.writeEvents(routingKey, Collections.singletonList("Qux"));
+
+        // The batch is resent to the successor in order, and its future completes along with its last event.
+        assertEquals(3, outputStream2.acked.size());
+        assertEquals(1, outputStream2.unacked.size());
+        assertEquals("Foo", serializer.deserialize(outputStream2.acked.get(0).getData()));
+        assertEquals("Bar", serializer.deserialize(outputStream2.acked.get(1).getData()));
+        assertEquals("Baz", serializer.deserialize(outputStream2.acked.get(2).getData()));
+        assertEquals("Qux", serializer.deserialize(outputStream2.unacked.get(0).getData()));
+        assertFalse(batchFuture.isDone());
+        outputStream2.acked.get(2).getAckFuture().complete(null);
+        assertTrue(batchFuture.isDone());
+    }
+
     @Test
     public void testEndOfSegmentBackgroundRefresh() {
         String scope = "scope";
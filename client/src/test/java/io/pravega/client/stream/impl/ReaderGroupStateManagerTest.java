@@ -464,6 +464,142 @@ public class ReaderGroupStateManagerTest {
         assertTrue(segments1.isEmpty());
     }
 
+    @Test(timeout = 5000)
+    public void testBatchedCoordination() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory, streamFactory, streamFactory);
+
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        @Cleanup
+        StateSynchronizer<ReaderGroupState> state1 = createState(stream, clientFactory, config);
+        @Cleanup
+        StateSynchronizer<ReaderGroupState> state2 = createState(stream, clientFactory, config);
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        segments.put(new Segment(scope, stream, 0), 0L);
+        segments.put(new Segment(scope, stream, 1), 1L);
+        segments.put(new Segment(scope, stream, 2), 2L);
+        segments.put(new Segment(scope, stream, 3), 3L);
+        ReaderGroupConfig readerGroupConfig = ReaderGroupConfig.builder()
+                                                               .stream(Stream.of(scope, stream))
+                                                               .batchedCoordination(true)
+                                                               .build();
+        state1.initialize(new ReaderGroupState.ReaderGroupStateInit(readerGroupConfig, segments, Collections.emptyMap()));
+
+        ReaderGroupStateManager reader1 = new ReaderGroupStateManager("reader1", state1, controller, clock::get);
+        reader1.initializeReader(0);
+
+        ReaderGroupStateManager reader2 = new ReaderGroupStateManager("reader2", state2, controller, clock::get);
+        reader2.initializeReader(0);
+
+        // Reader1 has not seen reader2 being added, so its first attempt to acquire conflicts.
+        assertEquals(2, reader1.acquireNewSegmentsIfNeeded(0).size());
+        assertEquals(1, reader1.getCoordinationStats().getConflictCount());
+        assertTrue(reader1.getCoordinationStats().getConflictRate() > 0);
+
+        // Reader2 publishes its distance unconditionally before refreshing its state, so it does not conflict.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertEquals(2, reader2.acquireNewSegmentsIfNeeded(0).size());
+        assertEquals(0, reader2.getCoordinationStats().getConflictCount());
+
+        // Both distances made it into the state even though none of the conditional updates included them.
+        state1.fetchUpdates();
+        Map<String, Double> sizes = state1.getState().getRelativeSizes();
+        assertEquals(sizes.get("reader1"), sizes.get("reader2"));
+        assertEquals(2.0, sizes.get("reader1"), 0.0);
+
+        // An unconditional update for a reader that is no longer online is ignored.
+        reader2.readerShutdown(null);
+        state1.updateStateUnconditionally(new ReaderGroupState.UpdateDistanceToTail("reader2", 0));
+        state1.fetchUpdates();
+        assertFalse(state1.getState().getRelativeSizes().containsKey("reader2"));
+    }
+
+    @Test(timeout = 5000)
+    public void testLoadAwareAssignment() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory, streamFactory, streamFactory);
+
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        @Cleanup
+        StateSynchronizer<ReaderGroupState> state = createState(stream, clientFactory, config);
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        segments.put(new Segment(scope, stream, 0), 0L);
+        segments.put(new Segment(scope, stream, 1), 0L);
+        segments.put(new Segment(scope, stream, 2), 0L);
+        segments.put(new Segment(scope, stream, 3), 0L);
+        ReaderGroupConfig readerGroupConfig = ReaderGroupConfig.builder()
+                                                               .stream(Stream.of(scope, stream))
+                                                               .loadAwareAssignment(true)
+                                                               .build();
+        state.initialize(new ReaderGroupState.ReaderGroupStateInit(readerGroupConfig, segments, Collections.emptyMap()));
+
+        ReaderGroupStateManager reader1 = new ReaderGroupStateManager("reader1", state, controller, clock::get);
+        reader1.initializeReader(0);
+        ReaderGroupStateManager reader2 = new ReaderGroupStateManager("reader2", state, controller, clock::get);
+        reader2.initializeReader(0);
+
+        Map<Segment, Long> segments1 = reader1.acquireNewSegmentsIfNeeded(0);
+        assertEquals(2, segments1.size());
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        Map<Segment, Long> segments2 = reader2.acquireNewSegmentsIfNeeded(0);
+        assertEquals(2, segments2.size());
+
+        // Both readers own the same number of segments, so nothing needs to be released based on counts alone.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+        assertNull(reader2.findSegmentToReleaseIfRequired());
+
+        // Reader1 reads 1000 bytes/sec from each of its segments, while reader2 reads 10 bytes/sec from each of its own.
+        reader1.updateReadProgress(segments1);
+        reader2.updateReadProgress(segments2);
+        long seconds = ReaderGroupStateManager.LOAD_REPORT_INTERVAL.getSeconds();
+        clock.addAndGet(ReaderGroupStateManager.LOAD_REPORT_INTERVAL.toNanos());
+        reader1.updateReadProgress(offsetsAfter(segments1, 1000 * seconds));
+        reader2.updateReadProgress(offsetsAfter(segments2, 10 * seconds));
+        state.fetchUpdates();
+        assertEquals(2000L, state.getState().getReaderLoads().get("reader1").longValue());
+        assertEquals(20L, state.getState().getReaderLoads().get("reader2").longValue());
+        assertEquals(0, state.getState().getRanking("reader1"));
+
+        // Reader1 now has too much load, so it should give up one of its segments; reader2 should not.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader2.findSegmentToReleaseIfRequired());
+        Segment toRelease = reader1.findSegmentToReleaseIfRequired();
+        assertNotNull(toRelease);
+        assertTrue(segments1.containsKey(toRelease));
+        assertTrue(reader1.releaseSegment(toRelease, 0, 0));
+
+        // The released segment keeps its load, so reader2 (now the least loaded one) takes it over.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertEquals(Collections.singleton(toRelease), reader2.acquireNewSegmentsIfNeeded(0).keySet());
+        assertEquals(1020L, state.getState().getReaderLoads().get("reader2").longValue());
+
+        // Now the loads are within the tolerance.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+        assertNull(reader2.findSegmentToReleaseIfRequired());
+    }
+
+    private Map<Segment, Long> offsetsAfter(Map<Segment, Long> offsets, long bytesRead) {
+        Map<Segment, Long> result = new HashMap<>();
+        offsets.forEach((segment, offset) -> result.put(segment, offset + bytesRead));
+        return result;
+    }
+
     @Test(timeout = 10000)
     public void testSegmentsAssigned() throws ReinitializationRequiredException {
         String scope = "scope";
@@ -19,12 +19,16 @@ import io.pravega.client.stream.EventWriterConfig;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
@@ -165,4 +169,45 @@ public class SegmentSelectorTest {
         assertThrows("Writer Future", writerFuture, t -> t instanceof NoSuchSegmentException);
     }
 
+    @Test
+    public void testSealedSegmentUsesPublishedSuccessors() {
+        final Segment segment0 = new Segment(scope, streamName, 0);
+        final Segment segment1 = new Segment(scope, streamName, 1);
+        final Segment segment2 = new Segment(scope, streamName, 2);
+        final Segment segment3 = new Segment(scope, streamName, 3);
+        final CompletableFuture<Void> writerFuture = new CompletableFuture<>();
+        final PendingEvent pendingEvent = new PendingEvent("0", ByteBuffer.wrap("e".getBytes()), writerFuture);
+
+        SegmentOutputStream s0Writer = Mockito.mock(SegmentOutputStream.class);
+        when(s0Writer.getUnackedEventsOnSeal()).thenReturn(ImmutableList.of(pendingEvent));
+        SegmentOutputStreamFactory factory = Mockito.mock(SegmentOutputStreamFactory.class);
+        when(factory.createOutputStreamForSegment(any(Segment.class), ArgumentMatchers.<Consumer<Segment>>any(), any(EventWriterConfig.class), anyString()))
+                .thenReturn(Mockito.mock(SegmentOutputStream.class));
+        when(factory.createOutputStreamForSegment(eq(segment0), ArgumentMatchers.<Consumer<Segment>>any(), any(EventWriterConfig.class), anyString()))
+                .thenReturn(s0Writer);
+
+        Controller controller = Mockito.mock(Controller.class);
+        ArgumentCaptor<Consumer<StreamEpochTransition>> listener = ArgumentCaptor.forClass(Consumer.class);
+        when(controller.watchEpochTransitions(any(), listener.capture())).thenReturn(() -> { });
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        SegmentSelector selector = new SegmentSelector(stream, controller, factory, config);
+        TreeMap<Double, Segment> segments = new TreeMap<>();
+        segments.put(0.5, segment0);
+        segments.put(1.0, segment1);
+        when(controller.getCurrentSegments(scope, streamName))
+                .thenReturn(CompletableFuture.completedFuture(new StreamSegments(segments, "")));
+        selector.refreshSegmentEventWriters(segmentSealedCallback);
+
+        // Segment 0 is split into segments 2 and 3.
+        Map<SegmentWithRange, List<Long>> newSegments = new HashMap<>();
+        newSegments.put(new SegmentWithRange(segment2, 0.0, 0.25), Collections.singletonList(0L));
+        newSegments.put(new SegmentWithRange(segment3, 0.25, 0.5), Collections.singletonList(0L));
+        listener.getValue().accept(new StreamEpochTransition(stream, 1, newSegments, ""));
+
+        assertEquals(Collections.singletonList(pendingEvent),
+                selector.refreshSegmentEventWritersUponSealed(segment0, segmentSealedCallback));
+        Mockito.verify(controller, Mockito.never()).getSuccessors(any(Segment.class));
+        assertEquals(Arrays.asList(segment2, segment3, segment1), selector.getSegments());
+        selector.close();
+    }
 }
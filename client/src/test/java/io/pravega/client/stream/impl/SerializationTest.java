@@ -35,6 +35,7 @@ import io.pravega.client.stream.impl.ReaderGroupState.ReleaseSegment;
 import io.pravega.client.stream.impl.ReaderGroupState.RemoveReader;
 import io.pravega.client.stream.impl.ReaderGroupState.SegmentCompleted;
 import io.pravega.client.stream.impl.ReaderGroupState.UpdateDistanceToTail;
+import io.pravega.client.stream.impl.ReaderGroupState.UpdateSegmentLoads;
 import io.pravega.common.hash.RandomFactory;
 import io.pravega.common.util.ByteArraySegment;
 import java.io.ByteArrayInputStream;
@@ -127,6 +128,9 @@ public class SerializationTest {
         ReaderGroupConfig config = ReaderGroupConfig.builder()
                                                     .disableAutomaticCheckpoints()
                                                     .groupRefreshTimeMillis(r.nextInt(1000))
+                                                    .batchedCoordination(r.nextBoolean())
+                                                    .loadAwareAssignment(r.nextBoolean())
+                                                    .loadImbalanceTolerance(r.nextDouble())
                                                     .stream(createSegment().getStream())
                                                     .build();
         verify(initSerializer, new ReaderGroupStateInit(config, createSegmentToLongMap(), createSegmentToLongMap()));
@@ -144,6 +148,7 @@ public class SerializationTest {
         builder.endSegments(createSegmentToLongMap());
         builder.unassignedSegments(createSegmentToLongMap());
         builder.futureSegments(createMap(this::createSegment, () -> new HashSet<>(createLongList())));
+        builder.segmentLoads(createSegmentToLongMap());
         verify(initSerializer, builder.build());
 
     }
@@ -161,6 +166,7 @@ public class SerializationTest {
         verify(serializer, new CheckpointReader(createString(), createString(), createSegmentToLongMap()));
         verify(serializer, new CreateCheckpoint(createString()));
         verify(serializer, new ClearCheckpointsBefore(createString()));
+        verify(serializer, new UpdateSegmentLoads(createString(), createSegmentToLongMap()));
     }
     
     private void verify(ReaderGroupInitSerializer serializer, InitialUpdate<ReaderGroupState> value) throws IOException {
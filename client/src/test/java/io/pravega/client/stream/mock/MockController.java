@@ -23,6 +23,8 @@ import io.pravega.client.stream.TxnFailedException;
 import io.pravega.client.stream.impl.CancellableRequest;
 import io.pravega.client.stream.impl.ConnectionClosedException;
 import io.pravega.client.stream.impl.Controller;
+import io.pravega.client.stream.impl.EpochTransitionSubscription;
+import io.pravega.client.stream.impl.StreamEpochTransition;
 import io.pravega.client.stream.impl.StreamImpl;
 import io.pravega.client.stream.impl.StreamSegmentSuccessors;
 import io.pravega.client.stream.impl.StreamSegments;
@@ -50,6 +52,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
@@ -428,6 +431,16 @@ public class MockController implements Controller {
         return CompletableFuture.completedFuture(getSegmentsForStream(stream).stream().collect(Collectors.toMap(s -> s, s -> 0L)));
     }
     
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtTime(Stream stream, long timestamp) {
+        return CompletableFuture.completedFuture(StreamCut.UNBOUNDED);
+    }
+
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtSize(Stream stream, long size) {
+        return CompletableFuture.completedFuture(StreamCut.UNBOUNDED);
+    }
+
     @Override
     public CompletableFuture<StreamSegmentsWithPredecessors> getSuccessors(Segment segment) {
         final Stream segmentStream = Stream.of(segment.getScopedStreamName());
@@ -449,6 +462,11 @@ public class MockController implements Controller {
         return CompletableFuture.completedFuture(new StreamSegmentSuccessors(Collections.emptySet(), ""));
     }
 
+    @Override
+    public EpochTransitionSubscription watchEpochTransitions(Stream stream, Consumer<StreamEpochTransition> listener) {
+        return () -> { };
+    }
+
     @Override
     public CompletableFuture<StreamSegmentSuccessors> getSegments(StreamCut fromStreamCut, StreamCut toStreamCut) {
         Set<Segment> segments = ImmutableSet.<Segment>builder().addAll(fromStreamCut.asImpl().getPositions().keySet())
@@ -12,6 +12,7 @@ package io.pravega.client.stream.mock;
 import com.google.common.base.Preconditions;
 import io.pravega.client.segment.impl.ConditionalOutputStream;
 import io.pravega.client.segment.impl.EndOfSegmentException;
+import io.pravega.client.segment.impl.EventCompression;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentAttribute;
 import io.pravega.client.segment.impl.SegmentInfo;
@@ -100,9 +101,12 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
     @Override
     @Synchronized
     public void write(PendingEvent event) {
-        ByteBuffer data = event.getData();
+        // Readers decompress events transparently, so they are stored here as they would be read.
+        ByteBuffer data = event.isCompressed() ? EventCompression.decompress(event.getData()) : event.getData();
         write(data);
-        event.getAckFuture().complete(null);
+        if (event.getAckFuture() != null) {
+            event.getAckFuture().complete(null);
+        }
     }
     
     @Override
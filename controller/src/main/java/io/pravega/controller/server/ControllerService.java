@@ -10,6 +10,7 @@
 package io.pravega.controller.server;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import io.pravega.client.stream.StreamConfiguration;
 import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.common.Exceptions;
@@ -20,8 +21,10 @@ import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.store.stream.OperationContext;
 import io.pravega.controller.store.stream.ScaleMetadata;
 import io.pravega.controller.store.stream.Segment;
+import io.pravega.controller.store.stream.StreamListEntry;
 import io.pravega.controller.store.stream.StreamMetadataStore;
 import io.pravega.controller.store.stream.VersionedTransactionData;
+import io.pravega.controller.store.stream.tables.HistoryRecord;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateStreamStatus;
@@ -31,6 +34,7 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusResponse;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMap;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentId;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentRange;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnId;
@@ -41,7 +45,9 @@ import io.pravega.controller.task.Stream.StreamMetadataTasks;
 import io.pravega.controller.task.Stream.StreamTransactionMetadataTasks;
 import io.pravega.shared.NameUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -62,6 +68,10 @@ import org.apache.commons.lang3.tuple.Pair;
 @AllArgsConstructor
 @Slf4j
 public class ControllerService {
+    /**
+     * Maximum number of streams returned by a single call to {@link #listStreams(String, String, int)}.
+     */
+    public static final int MAX_LIST_STREAMS_LIMIT = 1000;
 
     private final StreamMetadataStore streamStore;
     private final HostControllerStore hostStore;
@@ -163,6 +173,42 @@ public class ControllerService {
         });
     }
 
+    /**
+     * Returns a stream cut from which a reader observes every event written at or after the given time, using the
+     * stream cuts sampled into the retention set as a time index. If no stream cut was sampled at or before the
+     * given time, the segments active at that time are returned from their start.
+     *
+     * @param scope     The scope of the stream.
+     * @param stream    The name of the stream.
+     * @param timestamp The time in millis.
+     * @return A future which, upon completion, holds the stream cut as a map of segment id to offset.
+     */
+    public CompletableFuture<Map<Long, Long>> getStreamCutAtTime(final String scope, final String stream, final long timestamp) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        Exceptions.checkNotNullOrEmpty(stream, "stream");
+        OperationContext context = streamStore.createContext(scope, stream);
+        return streamStore.findStreamCutReferenceForTime(scope, stream, timestamp, context, executor)
+                .thenCompose(record -> record != null ? CompletableFuture.completedFuture(record.getStreamCut())
+                        : streamStore.getActiveSegments(scope, stream, timestamp, context, executor));
+    }
+
+    /**
+     * Returns the latest stream cut sampled into the retention set that has at most the given amount of data
+     * preceding it. If there is no such stream cut, an empty map, which denotes the head of the stream, is returned.
+     *
+     * @param scope  The scope of the stream.
+     * @param stream The name of the stream.
+     * @param size   The size in bytes.
+     * @return A future which, upon completion, holds the stream cut as a map of segment id to offset.
+     */
+    public CompletableFuture<Map<Long, Long>> getStreamCutAtSize(final String scope, final String stream, final long size) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        Exceptions.checkNotNullOrEmpty(stream, "stream");
+        OperationContext context = streamStore.createContext(scope, stream);
+        return streamStore.findStreamCutReferenceForSize(scope, stream, size, context, executor)
+                .thenApply(record -> record != null ? record.getStreamCut() : Collections.<Long, Long>emptyMap());
+    }
+
     public CompletableFuture<Map<SegmentRange, List<Long>>> getSegmentsImmediatelyFollowing(SegmentId segment) {
         Preconditions.checkNotNull(segment, "segment");
         OperationContext context = streamStore.createContext(segment.getStreamInfo().getScope(), segment
@@ -186,6 +232,50 @@ public class ControllerService {
                                 entry -> entry.getValue()))), executor);
     }
 
+    /**
+     * Returns the currently active epoch of the given stream, bypassing any cached value.
+     *
+     * @param scope  The scope of the stream.
+     * @param stream The name of the stream.
+     * @return A future which, upon completion, holds the active epoch of the stream.
+     */
+    public CompletableFuture<Integer> getActiveEpoch(final String scope, final String stream) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        Exceptions.checkNotNullOrEmpty(stream, "stream");
+        return streamStore.getActiveEpoch(scope, stream, null, true, executor)
+                          .thenApply(HistoryRecord::getEpoch);
+    }
+
+    /**
+     * Returns the segments created by the transition into the given epoch, each mapped to the segments of the
+     * previous epoch that it replaces. This is the union of the successors of every segment sealed by the transition.
+     *
+     * @param scope  The scope of the stream.
+     * @param stream The name of the stream.
+     * @param epoch  The epoch the stream transitioned into. Must be greater than zero.
+     * @return A future which, upon completion, holds the new segments and their predecessors.
+     */
+    public CompletableFuture<Map<SegmentRange, List<Long>>> getSegmentsCreatedInEpoch(final String scope,
+                                                                                    final String stream,
+                                                                                    final int epoch) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        Exceptions.checkNotNullOrEmpty(stream, "stream");
+        Preconditions.checkArgument(epoch > 0, "epoch");
+        OperationContext context = streamStore.createContext(scope, stream);
+        return streamStore.getActiveSegmentIds(scope, stream, epoch - 1, context, executor)
+                .thenCombine(streamStore.getActiveSegmentIds(scope, stream, epoch, context, executor),
+                        (previous, current) -> previous.stream().filter(id -> !current.contains(id))
+                                                       .collect(Collectors.toList()))
+                .thenCompose(sealed -> Futures.allOfWithResults(sealed.stream()
+                        .map(id -> getSegmentsImmediatelyFollowing(ModelHelper.createSegmentId(scope, stream, id)))
+                        .collect(Collectors.toList())))
+                .thenApply(successors -> {
+                    Map<SegmentRange, List<Long>> result = new HashMap<>();
+                    successors.forEach(result::putAll);
+                    return result;
+                });
+    }
+
     public CompletableFuture<List<Segment>> getSegmentsBetweenStreamCuts(Controller.StreamCutRange range) {
         Preconditions.checkNotNull(range, "segment");
         Preconditions.checkArgument(!(range.getFromMap().isEmpty() && range.getToMap().isEmpty()));
@@ -245,6 +335,24 @@ public class ControllerService {
         );
     }
 
+    /**
+     * Builds the current segment container to segment store endpoint mapping, which lets clients resolve the owner
+     * of a segment locally instead of calling {@link #getURI(SegmentId)} for every segment.
+     *
+     * @return The current segment container map along with its version.
+     */
+    public SegmentContainerMap getSegmentContainerMap() {
+        long version = hostStore.getHostContainersMapVersion();
+        SegmentContainerMap.Builder builder = SegmentContainerMap.newBuilder()
+                .setVersion(version)
+                .setContainerCount(hostStore.getContainerCount());
+        hostStore.getHostContainersMap().forEach((host, containers) -> {
+            NodeUri uri = NodeUri.newBuilder().setEndpoint(host.getIpAddr()).setPort(host.getPort()).build();
+            containers.forEach(containerId -> builder.putContainerEndpoints(containerId, uri));
+        });
+        return builder.build();
+    }
+
     private SegmentRange convert(final String scope,
                                  final String stream,
                                  final Segment segment) {
@@ -384,6 +492,23 @@ public class ControllerService {
         return streamStore.listStreamsInScope(scope);
     }
 
+    /**
+     * List a page of the streams in a scope along with their configuration and state.
+     *
+     * @param scope             Name of the scope.
+     * @param continuationToken Continuation token returned with the previous page, or empty for the first page.
+     * @param limit             Maximum number of streams to return. Values outside (0, {@link #MAX_LIST_STREAMS_LIMIT}]
+     *                          are replaced with {@link #MAX_LIST_STREAMS_LIMIT}.
+     * @return The streams in the page and the continuation token for the next page. An empty page marks the end of
+     * the listing.
+     */
+    public CompletableFuture<Pair<List<StreamListEntry>, String>> listStreams(final String scope, final String continuationToken,
+                                                                              final int limit) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        int pageSize = limit <= 0 || limit > MAX_LIST_STREAMS_LIMIT ? MAX_LIST_STREAMS_LIMIT : limit;
+        return streamStore.listStreams(scope, Strings.nullToEmpty(continuationToken), pageSize, executor);
+    }
+
     /**
      * List Scopes in cluster.
      *
@@ -9,13 +9,16 @@
  */
 package io.pravega.controller.server;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.stream.ScalingPolicy;
 import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.common.Exceptions;
 import io.pravega.common.auth.AuthenticationException;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.cluster.Host;
 import io.pravega.controller.store.host.HostControllerStore;
 import io.pravega.controller.store.stream.tables.TableHelper;
@@ -32,10 +35,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static io.pravega.shared.segment.StreamSegmentNameUtils.getSegmentNumber;
 import static io.pravega.shared.segment.StreamSegmentNameUtils.getQualifiedStreamSegmentName;
@@ -44,6 +54,20 @@ import static io.pravega.shared.segment.StreamSegmentNameUtils.getTransactionNam
 @Slf4j
 public class SegmentHelper {
 
+    /**
+     * Maximum number of segments to include in a single batch request, so that requests stay well below
+     * WireCommands.MAX_WIRECOMMAND_SIZE.
+     */
+    @VisibleForTesting
+    static final int MAX_SEGMENTS_PER_BATCH = 1000;
+
+    /**
+     * The oldest wire protocol version in which segment stores understand batched segment requests (CreateSegments,
+     * SealSegments, DeleteSegments and UpdateSegmentsPolicy). Older segment stores are sent one request per segment.
+     */
+    @VisibleForTesting
+    static final int BATCH_REQUESTS_MIN_VERSION = 6;
+
     private final Supplier<Long> idGenerator = new AtomicLong(0)::incrementAndGet;
 
     public Controller.NodeUri getSegmentUri(final String scope,
@@ -588,6 +612,287 @@ public class SegmentHelper {
         return result;
     }
 
+    /**
+     * Gets one page of the attributes of a segment whose ids lie in the given range, in ascending order of their ids. If
+     * the result has exactly maxCount attributes, the next page can be requested with a range that begins right after
+     * the last returned id.
+     *
+     * @param scope               Stream scope.
+     * @param stream              Stream name.
+     * @param segmentId           The id of the segment.
+     * @param fromId              The first attribute id in the range (inclusive).
+     * @param toId                The last attribute id in the range (inclusive).
+     * @param maxCount            The maximum number of attributes to return. Must not exceed
+     *                            {@link WireCommands.GetSegmentAttributes#MAX_COUNT}.
+     * @param hostControllerStore The store to use to locate segment owners.
+     * @param clientCF            Connection factory.
+     * @param delegationToken     Delegation token.
+     * @return A future which will contain the attributes (empty if the segment does not exist).
+     */
+    public CompletableFuture<Map<UUID, Long>> getSegmentAttributes(String scope, String stream, long segmentId, UUID fromId, UUID toId,
+                                                                   int maxCount, HostControllerStore hostControllerStore,
+                                                                   ConnectionFactory clientCF, String delegationToken) {
+        Preconditions.checkArgument(maxCount <= WireCommands.GetSegmentAttributes.MAX_COUNT,
+                "maxCount may not exceed %s.", WireCommands.GetSegmentAttributes.MAX_COUNT);
+        final CompletableFuture<Map<UUID, Long>> result = new CompletableFuture<>();
+        final String qualifiedName = getQualifiedStreamSegmentName(scope, stream, segmentId);
+        final Controller.NodeUri uri = getSegmentUri(scope, stream, segmentId, hostControllerStore);
+
+        final WireCommandType type = WireCommandType.GET_SEGMENT_ATTRIBUTES;
+        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+
+            @Override
+            public void connectionDropped() {
+                log.warn("getSegmentAttributes {} connectionDropped", qualifiedName);
+                result.completeExceptionally(new WireCommandFailedException(type, WireCommandFailedException.Reason.ConnectionDropped));
+            }
+
+            @Override
+            public void wrongHost(WireCommands.WrongHost wrongHost) {
+                log.warn("getSegmentAttributes {} WrongHost", qualifiedName);
+                result.completeExceptionally(new WireCommandFailedException(type, WireCommandFailedException.Reason.UnknownHost));
+            }
+
+            @Override
+            public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+                log.info("getSegmentAttributes {} NoSuchSegment", qualifiedName);
+                result.complete(Collections.emptyMap());
+            }
+
+            @Override
+            public void segmentAttributes(WireCommands.SegmentAttributes segmentAttributes) {
+                log.debug("getSegmentAttributes {} got {} attributes", qualifiedName, segmentAttributes.getAttributes().size());
+                result.complete(segmentAttributes.getAttributes());
+            }
+
+            @Override
+            public void processingFailure(Exception error) {
+                log.error("getSegmentAttributes {} failed", qualifiedName, error);
+                result.completeExceptionally(error);
+            }
+
+            @Override
+            public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+                result.completeExceptionally(
+                        new WireCommandFailedException(new AuthenticationException(authTokenCheckFailed.toString()),
+                                type, WireCommandFailedException.Reason.AuthFailed));
+            }
+        };
+
+        WireCommands.GetSegmentAttributes request = new WireCommands.GetSegmentAttributes(idGenerator.get(),
+                qualifiedName, fromId, toId, maxCount, delegationToken);
+        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
+    /**
+     * Creates the given segments using one CreateSegments request per owning segment store (split into chunks of at
+     * most {@link #MAX_SEGMENTS_PER_BATCH} segments), instead of one request per segment.
+     *
+     * @param scope               Stream scope.
+     * @param stream              Stream name.
+     * @param segmentIds          The ids of the segments to create.
+     * @param policy              The scaling policy to set on all the segments.
+     * @param hostControllerStore The store to use to locate segment owners.
+     * @param clientCF            Connection factory.
+     * @param controllerToken     Delegation token.
+     * @return A future which will complete when all the segments have been created (or already existed).
+     */
+    public CompletableFuture<Void> createSegments(final String scope,
+                                                  final String stream,
+                                                  final Collection<Long> segmentIds,
+                                                  final ScalingPolicy policy,
+                                                  final HostControllerStore hostControllerStore,
+                                                  final ConnectionFactory clientCF, String controllerToken) {
+        Pair<Byte, Integer> extracted = extractFromPolicy(policy);
+        return sendBatchRequests(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, segments) -> new WireCommands.CreateSegments(requestId, segments, extracted.getLeft(),
+                        extracted.getRight(), controllerToken),
+                segmentId -> Futures.toVoid(createSegment(scope, stream, segmentId, policy, hostControllerStore, clientCF,
+                        controllerToken)));
+    }
+
+    /**
+     * Seals the given segments using one SealSegments request per owning segment store.
+     *
+     * @param scope               Stream scope.
+     * @param stream              Stream name.
+     * @param segmentIds          The ids of the segments to seal.
+     * @param hostControllerStore The store to use to locate segment owners.
+     * @param clientCF            Connection factory.
+     * @param delegationToken     Delegation token.
+     * @return A future which will complete when all the segments have been sealed (or were already sealed).
+     */
+    public CompletableFuture<Void> sealSegments(final String scope,
+                                                final String stream,
+                                                final Collection<Long> segmentIds,
+                                                final HostControllerStore hostControllerStore,
+                                                final ConnectionFactory clientCF, String delegationToken) {
+        return sendBatchRequests(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, segments) -> new WireCommands.SealSegments(requestId, segments, delegationToken),
+                segmentId -> Futures.toVoid(sealSegment(scope, stream, segmentId, hostControllerStore, clientCF,
+                        delegationToken)));
+    }
+
+    /**
+     * Deletes the given segments using one DeleteSegments request per owning segment store.
+     *
+     * @param scope               Stream scope.
+     * @param stream              Stream name.
+     * @param segmentIds          The ids of the segments to delete.
+     * @param hostControllerStore The store to use to locate segment owners.
+     * @param clientCF            Connection factory.
+     * @param delegationToken     Delegation token.
+     * @return A future which will complete when all the segments have been deleted (or did not exist).
+     */
+    public CompletableFuture<Void> deleteSegments(final String scope,
+                                                  final String stream,
+                                                  final Collection<Long> segmentIds,
+                                                  final HostControllerStore hostControllerStore,
+                                                  final ConnectionFactory clientCF, String delegationToken) {
+        return sendBatchRequests(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, segments) -> new WireCommands.DeleteSegments(requestId, segments, delegationToken),
+                segmentId -> Futures.toVoid(deleteSegment(scope, stream, segmentId, hostControllerStore, clientCF,
+                        delegationToken)));
+    }
+
+    /**
+     * Updates the scaling policy of the given segments using one UpdateSegmentsPolicy request per owning segment store.
+     *
+     * @param scope               Stream scope.
+     * @param stream              Stream name.
+     * @param policy              The new scaling policy.
+     * @param segmentIds          The ids of the segments to update.
+     * @param hostControllerStore The store to use to locate segment owners.
+     * @param clientCF            Connection factory.
+     * @param delegationToken     Delegation token.
+     * @return A future which will complete when the policy of all the segments has been updated.
+     */
+    public CompletableFuture<Void> updatePolicies(final String scope,
+                                                  final String stream,
+                                                  final ScalingPolicy policy,
+                                                  final Collection<Long> segmentIds,
+                                                  final HostControllerStore hostControllerStore,
+                                                  final ConnectionFactory clientCF, String delegationToken) {
+        Pair<Byte, Integer> extracted = extractFromPolicy(policy);
+        return sendBatchRequests(scope, stream, segmentIds, hostControllerStore, clientCF,
+                (requestId, segments) -> new WireCommands.UpdateSegmentsPolicy(requestId, segments, extracted.getLeft(),
+                        extracted.getRight(), delegationToken),
+                segmentId -> updatePolicy(scope, stream, policy, segmentId, hostControllerStore, clientCF, delegationToken));
+    }
+
+    /**
+     * Groups the given segments by the segment store that owns them and sends one batch request (per chunk of
+     * MAX_SEGMENTS_PER_BATCH segments) to each such segment store. Segment stores that predate batch requests (see
+     * BATCH_REQUESTS_MIN_VERSION) are sent one request per segment instead, using the given fallback.
+     */
+    private CompletableFuture<Void> sendBatchRequests(final String scope,
+                                                      final String stream,
+                                                      final Collection<Long> segmentIds,
+                                                      final HostControllerStore hostControllerStore,
+                                                      final ConnectionFactory clientCF,
+                                                      final BiFunction<Long, List<String>, WireCommand> requestBuilder,
+                                                      final Function<Long, CompletableFuture<Void>> fallback) {
+        final Map<Controller.NodeUri, List<Long>> segmentsByHost = segmentIds
+                .stream()
+                .collect(Collectors.groupingBy(segmentId -> getSegmentUri(scope, stream, segmentId, hostControllerStore)));
+
+        return Futures.allOf(segmentsByHost
+                .entrySet()
+                .stream()
+                .flatMap(e -> Lists.partition(e.getValue(), MAX_SEGMENTS_PER_BATCH)
+                                   .stream()
+                                   .map(ids -> {
+                                       long requestId = idGenerator.get();
+                                       List<String> segments = ids.stream()
+                                                                  .map(id -> getQualifiedStreamSegmentName(scope, stream, id))
+                                                                  .collect(Collectors.toList());
+                                       return sendBatchRequest(requestId, requestBuilder.apply(requestId, segments),
+                                               e.getKey(), clientCF)
+                                               .thenCompose(processed -> processed
+                                                       ? CompletableFuture.<Void>completedFuture(null)
+                                                       : Futures.allOf(ids.stream().map(fallback).collect(Collectors.toList())));
+                                   }))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sends the given batch request.
+     *
+     * @return A future which will complete with true when the request has been processed, or with false if the segment
+     * store predates batch requests (in which case it will have rejected the request without processing it).
+     */
+    private CompletableFuture<Boolean> sendBatchRequest(final long requestId,
+                                                        final WireCommand request,
+                                                        final Controller.NodeUri uri,
+                                                        final ConnectionFactory clientCF) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final WireCommandType type = request.getType();
+
+        final FailingReplyProcessor replyProcessor = new FailingReplyProcessor() {
+            @Override
+            public void hello(WireCommands.Hello hello) {
+                super.hello(hello);
+                if (hello.getHighVersion() < BATCH_REQUESTS_MIN_VERSION) {
+                    // The segment store replies to our Hello before reading the request, which it does not understand
+                    // and will drop the connection because of it.
+                    log.info("{} {} not supported by {} (wire version {}); sending one request per segment", type,
+                            requestId, uri, hello.getHighVersion());
+                    result.complete(false);
+                }
+            }
+
+            @Override
+            public void connectionDropped() {
+                log.warn("{} {} Connection dropped", type, requestId);
+                result.completeExceptionally(
+                        new WireCommandFailedException(type, WireCommandFailedException.Reason.ConnectionDropped));
+            }
+
+            @Override
+            public void wrongHost(WireCommands.WrongHost wrongHost) {
+                log.warn("{} {} wrong host for segment {}", type, requestId, wrongHost.getSegment());
+                result.completeExceptionally(new WireCommandFailedException(type, WireCommandFailedException.Reason.UnknownHost));
+            }
+
+            @Override
+            public void noSuchSegment(WireCommands.NoSuchSegment noSuchSegment) {
+                log.warn("{} {} NoSuchSegment {}", type, requestId, noSuchSegment.getSegment());
+                result.completeExceptionally(
+                        new WireCommandFailedException(type, WireCommandFailedException.Reason.PreconditionFailed));
+            }
+
+            @Override
+            public void segmentIsSealed(WireCommands.SegmentIsSealed segmentIsSealed) {
+                log.warn("{} {} SegmentIsSealed {}", type, requestId, segmentIsSealed.getSegment());
+                result.completeExceptionally(
+                        new WireCommandFailedException(type, WireCommandFailedException.Reason.PreconditionFailed));
+            }
+
+            @Override
+            public void segmentsBatchProcessed(WireCommands.SegmentsBatchProcessed segmentsBatchProcessed) {
+                log.info("{} {} processed {} segments", type, requestId, segmentsBatchProcessed.getSegmentCount());
+                result.complete(true);
+            }
+
+            @Override
+            public void processingFailure(Exception error) {
+                log.error("{} {} threw exception", type, requestId, error);
+                result.completeExceptionally(error);
+            }
+
+            @Override
+            public void authTokenCheckFailed(WireCommands.AuthTokenCheckFailed authTokenCheckFailed) {
+                result.completeExceptionally(
+                        new WireCommandFailedException(new AuthenticationException(authTokenCheckFailed.toString()),
+                                type, WireCommandFailedException.Reason.AuthFailed));
+            }
+        };
+
+        sendRequestAsync(request, replyProcessor, result, clientCF, ModelHelper.encode(uri));
+        return result;
+    }
+
     private <ResultT> void sendRequestAsync(final WireCommand request, final ReplyProcessor replyProcessor,
                                             final CompletableFuture<ResultT> resultFuture,
                                             final ConnectionFactory connectionFactory, final PravegaNodeUri uri) {
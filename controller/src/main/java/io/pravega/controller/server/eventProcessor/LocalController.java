@@ -19,8 +19,10 @@ import io.pravega.client.stream.Transaction;
 import io.pravega.client.stream.impl.CancellableRequest;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.client.stream.impl.ControllerFailureException;
+import io.pravega.client.stream.impl.EpochTransitionSubscription;
 import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.client.stream.impl.SegmentWithRange;
+import io.pravega.client.stream.impl.StreamEpochTransition;
 import io.pravega.client.stream.impl.StreamSegmentSuccessors;
 import io.pravega.client.stream.impl.StreamSegments;
 import io.pravega.client.stream.impl.StreamSegmentsWithPredecessors;
@@ -42,6 +44,7 @@ import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -336,6 +339,18 @@ public class LocalController implements Controller {
         });
     }
 
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtTime(Stream stream, long timestamp) {
+        return controller.getStreamCutAtTime(stream.getScope(), stream.getStreamName(), timestamp)
+                .thenApply(cut -> ModelHelper.createStreamCut(ModelHelper.decode(stream.getScope(), stream.getStreamName(), cut)));
+    }
+
+    @Override
+    public CompletableFuture<StreamCut> getStreamCutAtSize(Stream stream, long size) {
+        return controller.getStreamCutAtSize(stream.getScope(), stream.getStreamName(), size)
+                .thenApply(cut -> ModelHelper.createStreamCut(ModelHelper.decode(stream.getScope(), stream.getStreamName(), cut)));
+    }
+
     @Override
     public CompletableFuture<StreamSegmentsWithPredecessors> getSuccessors(Segment segment) {
         return controller.getSegmentsImmediatelyFollowing(ModelHelper.decode(segment))
@@ -351,6 +366,12 @@ public class LocalController implements Controller {
         return getSegments(from, StreamCut.UNBOUNDED);
     }
 
+    @Override
+    public EpochTransitionSubscription watchEpochTransitions(Stream stream, Consumer<StreamEpochTransition> listener) {
+        // In process callers are not subject to request storms, they look successors up on demand instead.
+        return () -> { };
+    }
+
     @Override
     public CompletableFuture<StreamSegmentSuccessors> getSegments(StreamCut fromStreamCut, StreamCut toStreamCut) {
         Stream stream = fromStreamCut.asImpl().getStream();
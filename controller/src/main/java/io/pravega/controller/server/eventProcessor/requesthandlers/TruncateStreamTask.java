@@ -87,10 +87,7 @@ public class TruncateStreamTask implements StreamTask<TruncateStreamEvent> {
 
     private CompletableFuture<Void> notifyDeleteSegments(String scope, String stream, Set<Long> segmentsToDelete, String delegationToken) {
         log.debug("{}/{} deleting segments {}", scope, stream, segmentsToDelete);
-        return Futures.allOf(segmentsToDelete.stream()
-                .parallel()
-                .map(segment -> streamMetadataTasks.notifyDeleteSegment(scope, stream, segment, delegationToken))
-                .collect(Collectors.toList()));
+        return streamMetadataTasks.notifyDeleteSegments(scope, stream, segmentsToDelete, delegationToken);
     }
 
     private CompletableFuture<Void> notifyTruncateSegments(String scope, String stream, Map<Long, Long> streamCut, String delegationToken) {
@@ -246,9 +246,11 @@ public class ScopesApi  {
         @io.swagger.annotations.ApiResponse(code = 500, message = "Internal server error while fetching the list of streams for the given scope", response = StreamsList.class) })
     public Response listStreams(@ApiParam(value = "Scope name",required=true) @PathParam("scopeName") String scopeName
 ,@ApiParam(value = "Optional flag whether to display system created streams. If not specified only user created streams will be returned") @QueryParam("showInternalStreams") String showInternalStreams
+,@ApiParam(value = "Optional continuation token returned with the previous page of streams") @QueryParam("continuationToken") String continuationToken
+,@ApiParam(value = "Optional maximum number of streams to return. If neither this nor continuationToken is specified all streams are returned") @QueryParam("limit") Integer limit
 ,@Context SecurityContext securityContext)
     throws NotFoundException {
-        return delegate.listStreams(scopeName,showInternalStreams,securityContext);
+        return delegate.listStreams(scopeName,showInternalStreams,continuationToken,limit,securityContext);
     }
     @PUT
     @Path("/{scopeName}/streams/{streamName}")
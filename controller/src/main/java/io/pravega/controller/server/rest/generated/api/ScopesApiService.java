@@ -37,7 +37,7 @@ public abstract class ScopesApiService {
     public abstract Response getStream(String scopeName,String streamName,SecurityContext securityContext) throws NotFoundException;
     public abstract Response listReaderGroups(String scopeName,SecurityContext securityContext) throws NotFoundException;
     public abstract Response listScopes(SecurityContext securityContext) throws NotFoundException;
-    public abstract Response listStreams(String scopeName, String showInternalStreams,SecurityContext securityContext) throws NotFoundException;
+    public abstract Response listStreams(String scopeName, String showInternalStreams, String continuationToken, Integer limit,SecurityContext securityContext) throws NotFoundException;
     public abstract Response updateStream(String scopeName,String streamName,UpdateStreamRequest updateStreamRequest,SecurityContext securityContext) throws NotFoundException;
     public abstract Response updateStreamState(String scopeName,String streamName,StreamState updateStreamStateRequest,SecurityContext securityContext) throws NotFoundException;
 }
@@ -78,7 +78,7 @@ public class ScopesApiServiceImpl extends ScopesApiService {
         return Response.ok().entity(new ApiResponseMessage(ApiResponseMessage.OK, "magic!")).build();
     }
     @Override
-    public Response listStreams(String scopeName,  String showInternalStreams, SecurityContext securityContext) throws NotFoundException {
+    public Response listStreams(String scopeName,  String showInternalStreams,  String continuationToken,  Integer limit, SecurityContext securityContext) throws NotFoundException {
         // do some magic!
         return Response.ok().entity(new ApiResponseMessage(ApiResponseMessage.OK, "magic!")).build();
     }
@@ -39,6 +39,9 @@ public class StreamProperty   {
   @JsonProperty("retentionPolicy")
   private RetentionConfig retentionPolicy = null;
 
+  @JsonProperty("state")
+  private String state = null;
+
   public StreamProperty scopeName(String scopeName) {
     this.scopeName = scopeName;
     return this;
@@ -115,6 +118,25 @@ public class StreamProperty   {
     this.retentionPolicy = retentionPolicy;
   }
 
+  public StreamProperty state(String state) {
+    this.state = state;
+    return this;
+  }
+
+  /**
+   * Get state
+   * @return state
+   **/
+  @JsonProperty("state")
+  @ApiModelProperty(value = "")
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
+
 
   @Override
   public boolean equals(java.lang.Object o) {
@@ -128,12 +150,13 @@ public class StreamProperty   {
     return Objects.equals(this.scopeName, streamProperty.scopeName) &&
         Objects.equals(this.streamName, streamProperty.streamName) &&
         Objects.equals(this.scalingPolicy, streamProperty.scalingPolicy) &&
-        Objects.equals(this.retentionPolicy, streamProperty.retentionPolicy);
+        Objects.equals(this.retentionPolicy, streamProperty.retentionPolicy) &&
+        Objects.equals(this.state, streamProperty.state);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(scopeName, streamName, scalingPolicy, retentionPolicy);
+    return Objects.hash(scopeName, streamName, scalingPolicy, retentionPolicy, state);
   }
 
 
@@ -146,6 +169,7 @@ public class StreamProperty   {
     sb.append("    streamName: ").append(toIndentedString(streamName)).append("\n");
     sb.append("    scalingPolicy: ").append(toIndentedString(scalingPolicy)).append("\n");
     sb.append("    retentionPolicy: ").append(toIndentedString(retentionPolicy)).append("\n");
+    sb.append("    state: ").append(toIndentedString(state)).append("\n");
     sb.append("}");
     return sb.toString();
   }
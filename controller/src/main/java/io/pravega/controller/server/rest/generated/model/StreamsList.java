@@ -31,6 +31,9 @@ public class StreamsList   {
   @JsonProperty("streams")
   private List<StreamProperty> streams = null;
 
+  @JsonProperty("continuationToken")
+  private String continuationToken = null;
+
   public StreamsList streams(List<StreamProperty> streams) {
     this.streams = streams;
     return this;
@@ -58,6 +61,25 @@ public class StreamsList   {
     this.streams = streams;
   }
 
+  public StreamsList continuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+    return this;
+  }
+
+  /**
+   * Get continuationToken
+   * @return continuationToken
+   **/
+  @JsonProperty("continuationToken")
+  @ApiModelProperty(value = "")
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  public void setContinuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+  }
+
 
   @Override
   public boolean equals(java.lang.Object o) {
@@ -68,12 +90,13 @@ public class StreamsList   {
       return false;
     }
     StreamsList streamsList = (StreamsList) o;
-    return Objects.equals(this.streams, streamsList.streams);
+    return Objects.equals(this.streams, streamsList.streams) &&
+        Objects.equals(this.continuationToken, streamsList.continuationToken);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(streams);
+    return Objects.hash(streams, continuationToken);
   }
 
 
@@ -83,6 +106,7 @@ public class StreamsList   {
     sb.append("class StreamsList {\n");
     
     sb.append("    streams: ").append(toIndentedString(streams)).append("\n");
+    sb.append("    continuationToken: ").append(toIndentedString(continuationToken)).append("\n");
     sb.append("}");
     return sb.toString();
   }
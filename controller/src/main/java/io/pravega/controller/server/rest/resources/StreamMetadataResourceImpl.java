@@ -48,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
@@ -478,12 +479,16 @@ public class StreamMetadataResourceImpl implements ApiV1.ScopesApi {
      * Implementation of listStreams REST API.
      *
      * @param scopeName           The scope name of stream.
+     * @param showInternalStreams Whether to list only the internal streams instead of the user created streams.
+     * @param continuationToken   Continuation token returned with the previous page of streams.
+     * @param limit               Maximum number of streams to return. If neither this nor the continuation token is
+     *                            set, all streams in the scope are returned in a single response.
      * @param securityContext     The security for API access.
      * @param asyncResponse       AsyncResponse provides means for asynchronous server side response processing.
      */
     @Override
-    public void listStreams(final String scopeName, final String showInternalStreams,
-                            final SecurityContext securityContext, final AsyncResponse asyncResponse) {
+    public void listStreams(final String scopeName, final String showInternalStreams, final String continuationToken,
+                            final Integer limit, final SecurityContext securityContext, final AsyncResponse asyncResponse) {
         long traceId = LoggerHelpers.traceEnter(log, "listStreams");
 
         try {
@@ -495,16 +500,30 @@ public class StreamMetadataResourceImpl implements ApiV1.ScopesApi {
             return;
         }
         boolean showOnlyInternalStreams = showInternalStreams != null && showInternalStreams.equals("true");
-        controllerService.listStreamsInScope(scopeName)
-                .thenApply(streamsList -> {
-                    StreamsList streams = new StreamsList();
-                    streamsList.forEach(stream -> {
-                        // If internal streams are requested select only the ones that have the special stream names
-                        // otherwise display the regular user created streams.
-                        if (!showOnlyInternalStreams ^ stream.getStreamName().startsWith(INTERNAL_NAME_PREFIX)) {
-                            streams.addStreamsItem(ModelHelper.encodeStreamResponse(stream));
-                        }
+        // If internal streams are requested select only the ones that have the special stream names
+        // otherwise display the regular user created streams.
+        Predicate<StreamConfiguration> filter = stream ->
+                !showOnlyInternalStreams ^ stream.getStreamName().startsWith(INTERNAL_NAME_PREFIX);
+        CompletableFuture<StreamsList> streamsFuture;
+        if (continuationToken == null && limit == null) {
+            streamsFuture = controllerService.listStreamsInScope(scopeName).thenApply(streamsList -> {
+                StreamsList streams = new StreamsList();
+                streamsList.stream().filter(filter)
+                           .forEach(stream -> streams.addStreamsItem(ModelHelper.encodeStreamResponse(stream)));
+                return streams;
+            });
+        } else {
+            streamsFuture = controllerService.listStreams(scopeName, continuationToken, limit == null ? 0 : limit)
+                    .thenApply(page -> {
+                        // Filtered pages may hold fewer streams than requested; only an empty page marks the end.
+                        StreamsList streams = new StreamsList().streams(new ArrayList<>());
+                        page.getKey().stream().filter(entry -> filter.test(entry.getConfiguration()))
+                            .forEach(entry -> streams.addStreamsItem(ModelHelper.encodeStreamResponse(entry.getConfiguration())
+                                                                                .state(entry.getState().name())));
+                        return streams.continuationToken(page.getValue());
                     });
+        }
+        streamsFuture.thenApply(streams -> {
                     log.info("Successfully fetched streams for scope: {}", scopeName);
                     return Response.status(Status.OK).entity(streams).build();
                 }).exceptionally(exception -> {
@@ -264,6 +264,10 @@ public final class ApiV1 {
         void listStreams(@ApiParam(value = "Scope name", required = true) @PathParam("scopeName") String scopeName,
                          @ApiParam(value = "Flag whether to display only system created streams")
                          @QueryParam("showInternalStreams") String showInternalStreams,
+                         @ApiParam(value = "Continuation token returned with the previous page of streams")
+                         @QueryParam("continuationToken") String continuationToken,
+                         @ApiParam(value = "Maximum number of streams to return")
+                         @QueryParam("limit") Integer limit,
                 @Context SecurityContext securityContext, @Suspended final AsyncResponse asyncResponse);
 
         @PUT
@@ -99,16 +99,29 @@ public class PravegaInterceptor implements ServerInterceptor {
 
     public void setDelegationToken(String resource, AuthHandler.Permissions expectedLevel, String tokenSigningKey) {
         if (AUTH_ENABLED) {
-            Map<String, Object> claims = new HashMap<>();
-
-            claims.put(resource, String.valueOf(expectedLevel));
-
-            delegationToken = Jwts.builder()
-                                  .setSubject("segmentstoreresource")
-                                  .setAudience("segmentstore")
-                                  .setClaims(claims)
-                                  .signWith(SignatureAlgorithm.HS512, tokenSigningKey.getBytes())
-                                  .compact();
+            delegationToken = createDelegationToken(resource, expectedLevel, tokenSigningKey);
         }
     }
+
+    /**
+     * Creates a new delegation token granting the given access to a resource. Unlike {@link #setDelegationToken},
+     * this does not depend on the call being served, so it can be used to hand out fresh tokens on long-lived calls.
+     *
+     * @param resource        The resource the token grants access to.
+     * @param expectedLevel   The access level granted.
+     * @param tokenSigningKey The key to sign the token with.
+     * @return The signed token.
+     */
+    public static String createDelegationToken(String resource, AuthHandler.Permissions expectedLevel, String tokenSigningKey) {
+        Map<String, Object> claims = new HashMap<>();
+
+        claims.put(resource, String.valueOf(expectedLevel));
+
+        return Jwts.builder()
+                   .setSubject("segmentstoreresource")
+                   .setAudience("segmentstore")
+                   .setClaims(claims)
+                   .signWith(SignatureAlgorithm.HS512, tokenSigningKey.getBytes())
+                   .compact();
+    }
 }
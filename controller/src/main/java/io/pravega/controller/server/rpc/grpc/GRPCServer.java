@@ -30,6 +30,7 @@ public class GRPCServer extends AbstractIdleService {
     private final String objectId;
     private final Server server;
     private final GRPCServerConfig config;
+    private final ControllerServiceImpl controllerServiceImpl;
     @Getter
     private final PravegaAuthManager pravegaAuthManager;
 
@@ -42,9 +43,11 @@ public class GRPCServer extends AbstractIdleService {
     public GRPCServer(ControllerService controllerService, GRPCServerConfig serverConfig) {
         this.objectId = "gRPCServer";
         this.config = serverConfig;
+        this.controllerServiceImpl = new ControllerServiceImpl(controllerService, serverConfig.getTokenSigningKey(),
+                serverConfig.isAuthorizationEnabled());
         ServerBuilder<?> builder = ServerBuilder
                 .forPort(serverConfig.getPort())
-                .addService(new ControllerServiceImpl(controllerService, serverConfig.getTokenSigningKey(), serverConfig.isAuthorizationEnabled()));
+                .addService(this.controllerServiceImpl);
         if (serverConfig.isAuthorizationEnabled()) {
             this.pravegaAuthManager = new PravegaAuthManager(serverConfig);
             this.pravegaAuthManager.registerInterceptors(builder);
@@ -82,6 +85,8 @@ public class GRPCServer extends AbstractIdleService {
         try {
             log.info("Stopping gRPC server listening on port: {}", this.config.getPort());
             this.server.shutdown();
+            // Long-lived watch calls would otherwise keep the server from terminating.
+            this.controllerServiceImpl.close();
             log.info("Awaiting termination of gRPC server");
             this.server.awaitTermination();
             log.info("gRPC server terminated");
@@ -10,18 +10,23 @@
 package io.pravega.controller.server.rpc.grpc.v1;
 
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.pravega.auth.AuthHandler;
 import io.pravega.client.stream.impl.ModelHelper;
 import io.pravega.common.Exceptions;
 import io.pravega.controller.server.ControllerService;
 import io.pravega.controller.server.rpc.auth.PravegaInterceptor;
+import io.pravega.controller.store.host.HostControllerStore;
+import io.pravega.controller.store.stream.StoreException;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateStreamStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateTxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteStreamStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransition;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransitionRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.GetSegmentsRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnRequest;
@@ -31,6 +36,8 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScopeInfo;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMap;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMapRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentId;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentRanges;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentValidityResponse;
@@ -39,32 +46,51 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentsAtTime.Segmen
 import io.pravega.controller.stream.api.grpc.v1.Controller.ServerRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ServerResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.StreamConfig;
+import io.pravega.controller.stream.api.grpc.v1.Controller.StreamCutLookupRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.StreamInfo;
+import io.pravega.controller.stream.api.grpc.v1.Controller.StreamsInScopeRequest;
+import io.pravega.controller.stream.api.grpc.v1.Controller.StreamsInScopeResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SuccessorResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnState;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.UpdateStreamStatus;
 import io.pravega.controller.stream.api.grpc.v1.ControllerServiceGrpc;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * gRPC Service API implementation for the Controller.
  */
 @Slf4j
-@AllArgsConstructor
-public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServiceImplBase {
+public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServiceImplBase implements AutoCloseable {
 
     // The underlying Controller Service implementation to delegate all API calls to.
     private final ControllerService controllerService;
     private final String tokenSigningKey;
     private final boolean isAuthEnabled;
+    private final EpochTransitionNotifier epochTransitionNotifier;
+
+    public ControllerServiceImpl(ControllerService controllerService, String tokenSigningKey, boolean isAuthEnabled) {
+        this.controllerService = controllerService;
+        this.tokenSigningKey = tokenSigningKey;
+        this.isAuthEnabled = isAuthEnabled;
+        this.epochTransitionNotifier = new EpochTransitionNotifier(controllerService);
+    }
+
+    /**
+     * Ends all epoch transition watches and releases the resources used to serve them.
+     */
+    @Override
+    public void close() {
+        epochTransitionNotifier.close();
+    }
 
     @Override
     public void getControllerServerList(ServerRequest request, StreamObserver<ServerResponse> responseObserver) {
@@ -184,6 +210,24 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
                 responseObserver);
     }
 
+    @Override
+    public void getStreamCutAt(StreamCutLookupRequest request, StreamObserver<Controller.StreamCut> responseObserver) {
+        log.debug("getStreamCutAt called for stream {} at {}", request.getStreamInfo(), request.getPositionCase());
+        String scope = request.getStreamInfo().getScope();
+        String stream = request.getStreamInfo().getStream();
+        authenticateExecuteAndProcessResults(v -> checkAuthorization(scope + "/" + stream, AuthHandler.Permissions.READ),
+                () -> {
+                    CompletableFuture<Map<Long, Long>> streamCut;
+                    if (request.getPositionCase() == StreamCutLookupRequest.PositionCase.SIZE) {
+                        streamCut = controllerService.getStreamCutAtSize(scope, stream, request.getSize());
+                    } else {
+                        streamCut = controllerService.getStreamCutAtTime(scope, stream, request.getTimestamp());
+                    }
+                    return streamCut.thenApply(cut -> ModelHelper.decode(scope, stream, cut));
+                },
+                responseObserver);
+    }
+
     @Override
     public void scale(ScaleRequest request, StreamObserver<ScaleResponse> responseObserver) {
         log.info("scale called for stream {}/{}.", request.getStreamInfo().getScope(),
@@ -317,6 +361,30 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
                 responseObserver);
     }
 
+    @Override
+    public void listStreamsInScope(StreamsInScopeRequest request, StreamObserver<StreamsInScopeResponse> responseObserver) {
+        log.info("listStreamsInScope called for scope {}.", request.getScope().getScope());
+        authenticateExecuteAndProcessResults(v -> checkAuthorization(request.getScope().getScope(), AuthHandler.Permissions.READ),
+                () -> controllerService.listStreams(request.getScope().getScope(), request.getContinuationToken(),
+                        request.getLimit())
+                        .handle((page, e) -> {
+                            StreamsInScopeResponse.Builder builder = StreamsInScopeResponse.newBuilder();
+                            if (e != null) {
+                                if (Exceptions.unwrap(e) instanceof StoreException.DataNotFoundException) {
+                                    return builder.setStatus(StreamsInScopeResponse.Status.SCOPE_NOT_FOUND).build();
+                                }
+                                throw new CompletionException(e);
+                            }
+                            page.getKey().forEach(entry -> builder.addStreams(StreamsInScopeResponse.StreamEntry.newBuilder()
+                                    .setConfig(ModelHelper.decode(entry.getConfiguration()))
+                                    .setState(entry.getState().name())));
+                            return builder.setContinuationToken(page.getValue())
+                                          .setStatus(StreamsInScopeResponse.Status.SUCCESS)
+                                          .build();
+                        }),
+                responseObserver);
+    }
+
     @Override
     public void getDelegationToken(io.pravega.controller.stream.api.grpc.v1.Controller.StreamInfo request,
                                    io.grpc.stub.StreamObserver<io.pravega.controller.stream.api.grpc.v1.Controller.DelegationToken> responseObserver)  {
@@ -331,6 +399,51 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
                 responseObserver);
     }
 
+    @Override
+    public void watchSegmentContainerMap(SegmentContainerMapRequest request,
+                                         StreamObserver<SegmentContainerMap> responseObserver) {
+        log.info("watchSegmentContainerMap called with known version {}.", request.getKnownVersion());
+        // The map is not scoped to any stream, so any authenticated caller may watch it. Such a caller can already
+        // look up the segment store hosts using getURI.
+        if (!checkAuthentication()) {
+            failUnauthenticated(responseObserver);
+            return;
+        }
+        HostControllerStore hostStore = controllerService.getHostStore();
+        SegmentContainerMapPublisher publisher = new SegmentContainerMapPublisher(request.getKnownVersion(), responseObserver);
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            ((ServerCallStreamObserver<SegmentContainerMap>) responseObserver).setOnCancelHandler(() -> {
+                log.debug("watchSegmentContainerMap call cancelled by the client.");
+                publisher.close();
+            });
+        }
+        hostStore.registerHostContainersMapListener(publisher);
+        // Send the current map right away in case it changed since the caller last saw it.
+        publisher.run();
+    }
+
+    @Override
+    public void watchEpochTransitions(EpochTransitionRequest request, StreamObserver<EpochTransition> responseObserver) {
+        String scope = request.getStreamInfo().getScope();
+        String stream = request.getStreamInfo().getStream();
+        log.info("watchEpochTransitions called for stream {}/{} with known epoch {}.", scope, stream,
+                request.getKnownEpoch());
+        String resource = scope + "/" + stream;
+        if (!checkAuthorizationWithToken(resource, AuthHandler.Permissions.READ_UPDATE)) {
+            failUnauthenticated(responseObserver);
+            return;
+        }
+        // Transitions are published long after this call returned, so every one of them gets a freshly minted token.
+        Supplier<String> delegationTokens = isAuthEnabled
+                ? () -> PravegaInterceptor.createDelegationToken(resource, AuthHandler.Permissions.READ_UPDATE, tokenSigningKey)
+                : () -> "";
+        Runnable unwatch = epochTransitionNotifier.watch(scope, stream, request.getKnownEpoch(), delegationTokens,
+                responseObserver);
+        if (responseObserver instanceof ServerCallStreamObserver) {
+            ((ServerCallStreamObserver<EpochTransition>) responseObserver).setOnCancelHandler(unwatch);
+        }
+    }
+
     // Convert responses from CompletableFuture to gRPC's Observer pattern.
     private static <T> void authenticateExecuteAndProcessResults(Predicate<Void> authenticator,
                                                                  Supplier<CompletableFuture<T>> call, final StreamObserver<T> streamObserver) {
@@ -353,13 +466,22 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
                         }
                     });
         } else {
-            log.error("Controller api failed with authenticator error");
-            streamObserver.onError(Status.UNAUTHENTICATED
-                    .withDescription("Authentication failed")
-                    .asRuntimeException());
+            failUnauthenticated(streamObserver);
         }
     }
 
+    private static void failUnauthenticated(final StreamObserver<?> streamObserver) {
+        log.error("Controller api failed with authenticator error");
+        streamObserver.onError(Status.UNAUTHENTICATED
+                .withDescription("Authentication failed")
+                .asRuntimeException());
+    }
+
+    private boolean checkAuthentication() {
+        // The interceptor is only attached to calls that presented valid credentials.
+        return !isAuthEnabled || PravegaInterceptor.INTERCEPTOR_OBJECT.get() != null;
+    }
+
     public boolean checkAuthorization(String resource, AuthHandler.Permissions expectedLevel) {
         if (isAuthEnabled) {
             PravegaInterceptor currentInterceptor = PravegaInterceptor.INTERCEPTOR_OBJECT.get();
@@ -400,4 +522,45 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
             return "";
         }
     }
+
+    /**
+     * Pushes the segment container map to a single watching client every time it changes.
+     */
+    private class SegmentContainerMapPublisher implements Runnable {
+        private long lastSentVersion;
+        private final StreamObserver<SegmentContainerMap> observer;
+        private boolean closed;
+
+        SegmentContainerMapPublisher(long knownVersion, StreamObserver<SegmentContainerMap> observer) {
+            this.lastSentVersion = knownVersion;
+            this.observer = observer;
+        }
+
+        @Override
+        public synchronized void run() {
+            if (closed) {
+                return;
+            }
+            try {
+                SegmentContainerMap map = controllerService.getSegmentContainerMap();
+                // Compare for inequality since an in-memory host store restarts its versions from scratch.
+                if (map.getVersion() != lastSentVersion) {
+                    observer.onNext(map);
+                    lastSentVersion = map.getVersion();
+                }
+            } catch (Exception e) {
+                log.warn("Failed to publish segment container map, closing the watch.", e);
+                close();
+                observer.onError(Status.INTERNAL
+                        .withCause(e)
+                        .withDescription(e.getMessage())
+                        .asRuntimeException());
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            controllerService.getHostStore().unregisterHostContainersMapListener(this);
+        }
+    }
 }
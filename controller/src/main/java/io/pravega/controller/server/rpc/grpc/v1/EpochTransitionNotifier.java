@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server.rpc.grpc.v1;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.pravega.client.stream.impl.ModelHelper;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.controller.server.ControllerService;
+import io.pravega.controller.store.stream.EpochTransitionListener;
+import io.pravega.controller.store.stream.StoreException;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.RequiredArgsConstructor;
+import lombok.Synchronized;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes epoch transitions of watched streams to subscribed clients.
+ *
+ * A watched stream is checked as soon as this controller completes a scale or a rolling transaction on it, and
+ * otherwise once per (much longer) interval, to pick up transitions made by other controller instances. Each check is
+ * shared by all the clients watching the stream, and the segments created by each transition are computed once for all
+ * subscribers. This replaces the burst of getSuccessors and getCurrentSegments calls that every reader and writer would
+ * otherwise make right after a scale.
+ */
+@Slf4j
+class EpochTransitionNotifier implements AutoCloseable {
+    // Maximum number of missed transitions replayed to a subscriber. Older ones are skipped and clients fall back
+    // to querying the controller for them.
+    @VisibleForTesting
+    static final int MAX_REPLAYED_TRANSITIONS = 10;
+    private static final long POLL_INTERVAL_MILLIS = 5000;
+
+    private final ControllerService controllerService;
+    private final long pollIntervalMillis;
+    private final EpochTransitionListener epochTransitionListener = this::onEpochTransition;
+    @GuardedBy("$lock")
+    private final Map<String, WatchedStream> watchedStreams = new HashMap<>();
+    @GuardedBy("$lock")
+    private ScheduledExecutorService scheduler;
+    @GuardedBy("$lock")
+    private ScheduledFuture<?> pollTask;
+    @GuardedBy("$lock")
+    private boolean closed;
+
+    EpochTransitionNotifier(ControllerService controllerService) {
+        this(controllerService, POLL_INTERVAL_MILLIS);
+    }
+
+    @VisibleForTesting
+    EpochTransitionNotifier(ControllerService controllerService, long pollIntervalMillis) {
+        this.controllerService = controllerService;
+        this.pollIntervalMillis = pollIntervalMillis;
+        controllerService.getStreamStore().registerEpochTransitionListener(epochTransitionListener);
+    }
+
+    /**
+     * Subscribes the given observer to the epoch transitions of a stream.
+     *
+     * @param scope            The scope of the stream.
+     * @param stream           The name of the stream.
+     * @param knownEpoch       The last epoch known to the subscriber, or a negative value if none.
+     * @param delegationTokens Supplies the delegation token to hand out along with the new segments of each transition.
+     * @param observer         The observer to publish transitions to.
+     * @return A handle which removes the subscription when run.
+     */
+    @Synchronized
+    Runnable watch(String scope, String stream, int knownEpoch, Supplier<String> delegationTokens,
+                   StreamObserver<EpochTransition> observer) {
+        Subscriber subscriber = new Subscriber(observer, delegationTokens, knownEpoch);
+        if (closed) {
+            subscriber.fail(Status.UNAVAILABLE.withDescription("Controller is shutting down"));
+            return () -> { };
+        }
+        WatchedStream watched = watchedStreams.computeIfAbsent(scope + "/" + stream, k -> new WatchedStream(scope, stream));
+        watched.subscribers.add(subscriber);
+        if (pollTask == null) {
+            if (scheduler == null) {
+                scheduler = ExecutorServiceHelpers.newScheduledThreadPool(1, "epoch-transition-notifier");
+            }
+            pollTask = scheduler.scheduleWithFixedDelay(this::pollAll, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return () -> unwatch(watched, subscriber);
+    }
+
+    @Synchronized
+    private void unwatch(WatchedStream watched, Subscriber subscriber) {
+        watched.subscribers.remove(subscriber);
+        if (watched.subscribers.isEmpty()) {
+            watchedStreams.remove(watched.getKey(), watched);
+        }
+        if (watchedStreams.isEmpty() && pollTask != null) {
+            pollTask.cancel(false);
+            pollTask = null;
+        }
+    }
+
+    /**
+     * Stops publishing transitions. All subscribers are failed with UNAVAILABLE, so that they resubscribe with another
+     * controller instance.
+     */
+    @Override
+    public void close() {
+        controllerService.getStreamStore().unregisterEpochTransitionListener(epochTransitionListener);
+        ScheduledExecutorService toShutdown = markClosed();
+        if (toShutdown != null) {
+            ExecutorServiceHelpers.shutdown(toShutdown);
+        }
+        getWatchedStreams().forEach(watched -> closeAll(watched, Status.UNAVAILABLE.withDescription("Controller is shutting down")));
+    }
+
+    @Synchronized
+    private ScheduledExecutorService markClosed() {
+        closed = true;
+        ScheduledExecutorService result = scheduler;
+        scheduler = null;
+        return result;
+    }
+
+    @Synchronized
+    private void onEpochTransition(String scope, String stream) {
+        WatchedStream watched = watchedStreams.get(scope + "/" + stream);
+        if (watched != null && !closed) {
+            scheduler.execute(() -> pollStream(watched));
+        }
+    }
+
+    @Synchronized
+    private List<WatchedStream> getWatchedStreams() {
+        return new ArrayList<>(watchedStreams.values());
+    }
+
+    // Returns true if the caller should poll the stream, or false if it is no longer watched or is already being polled
+    // (in which case it will be polled again once that poll completes).
+    @Synchronized
+    private boolean startPoll(WatchedStream watched) {
+        if (closed || watchedStreams.get(watched.getKey()) != watched) {
+            return false;
+        }
+        if (watched.polling) {
+            watched.pollAgain = true;
+            return false;
+        }
+        watched.polling = true;
+        return true;
+    }
+
+    @Synchronized
+    private List<Subscriber> getSubscribers(WatchedStream watched) {
+        return new ArrayList<>(watched.subscribers);
+    }
+
+    // Returns true if the stream needs to be polled again because a transition was reported while it was being polled.
+    @Synchronized
+    private boolean endPoll(WatchedStream watched) {
+        if (watched.pollAgain && !closed) {
+            watched.pollAgain = false;
+            return true;
+        }
+        watched.polling = false;
+        return false;
+    }
+
+    private void pollAll() {
+        getWatchedStreams().forEach(this::pollStream);
+    }
+
+    private void pollStream(WatchedStream watched) {
+        if (startPoll(watched)) {
+            runPoll(watched);
+        }
+    }
+
+    private void runPoll(WatchedStream watched) {
+        poll(watched).whenComplete((r, e) -> {
+            if (e != null) {
+                log.warn("Failed to publish epoch transitions for stream {}.", watched.getKey(), e);
+            }
+            if (endPoll(watched)) {
+                runPoll(watched);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> poll(WatchedStream watched) {
+        return controllerService.getActiveEpoch(watched.scope, watched.stream).handle((epoch, e) -> {
+            if (e != null) {
+                if (Exceptions.unwrap(e) instanceof StoreException.DataNotFoundException) {
+                    closeAll(watched, Status.NOT_FOUND.withDescription("Stream " + watched.getKey() + " does not exist"));
+                } else {
+                    log.warn("Failed to fetch active epoch of stream {}.", watched.getKey(), e);
+                }
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            return publishUpTo(watched, epoch);
+        }).thenCompose(f -> f);
+    }
+
+    private CompletableFuture<Void> publishUpTo(WatchedStream watched, int epoch) {
+        int fromEpoch = epoch + 1;
+        for (Subscriber subscriber : getSubscribers(watched)) {
+            fromEpoch = Math.min(fromEpoch, subscriber.start(epoch) + 1);
+        }
+        fromEpoch = Math.max(fromEpoch, Math.max(1, epoch - MAX_REPLAYED_TRANSITIONS + 1));
+
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        for (int e = fromEpoch; e <= epoch; e++) {
+            final int transitionEpoch = e;
+            result = result.thenCompose(v -> controllerService.getSegmentsCreatedInEpoch(watched.scope, watched.stream,
+                    transitionEpoch))
+                           .thenAccept(newSegments -> {
+                               EpochTransition transition = EpochTransition.newBuilder()
+                                       .setStreamInfo(ModelHelper.createStreamInfo(watched.scope, watched.stream))
+                                       .setEpoch(transitionEpoch)
+                                       .addAllNewSegments(ModelHelper.createSuccessorResponse(newSegments).getSegmentsList())
+                                       .build();
+                               getSubscribers(watched).forEach(subscriber -> subscriber.publish(transition));
+                           });
+        }
+        return result;
+    }
+
+    private void closeAll(WatchedStream watched, Status status) {
+        for (Subscriber subscriber : getSubscribers(watched)) {
+            unwatch(watched, subscriber);
+            subscriber.fail(status);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class WatchedStream {
+        private final String scope;
+        private final String stream;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private boolean polling;
+        private boolean pollAgain;
+
+        String getKey() {
+            return scope + "/" + stream;
+        }
+    }
+
+    private static final class Subscriber {
+        private final StreamObserver<EpochTransition> observer;
+        private final Supplier<String> delegationTokens;
+        @GuardedBy("this")
+        private int lastSentEpoch;
+        @GuardedBy("this")
+        private boolean failed;
+
+        Subscriber(StreamObserver<EpochTransition> observer, Supplier<String> delegationTokens, int knownEpoch) {
+            this.observer = observer;
+            this.delegationTokens = delegationTokens;
+            this.lastSentEpoch = knownEpoch;
+        }
+
+        // Initializes new subscribers at the current epoch and returns the last epoch the subscriber has seen.
+        synchronized int start(int currentEpoch) {
+            if (lastSentEpoch < 0 || lastSentEpoch > currentEpoch) {
+                lastSentEpoch = currentEpoch;
+            }
+            return lastSentEpoch;
+        }
+
+        synchronized void publish(EpochTransition transition) {
+            if (failed || lastSentEpoch < 0 || transition.getEpoch() <= lastSentEpoch) {
+                return;
+            }
+            try {
+                observer.onNext(transition.toBuilder().setDelegationToken(delegationTokens.get()).build());
+                lastSentEpoch = transition.getEpoch();
+            } catch (RuntimeException e) {
+                // The call has most likely been cancelled; the cancel handler removes the subscription.
+                log.debug("Failed to publish epoch transition {}.", transition.getEpoch(), e);
+            }
+        }
+
+        synchronized void fail(Status status) {
+            if (!failed) {
+                failed = true;
+                observer.onError(status.asRuntimeException());
+            }
+        }
+    }
+}
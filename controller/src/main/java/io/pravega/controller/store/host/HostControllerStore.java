@@ -52,4 +52,27 @@ public interface HostControllerStore {
      */
     Host getHostForSegment(String scope, String stream, long segmentId);
 
+    /**
+     * Get the version of the host to container map currently known to this store. The version increases every time
+     * the map is updated, so callers can cheaply detect whether a previously fetched map is stale.
+     *
+     * @return                      The version of the latest host to container mapping.
+     * @throws HostStoreException   On error while fetching the version.
+     */
+    long getHostContainersMapVersion();
+
+    /**
+     * Register a listener which is invoked every time the host to container map changes. Listeners may be invoked
+     * on the thread applying the update or on a store-internal thread, so they must not block.
+     *
+     * @param listener The listener to invoke on every change.
+     */
+    void registerHostContainersMapListener(Runnable listener);
+
+    /**
+     * Unregister a listener previously registered using {@link #registerHostContainersMapListener(Runnable)}.
+     *
+     * @param listener The listener to remove.
+     */
+    void unregisterHostContainersMapListener(Runnable listener);
 }
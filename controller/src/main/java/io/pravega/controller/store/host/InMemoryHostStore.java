@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import lombok.Synchronized;
@@ -26,6 +27,8 @@ import lombok.extern.slf4j.Slf4j;
 public class InMemoryHostStore implements HostControllerStore {
     private Map<Host, Set<Integer>> hostContainerMap;
     private final SegmentToContainerMapper segmentMapper;
+    private long hostContainerMapVersion;
+    private final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Creates an in memory based host store. The data is not persisted across restarts. Useful for dev and single node
@@ -46,10 +49,22 @@ public class InMemoryHostStore implements HostControllerStore {
     }
 
     @Override
-    @Synchronized
     public void updateHostContainersMap(Map<Host, Set<Integer>> newMapping) {
         Preconditions.checkNotNull(newMapping, "newMapping");
+        applyUpdate(newMapping);
+        listeners.forEach(listener -> {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.warn("Host container map listener failed", e);
+            }
+        });
+    }
+
+    @Synchronized
+    private void applyUpdate(Map<Host, Set<Integer>> newMapping) {
         hostContainerMap = new HashMap<>(newMapping);
+        hostContainerMapVersion++;
     }
 
     private Host getHostForContainer(int containerId) {
@@ -74,4 +89,21 @@ public class InMemoryHostStore implements HostControllerStore {
         String qualifiedName = StreamSegmentNameUtils.getQualifiedStreamSegmentName(scope, stream, segmentId);
         return getHostForContainer(segmentMapper.getContainerId(qualifiedName));
     }
+
+    @Override
+    @Synchronized
+    public long getHostContainersMapVersion() {
+        return hostContainerMapVersion;
+    }
+
+    @Override
+    public void registerHostContainersMapListener(Runnable listener) {
+        Preconditions.checkNotNull(listener, "listener");
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unregisterHostContainersMapListener(Runnable listener) {
+        listeners.remove(listener);
+    }
 }
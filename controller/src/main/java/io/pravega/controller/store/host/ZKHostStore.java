@@ -14,20 +14,28 @@ import io.pravega.common.cluster.Host;
 import io.pravega.controller.util.ZKUtils;
 import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.NodeCache;
 import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.data.Stat;
 
 /**
  * Zookeeper based implementation of the HostControllerStore.
+ *
+ * The host to container map is cached in memory and kept up to date using a zookeeper watch, so segment to host
+ * lookups do not require a zookeeper round trip.
  */
 @Slf4j
 public class ZKHostStore implements HostControllerStore {
@@ -43,6 +51,14 @@ public class ZKHostStore implements HostControllerStore {
 
     private final SegmentToContainerMapper segmentMapper;
 
+    //Watches the segment container mapping node.
+    private final NodeCache hostContainerMapNode;
+
+    //The latest known version of the segment container mapping.
+    private volatile HostContainerMapSnapshot snapshot;
+
+    private final CopyOnWriteArrayList<Runnable> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Zookeeper based host store implementation.
      *
@@ -54,14 +70,25 @@ public class ZKHostStore implements HostControllerStore {
         zkClient = client;
         zkPath = ZKPaths.makePath("cluster", "segmentContainerHostMapping");
         segmentMapper = new SegmentToContainerMapper(containerCount);
+        hostContainerMapNode = new NodeCache(zkClient, zkPath);
     }
 
-    //Ensure required zk node is present in zookeeper.
+    //Ensure required zk node is present in zookeeper and the local cache is populated.
     @Synchronized
     private void tryInit() {
         if (!zkInit) {
             ZKUtils.createPathIfNotExists(zkClient, zkPath, SerializationUtils.serialize(new HashMap<Host,
                     Set<Integer>>()));
+            hostContainerMapNode.getListenable().addListener(this::onNodeChanged);
+            try {
+                hostContainerMapNode.start(true);
+            } catch (Exception e) {
+                throw new HostStoreException("Failed to start watching segment container map in zookeeper", e);
+            }
+            onNodeChanged();
+            if (snapshot == null) {
+                throw new HostStoreException("Failed to fetch segment container map from zookeeper");
+            }
             zkInit = true;
         }
     }
@@ -70,16 +97,9 @@ public class ZKHostStore implements HostControllerStore {
     public Map<Host, Set<Integer>> getHostContainersMap() {
         tryInit();
 
-        return getCurrentHostMap();
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<Host, Set<Integer>> getCurrentHostMap() {
-        try {
-            return (Map<Host, Set<Integer>>) SerializationUtils.deserialize(zkClient.getData().forPath(zkPath));
-        } catch (Exception e) {
-            throw new HostStoreException("Failed to fetch segment container map from zookeeper", e);
-        }
+        Map<Host, Set<Integer>> copy = new HashMap<>();
+        snapshot.hostContainerMap.forEach((host, containers) -> copy.put(host, new HashSet<>(containers)));
+        return copy;
     }
 
     @Override
@@ -92,23 +112,24 @@ public class ZKHostStore implements HostControllerStore {
         } else {
             serializedMap = SerializationUtils.serialize(new HashMap<>(newMapping));
         }
+        Stat stat;
         try {
-            zkClient.setData().forPath(zkPath, serializedMap);
+            stat = zkClient.setData().forPath(zkPath, serializedMap);
             log.info("Successfully updated segment container map");
         } catch (Exception e) {
             throw new HostStoreException("Failed to persist segment container map to zookeeper", e);
         }
+        //Apply our own write right away instead of waiting for the watch to fire.
+        updateSnapshot(new HostContainerMapSnapshot(stat.getVersion(), newMapping));
     }
 
     private Host getHostForContainer(int containerId) {
         tryInit();
 
-        Map<Host, Set<Integer>> mapping = getCurrentHostMap();
-        Optional<Host> host = mapping.entrySet().stream()
-                .filter(x -> x.getValue().contains(containerId)).map(x -> x.getKey()).findAny();
-        if (host.isPresent()) {
-            log.debug("Found owning host: {} for containerId: {}", host.get(), containerId);
-            return host.get();
+        Host host = snapshot.containerToHost.get(containerId);
+        if (host != null) {
+            log.debug("Found owning host: {} for containerId: {}", host, containerId);
+            return host;
         } else {
             throw new HostStoreException("Could not find host for container id: " + String.valueOf(containerId));
         }
@@ -124,4 +145,81 @@ public class ZKHostStore implements HostControllerStore {
         String qualifiedName = StreamSegmentNameUtils.getQualifiedStreamSegmentName(scope, stream, segmentId);
         return getHostForContainer(segmentMapper.getContainerId(qualifiedName));
     }
+
+    @Override
+    public long getHostContainersMapVersion() {
+        tryInit();
+
+        return snapshot.version;
+    }
+
+    @Override
+    public void registerHostContainersMapListener(Runnable listener) {
+        Preconditions.checkNotNull(listener, "listener");
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unregisterHostContainersMapListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onNodeChanged() {
+        ChildData data = hostContainerMapNode.getCurrentData();
+        if (data == null || data.getStat() == null) {
+            log.warn("Segment container map is not available in zookeeper");
+            return;
+        }
+        try {
+            Map<Host, Set<Integer>> mapping = (Map<Host, Set<Integer>>) SerializationUtils.deserialize(data.getData());
+            updateSnapshot(new HostContainerMapSnapshot(data.getStat().getVersion(), mapping));
+        } catch (Exception e) {
+            log.warn("Failed to deserialize segment container map from zookeeper", e);
+        }
+    }
+
+    private void updateSnapshot(HostContainerMapSnapshot newSnapshot) {
+        if (!trySetSnapshot(newSnapshot)) {
+            return;
+        }
+        log.debug("Segment container map changed to version {}", newSnapshot.version);
+        listeners.forEach(listener -> {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.warn("Host container map listener failed", e);
+            }
+        });
+    }
+
+    @Synchronized
+    private boolean trySetSnapshot(HostContainerMapSnapshot newSnapshot) {
+        if (snapshot != null && snapshot.version >= newSnapshot.version) {
+            return false;
+        }
+        snapshot = newSnapshot;
+        return true;
+    }
+
+    /**
+     * An immutable view of one version of the segment container mapping, indexed by container for fast lookups.
+     */
+    private static final class HostContainerMapSnapshot {
+        private final long version;
+        private final Map<Host, Set<Integer>> hostContainerMap;
+        private final Map<Integer, Host> containerToHost;
+
+        HostContainerMapSnapshot(long version, Map<Host, Set<Integer>> hostContainerMap) {
+            this.version = version;
+            Map<Host, Set<Integer>> mapCopy = new HashMap<>();
+            Map<Integer, Host> index = new HashMap<>();
+            hostContainerMap.forEach((host, containers) -> {
+                mapCopy.put(host, Collections.unmodifiableSet(new HashSet<>(containers)));
+                containers.forEach(containerId -> index.put(containerId, host));
+            });
+            this.hostContainerMap = Collections.unmodifiableMap(mapCopy);
+            this.containerToHost = Collections.unmodifiableMap(index);
+        }
+    }
 }
@@ -14,6 +14,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import io.pravega.client.stream.StreamConfiguration;
+import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.hash.RandomFactory;
 import io.pravega.common.lang.Int96;
@@ -50,6 +51,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -85,6 +88,7 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
     private final LoadingCache<String, Scope> scopeCache;
     private final LoadingCache<Pair<String, String>, Stream> cache;
     private final HostIndex hostIndex;
+    private final List<EpochTransitionListener> epochTransitionListeners = new CopyOnWriteArrayList<>();
 
     protected AbstractStreamMetadataStore(HostIndex hostIndex, int bucketCount) {
         cache = CacheBuilder.newBuilder()
@@ -261,6 +265,41 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
     }
 
 
+    @Override
+    public CompletableFuture<Pair<List<StreamListEntry>, String>> listStreams(final String scopeName, final String continuationToken,
+                                                                              final int limit, final Executor executor) {
+        return withCompletion(getScope(scopeName).listStreams(continuationToken, limit)
+                .thenCompose(names -> getStreamListEntries(scopeName, continuationToken, names)), executor);
+    }
+
+    CompletableFuture<Pair<List<StreamListEntry>, String>> getStreamListEntries(final String scopeName, final String continuationToken,
+                                                                                final List<String> names) {
+        String nextToken = names.isEmpty() ? continuationToken : names.get(names.size() - 1);
+        // The scope's index serves the whole page with a single read, only streams missing from it are read one by one.
+        return getScope(scopeName).getStreamListEntries()
+                .thenCompose(indexed -> Futures.allOfWithResults(names.stream()
+                        .map(name -> indexed.containsKey(name)
+                                ? CompletableFuture.completedFuture(indexed.get(name))
+                                : getStreamListEntry(scopeName, name))
+                        .collect(Collectors.toList())))
+                .thenApply(entries -> new ImmutablePair<>(entries.stream()
+                                                                 .filter(entry -> entry != null)
+                                                                 .collect(Collectors.toList()), nextToken));
+    }
+
+    private CompletableFuture<StreamListEntry> getStreamListEntry(final String scopeName, final String name) {
+        Stream stream = getStream(scopeName, name, null);
+        return stream.getConfiguration()
+                     .thenCombine(stream.getState(false), StreamListEntry::new)
+                     .exceptionally(e -> {
+                         // Streams deleted or still being created after the scope was listed are left out.
+                         if (Exceptions.unwrap(e) instanceof StoreException.DataNotFoundException) {
+                             return null;
+                         }
+                         throw new CompletionException(e);
+                     });
+    }
+
     @Override
     public CompletableFuture<Void> startTruncation(final String scope,
                                                    final String name,
@@ -424,7 +463,8 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
                                                            final String name,
                                                            final OperationContext context,
                                                            final Executor executor) {
-        return withCompletion(getStream(scope, name, context).scaleNewSegmentsCreated(), executor);
+        return withCompletion(getStream(scope, name, context).scaleNewSegmentsCreated(), executor)
+                .thenRun(() -> notifyEpochTransition(scope, name));
     }
 
     @Override
@@ -449,7 +489,8 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
     @Override
     public CompletableFuture<Void> rollingTxnNewSegmentsCreated(String scope, String name, Map<Long, Long> sealedTxnEpochSegments,
                                                                 int txnEpoch, long time, OperationContext context, Executor executor) {
-        return withCompletion(getStream(scope, name, context).rollingTxnNewSegmentsCreated(sealedTxnEpochSegments, txnEpoch, time), executor);
+        return withCompletion(getStream(scope, name, context).rollingTxnNewSegmentsCreated(sealedTxnEpochSegments, txnEpoch, time), executor)
+                .thenRun(() -> notifyEpochTransition(scope, name));
     }
 
     @Override
@@ -472,6 +513,20 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
         return withCompletion(stream.getRetentionStreamCuts(), executor);
     }
 
+    @Override
+    public CompletableFuture<StreamCutRecord> findStreamCutReferenceForTime(final String scope, final String name, final long time,
+                                                                            final OperationContext context, final Executor executor) {
+        Stream stream = getStream(scope, name, context);
+        return withCompletion(stream.findStreamCutReferenceForTime(time), executor);
+    }
+
+    @Override
+    public CompletableFuture<StreamCutRecord> findStreamCutReferenceForSize(final String scope, final String name, final long size,
+                                                                            final OperationContext context, final Executor executor) {
+        Stream stream = getStream(scope, name, context);
+        return withCompletion(stream.findStreamCutReferenceForSize(size), executor);
+    }
+
     @Override
     public CompletableFuture<Void> deleteStreamCutBefore(final String scope, final String name, final StreamCutRecord streamCut,
                                                          final OperationContext context, final Executor executor) {
@@ -707,6 +762,16 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
         return withCompletion(getStream(scope, stream, context).deleteWaitingRequestConditionally(processorName), executor);
     }
 
+    @Override
+    public void registerEpochTransitionListener(EpochTransitionListener listener) {
+        epochTransitionListeners.add(listener);
+    }
+
+    @Override
+    public void unregisterEpochTransitionListener(EpochTransitionListener listener) {
+        epochTransitionListeners.remove(listener);
+    }
+
     protected Stream getStream(String scope, final String name, OperationContext context) {
         Stream stream;
         if (context != null) {
@@ -731,6 +796,16 @@ public abstract class AbstractStreamMetadataStore implements StreamMetadataStore
         return scope;
     }
 
+    private void notifyEpochTransition(final String scope, final String name) {
+        for (EpochTransitionListener listener : epochTransitionListeners) {
+            try {
+                listener.epochTransitioned(scope, name);
+            } catch (Exception e) {
+                log.warn("Epoch transition listener failed for stream {}/{}", scope, name, e);
+            }
+        }
+    }
+
     private <T> CompletableFuture<T> withCompletion(CompletableFuture<T> future, final Executor executor) {
 
         // Following makes sure that the result future given out to caller is actually completed on
@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+/**
+ * Listener for changes to the active epoch of streams that are made through a particular {@link StreamMetadataStore}.
+ */
+@FunctionalInterface
+public interface EpochTransitionListener {
+    /**
+     * Called after a new epoch has been added to the history of a stream (by a scale or by a rolling transaction).
+     *
+     * @param scope  The scope of the stream.
+     * @param stream The name of the stream.
+     */
+    void epochTransitioned(String scope, String stream);
+}
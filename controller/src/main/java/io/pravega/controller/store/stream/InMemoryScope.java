@@ -13,7 +13,9 @@ import lombok.Synchronized;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -55,6 +57,18 @@ public class InMemoryScope implements Scope {
         return CompletableFuture.completedFuture(new ArrayList<>(this.streamsInScope));
     }
 
+    @Override
+    @Synchronized
+    public CompletableFuture<List<String>> listStreams(final String continuationToken, final int limit) {
+        return CompletableFuture.completedFuture(new StreamNameIndex(0, this.streamsInScope).getPage(continuationToken, limit));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, StreamListEntry>> getStreamListEntries() {
+        // Streams are held in memory, so looking them up individually is as cheap as keeping an index.
+        return CompletableFuture.completedFuture(Collections.emptyMap());
+    }
+
     @Override
     public void refresh() {
 
@@ -22,6 +22,7 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.CreateScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.util.ArrayList;
@@ -317,6 +318,19 @@ class InMemoryStreamMetadataStore extends AbstractStreamMetadataStore {
         }
     }
 
+    @Override
+    @Synchronized
+    public CompletableFuture<Pair<List<StreamListEntry>, String>> listStreams(final String scopeName, final String continuationToken,
+                                                                              final int limit, final Executor executor) {
+        InMemoryScope inMemoryScope = scopes.get(scopeName);
+        if (inMemoryScope != null) {
+            return inMemoryScope.listStreams(continuationToken, limit)
+                    .thenCompose(names -> getStreamListEntries(scopeName, continuationToken, names));
+        } else {
+            return Futures.failedFuture(StoreException.create(StoreException.Type.DATA_NOT_FOUND, scopeName));
+        }
+    }
+
     private String scopedStreamName(final String scopeName, final String streamName) {
         return new StringBuilder(scopeName).append("/").append(streamName).toString();
     }
@@ -1239,6 +1239,18 @@ public abstract class PersistentStreamBase<T> implements Stream {
                 .thenApply(RetentionRecord::getStreamCuts);
     }
 
+    @Override
+    public CompletableFuture<StreamCutRecord> findStreamCutReferenceForTime(final long time) {
+        return getRetentionSet()
+                .thenApply(data -> RetentionRecord.parse(data.getData()).findStreamCutReferenceForTime(time));
+    }
+
+    @Override
+    public CompletableFuture<StreamCutRecord> findStreamCutReferenceForSize(final long size) {
+        return getRetentionSet()
+                .thenApply(data -> RetentionRecord.parse(data.getData()).findStreamCutReferenceForSize(size));
+    }
+
     @Override
     public CompletableFuture<Void> deleteStreamCutBefore(StreamCutRecord streamCut) {
         return getRetentionSet()
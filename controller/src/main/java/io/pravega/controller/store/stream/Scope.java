@@ -10,6 +10,7 @@
 package io.pravega.controller.store.stream;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -46,6 +47,23 @@ public interface Scope {
      */
     CompletableFuture<List<String>> listStreamsInScope();
 
+    /**
+     * List a page of the streams in the scope, in lexicographic order of their names.
+     *
+     * @param continuationToken name of the last stream of the previous page, or empty to start from the first stream.
+     * @param limit             maximum number of streams to return.
+     * @return List of names of the streams in the page
+     */
+    CompletableFuture<List<String>> listStreams(final String continuationToken, final int limit);
+
+    /**
+     * Get the configuration and state of the streams in the scope which can be read at once from the scope's own
+     * metadata. Streams missing from the result have to be looked up individually.
+     *
+     * @return Map of stream name to its configuration and state
+     */
+    CompletableFuture<Map<String, StreamListEntry>> getStreamListEntries();
+
     /**
      * Refresh the scope object. Typically to be used to invalidate any caches.
      * This allows us reuse of scope object without having to recreate a new scope object for each new operation
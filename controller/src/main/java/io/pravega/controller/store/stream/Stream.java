@@ -400,6 +400,22 @@ interface Stream {
      */
     CompletableFuture<List<StreamCutRecord>> getRetentionStreamCuts();
 
+    /**
+     * Get the latest stream cut in the retention set that was recorded at or before the given time.
+     *
+     * @param time time in millis
+     * @return future of the stream cut record, or null if there is no such stream cut.
+     */
+    CompletableFuture<StreamCutRecord> findStreamCutReferenceForTime(final long time);
+
+    /**
+     * Get the latest stream cut in the retention set that has at most the given amount of data preceding it.
+     *
+     * @param size size in bytes
+     * @return future of the stream cut record, or null if there is no such stream cut.
+     */
+    CompletableFuture<StreamCutRecord> findStreamCutReferenceForSize(final long size);
+
     /**
      * Delete all stream cuts in the retention set that preceed the supplied stream cut.
      * Before is determined based on "recordingTime" for the stream cut.
@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import io.pravega.client.stream.StreamConfiguration;
+import io.pravega.controller.store.stream.tables.State;
+import lombok.Data;
+
+/**
+ * Configuration and state of a stream, as returned by paged stream listings.
+ */
+@Data
+public class StreamListEntry {
+    private final StreamConfiguration configuration;
+    private final State state;
+}
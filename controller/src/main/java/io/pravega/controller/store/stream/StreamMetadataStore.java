@@ -24,6 +24,7 @@ import io.pravega.controller.store.stream.tables.StreamTruncationRecord;
 import io.pravega.controller.store.task.TxnResource;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.List;
@@ -151,6 +152,20 @@ public interface StreamMetadataStore {
      */
     CompletableFuture<List<StreamConfiguration>> listStreamsInScope(final String scopeName);
 
+    /**
+     * List a page of the streams in a scope, in lexicographic order of their names, along with their configuration
+     * and state. Only the streams in the page are read, so the cost of a call does not grow with the size of the scope.
+     *
+     * @param scopeName         Name of the scope
+     * @param continuationToken Continuation token returned by the previous call, or empty to list from the start.
+     * @param limit             Maximum number of streams to return.
+     * @param executor          executor
+     * @return The streams in the page and the continuation token for the next page. An empty page marks the end of
+     * the listing.
+     */
+    CompletableFuture<Pair<List<StreamListEntry>, String>> listStreams(final String scopeName, final String continuationToken,
+                                                                       final int limit, final Executor executor);
+
     /**
      * List Scopes in cluster.
      *
@@ -794,6 +809,21 @@ public interface StreamMetadataStore {
      */
     void unregisterBucketListener(int bucket);
 
+    /**
+     * Method to register a listener that is notified whenever this store adds a new epoch to the history of a stream.
+     * Epoch transitions made by other controller instances are not reported.
+     *
+     * @param listener listener
+     */
+    void registerEpochTransitionListener(EpochTransitionListener listener);
+
+    /**
+     * Method to unregister a listener registered using {@link #registerEpochTransitionListener}.
+     *
+     * @param listener listener
+     */
+    void unregisterEpochTransitionListener(EpochTransitionListener listener);
+
     /**
      * Method to take ownership of a bucket.
      *
@@ -862,6 +892,35 @@ public interface StreamMetadataStore {
     CompletableFuture<List<StreamCutRecord>> getStreamCutsFromRetentionSet(final String scope, final String stream,
                                                                            final OperationContext context, final Executor executor);
 
+    /**
+     * Find the latest stream cut in the retention set of the stream that was recorded at or before the given time.
+     * The retention set is sampled periodically for every stream with a retention policy, so it serves as a
+     * coarse time index into the stream.
+     *
+     * @param scope    scope
+     * @param stream   stream
+     * @param time     time in millis
+     * @param context  context
+     * @param executor executor
+     * @return future of the stream cut record, or null if there is no such stream cut.
+     */
+    CompletableFuture<StreamCutRecord> findStreamCutReferenceForTime(final String scope, final String stream, final long time,
+                                                                     final OperationContext context, final Executor executor);
+
+    /**
+     * Find the latest stream cut in the retention set of the stream that has at most the given amount of data
+     * preceding it.
+     *
+     * @param scope    scope
+     * @param stream   stream
+     * @param size     size in bytes
+     * @param context  context
+     * @param executor executor
+     * @return future of the stream cut record, or null if there is no such stream cut.
+     */
+    CompletableFuture<StreamCutRecord> findStreamCutReferenceForSize(final String scope, final String stream, final long size,
+                                                                     final OperationContext context, final Executor executor);
+
     /**
      * Delete all stream cuts with recording time before the supplied stream cut from the retention set of the stream.
      *
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Sorted snapshot of the names of the streams in a scope, used to serve paged stream listings without listing
+ * the whole scope for every page.
+ */
+class StreamNameIndex {
+    /**
+     * Version of the scope's list of streams this snapshot was taken at.
+     */
+    @Getter
+    private final int version;
+    private final List<String> names;
+
+    StreamNameIndex(final int version, final Collection<String> names) {
+        this.version = version;
+        List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted);
+        this.names = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Returns the names which sort after the given continuation token.
+     *
+     * @param continuationToken name of the last stream of the previous page, or empty to start from the first stream.
+     * @param limit             maximum number of names to return.
+     * @return list of at most limit stream names.
+     */
+    List<String> getPage(final String continuationToken, final int limit) {
+        int start = 0;
+        if (!Strings.isNullOrEmpty(continuationToken)) {
+            int position = Collections.binarySearch(names, continuationToken);
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+        int end = start + Math.min(names.size() - start, limit);
+        return new ArrayList<>(names.subList(start, end));
+    }
+}
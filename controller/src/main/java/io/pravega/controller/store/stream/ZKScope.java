@@ -10,7 +10,9 @@
 package io.pravega.controller.store.stream;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ZKScope implements Scope {
 
@@ -18,11 +20,14 @@ public class ZKScope implements Scope {
     private final String scopePath;
     private final String scopeName;
     private final ZKStoreHelper store;
+    private final AtomicReference<StreamNameIndex> streamNameIndex = new AtomicReference<>();
+    private final ZKStreamListIndex streamListIndex;
 
     protected ZKScope(final String scopeName, ZKStoreHelper store) {
         this.scopeName = scopeName;
         this.store = store;
         scopePath = String.format(SCOPE_PATH, scopeName);
+        streamListIndex = new ZKStreamListIndex(scopeName, store);
     }
 
     @Override
@@ -37,7 +42,7 @@ public class ZKScope implements Scope {
 
     @Override
     public CompletableFuture<Void> deleteScope() {
-        return store.deleteNode(scopePath);
+        return store.deleteNode(scopePath).thenCompose(v -> streamListIndex.delete());
     }
 
     @Override
@@ -45,6 +50,30 @@ public class ZKScope implements Scope {
         return store.getChildren(scopePath);
     }
 
+    @Override
+    public CompletableFuture<List<String>> listStreams(final String continuationToken, final int limit) {
+        // The children version of the scope node only changes when streams are added or removed, so the sorted
+        // list of names is fetched again only then and not for every page.
+        return store.getChildrenVersion(scopePath)
+                .thenCompose(version -> {
+                    StreamNameIndex index = streamNameIndex.get();
+                    if (index != null && index.getVersion() == version) {
+                        return CompletableFuture.completedFuture(index);
+                    }
+                    return store.getChildren(scopePath).thenApply(children -> {
+                        StreamNameIndex newIndex = new StreamNameIndex(version, children);
+                        streamNameIndex.set(newIndex);
+                        return newIndex;
+                    });
+                })
+                .thenApply(index -> index.getPage(continuationToken, limit));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, StreamListEntry>> getStreamListEntries() {
+        return streamListIndex.getEntries();
+    }
+
     @Override
     public void refresh() {
     }
@@ -167,6 +167,25 @@ public class ZKStoreHelper {
         return result;
     }
 
+    CompletableFuture<Integer> getChildrenVersion(final String path) {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        try {
+            client.checkExists().inBackground(
+                    callback(event -> {
+                        if (event.getStat() == null) {
+                            result.completeExceptionally(StoreException.create(StoreException.Type.DATA_NOT_FOUND, path));
+                        } else {
+                            result.complete(event.getStat().getCversion());
+                        }
+                    }, result::completeExceptionally, path), executor).forPath(path);
+        } catch (Exception e) {
+            result.completeExceptionally(StoreException.create(StoreException.Type.UNKNOWN, e, path));
+        }
+
+        return result;
+    }
+
     CompletableFuture<Void> setData(final String path, final Data<Integer> data) {
         final CompletableFuture<Void> result = new CompletableFuture<>();
         try {
@@ -98,6 +98,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     private final Cache<Integer> cache;
     private final Supplier<Integer> currentBatchSupplier;
+    private final ZKStreamListIndex listIndex;
 
     @VisibleForTesting
     ZKStream(final String scopeName, final String streamName, ZKStoreHelper storeHelper) {
@@ -128,6 +129,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
         cache = new Cache<>(store::getData);
         this.currentBatchSupplier = currentBatchSupplier;
+        listIndex = new ZKStreamListIndex(scopeName, store);
     }
 
     // region overrides
@@ -151,7 +153,12 @@ class ZKStream extends PersistentStreamBase<Integer> {
 
     @Override
     public CompletableFuture<Void> deleteStream() {
-        return store.deleteTree(streamPath);
+        return store.deleteTree(streamPath)
+                .thenCompose(v -> listIndex.removeEntry(getName())
+                        .exceptionally(e -> {
+                            log.warn("Unable to remove stream {}/{} from the stream list index. {}", getScopeName(), getName(), e);
+                            return null;
+                        }));
     }
 
     @Override
@@ -288,7 +295,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     public CompletableFuture<Void> createStateIfAbsent(final State state) {
         return store.createZNodeIfNotExist(statePath, StateRecord.builder().state(state).build().toByteArray())
-                .thenApply(x -> cache.invalidateCache(statePath));
+                .thenApply(x -> cache.invalidateCache(statePath))
+                .thenCompose(v -> updateListIndex());
     }
 
     @Override
@@ -527,7 +535,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Void> setConfigurationData(final Data<Integer> configuration) {
         return store.setData(configurationPath, configuration)
-                .whenComplete((r, e) -> cache.invalidateCache(configurationPath));
+                .whenComplete((r, e) -> cache.invalidateCache(configurationPath))
+                .thenCompose(v -> updateListIndex());
     }
 
     @Override
@@ -542,7 +551,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Void> setStateData(final Data<Integer> state) {
         return store.setData(statePath, state)
-                .whenComplete((r, e) -> cache.invalidateCache(statePath));
+                .whenComplete((r, e) -> cache.invalidateCache(statePath))
+                .thenCompose(v -> updateListIndex());
     }
 
     @Override
@@ -678,6 +688,19 @@ class ZKStream extends PersistentStreamBase<Integer> {
         return ZKPaths.makePath(activeTxRoot, Integer.toString(epoch));
     }
 
+    /**
+     * Records the current configuration and state of the stream in the stream list index of its scope. The stream's
+     * own metadata has already been written at this point, so failures are only logged.
+     */
+    private CompletableFuture<Void> updateListIndex() {
+        return getConfiguration().thenCombine(getState(false), StreamListEntry::new)
+                .thenCompose(entry -> listIndex.putEntry(getName(), entry))
+                .exceptionally(e -> {
+                    log.warn("Unable to update stream {}/{} in the stream list index. {}", getScopeName(), getName(), e);
+                    return null;
+                });
+    }
+
     // region Backward Compatibility
     // TODO 2755 retire this method once we remove backward compatibility hooks for supporting old scheme.
     private String getOldSchemeCompletedTxPath(final String txId) {
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import io.pravega.common.concurrent.Futures;
+import io.pravega.controller.store.stream.tables.Data;
+import io.pravega.controller.store.stream.tables.StreamListIndexRecord;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Configuration and state of all the streams of a scope, kept in a single znode so that a page of a stream listing
+ * is served with one read instead of two reads per stream.
+ * The index is kept up to date by the streams whenever their configuration or state is written. Streams which are
+ * not in it, such as the ones created before it existed or the ones which could not be added because the index
+ * outgrew the maximum size of a znode, have to be looked up individually.
+ */
+class ZKStreamListIndex {
+    private static final String INDEX_PATH = "/streamListIndex/%s";
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+
+    private final String indexPath;
+    private final ZKStoreHelper store;
+
+    ZKStreamListIndex(final String scopeName, final ZKStoreHelper store) {
+        this.indexPath = String.format(INDEX_PATH, scopeName);
+        this.store = store;
+    }
+
+    /**
+     * Reads the entries of all the streams in the index.
+     *
+     * @return map of stream name to its configuration and state.
+     */
+    CompletableFuture<Map<String, StreamListEntry>> getEntries() {
+        return Futures.exceptionallyExpecting(
+                store.getData(indexPath).thenApply(data -> StreamListIndexRecord.parse(data.getData()).getEntries()),
+                e -> e instanceof StoreException.DataNotFoundException,
+                Collections.emptyMap());
+    }
+
+    /**
+     * Adds or replaces the entry of the given stream.
+     *
+     * @param streamName name of the stream.
+     * @param entry      current configuration and state of the stream.
+     * @return future which completes when the index has been updated.
+     */
+    CompletableFuture<Void> putEntry(final String streamName, final StreamListEntry entry) {
+        return update(entries -> entries.put(streamName, entry), MAX_UPDATE_ATTEMPTS);
+    }
+
+    /**
+     * Removes the entry of the given stream, if any.
+     *
+     * @param streamName name of the stream.
+     * @return future which completes when the index has been updated.
+     */
+    CompletableFuture<Void> removeEntry(final String streamName) {
+        return update(entries -> entries.remove(streamName), MAX_UPDATE_ATTEMPTS);
+    }
+
+    /**
+     * Deletes the index. To be called once the scope itself has been deleted.
+     *
+     * @return future which completes when the index has been deleted.
+     */
+    CompletableFuture<Void> delete() {
+        return Futures.exceptionallyExpecting(store.deleteNode(indexPath),
+                e -> e instanceof StoreException.DataNotFoundException, null);
+    }
+
+    private CompletableFuture<Void> update(final Consumer<Map<String, StreamListEntry>> update, final int attemptsLeft) {
+        CompletableFuture<Void> result = getIndexData()
+                .thenCompose(data -> {
+                    Map<String, StreamListEntry> entries = new HashMap<>(StreamListIndexRecord.parse(data.getData()).getEntries());
+                    update.accept(entries);
+                    byte[] updated = new StreamListIndexRecord(entries).toByteArray();
+                    return store.setData(indexPath, new Data<>(updated, data.getVersion()));
+                });
+
+        // Every stream of the scope updates the same znode, so concurrent updates are retried on version conflicts.
+        return Futures.exceptionallyComposeExpecting(result,
+                e -> attemptsLeft > 1 && e instanceof StoreException.WriteConflictException,
+                () -> update(update, attemptsLeft - 1));
+    }
+
+    private CompletableFuture<Data<Integer>> getIndexData() {
+        return Futures.exceptionallyComposeExpecting(store.getData(indexPath),
+                e -> e instanceof StoreException.DataNotFoundException,
+                () -> store.createZNodeIfNotExist(indexPath, StreamListIndexRecord.EMPTY.toByteArray())
+                           .thenCompose(v -> store.getData(indexPath)));
+    }
+}
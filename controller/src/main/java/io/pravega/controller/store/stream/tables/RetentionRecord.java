@@ -20,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -53,6 +54,45 @@ public class RetentionRecord {
                 .collect(Collectors.toList()));
     }
 
+    /**
+     * Finds the latest stream cut in this record that was recorded at or before the given time.
+     * Stream cuts are only ever appended in increasing order of recording time, so this is a binary search.
+     *
+     * @param time time in millis
+     * @return the matching stream cut, or null if all stream cuts were recorded after the given time.
+     */
+    public StreamCutRecord findStreamCutReferenceForTime(final long time) {
+        return floor(StreamCutRecord::getRecordingTime, time);
+    }
+
+    /**
+     * Finds the latest stream cut in this record that has at most the given amount of data preceding it.
+     * Stream sizes never decrease, so stream cuts are also ordered by recording size.
+     *
+     * @param size size in bytes
+     * @return the matching stream cut, or null if all stream cuts have more data preceding them.
+     */
+    public StreamCutRecord findStreamCutReferenceForSize(final long size) {
+        return floor(StreamCutRecord::getRecordingSize, size);
+    }
+
+    private StreamCutRecord floor(final ToLongFunction<StreamCutRecord> key, final long value) {
+        int low = 0;
+        int high = streamCuts.size() - 1;
+        StreamCutRecord result = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            StreamCutRecord cut = streamCuts.get(mid);
+            if (key.applyAsLong(cut) <= value) {
+                result = cut;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
     public static class RetentionRecordBuilder implements ObjectBuilder<RetentionRecord> {
     }
 
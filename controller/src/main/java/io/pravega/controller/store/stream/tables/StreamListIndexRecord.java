@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream.tables;
+
+import com.google.common.collect.ImmutableMap;
+import io.pravega.common.ObjectBuilder;
+import io.pravega.controller.store.stream.StreamListEntry;
+import io.pravega.controller.store.stream.tables.serializers.StreamListIndexRecordSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Configuration and state of the streams of a scope, keyed by stream name.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@Slf4j
+public class StreamListIndexRecord {
+    public static final StreamListIndexRecordSerializer SERIALIZER = new StreamListIndexRecordSerializer();
+    public static final StreamListIndexRecord EMPTY = new StreamListIndexRecord(ImmutableMap.of());
+
+    private final Map<String, StreamListEntry> entries;
+
+    public static class StreamListIndexRecordBuilder implements ObjectBuilder<StreamListIndexRecord> {
+
+    }
+
+    @SneakyThrows(IOException.class)
+    public static StreamListIndexRecord parse(final byte[] data) {
+        return SERIALIZER.deserialize(data);
+    }
+
+    @SneakyThrows(IOException.class)
+    public byte[] toByteArray() {
+        return SERIALIZER.serialize(this).getCopy();
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream.tables.serializers;
+
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import io.pravega.controller.store.stream.StreamListEntry;
+import io.pravega.controller.store.stream.tables.StateRecord;
+import io.pravega.controller.store.stream.tables.StreamConfigurationRecord;
+import io.pravega.controller.store.stream.tables.StreamListIndexRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class StreamListIndexRecordSerializer
+        extends VersionedSerializer.WithBuilder<StreamListIndexRecord, StreamListIndexRecord.StreamListIndexRecordBuilder> {
+    @Override
+    protected byte getWriteVersion() {
+        return 0;
+    }
+
+    @Override
+    protected void declareVersions() {
+        version(0).revision(0, this::write00, this::read00);
+    }
+
+    private void read00(RevisionDataInput revisionDataInput, StreamListIndexRecord.StreamListIndexRecordBuilder builder)
+            throws IOException {
+        builder.entries(revisionDataInput.readMap(DataInput::readUTF, this::readEntry));
+    }
+
+    private void write00(StreamListIndexRecord record, RevisionDataOutput revisionDataOutput) throws IOException {
+        revisionDataOutput.writeMap(record.getEntries(), DataOutput::writeUTF, this::writeEntry);
+    }
+
+    private StreamListEntry readEntry(RevisionDataInput revisionDataInput) throws IOException {
+        // The configuration and state are stored with their own serializers so that they evolve together with them.
+        StreamConfigurationRecord configuration = StreamConfigurationRecord.parse(revisionDataInput.readArray());
+        StateRecord state = StateRecord.parse(revisionDataInput.readArray());
+        return new StreamListEntry(configuration.getStreamConfiguration(), state.getState());
+    }
+
+    private void writeEntry(RevisionDataOutput revisionDataOutput, StreamListEntry entry) throws IOException {
+        revisionDataOutput.writeArray(StreamConfigurationRecord.complete(entry.getConfiguration()).toByteArray());
+        revisionDataOutput.writeArray(StateRecord.builder().state(entry.getState()).build().toByteArray());
+    }
+
+    @Override
+    protected StreamListIndexRecord.StreamListIndexRecordBuilder newBuilder() {
+        return StreamListIndexRecord.builder();
+    }
+}
@@ -648,11 +648,8 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifyNewSegments(String scope, String stream, StreamConfiguration configuration, List<Long> segmentIds, String controllerToken) {
-        return Futures.toVoid(Futures.allOfWithResults(segmentIds
-                .stream()
-                .parallel()
-                .map(segment -> notifyNewSegment(scope, stream, segment, configuration.getScalingPolicy(), controllerToken))
-                .collect(Collectors.toList())));
+        return withRetries(() -> segmentHelper.createSegments(scope,
+                stream, segmentIds, configuration.getScalingPolicy(), hostControllerStore, this.connectionFactory, controllerToken), executor);
     }
 
     public CompletableFuture<Void> notifyNewSegment(String scope, String stream, long segmentId, ScalingPolicy policy, String controllerToken) {
@@ -661,8 +658,8 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifyDeleteSegments(String scope, String stream, Set<Long> segmentsToDelete, String delegationToken) {
-        return Futures.allOf(segmentsToDelete.stream().parallel().map(segment -> notifyDeleteSegment(scope, stream, segment, delegationToken))
-                                      .collect(Collectors.toList()));
+        return withRetries(() -> segmentHelper.deleteSegments(scope,
+                stream, segmentsToDelete, hostControllerStore, this.connectionFactory, delegationToken), executor);
     }
 
     public CompletableFuture<Void> notifyDeleteSegment(String scope, String stream, long segmentId, String delegationToken) {
@@ -684,30 +681,24 @@ public class StreamMetadataTasks extends TaskBase {
     }
 
     public CompletableFuture<Void> notifySealedSegments(String scope, String stream, List<Long> sealedSegments, String delegationToken) {
-        return Futures.allOf(
-                sealedSegments
-                        .stream()
-                        .parallel()
-                        .map(id -> notifySealedSegment(scope, stream, id, delegationToken))
-                        .collect(Collectors.toList()));
-    }
-
-    private CompletableFuture<Void> notifySealedSegment(final String scope, final String stream, final long sealedSegment, String delegationToken) {
-        return Futures.toVoid(withRetries(() -> segmentHelper.sealSegment(
+        return withRetries(() -> segmentHelper.sealSegments(
                 scope,
                 stream,
-                sealedSegment,
+                sealedSegments,
                 hostControllerStore,
-                this.connectionFactory, delegationToken), executor));
+                this.connectionFactory, delegationToken), executor);
     }
 
     public CompletableFuture<Void> notifyPolicyUpdates(String scope, String stream, List<Segment> activeSegments,
                                                        ScalingPolicy policy, String delegationToken) {
-        return Futures.toVoid(Futures.allOfWithResults(activeSegments
-                .stream()
-                .parallel()
-                .map(segment -> notifyPolicyUpdate(scope, stream, policy, segment.segmentId(), delegationToken))
-                .collect(Collectors.toList())));
+        List<Long> segmentIds = activeSegments.stream().map(Segment::segmentId).collect(Collectors.toList());
+        return withRetries(() -> segmentHelper.updatePolicies(
+                scope,
+                stream,
+                policy,
+                segmentIds,
+                hostControllerStore,
+                this.connectionFactory, delegationToken), executor);
     }
 
     private CompletableFuture<Long> getSegmentOffset(String scope, String stream, long segmentId, String delegationToken) {
@@ -721,16 +712,6 @@ public class StreamMetadataTasks extends TaskBase {
                 .thenApply(WireCommands.StreamSegmentInfo::getWriteOffset);
     }
 
-    private CompletableFuture<Void> notifyPolicyUpdate(String scope, String stream, ScalingPolicy policy, long segmentId, String delegationToken) {
-        return withRetries(() -> segmentHelper.updatePolicy(
-                scope,
-                stream,
-                policy,
-                segmentId,
-                hostControllerStore,
-                this.connectionFactory, delegationToken), executor);
-    }
-
     private SegmentRange convert(String scope, String stream, Map.Entry<Long, AbstractMap.SimpleEntry<Double, Double>> segment) {
         return ModelHelper.createSegmentRange(scope, stream, segment.getKey(), segment.getValue().getKey(),
                 segment.getValue().getValue());
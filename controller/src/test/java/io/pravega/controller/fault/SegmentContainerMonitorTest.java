@@ -121,6 +121,21 @@ public class SegmentContainerMonitorTest {
             public Host getHostForSegment(String scope, String stream, long segmentNumber) {
                 return null;
             }
+
+            @Override
+            public long getHostContainersMapVersion() {
+                return hostStore.getHostContainersMapVersion();
+            }
+
+            @Override
+            public void registerHostContainersMapListener(Runnable listener) {
+                hostStore.registerHostContainersMapListener(listener);
+            }
+
+            @Override
+            public void unregisterHostContainersMapListener(Runnable listener) {
+                hostStore.unregisterHostContainersMapListener(listener);
+            }
         }
 
         SegmentContainerMonitor monitor = new SegmentContainerMonitor(new MockHostControllerStore(), zkClient,
@@ -54,6 +54,18 @@ public class SegmentHelperMock {
         doReturn(CompletableFuture.completedFuture(true)).when(helper).truncateSegment(
                 anyString(), anyString(), anyLong(), anyLong(), any(), any(), any());
 
+        doReturn(CompletableFuture.completedFuture(null)).when(helper).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(null)).when(helper).sealSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(null)).when(helper).deleteSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(CompletableFuture.completedFuture(null)).when(helper).updatePolicies(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
         doReturn(CompletableFuture.completedFuture(new WireCommands.StreamSegmentInfo(0L, "", true, true, false, 0L, 0L, 0L))).when(helper).getSegmentInfo(
                 anyString(), anyString(), anyLong(), any(), any(), anyString());
 
@@ -87,6 +99,18 @@ public class SegmentHelperMock {
         doReturn(Futures.failedFuture(new RuntimeException())).when(helper).updatePolicy(
                 anyString(), anyString(), any(), anyLong(), any(), any(), any());
 
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).sealSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).deleteSegments(
+                anyString(), anyString(), any(), any(), any(), any());
+
+        doReturn(Futures.failedFuture(new RuntimeException())).when(helper).updatePolicies(
+                anyString(), anyString(), any(), any(), any(), any(), any());
+
         return helper;
     }
 }
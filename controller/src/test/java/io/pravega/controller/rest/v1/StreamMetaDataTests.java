@@ -33,6 +33,8 @@ import io.pravega.controller.server.rpc.auth.PravegaAuthManager;
 import io.pravega.controller.store.stream.ScaleMetadata;
 import io.pravega.controller.store.stream.Segment;
 import io.pravega.controller.store.stream.StoreException;
+import io.pravega.controller.store.stream.StreamListEntry;
+import io.pravega.controller.store.stream.tables.State;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.CreateStreamStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
@@ -56,6 +58,7 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -627,6 +630,21 @@ public class StreamMetaDataTests {
         final StreamsList streamsList2 = response.readEntity(StreamsList.class);
         assertEquals("List count", 50000, streamsList2.getStreams().size());
         response.close();
+
+        // Test to list streams one page at a time.
+        when(mockControllerService.listStreams("scope1", "stream1", 1)).thenReturn(CompletableFuture.completedFuture(
+                new ImmutablePair<>(Collections.singletonList(new StreamListEntry(streamConfiguration2, State.ACTIVE)),
+                        "stream2")));
+        response = addAuthHeaders(client.target(resourceURI).queryParam("continuationToken", "stream1")
+                                        .queryParam("limit", 1).request()).buildGet().invoke();
+        assertEquals("List Streams response code", 200, response.getStatus());
+        assertTrue(response.bufferEntity());
+        streamsListResp = response.readEntity(StreamsList.class);
+        assertEquals("List count", 1, streamsListResp.getStreams().size());
+        assertEquals("List element", "stream2", streamsListResp.getStreams().get(0).getStreamName());
+        assertEquals("List element", State.ACTIVE.name(), streamsListResp.getStreams().get(0).getState());
+        assertEquals("Continuation token", "stream2", streamsListResp.getContinuationToken());
+        response.close();
     }
 
     /**
@@ -23,17 +23,23 @@ import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.test.common.AssertExtensions;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import lombok.Getter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
 public class SegmentHelperTest {
 
     private SegmentHelper helper;
@@ -170,6 +176,106 @@ public class SegmentHelperTest {
         );
     }
 
+    @Test
+    public void createSegments() {
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Void> retVal = helper.createSegments("", "", Arrays.asList(0L, 1L),
+                ScalingPolicy.fixed(2), new MockHostControllerStore(), factory, "");
+        factory.rp.segmentsBatchProcessed(new WireCommands.SegmentsBatchProcessed(0, 2));
+        retVal.join();
+
+        CompletableFuture<Void> failedVal = helper.createSegments("", "", Arrays.asList(0L, 1L),
+                ScalingPolicy.fixed(2), new MockHostControllerStore(), factory, "");
+        factory.rp.authTokenCheckFailed(new WireCommands.AuthTokenCheckFailed(0));
+        AssertExtensions.assertThrows("",
+                () -> failedVal.join(),
+                ex -> ex instanceof WireCommandFailedException
+                        && ex.getCause() instanceof AuthenticationException
+        );
+    }
+
+    @Test
+    public void sealSegments() {
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Void> retVal = helper.sealSegments("", "", Arrays.asList(0L, 1L),
+                new MockHostControllerStore(), factory, "");
+        factory.rp.segmentsBatchProcessed(new WireCommands.SegmentsBatchProcessed(0, 2));
+        retVal.join();
+
+        CompletableFuture<Void> failedVal = helper.sealSegments("", "", Arrays.asList(0L, 1L),
+                new MockHostControllerStore(), factory, "");
+        factory.rp.wrongHost(new WireCommands.WrongHost(0, "", ""));
+        AssertExtensions.assertThrows("",
+                () -> failedVal.join(),
+                ex -> ex instanceof WireCommandFailedException
+        );
+    }
+
+    @Test
+    public void deleteSegments() {
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Void> retVal = helper.deleteSegments("", "", Arrays.asList(0L, 1L),
+                new MockHostControllerStore(), factory, "");
+        factory.rp.authTokenCheckFailed(new WireCommands.AuthTokenCheckFailed(0));
+        AssertExtensions.assertThrows("",
+                () -> retVal.join(),
+                ex -> ex instanceof WireCommandFailedException
+                        && ex.getCause() instanceof AuthenticationException
+        );
+    }
+
+    @Test
+    public void updatePolicies() {
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Void> retVal = helper.updatePolicies("", "", ScalingPolicy.fixed(1), Arrays.asList(0L, 1L),
+                new MockHostControllerStore(), factory, "");
+        factory.rp.noSuchSegment(new WireCommands.NoSuchSegment(0, ""));
+        AssertExtensions.assertThrows("",
+                () -> retVal.join(),
+                ex -> ex instanceof WireCommandFailedException
+        );
+    }
+
+    @Test
+    public void batchRequestsAreSplit() {
+        MockConnectionFactory factory = new MockConnectionFactory();
+        List<Long> segmentIds = LongStream.range(0, SegmentHelper.MAX_SEGMENTS_PER_BATCH + 1).boxed().collect(Collectors.toList());
+        CompletableFuture<Void> retVal = helper.createSegments("", "", segmentIds,
+                ScalingPolicy.fixed(2), new MockHostControllerStore(), factory, "");
+        assertEquals(2, factory.getConnectionCount());
+        factory.rp.segmentsBatchProcessed(new WireCommands.SegmentsBatchProcessed(0, 1));
+        assertFalse(retVal.isDone());
+    }
+
+    @Test
+    public void batchRequestsFallBackForOldSegmentStores() {
+        // Segment stores that understand batch requests process them as usual.
+        MockConnectionFactory factory = new MockConnectionFactory();
+        CompletableFuture<Void> retVal = helper.createSegments("", "", Arrays.asList(0L),
+                ScalingPolicy.fixed(1), new MockHostControllerStore(), factory, "");
+        factory.rp.hello(new WireCommands.Hello(SegmentHelper.BATCH_REQUESTS_MIN_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        factory.rp.segmentsBatchProcessed(new WireCommands.SegmentsBatchProcessed(0, 1));
+        retVal.join();
+        assertEquals(1, factory.getConnectionCount());
+
+        // Older segment stores (which reply to the Hello and then drop the connection) are sent one request per segment.
+        factory = new MockConnectionFactory();
+        retVal = helper.createSegments("", "", Arrays.asList(0L),
+                ScalingPolicy.fixed(1), new MockHostControllerStore(), factory, "");
+        factory.rp.hello(new WireCommands.Hello(SegmentHelper.BATCH_REQUESTS_MIN_VERSION - 1, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        assertEquals(2, factory.getConnectionCount());
+        assertFalse(retVal.isDone());
+        factory.rp.segmentCreated(new WireCommands.SegmentCreated(0, ""));
+        retVal.join();
+
+        factory = new MockConnectionFactory();
+        retVal = helper.sealSegments("", "", Arrays.asList(0L), new MockHostControllerStore(), factory, "");
+        factory.rp.hello(new WireCommands.Hello(SegmentHelper.BATCH_REQUESTS_MIN_VERSION - 1, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        factory.rp.segmentIsSealed(new WireCommands.SegmentIsSealed(0, ""));
+        retVal.join();
+        assertEquals(2, factory.getConnectionCount());
+    }
+
     private static class MockHostControllerStore implements HostControllerStore {
 
         @Override
@@ -191,15 +297,33 @@ public class SegmentHelperTest {
         public Host getHostForSegment(String scope, String stream, long segmentId) {
             return new Host("localhost", 1000, "");
         }
+
+        @Override
+        public long getHostContainersMapVersion() {
+            return 0;
+        }
+
+        @Override
+        public void registerHostContainersMapListener(Runnable listener) {
+
+        }
+
+        @Override
+        public void unregisterHostContainersMapListener(Runnable listener) {
+
+        }
     }
 
     private class MockConnectionFactory implements ConnectionFactory {
         @Getter
         private ReplyProcessor rp;
+        @Getter
+        private int connectionCount;
 
         @Override
         public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp) {
             this.rp = rp;
+            this.connectionCount++;
             ClientConnection connection = new MockConnection(rp);
             return CompletableFuture.completedFuture(connection);
         }
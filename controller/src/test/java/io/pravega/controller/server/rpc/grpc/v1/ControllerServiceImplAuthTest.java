@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server.rpc.grpc.v1;
+
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.pravega.auth.AuthHandler;
+import io.pravega.client.stream.impl.ModelHelper;
+import io.pravega.controller.server.ControllerService;
+import io.pravega.controller.server.rpc.auth.PravegaInterceptor;
+import io.pravega.controller.store.host.HostControllerStore;
+import io.pravega.controller.store.stream.EpochTransitionListener;
+import io.pravega.controller.store.stream.StreamMetadataStore;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransition;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransitionRequest;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMap;
+import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentContainerMapRequest;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the streaming (watch) calls of {@link ControllerServiceImpl} when authorization is enabled.
+ */
+public class ControllerServiceImplAuthTest {
+    private static final String TOKEN_SIGNING_KEY = "secret";
+    private static final String SCOPE = "scope";
+    private static final String STREAM = "stream";
+
+    private ControllerService controllerService;
+    private HostControllerStore hostStore;
+    private StreamMetadataStore streamStore;
+    private PravegaInterceptor interceptor;
+    private ControllerServiceImpl serviceImpl;
+    private final AtomicInteger activeEpoch = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        hostStore = mock(HostControllerStore.class);
+        controllerService = mock(ControllerService.class);
+        when(controllerService.getHostStore()).thenReturn(hostStore);
+        streamStore = mock(StreamMetadataStore.class);
+        when(controllerService.getStreamStore()).thenReturn(streamStore);
+        when(controllerService.getSegmentContainerMap()).thenReturn(SegmentContainerMap.newBuilder().setVersion(1).build());
+        when(controllerService.getActiveEpoch(SCOPE, STREAM))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(activeEpoch.get()));
+        when(controllerService.getSegmentsCreatedInEpoch(eq(SCOPE), eq(STREAM), anyInt()))
+                .thenAnswer(invocation -> {
+                    int epoch = invocation.getArgument(2);
+                    return CompletableFuture.completedFuture(Collections.singletonMap(
+                            ModelHelper.createSegmentRange(SCOPE, STREAM, epoch, 0.0, 1.0),
+                            Collections.singletonList((long) epoch - 1)));
+                });
+        interceptor = mock(PravegaInterceptor.class);
+        when(interceptor.authorize(anyString())).thenReturn(AuthHandler.Permissions.READ_UPDATE);
+        serviceImpl = new ControllerServiceImpl(controllerService, TOKEN_SIGNING_KEY, true);
+    }
+
+    @After
+    public void tearDown() {
+        serviceImpl.close();
+    }
+
+    @Test
+    public void testWatchSegmentContainerMapRequiresAuthentication() {
+        TestObserver<SegmentContainerMap> observer = new TestObserver<>();
+        serviceImpl.watchSegmentContainerMap(SegmentContainerMapRequest.newBuilder().build(), observer);
+        assertEquals(Status.Code.UNAUTHENTICATED, Status.fromThrowable(observer.errors.poll()).getCode());
+        assertTrue(observer.values.isEmpty());
+        verify(hostStore, never()).registerHostContainersMapListener(any());
+    }
+
+    @Test
+    public void testWatchSegmentContainerMapAuthenticated() {
+        TestObserver<SegmentContainerMap> observer = new TestObserver<>();
+        runAuthenticated(() -> serviceImpl.watchSegmentContainerMap(SegmentContainerMapRequest.newBuilder().build(), observer));
+        assertEquals(1, observer.values.poll().getVersion());
+        assertTrue(observer.errors.isEmpty());
+        verify(hostStore).registerHostContainersMapListener(any());
+    }
+
+    @Test
+    public void testWatchEpochTransitionsRequiresAuthorization() {
+        TestObserver<EpochTransition> observer = new TestObserver<>();
+        serviceImpl.watchEpochTransitions(epochTransitionRequest(), observer);
+        assertEquals(Status.Code.UNAUTHENTICATED, Status.fromThrowable(observer.errors.poll()).getCode());
+
+        // Watchers are handed delegation tokens which allow them to write, so read access is not enough.
+        when(interceptor.authorize(anyString())).thenReturn(AuthHandler.Permissions.READ);
+        TestObserver<EpochTransition> readOnlyObserver = new TestObserver<>();
+        runAuthenticated(() -> serviceImpl.watchEpochTransitions(epochTransitionRequest(), readOnlyObserver));
+        assertEquals(Status.Code.UNAUTHENTICATED, Status.fromThrowable(readOnlyObserver.errors.poll()).getCode());
+        verify(controllerService, never()).getActiveEpoch(anyString(), anyString());
+    }
+
+    @Test(timeout = 10000)
+    public void testWatchEpochTransitionsAuthorized() throws Exception {
+        TestObserver<EpochTransition> observer = new TestObserver<>();
+        runAuthenticated(() -> serviceImpl.watchEpochTransitions(epochTransitionRequest(), observer));
+
+        ArgumentCaptor<EpochTransitionListener> listener = ArgumentCaptor.forClass(EpochTransitionListener.class);
+        verify(streamStore).registerEpochTransitionListener(listener.capture());
+
+        // Transitions are published long after the subscribing call has returned, and each one carries a valid token.
+        for (int epoch = 1; epoch <= 2; epoch++) {
+            activeEpoch.set(epoch);
+            listener.getValue().epochTransitioned(SCOPE, STREAM);
+            EpochTransition transition = observer.values.take();
+            assertEquals(epoch, transition.getEpoch());
+            assertEquals(AuthHandler.Permissions.READ_UPDATE.toString(),
+                    getClaims(transition.getDelegationToken()).get(SCOPE + "/" + STREAM));
+        }
+        assertTrue(observer.errors.isEmpty());
+    }
+
+    private static EpochTransitionRequest epochTransitionRequest() {
+        return EpochTransitionRequest.newBuilder()
+                                     .setStreamInfo(ModelHelper.createStreamInfo(SCOPE, STREAM))
+                                     .setKnownEpoch(0)
+                                     .build();
+    }
+
+    private static Claims getClaims(String token) {
+        return Jwts.parser().setSigningKey(TOKEN_SIGNING_KEY.getBytes()).parseClaimsJws(token).getBody();
+    }
+
+    private void runAuthenticated(Runnable call) {
+        Context.current().withValue(PravegaInterceptor.INTERCEPTOR_OBJECT, interceptor).run(call);
+    }
+
+    private static class TestObserver<T> implements StreamObserver<T> {
+        private final BlockingQueue<T> values = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errors.add(t);
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.server.rpc.grpc.v1;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.pravega.client.stream.impl.ModelHelper;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.controller.server.ControllerService;
+import io.pravega.controller.store.stream.EpochTransitionListener;
+import io.pravega.controller.store.stream.StoreException;
+import io.pravega.controller.store.stream.StreamMetadataStore;
+import io.pravega.controller.stream.api.grpc.v1.Controller.EpochTransition;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EpochTransitionNotifierTest {
+    private static final String SCOPE = "scope";
+    private static final String STREAM = "stream";
+
+    @Test(timeout = 10000)
+    public void testTransitionsArePublished() throws Exception {
+        AtomicInteger activeEpoch = new AtomicInteger(0);
+        ControllerService controllerService = mockControllerService();
+        when(controllerService.getActiveEpoch(SCOPE, STREAM))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(activeEpoch.get()));
+        when(controllerService.getSegmentsCreatedInEpoch(eq(SCOPE), eq(STREAM), anyInt()))
+                .thenAnswer(invocation -> {
+                    int epoch = invocation.getArgument(2);
+                    return CompletableFuture.completedFuture(Collections.singletonMap(
+                            ModelHelper.createSegmentRange(SCOPE, STREAM, epoch, 0.0, 1.0),
+                            Collections.singletonList((long) epoch - 1)));
+                });
+        @Cleanup
+        EpochTransitionNotifier notifier = new EpochTransitionNotifier(controllerService, 10);
+
+        TestObserver newSubscriber = new TestObserver();
+        Runnable unwatch = notifier.watch(SCOPE, STREAM, -1, () -> "token", newSubscriber);
+
+        // Nothing is sent for the epoch the stream is already in.
+        assertNull(newSubscriber.transitions.poll(200, TimeUnit.MILLISECONDS));
+
+        activeEpoch.set(1);
+        EpochTransition transition = newSubscriber.transitions.take();
+        assertEquals(1, transition.getEpoch());
+        assertEquals("token", transition.getDelegationToken());
+        assertEquals(1, transition.getNewSegmentsCount());
+        assertEquals(Collections.singletonList(0L), transition.getNewSegments(0).getValueList());
+
+        // A subscriber which last saw epoch 0 is caught up.
+        TestObserver laggingSubscriber = new TestObserver();
+        notifier.watch(SCOPE, STREAM, 0, () -> "", laggingSubscriber);
+        assertEquals(1, laggingSubscriber.transitions.take().getEpoch());
+
+        unwatch.run();
+        activeEpoch.set(2);
+        assertEquals(2, laggingSubscriber.transitions.take().getEpoch());
+        assertNull(newSubscriber.transitions.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(timeout = 10000)
+    public void testDeletedStream() throws Exception {
+        ControllerService controllerService = mockControllerService();
+        when(controllerService.getActiveEpoch(SCOPE, STREAM))
+                .thenReturn(Futures.failedFuture(StoreException.create(StoreException.Type.DATA_NOT_FOUND, "stream")));
+        @Cleanup
+        EpochTransitionNotifier notifier = new EpochTransitionNotifier(controllerService, 10);
+
+        TestObserver observer = new TestObserver();
+        notifier.watch(SCOPE, STREAM, -1, () -> "", observer);
+        assertEquals(Status.Code.NOT_FOUND, Status.fromThrowable(observer.errors.take()).getCode());
+    }
+
+    @Test(timeout = 10000)
+    public void testTransitionsArePublishedOnEvents() throws Exception {
+        AtomicInteger activeEpoch = new AtomicInteger(0);
+        ControllerService controllerService = mockControllerService();
+        when(controllerService.getActiveEpoch(SCOPE, STREAM))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(activeEpoch.get()));
+        when(controllerService.getSegmentsCreatedInEpoch(eq(SCOPE), eq(STREAM), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyMap()));
+        // The periodic poll is only a fallback, so make sure it never kicks in.
+        @Cleanup
+        EpochTransitionNotifier notifier = new EpochTransitionNotifier(controllerService, TimeUnit.HOURS.toMillis(1));
+        ArgumentCaptor<EpochTransitionListener> listener = ArgumentCaptor.forClass(EpochTransitionListener.class);
+        verify(controllerService.getStreamStore()).registerEpochTransitionListener(listener.capture());
+
+        TestObserver observer = new TestObserver();
+        notifier.watch(SCOPE, STREAM, 0, () -> "", observer);
+        activeEpoch.set(1);
+        listener.getValue().epochTransitioned(SCOPE, "otherStream");
+        assertNull(observer.transitions.poll(200, TimeUnit.MILLISECONDS));
+        listener.getValue().epochTransitioned(SCOPE, STREAM);
+        assertEquals(1, observer.transitions.take().getEpoch());
+    }
+
+    @Test(timeout = 10000)
+    public void testClose() throws Exception {
+        ControllerService controllerService = mockControllerService();
+        when(controllerService.getActiveEpoch(SCOPE, STREAM)).thenReturn(CompletableFuture.completedFuture(0));
+        EpochTransitionNotifier notifier = new EpochTransitionNotifier(controllerService, 10);
+        TestObserver observer = new TestObserver();
+        notifier.watch(SCOPE, STREAM, -1, () -> "", observer);
+
+        notifier.close();
+        assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(observer.errors.take()).getCode());
+        verify(controllerService.getStreamStore()).unregisterEpochTransitionListener(any());
+
+        TestObserver lateObserver = new TestObserver();
+        notifier.watch(SCOPE, STREAM, -1, () -> "", lateObserver);
+        assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(lateObserver.errors.take()).getCode());
+    }
+
+    private static ControllerService mockControllerService() {
+        ControllerService controllerService = mock(ControllerService.class);
+        StreamMetadataStore streamStore = mock(StreamMetadataStore.class);
+        when(controllerService.getStreamStore()).thenReturn(streamStore);
+        return controllerService;
+    }
+
+    private static class TestObserver implements StreamObserver<EpochTransition> {
+        private final BlockingQueue<EpochTransition> transitions = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onNext(EpochTransition value) {
+            transitions.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            errors.add(t);
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -95,6 +95,7 @@ public class InMemoryControllerServiceImplTest extends ControllerServiceImplTest
 
     @Override
     public void tearDown() throws Exception {
+        controllerService.close();
         ExecutorServiceHelpers.shutdown(executorService);
         if (streamMetadataTasks != null) {
             streamMetadataTasks.close();
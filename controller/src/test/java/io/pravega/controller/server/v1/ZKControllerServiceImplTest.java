@@ -122,6 +122,7 @@ public class ZKControllerServiceImplTest extends ControllerServiceImplTest {
 
     @Override
     public void tearDown() throws Exception {
+        controllerService.close();
         if (executorService != null) {
             ExecutorServiceHelpers.shutdown(executorService);
         }
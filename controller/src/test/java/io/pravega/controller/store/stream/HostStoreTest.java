@@ -27,7 +27,9 @@ import org.apache.curator.test.TestingServer;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Host store tests.
@@ -52,6 +54,7 @@ public class HostStoreTest {
         HostControllerStore hostStore = HostStoreFactory.createInMemoryStore(hostMonitorConfig);
 
         validateStore(hostStore);
+        validateUpdates(hostStore);
 
         // Create a host store via other factory method
         hostStore = HostStoreFactory.createStore(hostMonitorConfig, StoreClientFactory.createInMemoryStoreClient());
@@ -89,6 +92,7 @@ public class HostStoreTest {
             hostStore.updateHostContainersMap(HostMonitorConfigImpl.getHostContainerMap(host, controllerPort, containerCount));
 
             validateStore(hostStore);
+            validateUpdates(hostStore);
         } catch (Exception e) {
             log.error("Unexpected error", e);
             Assert.fail();
@@ -103,4 +107,23 @@ public class HostStoreTest {
         Assert.assertEquals(controllerPort, hostObj.getPort());
         Assert.assertEquals(host, hostObj.getIpAddr());
     }
+
+    private void validateUpdates(HostControllerStore hostStore) {
+        AtomicInteger notifications = new AtomicInteger();
+        Runnable listener = notifications::incrementAndGet;
+        hostStore.registerHostContainersMapListener(listener);
+
+        long version = hostStore.getHostContainersMapVersion();
+        Host newHost = new Host("newhost", controllerPort, null);
+        hostStore.updateHostContainersMap(Collections.singletonMap(newHost, Collections.singleton(0)));
+        Assert.assertTrue(hostStore.getHostContainersMapVersion() > version);
+        Assert.assertEquals(1, notifications.get());
+        Assert.assertEquals(Collections.singleton(newHost), hostStore.getHostContainersMap().keySet());
+
+        // Restore the original mapping; the listener must no longer be notified.
+        hostStore.unregisterHostContainersMapListener(listener);
+        hostStore.updateHostContainersMap(HostMonitorConfigImpl.getHostContainerMap(host, controllerPort, containerCount));
+        Assert.assertEquals(1, notifications.get());
+        validateStore(hostStore);
+    }
 }
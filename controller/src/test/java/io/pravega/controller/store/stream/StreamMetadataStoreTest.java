@@ -29,6 +29,7 @@ import io.pravega.controller.store.stream.tables.TableHelper;
 import io.pravega.controller.store.task.TxnResource;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
 import io.pravega.test.common.AssertExtensions;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -40,6 +41,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -246,6 +248,48 @@ public abstract class StreamMetadataStoreTest {
         }
     }
 
+    @Test
+    public void listStreamsPaged() throws Exception {
+        final String scopeName = "ScopePaged";
+        store.createScope(scopeName).get();
+        for (String name : Arrays.asList("e", "c", "a", "d", "b")) {
+            StreamConfiguration config = StreamConfiguration.builder().scope(scopeName).streamName(name)
+                                                            .scalingPolicy(policy1).build();
+            store.createStream(scopeName, name, config, System.currentTimeMillis(), null, executor).get();
+            store.setState(scopeName, name, name.equals("b") ? State.SEALED : State.ACTIVE, null, executor).get();
+        }
+
+        Pair<List<StreamListEntry>, String> page = store.listStreams(scopeName, "", 2, executor).get();
+        assertEquals(Arrays.asList("a", "b"), page.getKey().stream().map(entry -> entry.getConfiguration().getStreamName())
+                                                  .collect(Collectors.toList()));
+        assertEquals(State.ACTIVE, page.getKey().get(0).getState());
+        assertEquals(State.SEALED, page.getKey().get(1).getState());
+        assertEquals("b", page.getValue());
+
+        page = store.listStreams(scopeName, page.getValue(), 2, executor).get();
+        assertEquals(Arrays.asList("c", "d"), page.getKey().stream().map(entry -> entry.getConfiguration().getStreamName())
+                                                  .collect(Collectors.toList()));
+
+        // Streams added after the listing started show up in later pages.
+        StreamConfiguration config = StreamConfiguration.builder().scope(scopeName).streamName("f")
+                                                        .scalingPolicy(policy1).build();
+        store.createStream(scopeName, "f", config, System.currentTimeMillis(), null, executor).get();
+        store.setState(scopeName, "f", State.ACTIVE, null, executor).get();
+
+        page = store.listStreams(scopeName, page.getValue(), 2, executor).get();
+        assertEquals(Arrays.asList("e", "f"), page.getKey().stream().map(entry -> entry.getConfiguration().getStreamName())
+                                                  .collect(Collectors.toList()));
+        assertEquals("f", page.getValue());
+
+        page = store.listStreams(scopeName, page.getValue(), 2, executor).get();
+        assertTrue(page.getKey().isEmpty());
+        assertEquals("f", page.getValue());
+
+        AssertExtensions.assertThrows("Should throw StoreException",
+                store.listStreams("nonExistentScope", "", 2, executor),
+                (Throwable t) -> t instanceof StoreException.DataNotFoundException);
+    }
+
     @Test
     public void listScopes() throws Exception {
         // list scopes test
@@ -928,6 +972,48 @@ public abstract class StreamMetadataStoreTest {
         assertTrue(!streams.contains(String.format("%s/%s", scope, stream)));
     }
 
+    @Test
+    public void streamCutReferenceTest() throws Exception {
+        final String scope = "ScopeReference";
+        final String stream = "StreamReference";
+        final ScalingPolicy policy = ScalingPolicy.fixed(2);
+        final StreamConfiguration configuration = StreamConfiguration.builder().scope(scope).streamName(stream)
+                .scalingPolicy(policy).build();
+
+        long start = System.currentTimeMillis();
+        store.createScope(scope).get();
+        store.createStream(scope, stream, configuration, start, null, executor).get();
+        store.setState(scope, stream, State.ACTIVE, null, executor).get();
+
+        assertNull(store.findStreamCutReferenceForTime(scope, stream, Long.MAX_VALUE, null, executor).get());
+        assertNull(store.findStreamCutReferenceForSize(scope, stream, Long.MAX_VALUE, null, executor).get());
+
+        List<StreamCutRecord> cuts = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Map<Long, Long> map = new HashMap<>();
+            map.put(0L, 10L * i);
+            map.put(1L, 10L * i);
+            StreamCutRecord cut = new StreamCutRecord(start + 100 * i, 20L * i, map);
+            store.addStreamCutToRetentionSet(scope, stream, cut, null, executor).get();
+            cuts.add(cut);
+        }
+
+        assertNull(store.findStreamCutReferenceForTime(scope, stream, start + 99, null, executor).get());
+        assertEquals(cuts.get(0), store.findStreamCutReferenceForTime(scope, stream, start + 100, null, executor).get());
+        assertEquals(cuts.get(2), store.findStreamCutReferenceForTime(scope, stream, start + 350, null, executor).get());
+        assertEquals(cuts.get(4), store.findStreamCutReferenceForTime(scope, stream, Long.MAX_VALUE, null, executor).get());
+
+        assertNull(store.findStreamCutReferenceForSize(scope, stream, 19L, null, executor).get());
+        assertEquals(cuts.get(1), store.findStreamCutReferenceForSize(scope, stream, 59L, null, executor).get());
+        assertEquals(cuts.get(3), store.findStreamCutReferenceForSize(scope, stream, 80L, null, executor).get());
+        assertEquals(cuts.get(4), store.findStreamCutReferenceForSize(scope, stream, Long.MAX_VALUE, null, executor).get());
+
+        // stream cuts purged from the retention set are no longer found.
+        store.deleteStreamCutBefore(scope, stream, cuts.get(2), null, executor).get();
+        assertNull(store.findStreamCutReferenceForTime(scope, stream, start + 350, null, executor).get());
+        assertEquals(cuts.get(3), store.findStreamCutReferenceForTime(scope, stream, start + 450, null, executor).get());
+    }
+
     @Test
     public void sizeTest() throws Exception {
         final String scope = "ScopeSize";
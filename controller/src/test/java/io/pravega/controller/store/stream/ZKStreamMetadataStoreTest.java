@@ -21,6 +21,7 @@ import io.pravega.test.common.TestingServerStarter;
 import io.pravega.controller.store.stream.tables.State;
 import io.pravega.client.stream.StreamConfiguration;
 import io.pravega.test.common.AssertExtensions;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.RetryOneTime;
@@ -43,6 +44,8 @@ import static io.pravega.controller.store.stream.ZKStreamMetadataStore.COUNTER_P
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -184,6 +187,42 @@ public class ZKStreamMetadataStoreTest extends StreamMetadataStoreTest {
         assertEquals("List streams in scope", stream2, streamInScope.get(1).getStreamName());
     }
 
+    @Test
+    public void listStreamsPagedFromIndex() throws Exception {
+        final String scopeName = "ScopeIndexed";
+        store.createScope(scopeName).get();
+        for (String name : Arrays.asList("a", "b", "c")) {
+            StreamConfiguration config = StreamConfiguration.builder().scope(scopeName).streamName(name)
+                                                            .scalingPolicy(ScalingPolicy.fixed(1)).build();
+            store.createStream(scopeName, name, config, System.currentTimeMillis(), null, executor).get();
+            store.setState(scopeName, name, State.ACTIVE, null, executor).get();
+        }
+        store.setState(scopeName, "b", State.SEALING, null, executor).get();
+
+        // A fresh store has nothing cached, so every read it makes goes to zookeeper.
+        ZKStoreHelper storeHelper = spy(new ZKStoreHelper(cli, executor));
+        ZKStreamMetadataStore listingStore = new ZKStreamMetadataStore(cli, executor);
+        listingStore.setStoreHelperForTesting(storeHelper);
+
+        Pair<List<StreamListEntry>, String> page = listingStore.listStreams(scopeName, "", 3, executor).get();
+        assertEquals(Arrays.asList(State.ACTIVE, State.SEALING, State.ACTIVE),
+                page.getKey().stream().map(StreamListEntry::getState).collect(Collectors.toList()));
+        assertEquals("c", page.getKey().get(2).getConfiguration().getStreamName());
+        // The whole page is served by the index of the scope.
+        verify(storeHelper, times(1)).getData(anyString());
+
+        // Streams missing from the index, e.g. created before it existed, are looked up individually.
+        new ZKStreamListIndex(scopeName, storeHelper).removeEntry("c").join();
+        clearInvocations(storeHelper);
+        page = listingStore.listStreams(scopeName, "", 3, executor).get();
+        assertEquals(Arrays.asList("a", "b", "c"), page.getKey().stream().map(entry -> entry.getConfiguration().getStreamName())
+                                                        .collect(Collectors.toList()));
+        verify(storeHelper, times(3)).getData(anyString());
+
+        store.deleteStream(scopeName, "a", null, executor).get();
+        assertFalse(new ZKStreamListIndex(scopeName, storeHelper).getEntries().join().containsKey("a"));
+    }
+
     @Test
     public void testInvalidOperation() throws Exception {
         // Test operation when stream is not in active state
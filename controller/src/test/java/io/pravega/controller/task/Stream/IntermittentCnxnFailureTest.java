@@ -135,9 +135,9 @@ public class IntermittentCnxnFailureTest {
             assertEquals(Exceptions.unwrap(ex).getClass(), IllegalStateException.class);
         }
 
-        // Mock createSegment to return success.
-        doReturn(CompletableFuture.completedFuture(true)).when(segmentHelperMock).createSegment(
-                anyString(), anyString(), anyInt(), any(), any(), any(), any());
+        // Mock createSegments to return success.
+        doReturn(CompletableFuture.completedFuture(null)).when(segmentHelperMock).createSegments(
+                anyString(), anyString(), any(), any(), any(), any(), any());
 
         AtomicBoolean result = new AtomicBoolean(false);
         Retry.withExpBackoff(10, 10, 4)
@@ -12,6 +12,7 @@ package io.pravega.segmentstore.contracts;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -102,6 +103,26 @@ public interface StreamSegmentStore {
      */
     CompletableFuture<Map<UUID, Long>> getAttributes(String streamSegmentName, Collection<UUID> attributeIds, boolean cache, Duration timeout);
 
+    /**
+     * Gets the Extended Attributes of the given Segment whose Ids lie in the given range, in ascending order of their Ids.
+     * Attributes that are not set are not included. This can be used to page through all the Extended Attributes of a
+     * Segment: if the result has exactly maxCount Attributes, then there may be more of them in the range, which can be
+     * fetched by invoking this method again with a range that begins right after the last returned Attribute Id.
+     *
+     * @param streamSegmentName The name of the StreamSegment for which to get attributes.
+     * @param fromId            The first Attribute Id in the range (inclusive).
+     * @param toId              The last Attribute Id in the range (inclusive).
+     * @param maxCount          The maximum number of Attributes to return.
+     * @param timeout           Timeout for the operation.
+     * @return A CompletableFuture that, when completed, will contain the Attributes (at most maxCount of them), sorted by
+     * their Ids. If the operation failed, the future will be failed with the causing exception.
+     * @throws NullPointerException     If any of the arguments are null.
+     * @throws IllegalArgumentException If the StreamSegment Name is invalid (NOTE: this doesn't check if the StreamSegment
+     *                                  does not exist - that exception will be set in the returned CompletableFuture), or
+     *                                  if maxCount is not positive.
+     */
+    CompletableFuture<SortedMap<UUID, Long>> getAttributeRange(String streamSegmentName, UUID fromId, UUID toId, int maxCount, Duration timeout);
+
     /**
      * Initiates a Read operation on a particular StreamSegment and returns a ReadResult which can be used to consume the
      * read data.
@@ -197,4 +218,17 @@ public interface StreamSegmentStore {
      * failed, the future will be failed with the causing exception.
      */
     CompletableFuture<Void> truncateStreamSegment(String streamSegmentName, long offset, Duration timeout);
+
+    /**
+     * Gets the delay (in milliseconds) that is currently being applied to writes to the given StreamSegment because the
+     * component that owns it is throttling them (for example, due to high cache utilization or a large commit backlog).
+     * This does not include any delay introduced purely to batch writes together.
+     *
+     * @param streamSegmentName The name of the StreamSegment.
+     * @return The current throttling delay, or 0 if writes to the StreamSegment are not being throttled (or if this
+     * information is not available).
+     */
+    default int getThrottlingDelayMillis(String streamSegmentName) {
+        return 0;
+    }
 }
@@ -15,6 +15,8 @@ import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.server.host.delegationtoken.TokenVerifierImpl;
 import io.pravega.segmentstore.server.host.handler.PravegaConnectionListener;
 import io.pravega.segmentstore.server.host.stat.AutoScalerConfig;
+import io.pravega.segmentstore.server.host.stat.HotSegment;
+import io.pravega.segmentstore.server.host.stat.HotSegmentTracker;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsFactory;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
 import io.pravega.segmentstore.server.store.ServiceBuilder;
@@ -24,6 +26,8 @@ import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperConfig;
 import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperLogFactory;
 import io.pravega.segmentstore.storage.impl.extendeds3.ExtendedS3StorageConfig;
 import io.pravega.segmentstore.storage.impl.extendeds3.ExtendedS3StorageFactory;
+import io.pravega.segmentstore.storage.impl.filelog.FileLogConfig;
+import io.pravega.segmentstore.storage.impl.filelog.FileLogFactory;
 import io.pravega.segmentstore.storage.impl.filesystem.FileSystemStorageConfig;
 import io.pravega.segmentstore.storage.impl.filesystem.FileSystemStorageFactory;
 import io.pravega.segmentstore.storage.impl.hdfs.HDFSStorageConfig;
@@ -35,6 +39,8 @@ import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
 import io.pravega.shared.metrics.MetricsConfig;
 import io.pravega.shared.metrics.MetricsProvider;
 import io.pravega.shared.metrics.StatsProvider;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
@@ -54,6 +60,7 @@ public final class ServiceStarter {
     private StatsProvider statsProvider;
     private PravegaConnectionListener listener;
     private SegmentStatsFactory segmentStatsFactory;
+    private ZKHotSegmentPublisher hotSegmentPublisher;
     private CuratorFramework zkClient;
     private boolean closed;
 
@@ -100,11 +107,12 @@ public final class ServiceStarter {
         log.info("Creating Segment Stats recorder ...");
         segmentStatsFactory = new SegmentStatsFactory();
         SegmentStatsRecorder statsRecorder = segmentStatsFactory
-                .createSegmentStatsRecorder(service, builderConfig.getConfig(AutoScalerConfig::builder));
+                .createSegmentStatsRecorder(service, builderConfig.getConfig(AutoScalerConfig::builder), createHotSegmentTracker());
 
         TokenVerifierImpl tokenVerifier = new TokenVerifierImpl(builderConfig.getConfig(AutoScalerConfig::builder));
         this.listener = new PravegaConnectionListener(this.serviceConfig.isEnableTls(), this.serviceConfig.getListeningIPAddress(),
-                this.serviceConfig.getListeningPort(), service, statsRecorder, tokenVerifier, this.serviceConfig.getCertFile(), this.serviceConfig.getKeyFile());
+                this.serviceConfig.getListeningPort(), service, statsRecorder, tokenVerifier, this.serviceConfig.getCertFile(), this.serviceConfig.getKeyFile(),
+                this.serviceConfig.getTransportPolicy());
         this.listener.startListening();
         log.info("PravegaConnectionListener started successfully.");
         log.info("StreamSegmentService started.");
@@ -126,6 +134,11 @@ public final class ServiceStarter {
                 log.info("Metrics statsProvider is now closed.");
             }
 
+            if (this.hotSegmentPublisher != null) {
+                this.hotSegmentPublisher.close();
+                this.hotSegmentPublisher = null;
+            }
+
             if (this.zkClient != null) {
                 this.zkClient.close();
                 this.zkClient = null;
@@ -145,6 +158,8 @@ public final class ServiceStarter {
             switch (this.serviceConfig.getDataLogTypeImplementation()) {
                 case BOOKKEEPER:
                     return new BookKeeperLogFactory(setup.getConfig(BookKeeperConfig::builder), this.zkClient, setup.getCoreExecutor());
+                case FILESYSTEM:
+                    return new FileLogFactory(setup.getConfig(FileLogConfig::builder), setup.getCoreExecutor());
                 case INMEMORY:
                     return new InMemoryDurableDataLogFactory(setup.getCoreExecutor());
                 default:
@@ -186,6 +201,30 @@ public final class ServiceStarter {
                         setup.getCoreExecutor()));
     }
 
+    private HotSegmentTracker createHotSegmentTracker() {
+        if (this.serviceConfig.getHotSegmentCount() == 0) {
+            log.info("Hot segment tracking is disabled.");
+            return null;
+        }
+
+        HotSegmentTracker tracker = new HotSegmentTracker(this.serviceConfig.getContainerCount(), this.serviceConfig.getHotSegmentCount());
+        ZKHotSegmentPublisher publisher = new ZKHotSegmentPublisher(this.zkClient,
+                new Host(this.serviceConfig.getPublishedIPAddress(), this.serviceConfig.getPublishedPort(), null));
+        this.hotSegmentPublisher = publisher;
+        long intervalMillis = this.serviceConfig.getHotSegmentReportingInterval().toMillis();
+        this.segmentStatsFactory.getMaintenanceExecutor().scheduleAtFixedRate(() -> {
+            try {
+                List<HotSegment> hotSegments = tracker.rollover();
+                log.debug("Hot segments: {}.", hotSegments);
+                publisher.publish(hotSegments);
+            } catch (Exception ex) {
+                // Any exception would cancel all future reports.
+                log.warn("Unable to report hot segments.", ex);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return tracker;
+    }
+
     private CuratorFramework createZKClient() {
         CuratorFramework zkClient = CuratorFrameworkFactory
                 .builder()
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.cluster.Host;
+import io.pravega.segmentstore.server.host.stat.HotSegment;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * Publishes the hottest Segments of this Segment Store to ZooKeeper, so that they can be inspected (for example, using
+ * the Admin CLI) without access to the metrics system. Each Segment Store has its own ephemeral node (named after its
+ * published endpoint) under {@link #HOT_SEGMENTS_PATH}, containing the latest report serialized using
+ * {@link HotSegment#serialize}.
+ */
+@Slf4j
+public class ZKHotSegmentPublisher implements AutoCloseable {
+    /**
+     * The ZooKeeper path (relative to the cluster's namespace) under which all Segment Stores publish their hot Segments.
+     */
+    public static final String HOT_SEGMENTS_PATH = "/segmentstore/hotSegments";
+
+    private final CuratorFramework zkClient;
+    private final String path;
+    private final AtomicBoolean closed;
+
+    /**
+     * Creates a new instance of the ZKHotSegmentPublisher class.
+     *
+     * @param zkClient               ZooKeeper client.
+     * @param pravegaServiceEndpoint Pravega service endpoint details.
+     */
+    ZKHotSegmentPublisher(CuratorFramework zkClient, Host pravegaServiceEndpoint) {
+        this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient");
+        Preconditions.checkNotNull(pravegaServiceEndpoint, "pravegaServiceEndpoint");
+        this.path = ZKPaths.makePath(HOT_SEGMENTS_PATH, pravegaServiceEndpoint.toString());
+        this.closed = new AtomicBoolean();
+    }
+
+    /**
+     * Publishes the given HotSegments, replacing any that were previously published by this Segment Store. Failures are
+     * logged and otherwise ignored; the next report will be published as usual.
+     *
+     * @param hotSegments The HotSegments to publish.
+     */
+    void publish(List<HotSegment> hotSegments) {
+        if (this.closed.get()) {
+            return;
+        }
+
+        byte[] data = HotSegment.serialize(hotSegments);
+        try {
+            try {
+                this.zkClient.setData().forPath(this.path, data);
+            } catch (KeeperException.NoNodeException ex) {
+                // The node is ephemeral, so it will need to be recreated if our ZooKeeper session expired.
+                this.zkClient.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(this.path, data);
+            }
+        } catch (Exception ex) {
+            log.warn("Unable to publish {} hot segment(s) to '{}'.", hotSegments.size(), this.path, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            try {
+                this.zkClient.delete().quietly().forPath(this.path);
+            } catch (Exception ex) {
+                log.warn("Unable to delete '{}'.", this.path, ex);
+            }
+        }
+    }
+}
@@ -184,6 +184,7 @@ public abstract class Command {
                         .put(BookKeeperEnableCommand::descriptor, BookKeeperEnableCommand::new)
                         .put(BookKeeperDisableCommand::descriptor, BookKeeperDisableCommand::new)
                         .put(ContainerRecoverCommand::descriptor, ContainerRecoverCommand::new)
+                        .put(ContainerHotSegmentsCommand::descriptor, ContainerHotSegmentsCommand::new)
                         .build());
 
         /**
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.admin.commands;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.server.host.ZKHotSegmentPublisher;
+import io.pravega.segmentstore.server.host.stat.HotSegment;
+import java.util.List;
+import lombok.Cleanup;
+import lombok.val;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * Lists the hottest Segments (by write and by read byte rate) of each SegmentContainer, as last reported by the running
+ * Segment Stores.
+ */
+class ContainerHotSegmentsCommand extends ContainerCommand {
+    /**
+     * Creates a new instance of the ContainerHotSegmentsCommand.
+     *
+     * @param args The arguments for the command.
+     */
+    ContainerHotSegmentsCommand(CommandArgs args) {
+        super(args);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        int argCount = getCommandArgs().getArgs().size();
+        Preconditions.checkArgument(argCount <= 1, "Incorrect argument count.");
+        Integer containerId = argCount == 0 ? null : getIntArg(0);
+
+        // This does not need a BookKeeper context; the Segment Stores publish their reports directly to ZooKeeper.
+        @Cleanup
+        val zkClient = createZKClient();
+        if (zkClient.checkExists().forPath(ZKHotSegmentPublisher.HOT_SEGMENTS_PATH) == null) {
+            output("No Segment Store has reported any hot segments.");
+            return;
+        }
+
+        for (String host : zkClient.getChildren().forPath(ZKHotSegmentPublisher.HOT_SEGMENTS_PATH)) {
+            List<HotSegment> hotSegments;
+            try {
+                hotSegments = HotSegment.deserialize(zkClient.getData().forPath(ZKPaths.makePath(ZKHotSegmentPublisher.HOT_SEGMENTS_PATH, host)));
+            } catch (KeeperException.NoNodeException ex) {
+                // This Segment Store shut down after we listed it.
+                continue;
+            } catch (IllegalArgumentException ex) {
+                output("Segment Store %s: Unable to parse report (%s).", host, ex.getMessage());
+                continue;
+            }
+
+            output("Segment Store %s:", host);
+            hotSegments.stream()
+                       .filter(s -> containerId == null || s.getContainerId() == containerId)
+                       .forEach(s -> output("\t%s", s));
+        }
+    }
+
+    static CommandDescriptor descriptor() {
+        return new CommandDescriptor(ContainerCommand.COMPONENT, "hot-segments",
+                "Lists the hottest Segments of each SegmentContainer, as last reported by the running Segment Stores.",
+                new ArgDescriptor("container-id", "(Optional) Id of the SegmentContainer to list hot Segments for."));
+    }
+}
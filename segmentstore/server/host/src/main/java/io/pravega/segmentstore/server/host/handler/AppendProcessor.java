@@ -29,6 +29,7 @@ import io.pravega.segmentstore.contracts.StreamSegmentExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
+import io.pravega.segmentstore.server.TransportPolicy;
 import io.pravega.segmentstore.server.host.delegationtoken.DelegationTokenVerifier;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
 import io.pravega.shared.metrics.DynamicLogger;
@@ -51,13 +52,16 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.ToIntFunction;
 import javax.annotation.concurrent.GuardedBy;
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import lombok.Getter;
@@ -65,6 +69,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 
 import static io.pravega.segmentstore.contracts.Attributes.EVENT_COUNT;
+import static io.pravega.shared.MetricsNames.APPEND_THROTTLE_HINT;
+import static io.pravega.shared.MetricsNames.CONNECTION_OUTSTANDING_BYTES;
+import static io.pravega.shared.MetricsNames.CONNECTION_READ_PAUSED_LATENCY;
 import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_BYTES;
 import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_EVENTS;
 import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_LATENCY;
@@ -78,11 +85,12 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     //region Members
 
     static final Duration TIMEOUT = Duration.ofMinutes(1);
-    private static final int HIGH_WATER_MARK = 128 * 1024;
-    private static final int LOW_WATER_MARK = 64 * 1024;
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
     private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
     private static final OpStatsLogger WRITE_STREAM_SEGMENT = STATS_LOGGER.createStats(SEGMENT_WRITE_LATENCY);
+    private static final OpStatsLogger READ_PAUSED = STATS_LOGGER.createStats(CONNECTION_READ_PAUSED_LATENCY);
+    private static final OpStatsLogger OUTSTANDING_BYTES = STATS_LOGGER.createStats(CONNECTION_OUTSTANDING_BYTES);
+    private static final OpStatsLogger THROTTLE_HINT = STATS_LOGGER.createStats(APPEND_THROTTLE_HINT);
     private final StreamSegmentStore store;
     private final ServerConnection connection;
     @Getter
@@ -90,13 +98,26 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final Object lock = new Object();
     private final SegmentStatsRecorder statsRecorder;
     private final DelegationTokenVerifier tokenVerifier;
+    private final int maxOutstandingBytes;
+    private final int resumeOutstandingBytes;
+    private final int maxInFlightBytes;
+    private final long writerCredit;
+    private final ToIntFunction<String> throttlingDelayProvider;
 
     @GuardedBy("lock")
     private final LinkedListMultimap<UUID, Append> waitingAppends = LinkedListMultimap.create(2);
     @GuardedBy("lock")
     private final HashMap<Pair<String, UUID>, Long> latestEventNumbers = new HashMap<>();
     @GuardedBy("lock")
-    private Append outstandingAppend = null;
+    private final HashMap<UUID, Append> outstandingAppends = new HashMap<>();
+    @GuardedBy("lock")
+    private final HashSet<String> outstandingSegments = new HashSet<>();
+    @GuardedBy("lock")
+    private int inFlightBytes = 0;
+    @GuardedBy("lock")
+    private Timer pausedTimer = null;
+    @GuardedBy("lock")
+    private long totalPausedNanos = 0;
 
     //endregion
 
@@ -125,11 +146,93 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      * @param tokenVerifier Delegation token verifier.
      */
     AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier) {
+        this(store, connection, next, statsRecorder, tokenVerifier, TransportPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of the AppendProcessor class.
+     *
+     * @param store           The SegmentStore to send append requests to.
+     * @param connection      The ServerConnection to send responses to.
+     * @param next            The RequestProcessor to invoke next.
+     * @param statsRecorder   (Optional) A StatsRecorder to record Metrics.
+     * @param tokenVerifier   Delegation token verifier.
+     * @param transportPolicy The TransportPolicy that defines when to pause and resume reading from the connection.
+     */
+    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder,
+                    DelegationTokenVerifier tokenVerifier, TransportPolicy transportPolicy) {
+        this(store, connection, next, statsRecorder, tokenVerifier, transportPolicy, segment -> 0);
+    }
+
+    /**
+     * Creates a new instance of the AppendProcessor class.
+     *
+     * @param store                   The SegmentStore to send append requests to.
+     * @param connection              The ServerConnection to send responses to.
+     * @param next                    The RequestProcessor to invoke next.
+     * @param statsRecorder           (Optional) A StatsRecorder to record Metrics.
+     * @param tokenVerifier           Delegation token verifier.
+     * @param transportPolicy         The TransportPolicy that defines when to pause and resume reading from the connection.
+     * @param throttlingDelayProvider A Function that returns the current throttling delay (in millis) for a Segment, which
+     *                                is passed on to the writers of that Segment with every acknowledgement.
+     */
+    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder,
+                    DelegationTokenVerifier tokenVerifier, TransportPolicy transportPolicy, ToIntFunction<String> throttlingDelayProvider) {
+        Preconditions.checkNotNull(transportPolicy, "transportPolicy");
+        this.throttlingDelayProvider = Preconditions.checkNotNull(throttlingDelayProvider, "throttlingDelayProvider");
         this.store = Preconditions.checkNotNull(store, "store");
         this.connection = Preconditions.checkNotNull(connection, "connection");
         this.nextRequestProcessor = Preconditions.checkNotNull(next, "next");
         this.statsRecorder = statsRecorder;
         this.tokenVerifier = tokenVerifier;
+        this.maxOutstandingBytes = transportPolicy.getMaxOutstandingBytes();
+        this.resumeOutstandingBytes = transportPolicy.getResumeOutstandingBytes();
+        this.maxInFlightBytes = transportPolicy.getMaxInFlightBytes();
+        this.writerCredit = transportPolicy.getWriterCreditBytes() > 0 ? transportPolicy.getWriterCreditBytes() : WireCommands.UNLIMITED_CREDIT;
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets the number of bytes of appends that have been received on this connection but not yet written to the Store.
+     */
+    public int getOutstandingBytes() {
+        synchronized (lock) {
+            return getOutstandingBytesInternal();
+        }
+    }
+
+    /**
+     * Gets the number of bytes of appends from this connection that are currently being written to the Store.
+     */
+    public int getInFlightBytes() {
+        synchronized (lock) {
+            return this.inFlightBytes;
+        }
+    }
+
+    /**
+     * Gets the total amount of time that reading from this connection has been paused for, including the current pause
+     * (if any).
+     */
+    public Duration getTotalPausedTime() {
+        synchronized (lock) {
+            long nanos = this.totalPausedNanos;
+            if (this.pausedTimer != null) {
+                nanos += this.pausedTimer.getElapsedNanos();
+            }
+            return Duration.ofNanos(nanos);
+        }
+    }
+
+    @GuardedBy("lock")
+    private int getOutstandingBytesInternal() {
+        return waitingAppends.values()
+                .stream()
+                .mapToInt(a -> a.getData().readableBytes())
+                .sum();
     }
 
     //endregion
@@ -177,7 +280,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                             synchronized (lock) {
                                 latestEventNumbers.putIfAbsent(Pair.of(newSegment, writer), eventNumber);
                             }
-                            connection.send(new AppendSetup(setupAppend.getRequestId(), newSegment, writer, eventNumber));
+                            connection.send(new AppendSetup(setupAppend.getRequestId(), newSegment, writer, eventNumber, writerCredit));
                         }
                     } catch (Throwable e) {
                         handleException(writer, setupAppend.getRequestId(), newSegment, "handling setupAppend result", e);
@@ -186,15 +289,19 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     }
 
     /**
-     * If there isn't already an append outstanding against the store, write a new one.
-     * Appends are opportunistically batched here. i.e. If many are waiting they are combined into a single append and
-     * that is written.
+     * Writes as many of the waiting appends to the store as are allowed to be outstanding at once.
+     * Appends are opportunistically batched here. i.e. If many are waiting from the same writer they are combined into a
+     * single append and that is written.
      */
     private void performNextWrite() {
         Append append = getNextAppend();
-        if (append == null) {
-            return;
+        while (append != null) {
+            performWrite(append);
+            append = getNextAppend();
         }
+    }
+
+    private void performWrite(Append append) {
         long traceId = LoggerHelpers.traceEnter(log, "storeAppend", append);
         Timer timer = new Timer();
         storeAppend(append)
@@ -210,39 +317,59 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                 .whenComplete((v, e) -> append.getData().release());
     }
 
+    /**
+     * Picks the next append to write to the store, if any. Each writer may have at most one append outstanding at any
+     * time (which preserves the order of its events), and so may each segment. Writers are served in round-robin order
+     * so that a busy writer cannot starve the others sharing this connection, and no new append is started while the
+     * appends that are already outstanding add up to more than the configured number of in-flight bytes.
+     */
     private Append getNextAppend() {
         synchronized (lock) {
-            if (outstandingAppend != null || waitingAppends.isEmpty()) {
+            if (waitingAppends.isEmpty() || (!outstandingAppends.isEmpty() && inFlightBytes >= maxInFlightBytes)) {
+                return null;
+            }
+            UUID writer = null;
+            for (UUID candidate : waitingAppends.keySet()) {
+                if (!outstandingAppends.containsKey(candidate)
+                        && !outstandingSegments.contains(waitingAppends.get(candidate).get(0).getSegment())) {
+                    writer = candidate;
+                    break;
+                }
+            }
+            if (writer == null) {
                 return null;
             }
-            UUID writer = waitingAppends.keys().iterator().next();
+
+            Append next;
             List<Append> appends = waitingAppends.get(writer);
             if (appends.get(0).isConditional()) {
-                outstandingAppend = appends.remove(0);
+                next = appends.remove(0);
             } else {
-                ByteBuf[] toAppend = new ByteBuf[appends.size()];
+                List<ByteBuf> toAppend = new ArrayList<>();
                 Append last = appends.get(0);
                 int eventCount = 0;
-
-                int i = -1;
                 for (Iterator<Append> iterator = appends.iterator(); iterator.hasNext(); ) {
                     Append a = iterator.next();
-                    if (a.isConditional()) {
+                    if (a.isConditional() || !a.getSegment().equals(last.getSegment())) {
                         break;
                     }
-                    i++;
-                    toAppend[i] = a.getData();
+                    toAppend.add(a.getData());
                     last = a;
                     eventCount += a.getEventCount();
                     iterator.remove();
                 }
-                ByteBuf data = Unpooled.wrappedBuffer(toAppend);
+                ByteBuf data = Unpooled.wrappedBuffer(toAppend.toArray(new ByteBuf[toAppend.size()]));
+                next = new Append(last.getSegment(), writer, last.getEventNumber(), eventCount, data, null);
+            }
 
-                String segment = last.getSegment();
-                long eventNumber = last.getEventNumber();
-                outstandingAppend = new Append(segment, writer, eventNumber, eventCount, data, null);
+            if (waitingAppends.containsKey(writer)) {
+                // Move this writer to the back of the line.
+                waitingAppends.putAll(writer, waitingAppends.removeAll(writer));
             }
-            return outstandingAppend;
+            outstandingAppends.put(writer, next);
+            outstandingSegments.add(next.getSegment());
+            inFlightBytes += next.getDataLength();
+            return next;
         }
     }
 
@@ -271,7 +398,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             long previousEventNumber;
             synchronized (lock) {
                 previousEventNumber = latestEventNumbers.get(Pair.of(append.getSegment(), append.getWriterId()));
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
             }
@@ -287,8 +414,12 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                 if (statsRecorder != null && !StreamSegmentNameUtils.isTransactionSegment(append.getSegment())) {
                     statsRecorder.record(append.getSegment(), append.getDataLength(), append.getEventCount());
                 }
+                int throttlingDelay = throttlingDelayProvider.applyAsInt(append.getSegment());
+                if (throttlingDelay > 0) {
+                    THROTTLE_HINT.reportSuccessValue(throttlingDelay);
+                }
                 final DataAppended dataAppendedAck = new DataAppended(append.getWriterId(), append.getEventNumber(),
-                        previousEventNumber);
+                        previousEventNumber, writerCredit, throttlingDelay);
                 log.trace("Sending DataAppended : {}", dataAppendedAck);
                 connection.send(dataAppendedAck);
                 //Don't report metrics if segment is a transaction
@@ -301,14 +432,16 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             }
 
             /* Reply (DataAppended in case of success, else an error Reply based on exception) has been sent. Next,
-             *   - clear outstandingAppend to handle the next Append message.
+             *   - clear the outstanding append for this writer, so that its next Append message can be handled.
              *   - ensure latestEventNumbers and waitingAppends are updated.
              */
             synchronized (lock) {
-                Preconditions.checkState(outstandingAppend == append,
+                Preconditions.checkState(outstandingAppends.get(append.getWriterId()) == append,
                         "Synchronization error in: %s while processing append: %s.",
                         AppendProcessor.this.getClass().getName(), append);
-                outstandingAppend = null;
+                outstandingAppends.remove(append.getWriterId());
+                outstandingSegments.remove(append.getSegment());
+                inFlightBytes -= append.getDataLength();
                 if (exception == null) {
                     latestEventNumbers.put(Pair.of(append.getSegment(), append.getWriterId()), append.getEventNumber());
                 } else {
@@ -371,18 +504,32 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      */
     private void pauseOrResumeReading() {
         int bytesWaiting;
+        boolean pause = false;
+        Duration pausedFor = null;
         synchronized (lock) {
-            bytesWaiting = waitingAppends.values()
-                    .stream()
-                    .mapToInt(a -> a.getData().readableBytes())
-                    .sum();
+            bytesWaiting = getOutstandingBytesInternal();
+            if (bytesWaiting > this.maxOutstandingBytes && this.pausedTimer == null) {
+                this.pausedTimer = new Timer();
+                pause = true;
+            } else if (bytesWaiting < this.resumeOutstandingBytes && this.pausedTimer != null) {
+                pausedFor = this.pausedTimer.getElapsed();
+                this.totalPausedNanos += pausedFor.toNanos();
+                this.pausedTimer = null;
+            }
         }
 
-        if (bytesWaiting > HIGH_WATER_MARK) {
-            log.debug("Pausing writing from connection {}", connection);
+        if (pause) {
+            log.debug("Pausing writing from connection {} ({} bytes outstanding).", connection, bytesWaiting);
+            OUTSTANDING_BYTES.reportSuccessValue(bytesWaiting);
+        }
+        if (bytesWaiting > this.maxOutstandingBytes) {
             connection.pauseReading();
         }
-        if (bytesWaiting < LOW_WATER_MARK) {
+        if (pausedFor != null) {
+            log.debug("Resuming writing from connection {} after {} ms.", connection, pausedFor.toMillis());
+            READ_PAUSED.reportSuccessEvent(pausedFor);
+        }
+        if (bytesWaiting < this.resumeOutstandingBytes) {
             log.trace("Resuming writing from connection {}", connection);
             connection.resumeReading();
         }
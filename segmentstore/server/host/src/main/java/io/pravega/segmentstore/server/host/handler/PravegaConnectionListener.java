@@ -12,11 +12,13 @@ package io.pravega.segmentstore.server.host.handler;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -32,6 +34,7 @@ import io.netty.util.internal.logging.InternalLoggerFactory;
 import io.netty.util.internal.logging.Slf4JLoggerFactory;
 import io.pravega.common.Exceptions;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
+import io.pravega.segmentstore.server.TransportPolicy;
 import io.pravega.segmentstore.server.host.delegationtoken.DelegationTokenVerifier;
 import io.pravega.segmentstore.server.host.delegationtoken.PassingTokenVerifier;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
@@ -41,12 +44,14 @@ import io.pravega.shared.protocol.netty.CommandEncoder;
 import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
 import java.io.File;
 import javax.net.ssl.SSLException;
+import lombok.extern.slf4j.Slf4j;
 
 import static io.pravega.shared.protocol.netty.WireCommands.MAX_WIRECOMMAND_SIZE;
 
 /**
  * Hands off any received data from a client to the CommandProcessor.
  */
+@Slf4j
 public final class PravegaConnectionListener implements AutoCloseable {
     //region Members
 
@@ -61,6 +66,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private final SegmentStatsRecorder statsRecorder;
+    private final TransportPolicy transportPolicy;
 
     //endregion
 
@@ -91,6 +97,24 @@ public final class PravegaConnectionListener implements AutoCloseable {
      */
     public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
                                      SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile, String keyFile) {
+        this(ssl, host, port, streamSegmentStore, statsRecorder, tokenVerifier, certFile, keyFile, TransportPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of the PravegaConnectionListener class.
+     * @param ssl                Whether to use SSL.
+     * @param host               The name of the host to listen to.
+     * @param port               The port to listen on.
+     * @param streamSegmentStore The SegmentStore to delegate all requests to.
+     * @param statsRecorder      (Optional) A StatsRecorder for Metrics.
+     * @param tokenVerifier      The object to verify delegation token.
+     * @param certFile           Path to the certificate file to be used for TLS.
+     * @param keyFile            PAth to be key file to be used for TLS.
+     * @param transportPolicy    The TransportPolicy to configure the server socket and its connections with.
+     */
+    public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
+                                     SegmentStatsRecorder statsRecorder, DelegationTokenVerifier tokenVerifier, String certFile, String keyFile,
+                                     TransportPolicy transportPolicy) {
         this.ssl = ssl;
         this.host = Exceptions.checkNotNullOrEmpty(host, "host");
         this.port = port;
@@ -98,6 +122,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
         this.statsRecorder = statsRecorder;
         this.certFile = certFile;
         this.keyFile = keyFile;
+        this.transportPolicy = Preconditions.checkNotNull(transportPolicy, "transportPolicy");
         InternalLoggerFactory.setDefaultFactory(Slf4JLoggerFactory.INSTANCE);
         if (tokenVerifier != null) {
             this.tokenVerifier = tokenVerifier;
@@ -120,21 +145,38 @@ public final class PravegaConnectionListener implements AutoCloseable {
         } else {
             sslCtx = null;
         }
-        boolean nio = false;
-        try {
-            bossGroup = new EpollEventLoopGroup(1);
-            workerGroup = new EpollEventLoopGroup();
-        } catch (ExceptionInInitializerError | UnsatisfiedLinkError | NoClassDefFoundError e) {
-            nio = true;
+        boolean nio = !transportPolicy.isNativeTransport();
+        if (!nio) {
+            try {
+                bossGroup = new EpollEventLoopGroup(1);
+                workerGroup = new EpollEventLoopGroup();
+            } catch (ExceptionInInitializerError | UnsatisfiedLinkError | NoClassDefFoundError e) {
+                log.info("Native transport is not available; falling back to NIO.");
+                nio = true;
+            }
+        }
+        if (nio) {
             bossGroup = new NioEventLoopGroup(1);
             workerGroup = new NioEventLoopGroup();
         }
 
+        log.info("Listening on {}:{} using {} transport ({}).", host, port, nio ? "NIO" : "Epoll", transportPolicy);
         ServerBootstrap b = new ServerBootstrap();
         b.group(bossGroup, workerGroup)
          .channel(nio ? NioServerSocketChannel.class : EpollServerSocketChannel.class)
          .option(ChannelOption.SO_BACKLOG, 100)
-         .handler(new LoggingHandler(LogLevel.INFO))
+         .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                 transportPolicy.getWriteBufferLowWaterMark(), transportPolicy.getWriteBufferHighWaterMark()));
+        if (transportPolicy.getSocketReceiveBufferSize() > 0) {
+            b.childOption(ChannelOption.SO_RCVBUF, transportPolicy.getSocketReceiveBufferSize());
+        }
+        if (transportPolicy.getSocketSendBufferSize() > 0) {
+            b.childOption(ChannelOption.SO_SNDBUF, transportPolicy.getSocketSendBufferSize());
+        }
+        if (transportPolicy.isPooledDirectBuffers()) {
+            b.childOption(ChannelOption.ALLOCATOR, new PooledByteBufAllocator(true));
+        }
+        b.handler(new LoggingHandler(LogLevel.INFO))
          .childHandler(new ChannelInitializer<SocketChannel>() {
              @Override
              public void initChannel(SocketChannel ch) throws Exception {
@@ -155,7 +197,9 @@ public final class PravegaConnectionListener implements AutoCloseable {
                          lsh,
                          new PravegaRequestProcessor(store, lsh, statsRecorder, tokenVerifier),
                          statsRecorder,
-                         tokenVerifier));
+                         tokenVerifier,
+                         transportPolicy,
+                         store::getThrottlingDelayMillis));
              }
          });
 
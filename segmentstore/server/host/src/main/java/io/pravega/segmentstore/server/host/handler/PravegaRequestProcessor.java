@@ -16,6 +16,7 @@ import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.Timer;
 import io.pravega.common.auth.AuthenticationException;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.io.StreamHelpers;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.AttributeUpdateType;
@@ -44,16 +45,21 @@ import io.pravega.shared.protocol.netty.FailingRequestProcessor;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
+import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttributes;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.NoSuchSegment;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAlreadyExists;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentAttributeUpdated;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentAttributes;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentCreated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentDeleted;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
@@ -62,10 +68,12 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentPolicyUpdated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentTruncated;
+import io.pravega.shared.protocol.netty.WireCommands.SegmentsBatchProcessed;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
+import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentsPolicy;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -78,6 +86,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -210,7 +224,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
             ByteBuffer data = copyData(cachedEntries);
             SegmentRead reply = new SegmentRead(segment, request.getOffset(), atTail, endOfSegment, data);
             connection.send(reply);
-            DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), reply.getData().array().length);
+            recordRead(segment, reply.getData().array().length);
         } else if (truncated) {
             // We didn't collect any data, instead we determined that the current read offset was truncated.
             // Determine the current Start Offset and send that back.
@@ -226,7 +240,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                         ByteBuffer data = copyData(Collections.singletonList(contents));
                         SegmentRead reply = new SegmentRead(segment, nonCachedEntry.getStreamSegmentOffset(), false, endOfSegment, data);
                         connection.send(reply);
-                        DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), reply.getData().array().length);
+                        recordRead(segment, reply.getData().array().length);
                     })
                     .exceptionally(e -> {
                         if (Exceptions.unwrap(e) instanceof StreamSegmentTruncatedException) {
@@ -242,6 +256,16 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         }
     }
 
+    /**
+     * Records that the given number of bytes were read from the given segment and sent back over the connection.
+     */
+    private void recordRead(String segment, int length) {
+        DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), length);
+        if (statsRecorder != null) {
+            statsRecorder.read(segment, length);
+        }
+    }
+
     /**
      * Wrap a {@link CancellationException} to {@link ReadCancellationException}
      */
@@ -356,6 +380,40 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 .exceptionally(e -> handleException(requestId, segmentName, "Get attribute", e));
     }
 
+    @Override
+    public void getSegmentAttributes(GetSegmentAttributes getSegmentAttributes) {
+        long requestId = getSegmentAttributes.getRequestId();
+        String segmentName = getSegmentAttributes.getSegmentName();
+
+        if (!verifyToken(segmentName, requestId, getSegmentAttributes.getDelegationToken(),
+                READ, "Get StreamSegment Attributes")) {
+            return;
+        }
+
+        int maxCount = getSegmentAttributes.getMaxCount();
+        if (maxCount <= 0) {
+            connection.send(new SegmentAttributes(requestId, segmentName, Collections.emptyMap()));
+            return;
+        }
+
+        if (maxCount > GetSegmentAttributes.MAX_COUNT) {
+            // Returning fewer attributes than requested would make the caller believe it has reached the end of the range.
+            log.warn("Rejecting request to get {} attributes of segment '{}'; at most {} may be requested at once.",
+                    maxCount, segmentName, GetSegmentAttributes.MAX_COUNT);
+            connection.send(new OperationUnsupported(requestId,
+                    String.format("Get attributes (maxCount %d exceeds %d)", maxCount, GetSegmentAttributes.MAX_COUNT)));
+            return;
+        }
+
+        long trace = LoggerHelpers.traceEnter(log, "getSegmentAttributes", getSegmentAttributes);
+        segmentStore.getAttributeRange(segmentName, getSegmentAttributes.getFromId(), getSegmentAttributes.getToId(), maxCount, TIMEOUT)
+                .thenAccept(attributes -> {
+                    LoggerHelpers.traceLeave(log, "getSegmentAttributes", trace, attributes.size());
+                    connection.send(new SegmentAttributes(requestId, segmentName, attributes));
+                })
+                .exceptionally(e -> handleException(requestId, segmentName, "Get attributes", e));
+    }
+
     @Override
     public void getStreamSegmentInfo(GetStreamSegmentInfo getStreamSegmentInfo) {
         String segmentName = getStreamSegmentInfo.getSegmentName();
@@ -575,6 +633,124 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                 });
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        Collection<AttributeUpdate> attributes = Arrays.asList(
+                new AttributeUpdate(SCALE_POLICY_TYPE, AttributeUpdateType.Replace, ((Byte) createSegments.getScaleType()).longValue()),
+                new AttributeUpdate(SCALE_POLICY_RATE, AttributeUpdateType.Replace, ((Integer) createSegments.getTargetRate()).longValue()),
+                new AttributeUpdate(CREATION_TIME, AttributeUpdateType.None, System.currentTimeMillis())
+        );
+
+        log.debug("Creating {} stream segments {}", createSegments.getSegments().size(), createSegments);
+        processSegmentsBatch(createSegments.getRequestId(), createSegments.getSegments(), createSegments.getDelegationToken(),
+                "Create segments", ex -> ex instanceof StreamSegmentExistsException,
+                segment -> {
+                    Timer timer = new Timer();
+                    return segmentStore.createStreamSegment(segment, attributes, TIMEOUT)
+                            .whenComplete((r, e) -> {
+                                if (e == null) {
+                                    createStreamSegment.reportSuccessEvent(timer.getElapsed());
+                                    if (statsRecorder != null) {
+                                        statsRecorder.createSegment(segment, createSegments.getScaleType(), createSegments.getTargetRate());
+                                    }
+                                } else {
+                                    createStreamSegment.reportFailEvent(timer.getElapsed());
+                                }
+                            });
+                });
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        log.debug("Sealing {} segments {}", sealSegments.getSegments().size(), sealSegments);
+        processSegmentsBatch(sealSegments.getRequestId(), sealSegments.getSegments(), sealSegments.getDelegationToken(),
+                "Seal segments", ex -> ex instanceof StreamSegmentSealedException,
+                segment -> segmentStore.sealStreamSegment(segment, TIMEOUT)
+                        .thenRun(() -> {
+                            DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_BYTES, segment));
+                            DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_EVENTS, segment));
+                            if (statsRecorder != null) {
+                                statsRecorder.sealSegment(segment);
+                            }
+                        }));
+    }
+
+    @Override
+    public void deleteSegments(DeleteSegments deleteSegments) {
+        log.debug("Deleting {} segments {}", deleteSegments.getSegments().size(), deleteSegments);
+        processSegmentsBatch(deleteSegments.getRequestId(), deleteSegments.getSegments(), deleteSegments.getDelegationToken(),
+                "Delete segments", ex -> ex instanceof StreamSegmentNotExistsException,
+                segment -> segmentStore.deleteStreamSegment(segment, TIMEOUT)
+                        .thenRun(() -> {
+                            DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_BYTES, segment));
+                            DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_EVENTS, segment));
+                            DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_READ_BYTES, segment));
+                        }));
+    }
+
+    @Override
+    public void updateSegmentsPolicy(UpdateSegmentsPolicy updateSegmentsPolicy) {
+        Collection<AttributeUpdate> attributes = Arrays.asList(
+                new AttributeUpdate(SCALE_POLICY_TYPE, AttributeUpdateType.Replace, (long) updateSegmentsPolicy.getScaleType()),
+                new AttributeUpdate(SCALE_POLICY_RATE, AttributeUpdateType.Replace, updateSegmentsPolicy.getTargetRate()));
+        log.debug("Updating policy of {} segments {}", updateSegmentsPolicy.getSegments().size(), updateSegmentsPolicy);
+        processSegmentsBatch(updateSegmentsPolicy.getRequestId(), updateSegmentsPolicy.getSegments(),
+                updateSegmentsPolicy.getDelegationToken(), "Update segments policy", ex -> false,
+                segment -> segmentStore.updateAttributes(segment, attributes, TIMEOUT)
+                        .thenRun(() -> {
+                            if (statsRecorder != null) {
+                                statsRecorder.policyUpdate(segment, updateSegmentsPolicy.getScaleType(),
+                                        updateSegmentsPolicy.getTargetRate());
+                            }
+                        }));
+    }
+
+    /**
+     * Executes the given operation on every segment of a batch request (in parallel) and sends a single
+     * SegmentsBatchProcessed reply once all of them are done. If any of them fails with an exception that is not
+     * deemed benign, the reply for the first such failure is sent instead (as if it were a single segment request).
+     *
+     * @param requestId        The id of the batch request.
+     * @param segments         The segments to process.
+     * @param delegationToken  The delegation token to verify for each segment.
+     * @param operation        The name of the operation (for logging and error replies).
+     * @param isBenign         A Predicate that indicates whether a (unwrapped) failure leaves the segment in the
+     *                         requested state, in which case the segment counts as processed.
+     * @param segmentOperation A Function that executes the operation on a single segment.
+     */
+    private void processSegmentsBatch(long requestId, List<String> segments, String delegationToken, String operation,
+                                      Predicate<Throwable> isBenign, Function<String, CompletableFuture<Void>> segmentOperation) {
+        for (String segment : segments) {
+            if (!verifyToken(segment, requestId, delegationToken, READ_UPDATE, operation)) {
+                return;
+            }
+        }
+
+        long trace = LoggerHelpers.traceEnter(log, "processSegmentsBatch", requestId, operation, segments.size());
+        AtomicReference<String> failedSegment = new AtomicReference<>();
+        List<CompletableFuture<Void>> results = segments
+                .stream()
+                .map(segment -> segmentOperation
+                        .apply(segment)
+                        .exceptionally(e -> {
+                            Throwable ex = Exceptions.unwrap(e);
+                            if (isBenign.test(ex)) {
+                                log.info("Segment '{}' is already in the state requested by '{}'.", segment, operation);
+                                return null;
+                            }
+                            failedSegment.compareAndSet(null, segment);
+                            throw new CompletionException(ex);
+                        }))
+                .collect(Collectors.toList());
+
+        Futures.allOf(results)
+               .thenRun(() -> {
+                   LoggerHelpers.traceLeave(log, "processSegmentsBatch", trace, requestId);
+                   connection.send(new SegmentsBatchProcessed(requestId, segments.size()));
+               })
+               .exceptionally(e -> handleException(requestId, failedSegment.get(), operation, e));
+    }
+
     //endregion
 
     private void recordStatForTransaction(SegmentProperties sourceInfo, String targetSegmentName) {
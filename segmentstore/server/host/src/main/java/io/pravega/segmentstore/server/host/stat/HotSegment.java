@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.stat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Data;
+
+/**
+ * One of the hottest Segments in a Segment Container, as reported by the {@link HotSegmentTracker}.
+ */
+@Data
+public class HotSegment {
+    private static final String SEPARATOR = " ";
+
+    /**
+     * The Id of the Segment Container the Segment belongs to.
+     */
+    private final int containerId;
+
+    /**
+     * Whether this Segment is among the hottest by writes or by reads.
+     */
+    private final Type type;
+
+    /**
+     * The rank (starting at 1) of this Segment among the hottest Segments of the same Type in its Segment Container.
+     */
+    private final int rank;
+
+    /**
+     * The name of the Segment.
+     */
+    private final String segmentName;
+
+    /**
+     * The number of bytes written to (or read from) the Segment per second.
+     */
+    private final long bytesPerSecond;
+
+    /**
+     * The maximum amount by which bytesPerSecond may be overestimated.
+     */
+    private final long errorBytesPerSecond;
+
+    @Override
+    public String toString() {
+        return String.format("Container %d %s #%d: %s, %d B/s (+/- %d B/s)", this.containerId, this.type, this.rank,
+                this.segmentName, this.bytesPerSecond, this.errorBytesPerSecond);
+    }
+
+    /**
+     * Serializes the given HotSegments into a form that can be parsed back using {@link #deserialize(byte[])}. Each
+     * HotSegment is serialized as a separate line of text.
+     *
+     * @param hotSegments The HotSegments to serialize.
+     * @return The serialization.
+     */
+    public static byte[] serialize(Collection<HotSegment> hotSegments) {
+        return hotSegments.stream()
+                          .map(s -> String.join(SEPARATOR, Integer.toString(s.containerId), s.type.name(),
+                                  Integer.toString(s.rank), Long.toString(s.bytesPerSecond),
+                                  Long.toString(s.errorBytesPerSecond), s.segmentName))
+                          .collect(Collectors.joining("\n"))
+                          .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deserializes HotSegments that were serialized using {@link #serialize(Collection)}.
+     *
+     * @param serialization The serialization.
+     * @return A List of HotSegments.
+     * @throws IllegalArgumentException If the serialization is not valid.
+     */
+    public static List<HotSegment> deserialize(byte[] serialization) {
+        List<HotSegment> result = new ArrayList<>();
+        for (String line : new String(serialization, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            // The Segment name goes last, so anything after the fixed fields belongs to it.
+            String[] fields = line.split(SEPARATOR, 6);
+            if (fields.length != 6) {
+                throw new IllegalArgumentException(String.format("Invalid HotSegment serialization: '%s'.", line));
+            }
+
+            result.add(new HotSegment(Integer.parseInt(fields[0]), Type.valueOf(fields[1]), Integer.parseInt(fields[2]),
+                    fields[5], Long.parseLong(fields[3]), Long.parseLong(fields[4])));
+        }
+
+        return result;
+    }
+
+    /**
+     * The kind of traffic a Segment is hot for.
+     */
+    public enum Type {
+        WRITE,
+        READ
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.stat;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.shared.metrics.DynamicLogger;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.segment.SegmentToContainerMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static io.pravega.shared.MetricsNames.SEGMENT_HOT_READ_RATE;
+import static io.pravega.shared.MetricsNames.SEGMENT_HOT_WRITE_RATE;
+import static io.pravega.shared.MetricsNames.nameFromSegment;
+
+/**
+ * Tracks the hottest Segments (by bytes written per second and by bytes read per second) in each Segment Container.
+ *
+ * Each Segment Container has a {@link SpaceSavingSketch} for writes and one for reads, so the memory used is bounded
+ * regardless of how many Segments are active, and recording traffic does not take any locks. Rates are measured over
+ * the interval between two calls to {@link #rollover()}, which reports the hottest Segments of that interval (as
+ * Dynamic Gauges and as a List of {@link HotSegment}s) and starts a new one.
+ */
+@ThreadSafe
+public class HotSegmentTracker {
+    //region Members
+
+    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
+
+    /**
+     * The number of Segments tracked for each one that is reported. Tracking more Segments than are reported makes it
+     * much more likely that the reported ones are in fact the hottest ones, and that their rates are exact.
+     */
+    private static final int CAPACITY_MULTIPLIER = 4;
+
+    private final ToIntFunction<String> containerMapper;
+    private final int count;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+    private final AtomicReferenceArray<SpaceSavingSketch> writes;
+    private final AtomicReferenceArray<SpaceSavingSketch> reads;
+    @GuardedBy("this")
+    private long lastRolloverNanos;
+    @GuardedBy("this")
+    private Set<String> reportedGauges;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the HotSegmentTracker class.
+     *
+     * @param containerCount The number of Segment Containers in the system.
+     * @param count          The number of hottest Segments to report for each Segment Container and type of traffic.
+     */
+    public HotSegmentTracker(int containerCount, int count) {
+        this(new SegmentToContainerMapper(containerCount)::getContainerId, containerCount, count, System::nanoTime);
+    }
+
+    /**
+     * Creates a new instance of the HotSegmentTracker class.
+     *
+     * @param containerMapper A function that maps Segment names to the Ids of the Segment Containers they belong to.
+     * @param containerCount  The number of Segment Containers in the system.
+     * @param count           The number of hottest Segments to report for each Segment Container and type of traffic.
+     * @param nanoClock       A source of System.nanoTime()-like timestamps.
+     */
+    @VisibleForTesting
+    HotSegmentTracker(ToIntFunction<String> containerMapper, int containerCount, int count, LongSupplier nanoClock) {
+        Preconditions.checkArgument(containerCount > 0, "containerCount must be a positive integer");
+        Preconditions.checkArgument(count > 0, "count must be a positive integer");
+        this.containerMapper = Preconditions.checkNotNull(containerMapper, "containerMapper");
+        this.nanoClock = Preconditions.checkNotNull(nanoClock, "nanoClock");
+        this.count = count;
+        this.capacity = count * CAPACITY_MULTIPLIER;
+        this.writes = new AtomicReferenceArray<>(containerCount);
+        this.reads = new AtomicReferenceArray<>(containerCount);
+        for (int i = 0; i < containerCount; i++) {
+            this.writes.set(i, new SpaceSavingSketch(this.capacity));
+            this.reads.set(i, new SpaceSavingSketch(this.capacity));
+        }
+
+        this.lastRolloverNanos = nanoClock.getAsLong();
+        this.reportedGauges = new HashSet<>();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records that data was written to a Segment.
+     *
+     * @param streamSegmentName The name of the Segment.
+     * @param dataLength        The number of bytes written.
+     */
+    public void recordWrite(String streamSegmentName, long dataLength) {
+        this.writes.get(this.containerMapper.applyAsInt(streamSegmentName)).add(streamSegmentName, dataLength);
+    }
+
+    /**
+     * Records that data was read from a Segment.
+     *
+     * @param streamSegmentName The name of the Segment.
+     * @param dataLength        The number of bytes read.
+     */
+    public void recordRead(String streamSegmentName, long dataLength) {
+        this.reads.get(this.containerMapper.applyAsInt(streamSegmentName)).add(streamSegmentName, dataLength);
+    }
+
+    /**
+     * Ends the current measurement interval: reports the hottest Segments of each Segment Container during it (freezing
+     * the Gauges of Segments that are no longer among them) and begins a new interval. Traffic that is recorded while
+     * this method is executing may not be accounted for in either interval.
+     *
+     * @return A List of HotSegments, grouped by Segment Container and, within each, by type and rank.
+     */
+    public synchronized List<HotSegment> rollover() {
+        long now = this.nanoClock.getAsLong();
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - this.lastRolloverNanos));
+        this.lastRolloverNanos = now;
+
+        List<HotSegment> result = new ArrayList<>();
+        for (int containerId = 0; containerId < this.writes.length(); containerId++) {
+            collect(containerId, HotSegment.Type.WRITE, this.writes, elapsedMillis, result);
+            collect(containerId, HotSegment.Type.READ, this.reads, elapsedMillis, result);
+        }
+
+        reportGauges(result);
+        return result;
+    }
+
+    private void collect(int containerId, HotSegment.Type type, AtomicReferenceArray<SpaceSavingSketch> sketches,
+                         long elapsedMillis, List<HotSegment> result) {
+        SpaceSavingSketch sketch = sketches.getAndSet(containerId, new SpaceSavingSketch(this.capacity));
+        int rank = 0;
+        for (SpaceSavingSketch.Item item : sketch.getTop(this.count)) {
+            rank++;
+            result.add(new HotSegment(containerId, type, rank, item.getKey(),
+                    toRate(item.getTotal(), elapsedMillis), toRate(item.getError(), elapsedMillis)));
+        }
+    }
+
+    @GuardedBy("this")
+    private void reportGauges(List<HotSegment> hotSegments) {
+        Set<String> gauges = new HashSet<>();
+        for (HotSegment s : hotSegments) {
+            String name = nameFromSegment(s.getType() == HotSegment.Type.WRITE ? SEGMENT_HOT_WRITE_RATE : SEGMENT_HOT_READ_RATE,
+                    s.getSegmentName());
+            DYNAMIC_LOGGER.reportGaugeValue(name, s.getBytesPerSecond());
+            gauges.add(name);
+        }
+
+        // Segments that are no longer hot should not keep reporting their last rate.
+        this.reportedGauges.stream().filter(name -> !gauges.contains(name)).forEach(DYNAMIC_LOGGER::freezeGaugeValue);
+        this.reportedGauges = gauges;
+    }
+
+    private static long toRate(long bytes, long elapsedMillis) {
+        return bytes * 1000 / elapsedMillis;
+    }
+
+    //endregion
+}
@@ -47,12 +47,25 @@ public class SegmentStatsFactory implements AutoCloseable {
                                                            AutoScalerConfig configuration) {
         AutoScaleProcessor monitor = new AutoScaleProcessor(configuration, clientFactory, maintenanceExecutor);
         return new SegmentStatsRecorderImpl(monitor, store,
-                executor, maintenanceExecutor);
+                executor, maintenanceExecutor, null);
     }
 
     public SegmentStatsRecorder createSegmentStatsRecorder(StreamSegmentStore store, AutoScalerConfig configuration) {
+        return createSegmentStatsRecorder(store, configuration, (HotSegmentTracker) null);
+    }
+
+    /**
+     * Creates a new SegmentStatsRecorder that also records all traffic into the given HotSegmentTracker.
+     *
+     * @param store             The StreamSegmentStore to use.
+     * @param configuration     The AutoScalerConfig to use.
+     * @param hotSegmentTracker (Optional) The HotSegmentTracker to record traffic into.
+     * @return A new SegmentStatsRecorder.
+     */
+    public SegmentStatsRecorder createSegmentStatsRecorder(StreamSegmentStore store, AutoScalerConfig configuration,
+                                                           HotSegmentTracker hotSegmentTracker) {
         AutoScaleProcessor monitor = new AutoScaleProcessor(configuration, maintenanceExecutor);
-        return new SegmentStatsRecorderImpl(monitor, store, executor, maintenanceExecutor);
+        return new SegmentStatsRecorderImpl(monitor, store, executor, maintenanceExecutor, hotSegmentTracker);
     }
 
     @Override
@@ -45,6 +45,14 @@ public interface SegmentStatsRecorder {
      */
     void record(String streamSegmentName, long dataLength, int numOfEvents);
 
+    /**
+     * Method to record outgoing traffic.
+     *
+     * @param streamSegmentName segment name.
+     * @param dataLength        data length.
+     */
+    void read(String streamSegmentName, long dataLength);
+
     /**
      * Method to notify merge of transaction.
      *
@@ -49,19 +49,23 @@ public class SegmentStatsRecorderImpl implements SegmentStatsRecorder {
     private final AutoScaleProcessor reporter;
     private final StreamSegmentStore store;
     private final Executor executor;
+    private final HotSegmentTracker hotSegmentTracker;
 
     SegmentStatsRecorderImpl(AutoScaleProcessor reporter, StreamSegmentStore store,
-                             ExecutorService executor, ScheduledExecutorService maintenanceExecutor) {
-        this(reporter, store, TWO_MINUTES, TWENTY_MINUTES, TimeUnit.MINUTES, executor, maintenanceExecutor);
+                             ExecutorService executor, ScheduledExecutorService maintenanceExecutor,
+                             HotSegmentTracker hotSegmentTracker) {
+        this(reporter, store, TWO_MINUTES, TWENTY_MINUTES, TimeUnit.MINUTES, executor, maintenanceExecutor, hotSegmentTracker);
     }
 
     @VisibleForTesting
     SegmentStatsRecorderImpl(AutoScaleProcessor reporter, StreamSegmentStore store,
                              long reportingDuration, long expiryDuration, TimeUnit timeUnit,
-                             ExecutorService executor, ScheduledExecutorService maintenanceExecutor) {
+                             ExecutorService executor, ScheduledExecutorService maintenanceExecutor,
+                             HotSegmentTracker hotSegmentTracker) {
         Preconditions.checkNotNull(executor);
         Preconditions.checkNotNull(maintenanceExecutor);
         this.executor = executor;
+        this.hotSegmentTracker = hotSegmentTracker;
         this.pendingCacheLoads = Collections.synchronizedSet(new HashSet<>());
 
         this.cache = CacheBuilder.newBuilder()
@@ -146,7 +150,7 @@ public class SegmentStatsRecorderImpl implements SegmentStatsRecorder {
     }
 
     /**
-     * Updates segment specific aggregates.
+     * Updates segment specific aggregates (and the hot segment tracker, if any).
      * Then if two minutes have elapsed between last report
      * of aggregates for this segment, send a new update to the monitor.
      * This update to the monitor is processed by monitor asynchronously.
@@ -158,6 +162,10 @@ public class SegmentStatsRecorderImpl implements SegmentStatsRecorder {
     @Override
     public void record(String streamSegmentName, long dataLength, int numOfEvents) {
         try {
+            if (hotSegmentTracker != null) {
+                hotSegmentTracker.recordWrite(streamSegmentName, dataLength);
+            }
+
             SegmentAggregates aggregates = getSegmentAggregate(streamSegmentName);
             // Note: we could get stats for a transaction segment. We will simply ignore this as we
             // do not maintain intermittent txn segment stats. Txn stats will be accounted for
@@ -175,6 +183,19 @@ public class SegmentStatsRecorderImpl implements SegmentStatsRecorder {
         }
     }
 
+    /**
+     * Updates the hot segment tracker, if any. Reads do not count towards auto-scaling.
+     *
+     * @param streamSegmentName stream segment name
+     * @param dataLength        length of data that was read
+     */
+    @Override
+    public void read(String streamSegmentName, long dataLength) {
+        if (hotSegmentTracker != null) {
+            hotSegmentTracker.recordRead(streamSegmentName, dataLength);
+        }
+    }
+
     /**
      * Method called with txn stats whenever a txn is committed.
      *
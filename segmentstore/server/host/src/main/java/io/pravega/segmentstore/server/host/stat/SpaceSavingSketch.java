@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.stat;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+
+/**
+ * Approximately tracks the keys with the largest total weight in a stream of (key, weight) pairs, using a bounded amount
+ * of memory (the Space-Saving algorithm).
+ *
+ * At most {@link #getCapacity()} keys are tracked at any time. When a new key arrives and the sketch is full, the key with
+ * the smallest total is evicted and the new key inherits that total; the inherited amount is the maximum by which the
+ * new key's total may be overestimated. Any key whose true total is greater than (total weight / capacity) is guaranteed
+ * to be tracked.
+ *
+ * Updates do not take any locks, so they may be made from any thread on the hot path. Adding weight to a key that is
+ * already tracked is a single LongAdder increment. Only a key that is not yet tracked, arriving at a full sketch, causes a
+ * scan for the smallest total. Concurrent evictions may briefly leave the sketch slightly over capacity, and racing
+ * updates may make the totals slightly less precise than the sequential algorithm would; neither matters for the purpose
+ * of finding the heaviest keys.
+ */
+@ThreadSafe
+class SpaceSavingSketch {
+    //region Members
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Counter> counters;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SpaceSavingSketch class.
+     *
+     * @param capacity The maximum number of keys to track.
+     */
+    SpaceSavingSketch(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be a positive integer");
+        this.capacity = capacity;
+        this.counters = new ConcurrentHashMap<>(capacity);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets the maximum number of keys this sketch tracks.
+     *
+     * @return The capacity.
+     */
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Adds the given weight to the given key's total.
+     *
+     * @param key    The key.
+     * @param weight The weight to add.
+     */
+    void add(String key, long weight) {
+        Counter counter = this.counters.get(key);
+        if (counter == null) {
+            counter = insert(key);
+        }
+
+        counter.total.add(weight);
+    }
+
+    /**
+     * Gets the keys with the largest totals.
+     *
+     * @param count The maximum number of keys to return.
+     * @return A List of Items, in descending order of their totals.
+     */
+    List<Item> getTop(int count) {
+        ArrayList<Item> result = new ArrayList<>(this.counters.size());
+        this.counters.forEach((key, counter) -> result.add(new Item(key, counter.total.sum(), counter.error)));
+        result.sort(Comparator.comparingLong(Item::getTotal).reversed());
+        return result.size() <= count ? result : new ArrayList<>(result.subList(0, count));
+    }
+
+    private Counter insert(String key) {
+        long error = 0;
+        while (this.counters.size() >= this.capacity) {
+            Map.Entry<String, Counter> min = null;
+            long minTotal = Long.MAX_VALUE;
+            for (Map.Entry<String, Counter> e : this.counters.entrySet()) {
+                long total = e.getValue().total.sum();
+                if (total < minTotal) {
+                    min = e;
+                    minTotal = total;
+                }
+            }
+
+            // Only one of any concurrent evictors will remove this entry; the others will look for a new minimum.
+            if (min != null && this.counters.remove(min.getKey(), min.getValue())) {
+                error = minTotal;
+                break;
+            }
+        }
+
+        Counter newCounter = new Counter(error);
+        Counter existing = this.counters.putIfAbsent(key, newCounter);
+        return existing == null ? newCounter : existing;
+    }
+
+    //endregion
+
+    //region Item
+
+    /**
+     * A key tracked by the sketch, along with its (approximate) total.
+     */
+    @Data
+    static class Item {
+        private final String key;
+
+        /**
+         * The total weight of the key. Barring races with concurrent evictions, this is never less than its true total.
+         */
+        private final long total;
+
+        /**
+         * The maximum amount by which the total may be overestimated.
+         */
+        private final long error;
+    }
+
+    //endregion
+
+    //region Counter
+
+    private static class Counter {
+        private final LongAdder total = new LongAdder();
+        private final long error;
+
+        Counter(long error) {
+            this.error = error;
+            this.total.add(error);
+        }
+    }
+
+    //endregion
+}
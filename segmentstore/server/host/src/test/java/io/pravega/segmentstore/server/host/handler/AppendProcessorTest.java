@@ -18,8 +18,10 @@ import io.pravega.segmentstore.contracts.AttributeUpdateType;
 import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
+import io.pravega.segmentstore.server.TransportPolicy;
 import io.pravega.shared.protocol.netty.Append;
 import io.pravega.shared.protocol.netty.FailingRequestProcessor;
+import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
@@ -37,6 +39,8 @@ import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import static io.pravega.segmentstore.contracts.Attributes.EVENT_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -45,6 +49,7 @@ import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -472,6 +477,158 @@ public class AppendProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test
+    public void testPauseAndResumeReading() {
+        String streamSegmentName = "testPauseAndResumeReading";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        byte[] combined = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9, 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        TransportPolicy policy = TransportPolicy.builder().maxOutstandingBytes(10).resumeOutstandingBytes(5).build();
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, null, policy);
+
+        setupGetAttributes(streamSegmentName, clientId, store);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        when(store.append(streamSegmentName, data, updateEventNumber(clientId, 8), AppendProcessor.TIMEOUT))
+                .thenReturn(result);
+        when(store.append(streamSegmentName, combined, updateEventNumber(clientId, 24, 8, 2), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        processor.append(new Append(streamSegmentName, clientId, 8, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(streamSegmentName, clientId, 16, Unpooled.wrappedBuffer(data), null));
+        verify(connection, never()).pauseReading();
+
+        // The first append is still outstanding, so the next two are queued up and exceed the configured maximum.
+        processor.append(new Append(streamSegmentName, clientId, 24, Unpooled.wrappedBuffer(data), null));
+        verify(connection).pauseReading();
+        assertEquals(2 * data.length, processor.getOutstandingBytes());
+
+        result.complete(null);
+        verify(store).append(streamSegmentName, combined, updateEventNumber(clientId, 24, 8, 2), AppendProcessor.TIMEOUT);
+        verify(connection).resumeReading();
+        verify(connection).send(new DataAppended(clientId, 24, 8L));
+        assertEquals(0, processor.getOutstandingBytes());
+        assertTrue(processor.getTotalPausedTime().toNanos() >= 0);
+    }
+
+    @Test
+    public void testConcurrentAppendsFromDifferentWriters() {
+        String segment1 = "testConcurrentAppendsSegment1";
+        String segment2 = "testConcurrentAppendsSegment2";
+        UUID writer1 = UUID.randomUUID();
+        UUID writer2 = UUID.randomUUID();
+        UUID writer3 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null);
+
+        setupGetAttributes(segment1, writer1, store);
+        setupGetAttributes(segment2, writer2, store);
+        setupGetAttributes(segment1, writer3, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        CompletableFuture<Void> result2 = new CompletableFuture<>();
+        when(store.append(segment1, data, updateEventNumber(writer1, 1), AppendProcessor.TIMEOUT)).thenReturn(result1);
+        when(store.append(segment2, data, updateEventNumber(writer2, 1), AppendProcessor.TIMEOUT)).thenReturn(result2);
+        when(store.append(segment1, data, updateEventNumber(writer3, 1), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, writer1, segment1, ""));
+        processor.setupAppend(new SetupAppend(2, writer2, segment2, ""));
+        processor.setupAppend(new SetupAppend(3, writer3, segment1, ""));
+        processor.append(new Append(segment1, writer1, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment2, writer2, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment1, writer3, 1, Unpooled.wrappedBuffer(data), null));
+
+        // Different segments are written concurrently, but appends to the same segment still wait for each other.
+        verify(store).append(segment1, data, updateEventNumber(writer1, 1), AppendProcessor.TIMEOUT);
+        verify(store).append(segment2, data, updateEventNumber(writer2, 1), AppendProcessor.TIMEOUT);
+        verify(store, never()).append(segment1, data, updateEventNumber(writer3, 1), AppendProcessor.TIMEOUT);
+        assertEquals(2 * data.length, processor.getInFlightBytes());
+
+        result1.complete(null);
+        verify(store).append(segment1, data, updateEventNumber(writer3, 1), AppendProcessor.TIMEOUT);
+        verify(connection).send(new DataAppended(writer1, 1, 0L));
+        verify(connection).send(new DataAppended(writer3, 1, 0L));
+        verify(connection, never()).send(new DataAppended(writer2, 1, 0L));
+
+        result2.complete(null);
+        verify(connection).send(new DataAppended(writer2, 1, 0L));
+        assertEquals(0, processor.getInFlightBytes());
+    }
+
+    @Test
+    public void testInFlightBytesLimit() {
+        String segment1 = "testInFlightBytesLimitSegment1";
+        String segment2 = "testInFlightBytesLimitSegment2";
+        UUID writer1 = UUID.randomUUID();
+        UUID writer2 = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        TransportPolicy policy = TransportPolicy.builder().maxInFlightBytes(data.length).build();
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, null, policy);
+
+        setupGetAttributes(segment1, writer1, store);
+        setupGetAttributes(segment2, writer2, store);
+        CompletableFuture<Void> result1 = new CompletableFuture<>();
+        when(store.append(segment1, data, updateEventNumber(writer1, 1), AppendProcessor.TIMEOUT)).thenReturn(result1);
+        when(store.append(segment2, data, updateEventNumber(writer2, 1), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, writer1, segment1, ""));
+        processor.setupAppend(new SetupAppend(2, writer2, segment2, ""));
+        processor.append(new Append(segment1, writer1, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(segment2, writer2, 1, Unpooled.wrappedBuffer(data), null));
+
+        // The first append uses up the whole budget, so the second one has to wait for it.
+        verify(store, never()).append(segment2, data, updateEventNumber(writer2, 1), AppendProcessor.TIMEOUT);
+        result1.complete(null);
+        verify(store).append(segment2, data, updateEventNumber(writer2, 1), AppendProcessor.TIMEOUT);
+        verify(connection).send(new DataAppended(writer2, 1, 0L));
+    }
+
+    @Test
+    public void testWriterCredit() {
+        String streamSegmentName = "testWriterCredit";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        TransportPolicy policy = TransportPolicy.builder().writerCreditBytes(1000).build();
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, null, policy);
+
+        setupGetAttributes(streamSegmentName, clientId, store);
+        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+        verify(connection).send(new AppendSetup(1, streamSegmentName, clientId, 0, 1000));
+        verify(connection).send(new DataAppended(clientId, data.length, 0L, 1000));
+    }
+
+    @Test
+    public void testThrottlingHint() {
+        String streamSegmentName = "testThrottlingHint";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, null,
+                TransportPolicy.DEFAULT, segment -> segment.equals(streamSegmentName) ? 123 : 0);
+
+        setupGetAttributes(streamSegmentName, clientId, store);
+        when(store.append(streamSegmentName, data, updateEventNumber(clientId, data.length), AppendProcessor.TIMEOUT))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        processor.append(new Append(streamSegmentName, clientId, data.length, Unpooled.wrappedBuffer(data), null));
+        verify(connection).send(new DataAppended(clientId, data.length, 0L, WireCommands.UNLIMITED_CREDIT, 123));
+    }
+
     private Collection<AttributeUpdate> updateEventNumber(UUID clientId, long eventNum) {
         return updateEventNumber(clientId, eventNum, 0, 1);
     }
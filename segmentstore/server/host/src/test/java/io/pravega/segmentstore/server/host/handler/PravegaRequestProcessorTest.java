@@ -45,8 +45,12 @@ import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -425,6 +429,52 @@ public class PravegaRequestProcessorTest {
         order.verify(connection).send(new WireCommands.SegmentAttribute(9, WireCommands.NULL_ATTRIBUTE_VALUE));
     }
 
+    @Test(timeout = 20000)
+    public void testSegmentAttributes() throws Exception {
+        String streamSegmentName = "testSegmentAttributes";
+        UUID minId = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+        UUID maxId = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = serviceBuilder.createStreamSegmentService();
+        ServerConnection connection = mock(ServerConnection.class);
+        InOrder order = inOrder(connection);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        processor.createSegment(new WireCommands.CreateSegment(1, streamSegmentName, WireCommands.CreateSegment.NO_SCALE, 0, ""));
+        order.verify(connection).send(new WireCommands.SegmentCreated(1, streamSegmentName));
+
+        Map<UUID, Long> expected = new TreeMap<>();
+        for (int i = 0; i < 3; i++) {
+            UUID attributeId = new UUID(0, i);
+            processor.updateSegmentAttribute(new WireCommands.UpdateSegmentAttribute(2, streamSegmentName, attributeId, i, WireCommands.NULL_ATTRIBUTE_VALUE, ""));
+            order.verify(connection).send(new WireCommands.SegmentAttributeUpdated(2, true));
+            expected.put(attributeId, (long) i);
+        }
+
+        // Page through the attributes, two at a time.
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(3, streamSegmentName, minId, maxId, 2, ""));
+        Map<UUID, Long> firstPage = new TreeMap<>(expected);
+        firstPage.remove(new UUID(0, 2));
+        order.verify(connection).send(new WireCommands.SegmentAttributes(3, streamSegmentName, firstPage));
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(4, streamSegmentName, new UUID(0, 2), maxId, 2, ""));
+        order.verify(connection).send(new WireCommands.SegmentAttributes(4, streamSegmentName, Collections.singletonMap(new UUID(0, 2), 2L)));
+
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(5, streamSegmentName, minId, maxId, 10, ""));
+        order.verify(connection).send(new WireCommands.SegmentAttributes(5, streamSegmentName, expected));
+
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(6, "inexistent", minId, maxId, 10, ""));
+        order.verify(connection).send(new WireCommands.NoSuchSegment(6, "inexistent"));
+
+        // Requests for more attributes than may be returned at once are rejected, rather than silently truncated.
+        int maxCount = WireCommands.GetSegmentAttributes.MAX_COUNT;
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(7, streamSegmentName, minId, maxId, maxCount, ""));
+        order.verify(connection).send(new WireCommands.SegmentAttributes(7, streamSegmentName, expected));
+        processor.getSegmentAttributes(new WireCommands.GetSegmentAttributes(8, streamSegmentName, minId, maxId, maxCount + 1, ""));
+        order.verify(connection).send(any(WireCommands.OperationUnsupported.class));
+    }
+
     @Test(timeout = 20000)
     public void testCreateSealTruncateDelete() throws Exception {
         // Set up PravegaRequestProcessor instance to execute requests against.
@@ -477,6 +527,53 @@ public class PravegaRequestProcessorTest {
         order.verifyNoMoreInteractions();
     }
 
+    @Test(timeout = 20000)
+    public void testBatchCreateSealDelete() throws Exception {
+        // Set up PravegaRequestProcessor instance to execute requests against.
+        List<String> segments = Arrays.asList("testBatchSegment1", "testBatchSegment2", "testBatchSegment3");
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = serviceBuilder.createStreamSegmentService();
+        ServerConnection connection = mock(ServerConnection.class);
+        InOrder order = inOrder(connection);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection);
+
+        // Pre-create one of the segments; the batch should still succeed.
+        processor.createSegment(new WireCommands.CreateSegment(1, segments.get(0), WireCommands.CreateSegment.NO_SCALE, 0, ""));
+        processor.createSegments(new WireCommands.CreateSegments(2, segments, WireCommands.CreateSegment.NO_SCALE, 0, ""));
+        for (String segment : segments) {
+            assertTrue(append(segment, 1, store));
+        }
+
+        processor.updateSegmentsPolicy(new WireCommands.UpdateSegmentsPolicy(3, segments, WireCommands.CreateSegment.IN_EVENTS_PER_SEC, 10, ""));
+
+        // Pre-seal one of the segments; the batch should still succeed.
+        processor.sealSegment(new WireCommands.SealSegment(4, segments.get(1), ""));
+        processor.sealSegments(new WireCommands.SealSegments(5, segments, ""));
+        for (String segment : segments) {
+            assertFalse(append(segment, 2, store));
+        }
+
+        // Pre-delete one of the segments; the batch should still succeed.
+        processor.deleteSegment(new WireCommands.DeleteSegment(6, segments.get(2), ""));
+        processor.deleteSegments(new WireCommands.DeleteSegments(7, segments, ""));
+
+        // Updating the policy of segments that do not exist is not benign.
+        processor.updateSegmentsPolicy(new WireCommands.UpdateSegmentsPolicy(8, segments.subList(0, 1),
+                WireCommands.CreateSegment.NO_SCALE, 0, ""));
+
+        order.verify(connection).send(new WireCommands.SegmentCreated(1, segments.get(0)));
+        order.verify(connection).send(new WireCommands.SegmentsBatchProcessed(2, segments.size()));
+        order.verify(connection).send(new WireCommands.SegmentsBatchProcessed(3, segments.size()));
+        order.verify(connection).send(new WireCommands.SegmentSealed(4, segments.get(1)));
+        order.verify(connection).send(new WireCommands.SegmentsBatchProcessed(5, segments.size()));
+        order.verify(connection).send(new WireCommands.SegmentDeleted(6, segments.get(2)));
+        order.verify(connection).send(new WireCommands.SegmentsBatchProcessed(7, segments.size()));
+        order.verify(connection).send(new WireCommands.NoSuchSegment(8, segments.get(0)));
+        order.verifyNoMoreInteractions();
+    }
+
     @Test(timeout = 20000)
     public void testUnsupportedOperation() throws Exception {
         // Set up PravegaRequestProcessor instance to execute requests against
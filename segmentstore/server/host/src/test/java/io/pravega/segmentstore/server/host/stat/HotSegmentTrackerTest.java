@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.stat;
+
+import io.pravega.test.common.AssertExtensions;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HotSegmentTrackerTest {
+
+    @Test
+    public void testSketchFindsHeaviestKeys() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("heavy", 10);
+            sketch.add("medium", 5);
+            sketch.add("light-" + i, 1);
+        }
+
+        List<SpaceSavingSketch.Item> top = sketch.getTop(2);
+        assertEquals(2, top.size());
+        assertEquals("heavy", top.get(0).getKey());
+        assertEquals("medium", top.get(1).getKey());
+        for (SpaceSavingSketch.Item item : top) {
+            long trueTotal = item.getKey().equals("heavy") ? 10000 : 5000;
+            assertTrue("Total was underestimated.", item.getTotal() >= trueTotal);
+            assertTrue("Total was overestimated by more than its error.", item.getTotal() - item.getError() <= trueTotal);
+        }
+
+        // Light keys keep replacing each other, so the sketch never grows beyond its capacity.
+        assertEquals(sketch.getCapacity(), sketch.getTop(Integer.MAX_VALUE).size());
+    }
+
+    @Test(timeout = 10000)
+    public void testSketchConcurrentUpdates() throws Exception {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        sketch.add("segment-" + (i % 4), 1);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Everything fits in the sketch, so no update may be lost.
+        List<SpaceSavingSketch.Item> top = sketch.getTop(4);
+        assertEquals(4, top.size());
+        for (SpaceSavingSketch.Item item : top) {
+            assertEquals(threadCount * 2500, item.getTotal());
+            assertEquals(0, item.getError());
+        }
+    }
+
+    @Test
+    public void testRollover() {
+        AtomicLong time = new AtomicLong();
+        HotSegmentTracker tracker = new HotSegmentTracker(name -> name.startsWith("a") ? 0 : 1, 2, 1, time::get);
+        tracker.recordWrite("a/s/1", 4000);
+        tracker.recordWrite("a/s/2", 1000);
+        tracker.recordRead("a/s/2", 8000);
+        tracker.recordWrite("b/s/1", 2000);
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        List<HotSegment> expected = Arrays.asList(
+                new HotSegment(0, HotSegment.Type.WRITE, 1, "a/s/1", 2000, 0),
+                new HotSegment(0, HotSegment.Type.READ, 1, "a/s/2", 4000, 0),
+                new HotSegment(1, HotSegment.Type.WRITE, 1, "b/s/1", 1000, 0));
+        assertEquals(expected, tracker.rollover());
+
+        // Each interval is measured on its own.
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, tracker.rollover().size());
+        tracker.recordRead("b/s/1", 100);
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Arrays.asList(new HotSegment(1, HotSegment.Type.READ, 1, "b/s/1", 100, 0)), tracker.rollover());
+    }
+
+    @Test
+    public void testSerialization() {
+        List<HotSegment> hotSegments = Arrays.asList(
+                new HotSegment(0, HotSegment.Type.WRITE, 1, "scope/stream/0", 2000, 10),
+                new HotSegment(3, HotSegment.Type.READ, 2, "scope/stream with spaces/1", 100, 0));
+        assertEquals(hotSegments, HotSegment.deserialize(HotSegment.serialize(hotSegments)));
+        assertEquals(0, HotSegment.deserialize(HotSegment.serialize(new ArrayList<>())).size());
+
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> HotSegment.deserialize("0 WRITE 1 2000".getBytes(StandardCharsets.UTF_8)));
+        AssertExtensions.assertThrows(IllegalArgumentException.class,
+                () -> HotSegment.deserialize("0 WRONG 1 2000 0 scope/stream/0".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -51,6 +51,18 @@ public interface AttributeIndex extends AsyncMap<UUID, Long> {
      */
     CompletableFuture<Void> remove(Collection<UUID> keys, Duration timeout);
 
+    /**
+     * Creates an iterator over all the Attributes in this index whose Ids lie in the given range. The iterator reflects
+     * the state of the index at the time each batch is fetched, so it may or may not include the effects of updates that
+     * are concurrent with the iteration.
+     *
+     * @param fromId       The first Attribute Id in the range (inclusive).
+     * @param toId         The last Attribute Id in the range (inclusive).
+     * @param fetchTimeout Timeout for every batch fetch.
+     * @return A new AttributeIterator.
+     */
+    AttributeIterator iterator(UUID fromId, UUID toId, Duration fetchTimeout);
+
     /**
      * Compacts the Attribute Index into a final Snapshot and seals it, which means it will not accept any further changes.
      * This operation is idempotent, which means it will have no effect on an already sealed index.
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterates over a range of Extended Attributes of a Segment, in ascending order of their Ids, fetching them in batches.
+ */
+public interface AttributeIterator {
+    /**
+     * Gets the next batch of Attributes.
+     *
+     * @return A CompletableFuture that, when completed, will contain the next (non-empty) batch of Attributes, sorted by
+     * their Ids, or null if there are no more Attributes in the range. If the operation failed, the future will be failed
+     * with the causing exception.
+     */
+    CompletableFuture<List<Map.Entry<UUID, Long>>> getNext();
+}
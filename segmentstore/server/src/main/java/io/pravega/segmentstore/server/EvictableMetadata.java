@@ -44,7 +44,9 @@ public interface EvictableMetadata extends ContainerMetadata {
      *                              in memory.
      * @param sequenceNumberCutoff  The Operation Sequence number before which it is safe to remove an Extended Attribute.
      *                              Any Extended Attribute that has been used after this cutoff will not be removed.
+     * @param retainUpdatedSince    The wall-clock time (in millis) at or after which updated Extended Attributes will not
+     *                              be removed (so that they may be expired later), or Long.MAX_VALUE to disregard update times.
      * @return The number of Extended Attributes removed.
      */
-    int cleanupExtendedAttributes(int maximumAttributeCount, long sequenceNumberCutoff);
+    int cleanupExtendedAttributes(int maximumAttributeCount, long sequenceNumberCutoff, long retainUpdatedSince);
 }
@@ -66,5 +66,15 @@ public interface OperationLog extends Container {
      * while attempting to start (including it shutting down), this Future will be completed with the appropriate exception.
      */
     CompletableFuture<Void> awaitOnline();
+
+    /**
+     * Gets the delay (in milliseconds) that was most recently applied to incoming Operations because of throttling. This
+     * does not include any delay introduced purely to batch Operations together.
+     *
+     * @return The current throttling delay, or 0 if Operations are not being throttled.
+     */
+    default int getThrottlingDelayMillis() {
+        return 0;
+    }
 }
 
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server;
+
+import com.google.common.base.Preconditions;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Represents a Policy for the network transport used by the Segment Store to accept connections from Clients.
+ */
+@Getter
+@Builder
+public class TransportPolicy {
+    //region Members
+
+    /**
+     * The default policy: the native (epoll) transport is used if available, with Netty's default allocator and socket
+     * buffer sizes and with reading from a connection paused while it has more than 128KB of appends outstanding.
+     */
+    public static final TransportPolicy DEFAULT = builder().build();
+
+    /**
+     * Whether to use the native (epoll) transport, if available on this platform. If false (or unavailable), NIO is used.
+     */
+    private final boolean nativeTransport;
+
+    /**
+     * Whether to explicitly use a pooled allocator that prefers direct buffers. If false, Netty's default allocator is used.
+     */
+    private final boolean pooledDirectBuffers;
+
+    /**
+     * The size (in bytes) of the socket receive buffer (SO_RCVBUF) of each connection, or 0 to use the OS default.
+     */
+    private final int socketReceiveBufferSize;
+
+    /**
+     * The size (in bytes) of the socket send buffer (SO_SNDBUF) of each connection, or 0 to use the OS default.
+     */
+    private final int socketSendBufferSize;
+
+    /**
+     * The number of bytes queued for writing on a connection above which it is marked as not writable.
+     */
+    private final int writeBufferHighWaterMark;
+
+    /**
+     * The number of bytes queued for writing on a connection below which it is marked as writable again.
+     */
+    private final int writeBufferLowWaterMark;
+
+    /**
+     * The number of bytes of appends received on a connection but not yet written to the Store above which the Segment
+     * Store stops reading from that connection.
+     */
+    private final int maxOutstandingBytes;
+
+    /**
+     * The number of bytes of appends received on a connection but not yet written to the Store below which the Segment
+     * Store resumes reading from a connection that had been paused.
+     */
+    private final int resumeOutstandingBytes;
+
+    /**
+     * The number of bytes of appends from a single connection that may be written to the Store concurrently (across
+     * different segments) before no further appends from that connection are started. A single append is always allowed,
+     * regardless of its size.
+     */
+    private final int maxInFlightBytes;
+
+    /**
+     * The number of bytes of appends that each writer is allowed to have outstanding (sent but not yet acknowledged) at
+     * any time, or 0 to not limit writers individually. This credit is advertised to clients (that support it) so that
+     * writers whose appends are slow to complete (for example because their Segment Container is throttling) slow down,
+     * without affecting other writers that share the same connection.
+     */
+    private final int writerCreditBytes;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the TransportPolicy class.
+     *
+     * @param nativeTransport          Whether to use the native transport, if available.
+     * @param pooledDirectBuffers      Whether to use a pooled allocator that prefers direct buffers.
+     * @param socketReceiveBufferSize  SO_RCVBUF, or 0 for the OS default.
+     * @param socketSendBufferSize     SO_SNDBUF, or 0 for the OS default.
+     * @param writeBufferHighWaterMark The write buffer high water mark.
+     * @param writeBufferLowWaterMark  The write buffer low water mark.
+     * @param maxOutstandingBytes      The number of outstanding bytes above which reading is paused.
+     * @param resumeOutstandingBytes   The number of outstanding bytes below which reading is resumed.
+     * @param maxInFlightBytes         The number of bytes that may be written to the Store concurrently.
+     * @param writerCreditBytes        The number of bytes each writer may have outstanding, or 0 for no limit.
+     */
+    private TransportPolicy(boolean nativeTransport, boolean pooledDirectBuffers, int socketReceiveBufferSize,
+                            int socketSendBufferSize, int writeBufferHighWaterMark, int writeBufferLowWaterMark,
+                            int maxOutstandingBytes, int resumeOutstandingBytes, int maxInFlightBytes,
+                            int writerCreditBytes) {
+        Preconditions.checkArgument(socketReceiveBufferSize >= 0, "socketReceiveBufferSize must be a non-negative integer");
+        Preconditions.checkArgument(socketSendBufferSize >= 0, "socketSendBufferSize must be a non-negative integer");
+        Preconditions.checkArgument(writeBufferLowWaterMark > 0 && writeBufferLowWaterMark <= writeBufferHighWaterMark,
+                "writeBufferLowWaterMark must be a positive integer no greater than writeBufferHighWaterMark");
+        Preconditions.checkArgument(resumeOutstandingBytes > 0 && resumeOutstandingBytes <= maxOutstandingBytes,
+                "resumeOutstandingBytes must be a positive integer no greater than maxOutstandingBytes");
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be a positive integer");
+        Preconditions.checkArgument(writerCreditBytes >= 0, "writerCreditBytes must be a non-negative integer");
+        this.nativeTransport = nativeTransport;
+        this.pooledDirectBuffers = pooledDirectBuffers;
+        this.socketReceiveBufferSize = socketReceiveBufferSize;
+        this.socketSendBufferSize = socketSendBufferSize;
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        this.maxOutstandingBytes = maxOutstandingBytes;
+        this.resumeOutstandingBytes = resumeOutstandingBytes;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.writerCreditBytes = writerCreditBytes;
+    }
+
+    //endregion
+
+    @Override
+    public String toString() {
+        return String.format("Native = %s, PooledDirect = %s, RcvBuf = %d, SndBuf = %d, WriteWaterMarks = [%d, %d], " +
+                        "OutstandingBytes = [%d, %d], InFlightBytes = %d, WriterCredit = %d", this.nativeTransport, this.pooledDirectBuffers,
+                this.socketReceiveBufferSize, this.socketSendBufferSize, this.writeBufferLowWaterMark,
+                this.writeBufferHighWaterMark, this.resumeOutstandingBytes, this.maxOutstandingBytes, this.maxInFlightBytes,
+                this.writerCreditBytes);
+    }
+
+    public static class TransportPolicyBuilder {
+        private boolean nativeTransport = true;
+        private boolean pooledDirectBuffers = false;
+        private int socketReceiveBufferSize = 0;
+        private int socketSendBufferSize = 0;
+        private int writeBufferHighWaterMark = 64 * 1024;
+        private int writeBufferLowWaterMark = 32 * 1024;
+        private int maxOutstandingBytes = 128 * 1024;
+        private int resumeOutstandingBytes = 64 * 1024;
+        private int maxInFlightBytes = 1024 * 1024;
+        private int writerCreditBytes = 0;
+    }
+}
@@ -27,6 +27,9 @@ public class AttributeIndexConfig {
     public static final Property<Integer> READ_BLOCK_SIZE = Property.named("readBlockSize", 1024 * 1024);
     private static final int AUTO_VALUE = -1; // This implies the value will be auto-calculated.
     public static final Property<Integer> ATTRIBUTE_SEGMENT_ROLLING_SIZE = Property.named("attributeSegmentRollingSizeBytes", AUTO_VALUE);
+    public static final Property<Boolean> BTREE_INDEX_ENABLED = Property.named("btreeIndexEnabled", false);
+    public static final Property<Integer> BTREE_MAX_PAGE_SIZE = Property.named("btreeMaxPageSizeBytes", 8 * 1024);
+    private static final int MIN_BTREE_PAGE_SIZE = BTreePage.getLength(true, 4);
     private static final String COMPONENT_CODE = "attributeindex";
     private static final int ESTIMATED_ATTRIBUTE_SERIALIZATION_SIZE = RevisionDataOutput.UUID_BYTES + Long.BYTES;
 
@@ -51,6 +54,17 @@ public class AttributeIndexConfig {
      */
     @Getter
     private final SegmentRollingPolicy attributeSegmentRollingPolicy;
+    /**
+     * Whether new Attribute Segments should be organized as a B+Tree (with copy-on-write pages) instead of a sequence of
+     * Snapshots and updates. Existing Attribute Segments keep being accessed using the format they were created with.
+     */
+    @Getter
+    private final boolean btreeIndexEnabled;
+    /**
+     * The maximum size (in bytes) of a B+Tree page.
+     */
+    @Getter
+    private final int btreeMaxPageSize;
 
     //endregion
 
@@ -75,6 +89,12 @@ public class AttributeIndexConfig {
         }
 
         this.attributeSegmentRollingPolicy = createRollingPolicy(this.snapshotTriggerSize, this.readBlockSize, properties);
+        this.btreeIndexEnabled = properties.getBoolean(BTREE_INDEX_ENABLED);
+        this.btreeMaxPageSize = properties.getInt(BTREE_MAX_PAGE_SIZE);
+        if (this.btreeMaxPageSize < MIN_BTREE_PAGE_SIZE) {
+            throw new ConfigurationException(String.format("Property '%s' must be at least %d; found '%d'.",
+                    BTREE_MAX_PAGE_SIZE, MIN_BTREE_PAGE_SIZE, this.btreeMaxPageSize));
+        }
     }
 
     private SegmentRollingPolicy createRollingPolicy(int snapshotTriggerSize, int readBlockSize, TypedProperties properties) {
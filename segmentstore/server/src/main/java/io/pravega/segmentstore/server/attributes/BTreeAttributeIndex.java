@@ -0,0 +1,1304 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.attributes;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.TimeoutTimer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.hash.HashHelper;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.Retry;
+import io.pravega.segmentstore.contracts.Attributes;
+import io.pravega.segmentstore.contracts.BadOffsetException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.contracts.StreamSegmentTruncatedException;
+import io.pravega.segmentstore.server.AttributeIterator;
+import io.pravega.segmentstore.server.CacheManager;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.storage.Cache;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.GuardedBy;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Attribute Index for a single Segment, organized as a B+Tree stored in the Attribute Segment.
+ * <p>
+ * Pages (see BTreePage) are never modified in place. Every update rewrites the pages on the paths from the root to the
+ * affected leaves and appends them to the Attribute Segment (children before parents), followed by a Footer pointing to
+ * the new root. Upon recovery, the root is located by reading the Footer at the end of the Attribute Segment. Since the
+ * location of the root is stored in the Attribute Segment itself, updates can proceed even after the main Segment has
+ * been sealed. Footers are checksummed; if the last one is incomplete or invalid (i.e., an append was only partially
+ * written), the Attribute Segment is scanned backwards for the last valid Footer, whose B+Tree is still intact.
+ * <p>
+ * Pages that are no longer reachable from the root are garbage. Every Index Entry records the smallest offset of any
+ * page in its subtree, which allows the Attribute Segment to be truncated up to the oldest live page. Once enough garbage
+ * accumulates, every update also relocates a few of the oldest live pages so that this offset keeps advancing.
+ * <p>
+ * Pages are cached individually in the Cache, keyed by their offset.
+ */
+@Slf4j
+class BTreeAttributeIndex implements ManagedAttributeIndex {
+    //region Members
+
+    /**
+     * The Footer is made of the Root Page Offset (8 bytes), the Root Page Length (4 bytes), the CRC32 of the previous two
+     * fields (4 bytes) and FOOTER_MAGIC (8 bytes).
+     */
+    @VisibleForTesting
+    static final int FOOTER_LENGTH = Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * For Attribute Segment Appends, we want to write conditionally based on the offset, and retry the operation if
+     * it failed for that reason.
+     */
+    private static final Retry.RetryAndThrowBase<Exception> APPEND_RETRY = Retry
+            .withExpBackoff(10, 2, 10, 1000)
+            .retryingOn(BadOffsetException.class)
+            .throwingOn(Exception.class);
+
+    /**
+     * Lookups may execute concurrently with updates, which may truncate the pages they are about to read. Such lookups
+     * need to be retried using the new root.
+     */
+    private static final Retry.RetryAndThrowBase<Exception> READ_RETRY = Retry
+            .withExpBackoff(10, 2, 10, 1000)
+            .retryingOn(StreamSegmentTruncatedException.class)
+            .throwingOn(Exception.class);
+
+    private static final long FOOTER_MAGIC = 0x4254524545494458L;
+    private static final int FOOTER_CHECKSUM_OFFSET = Long.BYTES + Integer.BYTES;
+    private static final int FOOTER_MAGIC_OFFSET = FOOTER_CHECKSUM_OFFSET + Integer.BYTES;
+
+    /**
+     * The number of bytes to read at once when scanning the Attribute Segment backwards for a valid Footer.
+     */
+    private static final int FOOTER_SCAN_READ_LENGTH = 64 * 1024;
+
+    /**
+     * The maximum number of pages to relocate as part of a single update, in order to make room for truncation.
+     */
+    private static final int MAX_RELOCATED_PAGES_PER_UPDATE = 16;
+    private static final HashHelper HASH = HashHelper.seededWith(BTreeAttributeIndex.class.getName());
+
+    private final SegmentMetadata segmentMetadata;
+    private final Storage storage;
+    private final Cache cache;
+    private final AttributeIndexConfig config;
+    private final ScheduledExecutorService executor;
+    private final int maxLeafEntries;
+    private final int maxIndexEntries;
+    private final AtomicReference<SegmentHandle> handle;
+    private final AtomicLong length;
+    private final AtomicLong truncationOffset;
+    private final AtomicReference<BTreePage.Pointer> root;
+    @GuardedBy("cachedPages")
+    private final HashMap<Long, CachedPage> cachedPages;
+    @GuardedBy("cachedPages")
+    private int currentCacheGeneration;
+    @GuardedBy("this")
+    private CompletableFuture<Void> lastUpdate;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor & Initialization
+
+    /**
+     * Creates a new instance of the BTreeAttributeIndex class.
+     *
+     * @param segmentMetadata The SegmentMetadata of the Segment whose attributes we want to manage.
+     * @param storage         A Storage adapter which can be used to access the Attribute Segment.
+     * @param cache           The Cache to use.
+     * @param config          Attribute Index Configuration.
+     * @param executor        An Executor to run async tasks.
+     */
+    BTreeAttributeIndex(SegmentMetadata segmentMetadata, Storage storage, Cache cache, AttributeIndexConfig config,
+                        ScheduledExecutorService executor) {
+        this.segmentMetadata = Preconditions.checkNotNull(segmentMetadata, "segmentMetadata");
+        this.storage = Preconditions.checkNotNull(storage, "storage");
+        this.cache = Preconditions.checkNotNull(cache, "cache");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.maxLeafEntries = (config.getBtreeMaxPageSize() - BTreePage.HEADER_LENGTH) / BTreePage.LEAF_ENTRY_LENGTH;
+        this.maxIndexEntries = (config.getBtreeMaxPageSize() - BTreePage.HEADER_LENGTH) / BTreePage.INDEX_ENTRY_LENGTH;
+        this.handle = new AtomicReference<>();
+        this.length = new AtomicLong();
+        this.truncationOffset = new AtomicLong();
+        this.root = new AtomicReference<>();
+        this.cachedPages = new HashMap<>();
+        this.lastUpdate = CompletableFuture.completedFuture(null);
+        this.traceObjectId = String.format("BTreeAttributeIndex[%s]", this.segmentMetadata.getId());
+        this.closed = new AtomicBoolean();
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(Duration timeout) {
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        String attributeSegmentName = StreamSegmentNameUtils.getAttributeSegmentName(this.segmentMetadata.getName());
+        Preconditions.checkState(this.handle.get() == null, "BTreeAttributeIndex is already initialized.");
+        // Attempt to open the Attribute Segment and locate the root; if it does not exist yet then create it.
+        return Futures
+                .exceptionallyComposeExpecting(
+                        this.storage.openWrite(attributeSegmentName)
+                                .thenComposeAsync(handle -> this.storage
+                                        .getStreamSegmentInfo(attributeSegmentName, timer.getRemaining())
+                                        .thenCompose(si -> {
+                                            this.length.set(si.getLength());
+                                            this.truncationOffset.set(si.getStartOffset());
+                                            this.handle.set(handle);
+                                            return loadRoot(timer);
+                                        }), this.executor),
+                        ex -> ex instanceof StreamSegmentNotExistsException,
+                        () -> this.storage.create(attributeSegmentName, this.config.getAttributeSegmentRollingPolicy(), timer.getRemaining())
+                                .thenComposeAsync(si -> this.storage.openWrite(attributeSegmentName)
+                                        .thenAccept(this.handle::set), this.executor))
+                .thenRun(() -> log.debug("{}: Initialized (Attribute Segment Length = {}, Root = {}).",
+                        this.traceObjectId, this.length.get(), this.root.get()));
+    }
+
+    /**
+     * Determines whether the Attribute Segment of the given Segment is organized as a B+Tree.
+     *
+     * @param segmentName  The name of the Segment whose Attribute Segment to inspect.
+     * @param defaultValue The value to return if the Attribute Segment does not exist or has no data in it (so it can be
+     *                     used with either format). Attribute Segments that do not end with a valid Footer are scanned
+     *                     backwards for one, so this may read the whole Attribute Segment if it is not a B+Tree.
+     * @param storage      A Storage adapter which can be used to access the Attribute Segment.
+     * @param executor     An Executor to run async tasks.
+     * @param timeout      Timeout for the operation.
+     * @return A CompletableFuture that, when completed, will indicate whether the Attribute Segment is a B+Tree.
+     */
+    static CompletableFuture<Boolean> isBTreeFormat(String segmentName, boolean defaultValue, Storage storage, Executor executor,
+                                                    Duration timeout) {
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        String attributeSegmentName = StreamSegmentNameUtils.getAttributeSegmentName(segmentName);
+        return Futures.exceptionallyExpecting(
+                storage.getStreamSegmentInfo(attributeSegmentName, timer.getRemaining())
+                       .thenComposeAsync(si -> {
+                           if (si.getLength() == 0) {
+                               return CompletableFuture.completedFuture(defaultValue);
+                           } else if (si.getLength() - si.getStartOffset() < FOOTER_LENGTH) {
+                               return CompletableFuture.completedFuture(false);
+                           } else {
+                               return storage.openRead(attributeSegmentName)
+                                             .thenCompose(h -> findFooter(storage, h, si.getStartOffset(), si.getLength(), executor, timer))
+                                             .thenApply(footer -> footer != null);
+                           }
+                       }, executor),
+                ex -> ex instanceof StreamSegmentNotExistsException,
+                defaultValue);
+    }
+
+    private CompletableFuture<Void> loadRoot(TimeoutTimer timer) {
+        if (this.length.get() == 0) {
+            // Nothing was ever written.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return findFooter(this.storage, this.handle.get(), this.truncationOffset.get(), this.length.get(), this.executor, timer)
+                .thenCompose(footer -> {
+                    if (footer == null) {
+                        return Futures.failedFuture(new DataCorruptionException(String.format(
+                                "Unable to locate a valid B+Tree footer in Attribute Segment '%s' (Length = %d, StartOffset = %d).",
+                                this.handle.get().getSegmentName(), this.length.get(), this.truncationOffset.get())));
+                    }
+
+                    long footerEndOffset = footer.offset + FOOTER_LENGTH;
+                    if (footerEndOffset < this.length.get()) {
+                        // An append was only partially written. Its pages are unreachable, so they are simply ignored.
+                        log.warn("{}: Ignoring {} byte(s) after the last valid footer (Offset = {}).",
+                                this.traceObjectId, this.length.get() - footerEndOffset, footer.offset);
+                    }
+
+                    // We need to read the root in order to know about its subtree; this also gets it into the Cache.
+                    return getPage(new BTreePage.Pointer(footer.rootOffset, footer.rootLength, footer.rootOffset, footer.rootLength), timer)
+                            .thenAccept(page -> this.root.set(page.toPointer(footer.rootOffset)));
+                });
+    }
+
+    /**
+     * Locates the last valid Footer in the given range of an Attribute Segment. This is normally the one at the end of
+     * the range, but if that is not valid (i.e., the last append was only partially written), the range is scanned
+     * backwards until a valid Footer is found.
+     *
+     * @param storage     A Storage adapter which can be used to access the Attribute Segment.
+     * @param handle      A SegmentHandle for the Attribute Segment.
+     * @param startOffset The offset where to stop scanning (the Start Offset of the Attribute Segment).
+     * @param endOffset   The offset where to start scanning (the Length of the Attribute Segment).
+     * @param executor    An Executor to run async tasks.
+     * @param timer       Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the last valid Footer, or null if there is none.
+     */
+    private static CompletableFuture<Footer> findFooter(Storage storage, SegmentHandle handle, long startOffset, long endOffset,
+                                                        Executor executor, TimeoutTimer timer) {
+        AtomicLong readEndOffset = new AtomicLong(endOffset);
+        AtomicReference<Footer> result = new AtomicReference<>();
+        return Futures.loop(
+                () -> result.get() == null && readEndOffset.get() - startOffset >= FOOTER_LENGTH,
+                () -> {
+                    // The first read only covers the Footer at the end. Consecutive reads overlap by FOOTER_LENGTH - 1
+                    // bytes so that every possible Footer location is checked exactly once.
+                    long readEnd = readEndOffset.get();
+                    long readStart = Math.max(startOffset, readEnd - (readEnd == endOffset ? FOOTER_LENGTH : FOOTER_SCAN_READ_LENGTH));
+                    return readFully(storage, handle, readStart, (int) (readEnd - readStart), executor, timer)
+                            .thenAccept(data -> {
+                                for (int pos = data.length - FOOTER_LENGTH; pos >= 0 && result.get() == null; pos--) {
+                                    result.set(Footer.parse(data, pos, readStart + pos, startOffset));
+                                }
+
+                                readEndOffset.set(readStart + FOOTER_LENGTH - 1);
+                            });
+                },
+                executor)
+                      .thenApply(v -> result.get());
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        // Quick close (no cache cleanup) this should be used only in case of container shutdown, when the cache will
+        // be erased anyway.
+        close(false);
+    }
+
+    @Override
+    public void close(boolean cleanCache) {
+        if (!this.closed.getAndSet(true)) {
+            if (cleanCache) {
+                this.executor.execute(() -> {
+                    removeAllCacheEntries();
+                    log.info("{}: Closed.", this.traceObjectId);
+                });
+            } else {
+                log.info("{}: Closed (no cache cleanup).", this.traceObjectId);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    @VisibleForTesting
+    void removeAllCacheEntries() {
+        List<Long> offsets;
+        synchronized (this.cachedPages) {
+            offsets = new ArrayList<>(this.cachedPages.keySet());
+            this.cachedPages.clear();
+        }
+
+        offsets.forEach(offset -> this.cache.remove(new PageKey(this.segmentMetadata.getId(), offset)));
+        log.info("{}: Cleared all cache entries ({}).", this.traceObjectId, offsets.size());
+    }
+
+    //endregion
+
+    //region CacheManager.Client implementation
+
+    @Override
+    public CacheManager.CacheStatus getCacheStatus() {
+        int minGen = Integer.MAX_VALUE;
+        int maxGen = 0;
+        long size = 0;
+        synchronized (this.cachedPages) {
+            for (CachedPage p : this.cachedPages.values()) {
+                minGen = Math.min(minGen, p.generation);
+                maxGen = Math.max(maxGen, p.generation);
+                size += p.size;
+            }
+        }
+
+        return new CacheManager.CacheStatus(size, Math.min(minGen, maxGen), maxGen);
+    }
+
+    @Override
+    public long updateGenerations(int currentGeneration, int oldestGeneration) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+
+        // Remove those pages that have a generation below the oldest permissible one.
+        long sizeRemoved = 0;
+        synchronized (this.cachedPages) {
+            this.currentCacheGeneration = currentGeneration;
+            Iterator<Map.Entry<Long, CachedPage>> iterator = this.cachedPages.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, CachedPage> e = iterator.next();
+                if (e.getValue().generation < oldestGeneration) {
+                    this.cache.remove(new PageKey(this.segmentMetadata.getId(), e.getKey()));
+                    sizeRemoved += e.getValue().size;
+                    iterator.remove();
+                }
+            }
+        }
+
+        return sizeRemoved;
+    }
+
+    //endregion
+
+    //region AttributeIndex implementation
+
+    @Override
+    public CompletableFuture<Void> put(UUID key, Long value, Duration timeout) {
+        return put(Collections.singletonMap(key, value), timeout);
+    }
+
+    @Override
+    public CompletableFuture<Void> put(Map<UUID, Long> values, Duration timeout) {
+        ensureInitialized();
+        Preconditions.checkNotNull(values, "values");
+        if (values.size() == 0) {
+            // Nothing to do.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<Map.Entry<UUID, Long>> updates = values.entrySet().stream()
+                                                    .sorted(Map.Entry.comparingByKey())
+                                                    .collect(Collectors.toList());
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        return queueUpdate(() -> applyUpdates(updates, timer));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Long>> get(Collection<UUID> keys, Duration timeout) {
+        ensureInitialized();
+        if (keys.size() == 0) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+
+        List<UUID> sortedKeys = keys.stream().distinct().sorted().collect(Collectors.toList());
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        return READ_RETRY.runAsync(() -> {
+            ensureMainSegmentExists();
+            BTreePage.Pointer currentRoot = this.root.get();
+            Map<UUID, Long> result = new ConcurrentHashMap<>();
+            if (currentRoot == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+
+            return find(currentRoot, sortedKeys, result, timer).thenApply(v -> result);
+        }, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Long> get(UUID key, Duration timeout) {
+        return get(Collections.singleton(key), timeout).thenApply(result -> result.get(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(UUID key, Duration timeout) {
+        return remove(Collections.singleton(key), timeout);
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(Collection<UUID> keys, Duration timeout) {
+        Preconditions.checkNotNull(keys, "keys");
+        return put(keys.stream().collect(Collectors.toMap(key -> key, key -> Attributes.NULL_ATTRIBUTE_VALUE, (v1, v2) -> v1)), timeout);
+    }
+
+    @Override
+    public CompletableFuture<Void> seal(Duration timeout) {
+        ensureInitialized();
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+
+        // Every update writes its own root, so there is nothing to flush; we only need to wait for in-flight updates.
+        return queueUpdate(() -> {
+            ensureMainSegmentExists();
+            return Futures.exceptionallyExpecting(
+                    this.storage.seal(this.handle.get(), timer.getRemaining())
+                                .thenRun(() -> log.info("{}: Sealed (Length = {}).", this.traceObjectId, this.length.get())),
+                    ex -> ex instanceof StreamSegmentSealedException,
+                    null);
+        });
+    }
+
+    @Override
+    public AttributeIterator iterator(UUID fromId, UUID toId, Duration fetchTimeout) {
+        ensureInitialized();
+        return new RangeIterator(fromId, toId, fetchTimeout);
+    }
+
+    //endregion
+
+    //region Lookups
+
+    /**
+     * Looks up the given Keys in the subtree rooted at the given page.
+     *
+     * @param pointer A Pointer to the page to search.
+     * @param keys    The Keys to look up, sorted.
+     * @param result  A Map where to record the values of the Keys that are found.
+     * @param timer   Timer for the operation.
+     * @return A CompletableFuture that, when completed, will indicate that the lookup is done.
+     */
+    private CompletableFuture<Void> find(BTreePage.Pointer pointer, List<UUID> keys, Map<UUID, Long> result, TimeoutTimer timer) {
+        return getPage(pointer, timer).thenCompose(page -> {
+            if (!page.isIndex()) {
+                for (UUID key : keys) {
+                    int pos = page.search(key.getMostSignificantBits(), key.getLeastSignificantBits());
+                    if (pos >= 0) {
+                        result.put(key, page.getValue(pos));
+                    }
+                }
+
+                return CompletableFuture.completedFuture(null);
+            }
+
+            List<CompletableFuture<Void>> childLookups = new ArrayList<>();
+            partition(page, keys, key -> key).forEach((pos, childKeys) -> childLookups.add(find(page.getChild(pos), childKeys, result, timer)));
+            return Futures.allOf(childLookups);
+        });
+    }
+
+    /**
+     * Locates the Leaf Page whose range includes the given Key, in the subtree rooted at the given page.
+     *
+     * @param pointer        A Pointer to the page to search.
+     * @param key            The Key to search for.
+     * @param nextSubtreeKey The smallest Key in the subtree that follows the given page, or null if there is no such subtree.
+     * @param timer          Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the Leaf Page along with the smallest Key in the
+     * subtree that follows it.
+     */
+    private CompletableFuture<LeafLocation> locateLeaf(BTreePage.Pointer pointer, UUID key, UUID nextSubtreeKey, TimeoutTimer timer) {
+        return getPage(pointer, timer).thenCompose(page -> {
+            if (!page.isIndex()) {
+                return CompletableFuture.completedFuture(new LeafLocation(page, nextSubtreeKey));
+            }
+
+            int pos = page.route(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            UUID nextKey = pos + 1 < page.getCount() ? new UUID(page.getMsb(pos + 1), page.getLsb(pos + 1)) : nextSubtreeKey;
+            return locateLeaf(page.getChild(pos), key, nextKey, timer);
+        });
+    }
+
+    /**
+     * Groups the given sorted items by the position of the Child (of the given Index Page) they belong to.
+     */
+    private <T> Map<Integer, List<T>> partition(BTreePage page, List<T> items, Function<T, UUID> getKey) {
+        Map<Integer, List<T>> result = new HashMap<>();
+        for (T item : items) {
+            UUID key = getKey.apply(item);
+            int pos = page.route(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            result.computeIfAbsent(pos, p -> new ArrayList<>()).add(item);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the page that the given Pointer refers to, either from the Cache or from Storage.
+     *
+     * @param pointer The Pointer to the page.
+     * @param timer   Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the page.
+     */
+    private CompletableFuture<BTreePage> getPage(BTreePage.Pointer pointer, TimeoutTimer timer) {
+        byte[] data = this.cache.get(new PageKey(this.segmentMetadata.getId(), pointer.getOffset()));
+        if (data != null) {
+            synchronized (this.cachedPages) {
+                CachedPage p = this.cachedPages.get(pointer.getOffset());
+                if (p != null) {
+                    p.generation = this.currentCacheGeneration;
+                }
+            }
+
+            return CompletableFuture.completedFuture(parsePage(data, pointer));
+        }
+
+        return readFully(this.storage, this.handle.get(), pointer.getOffset(), pointer.getLength(), this.executor, timer)
+                .thenApplyAsync(pageData -> {
+                    BTreePage page = parsePage(pageData, pointer);
+                    cachePage(pointer.getOffset(), pageData);
+                    return page;
+                }, this.executor);
+    }
+
+    @SneakyThrows(DataCorruptionException.class)
+    private BTreePage parsePage(byte[] data, BTreePage.Pointer pointer) {
+        try {
+            return new BTreePage(data);
+        } catch (IllegalArgumentException ex) {
+            throw new DataCorruptionException(String.format("Unable to parse B+Tree page (%s) from Attribute Segment '%s'.",
+                    pointer, this.handle.get().getSegmentName()), ex);
+        }
+    }
+
+    private static CompletableFuture<byte[]> readFully(Storage storage, SegmentHandle handle, long offset, int length, Executor executor,
+                                                       TimeoutTimer timer) {
+        byte[] result = new byte[length];
+        AtomicInteger bytesRead = new AtomicInteger();
+        return Futures.loop(
+                () -> bytesRead.get() < result.length,
+                () -> storage.read(handle, offset + bytesRead.get(), result, bytesRead.get(), result.length - bytesRead.get(), timer.getRemaining())
+                             .thenAccept(bytesRead::addAndGet),
+                executor)
+                      .thenApply(v -> result);
+    }
+
+    //endregion
+
+    //region Updates
+
+    /**
+     * Executes the given update after all previously requested updates (or seals) have completed, regardless of their outcome.
+     */
+    private CompletableFuture<Void> queueUpdate(Supplier<CompletableFuture<Void>> update) {
+        CompletableFuture<Void> result;
+        synchronized (this) {
+            result = this.lastUpdate
+                    .handle((r, ex) -> (Void) null)
+                    .thenComposeAsync(v -> update.get(), this.executor);
+            this.lastUpdate = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies the given updates to the B+Tree. Must only be invoked via queueUpdate().
+     *
+     * @param updates The updates to apply, sorted by Key. A value of Attributes.NULL_ATTRIBUTE_VALUE indicates a removal.
+     * @param timer   Timer for the operation.
+     * @return A CompletableFuture that, when completed, will indicate that the updates have been persisted.
+     */
+    private CompletableFuture<Void> applyUpdates(List<Map.Entry<UUID, Long>> updates, TimeoutTimer timer) {
+        ensureMainSegmentExists();
+        BTreePage.Pointer currentRoot = this.root.get();
+        return updatePage(currentRoot, updates, false, getRelocation(currentRoot), timer)
+                .thenComposeAsync(result -> {
+                    if (result == null) {
+                        // Nothing changed (i.e., only removals of Keys that did not exist).
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    PageRef newRoot = createRoot(result);
+                    return APPEND_RETRY.runAsync(() -> append(newRoot, timer), this.executor)
+                                       .thenAccept(this::onAppended)
+                                       .thenCompose(v -> truncateIfPossible(timer));
+                }, this.executor);
+    }
+
+    /**
+     * Applies the given updates to the subtree rooted at the given page.
+     *
+     * @param pointer    A Pointer to the page, or null if the B+Tree is empty.
+     * @param updates    The updates to apply, sorted by Key.
+     * @param relocate   If true, the page must be rewritten even if it would otherwise be unchanged.
+     * @param relocation Information about which pages to relocate, or null if no page needs relocating.
+     * @param timer      Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the pages that replace the given one (which may be
+     * empty if all its Keys have been removed), or null if the subtree is unchanged.
+     */
+    private CompletableFuture<List<PageRef>> updatePage(BTreePage.Pointer pointer, List<Map.Entry<UUID, Long>> updates,
+                                                        boolean relocate, Relocation relocation, TimeoutTimer timer) {
+        if (pointer == null) {
+            return CompletableFuture.completedFuture(updateLeaf(null, updates, false));
+        }
+
+        return getPage(pointer, timer).thenCompose(page -> page.isIndex()
+                ? updateIndex(page, updates, relocate, relocation, timer)
+                : CompletableFuture.completedFuture(updateLeaf(page, updates, relocate)));
+    }
+
+    private List<PageRef> updateLeaf(BTreePage page, List<Map.Entry<UUID, Long>> updates, boolean relocate) {
+        int count = page == null ? 0 : page.getCount();
+        List<long[]> entries = new ArrayList<>(count + updates.size());
+        boolean changed = relocate;
+        int pos = 0;
+        for (Map.Entry<UUID, Long> update : updates) {
+            long msb = update.getKey().getMostSignificantBits();
+            long lsb = update.getKey().getLeastSignificantBits();
+            long value = update.getValue();
+            while (pos < count && BTreePage.compare(page.getMsb(pos), page.getLsb(pos), msb, lsb) < 0) {
+                entries.add(new long[]{page.getMsb(pos), page.getLsb(pos), page.getValue(pos)});
+                pos++;
+            }
+
+            boolean exists = pos < count && BTreePage.compare(page.getMsb(pos), page.getLsb(pos), msb, lsb) == 0;
+            if (value != Attributes.NULL_ATTRIBUTE_VALUE) {
+                entries.add(new long[]{msb, lsb, value});
+                changed |= !exists || page.getValue(pos) != value;
+            } else {
+                changed |= exists;
+            }
+
+            if (exists) {
+                pos++;
+            }
+        }
+
+        for (; pos < count; pos++) {
+            entries.add(new long[]{page.getMsb(pos), page.getLsb(pos), page.getValue(pos)});
+        }
+
+        return changed ? createLeafPages(entries) : null;
+    }
+
+    private List<PageRef> createLeafPages(List<long[]> entries) {
+        List<PageRef> result = new ArrayList<>();
+        for (List<long[]> pageEntries : split(entries, this.maxLeafEntries)) {
+            result.add(new PageRef(pageEntries.get(0)[0], pageEntries.get(0)[1], null, PendingPage.leaf(pageEntries)));
+        }
+
+        return result;
+    }
+
+    private CompletableFuture<List<PageRef>> updateIndex(BTreePage page, List<Map.Entry<UUID, Long>> updates, boolean relocate,
+                                                         Relocation relocation, TimeoutTimer timer) {
+        Map<Integer, List<Map.Entry<UUID, Long>>> childUpdates = partition(page, updates, Map.Entry::getKey);
+        List<CompletableFuture<List<PageRef>>> childResults = new ArrayList<>(page.getCount());
+        for (int pos = 0; pos < page.getCount(); pos++) {
+            BTreePage.Pointer child = page.getChild(pos);
+            List<Map.Entry<UUID, Long>> u = childUpdates.get(pos);
+            boolean relocateChild = relocation != null && relocation.shouldRelocate(child);
+            if (u == null && !relocateChild) {
+                childResults.add(CompletableFuture.completedFuture(null));
+            } else {
+                childResults.add(updatePage(child, u == null ? Collections.emptyList() : u, relocateChild, relocation, timer));
+            }
+        }
+
+        return Futures.allOfWithResults(childResults).thenCompose(results -> {
+            boolean changed = relocate;
+            List<PageRef> children = new ArrayList<>(page.getCount());
+            for (int pos = 0; pos < results.size(); pos++) {
+                List<PageRef> r = results.get(pos);
+                if (r == null) {
+                    children.add(new PageRef(page.getMsb(pos), page.getLsb(pos), page.getChild(pos), null));
+                } else {
+                    children.addAll(r);
+                    changed = true;
+                }
+            }
+
+            if (!changed) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return mergeUnderfullPages(children, timer).thenApply(this::createIndexPages);
+        });
+    }
+
+    /**
+     * Merges every rewritten page among the given siblings that is less than half full (i.e., following removals) with
+     * one of its neighbors, redistributing their entries evenly if they do not fit in a single page.
+     *
+     * @param pages The sibling pages, sorted by Key.
+     * @param timer Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the pages that replace the given ones.
+     */
+    private CompletableFuture<List<PageRef>> mergeUnderfullPages(List<PageRef> pages, TimeoutTimer timer) {
+        int pos = findUnderfullPage(pages);
+        if (pos < 0) {
+            return CompletableFuture.completedFuture(pages);
+        }
+
+        // Merge with the left neighbor, or the right one if this is the first page.
+        int first = pos > 0 ? pos - 1 : pos;
+        PageRef left = pages.get(first);
+        PageRef right = pages.get(first + 1);
+        CompletableFuture<List<PageRef>> merged;
+        if (pages.get(pos).pending.children == null) {
+            merged = getLeafEntries(left, timer).thenCombine(getLeafEntries(right, timer), (l, r) -> createLeafPages(concat(l, r)));
+        } else {
+            merged = getIndexEntries(left, timer).thenCombine(getIndexEntries(right, timer), (l, r) -> createIndexPages(concat(l, r)));
+        }
+
+        return merged.thenCompose(m -> {
+            List<PageRef> result = new ArrayList<>(pages.subList(0, first));
+            result.addAll(m);
+            result.addAll(pages.subList(first + 2, pages.size()));
+            return mergeUnderfullPages(result, timer);
+        });
+    }
+
+    /**
+     * Gets the position of the first rewritten page that is less than half full, or -1 if there is no such page or it
+     * has no siblings. Pages that have not been rewritten are left alone, as merging them would not save any writes.
+     */
+    private int findUnderfullPage(List<PageRef> pages) {
+        if (pages.size() < 2) {
+            return -1;
+        }
+
+        for (int pos = 0; pos < pages.size(); pos++) {
+            PendingPage p = pages.get(pos).pending;
+            boolean underfull = p != null && (p.children == null
+                    ? p.entries.size() < this.maxLeafEntries / 2
+                    : p.children.size() < this.maxIndexEntries / 2);
+            if (underfull) {
+                return pos;
+            }
+        }
+
+        return -1;
+    }
+
+    private CompletableFuture<List<long[]>> getLeafEntries(PageRef ref, TimeoutTimer timer) {
+        if (ref.pending != null) {
+            return CompletableFuture.completedFuture(ref.pending.entries);
+        }
+
+        return getPage(ref.existing, timer).thenApply(page -> {
+            List<long[]> result = new ArrayList<>(page.getCount());
+            for (int pos = 0; pos < page.getCount(); pos++) {
+                result.add(new long[]{page.getMsb(pos), page.getLsb(pos), page.getValue(pos)});
+            }
+
+            return result;
+        });
+    }
+
+    private CompletableFuture<List<PageRef>> getIndexEntries(PageRef ref, TimeoutTimer timer) {
+        if (ref.pending != null) {
+            return CompletableFuture.completedFuture(ref.pending.children);
+        }
+
+        return getPage(ref.existing, timer).thenApply(page -> {
+            List<PageRef> result = new ArrayList<>(page.getCount());
+            for (int pos = 0; pos < page.getCount(); pos++) {
+                result.add(new PageRef(page.getMsb(pos), page.getLsb(pos), page.getChild(pos), null));
+            }
+
+            return result;
+        });
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> result = new ArrayList<>(first.size() + second.size());
+        result.addAll(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private List<PageRef> createIndexPages(List<PageRef> children) {
+        List<PageRef> result = new ArrayList<>();
+        for (List<PageRef> pageChildren : split(children, this.maxIndexEntries)) {
+            PageRef first = pageChildren.get(0);
+            result.add(new PageRef(first.msb, first.lsb, null, PendingPage.index(pageChildren)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a new root out of the pages that replace the current root.
+     */
+    private PageRef createRoot(List<PageRef> pages) {
+        if (pages.isEmpty()) {
+            // All Keys have been removed.
+            return new PageRef(0, 0, null, PendingPage.leaf(Collections.emptyList()));
+        }
+
+        while (pages.size() > 1) {
+            pages = createIndexPages(pages);
+        }
+
+        // Do not keep Index Pages that only have one Child at the top of the tree.
+        PageRef result = pages.get(0);
+        while (result.pending != null && result.pending.children != null && result.pending.children.size() == 1) {
+            result = result.pending.children.get(0);
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits the given items into as few groups of at most the given size as possible, with the items distributed evenly.
+     */
+    private static <T> List<List<T>> split(List<T> items, int maxGroupSize) {
+        List<List<T>> result = new ArrayList<>();
+        int groupCount = (items.size() + maxGroupSize - 1) / maxGroupSize;
+        int start = 0;
+        for (int i = 0; i < groupCount; i++) {
+            int end = (int) ((long) items.size() * (i + 1) / groupCount);
+            result.add(items.subList(start, end));
+            start = end;
+        }
+
+        return result;
+    }
+
+    /**
+     * Serializes all the new pages rooted at the given page, along with a Footer, and appends them to the Attribute Segment
+     * at its current length. This method does not perform any retries.
+     *
+     * @param newRoot The new root.
+     * @param timer   Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain information about what was written.
+     */
+    private CompletableFuture<AppendInfo> append(PageRef newRoot, TimeoutTimer timer) {
+        ensureMainSegmentExists();
+        SegmentHandle h = this.handle.get();
+        long offset = this.length.get();
+
+        // Serialize the pages in post-order (children before parents), since each Index Page needs the location of its
+        // children.
+        List<PendingPage> pages = new ArrayList<>();
+        if (newRoot.pending != null) {
+            newRoot.pending.collectPostOrder(pages);
+        }
+
+        List<byte[]> serializations = new ArrayList<>(pages.size());
+        long pageOffset = offset;
+        for (PendingPage p : pages) {
+            byte[] data = p.serialize(pageOffset);
+            serializations.add(data);
+            pageOffset += data.length;
+        }
+
+        BTreePage.Pointer rootPointer = newRoot.getPointer();
+        byte[] data = new byte[(int) (pageOffset - offset) + FOOTER_LENGTH];
+        int dataOffset = 0;
+        for (byte[] s : serializations) {
+            System.arraycopy(s, 0, data, dataOffset, s.length);
+            dataOffset += s.length;
+        }
+
+        Footer.serialize(rootPointer, data, dataOffset);
+
+        AppendInfo result = new AppendInfo(offset, data.length, rootPointer, pages, serializations);
+        return Futures.exceptionallyCompose(
+                this.storage.write(h, offset, new ByteArrayInputStream(data), data.length, timer.getRemaining())
+                            .thenApply(v -> result),
+                ex -> {
+                    if (Exceptions.unwrap(ex) instanceof BadOffsetException) {
+                        // Someone else wrote to the Attribute Segment; refresh its length and try again.
+                        return this.storage
+                                .getStreamSegmentInfo(h.getSegmentName(), timer.getRemaining())
+                                .thenCompose(si -> {
+                                    this.length.set(si.getLength());
+                                    return Futures.failedFuture(ex);
+                                });
+                    } else {
+                        return Futures.failedFuture(ex);
+                    }
+                });
+    }
+
+    private void onAppended(AppendInfo info) {
+        this.length.set(info.offset + info.length);
+        for (int i = 0; i < info.pages.size(); i++) {
+            cachePage(info.pages.get(i).pointer.getOffset(), info.serializations.get(i));
+        }
+
+        this.root.set(info.root);
+        log.debug("{}: Wrote {} page(s) (Offset = {}, Length = {}, Root = {}).",
+                this.traceObjectId, info.pages.size(), info.offset, info.length, info.root);
+    }
+
+    /**
+     * Determines which pages (if any) should be relocated as part of the next update. Pages are relocated only if the
+     * garbage in the Attribute Segment (the unreachable pages after the oldest live page) exceeds both the size of the
+     * live B+Tree and the Snapshot Trigger Size, in which case the pages in the older half of that range are relocated.
+     */
+    private Relocation getRelocation(BTreePage.Pointer currentRoot) {
+        if (currentRoot == null) {
+            return null;
+        }
+
+        long span = this.length.get() - currentRoot.getMinOffset();
+        long garbage = span - currentRoot.getSubtreeLength();
+        if (garbage > currentRoot.getSubtreeLength() && garbage >= this.config.getSnapshotTriggerSize()) {
+            return new Relocation(currentRoot.getMinOffset() + span / 2, new AtomicInteger(MAX_RELOCATED_PAGES_PER_UPDATE));
+        }
+
+        return null;
+    }
+
+    /**
+     * Truncates the Attribute Segment up to the oldest page that is still reachable from the root. Failures are not
+     * critical (the data will be truncated with the next update), so they are only logged.
+     */
+    private CompletableFuture<Void> truncateIfPossible(TimeoutTimer timer) {
+        long truncateOffset = this.root.get().getMinOffset();
+        if (truncateOffset <= this.truncationOffset.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.storage
+                .truncate(this.handle.get(), truncateOffset, timer.getRemaining())
+                .thenRun(() -> {
+                    this.truncationOffset.set(truncateOffset);
+                    removeCachedPagesBefore(truncateOffset);
+                    log.debug("{}: Truncated Attribute Segment at offset {}.", this.traceObjectId, truncateOffset);
+                })
+                .exceptionally(ex -> {
+                    log.warn("{}: Unable to truncate Attribute Segment at offset {}.", this.traceObjectId, truncateOffset, Exceptions.unwrap(ex));
+                    return null;
+                });
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void cachePage(long offset, byte[] data) {
+        this.cache.insert(new PageKey(this.segmentMetadata.getId(), offset), data);
+        synchronized (this.cachedPages) {
+            this.cachedPages.put(offset, new CachedPage(this.currentCacheGeneration, data.length));
+        }
+    }
+
+    private void removeCachedPagesBefore(long offset) {
+        List<Long> toRemove;
+        synchronized (this.cachedPages) {
+            toRemove = this.cachedPages.keySet().stream().filter(o -> o < offset).collect(Collectors.toList());
+            toRemove.forEach(this.cachedPages::remove);
+        }
+
+        toRemove.forEach(o -> this.cache.remove(new PageKey(this.segmentMetadata.getId(), o)));
+    }
+
+    /**
+     * Gets the Pointer to the current root, or null if the B+Tree is empty.
+     */
+    @VisibleForTesting
+    BTreePage.Pointer getRoot() {
+        return this.root.get();
+    }
+
+    /**
+     * Gets a SegmentHandle for the AttributeSegment.
+     */
+    @VisibleForTesting
+    SegmentHandle getAttributeSegmentHandle() {
+        return this.handle.get();
+    }
+
+    /**
+     * Verifies that the main Segment still exists (is not deleted). If it doesn't, it aborts the current operation by
+     * throwing a StreamSegmentNotExistsException. If the main Segment is deleted, the owning SegmentContainer will be
+     * deleting this Attribute Segment soon, so do not bother making any more changes to it.
+     */
+    @SneakyThrows(StreamSegmentNotExistsException.class)
+    private void ensureMainSegmentExists() {
+        if (this.segmentMetadata.isDeleted() || this.segmentMetadata.isMerged()) {
+            log.info("{}: Main Segment ({}) is Deleted. Aborting operation.", this.traceObjectId, this.segmentMetadata.getName());
+            throw new StreamSegmentNotExistsException(this.segmentMetadata.getName());
+        }
+    }
+
+    private void ensureInitialized() {
+        Preconditions.checkState(this.handle.get() != null, "BTreeAttributeIndex is not initialized.");
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * A reference to a page from its parent: either an existing page (via a Pointer) or a page that is yet to be written.
+     */
+    @RequiredArgsConstructor
+    private static class PageRef {
+        /**
+         * The smallest Key in the referenced page's subtree.
+         */
+        final long msb;
+        final long lsb;
+        final BTreePage.Pointer existing;
+        final PendingPage pending;
+
+        /**
+         * Gets the Pointer to the referenced page. For pending pages, this is only valid after they have been serialized.
+         */
+        BTreePage.Pointer getPointer() {
+            return this.pending == null ? this.existing : this.pending.pointer;
+        }
+    }
+
+    /**
+     * A page that has not yet been written to the Attribute Segment.
+     */
+    private static class PendingPage {
+        final List<long[]> entries;
+        final List<PageRef> children;
+        /**
+         * The location of this page. This is assigned every time the page is serialized (which may be done multiple
+         * times if the append needs to be retried).
+         */
+        BTreePage.Pointer pointer;
+
+        private PendingPage(List<long[]> entries, List<PageRef> children) {
+            this.entries = entries;
+            this.children = children;
+        }
+
+        static PendingPage leaf(List<long[]> entries) {
+            return new PendingPage(entries, null);
+        }
+
+        static PendingPage index(List<PageRef> children) {
+            return new PendingPage(null, children);
+        }
+
+        void collectPostOrder(List<PendingPage> target) {
+            if (this.children != null) {
+                this.children.stream().filter(c -> c.pending != null).forEach(c -> c.pending.collectPostOrder(target));
+            }
+
+            target.add(this);
+        }
+
+        byte[] serialize(long offset) {
+            byte[] data;
+            if (this.children == null) {
+                data = BTreePage.serializeLeaf(this.entries);
+            } else {
+                data = BTreePage.serializeIndex(this.children.stream()
+                                                             .map(c -> new BTreePage.IndexEntry(c.msb, c.lsb, c.getPointer()))
+                                                             .collect(Collectors.toList()));
+            }
+
+            this.pointer = new BTreePage(data).toPointer(offset);
+            return data;
+        }
+    }
+
+    /**
+     * Iterates over a range of Keys, one Leaf Page at a time. Every Leaf Page is located by searching from the current
+     * root, so the iteration does not need to hold on to pages that may be relocated or truncated by concurrent updates.
+     */
+    private class RangeIterator implements AttributeIterator {
+        private final UUID toId;
+        private final Duration fetchTimeout;
+        /**
+         * The smallest Key that has not yet been returned, or null if the iteration is done.
+         */
+        private final AtomicReference<UUID> nextId;
+
+        RangeIterator(UUID fromId, UUID toId, Duration fetchTimeout) {
+            this.toId = Preconditions.checkNotNull(toId, "toId");
+            this.fetchTimeout = Preconditions.checkNotNull(fetchTimeout, "fetchTimeout");
+            this.nextId = new AtomicReference<>(fromId.compareTo(toId) <= 0 ? fromId : null);
+        }
+
+        @Override
+        public CompletableFuture<List<Map.Entry<UUID, Long>>> getNext() {
+            TimeoutTimer timer = new TimeoutTimer(this.fetchTimeout);
+            List<Map.Entry<UUID, Long>> result = new ArrayList<>();
+
+            // A Leaf Page may not have any Keys in our range (i.e., if the range begins after its last Key), in which
+            // case we move on to the next one.
+            return Futures.loop(
+                    () -> result.isEmpty() && this.nextId.get() != null,
+                    () -> READ_RETRY.runAsync(() -> locateNext(timer), executor).thenAccept(location -> collect(location, result)),
+                    executor)
+                          .thenApply(v -> result.isEmpty() ? null : result);
+        }
+
+        private CompletableFuture<LeafLocation> locateNext(TimeoutTimer timer) {
+            ensureMainSegmentExists();
+            BTreePage.Pointer currentRoot = root.get();
+            if (currentRoot == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return locateLeaf(currentRoot, this.nextId.get(), null, timer);
+        }
+
+        private void collect(LeafLocation location, List<Map.Entry<UUID, Long>> result) {
+            if (location == null) {
+                // Empty B+Tree.
+                this.nextId.set(null);
+                return;
+            }
+
+            BTreePage leaf = location.leaf;
+            UUID fromId = this.nextId.get();
+            int pos = leaf.search(fromId.getMostSignificantBits(), fromId.getLeastSignificantBits());
+            for (pos = pos >= 0 ? pos : -pos - 1; pos < leaf.getCount(); pos++) {
+                UUID id = new UUID(leaf.getMsb(pos), leaf.getLsb(pos));
+                if (id.compareTo(this.toId) > 0) {
+                    break;
+                }
+
+                result.add(new AbstractMap.SimpleImmutableEntry<>(id, leaf.getValue(pos)));
+            }
+
+            UUID nextKey = location.nextKey;
+            this.nextId.set(nextKey == null || nextKey.compareTo(this.toId) > 0 ? null : nextKey);
+        }
+    }
+
+    /**
+     * A Leaf Page, along with the smallest Key in the subtree that follows it (null if it is the last Leaf Page).
+     */
+    @RequiredArgsConstructor
+    private static class LeafLocation {
+        final BTreePage leaf;
+        final UUID nextKey;
+    }
+
+    /**
+     * Pages whose subtrees contain pages located before the cutoff offset are to be relocated, up to a certain number.
+     */
+    @RequiredArgsConstructor
+    private static class Relocation {
+        private final long cutoffOffset;
+        private final AtomicInteger remaining;
+
+        boolean shouldRelocate(BTreePage.Pointer child) {
+            return child.getMinOffset() < this.cutoffOffset && this.remaining.getAndDecrement() > 0;
+        }
+    }
+
+    /**
+     * The Footer of an append, which points to the root of the B+Tree as of that append.
+     */
+    @RequiredArgsConstructor
+    private static class Footer {
+        /**
+         * The offset of the Footer itself within the Attribute Segment.
+         */
+        final long offset;
+        final long rootOffset;
+        final int rootLength;
+
+        static void serialize(BTreePage.Pointer root, byte[] target, int targetOffset) {
+            BitConverter.writeLong(target, targetOffset, root.getOffset());
+            BitConverter.writeInt(target, targetOffset + Long.BYTES, root.getLength());
+            BitConverter.writeInt(target, targetOffset + FOOTER_CHECKSUM_OFFSET, getChecksum(target, targetOffset));
+            BitConverter.writeLong(target, targetOffset + FOOTER_MAGIC_OFFSET, FOOTER_MAGIC);
+        }
+
+        /**
+         * Parses the Footer at the given position.
+         *
+         * @param source       The data to parse.
+         * @param sourceOffset The position of the Footer within source.
+         * @param offset       The offset of the Footer within the Attribute Segment.
+         * @param startOffset  The Start Offset of the Attribute Segment.
+         * @return The Footer, or null if there is no valid Footer at the given position.
+         */
+        static Footer parse(byte[] source, int sourceOffset, long offset, long startOffset) {
+            if (BitConverter.readLong(source, sourceOffset + FOOTER_MAGIC_OFFSET) != FOOTER_MAGIC
+                    || BitConverter.readInt(source, sourceOffset + FOOTER_CHECKSUM_OFFSET) != getChecksum(source, sourceOffset)) {
+                return null;
+            }
+
+            long rootOffset = BitConverter.readLong(source, sourceOffset);
+            int rootLength = BitConverter.readInt(source, sourceOffset + Long.BYTES);
+            if (rootOffset < startOffset || rootLength < BTreePage.HEADER_LENGTH || rootOffset + rootLength > offset) {
+                // The root must be in the non-truncated part of the Attribute Segment, before the Footer.
+                return null;
+            }
+
+            return new Footer(offset, rootOffset, rootLength);
+        }
+
+        private static int getChecksum(byte[] data, int footerOffset) {
+            CRC32 crc = new CRC32();
+            crc.update(data, footerOffset, FOOTER_CHECKSUM_OFFSET);
+            return (int) crc.getValue();
+        }
+    }
+
+    /**
+     * Information about a successful append to the Attribute Segment.
+     */
+    @RequiredArgsConstructor
+    private static class AppendInfo {
+        final long offset;
+        final int length;
+        final BTreePage.Pointer root;
+        final List<PendingPage> pages;
+        final List<byte[]> serializations;
+    }
+
+    /**
+     * Information about a cached page.
+     */
+    private static class CachedPage {
+        int generation;
+        final int size;
+
+        CachedPage(int generation, int size) {
+            this.generation = generation;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Cache Key for a B+Tree page.
+     */
+    @RequiredArgsConstructor
+    private static class PageKey extends Cache.Key {
+        private static final int SERIALIZATION_LENGTH = Long.BYTES + Long.BYTES;
+        private final long segmentId;
+        private final long offset;
+
+        @Override
+        public byte[] serialize() {
+            byte[] result = new byte[SERIALIZATION_LENGTH];
+            BitConverter.writeLong(result, 0, this.segmentId);
+            BitConverter.writeLong(result, Long.BYTES, this.offset);
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return HASH.hash(this.segmentId * 31 + this.offset);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PageKey)) {
+                return false;
+            }
+
+            PageKey other = (PageKey) obj;
+            return this.segmentId == other.segmentId
+                    && this.offset == other.offset;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SegmentId = %d, PageOffset = %d", this.segmentId, this.offset);
+        }
+    }
+
+    //endregion
+}
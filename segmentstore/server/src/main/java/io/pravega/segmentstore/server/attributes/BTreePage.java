@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.attributes;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.BitConverter;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * A page in the B+Tree Attribute Index. Pages are immutable once serialized; any change to a page results in a new page
+ * being written to the Attribute Segment (copy-on-write).
+ * <p>
+ * Layout: Header (Version (1 byte), Type (1 byte), Entry Count (4 bytes)), followed by the Entries, sorted by Key. Each
+ * Key is made of the Attribute Id's MSB and LSB (8 bytes each), compared as signed longs (same as UUID.compareTo()).
+ * <ul>
+ * <li> Leaf Page Entries: Key (16 bytes), Value (8 bytes).
+ * <li> Index Page Entries: Key (16 bytes), Child Offset (8 bytes), Child Length (4 bytes), Child Minimum Offset (8 bytes),
+ * Child Subtree Length (8 bytes). The Key of an Index Entry is the smallest Key in the Child's subtree.
+ * </ul>
+ */
+class BTreePage {
+    //region Members
+
+    static final int HEADER_LENGTH = 2 + Integer.BYTES;
+    static final int LEAF_ENTRY_LENGTH = 3 * Long.BYTES;
+    static final int INDEX_ENTRY_LENGTH = 5 * Long.BYTES + Integer.BYTES;
+    private static final byte CURRENT_VERSION = 0;
+    private static final byte LEAF = 0;
+    private static final byte INDEX = 1;
+    private static final int KEY_LENGTH = 2 * Long.BYTES;
+    private final byte[] data;
+    private final boolean index;
+    private final int count;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the BTreePage class wrapping the given serialization.
+     *
+     * @param data The serialization of the page.
+     * @throws IllegalArgumentException If the serialization is not a valid page.
+     */
+    BTreePage(byte[] data) {
+        Preconditions.checkArgument(data.length >= HEADER_LENGTH, "Page too short (%s bytes).", data.length);
+        Preconditions.checkArgument(data[0] == CURRENT_VERSION, "Unsupported page version %s.", data[0]);
+        Preconditions.checkArgument(data[1] == LEAF || data[1] == INDEX, "Unsupported page type %s.", data[1]);
+        this.data = data;
+        this.index = data[1] == INDEX;
+        this.count = BitConverter.readInt(data, 2);
+        Preconditions.checkArgument(this.count >= 0 && data.length == getLength(this.index, this.count),
+                "Page length (%s) does not match its entry count (%s).", data.length, this.count);
+    }
+
+    //endregion
+
+    //region Serialization
+
+    /**
+     * Calculates the length of a page.
+     *
+     * @param index True if an Index Page, false if a Leaf Page.
+     * @param count The number of entries in the page.
+     * @return The serialization length.
+     */
+    static int getLength(boolean index, int count) {
+        return HEADER_LENGTH + count * (index ? INDEX_ENTRY_LENGTH : LEAF_ENTRY_LENGTH);
+    }
+
+    /**
+     * Serializes a Leaf Page.
+     *
+     * @param entries The entries, sorted by Key. Each element is an array made of the Key's MSB, the Key's LSB and the Value.
+     * @return The serialization.
+     */
+    static byte[] serializeLeaf(List<long[]> entries) {
+        byte[] result = new byte[getLength(false, entries.size())];
+        int offset = writeHeader(result, LEAF, entries.size());
+        for (long[] e : entries) {
+            offset += BitConverter.writeLong(result, offset, e[0]);
+            offset += BitConverter.writeLong(result, offset, e[1]);
+            offset += BitConverter.writeLong(result, offset, e[2]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Serializes an Index Page.
+     *
+     * @param entries The entries, sorted by Key.
+     * @return The serialization.
+     */
+    static byte[] serializeIndex(List<IndexEntry> entries) {
+        byte[] result = new byte[getLength(true, entries.size())];
+        int offset = writeHeader(result, INDEX, entries.size());
+        for (IndexEntry e : entries) {
+            offset += BitConverter.writeLong(result, offset, e.msb);
+            offset += BitConverter.writeLong(result, offset, e.lsb);
+            offset += BitConverter.writeLong(result, offset, e.child.offset);
+            offset += BitConverter.writeInt(result, offset, e.child.length);
+            offset += BitConverter.writeLong(result, offset, e.child.minOffset);
+            offset += BitConverter.writeLong(result, offset, e.child.subtreeLength);
+        }
+
+        return result;
+    }
+
+    private static int writeHeader(byte[] target, byte type, int count) {
+        target[0] = CURRENT_VERSION;
+        target[1] = type;
+        return 2 + BitConverter.writeInt(target, 2, count);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a value indicating whether this is an Index Page (true) or a Leaf Page (false).
+     */
+    boolean isIndex() {
+        return this.index;
+    }
+
+    /**
+     * Gets the number of entries in this page.
+     */
+    int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the MSB of the Key at the given position.
+     */
+    long getMsb(int pos) {
+        return BitConverter.readLong(this.data, getEntryOffset(pos));
+    }
+
+    /**
+     * Gets the LSB of the Key at the given position.
+     */
+    long getLsb(int pos) {
+        return BitConverter.readLong(this.data, getEntryOffset(pos) + Long.BYTES);
+    }
+
+    /**
+     * Gets the Value at the given position. Only valid for Leaf Pages.
+     */
+    long getValue(int pos) {
+        Preconditions.checkState(!this.index, "Not a leaf page.");
+        return BitConverter.readLong(this.data, getEntryOffset(pos) + KEY_LENGTH);
+    }
+
+    /**
+     * Gets the Pointer to the Child at the given position. Only valid for Index Pages.
+     */
+    Pointer getChild(int pos) {
+        Preconditions.checkState(this.index, "Not an index page.");
+        int offset = getEntryOffset(pos) + KEY_LENGTH;
+        return new Pointer(
+                BitConverter.readLong(this.data, offset),
+                BitConverter.readInt(this.data, offset + Long.BYTES),
+                BitConverter.readLong(this.data, offset + Long.BYTES + Integer.BYTES),
+                BitConverter.readLong(this.data, offset + 2 * Long.BYTES + Integer.BYTES));
+    }
+
+    /**
+     * Performs a binary search for the given Key.
+     *
+     * @param msb The MSB of the Key.
+     * @param lsb The LSB of the Key.
+     * @return The position of the Key, if found, or (-(insertion point) - 1) otherwise (same as Arrays.binarySearch()).
+     */
+    int search(long msb, long lsb) {
+        int low = 0;
+        int high = this.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(getMsb(mid), getLsb(mid), msb, lsb);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Determines the position of the Child whose subtree should contain the given Key. Only valid for Index Pages.
+     *
+     * @param msb The MSB of the Key.
+     * @param lsb The LSB of the Key.
+     * @return The position of the last Child whose Key is smaller than or equal to the given one, or 0 if none.
+     */
+    int route(long msb, long lsb) {
+        int pos = search(msb, lsb);
+        return pos >= 0 ? pos : Math.max(0, -pos - 2);
+    }
+
+    /**
+     * Creates a Pointer to this page, assuming it is located at the given offset.
+     *
+     * @param offset The offset of this page within the Attribute Segment.
+     * @return A new Pointer, which includes information about this page's subtree.
+     */
+    Pointer toPointer(long offset) {
+        long minOffset = offset;
+        long subtreeLength = this.data.length;
+        if (this.index) {
+            for (int i = 0; i < this.count; i++) {
+                Pointer child = getChild(i);
+                minOffset = Math.min(minOffset, child.minOffset);
+                subtreeLength += child.subtreeLength;
+            }
+        }
+
+        return new Pointer(offset, this.data.length, minOffset, subtreeLength);
+    }
+
+    /**
+     * Compares two Keys, the same way UUID.compareTo() does.
+     */
+    static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int c = Long.compare(msb1, msb2);
+        return c != 0 ? c : Long.compare(lsb1, lsb2);
+    }
+
+    private int getEntryOffset(int pos) {
+        Preconditions.checkElementIndex(pos, this.count, "pos");
+        return HEADER_LENGTH + pos * (this.index ? INDEX_ENTRY_LENGTH : LEAF_ENTRY_LENGTH);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, Count = %d, Length = %d", this.index ? "Index" : "Leaf", this.count, this.data.length);
+    }
+
+    //endregion
+
+    //region Pointer & IndexEntry
+
+    /**
+     * Location of a page within the Attribute Segment, along with information about its subtree.
+     */
+    @Data
+    static class Pointer {
+        /**
+         * The offset of the page.
+         */
+        private final long offset;
+        /**
+         * The length of the page.
+         */
+        private final int length;
+        /**
+         * The smallest offset of any page in this page's subtree (including itself).
+         */
+        private final long minOffset;
+        /**
+         * The total length of all the pages in this page's subtree (including itself).
+         */
+        private final long subtreeLength;
+    }
+
+    /**
+     * An entry in an Index Page.
+     */
+    @Data
+    static class IndexEntry {
+        private final long msb;
+        private final long lsb;
+        private final Pointer child;
+    }
+
+    //endregion
+}
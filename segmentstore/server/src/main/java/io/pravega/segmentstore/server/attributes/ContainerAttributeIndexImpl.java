@@ -11,6 +11,7 @@ package io.pravega.segmentstore.server.attributes;
 
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
+import io.pravega.common.TimeoutTimer;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.server.AttributeIndex;
@@ -28,7 +29,6 @@ import java.util.HashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.extern.slf4j.Slf4j;
 
@@ -107,32 +107,31 @@ class ContainerAttributeIndexImpl implements ContainerAttributeIndex {
 
         // Figure out if we already have this AttributeIndex cached. If not, we need to initialize it.
         CompletableFuture<AttributeIndex> result;
-        AtomicReference<SegmentAttributeIndex> toInitialize = new AtomicReference<>();
+        AtomicBoolean toInitialize = new AtomicBoolean();
         synchronized (this.attributeIndices) {
             result = this.attributeIndices.computeIfAbsent(streamSegmentId, id -> {
-                toInitialize.set(new SegmentAttributeIndex(sm, this.storage, this.operationLog, this.cache, this.config, this.executor));
+                toInitialize.set(true);
                 return new CompletableFuture<>();
             });
         }
 
-        if (toInitialize.get() == null) {
-            // We already have it cached - return its future (which should be already completed or will complete once
-            // its initialization is done).
-            return result;
-        } else {
+        if (toInitialize.get()) {
             try {
-                // Need to initialize the AttributeIndex and complete the future that we just registered.
+                // Need to create and initialize the AttributeIndex and complete the future that we just registered.
                 // If this fails, we must fail the Future that we previously registered and unregister any pointers to
                 // this index.
-                toInitialize.get().initialize(timeout)
-                            .thenRun(() -> this.cacheManager.register(toInitialize.get()))
-                            .whenComplete((r, ex) -> {
-                                if (ex == null) {
-                                    result.complete(toInitialize.get());
-                                } else {
-                                    indexInitializationFailed(streamSegmentId, result, ex);
-                                }
-                            });
+                createIndex(sm, timeout)
+                        .thenApply(index -> {
+                            this.cacheManager.register(index);
+                            return index;
+                        })
+                        .whenComplete((index, ex) -> {
+                            if (ex == null) {
+                                result.complete(index);
+                            } else {
+                                indexInitializationFailed(streamSegmentId, result, ex);
+                            }
+                        });
             } catch (Throwable ex) {
                 if (!Exceptions.mustRethrow(ex)) {
                     indexInitializationFailed(streamSegmentId, result, ex);
@@ -141,6 +140,7 @@ class ContainerAttributeIndexImpl implements ContainerAttributeIndex {
             }
         }
 
+        // If we already had it cached, this future should be already completed or will complete once its initialization is done.
         return result;
     }
 
@@ -161,6 +161,22 @@ class ContainerAttributeIndexImpl implements ContainerAttributeIndex {
 
     //region Helpers
 
+    /**
+     * Creates and initializes the AttributeIndex for the given Segment. Attribute Segments which already have data in
+     * them are accessed using the format they were created with; new ones use the B+Tree format if so configured.
+     */
+    private CompletableFuture<ManagedAttributeIndex> createIndex(SegmentMetadata sm, Duration timeout) {
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        return BTreeAttributeIndex
+                .isBTreeFormat(sm.getName(), this.config.isBtreeIndexEnabled(), this.storage, this.executor, timer.getRemaining())
+                .thenComposeAsync(isBTree -> {
+                    ManagedAttributeIndex index = isBTree
+                            ? new BTreeAttributeIndex(sm, this.storage, this.cache, this.config, this.executor)
+                            : new SegmentAttributeIndex(sm, this.storage, this.operationLog, this.cache, this.config, this.executor);
+                    return index.initialize(timer.getRemaining()).thenApply(v -> index);
+                }, this.executor);
+    }
+
     private void indexInitializationFailed(long streamSegmentId, CompletableFuture<AttributeIndex> result, Throwable ex) {
         synchronized (this.attributeIndices) {
             this.attributeIndices.remove(streamSegmentId);
@@ -184,16 +200,16 @@ class ContainerAttributeIndexImpl implements ContainerAttributeIndex {
                 if (Futures.isSuccessful(indexFuture)) {
                     // Already initialized. We should try as much as we can to clean up synchronously to prevent concurrent
                     // calls from creating new indices which could be affected by us cleaning the cache at the same time.
-                    closeIndex((SegmentAttributeIndex) indexFuture.join(), cleanCache);
+                    closeIndex((ManagedAttributeIndex) indexFuture.join(), cleanCache);
                 } else {
                     // Close it when we're done initializing.
-                    indexFuture.thenAcceptAsync(index -> closeIndex((SegmentAttributeIndex) index, cleanCache), this.executor);
+                    indexFuture.thenAcceptAsync(index -> closeIndex((ManagedAttributeIndex) index, cleanCache), this.executor);
                 }
             }
         }
     }
 
-    private void closeIndex(SegmentAttributeIndex ai, boolean cleanCache) {
+    private void closeIndex(ManagedAttributeIndex ai, boolean cleanCache) {
         this.cacheManager.unregister(ai);
         ai.close(cleanCache);
     }
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.attributes;
+
+import io.pravega.segmentstore.server.AttributeIndex;
+import io.pravega.segmentstore.server.CacheManager;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An Attribute Index for a single Segment, whose lifecycle is managed by a ContainerAttributeIndex.
+ */
+interface ManagedAttributeIndex extends AttributeIndex, CacheManager.Client, AutoCloseable {
+    /**
+     * Initializes the Attribute Index by inspecting the Attribute Segment and creating it if needed.
+     *
+     * @param timeout Timeout for the operation.
+     * @return A CompletableFuture that, when completed, will indicate the operation has succeeded.
+     */
+    CompletableFuture<Void> initialize(Duration timeout);
+
+    /**
+     * Closes the Attribute Index and optionally cleans the cache.
+     *
+     * @param cleanCache If true, the Cache will be cleaned up of all entries pertaining to this Index. If false, the
+     *                   Cache will not be touched.
+     */
+    void close(boolean cleanCache);
+
+    @Override
+    void close();
+}
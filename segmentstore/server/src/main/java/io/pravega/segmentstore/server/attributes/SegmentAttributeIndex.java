@@ -33,7 +33,7 @@ import io.pravega.segmentstore.contracts.StreamSegmentMergedException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.contracts.StreamSegmentTruncatedException;
-import io.pravega.segmentstore.server.AttributeIndex;
+import io.pravega.segmentstore.server.AttributeIterator;
 import io.pravega.segmentstore.server.CacheManager;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.OperationLog;
@@ -80,7 +80,7 @@ import lombok.extern.slf4j.Slf4j;
  * Attribute Index for a single Segment.
  */
 @Slf4j
-class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, AutoCloseable {
+class SegmentAttributeIndex implements ManagedAttributeIndex {
     //region Members
 
     /**
@@ -157,7 +157,8 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
      * @param timeout Timeout for the operation.
      * @return A CompletableFuture that, when completed, will indicate the operation has succeeded.
      */
-    CompletableFuture<Void> initialize(Duration timeout) {
+    @Override
+    public CompletableFuture<Void> initialize(Duration timeout) {
         TimeoutTimer timer = new TimeoutTimer(timeout);
         String attributeSegmentName = StreamSegmentNameUtils.getAttributeSegmentName(this.segmentMetadata.getName());
         Preconditions.checkState(this.attributeSegment.get() == null, "SegmentAttributeIndex is already initialized.");
@@ -211,7 +212,8 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
      * @param cleanCache If true, the Cache will be cleaned up of all entries pertaining to this Index. If false, the
      *                   Cache will not be touched.
      */
-    void close(boolean cleanCache) {
+    @Override
+    public void close(boolean cleanCache) {
         if (!this.closed.getAndSet(true)) {
             // Close storage reader (and thus cancel those reads).
             if (cleanCache) {
@@ -378,6 +380,33 @@ class SegmentAttributeIndex implements AttributeIndex, CacheManager.Client, Auto
                 null);
     }
 
+    @Override
+    public AttributeIterator iterator(UUID fromId, UUID toId, Duration fetchTimeout) {
+        ensureInitialized();
+        Preconditions.checkNotNull(fromId, "fromId");
+        Preconditions.checkNotNull(toId, "toId");
+
+        // The Attributes are not stored in any particular order, so we need to read all of them (since the last Snapshot)
+        // anyway. We return all those in the range as a single batch.
+        AtomicBoolean fetched = new AtomicBoolean();
+        return () -> {
+            if (fetched.getAndSet(true)) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return readAllSinceLastSnapshot(true, fetchTimeout)
+                    .thenApply(c -> {
+                        List<Map.Entry<UUID, Long>> result = c.attributes
+                                .entrySet().stream()
+                                .filter(e -> e.getValue() != Attributes.NULL_ATTRIBUTE_VALUE
+                                        && e.getKey().compareTo(fromId) >= 0 && e.getKey().compareTo(toId) <= 0)
+                                .sorted(Map.Entry.comparingByKey())
+                                .collect(Collectors.toList());
+                        return result.isEmpty() ? null : result;
+                    });
+        };
+    }
+
     //endregion
 
     //region Operations
@@ -0,0 +1,401 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Open-addressing hash map from Attribute Ids to Attribute values, which stores both the keys (as two longs) and the
+ * values as primitives. Along with its value, every Attribute keeps track of the last time it was used (updated or
+ * retrieved), which is used for deciding which Attributes to evict, and (optionally) the wall-clock time when it was last
+ * updated, which is used for expiring idle Attributes.
+ * <p>
+ * Updates are serialized using a StampedLock, while lookups are lock-free: they are executed optimistically and only
+ * retried under a read lock if they were concurrent with an update.
+ */
+@ThreadSafe
+class AttributeMap {
+    //region Members
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+    private final StampedLock lock = new StampedLock();
+    @GuardedBy("lock")
+    private Table table;
+    @GuardedBy("lock")
+    private int size;
+    @GuardedBy("lock")
+    private int removedCount;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new, empty instance of the AttributeMap class.
+     */
+    AttributeMap() {
+        this.table = new Table(INITIAL_CAPACITY);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets the number of Attributes in this map.
+     *
+     * @return The number of Attributes.
+     */
+    int size() {
+        long stamp = this.lock.tryOptimisticRead();
+        int result = this.size;
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                result = this.size;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the value of the given Attribute.
+     *
+     * @param attributeId The Attribute Id.
+     * @return The value of the Attribute, or null if not present.
+     */
+    Long get(UUID attributeId) {
+        return get(attributeId, false, 0);
+    }
+
+    /**
+     * Gets the value of the given Attribute and records that it has been used.
+     *
+     * @param attributeId The Attribute Id.
+     * @param lastUsed    The value to record as the last time the Attribute was used, if higher than the current one.
+     * @return The value of the Attribute, or null if not present.
+     */
+    Long getAndTouch(UUID attributeId, long lastUsed) {
+        return get(attributeId, true, lastUsed);
+    }
+
+    /**
+     * Sets the value of the given Attribute, without tracking its update time.
+     *
+     * @param attributeId The Attribute Id.
+     * @param value       The value to set.
+     * @param lastUsed    The value to record as the last time the Attribute was used.
+     */
+    void put(UUID attributeId, long value, long lastUsed) {
+        put(attributeId, value, lastUsed, 0);
+    }
+
+    /**
+     * Sets the value of the given Attribute.
+     *
+     * @param attributeId The Attribute Id.
+     * @param value       The value to set.
+     * @param lastUsed    The value to record as the last time the Attribute was used.
+     * @param lastUpdated The wall-clock time (in millis) to record as the last time the Attribute was updated, or 0 if
+     *                    the update time should not be tracked for this Attribute.
+     */
+    void put(UUID attributeId, long value, long lastUsed, long lastUpdated) {
+        long msb = attributeId.getMostSignificantBits();
+        long lsb = attributeId.getLeastSignificantBits();
+        long stamp = this.lock.writeLock();
+        try {
+            int slot = this.table.find(msb, lsb);
+            if (slot < 0) {
+                if ((this.size + this.removedCount + 1) * 4L > this.table.capacity() * 3L) {
+                    resize();
+                }
+
+                slot = this.table.findInsertionSlot(msb, lsb);
+                if (this.table.states[slot] == REMOVED) {
+                    this.removedCount--;
+                }
+
+                this.table.keys[2 * slot] = msb;
+                this.table.keys[2 * slot + 1] = lsb;
+                this.table.states[slot] = USED;
+                this.size++;
+            }
+
+            this.table.values[slot] = value;
+            this.table.lastUsed.set(slot, lastUsed);
+            this.table.lastUpdated[slot] = lastUpdated;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Evicts those Attributes that have a LastUsed value prior to the given cutoff, beginning with the least recently
+     * used ones, until either there are no more such Attributes or the map has no more than the given number of Attributes.
+     *
+     * @param maximumCount   The maximum number of Attributes to keep.
+     * @param lastUsedCutoff The cutoff value for LastUsed.
+     * @return The number of removed Attributes.
+     */
+    int evict(int maximumCount, long lastUsedCutoff) {
+        return evict(maximumCount, lastUsedCutoff, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as evict(int, long), but never evicts those Attributes that were updated at or after the given time. This allows
+     * keeping track of the update time of Attributes that are not yet eligible for expiration.
+     *
+     * @param maximumCount       The maximum number of Attributes to keep.
+     * @param lastUsedCutoff     The cutoff value for LastUsed.
+     * @param retainUpdatedSince The wall-clock time (in millis) at or after which updated Attributes are not evicted.
+     * @return The number of removed Attributes.
+     */
+    int evict(int maximumCount, long lastUsedCutoff, long retainUpdatedSince) {
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.size <= maximumCount) {
+                return 0;
+            }
+
+            List<Integer> candidates = new ArrayList<>();
+            for (int slot = 0; slot < this.table.capacity(); slot++) {
+                if (this.table.states[slot] == USED && this.table.lastUsed.get(slot) < lastUsedCutoff
+                        && this.table.lastUpdated[slot] < retainUpdatedSince) {
+                    candidates.add(slot);
+                }
+            }
+
+            candidates.sort(Comparator.comparingLong(this.table.lastUsed::get));
+            int count = 0;
+            for (int slot : candidates) {
+                if (this.size <= maximumCount) {
+                    break;
+                }
+
+                this.table.states[slot] = REMOVED;
+                this.size--;
+                this.removedCount++;
+                count++;
+            }
+
+            return count;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets the Ids of those Attributes whose update time is tracked and which have been updated at or after the given time.
+     *
+     * @param lastUpdatedCutoff The wall-clock time (in millis) at or after which the Attributes must have been last updated.
+     * @return A new Set containing the Ids of the matching Attributes.
+     */
+    Set<UUID> getUpdatedSince(long lastUpdatedCutoff) {
+        long stamp = this.lock.readLock();
+        try {
+            Set<UUID> result = new HashSet<>();
+            for (int slot = 0; slot < this.table.capacity(); slot++) {
+                long lastUpdated = this.table.lastUpdated[slot];
+                if (this.table.states[slot] == USED && lastUpdated > 0 && lastUpdated >= lastUpdatedCutoff) {
+                    result.add(new UUID(this.table.keys[2 * slot], this.table.keys[2 * slot + 1]));
+                }
+            }
+
+            return result;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Creates a copy of the contents of this map.
+     *
+     * @return A new Map with the same contents as this one.
+     */
+    Map<UUID, Long> snapshot() {
+        long stamp = this.lock.readLock();
+        try {
+            Map<UUID, Long> result = new HashMap<>(this.size * 2);
+            for (int slot = 0; slot < this.table.capacity(); slot++) {
+                if (this.table.states[slot] == USED) {
+                    result.put(new UUID(this.table.keys[2 * slot], this.table.keys[2 * slot + 1]), this.table.values[slot]);
+                }
+            }
+
+            return result;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private Long get(UUID attributeId, boolean touch, long lastUsed) {
+        long msb = attributeId.getMostSignificantBits();
+        long lsb = attributeId.getLeastSignificantBits();
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Table t = this.table;
+            int slot = t.find(msb, lsb);
+            long value = slot >= 0 ? t.values[slot] : 0;
+            if (this.lock.validate(stamp)) {
+                return getResult(t, slot, value, touch, lastUsed);
+            }
+        }
+
+        // We raced with an update. Try again while holding the read lock.
+        stamp = this.lock.readLock();
+        try {
+            int slot = this.table.find(msb, lsb);
+            return getResult(this.table, slot, slot >= 0 ? this.table.values[slot] : 0, touch, lastUsed);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    private Long getResult(Table t, int slot, long value, boolean touch, long lastUsed) {
+        if (slot < 0) {
+            return null;
+        }
+
+        if (touch) {
+            // This may race with updates, in which case the touch may be lost or applied to another Attribute. That only
+            // affects which Attributes are evicted first; it can never lower any Attribute's LastUsed value.
+            t.lastUsed.accumulateAndGet(slot, lastUsed, Math::max);
+        }
+
+        return value;
+    }
+
+    @GuardedBy("lock")
+    private void resize() {
+        Table old = this.table;
+        int capacity = INITIAL_CAPACITY;
+        while ((this.size + 1) * 2L > capacity) {
+            capacity *= 2;
+        }
+
+        Table newTable = new Table(capacity);
+        for (int slot = 0; slot < old.capacity(); slot++) {
+            if (old.states[slot] == USED) {
+                int newSlot = newTable.findInsertionSlot(old.keys[2 * slot], old.keys[2 * slot + 1]);
+                newTable.keys[2 * newSlot] = old.keys[2 * slot];
+                newTable.keys[2 * newSlot + 1] = old.keys[2 * slot + 1];
+                newTable.values[newSlot] = old.values[slot];
+                newTable.lastUsed.set(newSlot, old.lastUsed.get(slot));
+                newTable.lastUpdated[newSlot] = old.lastUpdated[slot];
+                newTable.states[newSlot] = USED;
+            }
+        }
+
+        this.table = newTable;
+        this.removedCount = 0;
+    }
+
+    //endregion
+
+    //region Table
+
+    /**
+     * Slot arrays, using linear probing. The capacity is always a power of two.
+     */
+    private static class Table {
+        final long[] keys;
+        final long[] values;
+        final AtomicLongArray lastUsed;
+        final long[] lastUpdated;
+        final byte[] states;
+
+        Table(int capacity) {
+            Preconditions.checkArgument(Integer.bitCount(capacity) == 1, "capacity must be a power of two.");
+            this.keys = new long[2 * capacity];
+            this.values = new long[capacity];
+            this.lastUsed = new AtomicLongArray(capacity);
+            this.lastUpdated = new long[capacity];
+            this.states = new byte[capacity];
+        }
+
+        int capacity() {
+            return this.states.length;
+        }
+
+        /**
+         * Finds the slot holding the given key. When invoked without holding the lock this may return a wrong result,
+         * but it always terminates and never fails.
+         */
+        int find(long msb, long lsb) {
+            int mask = capacity() - 1;
+            int slot = hash(msb, lsb) & mask;
+            for (int i = 0; i < capacity(); i++) {
+                byte state = this.states[slot];
+                if (state == EMPTY) {
+                    break;
+                } else if (state == USED && this.keys[2 * slot] == msb && this.keys[2 * slot + 1] == lsb) {
+                    return slot;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            return -1;
+        }
+
+        /**
+         * Finds the first empty or removed slot for the given key. There must not already be a slot for this key.
+         */
+        int findInsertionSlot(long msb, long lsb) {
+            int mask = capacity() - 1;
+            int slot = hash(msb, lsb) & mask;
+            while (this.states[slot] == USED) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+
+        private static int hash(long msb, long lsb) {
+            // MurmurHash3 finalizer; Attribute Ids often only differ in a few bits.
+            long h = msb * 31 + lsb;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+
+    //endregion
+}
@@ -29,6 +29,7 @@ public class ContainerConfig {
     public static final Property<Integer> MAX_ACTIVE_SEGMENT_COUNT = Property.named("maxActiveSegmentCount", 10000);
     public static final Property<Integer> MAX_CONCURRENT_SEGMENT_EVICTION_COUNT = Property.named("maxConcurrentSegmentEvictionCount", 250);
     public static final Property<Integer> MAX_CACHED_EXTENDED_ATTRIBUTE_COUNT = Property.named("maxCachedExtendedAttributeCount", 4096);
+    public static final Property<Integer> EXTENDED_ATTRIBUTE_EXPIRATION_SECONDS = Property.named("extendedAttributeExpirationSeconds", 0);
     private static final String COMPONENT_CODE = "containers";
 
     /**
@@ -55,6 +56,14 @@ public class ContainerConfig {
     @Getter
     private final int maxCachedExtendedAttributeCount;
 
+    /**
+     * The amount of time after which Extended Attributes (such as Writer Ids) that have not been updated are removed from
+     * their Segments. Once removed, a Writer reconnecting with the same Id will be treated as a new Writer (its previous
+     * Event Number is lost). A value of Duration.ZERO disables the expiration.
+     */
+    @Getter
+    private final Duration extendedAttributeExpiration;
+
     //endregion
 
     //region Constructor
@@ -86,6 +95,12 @@ public class ContainerConfig {
         if (this.maxCachedExtendedAttributeCount <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_CACHED_EXTENDED_ATTRIBUTE_COUNT));
         }
+
+        int extendedAttributeExpirationSeconds = properties.getInt(EXTENDED_ATTRIBUTE_EXPIRATION_SECONDS);
+        if (extendedAttributeExpirationSeconds < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", EXTENDED_ATTRIBUTE_EXPIRATION_SECONDS));
+        }
+        this.extendedAttributeExpiration = Duration.ofSeconds(extendedAttributeExpirationSeconds);
     }
 
     /**
@@ -23,6 +23,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -42,6 +43,7 @@ class MetadataCleaner extends AbstractThreadPoolService {
     private final EvictableMetadata metadata;
     private final AsyncMap<String, SegmentState> stateStore;
     private final Consumer<Collection<SegmentMetadata>> cleanupCallback;
+    private final Function<Long, CompletableFuture<Void>> attributeExpirationCallback;
     private final AtomicLong lastIterationSequenceNumber;
     private final CancellationToken stopToken;
     private final Object singleRunLock = new Object();
@@ -55,25 +57,33 @@ class MetadataCleaner extends AbstractThreadPoolService {
     /**
      * Creates a new instance of the MetadataCleaner class.
      *
-     * @param config          Container Configuration to use.
-     * @param metadata        An EvictableMetadata to operate on.
-     * @param stateStore      SegmentStateStore to serialize SegmentState in.
-     * @param cleanupCallback A callback to invoke every time cleanup happened.
-     * @param traceObjectId   An identifier to use for logging purposes. This will be included at the beginning of all
-     *                        log calls initiated by this Service.
-     * @param executor        The Executor to use for async callbacks and operations.
+     * @param config                      Container Configuration to use.
+     * @param metadata                    An EvictableMetadata to operate on.
+     * @param stateStore                  SegmentStateStore to serialize SegmentState in.
+     * @param cleanupCallback             A callback to invoke every time cleanup happened.
+     * @param attributeExpirationCallback A callback to invoke for removing idle Extended Attributes (see
+     *                                    ContainerConfig.getExtendedAttributeExpiration()). Its argument is the
+     *                                    wall-clock time (in millis) before which the Attributes must have been last
+     *                                    updated in order to be removed.
+     * @param traceObjectId               An identifier to use for logging purposes. This will be included at the
+     *                                    beginning of all log calls initiated by this Service.
+     * @param executor                    The Executor to use for async callbacks and operations.
      */
     MetadataCleaner(ContainerConfig config, EvictableMetadata metadata, AsyncMap<String, SegmentState> stateStore,
-                    Consumer<Collection<SegmentMetadata>> cleanupCallback, ScheduledExecutorService executor, String traceObjectId) {
+                    Consumer<Collection<SegmentMetadata>> cleanupCallback,
+                    Function<Long, CompletableFuture<Void>> attributeExpirationCallback,
+                    ScheduledExecutorService executor, String traceObjectId) {
         super(traceObjectId, executor);
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(stateStore, "stateStore");
         Preconditions.checkNotNull(cleanupCallback, "cleanupCallback");
+        Preconditions.checkNotNull(attributeExpirationCallback, "attributeExpirationCallback");
 
         this.config = config;
         this.metadata = metadata;
         this.stateStore = stateStore;
         this.cleanupCallback = cleanupCallback;
+        this.attributeExpirationCallback = attributeExpirationCallback;
         this.lastIterationSequenceNumber = new AtomicLong(metadata.getOperationSequenceNumber());
         this.stopToken = new CancellationToken();
     }
@@ -148,16 +158,30 @@ class MetadataCleaner extends AbstractThreadPoolService {
                 .map(sm -> this.stateStore.put(sm.getName(), new SegmentState(sm.getId(), sm), this.config.getSegmentMetadataExpiration()))
                 .collect(Collectors.toList());
 
+        // Expire idle Extended Attributes (if enabled). Those that are not yet idle enough must be kept in memory so we
+        // can keep track of when they were last updated.
+        long expirationMillis = this.config.getExtendedAttributeExpiration().toMillis();
+        long retainUpdatedSince = expirationMillis > 0 ? System.currentTimeMillis() - expirationMillis : Long.MAX_VALUE;
         return Futures
                 .allOf(cleanupTasks)
+                .thenComposeAsync(v -> expireAttributes(retainUpdatedSince), this.executor)
                 .thenRunAsync(() -> {
                     Collection<SegmentMetadata> evictedSegments = this.metadata.cleanup(cleanupCandidates, lastSeqNo);
                     this.cleanupCallback.accept(evictedSegments);
-                    int evictedAttributes = this.metadata.cleanupExtendedAttributes(0, lastSeqNo);
+                    int evictedAttributes = this.metadata.cleanupExtendedAttributes(0, lastSeqNo, retainUpdatedSince);
                     LoggerHelpers.traceLeave(log, this.traceObjectId, "metadataCleanup", traceId, evictedSegments.size(), evictedAttributes);
                 }, this.executor);
     }
 
+    private CompletableFuture<Void> expireAttributes(long lastUpdatedCutoff) {
+        if (lastUpdatedCutoff == Long.MAX_VALUE) {
+            // Expiration is disabled.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return this.attributeExpirationCallback.apply(lastUpdatedCutoff);
+    }
+
     private CompletableFuture<Void> delay() {
         val result = Futures.delayedFuture(this.config.getSegmentMetadataExpiration(), this.executor);
         this.stopToken.register(result);
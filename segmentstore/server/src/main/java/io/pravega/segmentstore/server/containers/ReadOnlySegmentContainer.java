@@ -28,6 +28,7 @@ import io.pravega.segmentstore.storage.StorageFactory;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -166,6 +167,11 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
         return unsupported("getAttributes");
     }
 
+    @Override
+    public CompletableFuture<SortedMap<UUID, Long>> getAttributeRange(String streamSegmentName, UUID fromId, UUID toId, int maxCount, Duration timeout) {
+        return unsupported("getAttributeRange");
+    }
+
     @Override
     public CompletableFuture<Void> createStreamSegment(String streamSegmentName, Collection<AttributeUpdate> attributes, Duration timeout) {
         return unsupported("createStreamSegment");
@@ -0,0 +1,663 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.TimeoutTimer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.AsyncMap;
+import io.pravega.common.util.BitConverter;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the Segment States of all the Segments in a Segment Container in a single, append-only Segment in Storage.
+ * <p>
+ * Every call to put() or remove() appends a record to the end of the table Segment, and an in-memory index keeps track
+ * of where the latest record for each Segment is located. As such, a call to get() is an index lookup followed by at
+ * most one read from Storage. The index is built by reading the whole table Segment the first time the table is used.
+ * Once most of the table Segment is made up of overwritten or removed records, the latest records are copied into a new
+ * Segment which then replaces the table Segment.
+ * <p>
+ * Segment States that have been stored by a {@link SegmentStateStore} (one State Segment per Segment) are still returned
+ * for Segments that have no record in the table, and they are deleted when the Segment's State is removed.
+ * <p>
+ * Expected concurrency behavior:
+ * <ul>
+ * <li> Calls to put() and remove() are applied one at a time, in the order in which they were invoked.
+ * <li> Calls to get() may run concurrently with each other and with calls to put() and remove().
+ * </ul>
+ */
+@Slf4j
+@ThreadSafe
+class SegmentStateTable implements AsyncMap<String, SegmentState> {
+    //region Members
+
+    private static final String COMPACTION_SUFFIX = "$compaction";
+    private static final long DEFAULT_MIN_COMPACTION_LENGTH = 4 * 1024 * 1024;
+    private static final Duration COMPACTION_TIMEOUT = Duration.ofSeconds(60);
+    private final String tableSegmentName;
+    private final String compactionSegmentName;
+    private final Storage storage;
+    private final AsyncMap<String, SegmentState> legacyStore;
+    private final long minCompactionLength;
+    private final Executor executor;
+    private final String traceObjectId;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final Map<String, IndexEntry> index;
+    @GuardedBy("lock")
+    private SegmentHandle handle;
+    @GuardedBy("lock")
+    private long length;
+    @GuardedBy("lock")
+    private long liveLength;
+    @GuardedBy("lock")
+    private long generation;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> loaded;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> lastUpdate;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> replacement;
+    @GuardedBy("lock")
+    private boolean compactionQueued;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SegmentStateTable class.
+     *
+     * @param containerId The Id of the Segment Container this table belongs to.
+     * @param storage     The Storage to use.
+     * @param executor    The Executor to use for asynchronous operations.
+     */
+    SegmentStateTable(int containerId, Storage storage, Executor executor) {
+        this(containerId, storage, DEFAULT_MIN_COMPACTION_LENGTH, executor);
+    }
+
+    /**
+     * Creates a new instance of the SegmentStateTable class.
+     *
+     * @param containerId         The Id of the Segment Container this table belongs to.
+     * @param storage             The Storage to use.
+     * @param minCompactionLength The minimum length of the table Segment before it is considered for compaction.
+     * @param executor            The Executor to use for asynchronous operations.
+     */
+    @VisibleForTesting
+    SegmentStateTable(int containerId, Storage storage, long minCompactionLength, Executor executor) {
+        Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkArgument(minCompactionLength >= 0, "minCompactionLength must be a non-negative number.");
+        this.tableSegmentName = StreamSegmentNameUtils.getStateTableSegmentName(containerId);
+        this.compactionSegmentName = this.tableSegmentName + COMPACTION_SUFFIX;
+        this.storage = storage;
+        this.legacyStore = new SegmentStateStore(storage, executor);
+        this.minCompactionLength = minCompactionLength;
+        this.executor = executor;
+        this.traceObjectId = String.format("SegmentStateTable[%d]", containerId);
+        this.index = new HashMap<>();
+        this.lastUpdate = CompletableFuture.completedFuture(null);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Loads the table from Storage, if not already loaded. Invoking this method is optional, as every other operation
+     * loads the table if needed, however it helps keep that cost off the first request after a Container starts.
+     *
+     * @param timeout Timeout for the operation.
+     * @return A CompletableFuture that will be completed when the table has been loaded.
+     */
+    CompletableFuture<Void> initialize(Duration timeout) {
+        return ensureLoaded(timeout);
+    }
+
+    //endregion
+
+    //region AsyncMap implementation
+
+    @Override
+    public CompletableFuture<SegmentState> get(String segmentName, Duration timeout) {
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        return ensureLoaded(timer.getRemaining())
+                .thenComposeAsync(v -> getFromTable(segmentName, timer), this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String segmentName, SegmentState state, Duration timeout) {
+        Preconditions.checkNotNull(state, "state");
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        byte[] record = serializeRecord(segmentName, state);
+        return update(() -> append(segmentName, record, false, timer), timer);
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(String segmentName, Duration timeout) {
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        byte[] record = serializeRecord(segmentName, null);
+        return update(() -> {
+            if (isIndexed(segmentName)) {
+                return append(segmentName, record, true, timer);
+            } else {
+                // There is nothing in the table that would need to be overridden.
+                return CompletableFuture.completedFuture(null);
+            }
+        }, timer).thenComposeAsync(v -> this.legacyStore.remove(segmentName, timer.getRemaining()), this.executor);
+    }
+
+    //endregion
+
+    //region Reading
+
+    private CompletableFuture<SegmentState> getFromTable(String segmentName, TimeoutTimer timer) {
+        IndexEntry entry;
+        SegmentHandle handle;
+        long generation;
+        CompletableFuture<Void> replacement;
+        synchronized (this.lock) {
+            entry = this.index.get(segmentName);
+            handle = this.handle;
+            generation = this.generation;
+            replacement = this.replacement;
+        }
+
+        if (replacement != null) {
+            // The table Segment is being replaced with its compacted version. Retry once that is done.
+            return replacement
+                    .handle((r, ex) -> (Void) null)
+                    .thenComposeAsync(v -> get(segmentName, timer.getRemaining()), this.executor);
+        } else if (entry == null) {
+            // The State may have been stored in its own State Segment before this table was used.
+            return this.legacyStore.get(segmentName, timer.getRemaining());
+        }
+
+        byte[] record = new byte[entry.length];
+        CompletableFuture<SegmentState> result = this.storage
+                .read(handle, entry.offset, record, 0, record.length, timer.getRemaining())
+                .thenApplyAsync(bytesRead -> deserializeState(segmentName, record, bytesRead), this.executor);
+        return Futures.exceptionallyCompose(result, ex -> {
+            if (isCurrent(generation)) {
+                return Futures.failedFuture(ex);
+            }
+
+            // The table Segment has been replaced or reloaded while we were reading from it.
+            return get(segmentName, timer.getRemaining());
+        });
+    }
+
+    private CompletableFuture<byte[]> readFully(SegmentHandle handle, long length, TimeoutTimer timer) {
+        if (length > Integer.MAX_VALUE) {
+            return Futures.failedFuture(new DataCorruptionException(String.format(
+                    "State Table Segment '%s' is too large (%d bytes).", handle.getSegmentName(), length)));
+        }
+
+        byte[] contents = new byte[(int) length];
+        AtomicInteger offset = new AtomicInteger();
+        return Futures.loop(
+                () -> offset.get() < contents.length,
+                () -> this.storage.read(handle, offset.get(), contents, offset.get(), contents.length - offset.get(), timer.getRemaining())
+                                  .thenAccept(offset::addAndGet),
+                this.executor)
+                      .thenApply(v -> contents);
+    }
+
+    //endregion
+
+    //region Updating
+
+    /**
+     * Executes the given update after all previously requested updates have completed.
+     *
+     * @param action A Supplier that, when invoked, will perform the update.
+     * @param timer  Timer for the operation.
+     * @return A CompletableFuture that will be completed when the update is done.
+     */
+    private CompletableFuture<Void> update(Supplier<CompletableFuture<Void>> action, TimeoutTimer timer) {
+        CompletableFuture<Void> result;
+        CompletableFuture<Void> completion;
+        synchronized (this.lock) {
+            result = this.lastUpdate
+                    .handle((r, ex) -> (Void) null)
+                    .thenComposeAsync(v -> ensureLoaded(timer.getRemaining()), this.executor)
+                    .thenComposeAsync(v -> action.get(), this.executor);
+
+            // The next update may only begin after we have reacted to the outcome of this one.
+            completion = result.handle((r, ex) -> {
+                if (ex != null) {
+                    // We do not know what made it to Storage; reload everything before the next operation.
+                    invalidate();
+                } else {
+                    queueCompactionIfNeeded();
+                }
+                return null;
+            });
+            this.lastUpdate = completion;
+        }
+
+        return completion.thenCompose(v -> result);
+    }
+
+    private CompletableFuture<Void> append(String segmentName, byte[] record, boolean isRemoval, TimeoutTimer timer) {
+        SegmentHandle handle;
+        long offset;
+        synchronized (this.lock) {
+            handle = this.handle;
+            offset = this.length;
+        }
+
+        return this.storage
+                .write(handle, offset, new ByteArrayInputStream(record), record.length, timer.getRemaining())
+                .thenRun(() -> {
+                    synchronized (this.lock) {
+                        IndexEntry previous = isRemoval
+                                ? this.index.remove(segmentName)
+                                : this.index.put(segmentName, new IndexEntry(offset, record.length));
+                        if (previous != null) {
+                            this.liveLength -= previous.length;
+                        }
+
+                        if (!isRemoval) {
+                            this.liveLength += record.length;
+                        }
+
+                        this.length += record.length;
+                    }
+                });
+    }
+
+    private boolean isIndexed(String segmentName) {
+        synchronized (this.lock) {
+            return this.index.containsKey(segmentName);
+        }
+    }
+
+    //endregion
+
+    //region Loading
+
+    private CompletableFuture<Void> ensureLoaded(Duration timeout) {
+        CompletableFuture<Void> result;
+        boolean load = false;
+        synchronized (this.lock) {
+            if (this.loaded == null) {
+                this.loaded = new CompletableFuture<>();
+                load = true;
+            }
+
+            result = this.loaded;
+        }
+
+        if (load) {
+            TimeoutTimer timer = new TimeoutTimer(timeout);
+            Futures.completeAfter(() -> load(timer), result);
+            Futures.exceptionListener(result, ex -> {
+                log.warn("{}: Unable to load from '{}'.", this.traceObjectId, this.tableSegmentName, ex);
+                synchronized (this.lock) {
+                    if (this.loaded == result) {
+                        this.loaded = null;
+                    }
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private CompletableFuture<Void> load(TimeoutTimer timer) {
+        return recoverCompaction(timer)
+                .thenComposeAsync(v -> Futures.exceptionallyExpecting(
+                        this.storage.create(this.tableSegmentName, SegmentRollingPolicy.NO_ROLLING, timer.getRemaining()),
+                        ex -> ex instanceof StreamSegmentExistsException, null), this.executor)
+                .thenComposeAsync(v -> this.storage.openWrite(this.tableSegmentName), this.executor)
+                .thenComposeAsync(handle -> this.storage
+                        .getStreamSegmentInfo(this.tableSegmentName, timer.getRemaining())
+                        .thenComposeAsync(info -> readFully(handle, info.getLength(), timer), this.executor)
+                        .thenApplyAsync(contents -> rebuildIndex(handle, contents), this.executor), this.executor)
+                .thenComposeAsync(hasPartialRecord -> {
+                    if (hasPartialRecord) {
+                        // The last write did not complete. Rewriting the table is the only way to get rid of it.
+                        log.info("{}: Found a partial record at the end of '{}'; compacting.", this.traceObjectId, this.tableSegmentName);
+                        return compact(timer);
+                    }
+
+                    return CompletableFuture.completedFuture(null);
+                }, this.executor);
+    }
+
+    /**
+     * Cleans up after a compaction that did not complete. If the table Segment had already been deleted (or emptied),
+     * the compacted Segment holds its contents and is moved back into it. Otherwise the table Segment is still intact
+     * and the compacted Segment is discarded.
+     */
+    private CompletableFuture<Void> recoverCompaction(TimeoutTimer timer) {
+        CompletableFuture<SegmentProperties> compactionInfo = getInfoIfExists(this.compactionSegmentName, timer);
+        CompletableFuture<SegmentProperties> tableInfo = getInfoIfExists(this.tableSegmentName, timer);
+        return CompletableFuture.allOf(compactionInfo, tableInfo)
+                .thenComposeAsync(v -> {
+                    SegmentProperties compaction = compactionInfo.join();
+                    SegmentProperties table = tableInfo.join();
+                    if (compaction == null) {
+                        return CompletableFuture.completedFuture(null);
+                    } else if (compaction.isSealed() && (table == null || table.getLength() == 0)) {
+                        log.info("{}: Completing interrupted compaction of '{}'.", this.traceObjectId, this.tableSegmentName);
+                        CompletableFuture<?> create = table == null
+                                ? this.storage.create(this.tableSegmentName, SegmentRollingPolicy.NO_ROLLING, timer.getRemaining())
+                                : CompletableFuture.completedFuture(null);
+                        return create
+                                .thenComposeAsync(v2 -> this.storage.openWrite(this.tableSegmentName), this.executor)
+                                .thenComposeAsync(handle -> this.storage.concat(handle, 0, this.compactionSegmentName, timer.getRemaining()),
+                                        this.executor);
+                    } else {
+                        log.info("{}: Discarding interrupted compaction of '{}'.", this.traceObjectId, this.tableSegmentName);
+                        return deleteIfExists(this.compactionSegmentName, timer);
+                    }
+                }, this.executor);
+    }
+
+    /**
+     * Rebuilds the index from the given contents of the table Segment.
+     *
+     * @param handle   A read-write handle to the table Segment.
+     * @param contents The contents of the table Segment.
+     * @return True if the table Segment ends with a partially written record, false otherwise.
+     */
+    private boolean rebuildIndex(SegmentHandle handle, byte[] contents) {
+        Map<String, IndexEntry> newIndex = new HashMap<>();
+        long newLiveLength = 0;
+        int offset = 0;
+        while (offset + Integer.BYTES <= contents.length) {
+            int recordLength = Integer.BYTES + BitConverter.readInt(contents, offset);
+            if (recordLength < Integer.BYTES || offset + recordLength > contents.length) {
+                break;
+            }
+
+            RecordHeader header = deserializeHeader(contents, offset, recordLength);
+            IndexEntry previous = header.isRemoval()
+                    ? newIndex.remove(header.segmentName)
+                    : newIndex.put(header.segmentName, new IndexEntry(offset, recordLength));
+            if (previous != null) {
+                newLiveLength -= previous.length;
+            }
+
+            if (!header.isRemoval()) {
+                newLiveLength += recordLength;
+            }
+
+            offset += recordLength;
+        }
+
+        synchronized (this.lock) {
+            this.handle = handle;
+            this.index.clear();
+            this.index.putAll(newIndex);
+            this.length = offset;
+            this.liveLength = newLiveLength;
+            this.generation++;
+        }
+
+        log.info("{}: Loaded {} Segment State(s) from '{}'.", this.traceObjectId, newIndex.size(), this.tableSegmentName);
+        return offset < contents.length;
+    }
+
+    private void invalidate() {
+        synchronized (this.lock) {
+            this.loaded = null;
+            this.generation++;
+        }
+    }
+
+    private boolean isCurrent(long generation) {
+        synchronized (this.lock) {
+            return this.generation == generation;
+        }
+    }
+
+    //endregion
+
+    //region Compaction
+
+    private void queueCompactionIfNeeded() {
+        synchronized (this.lock) {
+            if (this.compactionQueued || !needsCompaction()) {
+                return;
+            }
+
+            this.compactionQueued = true;
+        }
+
+        TimeoutTimer timer = new TimeoutTimer(COMPACTION_TIMEOUT);
+        Futures.exceptionListener(
+                update(() -> {
+                    boolean compact;
+                    synchronized (this.lock) {
+                        this.compactionQueued = false;
+                        compact = needsCompaction();
+                    }
+
+                    return compact ? compact(timer) : CompletableFuture.completedFuture(null);
+                }, timer),
+                ex -> log.warn("{}: Unable to compact '{}'.", this.traceObjectId, this.tableSegmentName, ex));
+    }
+
+    @GuardedBy("lock")
+    private boolean needsCompaction() {
+        // Compact when more than half of the table Segment is made up of overwritten or removed records.
+        return this.length >= this.minCompactionLength && this.liveLength * 2 < this.length;
+    }
+
+    /**
+     * Copies the latest record for every Segment into the compaction Segment, then replaces the table Segment with it.
+     */
+    private CompletableFuture<Void> compact(TimeoutTimer timer) {
+        SegmentHandle handle;
+        long length;
+        synchronized (this.lock) {
+            handle = this.handle;
+            length = this.length;
+        }
+
+        Map<String, IndexEntry> newIndex = new HashMap<>();
+        return readFully(handle, length, timer)
+                .thenApplyAsync(contents -> {
+                    ByteArrayOutputStream compacted = new ByteArrayOutputStream();
+                    synchronized (this.lock) {
+                        for (Map.Entry<String, IndexEntry> e : this.index.entrySet()) {
+                            IndexEntry entry = e.getValue();
+                            newIndex.put(e.getKey(), new IndexEntry(compacted.size(), entry.length));
+                            compacted.write(contents, (int) entry.offset, entry.length);
+                        }
+                    }
+
+                    return compacted.toByteArray();
+                }, this.executor)
+                .thenComposeAsync(compacted -> writeCompactionSegment(compacted, timer)
+                        .thenComposeAsync(v -> replaceTable(newIndex, compacted.length, timer), this.executor), this.executor);
+    }
+
+    private CompletableFuture<Void> writeCompactionSegment(byte[] contents, TimeoutTimer timer) {
+        return deleteIfExists(this.compactionSegmentName, timer)
+                .thenComposeAsync(v -> this.storage.create(this.compactionSegmentName, SegmentRollingPolicy.NO_ROLLING, timer.getRemaining()),
+                        this.executor)
+                .thenComposeAsync(v -> this.storage.openWrite(this.compactionSegmentName), this.executor)
+                .thenComposeAsync(handle -> {
+                    CompletableFuture<Void> write = contents.length == 0
+                            ? CompletableFuture.completedFuture(null)
+                            : this.storage.write(handle, 0, new ByteArrayInputStream(contents), contents.length, timer.getRemaining());
+                    return write.thenComposeAsync(v -> this.storage.seal(handle, timer.getRemaining()), this.executor);
+                }, this.executor);
+    }
+
+    private CompletableFuture<Void> replaceTable(Map<String, IndexEntry> newIndex, long newLength, TimeoutTimer timer) {
+        CompletableFuture<Void> replaced = new CompletableFuture<>();
+        SegmentHandle oldHandle;
+        synchronized (this.lock) {
+            this.replacement = replaced;
+            this.generation++;
+            oldHandle = this.handle;
+        }
+
+        // The table Segment cannot be rewritten in place, so it needs to be deleted and then re-created from the compaction
+        // Segment. If we crash in between, recoverCompaction() will pick up where we left off.
+        CompletableFuture<Void> result = this.storage
+                .delete(oldHandle, timer.getRemaining())
+                .thenComposeAsync(v -> this.storage.create(this.tableSegmentName, SegmentRollingPolicy.NO_ROLLING, timer.getRemaining()),
+                        this.executor)
+                .thenComposeAsync(v -> this.storage.openWrite(this.tableSegmentName), this.executor)
+                .thenComposeAsync(handle -> this.storage
+                        .concat(handle, 0, this.compactionSegmentName, timer.getRemaining())
+                        .thenRun(() -> {
+                            synchronized (this.lock) {
+                                this.handle = handle;
+                                this.index.clear();
+                                this.index.putAll(newIndex);
+                                this.length = newLength;
+                                this.liveLength = newLength;
+                            }
+                        }), this.executor);
+        result.whenComplete((r, ex) -> {
+            synchronized (this.lock) {
+                if (ex != null) {
+                    this.loaded = null;
+                    this.generation++;
+                }
+
+                this.replacement = null;
+            }
+
+            replaced.complete(null);
+            if (ex == null) {
+                log.info("{}: Compacted '{}' to {} bytes.", this.traceObjectId, this.tableSegmentName, newLength);
+            }
+        });
+        return result;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private CompletableFuture<SegmentProperties> getInfoIfExists(String segmentName, TimeoutTimer timer) {
+        return Futures.exceptionallyExpecting(
+                this.storage.getStreamSegmentInfo(segmentName, timer.getRemaining()),
+                ex -> ex instanceof StreamSegmentNotExistsException, null);
+    }
+
+    private CompletableFuture<Void> deleteIfExists(String segmentName, TimeoutTimer timer) {
+        return Futures.exceptionallyExpecting(
+                this.storage.openWrite(segmentName)
+                            .thenComposeAsync(handle -> this.storage.delete(handle, timer.getRemaining()), this.executor),
+                ex -> ex instanceof StreamSegmentNotExistsException, null);
+    }
+
+    /**
+     * Serializes a record. The format is: Payload Length (4 bytes), Segment Name (UTF), Has State (1 byte), followed
+     * by the serialized SegmentState if Has State is true. Records without a State indicate the State has been removed.
+     */
+    @SneakyThrows(IOException.class)
+    private byte[] serializeRecord(String segmentName, SegmentState state) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BitConverter.writeInt(stream, 0);
+        DataOutputStream output = new DataOutputStream(stream);
+        output.writeUTF(segmentName);
+        output.writeBoolean(state != null);
+        if (state != null) {
+            SegmentState.SERIALIZER.serialize(output, state);
+        }
+
+        output.flush();
+        byte[] record = stream.toByteArray();
+        BitConverter.writeInt(record, 0, record.length - Integer.BYTES);
+        return record;
+    }
+
+    private RecordHeader deserializeHeader(byte[] contents, int offset, int recordLength) {
+        try {
+            DataInputStream input = new DataInputStream(
+                    new ByteArrayInputStream(contents, offset + Integer.BYTES, recordLength - Integer.BYTES));
+            return new RecordHeader(input.readUTF(), input.readBoolean());
+        } catch (IOException ex) {
+            throw new CompletionException(new DataCorruptionException(
+                    String.format("Corrupted record at offset %d in State Table '%s'.", offset, this.tableSegmentName), ex));
+        }
+    }
+
+    private SegmentState deserializeState(String segmentName, byte[] record, int bytesRead) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(record, 0, bytesRead));
+            int payloadLength = input.readInt();
+            String recordSegmentName = input.readUTF();
+            if (bytesRead != record.length || payloadLength != record.length - Integer.BYTES
+                    || !recordSegmentName.equals(segmentName) || !input.readBoolean()) {
+                throw new CompletionException(new DataCorruptionException(String.format(
+                        "State Table '%s' does not contain the expected record for segment '%s'.", this.tableSegmentName, segmentName)));
+            }
+
+            return SegmentState.SERIALIZER.deserialize(input);
+        } catch (IOException ex) {
+            throw new CompletionException(new DataCorruptionException(String.format(
+                    "Corrupted record for segment '%s' in State Table '%s'.", segmentName, this.tableSegmentName), ex));
+        }
+    }
+
+    //endregion
+
+    //region IndexEntry and RecordHeader
+
+    /**
+     * Location of a record within the table Segment.
+     */
+    @RequiredArgsConstructor
+    private static class IndexEntry {
+        final long offset;
+        final int length;
+    }
+
+    @RequiredArgsConstructor
+    private static class RecordHeader {
+        final String segmentName;
+        final boolean hasState;
+
+        boolean isRemoval() {
+            return !this.hasState;
+        }
+    }
+
+    //endregion
+}
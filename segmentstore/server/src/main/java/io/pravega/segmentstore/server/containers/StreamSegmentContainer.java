@@ -18,7 +18,6 @@ import io.pravega.common.ObjectClosedException;
 import io.pravega.common.TimeoutTimer;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.concurrent.Services;
-import io.pravega.common.util.AsyncMap;
 import io.pravega.common.util.Retry;
 import io.pravega.common.util.Retry.RetryAndThrowConditionally;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
@@ -29,6 +28,7 @@ import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.server.AttributeIterator;
 import io.pravega.segmentstore.server.ContainerOfflineException;
 import io.pravega.segmentstore.server.IllegalContainerStateException;
 import io.pravega.segmentstore.server.OperationLog;
@@ -58,7 +58,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
@@ -77,6 +81,11 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     //region Members
     private static final RetryAndThrowConditionally CACHE_ATTRIBUTES_RETRY = Retry.withExpBackoff(50, 2, 10, 1000)
             .retryWhen(ex -> ex instanceof BadAttributeUpdateException);
+    private static final Duration STATE_TABLE_LOAD_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration ATTRIBUTE_EXPIRATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final int ATTRIBUTE_EXPIRATION_BATCH_SIZE = 1000;
+    private static final UUID FIRST_EXTENDED_ATTRIBUTE_ID = new UUID(Long.MIN_VALUE + 1, Long.MIN_VALUE);
+    private static final UUID LAST_EXTENDED_ATTRIBUTE_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
     protected final StreamSegmentContainerMetadata metadata;
     private final String traceObjectId;
     private final OperationLog durableLog;
@@ -84,12 +93,13 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     private final ContainerAttributeIndex attributeIndex;
     private final Writer writer;
     private final Storage storage;
-    private final AsyncMap<String, SegmentState> stateStore;
+    private final SegmentStateTable stateStore;
     private final StreamSegmentMapper segmentMapper;
     private final ScheduledExecutorService executor;
     private final MetadataCleaner metadataCleaner;
     private final AtomicBoolean closed;
     private final SegmentStoreMetrics.Container metrics;
+    private final long attributeTrackingStartMillis;
 
     //endregion
 
@@ -126,14 +136,15 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         this.attributeIndex = attributeIndexFactory.createContainerAttributeIndex(this.metadata, this.storage, this.durableLog);
         this.writer = writerFactory.createWriter(this.metadata, this.durableLog, this.readIndex, this.attributeIndex, this.storage);
         shutdownWhenStopped(this.writer, "Writer");
-        this.stateStore = new SegmentStateStore(this.storage, this.executor);
+        this.stateStore = new SegmentStateTable(streamSegmentContainerId, this.storage, this.executor);
         this.metadataCleaner = new MetadataCleaner(config, this.metadata, this.stateStore, this::notifyMetadataRemoved,
-                this.executor, this.traceObjectId);
+                this::expireIdleAttributes, this.executor, this.traceObjectId);
         shutdownWhenStopped(this.metadataCleaner, "MetadataCleaner");
         this.segmentMapper = new StreamSegmentMapper(this.metadata, this.durableLog, this.stateStore, this.metadataCleaner::runOnce,
                 this.storage, this.executor);
         this.metrics = new SegmentStoreMetrics.Container(streamSegmentContainerId);
         this.closed = new AtomicBoolean();
+        this.attributeTrackingStartMillis = System.currentTimeMillis();
     }
 
     //endregion
@@ -204,6 +215,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     private CompletableFuture<Void> startSecondaryServicesAsync() {
         this.storage.initialize(this.metadata.getContainerEpoch());
         return CompletableFuture.allOf(
+                this.stateStore.initialize(STATE_TABLE_LOAD_TIMEOUT),
                 Services.startAsync(this.metadataCleaner, this.executor),
                 Services.startAsync(this.writer, this.executor));
     }
@@ -349,6 +361,20 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                 });
     }
 
+    @Override
+    public CompletableFuture<SortedMap<UUID, Long>> getAttributeRange(String streamSegmentName, UUID fromId, UUID toId, int maxCount, Duration timeout) {
+        ensureRunning();
+        Preconditions.checkNotNull(fromId, "fromId");
+        Preconditions.checkNotNull(toId, "toId");
+        Preconditions.checkArgument(maxCount > 0, "maxCount must be a positive number.");
+
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        logRequest("getAttributeRange", streamSegmentName, fromId, toId, maxCount);
+        this.metrics.getAttributes();
+        return this.segmentMapper.getOrAssignStreamSegmentId(streamSegmentName, timer.getRemaining(),
+                streamSegmentId -> collectAttributeRange(this.metadata.getStreamSegmentMetadata(streamSegmentId), fromId, toId, maxCount, timer));
+    }
+
     @Override
     public CompletableFuture<ReadResult> read(String streamSegmentName, long offset, int maxLength, Duration timeout) {
         ensureRunning();
@@ -498,6 +524,12 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                 .thenApply(seqNo -> operation.get().getStreamSegmentOffset());
     }
 
+    @Override
+    public int getThrottlingDelayMillis(String streamSegmentName) {
+        // All Segments in a Container share its DurableLog, and hence its throttling.
+        return this.durableLog.getThrottlingDelayMillis();
+    }
+
     //endregion
 
     //region SegmentContainer Implementation
@@ -662,6 +694,70 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         });
     }
 
+    /**
+     * Collects the Extended Attributes of the given Segment whose Ids lie in the given range. The Attributes are fetched
+     * in batches from the Segment's Attribute Index, and each batch is overlaid with the values in the Segment Metadata
+     * for the same range of Ids (the Attribute Index is updated asynchronously, so those may be more recent).
+     *
+     * @param segmentMetadata The SegmentMetadata for the Segment to retrieve attribute values for.
+     * @param fromId          The first Attribute Id in the range (inclusive).
+     * @param toId            The last Attribute Id in the range (inclusive).
+     * @param maxCount        The maximum number of Attributes to collect.
+     * @param timer           Timer for the operation.
+     * @return A CompletableFuture that, when completed normally, will contain the first (at most) maxCount Attributes in
+     * the range, sorted by their Ids.
+     */
+    private CompletableFuture<SortedMap<UUID, Long>> collectAttributeRange(SegmentMetadata segmentMetadata, UUID fromId, UUID toId,
+                                                                           int maxCount, TimeoutTimer timer) {
+        // Cached Extended Attributes, including removed ones (with a value equal to Attributes.NULL_ATTRIBUTE_VALUE).
+        TreeMap<UUID, Long> metadataAttributes = new TreeMap<>();
+        segmentMetadata.getAttributes().forEach((attributeId, value) -> {
+            if (!Attributes.isCoreAttribute(attributeId) && attributeId.compareTo(fromId) >= 0 && attributeId.compareTo(toId) <= 0) {
+                metadataAttributes.put(attributeId, value);
+            }
+        });
+
+        TreeMap<UUID, Long> result = new TreeMap<>();
+        AtomicReference<UUID> lastCoveredId = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean();
+        return this.attributeIndex
+                .forSegment(segmentMetadata.getId(), timer.getRemaining())
+                .thenComposeAsync(idx -> {
+                    AttributeIterator iterator = idx.iterator(fromId, toId, timer.getRemaining());
+                    return Futures.loop(
+                            () -> !done.get() && result.size() < maxCount,
+                            () -> iterator.getNext().thenAccept(batch -> {
+                                // Each batch covers the Ids from the end of the previous one until its own last Id.
+                                UUID batchEndId = batch == null ? toId : batch.get(batch.size() - 1).getKey();
+                                if (batch != null) {
+                                    batch.forEach(e -> result.put(e.getKey(), e.getValue()));
+                                }
+
+                                NavigableMap<UUID, Long> overrides = lastCoveredId.get() == null
+                                        ? metadataAttributes.headMap(batchEndId, true)
+                                        : metadataAttributes.subMap(lastCoveredId.get(), false, batchEndId, true);
+                                overrides.forEach((attributeId, value) -> {
+                                    if (value == Attributes.NULL_ATTRIBUTE_VALUE) {
+                                        result.remove(attributeId);
+                                    } else {
+                                        result.put(attributeId, value);
+                                    }
+                                });
+
+                                lastCoveredId.set(batchEndId);
+                                done.set(batch == null);
+                            }),
+                            this.executor);
+                }, this.executor)
+                .thenApply(v -> {
+                    while (result.size() > maxCount) {
+                        result.pollLastEntry();
+                    }
+
+                    return result;
+                });
+    }
+
     /**
      * Callback that notifies eligible components that the given Segments' metadatas has been removed from the metadata,
      * regardless of the trigger (eviction or deletion).
@@ -676,6 +772,110 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         }
     }
 
+    /**
+     * Callback that removes the Extended Attributes that have not been updated since the given time from all the active
+     * Segments. Only the Attributes loaded in the Segment Metadata have their update times tracked; any Attribute found in
+     * the Segment's Attribute Index is considered idle unless the Metadata says otherwise. Attributes that are recovered
+     * or loaded into the Metadata count as updated at that time, so their expiration may be delayed by up to one
+     * expiration period after a restart. Segments that are not active are not inspected until they are activated again.
+     *
+     * @param lastUpdatedCutoff The wall-clock time (in millis) before which the Attributes must have been last updated in
+     *                          order to be removed.
+     * @return A CompletableFuture that will be completed when the operation is done. This future will never fail.
+     */
+    private CompletableFuture<Void> expireIdleAttributes(long lastUpdatedCutoff) {
+        if (lastUpdatedCutoff <= this.attributeTrackingStartMillis) {
+            // Update times are only tracked since this Container was created, so no Attribute can be known to be idle yet.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Map<Long, Set<UUID>> recentlyUpdated = this.metadata.getRecentlyUpdatedExtendedAttributes(lastUpdatedCutoff);
+        return Futures.allOf(recentlyUpdated
+                .entrySet().stream()
+                .map(e -> expireIdleSegmentAttributes(e.getKey(), e.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Scans the Extended Attributes of the given Segment in batches and removes all those that have not been recently
+     * updated.
+     *
+     * @param segmentId       The Id of the Segment to remove the Attributes from.
+     * @param recentlyUpdated The Ids of the Segment's Attributes that must be retained.
+     * @return A CompletableFuture that will be completed when the operation is done. This future will never fail.
+     */
+    private CompletableFuture<Void> expireIdleSegmentAttributes(long segmentId, Set<UUID> recentlyUpdated) {
+        SegmentMetadata segmentMetadata = this.metadata.getStreamSegmentMetadata(segmentId);
+        if (segmentMetadata == null) {
+            // The Segment has been evicted in the meantime.
+            return CompletableFuture.completedFuture(null);
+        }
+
+        AtomicReference<UUID> fromId = new AtomicReference<>(FIRST_EXTENDED_ATTRIBUTE_ID);
+        return Futures.loop(
+                () -> fromId.get() != null,
+                () -> collectAttributeRange(segmentMetadata, fromId.get(), LAST_EXTENDED_ATTRIBUTE_ID, ATTRIBUTE_EXPIRATION_BATCH_SIZE,
+                        new TimeoutTimer(ATTRIBUTE_EXPIRATION_TIMEOUT))
+                        .thenCompose(batch -> {
+                            fromId.set(batch.size() < ATTRIBUTE_EXPIRATION_BATCH_SIZE ? null : getNextAttributeId(batch.lastKey()));
+                            Map<UUID, Long> idleAttributes = new HashMap<>(batch);
+                            idleAttributes.keySet().removeAll(recentlyUpdated);
+                            return idleAttributes.isEmpty()
+                                    ? CompletableFuture.completedFuture(null)
+                                    : expireAttributes(segmentId, idleAttributes);
+                        }),
+                this.executor)
+                .exceptionally(ex -> {
+                    log.debug("{}: Unable to scan attributes for expiration for Segment {}: {}.",
+                            this.traceObjectId, segmentId, Exceptions.unwrap(ex).toString());
+                    return null;
+                });
+    }
+
+    /**
+     * Gets the Extended Attribute Id that immediately follows the given one.
+     *
+     * @param attributeId The Attribute Id.
+     * @return The next Attribute Id, or null if the given one is the last Extended Attribute Id.
+     */
+    private static UUID getNextAttributeId(UUID attributeId) {
+        if (attributeId.equals(LAST_EXTENDED_ATTRIBUTE_ID)) {
+            return null;
+        } else if (attributeId.getLeastSignificantBits() == Long.MAX_VALUE) {
+            return new UUID(attributeId.getMostSignificantBits() + 1, Long.MIN_VALUE);
+        } else {
+            return new UUID(attributeId.getMostSignificantBits(), attributeId.getLeastSignificantBits() + 1);
+        }
+    }
+
+    /**
+     * Removes the given idle Extended Attributes from a Segment. Each Attribute is only removed if it still
+     * has the given value; if any of them has been updated in the meantime, none are removed (they will be picked up
+     * again by a subsequent expiration, if still applicable).
+     *
+     * @param segmentId      The Id of the Segment to remove the Attributes from.
+     * @param idleAttributes A Map of Attribute Ids to their expected values.
+     * @return A CompletableFuture that will be completed when the operation is done. This future will never fail.
+     */
+    private CompletableFuture<Void> expireAttributes(long segmentId, Map<UUID, Long> idleAttributes) {
+        List<AttributeUpdate> updates = idleAttributes
+                .entrySet().stream()
+                .map(e -> new AttributeUpdate(e.getKey(), AttributeUpdateType.ReplaceIfEquals, Attributes.NULL_ATTRIBUTE_VALUE, e.getValue()))
+                .collect(Collectors.toList());
+        return this.durableLog
+                .add(new UpdateAttributesOperation(segmentId, updates), ATTRIBUTE_EXPIRATION_TIMEOUT)
+                .handle((r, ex) -> {
+                    if (ex != null) {
+                        log.debug("{}: Unable to expire {} attribute(s) for Segment {}: {}.",
+                                this.traceObjectId, updates.size(), segmentId, Exceptions.unwrap(ex).toString());
+                    } else {
+                        log.debug("{}: Expired {} attribute(s) for Segment {}.", this.traceObjectId, updates.size(), segmentId);
+                    }
+
+                    return null;
+                });
+    }
+
     private void ensureRunning() {
         Exceptions.checkNotClosed(this.closed.get(), this);
         if (state() != State.RUNNING) {
@@ -26,8 +26,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -288,7 +290,7 @@ public class StreamSegmentContainerMetadata implements UpdateableContainerMetada
     }
 
     @Override
-    public int cleanupExtendedAttributes(int maximumAttributeCount, long sequenceNumberCutoff) {
+    public int cleanupExtendedAttributes(int maximumAttributeCount, long sequenceNumberCutoff, long retainUpdatedSince) {
         ArrayList<StreamSegmentMetadata> metadatas;
         synchronized (this.lock) {
             metadatas = new ArrayList<>(this.metadataById.values());
@@ -297,13 +299,38 @@ public class StreamSegmentContainerMetadata implements UpdateableContainerMetada
         long adjustedCutoff = Math.min(sequenceNumberCutoff, this.lastTruncatedSequenceNumber.get());
         int count = 0;
         for (StreamSegmentMetadata sm : metadatas) {
-            count += sm.cleanupAttributes(maximumAttributeCount, adjustedCutoff);
+            count += sm.cleanupAttributes(maximumAttributeCount, adjustedCutoff, retainUpdatedSince);
         }
 
         log.info("{}: EvictedExtendedAttributes Count = {}", this.traceObjectId, count);
         return count;
     }
 
+    /**
+     * Gets the Ids of the Extended Attributes that have been updated at or after the given time, for all the
+     * Segments that can still accept updates (not sealed, deleted or merged).
+     *
+     * @param lastUpdatedCutoff The wall-clock time (in millis) at or after which the Extended Attributes must have been
+     *                          last updated.
+     * @return A Map of Segment Ids to the Ids of their recently updated Extended Attributes. Every Segment that can still
+     * accept updates is included, even if none of its Extended Attributes have been updated recently.
+     */
+    Map<Long, Set<UUID>> getRecentlyUpdatedExtendedAttributes(long lastUpdatedCutoff) {
+        ArrayList<StreamSegmentMetadata> metadatas;
+        synchronized (this.lock) {
+            metadatas = new ArrayList<>(this.metadataById.values());
+        }
+
+        Map<Long, Set<UUID>> result = new HashMap<>();
+        for (StreamSegmentMetadata sm : metadatas) {
+            if (!sm.isSealed() && !sm.isDeleted() && !sm.isMerged()) {
+                result.put(sm.getId(), sm.getRecentlyUpdatedAttributes(lastUpdatedCutoff));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Determines whether the Segment with given metadata can be evicted, based on the the given Sequence Number Threshold.
      *
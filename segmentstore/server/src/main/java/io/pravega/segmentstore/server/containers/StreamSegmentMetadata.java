@@ -18,18 +18,13 @@ import io.pravega.segmentstore.contracts.Attributes;
 import io.pravega.segmentstore.server.ContainerMetadata;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
-import java.util.AbstractMap;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
 
 /**
  * Metadata for a particular Stream Segment.
@@ -43,10 +38,8 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     private final String name;
     private final long streamSegmentId;
     private final int containerId;
-    @GuardedBy("this")
-    private final Map<UUID, Long> coreAttributes;
-    @GuardedBy("this")
-    private final Map<UUID, ExtendedAttributeValue> extendedAttributes;
+    private final AttributeMap coreAttributes;
+    private final AttributeMap extendedAttributes;
     @GuardedBy("this")
     private long storageLength;
     @GuardedBy("this")
@@ -63,8 +56,7 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     private boolean merged;
     @GuardedBy("this")
     private ImmutableDate lastModified;
-    @GuardedBy("this")
-    private long lastUsed;
+    private volatile long lastUsed;
     @GuardedBy("this")
     private boolean active;
 
@@ -96,8 +88,8 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
         this.startOffset = 0;
         this.storageLength = -1;
         this.length = -1;
-        this.coreAttributes = new HashMap<>();
-        this.extendedAttributes = new HashMap<>();
+        this.coreAttributes = new AttributeMap();
+        this.extendedAttributes = new AttributeMap();
         this.lastModified = new ImmutableDate();
         this.lastUsed = 0;
         this.active = true;
@@ -167,7 +159,7 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     }
 
     @Override
-    public synchronized Map<UUID, Long> getAttributes() {
+    public Map<UUID, Long> getAttributes() {
         return new AttributesView();
     }
 
@@ -254,11 +246,13 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
 
     @Override
     public synchronized void updateAttributes(Map<UUID, Long> attributes) {
+        long now = System.currentTimeMillis();
         attributes.forEach((id, value) -> {
             if (Attributes.isCoreAttribute(id)) {
-                this.coreAttributes.put(id, value);
+                this.coreAttributes.put(id, value, 0);
             } else {
-                this.extendedAttributes.put(id, new ExtendedAttributeValue(value));
+                // Removed Attributes have nothing to expire, so we do not track their update time.
+                this.extendedAttributes.put(id, value, this.lastUsed, value == Attributes.NULL_ATTRIBUTE_VALUE ? 0 : now);
             }
         });
     }
@@ -301,7 +295,7 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     }
 
     @Override
-    public synchronized long getLastUsed() {
+    public long getLastUsed() {
         return this.lastUsed;
     }
 
@@ -327,66 +321,39 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
      * @return The number of removed attributes.
      */
     synchronized int cleanupAttributes(int maximumAttributeCount, long lastUsedCutoff) {
-        if (this.extendedAttributes.size() <= maximumAttributeCount) {
-            // Haven't reached the limit yet.
-            return 0;
-        }
-
-        // Collect candidates and order them by lastUsed (oldest to newest).
-        val candidates = this.extendedAttributes.entrySet().stream()
-                                                .filter(e -> e.getValue().lastUsed < lastUsedCutoff)
-                                                .sorted(Comparator.comparingLong(e -> e.getValue().lastUsed))
-                                                .collect(Collectors.toList());
-
-        // Start evicting candidates, beginning from the oldest, until we have either evicted all of them or brought the
-        // total count to an acceptable limit.
-        int count = 0;
-        for (val e : candidates) {
-            if (this.extendedAttributes.size() <= maximumAttributeCount) {
-                break;
-            }
+        return cleanupAttributes(maximumAttributeCount, lastUsedCutoff, Long.MAX_VALUE);
+    }
 
-            this.extendedAttributes.remove(e.getKey());
-            count++;
+    /**
+     * Same as cleanupAttributes(int, long), but does not evict those Extended Attributes that have been updated at or
+     * after the given time. These need to be kept in memory until they are either updated again or are expired.
+     *
+     * @param maximumAttributeCount The maximum number of Extended Attributes per Segment. Cleanup will only be performed
+     *                              if there are at least this many Extended Attributes in memory.
+     * @param lastUsedCutoff        The cutoff value for LastUsed. Any Extended attributes with a value smaller than this
+     *                              will be removed.
+     * @param retainUpdatedSince    The wall-clock time (in millis) at or after which updated Extended Attributes will
+     *                              not be removed.
+     * @return The number of removed attributes.
+     */
+    synchronized int cleanupAttributes(int maximumAttributeCount, long lastUsedCutoff, long retainUpdatedSince) {
+        int count = this.extendedAttributes.evict(maximumAttributeCount, lastUsedCutoff, retainUpdatedSince);
+        if (count > 0) {
+            log.debug("{}: Evicted {} attribute(s).", this.traceObjectId, count);
         }
 
-        log.debug("{}: Evicted {} attribute(s).", this.traceObjectId, count);
         return count;
     }
 
-    //endregion
-
-    //region ExtendedAttributeValue
-
     /**
-     * Wrapper for the value of an Extended Attribute, which also keeps track of the last time this Attribute was used
-     * (updated or retrieved).
+     * Gets the Ids of those Extended Attributes that have been updated at or after the given time.
+     *
+     * @param lastUpdatedCutoff The wall-clock time (in millis) at or after which the Extended Attributes must have been
+     *                          last updated.
+     * @return A new Set containing the Ids of the recently updated Extended Attributes.
      */
-    private class ExtendedAttributeValue {
-        private final long value;
-
-        // We fetch the value from the SegmentMetadata's LastUsed field, which accurately keeps track of the Sequence Number
-        // of the last Operation that either touched this Segment or requested information about it.
-        @GuardedBy("StreamSegmentMetadata.this")
-        private long lastUsed;
-
-        ExtendedAttributeValue(long value) {
-            this.value = value;
-            this.lastUsed = StreamSegmentMetadata.this.getLastUsed();
-        }
-
-        @GuardedBy("StreamSegmentMetadata.this")
-        long getValueAndTouch() {
-            this.lastUsed = StreamSegmentMetadata.this.getLastUsed();
-            return this.value;
-        }
-
-        @Override
-        public String toString() {
-            synchronized (StreamSegmentMetadata.this) {
-                return String.format("%d (LastUsed=%d)", this.value, this.lastUsed);
-            }
-        }
+    synchronized Set<UUID> getRecentlyUpdatedAttributes(long lastUpdatedCutoff) {
+        return this.extendedAttributes.getUpdatedSince(lastUpdatedCutoff);
     }
 
     //endregion
@@ -399,70 +366,55 @@ public class StreamSegmentMetadata implements UpdateableSegmentMetadata {
     private class AttributesView implements Map<UUID, Long> {
         @Override
         public int size() {
-            synchronized (StreamSegmentMetadata.this) {
-                return coreAttributes.size() + extendedAttributes.size();
-            }
+            return coreAttributes.size() + extendedAttributes.size();
         }
 
         @Override
         public boolean isEmpty() {
-            synchronized (StreamSegmentMetadata.this) {
-                return coreAttributes.isEmpty() && extendedAttributes.isEmpty();
-            }
+            return size() == 0;
         }
 
         @Override
         public boolean containsKey(Object o) {
-            synchronized (StreamSegmentMetadata.this) {
-                return coreAttributes.containsKey(o) || extendedAttributes.containsKey(o);
-            }
+            return get(o) != null;
         }
 
         @Override
         public Long get(Object o) {
-            synchronized (StreamSegmentMetadata.this) {
-                Long result = coreAttributes.get(o);
-                if (result == null) {
-                    ExtendedAttributeValue r = extendedAttributes.get(o);
-                    if (r != null) {
-                        result = r.getValueAndTouch();
-                    }
-                }
-
-                return result;
+            if (!(o instanceof UUID)) {
+                return null;
+            }
+
+            UUID attributeId = (UUID) o;
+            if (Attributes.isCoreAttribute(attributeId)) {
+                return coreAttributes.get(attributeId);
+            } else {
+                return extendedAttributes.getAndTouch(attributeId, lastUsed);
             }
         }
 
         @Override
         public Set<UUID> keySet() {
-            synchronized (StreamSegmentMetadata.this) {
-                return CollectionHelpers.joinSets(coreAttributes.keySet(), extendedAttributes.keySet());
-            }
+            return CollectionHelpers.joinSets(coreAttributes.snapshot().keySet(), extendedAttributes.snapshot().keySet());
         }
 
         @Override
         public Collection<Long> values() {
-            synchronized (StreamSegmentMetadata.this) {
-                return CollectionHelpers.joinCollections(
-                        coreAttributes.values(), Callbacks::identity,
-                        extendedAttributes.values(), e -> e.value);
-            }
+            return CollectionHelpers.joinCollections(
+                    coreAttributes.snapshot().values(), Callbacks::identity,
+                    extendedAttributes.snapshot().values(), Callbacks::identity);
         }
 
         @Override
         public Set<Map.Entry<UUID, Long>> entrySet() {
-            synchronized (StreamSegmentMetadata.this) {
-                return CollectionHelpers.joinSets(
-                        coreAttributes.entrySet(), Callbacks::identity,
-                        extendedAttributes.entrySet(), e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue().value));
-            }
+            return CollectionHelpers.joinSets(
+                    coreAttributes.snapshot().entrySet(), Callbacks::identity,
+                    extendedAttributes.snapshot().entrySet(), Callbacks::identity);
         }
 
         @Override
         public String toString() {
-            synchronized (StreamSegmentMetadata.this) {
-                return String.format("Core: %s, Extended: %s", coreAttributes, extendedAttributes);
-            }
+            return String.format("Core: %s, Extended: %s", coreAttributes, extendedAttributes);
         }
 
         //region Unsupported Methods
@@ -28,6 +28,7 @@ import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
 import io.pravega.segmentstore.server.containers.StreamSegmentMetadata;
 import io.pravega.segmentstore.server.logs.operations.MergeSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.SegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
@@ -39,11 +40,13 @@ import io.pravega.segmentstore.server.logs.operations.UpdateAttributesOperation;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -57,6 +60,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
     // region Members
 
     private static final MetadataCheckpointSerializer METADATA_CHECKPOINT_SERIALIZER = new MetadataCheckpointSerializer();
+    private static final MetadataDeltaCheckpointSerializer METADATA_DELTA_CHECKPOINT_SERIALIZER = new MetadataDeltaCheckpointSerializer();
     private static final StorageCheckpointSerializer STORAGE_CHECKPOINT_SERIALIZER = new StorageCheckpointSerializer();
     /**
      * Pointer to the real (live) ContainerMetadata. Used when needing access to live information (such as Storage Info).
@@ -327,6 +331,9 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         if (operation instanceof MetadataCheckpointOperation) {
             // MetadataCheckpointOperations do not require preProcess and accept; they can be handled in a single stage.
             processMetadataOperation((MetadataCheckpointOperation) operation);
+        } else if (operation instanceof MetadataDeltaCheckpointOperation) {
+            // MetadataDeltaCheckpointOperations do not require preProcess and accept; they can be handled in a single stage.
+            processMetadataOperation((MetadataDeltaCheckpointOperation) operation);
         } else if (operation instanceof StorageMetadataCheckpointOperation) {
             // StorageMetadataCheckpointOperation do not require preProcess and accept; they can be handled in a single stage.
             processMetadataOperation((StorageMetadataCheckpointOperation) operation);
@@ -413,6 +420,35 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         }
     }
 
+    private void processMetadataOperation(MetadataDeltaCheckpointOperation operation) throws MetadataUpdateException {
+        try {
+            if (this.recoveryMode) {
+                // In Recovery Mode, we always begin from a (full) MetadataCheckpointOperation, so this contains the state of
+                // those Segments that changed since then. Applying it has the same effect as the Operations we have already
+                // processed, but it will also bring up to date those fields that are not updated using regular Operations
+                // (such as the Storage State).
+                log.info("{}: Recovering MetadataDeltaCheckpointOperation with SequenceNumber {}.", this.traceObjectId, operation.getSequenceNumber());
+                METADATA_DELTA_CHECKPOINT_SERIALIZER.deserialize(operation.getContents(), new DeltaCheckpoint(this, Collections.emptyList()));
+            } else {
+                // In non-Recovery Mode, we need to serialize the state of those Segments that have been used since the
+                // base checkpoint, as well as those that have pending changes in this transaction.
+                val toSerialize = new ArrayList<SegmentMetadata>();
+                this.baseMetadata.getAllStreamSegmentIds().stream()
+                                 .filter(segmentId -> !this.segmentUpdates.containsKey(segmentId))
+                                 .map(this.baseMetadata::getStreamSegmentMetadata)
+                                 .filter(sm -> sm.getLastUsed() > operation.getBaseSequenceNumber())
+                                 .forEach(toSerialize::add);
+                this.newSegments.values().stream()
+                                .filter(sm -> !this.segmentUpdates.containsKey(sm.getId()))
+                                .forEach(toSerialize::add);
+                toSerialize.addAll(this.segmentUpdates.values());
+                operation.setContents(METADATA_DELTA_CHECKPOINT_SERIALIZER.serialize(new DeltaCheckpoint(this, toSerialize)));
+            }
+        } catch (IOException ex) {
+            throw new MetadataUpdateException(this.containerId, "Unable to process MetadataDeltaCheckpointOperation " + operation, ex);
+        }
+    }
+
     private void processMetadataOperation(StorageMetadataCheckpointOperation operation) throws MetadataUpdateException {
         try {
             if (this.recoveryMode) {
@@ -665,7 +701,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
 
             // 5. Changed Segment Metadata.
             toSerialize.addAll(t.segmentUpdates.values());
-            output.writeCollection(toSerialize, this::writeSegmentMetadata00);
+            output.writeCollection(toSerialize, MetadataCheckpointSerializer::writeSegmentMetadata00);
         }
 
         private void read00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
@@ -677,7 +713,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
             input.readCollection(s -> readSegmentMetadata00(s, t));
         }
 
-        private void writeSegmentMetadata00(RevisionDataOutput output, SegmentMetadata sm) throws IOException {
+        private static void writeSegmentMetadata00(RevisionDataOutput output, SegmentMetadata sm) throws IOException {
             output.writeLong(sm.getId());
             output.writeUTF(sm.getName());
             output.writeLong(sm.getLength());
@@ -693,7 +729,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
             output.writeMap(Attributes.getCoreNonNullAttributes(sm.getAttributes()), RevisionDataOutput::writeUUID, RevisionDataOutput::writeLong);
         }
 
-        private UpdateableSegmentMetadata readSegmentMetadata00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
+        private static UpdateableSegmentMetadata readSegmentMetadata00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
             long segmentId = input.readLong();
             String name = input.readUTF();
 
@@ -732,4 +768,53 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
     }
 
     //endregion
+
+    //region MetadataDeltaCheckpointSerializer
+
+    /**
+     * The contents of a MetadataDeltaCheckpointOperation.
+     */
+    @RequiredArgsConstructor
+    private static class DeltaCheckpoint {
+        /**
+         * The transaction to serialize from or deserialize into.
+         */
+        private final ContainerMetadataUpdateTransaction transaction;
+        /**
+         * The Segments to serialize. Not used for deserialization.
+         */
+        private final Collection<SegmentMetadata> segments;
+    }
+
+    /**
+     * Serializes MetadataDeltaCheckpointOperation contents, using the same Segment Metadata format as MetadataCheckpointSerializer.
+     */
+    private static class MetadataDeltaCheckpointSerializer extends VersionedSerializer.Direct<DeltaCheckpoint> {
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(DeltaCheckpoint d, RevisionDataOutput output) throws IOException {
+            output.writeCompactInt(d.transaction.containerId);
+            output.writeCollection(d.segments, MetadataCheckpointSerializer::writeSegmentMetadata00);
+        }
+
+        private void read00(RevisionDataInput input, DeltaCheckpoint d) throws IOException {
+            ContainerMetadataUpdateTransaction t = d.transaction;
+            int containerId = input.readCompactInt();
+            if (t.containerId != containerId) {
+                throw new SerializationException(String.format("Invalid ContainerId. Expected '%d', actual '%d'.", t.containerId, containerId));
+            }
+
+            input.readCollection(s -> MetadataCheckpointSerializer.readSegmentMetadata00(s, t));
+        }
+    }
+
+    //endregion
 }
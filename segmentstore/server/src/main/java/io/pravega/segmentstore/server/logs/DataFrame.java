@@ -14,14 +14,19 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.io.BoundedInputStream;
 import io.pravega.common.io.SerializationException;
+import io.pravega.common.io.StreamHelpers;
 import io.pravega.common.util.ArrayView;
 import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.storage.LogAddress;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -38,6 +43,11 @@ public class DataFrame {
 
     static final int MIN_ENTRY_LENGTH_NEEDED = EntryHeader.HEADER_SIZE + 1;
     private static final byte CURRENT_VERSION = 0;
+    /**
+     * The first version that supports Frame Header flags. Frames are only written with this version if they require any
+     * of those flags (i.e., compression), so that uncompressed frames remain readable by older code.
+     */
+    private static final byte FLAGS_VERSION = 1;
     private final ByteArraySegment data;
     private WriteFrameHeader header;
     private ByteArraySegment contents;
@@ -259,6 +269,48 @@ public class DataFrame {
         }
     }
 
+    /**
+     * Creates a compressed version of this DataFrame. The contents of the frame (all its entries, including their headers)
+     * are compressed as a single block, prefixed by their uncompressed length, and the Frame Header is marked accordingly.
+     * The result is a new, sealed DataFrame backed by its own buffer; this DataFrame is not modified.
+     *
+     * @param deflater The Deflater to use. This will be reset before use and can be reused afterwards.
+     * @return The compressed DataFrame, or this DataFrame if it is empty or if compression would not reduce its length.
+     * @throws IllegalStateException If the DataFrame is not sealed.
+     */
+    DataFrame compress(Deflater deflater) {
+        Preconditions.checkState(isSealed(), "Cannot compress a non-sealed DataFrame.");
+        int contentLength = this.header.getContentLength();
+        if (contentLength == 0) {
+            return this;
+        }
+
+        // There is no point in keeping the compressed version unless it is shorter than the original one, so we cap the
+        // output buffer to the length of this frame; if the compressed contents do not fit, we give up.
+        byte[] result = new byte[getLength()];
+        int offset = FrameHeader.SERIALIZATION_LENGTH;
+        offset += BitConverter.writeInt(result, offset, contentLength);
+        deflater.reset();
+        deflater.setInput(this.contents.array(), this.contents.arrayOffset(), contentLength);
+        deflater.finish();
+        while (!deflater.finished() && offset < result.length) {
+            offset += deflater.deflate(result, offset, result.length - offset);
+        }
+
+        if (!deflater.finished() || offset >= result.length) {
+            return this;
+        }
+
+        DataFrame compressed = new DataFrame(new ByteArraySegment(result, 0, offset));
+        compressed.header.setVersion(FLAGS_VERSION);
+        compressed.header.setCompressed(true);
+        compressed.header.setContentLength(offset - FrameHeader.SERIALIZATION_LENGTH);
+        compressed.header.commit();
+        compressed.sealed = true;
+        compressed.address = this.address;
+        return compressed;
+    }
+
     /**
      * Calculates the number of bytes available in the frame for writing.
      */
@@ -294,9 +346,53 @@ public class DataFrame {
         }
 
         BoundedInputStream contents = new BoundedInputStream(source, header.getContentLength());
+        if (header.isCompressed()) {
+            // Frame Offsets for the entries of a compressed frame refer to their position within the uncompressed contents.
+            contents = decompress(contents, address);
+        }
+
         return new DataFrameEntryIterator(contents, address, ReadFrameHeader.SERIALIZATION_LENGTH);
     }
 
+    private static BoundedInputStream decompress(BoundedInputStream compressedContents, LogAddress address) throws IOException {
+        byte[] compressed = StreamHelpers.readAll(compressedContents, compressedContents.getBound());
+        if (compressed.length < Integer.BYTES) {
+            throw new SerializationException(String.format("Compressed DataFrame (%s) is too short (%d bytes).", address, compressed.length));
+        }
+
+        int uncompressedLength = BitConverter.readInt(compressed, 0);
+        if (uncompressedLength <= 0) {
+            throw new SerializationException(String.format("Compressed DataFrame (%s) has an invalid uncompressed length (%d).",
+                    address, uncompressedLength));
+        }
+
+        byte[] result = new byte[uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed, Integer.BYTES, compressed.length - Integer.BYTES);
+            int length = 0;
+            while (!inflater.finished() && length < result.length) {
+                int count = inflater.inflate(result, length, result.length - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                length += count;
+            }
+
+            if (!inflater.finished() || length != uncompressedLength) {
+                throw new SerializationException(String.format("Compressed DataFrame (%s) is corrupt. Expected %d bytes after " +
+                        "decompression, found %d.", address, uncompressedLength, length));
+            }
+        } catch (DataFormatException ex) {
+            throw new SerializationException(String.format("Compressed DataFrame (%s) is corrupt.", address), ex);
+        } finally {
+            inflater.end();
+        }
+
+        return new BoundedInputStream(new ByteArrayInputStream(result), result.length);
+    }
+
     //endregion
 
     //region EntryHeader
@@ -377,6 +473,7 @@ public class DataFrame {
      */
     private static abstract class FrameHeader {
         static final int SERIALIZATION_LENGTH = Byte.BYTES + Integer.BYTES + Byte.BYTES;
+        static final byte COMPRESSED_MASK = 1;
         /**
          * The serialization Version for the frame.
          */
@@ -385,24 +482,32 @@ public class DataFrame {
         private byte version;
 
         /**
-         * The length of the Frame's payload (contents), in bytes.
+         * The length of the Frame's payload (contents), in bytes. For compressed frames, this is the compressed length.
          */
         @Getter
         @Setter
         private int contentLength;
 
+        /**
+         * Whether the Frame's payload is compressed.
+         */
+        @Getter
+        @Setter
+        private boolean compressed;
+
         byte encodeFlags() {
-            // Placeholder method. Nothing to do yet.
-            return 0;
+            return isCompressed() ? COMPRESSED_MASK : 0;
         }
 
         void decodeFlags(byte flags, byte version) {
-            // Placeholder method. Nothing to do yet.
+            if (version >= FLAGS_VERSION) {
+                setCompressed((flags & COMPRESSED_MASK) == COMPRESSED_MASK);
+            }
         }
 
         @Override
         public String toString() {
-            return String.format("Version = %d, ContentLength = %d", getVersion(), getContentLength());
+            return String.format("Version = %d, ContentLength = %d, Compressed = %s", getVersion(), getContentLength(), isCompressed());
         }
     }
 
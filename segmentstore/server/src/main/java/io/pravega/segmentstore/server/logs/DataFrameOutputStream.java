@@ -17,6 +17,7 @@ import io.pravega.common.util.ByteArraySegment;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,7 @@ class DataFrameOutputStream extends OutputStream {
     @Getter
     private boolean closed;
     private final BufferFactory bufferFactory;
+    private final Deflater deflater;
 
     //endregion
 
@@ -51,11 +53,26 @@ class DataFrameOutputStream extends OutputStream {
      * @throws NullPointerException     If any of the arguments are null.
      */
     DataFrameOutputStream(int maxDataFrameSize, Consumer<DataFrame> dataFrameCompleteCallback) {
+        this(maxDataFrameSize, false, dataFrameCompleteCallback);
+    }
+
+    /**
+     * Creates a new instance of the DataFrameOutputStream class.
+     *
+     * @param maxDataFrameSize          The maximum size, in bytes, of a Data Frame.
+     * @param compress                  If true, every Data Frame will be compressed before being passed on to the
+     *                                  dataFrameCompleteCallback, if doing so reduces its length.
+     * @param dataFrameCompleteCallback A callback that will be invoked when a Data Frame is full.
+     * @throws IllegalArgumentException If maxDataFrameSize is not a positive integer.
+     * @throws NullPointerException     If any of the arguments are null.
+     */
+    DataFrameOutputStream(int maxDataFrameSize, boolean compress, Consumer<DataFrame> dataFrameCompleteCallback) {
         Exceptions.checkArgument(maxDataFrameSize > DataFrame.MIN_ENTRY_LENGTH_NEEDED, "maxDataFrameSize",
                 "Must be a at least %s.", DataFrame.MIN_ENTRY_LENGTH_NEEDED);
 
         this.bufferFactory = new BufferFactory(maxDataFrameSize);
         this.dataFrameCompleteCallback = Preconditions.checkNotNull(dataFrameCompleteCallback, "dataFrameCompleteCallback");
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
     }
 
     //endregion
@@ -133,8 +150,10 @@ class DataFrameOutputStream extends OutputStream {
         // Invoke the callback. At the end of this, the frame is committed so we can get rid of it.
         if (!this.currentFrame.isEmpty()) {
             // Only flush something if it's not empty.
+            // The buffer is used up to the uncompressed length; the compressed frame (if any) has its own buffer.
             this.bufferFactory.markUsed(this.currentFrame.getLength());
-            this.dataFrameCompleteCallback.accept(this.currentFrame);
+            DataFrame frame = this.deflater == null ? this.currentFrame : this.currentFrame.compress(this.deflater);
+            this.dataFrameCompleteCallback.accept(frame);
         }
 
         reset();
@@ -146,6 +165,9 @@ class DataFrameOutputStream extends OutputStream {
         if (!this.closed) {
             this.closed = true;
             this.currentFrame = null;
+            if (this.deflater != null) {
+                this.deflater.end();
+            }
         }
     }
 
@@ -29,6 +29,7 @@ import io.pravega.segmentstore.server.OperationLog;
 import io.pravega.segmentstore.server.ReadIndex;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.ProbeOperation;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
@@ -47,6 +48,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
@@ -76,6 +78,8 @@ public class DurableLog extends AbstractService implements OperationLog {
     private final AtomicBoolean closed;
     private final CompletableFuture<Void> delayedStart;
     private final Retry.RetryAndThrowConditionally delayedStartRetry;
+    private final int checkpointFullInterval;
+    private final AtomicInteger checkpointCount;
 
     //endregion
 
@@ -104,8 +108,11 @@ public class DurableLog extends AbstractService implements OperationLog {
         this.traceObjectId = String.format("DurableLog[%s]", metadata.getContainerId());
         this.inMemoryOperationLog = createInMemoryLog();
         this.memoryStateUpdater = new MemoryStateUpdater(this.inMemoryOperationLog, readIndex, this::triggerTailReads);
+        this.checkpointFullInterval = config.getCheckpointFullInterval();
+        this.checkpointCount = new AtomicInteger();
         MetadataCheckpointPolicy checkpointPolicy = new MetadataCheckpointPolicy(config, this::queueMetadataCheckpoint, this.executor);
-        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, executor);
+        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy,
+                config.isDataFrameCompression(), executor);
         Services.onStop(this.operationProcessor, this::queueStoppedHandler, this::queueFailedHandler, this.executor);
         this.tailReads = new HashSet<>();
         this.closed = new AtomicBoolean();
@@ -392,6 +399,11 @@ public class DurableLog extends AbstractService implements OperationLog {
         return this.delayedStart;
     }
 
+    @Override
+    public int getThrottlingDelayMillis() {
+        return this.operationProcessor.getThrottlingDelayMillis();
+    }
+
     //endregion
 
     //region Helpers
@@ -422,10 +434,21 @@ public class DurableLog extends AbstractService implements OperationLog {
     }
 
     private CompletableFuture<Void> queueMetadataCheckpoint() {
-        log.info("{}: MetadataCheckpointOperation queued.", this.traceObjectId);
+        // Every few checkpoints (including the first one) we need a full one, which can be used as a Truncation Point.
+        // The others only need to include whatever changed since the last full one.
+        Operation checkpoint;
+        if (this.checkpointCount.getAndUpdate(c -> (c + 1) % this.checkpointFullInterval) == 0) {
+            checkpoint = new MetadataCheckpointOperation();
+        } else {
+            long baseSequenceNumber = this.metadata.getClosestValidTruncationPoint(this.metadata.getOperationSequenceNumber());
+            checkpoint = new MetadataDeltaCheckpointOperation(baseSequenceNumber);
+        }
+
+        String checkpointType = checkpoint.getClass().getSimpleName();
+        log.info("{}: {} queued.", this.traceObjectId, checkpointType);
         return this.operationProcessor
-                .process(new MetadataCheckpointOperation())
-                .thenAccept(seqNo -> log.info("{}: MetadataCheckpointOperation durably stored.", this.traceObjectId));
+                .process(checkpoint)
+                .thenAccept(seqNo -> log.info("{}: {} durably stored.", this.traceObjectId, checkpointType));
     }
 
     private void unregisterTailRead(TailRead tailRead) {
@@ -25,6 +25,8 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_MIN_COMMIT_COUNT = Property.named("checkpointMinCommitCount", 300);
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpointCommitCountThreshold", 300);
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpointTotalCommitLengthThreshold", 256 * 1024 * 1024L);
+    public static final Property<Integer> CHECKPOINT_FULL_INTERVAL = Property.named("checkpointFullInterval", 1);
+    public static final Property<Boolean> DATA_FRAME_COMPRESSION = Property.named("dataFrameCompression", false);
     public static final Property<Integer> START_RETRY_DELAY_MILLIS = Property.named("startRetryDelayMillis", 60 * 1000);
     private static final String COMPONENT_CODE = "durablelog";
 
@@ -50,6 +52,21 @@ public class DurableLogConfig {
     @Getter
     private final long checkpointTotalCommitLengthThreshold;
 
+    /**
+     * One in every this many Checkpoints is a full one (which contains all the Segments in the Metadata and is a valid
+     * Truncation Point). All the others are delta Checkpoints, which only contain the Segments that changed since the last
+     * full one. A value of 1 disables delta Checkpoints.
+     */
+    @Getter
+    private final int checkpointFullInterval;
+
+    /**
+     * Whether to compress DataFrames before writing them to the DurableDataLog. Compressed DataFrames are decompressed
+     * transparently upon reading, regardless of this setting.
+     */
+    @Getter
+    private final boolean dataFrameCompression;
+
     /**
      * The amount of time to wait between consecutive start attempts in case of retryable startup failure (i.e., offline).
      */
@@ -75,6 +92,12 @@ public class DurableLogConfig {
         }
 
         this.checkpointTotalCommitLengthThreshold = properties.getLong(CHECKPOINT_TOTAL_COMMIT_LENGTH);
+        this.checkpointFullInterval = properties.getInt(CHECKPOINT_FULL_INTERVAL);
+        if (this.checkpointFullInterval <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", CHECKPOINT_FULL_INTERVAL));
+        }
+
+        this.dataFrameCompression = properties.getBoolean(DATA_FRAME_COMPRESSION);
         int startRetryDelayMillis = properties.getInt(START_RETRY_DELAY_MILLIS);
         if (startRetryDelayMillis <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", START_RETRY_DELAY_MILLIS));
@@ -204,7 +204,8 @@ class OperationMetadataUpdater implements ContainerMetadata {
      * the pending UpdateTransaction and it is updated accordingly (if needed).
      *
      * If the given operation is a MetadataCheckpointOperation, the current state of the metadata (including pending
-     * UpdateTransactions) is serialized to it.
+     * UpdateTransactions) is serialized to it. If it is a MetadataDeltaCheckpointOperation, only the state of those
+     * Segments that changed since its base checkpoint is serialized to it.
      *
      * For all other kinds of MetadataOperations (i.e., StreamSegmentMapOperation) this method only
      * does anything if the base Container Metadata is in Recovery Mode (in which case the given MetadataOperation) is
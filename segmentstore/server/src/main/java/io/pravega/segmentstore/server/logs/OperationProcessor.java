@@ -71,6 +71,10 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     @Getter
     private final SegmentStoreMetrics.OperationProcessor metrics;
     private final ThrottlerCalculator throttlerCalculator;
+    /**
+     * The most recent delay applied because of throttling (excluding batching delays).
+     */
+    private volatile int throttlingDelayMillis;
 
     //endregion
 
@@ -83,10 +87,12 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
      * @param stateUpdater     A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
      * @param durableDataLog   The DataFrameLog to write DataFrames to.
      * @param checkpointPolicy The Checkpoint Policy for Metadata.
+     * @param compressFrames   Whether to compress DataFrames before writing them to the DataFrameLog.
      * @param executor         An Executor to use for async operations.
      * @throws NullPointerException If any of the arguments are null.
      */
-    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy, ScheduledExecutorService executor) {
+    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog,
+                       MetadataCheckpointPolicy checkpointPolicy, boolean compressFrames, ScheduledExecutorService executor) {
         super(String.format("OperationProcessor[%d]", metadata.getContainerId()), executor);
         Preconditions.checkNotNull(durableDataLog, "durableDataLog");
         this.metadata = metadata;
@@ -96,6 +102,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         this.commitQueue = new BlockingDrainingQueue<>();
         this.state = new QueueProcessingState(checkpointPolicy);
         val args = new DataFrameBuilder.Args(this.state::frameSealed, this.state::commit, this.state::fail, this.executor);
+        args.setCompress(compressFrames);
         this.dataFrameBuilder = new DataFrameBuilder<>(durableDataLog, OperationSerializer.DEFAULT, args);
         this.metrics = new SegmentStoreMetrics.OperationProcessor(this.metadata.getContainerId());
         this.throttlerCalculator = ThrottlerCalculator.builder()
@@ -107,6 +114,21 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
 
     //endregion
 
+    //region Properties
+
+    /**
+     * Gets the most recent delay applied because of throttling (excluding batching delays), or 0 if throttling is no
+     * longer required. The last applied delay is only retained while the conditions that caused it persist, otherwise
+     * an idle OperationProcessor (which does not recalculate it) would keep reporting it indefinitely.
+     *
+     * @return The delay, in milliseconds.
+     */
+    public int getThrottlingDelayMillis() {
+        return this.throttlerCalculator.isThrottlingRequired() ? this.throttlingDelayMillis : 0;
+    }
+
+    //endregion
+
     //region AbstractThreadPoolService Implementation
 
     @Override
@@ -249,6 +271,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
 
     private CompletableFuture<Void> throttleOnce(int millis, boolean max) {
         this.metrics.processingDelay(millis);
+        this.throttlingDelayMillis = this.throttlerCalculator.isThrottlingRequired() ? millis : 0;
         log.debug("{}: Processing delay = {}ms (max={}).", this.traceObjectId, millis, max);
         return Futures.delayedFuture(Duration.ofMillis(millis), this.executor);
     }
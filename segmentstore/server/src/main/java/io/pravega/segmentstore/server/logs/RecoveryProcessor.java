@@ -110,7 +110,8 @@ class RecoveryProcessor {
      * until the first MetadataCheckpointOperation is encountered. All Operations prior to this one are skipped over.
      * Recovery starts with the first MetadataCheckpointOperation and runs until the end of the DurableDataLog is reached.
      * Subsequent MetadataCheckpointOperations are ignored (as they contain redundant information - which has already
-     * been built up using the Operations up to them).
+     * been built up using the Operations up to them). MetadataDeltaCheckpointOperations cannot be used to start a recovery
+     * from; those encountered after the first MetadataCheckpointOperation are applied on top of it.
      *
      * @param metadataUpdater The OperationMetadataUpdater to use for updates.
      * @return The number of Operations recovered.
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs.operations;
+
+import lombok.Getter;
+
+/**
+ * Log Operation that contains a partial checkpoint of the Metadata at a particular point in time: only those Segments
+ * that have changed since a previous (full) MetadataCheckpointOperation are included. Unlike MetadataCheckpointOperations,
+ * these do not represent valid Truncation Points and cannot be used to start a recovery from.
+ */
+public class MetadataDeltaCheckpointOperation extends CheckpointOperationBase {
+    //region Members
+
+    /**
+     * The Sequence Number of the MetadataCheckpointOperation this checkpoint is based on. This is only needed when
+     * creating the checkpoint, hence it is not serialized.
+     */
+    @Getter
+    private final long baseSequenceNumber;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the MetadataDeltaCheckpointOperation class.
+     *
+     * @param baseSequenceNumber The Sequence Number of the MetadataCheckpointOperation this checkpoint is based on. All
+     *                           Segments that have been used after it will be included in this checkpoint.
+     */
+    public MetadataDeltaCheckpointOperation(long baseSequenceNumber) {
+        this.baseSequenceNumber = baseSequenceNumber;
+    }
+
+    /**
+     * Deserialization constructor.
+     */
+    private MetadataDeltaCheckpointOperation() {
+        this.baseSequenceNumber = NO_SEQUENCE_NUMBER;
+    }
+
+    //endregion
+
+    static class Serializer extends SerializerBase<MetadataDeltaCheckpointOperation> {
+        @Override
+        protected OperationBuilder<MetadataDeltaCheckpointOperation> newBuilder() {
+            return new OperationBuilder<>(new MetadataDeltaCheckpointOperation());
+        }
+    }
+}
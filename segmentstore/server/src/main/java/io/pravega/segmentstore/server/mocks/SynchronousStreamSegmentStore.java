@@ -17,6 +17,7 @@ import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -61,6 +62,13 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
         return result;
     }
 
+    @Override
+    public CompletableFuture<SortedMap<UUID, Long>> getAttributeRange(String streamSegmentName, UUID fromId, UUID toId, int maxCount, Duration timeout) {
+        CompletableFuture<SortedMap<UUID, Long>> result = impl.getAttributeRange(streamSegmentName, fromId, toId, maxCount, timeout);
+        Futures.await(result);
+        return result;
+    }
+
     @Override
     public CompletableFuture<ReadResult> read(String streamSegmentName, long offset, int maxLength, Duration timeout) {
         CompletableFuture<ReadResult> result = impl.read(streamSegmentName, offset, maxLength, timeout);
@@ -110,4 +118,9 @@ public class SynchronousStreamSegmentStore implements StreamSegmentStore {
         Futures.await(result);
         return result;
     }
+
+    @Override
+    public int getThrottlingDelayMillis(String streamSegmentName) {
+        return impl.getThrottlingDelayMillis(streamSegmentName);
+    }
 }
@@ -15,6 +15,7 @@ import io.pravega.common.util.ConfigurationException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import io.pravega.segmentstore.server.CachePolicy;
+import io.pravega.segmentstore.server.TransportPolicy;
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
 import java.time.Duration;
@@ -48,6 +49,18 @@ public class ServiceConfig {
     public static final Property<Long> CACHE_POLICY_MAX_SIZE = Property.named("cacheMaxSize", 16L * 1024 * 1024 * 1024);
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cacheMaxTimeSeconds", 30 * 60);
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cacheGenerationTimeSeconds", 5);
+    public static final Property<Boolean> TRANSPORT_NATIVE = Property.named("transportNative", true);
+    public static final Property<Boolean> TRANSPORT_POOLED_DIRECT_BUFFERS = Property.named("transportPooledDirectBuffers", false);
+    public static final Property<Integer> TRANSPORT_SOCKET_RECEIVE_BUFFER_SIZE = Property.named("transportSocketReceiveBufferSize", 0);
+    public static final Property<Integer> TRANSPORT_SOCKET_SEND_BUFFER_SIZE = Property.named("transportSocketSendBufferSize", 0);
+    public static final Property<Integer> TRANSPORT_WRITE_BUFFER_HIGH_WATER_MARK = Property.named("transportWriteBufferHighWaterMark", 64 * 1024);
+    public static final Property<Integer> TRANSPORT_WRITE_BUFFER_LOW_WATER_MARK = Property.named("transportWriteBufferLowWaterMark", 32 * 1024);
+    public static final Property<Integer> TRANSPORT_MAX_OUTSTANDING_BYTES = Property.named("transportMaxOutstandingBytes", 128 * 1024);
+    public static final Property<Integer> TRANSPORT_RESUME_OUTSTANDING_BYTES = Property.named("transportResumeOutstandingBytes", 64 * 1024);
+    public static final Property<Integer> TRANSPORT_MAX_IN_FLIGHT_BYTES = Property.named("transportMaxInFlightBytes", 1024 * 1024);
+    public static final Property<Integer> TRANSPORT_WRITER_CREDIT_BYTES = Property.named("transportWriterCreditBytes", 0);
+    public static final Property<Integer> HOT_SEGMENT_COUNT = Property.named("hotSegmentCount", 10);
+    public static final Property<Integer> HOT_SEGMENT_REPORTING_INTERVAL_SECONDS = Property.named("hotSegmentReportingIntervalSeconds", 60);
 
     public static final String COMPONENT_CODE = "pravegaservice";
 
@@ -61,6 +74,11 @@ public class ServiceConfig {
          */
         BOOKKEEPER,
 
+        /**
+         * DataLog is implemented by Files on the local file system. Only suitable for single-node deployments.
+         */
+        FILESYSTEM,
+
         /**
          * InMemory DataLog. Contents will be lost when the process exits.
          */
@@ -216,6 +234,25 @@ public class ServiceConfig {
     @Getter
     private final CachePolicy cachePolicy;
 
+    /**
+     * The TransportPolicy (for connections from Clients), as defined in this configuration.
+     */
+    @Getter
+    private final TransportPolicy transportPolicy;
+
+    /**
+     * The number of hottest Segments (by write and by read byte rate) to report for each Segment Container, or 0 to not
+     * track hot Segments at all.
+     */
+    @Getter
+    private final int hotSegmentCount;
+
+    /**
+     * The interval over which Segment byte rates are measured and after which the hottest Segments are reported.
+     */
+    @Getter
+    private final Duration hotSegmentReportingInterval;
+
     //endregion
 
     //region Constructor
@@ -267,6 +304,33 @@ public class ServiceConfig {
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
         this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofSeconds(cachePolicyMaxTime), Duration.ofSeconds(cachePolicyGenerationTime));
+        try {
+            this.transportPolicy = TransportPolicy.builder()
+                    .nativeTransport(properties.getBoolean(TRANSPORT_NATIVE))
+                    .pooledDirectBuffers(properties.getBoolean(TRANSPORT_POOLED_DIRECT_BUFFERS))
+                    .socketReceiveBufferSize(properties.getInt(TRANSPORT_SOCKET_RECEIVE_BUFFER_SIZE))
+                    .socketSendBufferSize(properties.getInt(TRANSPORT_SOCKET_SEND_BUFFER_SIZE))
+                    .writeBufferHighWaterMark(properties.getInt(TRANSPORT_WRITE_BUFFER_HIGH_WATER_MARK))
+                    .writeBufferLowWaterMark(properties.getInt(TRANSPORT_WRITE_BUFFER_LOW_WATER_MARK))
+                    .maxOutstandingBytes(properties.getInt(TRANSPORT_MAX_OUTSTANDING_BYTES))
+                    .resumeOutstandingBytes(properties.getInt(TRANSPORT_RESUME_OUTSTANDING_BYTES))
+                    .maxInFlightBytes(properties.getInt(TRANSPORT_MAX_IN_FLIGHT_BYTES))
+                    .writerCreditBytes(properties.getInt(TRANSPORT_WRITER_CREDIT_BYTES))
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            throw new ConfigurationException(String.format("Invalid transport configuration: %s", ex.getMessage()));
+        }
+
+        this.hotSegmentCount = properties.getInt(HOT_SEGMENT_COUNT);
+        if (this.hotSegmentCount < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", HOT_SEGMENT_COUNT));
+        }
+
+        int hotSegmentReportingIntervalSeconds = properties.getInt(HOT_SEGMENT_REPORTING_INTERVAL_SECONDS);
+        if (hotSegmentReportingIntervalSeconds <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", HOT_SEGMENT_REPORTING_INTERVAL_SECONDS));
+        }
+        this.hotSegmentReportingInterval = Duration.ofSeconds(hotSegmentReportingIntervalSeconds);
     }
 
     /**
@@ -23,6 +23,7 @@ import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -89,6 +90,14 @@ public class StreamSegmentService implements StreamSegmentStore {
                 "getAttributes", streamSegmentName, attributeIds);
     }
 
+    @Override
+    public CompletableFuture<SortedMap<UUID, Long>> getAttributeRange(String streamSegmentName, UUID fromId, UUID toId, int maxCount, Duration timeout) {
+        return invoke(
+                streamSegmentName,
+                container -> container.getAttributeRange(streamSegmentName, fromId, toId, maxCount, timeout),
+                "getAttributeRange", streamSegmentName, fromId, toId, maxCount);
+    }
+
     @Override
     public CompletableFuture<ReadResult> read(String streamSegmentName, long offset, int maxLength, Duration timeout) {
         return invoke(
@@ -145,6 +154,17 @@ public class StreamSegmentService implements StreamSegmentStore {
                 "truncateStreamSegment", streamSegmentName);
     }
 
+    @Override
+    public int getThrottlingDelayMillis(String streamSegmentName) {
+        try {
+            int containerId = this.segmentToContainerMapper.getContainerId(streamSegmentName);
+            return this.segmentContainerRegistry.getContainer(containerId).getThrottlingDelayMillis(streamSegmentName);
+        } catch (ContainerNotFoundException ex) {
+            // Appends to this Segment will be rejected anyway.
+            return 0;
+        }
+    }
+
     //endregion
 
     //region Helpers
@@ -18,6 +18,7 @@ import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.segmentstore.contracts.StreamSegmentMergedException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.contracts.StreamSegmentTruncatedException;
 import io.pravega.segmentstore.server.AttributeIndex;
 import io.pravega.segmentstore.server.CachePolicy;
 import io.pravega.segmentstore.server.MetadataBuilder;
@@ -47,6 +48,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -63,7 +65,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 /**
- * Unit tests for the ContainerAttributeIndex and SegmentAttributeIndex interfaces/classes.
+ * Unit tests for the ContainerAttributeIndex, SegmentAttributeIndex and BTreeAttributeIndex interfaces/classes.
  */
 public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
     private static final int CONTAINER_ID = 9999;
@@ -74,6 +76,11 @@ public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
             .builder()
             .with(AttributeIndexConfig.UPDATE_COUNT_THRESHOLD_SNAPSHOT, Integer.MAX_VALUE)
             .build();
+    private static final AttributeIndexConfig BTREE_CONFIG = AttributeIndexConfig
+            .builder()
+            .with(AttributeIndexConfig.BTREE_INDEX_ENABLED, true)
+            .with(AttributeIndexConfig.BTREE_MAX_PAGE_SIZE, 256)
+            .build();
 
     @Override
     protected int getThreadPoolSize() {
@@ -112,6 +119,169 @@ public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
         testRegularOperations(attributeCount, 17, 3, config, true);
     }
 
+    /**
+     * Tests the ability to record Attribute values successively using a B+Tree index that is several levels deep.
+     */
+    @Test
+    public void testBTreeRegularOperations() {
+        testRegularOperations(1000, 10, 5, BTREE_CONFIG, false);
+    }
+
+    /**
+     * Tests that the B+Tree index relocates its oldest pages and truncates the Attribute Segment once it accumulates
+     * enough obsolete pages.
+     */
+    @Test
+    public void testBTreeTruncation() {
+        final int attributeCount = 100;
+        final int updateCount = 1000;
+        val config = AttributeIndexConfig
+                .builder()
+                .with(AttributeIndexConfig.BTREE_INDEX_ENABLED, true)
+                .with(AttributeIndexConfig.BTREE_MAX_PAGE_SIZE, 256)
+                .with(AttributeIndexConfig.UPDATE_COUNT_THRESHOLD_SNAPSHOT, 1)
+                .with(AttributeIndexConfig.ATTRIBUTE_SEGMENT_ROLLING_SIZE, 10 * 1024)
+                .build();
+        @Cleanup
+        val context = new TestContext(config);
+        populateSegments(context);
+
+        val idx = (BTreeAttributeIndex) context.index.forSegment(SEGMENT_ID, TIMEOUT).join();
+        val expectedValues = new HashMap<UUID, Long>();
+        for (int i = 0; i < updateCount; i++) {
+            UUID attributeId = new UUID(0, i % attributeCount);
+            expectedValues.put(attributeId, (long) i);
+            idx.put(attributeId, (long) i, TIMEOUT).join();
+        }
+
+        // Only a small tail of the Attribute Segment should still be in use, and everything before it should be truncated.
+        val handle = idx.getAttributeSegmentHandle();
+        long length = context.storage.getStreamSegmentInfo(handle.getSegmentName(), TIMEOUT).join().getLength();
+        AssertExtensions.assertLessThan("Expected old pages to have been relocated.", length / 10, length - idx.getRoot().getMinOffset());
+        AssertExtensions.assertThrows(
+                "Expected the Attribute Segment to have been truncated.",
+                () -> context.storage.read(handle, 0, new byte[1], 0, 1, TIMEOUT),
+                ex -> ex instanceof StreamSegmentTruncatedException);
+        checkIndex(idx, expectedValues);
+
+        // Reload the index and verify it can still locate all the values.
+        context.index.cleanup(null);
+        checkIndex(context.index.forSegment(SEGMENT_ID, TIMEOUT).join(), expectedValues);
+    }
+
+    /**
+     * Tests that the B+Tree index merges the pages that removals leave less than half full.
+     */
+    @Test
+    public void testBTreeRemovals() {
+        final int attributeCount = 500;
+        final int batchSize = 50;
+        @Cleanup
+        val context = new TestContext(BTREE_CONFIG);
+        populateSegments(context);
+
+        val idx = (BTreeAttributeIndex) context.index.forSegment(SEGMENT_ID, TIMEOUT).join();
+        val expectedValues = new HashMap<UUID, Long>();
+        for (int i = 0; i < attributeCount; i++) {
+            expectedValues.put(new UUID(0, i), (long) i);
+        }
+
+        idx.put(expectedValues, TIMEOUT).join();
+
+        // Remove all but every 20th attribute, which leaves at most one attribute in every original Leaf Page.
+        val toRemove = expectedValues.keySet().stream()
+                                     .filter(id -> id.getLeastSignificantBits() % 20 != 0)
+                                     .sorted()
+                                     .collect(Collectors.toList());
+        for (int i = 0; i < toRemove.size(); i += batchSize) {
+            idx.remove(toRemove.subList(i, Math.min(i + batchSize, toRemove.size())), TIMEOUT).join();
+        }
+
+        toRemove.forEach(id -> expectedValues.put(id, Attributes.NULL_ATTRIBUTE_VALUE));
+        checkPagesHalfFull(context, idx, idx.getRoot(), true);
+        checkIndex(idx, expectedValues);
+        checkIterator(idx, expectedValues);
+    }
+
+    /**
+     * Tests that the B+Tree index can be recovered if an append to its Attribute Segment was only partially written.
+     */
+    @Test
+    public void testBTreeIncompleteAppend() {
+        @Cleanup
+        val context = new TestContext(BTREE_CONFIG);
+        populateSegments(context);
+
+        val idx = (BTreeAttributeIndex) context.index.forSegment(SEGMENT_ID, TIMEOUT).join();
+        val expectedValues = new HashMap<UUID, Long>();
+        for (int i = 0; i < 100; i++) {
+            expectedValues.put(new UUID(0, i), (long) i);
+        }
+
+        idx.put(expectedValues, TIMEOUT).join();
+
+        // Only write the first half of the next append (so its Footer is missing), then fail it.
+        context.storage.writeInterceptor = (streamSegmentName, offset, data, length, wrappedStorage) -> {
+            context.storage.writeInterceptor = null;
+            return context.storage.write(idx.getAttributeSegmentHandle(), offset, data, length / 2, TIMEOUT)
+                                  .thenCompose(v -> Futures.failedFuture(new IntentionalException()));
+        };
+
+        val newValues = Collections.singletonMap(new UUID(0, 1000), 1L);
+        AssertExtensions.assertThrows(
+                "Expected the partially written update to fail.",
+                () -> idx.put(newValues, TIMEOUT),
+                ex -> ex instanceof IntentionalException);
+
+        // Reload the index. It should ignore the incomplete append and accept new updates.
+        context.index.cleanup(null);
+        val idx2 = context.index.forSegment(SEGMENT_ID, TIMEOUT).join();
+        Assert.assertTrue("Expected the B+Tree format after reload.", idx2 instanceof BTreeAttributeIndex);
+        newValues.keySet().forEach(id -> expectedValues.put(id, Attributes.NULL_ATTRIBUTE_VALUE));
+        checkIndex(idx2, expectedValues);
+
+        idx2.put(newValues, TIMEOUT).join();
+        expectedValues.putAll(newValues);
+        context.index.cleanup(null);
+        checkIndex(context.index.forSegment(SEGMENT_ID, TIMEOUT).join(), expectedValues);
+    }
+
+    /**
+     * Tests that Attribute Segments keep being accessed using the format they were created with, regardless of configuration.
+     */
+    @Test
+    public void testBTreeFormatDetection() {
+        val legacyValues = Collections.singletonMap(new UUID(0, 1), 1L);
+        val btreeValues = Collections.singletonMap(new UUID(0, 2), 2L);
+        @Cleanup
+        val context = new TestContext(NO_SNAPSHOT_CONFIG);
+        populateSegments(context);
+        val btreeSegment = context.containerMetadata.mapStreamSegmentId(SEGMENT_NAME + "btree", SEGMENT_ID + 1);
+        btreeSegment.setLength(0);
+        btreeSegment.setStorageLength(0);
+
+        // Write to one Segment using the legacy format and to the other using the B+Tree format.
+        val legacyIdx = context.index.forSegment(SEGMENT_ID, TIMEOUT).join();
+        Assert.assertTrue("Expected the legacy format.", legacyIdx instanceof SegmentAttributeIndex);
+        legacyIdx.put(legacyValues, TIMEOUT).join();
+        @Cleanup
+        val btreeIndex = new ContainerAttributeIndexFactoryImpl(BTREE_CONFIG, context.cacheFactory, context.cacheManager, executorService())
+                .createContainerAttributeIndex(context.containerMetadata, context.storage, context.operationLog);
+        val btreeIdx = btreeIndex.forSegment(btreeSegment.getId(), TIMEOUT).join();
+        Assert.assertTrue("Expected the B+Tree format.", btreeIdx instanceof BTreeAttributeIndex);
+        btreeIdx.put(btreeValues, TIMEOUT).join();
+
+        // Reload both, using the opposite configuration for each.
+        context.index.cleanup(null);
+        btreeIndex.cleanup(null);
+        val legacyIdx2 = btreeIndex.forSegment(SEGMENT_ID, TIMEOUT).join();
+        Assert.assertTrue("Expected the legacy format after reload.", legacyIdx2 instanceof SegmentAttributeIndex);
+        checkIndex(legacyIdx2, legacyValues);
+        val btreeIdx2 = context.index.forSegment(btreeSegment.getId(), TIMEOUT).join();
+        Assert.assertTrue("Expected the B+Tree format after reload.", btreeIdx2 instanceof BTreeAttributeIndex);
+        checkIndex(btreeIdx2, btreeValues);
+    }
+
     /**
      * Tests the ability to process Cache Eviction signals and re-caching evicted values.
      */
@@ -607,6 +777,7 @@ public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
         storageRead.set(false);
         checkIndex(idx, expectedValues);
         Assert.assertFalse("Not expecting any storage reads.", storageRead.get());
+        checkIterator(idx, expectedValues);
 
         // 2. Reload index and verify it still has the correct values. This also forces a cache cleanup so we read data
         // directly from Storage.
@@ -615,11 +786,13 @@ public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
         storageRead.set(false);
         checkIndex(idx2, expectedValues);
         Assert.assertTrue("Expecting storage reads after reload.", storageRead.get());
+        checkIterator(idx2, expectedValues);
 
         // 3. Remove all values.
         idx2.remove(expectedValues.keySet(), TIMEOUT).join();
         expectedValues.replaceAll((key, v) -> Attributes.NULL_ATTRIBUTE_VALUE);
         checkIndex(idx2, expectedValues);
+        checkIterator(idx2, expectedValues);
     }
 
     private void checkIndex(AttributeIndex index, Map<UUID, Long> expectedValues) {
@@ -630,6 +803,66 @@ public class ContainerAttributeIndexTests extends ThreadPooledTestSuite {
         AssertExtensions.assertMapEquals("Unexpected attributes in index.", expected, actual);
     }
 
+    private void checkIterator(AttributeIndex index, Map<UUID, Long> expectedValues) {
+        val expected = new TreeMap<UUID, Long>();
+        expectedValues.entrySet().stream()
+                      .filter(e -> e.getValue() != Attributes.NULL_ATTRIBUTE_VALUE)
+                      .forEach(e -> expected.put(e.getKey(), e.getValue()));
+
+        // Full range.
+        checkRange(index, expected, new UUID(Long.MIN_VALUE, Long.MIN_VALUE), new UUID(Long.MAX_VALUE, Long.MAX_VALUE));
+        if (expected.isEmpty()) {
+            return;
+        }
+
+        // Partial ranges, with bounds that are existing Ids and bounds that are not.
+        val ids = new ArrayList<UUID>(expected.keySet());
+        UUID from = ids.get(ids.size() / 4);
+        UUID to = ids.get(ids.size() * 3 / 4);
+        checkRange(index, expected, from, to);
+        checkRange(index, expected, new UUID(from.getMostSignificantBits(), from.getLeastSignificantBits() + 1),
+                new UUID(to.getMostSignificantBits(), to.getLeastSignificantBits() - 1));
+        checkRange(index, expected, from, from);
+        checkRange(index, expected, to, from);
+    }
+
+    private void checkRange(AttributeIndex index, TreeMap<UUID, Long> expected, UUID fromId, UUID toId) {
+        val iterator = index.iterator(fromId, toId, TIMEOUT);
+        val actual = new ArrayList<Map.Entry<UUID, Long>>();
+        while (true) {
+            val batch = iterator.getNext().join();
+            if (batch == null) {
+                break;
+            }
+
+            Assert.assertFalse("Not expecting empty batches.", batch.isEmpty());
+            actual.addAll(batch);
+        }
+
+        val expectedRange = fromId.compareTo(toId) > 0
+                ? new ArrayList<Map.Entry<UUID, Long>>()
+                : new ArrayList<Map.Entry<UUID, Long>>(expected.subMap(fromId, true, toId, true).entrySet());
+        AssertExtensions.assertListEquals("Unexpected Attributes in range [" + fromId + ", " + toId + "].",
+                expectedRange, actual, Map.Entry::equals);
+    }
+
+    private void checkPagesHalfFull(TestContext context, BTreeAttributeIndex index, BTreePage.Pointer pointer, boolean isRoot) {
+        byte[] data = new byte[pointer.getLength()];
+        context.storage.read(index.getAttributeSegmentHandle(), pointer.getOffset(), data, 0, data.length, TIMEOUT).join();
+        val page = new BTreePage(data);
+        if (!isRoot) {
+            int entryLength = page.isIndex() ? BTreePage.INDEX_ENTRY_LENGTH : BTreePage.LEAF_ENTRY_LENGTH;
+            int maxEntries = (BTREE_CONFIG.getBtreeMaxPageSize() - BTreePage.HEADER_LENGTH) / entryLength;
+            AssertExtensions.assertGreaterThanOrEqual("Page is less than half full.", maxEntries / 2, page.getCount());
+        }
+
+        if (page.isIndex()) {
+            for (int pos = 0; pos < page.getCount(); pos++) {
+                checkPagesHalfFull(context, index, page.getChild(pos), false);
+            }
+        }
+    }
+
     private void populateSegments(TestContext context) {
         val sm = context.containerMetadata.mapStreamSegmentId(SEGMENT_NAME, SEGMENT_ID);
         sm.setLength(0);
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the AttributeMap class.
+ */
+public class AttributeMapTests {
+    private static final int ATTRIBUTE_COUNT = 1000;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(60);
+
+    /**
+     * Tests put(), get() and snapshot(), including growing the map.
+     */
+    @Test
+    public void testPutGet() {
+        val map = new AttributeMap();
+        val expected = new HashMap<UUID, Long>();
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            UUID id = new UUID(i % 7, i);
+            map.put(id, i, 0);
+            expected.put(id, (long) i);
+        }
+
+        // Overwrite some of them.
+        for (int i = 0; i < ATTRIBUTE_COUNT; i += 3) {
+            UUID id = new UUID(i % 7, i);
+            map.put(id, -i, 0);
+            expected.put(id, (long) -i);
+        }
+
+        Assert.assertEquals("Unexpected size.", expected.size(), map.size());
+        for (val e : expected.entrySet()) {
+            Assert.assertEquals("Unexpected value for " + e.getKey(), e.getValue(), map.get(e.getKey()));
+        }
+
+        Assert.assertNull("Not expecting a value for a missing key.", map.get(new UUID(0, ATTRIBUTE_COUNT + 1)));
+        AssertExtensions.assertMapEquals("Unexpected snapshot.", expected, map.snapshot());
+    }
+
+    /**
+     * Tests evict() and the effect getAndTouch() has on it.
+     */
+    @Test
+    public void testEvict() {
+        val map = new AttributeMap();
+        for (int i = 0; i < 10; i++) {
+            map.put(new UUID(0, i), i, i);
+        }
+
+        // Touching an attribute protects it from eviction.
+        map.getAndTouch(new UUID(0, 0), 100);
+        Assert.assertEquals("Not expecting eviction while under the limit.", 0, map.evict(10, 100));
+        Assert.assertEquals("Unexpected number of evicted attributes.", 4, map.evict(6, 8));
+        for (int i = 0; i < 10; i++) {
+            boolean expectEvicted = i >= 1 && i <= 4;
+            Assert.assertEquals("Unexpected eviction outcome for " + i, expectEvicted, map.get(new UUID(0, i)) == null);
+        }
+
+        // Only attributes older than the cutoff can be evicted.
+        Assert.assertEquals("Unexpected number of evicted attributes.", 3, map.evict(0, 8));
+        Assert.assertEquals("Unexpected size after eviction.", 3, map.size());
+
+        // Removed slots are reused.
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            map.put(new UUID(1, i), i, 0);
+        }
+
+        Assert.assertEquals("Unexpected size after re-insertion.", ATTRIBUTE_COUNT + 3, map.size());
+        Assert.assertEquals("Unexpected value after re-insertion.", 9L, (long) map.get(new UUID(0, 9)));
+    }
+
+    /**
+     * Tests getUpdatedSince() and the effect update times have on evict().
+     */
+    @Test
+    public void testUpdateTimes() {
+        val map = new AttributeMap();
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            // Every 10th attribute does not have its update time tracked.
+            map.put(new UUID(0, i), i, 0, i % 10 == 0 ? 0 : i);
+        }
+
+        // Resizing must preserve update times.
+        val recent = map.getUpdatedSince(ATTRIBUTE_COUNT / 2);
+        val expectedRecent = new HashSet<UUID>();
+        for (int i = ATTRIBUTE_COUNT / 2; i < ATTRIBUTE_COUNT; i++) {
+            if (i % 10 != 0) {
+                expectedRecent.add(new UUID(0, i));
+            }
+        }
+
+        Assert.assertEquals("Unexpected result from getUpdatedSince().", expectedRecent, recent);
+
+        // Updating an attribute (without a tracked update time) excludes it from the result.
+        map.put(new UUID(0, ATTRIBUTE_COUNT - 1), 1, 0);
+        Assert.assertFalse("Not expecting an attribute without an update time.",
+                map.getUpdatedSince(ATTRIBUTE_COUNT / 2).contains(new UUID(0, ATTRIBUTE_COUNT - 1)));
+        map.put(new UUID(0, ATTRIBUTE_COUNT - 1), ATTRIBUTE_COUNT - 1, 0, ATTRIBUTE_COUNT - 1);
+
+        // Recently updated attributes are not evicted.
+        int evicted = map.evict(0, 1, ATTRIBUTE_COUNT / 2);
+        Assert.assertEquals("Unexpected size after eviction.", ATTRIBUTE_COUNT - evicted, map.size());
+        for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+            boolean expectEvicted = i < ATTRIBUTE_COUNT / 2 || i % 10 == 0;
+            Assert.assertEquals("Unexpected eviction outcome for " + i, expectEvicted, map.get(new UUID(0, i)) == null);
+        }
+    }
+
+    /**
+     * Verifies that lock-free reads never observe a value that was never written, while writers keep growing the map.
+     */
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        final int writerCount = 4;
+        val map = new AttributeMap();
+        val failure = new AtomicReference<Throwable>();
+        val done = new CountDownLatch(writerCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            final int writerId = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < ATTRIBUTE_COUNT; i++) {
+                    // The value is always derived from the key, so readers can validate what they see.
+                    map.put(new UUID(writerId, i), writerId * ATTRIBUTE_COUNT + i, i);
+                }
+                done.countDown();
+            }));
+        }
+
+        threads.add(new Thread(() -> {
+            while (done.getCount() > 0 && failure.get() == null) {
+                for (int w = 0; w < writerCount; w++) {
+                    for (int i = 0; i < ATTRIBUTE_COUNT; i += 17) {
+                        Long value = map.getAndTouch(new UUID(w, i), i);
+                        if (value != null && value != w * ATTRIBUTE_COUNT + i) {
+                            failure.set(new AssertionError(String.format("Unexpected value %d for (%d, %d).", value, w, i)));
+                        }
+                    }
+                }
+            }
+        }));
+
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        Assert.assertNull("Unexpected failure.", failure.get());
+        Assert.assertEquals("Unexpected final size.", writerCount * ATTRIBUTE_COUNT, map.size());
+    }
+
+    /**
+     * Compares the AttributeMap with a synchronized HashMap, which is what the Segment Metadata used before, with many
+     * threads concurrently updating (and reading) the attributes of the same Segment. This is not a rigorous benchmark;
+     * it merely prints the results.
+     * Not a real unit test - to be used to judge performance of the AttributeMap. Long running test.
+     */
+    @Test
+    @Ignore
+    public void miniBenchmark() throws Exception {
+        final int threadCount = 8;
+        final int operationCount = 200000;
+        val map = new AttributeMap();
+        val hashMap = new HashMap<UUID, Long>();
+        long mapTime = timeOperations(threadCount, operationCount,
+                (id, value) -> map.put(id, value, value), map::get);
+        long hashMapTime = timeOperations(threadCount, operationCount,
+                (id, value) -> {
+                    synchronized (hashMap) {
+                        hashMap.put(id, value);
+                    }
+                },
+                id -> {
+                    synchronized (hashMap) {
+                        return hashMap.get(id);
+                    }
+                });
+
+        System.out.println(String.format("AttributeMap: %dms, synchronized HashMap: %dms (%d threads, %d operations each).",
+                mapTime, hashMapTime, threadCount, operationCount));
+        AssertExtensions.assertMapEquals("Unexpected final contents.", hashMap, map.snapshot());
+    }
+
+    private long timeOperations(int threadCount, int operationCount, BiConsumer<UUID, Long> put, Function<UUID, Long> get)
+            throws Exception {
+        val start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final UUID writerId = new UUID(t, t);
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+
+                // Every writer updates its own attribute (i.e., event number) and reads those of the other writers.
+                for (int i = 0; i < operationCount; i++) {
+                    put.accept(writerId, (long) i);
+                    get.apply(new UUID(i % threadCount, i % threadCount));
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Tests that snapshot() returns a copy which does not reflect later updates.
+     */
+    @Test
+    public void testSnapshotIsCopy() {
+        val map = new AttributeMap();
+        map.put(new UUID(0, 0), 1, 0);
+        Map<UUID, Long> snapshot = map.snapshot();
+        map.put(new UUID(0, 1), 2, 0);
+        Assert.assertEquals("Snapshot should not reflect later updates.", 1, snapshot.size());
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.common.util.AsyncMap;
+import io.pravega.segmentstore.contracts.StreamSegmentInformation;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the SegmentStateTable class.
+ */
+public class SegmentStateTableTests extends StateStoreTests {
+    private static final int CONTAINER_ID = 1;
+    private Storage storage;
+
+    @Before
+    public void setUp() {
+        this.storage = InMemoryStorageFactory.newStorage(executorService());
+        this.storage.initialize(1);
+    }
+
+    @Override
+    public int getThreadPoolSize() {
+        return 5;
+    }
+
+    @Override
+    protected AsyncMap<String, SegmentState> createStateStore() {
+        return new SegmentStateTable(CONTAINER_ID, this.storage, executorService());
+    }
+
+    /**
+     * Tests that a new instance of the table picks up the States written by a previous one.
+     */
+    @Test
+    public void testRecovery() throws Exception {
+        final int segmentCount = 20;
+        val expected = new HashMap<String, SegmentState>();
+        val table = createStateStore();
+        for (int i = 0; i < segmentCount; i++) {
+            String segmentName = "segment" + i;
+            put(table, segmentName, i, expected);
+        }
+
+        for (int i = 0; i < segmentCount; i += 2) {
+            String segmentName = "segment" + i;
+            table.remove(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            expected.remove(segmentName);
+        }
+
+        put(table, "segment1", 100, expected);
+        checkStates(createStateStore(), expected, segmentCount);
+    }
+
+    /**
+     * Tests that the table Segment is compacted once it is mostly made up of obsolete records.
+     */
+    @Test
+    public void testCompaction() throws Exception {
+        final int updateCount = 100;
+        final String tableSegment = StreamSegmentNameUtils.getStateTableSegmentName(CONTAINER_ID);
+        val expected = new HashMap<String, SegmentState>();
+        val table = new SegmentStateTable(CONTAINER_ID, this.storage, 1, executorService());
+        put(table, "other", 0, expected);
+        long singleStateLength = this.storage.getStreamSegmentInfo(tableSegment, TIMEOUT).join().getLength();
+        for (int i = 0; i < updateCount; i++) {
+            put(table, "segment", i, expected);
+        }
+
+        // Compaction runs in the background, after the update that triggered it; another update will wait for it.
+        put(table, "segment", updateCount, expected);
+        long length = this.storage.getStreamSegmentInfo(tableSegment, TIMEOUT).join().getLength();
+        Assert.assertTrue("Expected the table Segment to have been compacted.", length < singleStateLength * 10);
+
+        checkStates(table, expected, updateCount);
+        checkStates(createStateStore(), expected, updateCount);
+    }
+
+    /**
+     * Tests that a partially written record at the end of the table Segment is discarded.
+     */
+    @Test
+    public void testPartialRecord() throws Exception {
+        final String tableSegment = StreamSegmentNameUtils.getStateTableSegmentName(CONTAINER_ID);
+        val expected = new HashMap<String, SegmentState>();
+        put(createStateStore(), "segment", 1, expected);
+
+        long length = this.storage.getStreamSegmentInfo(tableSegment, TIMEOUT).join().getLength();
+        val handle = this.storage.openWrite(tableSegment).join();
+        this.storage.write(handle, length, new ByteArrayInputStream(new byte[]{0, 0, 1}), 3, TIMEOUT).join();
+
+        val table = createStateStore();
+        checkStates(table, expected, 1);
+        put(table, "segment", 2, expected);
+        put(table, "other", 3, expected);
+        checkStates(createStateStore(), expected, 1);
+    }
+
+    /**
+     * Tests that States stored by a SegmentStateStore are still readable and are removed along with the table's.
+     */
+    @Test
+    public void testLegacyStates() throws Exception {
+        val legacyStore = new SegmentStateStore(this.storage, executorService());
+        val legacyState = createState("legacy", 1);
+        legacyStore.put("legacy", legacyState, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        val table = createStateStore();
+        val state = table.get("legacy", TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected legacy State.", legacyState.getStartOffset(), state.getStartOffset());
+
+        // States in the table take precedence.
+        val newState = createState("legacy", 2);
+        table.put("legacy", newState, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected State after update.", newState.getStartOffset(),
+                table.get("legacy", TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getStartOffset());
+
+        table.remove("legacy", TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertNull("Not expecting a State in the table after removal.",
+                table.get("legacy", TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        Assert.assertNull("Not expecting a legacy State after removal.",
+                legacyStore.get("legacy", TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void put(AsyncMap<String, SegmentState> table, String segmentName, long startOffset, Map<String, SegmentState> expected)
+            throws Exception {
+        SegmentState state = createState(segmentName, startOffset);
+        table.put(segmentName, state, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        expected.put(segmentName, state);
+    }
+
+    private void checkStates(AsyncMap<String, SegmentState> table, Map<String, SegmentState> expected, int segmentCount) throws Exception {
+        for (val e : expected.entrySet()) {
+            val actual = table.get(e.getKey(), TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertNotNull("No State found for " + e.getKey(), actual);
+            Assert.assertEquals("Unexpected segment name.", e.getKey(), actual.getSegmentName());
+            Assert.assertEquals("Unexpected segment id.", e.getValue().getSegmentId(), actual.getSegmentId());
+            Assert.assertEquals("Unexpected start offset.", e.getValue().getStartOffset(), actual.getStartOffset());
+        }
+
+        for (int i = 0; i < segmentCount; i++) {
+            String segmentName = "segment" + i;
+            if (!expected.containsKey(segmentName)) {
+                Assert.assertNull("Not expecting a State for " + segmentName,
+                        table.get(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    private SegmentState createState(String segmentName, long startOffset) {
+        return new SegmentState(segmentName.hashCode(), StreamSegmentInformation
+                .builder()
+                .name(segmentName)
+                .startOffset(startOffset)
+                .length(startOffset)
+                .attributes(Collections.emptyMap())
+                .build());
+    }
+}
@@ -89,6 +89,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -398,6 +399,8 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
                 Assert.assertEquals("Unexpected value for attribute " + attributeId + " via getAttributes() for segment " + segmentName,
                         expectedAttributeValue, (long) allAttributeValues.getOrDefault(attributeId, Attributes.NULL_ATTRIBUTE_VALUE));
             }
+
+            checkAttributeRange(localContainer, segmentName, extendedAttributes, expectedAttributeValue);
         }
 
         // Force these segments out of memory, so that we may verify that extended attributes are still recoverable.
@@ -423,6 +426,9 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
                 }
             }
 
+            // Extended Attributes can also be fetched by range, directly from the Attribute Index.
+            checkAttributeRange(localContainer, segmentName, extendedAttributes, expectedAttributeValue);
+
             // Now instruct the Container to cache missing values (do it a few times so we make sure it's idempotent).
             // Also introduce some random new attribute to fetch. We want to make sure we can properly handle caching
             // missing attribute values.
@@ -450,6 +456,100 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         localContainer.stopAsync().awaitTerminated();
     }
 
+    /**
+     * Tests the ability to expire Extended Attributes that have not been updated for longer than the configured duration.
+     */
+    @Test
+    public void testExtendedAttributeExpiration() throws Exception {
+        final String segmentName = "segment";
+        final UUID extendedAttribute = UUID.randomUUID();
+        final UUID coreAttribute = Attributes.EVENT_COUNT;
+        final List<UUID> allAttributes = Arrays.asList(extendedAttribute, coreAttribute);
+        final TestContainerConfig containerConfig = new TestContainerConfig();
+        containerConfig.setSegmentMetadataExpiration(Duration.ofMillis(EVICTION_SEGMENT_EXPIRATION_MILLIS_SHORT));
+        containerConfig.setExtendedAttributeExpiration(Duration.ofMillis(1));
+
+        @Cleanup
+        TestContext context = new TestContext();
+        OperationLogFactory localDurableLogFactory = new DurableLogFactory(FREQUENT_TRUNCATIONS_DURABLE_LOG_CONFIG, context.dataLogFactory, executorService());
+        @Cleanup
+        MetadataCleanupContainer localContainer = new MetadataCleanupContainer(CONTAINER_ID, containerConfig, localDurableLogFactory,
+                context.readIndexFactory, context.attributeIndexFactory, context.writerFactory, context.storageFactory, executorService());
+        localContainer.startAsync().awaitRunning();
+
+        // Set both attributes (once), then wait until the Extended Attribute has been expired and evicted from memory.
+        localContainer.createStreamSegment(segmentName, null, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        val attributeUpdates = allAttributes.stream()
+                                            .map(attributeId -> new AttributeUpdate(attributeId, AttributeUpdateType.Replace, 10))
+                                            .collect(Collectors.toList());
+        localContainer.updateAttributes(segmentName, attributeUpdates, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        localContainer.triggerAttributeCleanup(segmentName).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // The Extended Attribute should have been removed from the Attribute Index, while the Core Attribute is not affected.
+        val allAttributeValues = localContainer.getAttributes(segmentName, allAttributes, false, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Expected the Extended Attribute to have been expired.",
+                Attributes.NULL_ATTRIBUTE_VALUE, (long) allAttributeValues.getOrDefault(extendedAttribute, Attributes.NULL_ATTRIBUTE_VALUE));
+        Assert.assertEquals("Not expecting the Core Attribute to have been expired.",
+                10L, (long) allAttributeValues.getOrDefault(coreAttribute, Attributes.NULL_ATTRIBUTE_VALUE));
+        val rangeValues = localContainer.getAttributeRange(segmentName, new UUID(Long.MIN_VALUE, Long.MIN_VALUE),
+                new UUID(Long.MAX_VALUE, Long.MAX_VALUE), Integer.MAX_VALUE, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertTrue("Not expecting any Extended Attributes via getAttributeRange().", rangeValues.isEmpty());
+
+        localContainer.stopAsync().awaitTerminated();
+    }
+
+    /**
+     * Tests the ability to expire Extended Attributes that are only present in the Attribute Index, such as those set
+     * before a Segment has been evicted from memory or before the Container restarted.
+     */
+    @Test
+    public void testExtendedAttributeExpirationAfterRecovery() throws Exception {
+        final String segmentName = "segment";
+        final UUID extendedAttribute = UUID.randomUUID();
+        final TestContainerConfig containerConfig = new TestContainerConfig();
+        containerConfig.setSegmentMetadataExpiration(Duration.ofMillis(EVICTION_SEGMENT_EXPIRATION_MILLIS_SHORT));
+
+        @Cleanup
+        TestContext context = new TestContext(containerConfig);
+        val localDurableLogFactory = new DurableLogFactory(DEFAULT_DURABLE_LOG_CONFIG, context.dataLogFactory, executorService());
+        try (val container1 = new MetadataCleanupContainer(CONTAINER_ID, containerConfig, localDurableLogFactory,
+                context.readIndexFactory, context.attributeIndexFactory, context.writerFactory, context.storageFactory, executorService())) {
+            container1.startAsync().awaitRunning();
+
+            // Set the Extended Attribute (with expiration disabled), then wait until the segment is forgotten.
+            container1.createStreamSegment(segmentName, null, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            container1.updateAttributes(segmentName, Collections.singletonList(new AttributeUpdate(extendedAttribute, AttributeUpdateType.Replace, 10)),
+                    TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            container1.triggerMetadataCleanup(Collections.singleton(segmentName)).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            container1.stopAsync().awaitTerminated();
+        }
+
+        // Restart the container with expiration enabled. The Extended Attribute is only in the Attribute Index now.
+        final TestContainerConfig expiringConfig = new TestContainerConfig();
+        expiringConfig.setSegmentMetadataExpiration(Duration.ofMillis(EVICTION_SEGMENT_EXPIRATION_MILLIS_SHORT));
+        expiringConfig.setExtendedAttributeExpiration(Duration.ofMillis(1));
+        @Cleanup
+        val container2 = new MetadataCleanupContainer(CONTAINER_ID, expiringConfig, localDurableLogFactory,
+                context.readIndexFactory, context.attributeIndexFactory, context.writerFactory, context.storageFactory, executorService());
+        container2.startAsync().awaitRunning();
+        val value = container2.getAttributes(segmentName, Collections.singleton(extendedAttribute), false, TIMEOUT)
+                              .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Expected the Extended Attribute to have been recovered.", 10L, (long) value.get(extendedAttribute));
+
+        // A cleanup that was already in progress when the segment got reactivated will not have looked at it, so we may
+        // need more than one.
+        SortedMap<UUID, Long> rangeValues = null;
+        for (int i = 0; i < 5 && (rangeValues == null || !rangeValues.isEmpty()); i++) {
+            container2.triggerAttributeCleanup(segmentName).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            rangeValues = container2.getAttributeRange(segmentName, new UUID(Long.MIN_VALUE, Long.MIN_VALUE),
+                    new UUID(Long.MAX_VALUE, Long.MAX_VALUE), Integer.MAX_VALUE, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertTrue("Expected the Extended Attribute to have been expired.", rangeValues.isEmpty());
+
+        container2.stopAsync().awaitTerminated();
+    }
+
     /**
      * Test conditional updates for Extended Attributes when they are not loaded in memory (i.e., they will need to be
      * auto-fetched from the AttributeIndex so that the operation may succeed).
@@ -1646,6 +1746,27 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         }
     }
 
+    private void checkAttributeRange(SegmentContainer container, String segmentName, List<UUID> extendedAttributes, long expectedValue) {
+        val sortedIds = extendedAttributes.stream().sorted().collect(Collectors.toList());
+        val minId = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+        val maxId = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        // The full range should include all Extended Attributes (but no Core Attributes), sorted by their Ids.
+        val allValues = container.getAttributeRange(segmentName, minId, maxId, Integer.MAX_VALUE, TIMEOUT).join();
+        AssertExtensions.assertListEquals("Unexpected Attribute Ids from getAttributeRange() for segment " + segmentName,
+                sortedIds, new ArrayList<>(allValues.keySet()), UUID::equals);
+        allValues.values().forEach(value -> Assert.assertEquals("Unexpected value from getAttributeRange() for segment " + segmentName,
+                expectedValue, (long) value));
+
+        // Paging through them.
+        val firstPage = container.getAttributeRange(segmentName, minId, maxId, 1, TIMEOUT).join();
+        Assert.assertEquals("Unexpected first page from getAttributeRange() for segment " + segmentName,
+                Collections.singletonList(sortedIds.get(0)), new ArrayList<>(firstPage.keySet()));
+        val lastPage = container.getAttributeRange(segmentName, sortedIds.get(sortedIds.size() - 1), maxId, 1, TIMEOUT).join();
+        Assert.assertEquals("Unexpected last page from getAttributeRange() for segment " + segmentName,
+                Collections.singletonList(sortedIds.get(sortedIds.size() - 1)), new ArrayList<>(lastPage.keySet()));
+    }
+
     private void appendToParentsAndTransactions(Collection<String> segmentNames, HashMap<String, ArrayList<String>> transactionsBySegment, HashMap<String, Long> lengths, HashMap<String, ByteArrayOutputStream> segmentContents, TestContext context) throws Exception {
         ArrayList<CompletableFuture<Void>> appendFutures = new ArrayList<>();
         for (int i = 0; i < APPENDS_PER_SEGMENT; i++) {
@@ -1987,6 +2108,10 @@ public class StreamSegmentContainerTests extends ThreadPooledTestSuite {
         @Setter
         private int maxCachedExtendedAttributeCount;
 
+        @Getter
+        @Setter
+        private Duration extendedAttributeExpiration = Duration.ZERO;
+
         TestContainerConfig() throws ConfigurationException {
             super(new TypedProperties(new Properties(), "ns"));
         }
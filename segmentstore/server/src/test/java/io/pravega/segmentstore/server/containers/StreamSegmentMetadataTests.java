@@ -141,6 +141,41 @@ public class StreamSegmentMetadataTests {
         checkAttributesEqual(expectedValues, metadata.getAttributes());
     }
 
+    /**
+     * Tests the ability to identify idle Extended Attributes and to retain them in memory until they expire.
+     */
+    @Test
+    public void testIdleAttributes() throws Exception {
+        final UUID coreAttributeId = Attributes.EVENT_COUNT;
+        final UUID idleAttributeId = new UUID(0, 1);
+        final UUID removedAttributeId = new UUID(0, 2);
+        final UUID activeAttributeId = new UUID(0, 3);
+        StreamSegmentMetadata metadata = new StreamSegmentMetadata(SEGMENT_NAME, SEGMENT_ID, CONTAINER_ID);
+        val attributes = new HashMap<UUID, Long>();
+        attributes.put(coreAttributeId, 1L);
+        attributes.put(idleAttributeId, 2L);
+        attributes.put(removedAttributeId, Attributes.NULL_ATTRIBUTE_VALUE);
+        metadata.updateAttributes(attributes);
+
+        // Make sure the active attribute is updated strictly after the others.
+        Thread.sleep(2);
+        long cutoff = System.currentTimeMillis();
+        Thread.sleep(2);
+        metadata.updateAttributes(Collections.singletonMap(activeAttributeId, 3L));
+
+        // Only the Extended Attributes updated at or after the cutoff are recently updated.
+        val recent = metadata.getRecentlyUpdatedAttributes(cutoff);
+        Assert.assertEquals("Unexpected recently updated attributes.", Collections.singleton(activeAttributeId), recent);
+
+        // Attributes updated after the cutoff should not be evicted.
+        int evicted = metadata.cleanupAttributes(0, 2, cutoff);
+        Assert.assertEquals("Unexpected number of evicted attributes.", 2, evicted);
+        val expectedValues = new HashMap<UUID, Long>();
+        expectedValues.put(coreAttributeId, 1L);
+        expectedValues.put(activeAttributeId, 3L);
+        checkAttributesEqual(expectedValues, metadata.getAttributes());
+    }
+
     /**
      * Verifies the given maps are equal without actually invoking get() or getOrDefault() on actual; to prevent lastUsed
      * from being updated.
@@ -30,6 +30,7 @@ import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
 import io.pravega.segmentstore.server.containers.StreamSegmentMetadata;
 import io.pravega.segmentstore.server.logs.operations.MergeSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.StorageOperation;
@@ -965,6 +966,59 @@ public class ContainerMetadataUpdateTransactionTests {
         assertMetadataSame("Unexpected metadata after deserializing checkpoint.", metadata, checkpointedMetadata);
     }
 
+    /**
+     * Tests the processMetadataOperation method with MetadataDeltaCheckpoint operations.
+     */
+    @Test
+    public void testProcessMetadataDeltaCheckpoint() throws Exception {
+        // When encountering MetadataDeltaCheckpoint in non-Recovery Mode, the ContainerMetadataUpdateTransaction serializes
+        // only those Segments that changed since its base checkpoint.
+        // When encountering MetadataDeltaCheckpoint in Recovery Mode, the ContainerMetadataUpdateTransaction applies the
+        // snapshot-ted Segments on top of whatever it has already recovered.
+        String newSegmentName = "NewSegmentId";
+        AtomicLong seqNo = new AtomicLong();
+        UpdateableContainerMetadata metadata = createMetadata();
+        val txn = createUpdateTransaction(metadata);
+
+        // Take a full checkpoint of the original metadata.
+        val fullCheckpoint = createMetadataCheckpoint();
+        processOperation(fullCheckpoint, txn, seqNo::incrementAndGet);
+
+        // Map another StreamSegment and add an append to it.
+        StreamSegmentMapOperation mapOp = new StreamSegmentMapOperation(
+                StreamSegmentInformation.builder().name(newSegmentName).length(SEGMENT_LENGTH).build());
+        processOperation(mapOp, txn, seqNo::incrementAndGet);
+        processOperation(new StreamSegmentAppendOperation(mapOp.getStreamSegmentId(), DEFAULT_APPEND_DATA, null), txn, seqNo::incrementAndGet);
+        txn.commit(metadata);
+
+        // Take a delta checkpoint. Only the full checkpoint is a valid truncation point.
+        val deltaCheckpoint = new MetadataDeltaCheckpointOperation(fullCheckpoint.getSequenceNumber());
+        processOperation(deltaCheckpoint, txn, seqNo::incrementAndGet);
+        txn.commit(metadata);
+        Assert.assertTrue("Expecting a full checkpoint to be a valid truncation point.",
+                metadata.isValidTruncationPoint(fullCheckpoint.getSequenceNumber()));
+        Assert.assertFalse("Not expecting a delta checkpoint to be a valid truncation point.",
+                metadata.isValidTruncationPoint(deltaCheckpoint.getSequenceNumber()));
+
+        // The delta checkpoint should only contain the new StreamSegment.
+        val deltaMetadata = createBlankMetadata();
+        deltaMetadata.enterRecoveryMode();
+        val deltaTxn = createUpdateTransaction(deltaMetadata);
+        processOperation(deltaCheckpoint, deltaTxn, () -> 1L);
+        deltaTxn.commit(deltaMetadata);
+        AssertExtensions.assertContainsSameElements("Unexpected Segments in delta checkpoint.",
+                Collections.singleton(mapOp.getStreamSegmentId()), deltaMetadata.getAllStreamSegmentIds());
+
+        // Applying the delta checkpoint on top of the full one should yield the current metadata.
+        val recoveredMetadata = createBlankMetadata();
+        recoveredMetadata.enterRecoveryMode();
+        val recoveryTxn = createUpdateTransaction(recoveredMetadata);
+        processOperation(fullCheckpoint, recoveryTxn, () -> 1L);
+        processOperation(deltaCheckpoint, recoveryTxn, () -> 1L);
+        recoveryTxn.commit(recoveredMetadata);
+        assertMetadataSame("Unexpected metadata after applying delta checkpoint.", metadata, recoveredMetadata);
+    }
+
     /**
      * Tests the processMetadataOperation method with StorageMetadataCheckpoint operations.
      */
@@ -13,6 +13,7 @@ import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.storage.LogAddress;
 import io.pravega.test.common.AssertExtensions;
 import java.util.List;
+import java.util.zip.Deflater;
 import lombok.val;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -53,6 +54,51 @@ public class DataFrameTests {
         DataFrameTestHelpers.checkReadRecords(contents, allRecords, b -> b);
     }
 
+    /**
+     * Tests the ability to compress a DataFrame and then read its records back.
+     */
+    @Test
+    public void testCompression() throws Exception {
+        int maxFrameSize = 256 * 1024;
+        int maxRecordCount = 1000;
+        int minRecordSize = 0;
+        int maxRecordSize = 1024;
+        val deflater = new Deflater();
+
+        // Compressible records: the frame should shrink and we should be able to read the records back.
+        List<ByteArraySegment> compressibleRecords = DataFrameTestHelpers.generateRecords(maxRecordCount, minRecordSize, maxRecordSize,
+                r -> {
+                    for (int i = 0; i < r.length; i++) {
+                        r[i] = (byte) (r[i] & 3);
+                    }
+                    return new ByteArraySegment(r);
+                });
+        DataFrame writeFrame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(compressibleRecords, writeFrame);
+        AssertExtensions.assertThrows(
+                "compress() worked on a non-sealed frame.",
+                () -> writeFrame.compress(deflater),
+                ex -> ex instanceof IllegalStateException);
+        writeFrame.seal();
+
+        DataFrame compressedFrame = writeFrame.compress(deflater);
+        Assert.assertNotSame("Expected a new frame for compressible data.", writeFrame, compressedFrame);
+        Assert.assertTrue("Expected compressed frame to be sealed.", compressedFrame.isSealed());
+        AssertExtensions.assertLessThan("Expected compressed frame to be shorter.", writeFrame.getLength(), compressedFrame.getLength());
+        val frameData = compressedFrame.getData();
+        Assert.assertEquals("Unexpected length from getData().", compressedFrame.getLength(), frameData.getLength());
+        val contents = DataFrame.read(frameData.getReader(), frameData.getLength(), compressedFrame.getAddress());
+        DataFrameTestHelpers.checkReadRecords(contents, compressibleRecords, b -> b);
+
+        // Incompressible records: the frame should be left as is.
+        List<ByteArraySegment> randomRecords = DataFrameTestHelpers.generateRecords(maxRecordCount, minRecordSize, maxRecordSize, ByteArraySegment::new);
+        DataFrame randomFrame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(randomRecords, randomFrame);
+        randomFrame.seal();
+        Assert.assertSame("Not expecting a new frame for incompressible data.", randomFrame, randomFrame.compress(deflater));
+        deflater.end();
+    }
+
     /**
      * Tests the ability to Start/End/Discard an entry.
      */
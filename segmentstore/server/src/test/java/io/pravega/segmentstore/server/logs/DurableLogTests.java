@@ -33,6 +33,7 @@ import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
 import io.pravega.segmentstore.server.containers.StreamSegmentContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationComparer;
 import io.pravega.segmentstore.server.logs.operations.ProbeOperation;
@@ -754,6 +755,80 @@ public class DurableLogTests extends OperationLogTestBase {
         }
     }
 
+    /**
+     * Tests the DurableLog recovery process when the DurableLog contains both full and delta Metadata Checkpoints.
+     */
+    @Test
+    public void testRecoveryWithDeltaCheckpoints() throws Exception {
+        int streamSegmentCount = 50;
+        int transactionsPerStreamSegment = 2;
+        int appendsPerStreamSegment = 20;
+        int checkpointEvery = 10;
+        int checkpointFullInterval = 3;
+        boolean mergeTransactions = true;
+        boolean sealStreamSegments = true;
+        DurableLogConfig durableLogConfig = ContainerSetup.createDurableLogConfig(checkpointEvery, null, checkpointFullInterval);
+
+        // Setup a DurableLog and start it.
+        @Cleanup
+        TestDurableDataLogFactory dataLogFactory = new TestDurableDataLogFactory(new InMemoryDurableDataLogFactory(MAX_DATA_LOG_APPEND_SIZE, executorService()));
+        @Cleanup
+        Storage storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+
+        HashSet<Long> streamSegmentIds;
+        AbstractMap<Long, Long> transactions;
+        List<OperationWithCompletion> completionFutures;
+        List<Operation> originalOperations;
+
+        // First DurableLog. We use this for generating data. All Metadata Checkpoints are injected by the DurableLog itself.
+        UpdateableContainerMetadata metadata = new MetadataBuilder(CONTAINER_ID).build();
+        @Cleanup
+        InMemoryCacheFactory cacheFactory = new InMemoryCacheFactory();
+        @Cleanup
+        CacheManager cacheManager = new CacheManager(CachePolicy.INFINITE, executorService());
+        try (
+                ReadIndex readIndex = new ContainerReadIndex(DEFAULT_READ_INDEX_CONFIG, metadata, cacheFactory, storage, cacheManager, executorService());
+                DurableLog durableLog = new DurableLog(durableLogConfig, metadata, dataLogFactory, readIndex, executorService())) {
+            durableLog.startAsync().awaitRunning();
+
+            streamSegmentIds = createStreamSegmentsWithOperations(streamSegmentCount, metadata, durableLog, storage);
+            transactions = createTransactionsWithOperations(streamSegmentIds, transactionsPerStreamSegment, metadata, durableLog, storage);
+            List<Operation> operations = generateOperations(streamSegmentIds, transactions, appendsPerStreamSegment, NO_METADATA_CHECKPOINT, mergeTransactions, sealStreamSegments);
+
+            // Process all generated operations (waiting for them frequently, so that enough commits are made to trigger
+            // a number of checkpoints) and wait for them to complete.
+            completionFutures = processOperations(operations, durableLog, checkpointEvery);
+            OperationWithCompletion.allOf(completionFutures).join();
+
+            // Get a list of all the operations, before recovery, and make sure we have both kinds of checkpoints.
+            originalOperations = readUpToSequenceNumber(durableLog, metadata.getOperationSequenceNumber());
+            long fullCheckpointCount = originalOperations.stream().filter(o -> o instanceof MetadataCheckpointOperation).count();
+            long deltaCheckpointCount = originalOperations.stream().filter(o -> o instanceof MetadataDeltaCheckpointOperation).count();
+            AssertExtensions.assertGreaterThan("Expected more than one full checkpoint.", 1, fullCheckpointCount);
+            AssertExtensions.assertGreaterThan("Expected at least one delta checkpoint.", 0, deltaCheckpointCount);
+
+            // Stop the processor.
+            durableLog.stopAsync().awaitTerminated();
+        }
+
+        // Second DurableLog. We use this for recovery.
+        metadata = new MetadataBuilder(CONTAINER_ID).build();
+        try (
+                ReadIndex readIndex = new ContainerReadIndex(DEFAULT_READ_INDEX_CONFIG, metadata, cacheFactory, storage, cacheManager, executorService());
+                DurableLog durableLog = new DurableLog(durableLogConfig, metadata, dataLogFactory, readIndex, executorService())) {
+            durableLog.startAsync().awaitRunning();
+
+            List<Operation> recoveredOperations = readUpToSequenceNumber(durableLog, metadata.getOperationSequenceNumber());
+            assertRecoveredOperationsMatch(originalOperations, recoveredOperations);
+            performMetadataChecks(streamSegmentIds, new HashSet<>(), transactions, completionFutures, metadata, mergeTransactions, sealStreamSegments);
+            performReadIndexChecks(completionFutures, readIndex);
+
+            // Stop the processor.
+            durableLog.stopAsync().awaitTerminated();
+        }
+    }
+
     /**
      * Tests the DurableLog recovery process in a scenario when there are failures during the process
      * (these may or may not be DataCorruptionExceptions).
@@ -1534,6 +1609,11 @@ public class DurableLogTests extends OperationLogTestBase {
         }
 
         static DurableLogConfig createDurableLogConfig(Integer checkpointMinCommitCount, Long checkpointMinTotalCommitLength) {
+            return createDurableLogConfig(checkpointMinCommitCount, checkpointMinTotalCommitLength, 1);
+        }
+
+        static DurableLogConfig createDurableLogConfig(Integer checkpointMinCommitCount, Long checkpointMinTotalCommitLength,
+                                                       int checkpointFullInterval) {
             if (checkpointMinCommitCount == null) {
                 checkpointMinCommitCount = Integer.MAX_VALUE;
             }
@@ -1547,6 +1627,7 @@ public class DurableLogTests extends OperationLogTestBase {
                     .with(DurableLogConfig.CHECKPOINT_MIN_COMMIT_COUNT, CHECKPOINT_MIN_COMMIT_COUNT)
                     .with(DurableLogConfig.CHECKPOINT_COMMIT_COUNT, checkpointMinCommitCount)
                     .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, checkpointMinTotalCommitLength)
+                    .with(DurableLogConfig.CHECKPOINT_FULL_INTERVAL, checkpointFullInterval)
                     .with(DurableLogConfig.START_RETRY_DELAY_MILLIS, START_RETRY_DELAY_MILLIS)
                     .build();
         }
@@ -61,6 +61,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -108,7 +109,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -156,7 +157,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -240,7 +241,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -296,7 +297,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         ErrorInjector<Exception> aSyncErrorInjector = new ErrorInjector<>(
@@ -345,7 +346,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         ErrorInjector<Exception> aSyncErrorInjector = new ErrorInjector<>(
@@ -400,7 +401,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -467,7 +468,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -480,6 +481,46 @@ public class OperationProcessorTests extends OperationLogTestBase {
         operationProcessor.stopAsync().awaitTerminated();
     }
 
+    /**
+     * Tests that the throttling delay reported by the OperationProcessor is cleared as soon as throttling is no longer
+     * required, even if no more operations are processed.
+     */
+    @Test
+    public void testThrottlingDelayHint() throws Exception {
+        @Cleanup
+        TestContext context = new TestContext();
+        val cacheUtilization = new AtomicReference<Double>(1.01);
+        val stateUpdater = new MemoryStateUpdater(context.memoryLog, context.readIndex, Runnables.doNothing()) {
+            @Override
+            public double getCacheUtilization() {
+                return cacheUtilization.get();
+            }
+        };
+
+        // Setup an OperationProcessor and start it. It will throttle before attempting to pick up its first operation.
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, MAX_DATA_LOG_APPEND_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        @Cleanup
+        OperationProcessor operationProcessor = new OperationProcessor(context.metadata, stateUpdater,
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
+        operationProcessor.startAsync().awaitRunning();
+        TestUtils.await(() -> operationProcessor.getThrottlingDelayMillis() > 0, 10, TIMEOUT.toMillis());
+        Assert.assertEquals("Unexpected throttling delay while throttling.",
+                ThrottlerCalculator.THROTTLING_MILLIS_PER_PERCENT_OVER_LIMIT, operationProcessor.getThrottlingDelayMillis());
+
+        // Relieve the pressure. The OperationProcessor is idle (waiting for operations), so it will not throttle again.
+        cacheUtilization.set(0.5);
+        Assert.assertEquals("Throttling delay not cleared after throttling.", 0, operationProcessor.getThrottlingDelayMillis());
+
+        // Verify operations are still processed and the delay remains cleared.
+        OperationWithCompletion completionFuture = processOperations(Collections.singleton(new ProbeOperation()), operationProcessor).get(0);
+        completionFuture.completion.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected throttling delay after processing.", 0, operationProcessor.getThrottlingDelayMillis());
+
+        operationProcessor.stopAsync().awaitTerminated();
+    }
+
     /**
      * Tests a scenario where the OperationProcessor is shut down while a DataFrame is being processed and will eventually
      * complete successfully - however its operation should be cancelled.
@@ -501,7 +542,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), false, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
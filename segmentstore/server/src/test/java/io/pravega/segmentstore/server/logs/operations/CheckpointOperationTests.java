@@ -25,6 +25,13 @@ public abstract class CheckpointOperationTests extends OperationTestsBase<Checkp
         }
     }
 
+    public static class MetadataDeltaCheckpointOperationTests extends CheckpointOperationTests {
+        @Override
+        protected CheckpointOperationBase createOperation(Random random) {
+            return new MetadataDeltaCheckpointOperation(random.nextLong());
+        }
+    }
+
     public static class StorageMetadataCheckpointOperationTests extends CheckpointOperationTests {
         @Override
         protected CheckpointOperationBase createOperation(Random random) {
@@ -9,6 +9,10 @@
  */
 package io.pravega.segmentstore.server.store;
 
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.segmentstore.server.TransportPolicy;
+import io.pravega.test.common.AssertExtensions;
+import java.time.Duration;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -54,4 +58,57 @@ public class ServiceConfigTests {
                         && cfg3.getListeningPort() != cfg3.getPublishedPort());
     }
 
+    @Test
+    public void testTransportPolicy() {
+        ServiceConfig defaultConfig = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .build();
+        Assert.assertEquals("Unexpected default max outstanding bytes.",
+                TransportPolicy.DEFAULT.getMaxOutstandingBytes(), defaultConfig.getTransportPolicy().getMaxOutstandingBytes());
+        Assert.assertTrue("Native transport should be enabled by default.", defaultConfig.getTransportPolicy().isNativeTransport());
+
+        ServiceConfig cfg = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .with(ServiceConfig.TRANSPORT_NATIVE, false)
+                .with(ServiceConfig.TRANSPORT_SOCKET_RECEIVE_BUFFER_SIZE, 1024 * 1024)
+                .with(ServiceConfig.TRANSPORT_MAX_OUTSTANDING_BYTES, 1024)
+                .with(ServiceConfig.TRANSPORT_RESUME_OUTSTANDING_BYTES, 512)
+                .build();
+        TransportPolicy policy = cfg.getTransportPolicy();
+        Assert.assertFalse(policy.isNativeTransport());
+        Assert.assertEquals(1024 * 1024, policy.getSocketReceiveBufferSize());
+        Assert.assertEquals(0, policy.getSocketSendBufferSize());
+        Assert.assertEquals(1024, policy.getMaxOutstandingBytes());
+        Assert.assertEquals(512, policy.getResumeOutstandingBytes());
+
+        AssertExtensions.assertThrows("Resume threshold greater than the max was accepted.",
+                () -> ServiceConfig.builder()
+                        .with(ServiceConfig.CONTAINER_COUNT, 1)
+                        .with(ServiceConfig.TRANSPORT_MAX_OUTSTANDING_BYTES, 512)
+                        .with(ServiceConfig.TRANSPORT_RESUME_OUTSTANDING_BYTES, 1024)
+                        .build(),
+                ex -> ex instanceof ConfigurationException);
+    }
+
+    @Test
+    public void testHotSegmentSettings() {
+        ServiceConfig defaultConfig = ServiceConfig.builder()
+                .with(ServiceConfig.CONTAINER_COUNT, 1)
+                .build();
+        Assert.assertEquals(10, defaultConfig.getHotSegmentCount());
+        Assert.assertEquals(Duration.ofMinutes(1), defaultConfig.getHotSegmentReportingInterval());
+
+        AssertExtensions.assertThrows("Negative hot segment count was accepted.",
+                () -> ServiceConfig.builder()
+                        .with(ServiceConfig.CONTAINER_COUNT, 1)
+                        .with(ServiceConfig.HOT_SEGMENT_COUNT, -1)
+                        .build(),
+                ex -> ex instanceof ConfigurationException);
+        AssertExtensions.assertThrows("Zero reporting interval was accepted.",
+                () -> ServiceConfig.builder()
+                        .with(ServiceConfig.CONTAINER_COUNT, 1)
+                        .with(ServiceConfig.HOT_SEGMENT_REPORTING_INTERVAL_SECONDS, 0)
+                        .build(),
+                ex -> ex instanceof ConfigurationException);
+    }
 }
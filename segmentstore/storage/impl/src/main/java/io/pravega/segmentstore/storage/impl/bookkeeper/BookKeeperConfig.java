@@ -41,6 +41,8 @@ public class BookKeeperConfig {
     public static final Property<String> BK_LEDGER_PATH = Property.named("bkLedgerPath", "");
     public static final Property<Boolean> BK_TLS_ENABLED = Property.named("tlsEnabled", false);
     public static final Property<String> TLS_TRUST_STORE_PATH = Property.named("tlsTrustStorePath", "config/client.truststore.jks");
+    public static final Property<Boolean> BK_GROUP_COMMIT_ENABLED = Property.named("bkGroupCommitEnabled", false);
+    public static final Property<Integer> BK_GROUP_COMMIT_MAX_OUTSTANDING_ENTRIES = Property.named("bkGroupCommitMaxOutstandingEntries", 4);
 
     public static final String COMPONENT_CODE = "bookkeeper";
     /**
@@ -140,6 +142,21 @@ public class BookKeeperConfig {
     @Getter
     private final String tlsTrustStore;
 
+    /**
+     * Whether the Logs on this host should share their BookKeeper Ledgers (group commit). If enabled, writes from all the
+     * Logs on this host are multiplexed into a single Ledger, which results in fewer (but larger) BookKeeper writes at the
+     * expense of having to read (and filter) the shared Ledgers in their entirety upon recovery.
+     */
+    @Getter
+    private final boolean bkGroupCommitEnabled;
+
+    /**
+     * The maximum number of shared Ledger Entries that can be in flight at any given time, when Group Commit is enabled.
+     * Smaller values cause more writes to be grouped together in each Entry.
+     */
+    @Getter
+    private final int bkGroupCommitMaxOutstandingEntries;
+
     //endregion
 
     //region Constructor
@@ -176,6 +193,12 @@ public class BookKeeperConfig {
         this.bkPassword = properties.get(BK_PASSWORD).getBytes(Charset.forName("UTF-8"));
         this.isTLSEnabled = properties.getBoolean(BK_TLS_ENABLED);
         tlsTrustStore = properties.get(TLS_TRUST_STORE_PATH);
+        this.bkGroupCommitEnabled = properties.getBoolean(BK_GROUP_COMMIT_ENABLED);
+        this.bkGroupCommitMaxOutstandingEntries = properties.getInt(BK_GROUP_COMMIT_MAX_OUTSTANDING_ENTRIES);
+        if (this.bkGroupCommitMaxOutstandingEntries <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BK_GROUP_COMMIT_MAX_OUTSTANDING_ENTRIES, this.bkGroupCommitMaxOutstandingEntries));
+        }
     }
 
     /**
@@ -82,6 +82,7 @@ class BookKeeperLog implements DurableDataLog {
     //region Members
 
     private static final long REPORT_INTERVAL = 1000;
+    private final int logId;
     private final String logNodePath;
     private final CuratorFramework zkClient;
     private final BookKeeper bookKeeper;
@@ -115,6 +116,7 @@ class BookKeeperLog implements DurableDataLog {
      */
     BookKeeperLog(int containerId, CuratorFramework zkClient, BookKeeper bookKeeper, BookKeeperConfig config, ScheduledExecutorService executorService) {
         Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative integer.");
+        this.logId = containerId;
         this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient");
         this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
         this.config = Preconditions.checkNotNull(config, "config");
@@ -205,7 +207,7 @@ class BookKeeperLog implements DurableDataLog {
      */
     @Override
     public void initialize(Duration timeout) throws DurableDataLogException {
-        List<Long> ledgersToDelete;
+        List<LedgerMetadata> ledgersToDelete;
         LogMetadata newMetadata;
         synchronized (this.lock) {
             Preconditions.checkState(this.writeLedger == null, "BookKeeperLog is already initialized.");
@@ -236,18 +238,18 @@ class BookKeeperLog implements DurableDataLog {
             assert ledgerMetadata != null : "cannot find newly added ledger metadata";
             this.writeLedger = new WriteLedger(newLedger, ledgerMetadata);
             this.logMetadata = newMetadata;
-            ledgersToDelete = getLedgerIdsToDelete(oldMetadata, newMetadata);
+            ledgersToDelete = getLedgersToDelete(oldMetadata, newMetadata);
         }
 
         // Delete the orphaned ledgers from BookKeeper.
-        ledgersToDelete.forEach(id -> {
+        ledgersToDelete.forEach(lm -> {
             try {
-                Ledgers.delete(id, this.bookKeeper);
-                log.info("{}: Deleted orphan empty ledger {}.", this.traceObjectId, id);
+                SharedLedgers.delete(lm, this.logId, this.zkClient, this.bookKeeper);
+                log.info("{}: Deleted orphan empty ledger {}.", this.traceObjectId, lm.getLedgerId());
             } catch (DurableDataLogException ex) {
                 // A failure here has no effect on the initialization of BookKeeperLog. In this case, the (empty) Ledger
                 // will remain in BookKeeper until manually deleted by a cleanup tool.
-                log.warn("{}: Unable to delete orphan empty ledger {}.", this.traceObjectId, id, ex);
+                log.warn("{}: Unable to delete orphan empty ledger {}.", this.traceObjectId, lm.getLedgerId(), ex);
             }
         });
         log.info("{}: Initialized (Epoch = {}, UpdateVersion = {}).", this.traceObjectId, newMetadata.getEpoch(), newMetadata.getUpdateVersion());
@@ -327,7 +329,7 @@ class BookKeeperLog implements DurableDataLog {
     @Override
     public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
         ensurePreconditions();
-        return new LogReader(getLogMetadata(), this.bookKeeper, this.config);
+        return new LogReader(this.logId, getLogMetadata(), this.bookKeeper, this.config);
     }
 
     @Override
@@ -686,7 +688,7 @@ class BookKeeperLog implements DurableDataLog {
         while (ledgersToDelete.hasNext()) {
             val lm = ledgersToDelete.next();
             try {
-                Ledgers.delete(lm.getLedgerId(), this.bookKeeper);
+                SharedLedgers.delete(lm, this.logId, this.zkClient, this.bookKeeper);
             } catch (DurableDataLogException ex) {
                 // Nothing we can do if we can't delete a ledger; we've already updated the metadata. Log the error and
                 // move on.
@@ -887,16 +889,16 @@ class BookKeeperLog implements DurableDataLog {
     }
 
     /**
-     * Determines which Ledger Ids are safe to delete from BookKeeper.
+     * Determines which Ledgers are safe to delete from BookKeeper.
      *
      * @param oldMetadata     A pointer to the previous version of the metadata, that contains all Ledgers eligible for
      *                        deletion. Only those Ledgers that do not exist in currentMetadata will be selected.
      * @param currentMetadata A pointer to the current version of the metadata. No Ledger that is referenced here will
      *                        be selected.
-     * @return A List that contains Ledger Ids to remove. May be empty.
+     * @return A List that contains the LedgerMetadata of the Ledgers to remove. May be empty.
      */
     @GuardedBy("lock")
-    private List<Long> getLedgerIdsToDelete(LogMetadata oldMetadata, LogMetadata currentMetadata) {
+    private List<LedgerMetadata> getLedgersToDelete(LogMetadata oldMetadata, LogMetadata currentMetadata) {
         if (oldMetadata == null) {
             return Collections.emptyList();
         }
@@ -905,8 +907,7 @@ class BookKeeperLog implements DurableDataLog {
                 .map(LedgerMetadata::getLedgerId)
                 .collect(Collectors.toSet());
         return oldMetadata.getLedgers().stream()
-                .map(LedgerMetadata::getLedgerId)
-                .filter(id -> !existingIds.contains(id))
+                .filter(lm -> !existingIds.contains(lm.getLedgerId()))
                 .collect(Collectors.toList());
     }
 
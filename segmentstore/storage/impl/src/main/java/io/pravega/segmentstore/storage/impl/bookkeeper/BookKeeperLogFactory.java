@@ -34,6 +34,7 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
     private final String namespace;
     private final CuratorFramework zkClient;
     private final AtomicReference<BookKeeper> bookKeeper;
+    private final AtomicReference<SharedLedgerWriter> sharedLedgerWriter;
     private final BookKeeperConfig config;
     private final ScheduledExecutorService executor;
 
@@ -55,6 +56,7 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
         this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient")
                                      .usingNamespace(this.namespace + this.config.getZkMetadataPath());
         this.bookKeeper = new AtomicReference<>();
+        this.sharedLedgerWriter = new AtomicReference<>();
     }
 
     //endregion
@@ -63,6 +65,11 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
 
     @Override
     public void close() {
+        val writer = this.sharedLedgerWriter.getAndSet(null);
+        if (writer != null) {
+            writer.close();
+        }
+
         val bk = this.bookKeeper.getAndSet(null);
         if (bk != null) {
             try {
@@ -82,6 +89,9 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
         Preconditions.checkState(this.bookKeeper.get() == null, "BookKeeperLogFactory is already initialized.");
         try {
             this.bookKeeper.set(startBookKeeperClient());
+            if (this.config.isBkGroupCommitEnabled()) {
+                this.sharedLedgerWriter.set(new SharedLedgerWriter(this.zkClient, this.bookKeeper.get(), this.config, this.executor));
+            }
         } catch (IllegalArgumentException | NullPointerException ex) {
             // Most likely a configuration issue; re-throw as is.
             close();
@@ -100,6 +110,11 @@ public class BookKeeperLogFactory implements DurableDataLogFactory {
     @Override
     public DurableDataLog createDurableDataLog(int logId) {
         Preconditions.checkState(this.bookKeeper.get() != null, "BookKeeperLogFactory is not initialized.");
+        val writer = this.sharedLedgerWriter.get();
+        if (writer != null) {
+            return new SharedBookKeeperLog(logId, this.zkClient, this.bookKeeper.get(), writer, this.config, this.executor);
+        }
+
         return new BookKeeperLog(logId, this.zkClient, this.bookKeeper.get(), this.config, this.executor);
     }
 
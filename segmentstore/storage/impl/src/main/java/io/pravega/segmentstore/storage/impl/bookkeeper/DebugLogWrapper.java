@@ -35,6 +35,7 @@ public class DebugLogWrapper implements AutoCloseable {
     //region Members
 
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private final int logId;
     private final BookKeeperLog log;
     private final BookKeeper bkClient;
     private final BookKeeperConfig config;
@@ -54,6 +55,7 @@ public class DebugLogWrapper implements AutoCloseable {
      * @param executor   An Executor to use for async operations.
      */
     DebugLogWrapper(int logId, CuratorFramework zkClient, BookKeeper bookKeeper, BookKeeperConfig config, ScheduledExecutorService executor) {
+        this.logId = logId;
         this.log = new BookKeeperLog(logId, zkClient, bookKeeper, config, executor);
         this.bkClient = bookKeeper;
         this.config = config;
@@ -152,7 +154,7 @@ public class DebugLogWrapper implements AutoCloseable {
 
         @Override
         public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
-            return new LogReader(this.logMetadata, DebugLogWrapper.this.bkClient, DebugLogWrapper.this.config);
+            return new LogReader(DebugLogWrapper.this.logId, this.logMetadata, DebugLogWrapper.this.bkClient, DebugLogWrapper.this.config);
         }
 
         @Override
@@ -16,7 +16,7 @@ import lombok.RequiredArgsConstructor;
 /**
  * Represents metadata about a particular ledger.
  */
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 @Getter
 public class LedgerMetadata {
     /**
@@ -34,6 +34,12 @@ public class LedgerMetadata {
      */
     private final Status status;
 
+    /**
+     * Whether this Ledger is shared with other Logs (its entries are multiplexed by SharedLedgerWriter). If true, every
+     * entry in this Ledger needs to be demultiplexed using SharedLedgerEntry.
+     */
+    private final boolean shared;
+
     /**
      * Creates a new instance of the LedgerMetadata class with an unknown Empty Status.
      *
@@ -41,12 +47,42 @@ public class LedgerMetadata {
      * @param sequence The metadata-assigned sequence number.
      */
     LedgerMetadata(long ledgerId, int sequence) {
-        this(ledgerId, sequence, Status.Unknown);
+        this(ledgerId, sequence, Status.Unknown, false);
+    }
+
+    /**
+     * Creates a new instance of the LedgerMetadata class for a Ledger that is not shared.
+     *
+     * @param ledgerId The BookKeeper-assigned Ledger Id.
+     * @param sequence The metadata-assigned sequence number.
+     * @param status   The Status of the Ledger.
+     */
+    LedgerMetadata(long ledgerId, int sequence, Status status) {
+        this(ledgerId, sequence, status, false);
+    }
+
+    /**
+     * Creates a new instance of the LedgerMetadata class with the same information as this one, but with the given status.
+     *
+     * @param status The Status of the Ledger.
+     * @return A new instance of the LedgerMetadata class.
+     */
+    LedgerMetadata withStatus(Status status) {
+        return new LedgerMetadata(this.ledgerId, this.sequence, status, this.shared);
+    }
+
+    /**
+     * Creates a new instance of the LedgerMetadata class with the same information as this one, but marked as shared.
+     *
+     * @return A new instance of the LedgerMetadata class.
+     */
+    LedgerMetadata asShared() {
+        return new LedgerMetadata(this.ledgerId, this.sequence, this.status, true);
     }
 
     @Override
     public String toString() {
-        return String.format("Id = %d, Sequence = %d, Status = %s", this.ledgerId, this.sequence, this.status);
+        return String.format("Id = %d, Sequence = %d, Status = %s%s", this.ledgerId, this.sequence, this.status, this.shared ? ", Shared" : "");
     }
 
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
@@ -18,6 +18,7 @@ import io.pravega.common.util.CollectionHelpers;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -93,7 +94,17 @@ class LogMetadata implements ReadOnlyLogMetadata {
      * @param initialLedgerId The Id of the Ledger to start the log with.
      */
     LogMetadata(long initialLedgerId) {
-        this(INITIAL_EPOCH, true, Collections.singletonList(new LedgerMetadata(initialLedgerId, INITIAL_LEDGER_SEQUENCE)),
+        this(initialLedgerId, false);
+    }
+
+    /**
+     * Creates a new instance of the LogMetadata class with one Ledger and epoch set to the default value.
+     *
+     * @param initialLedgerId The Id of the Ledger to start the log with.
+     * @param shared          Whether the Ledger is shared with other logs.
+     */
+    LogMetadata(long initialLedgerId, boolean shared) {
+        this(INITIAL_EPOCH, true, Collections.singletonList(newLedgerMetadata(initialLedgerId, INITIAL_LEDGER_SEQUENCE, shared)),
                 INITIAL_TRUNCATION_ADDRESS, INITIAL_VERSION);
     }
 
@@ -128,6 +139,17 @@ class LogMetadata implements ReadOnlyLogMetadata {
      * @return A new instance of the LogMetadata class.
      */
     LogMetadata addLedger(long ledgerId) {
+        return addLedger(ledgerId, false);
+    }
+
+    /**
+     * Creates a new instance of the LogMetadata class which contains an additional ledger.
+     *
+     * @param ledgerId The Id of the Ledger to add.
+     * @param shared   Whether the Ledger is shared with other logs.
+     * @return A new instance of the LogMetadata class.
+     */
+    LogMetadata addLedger(long ledgerId, boolean shared) {
         Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
 
         // Copy existing ledgers.
@@ -136,7 +158,7 @@ class LogMetadata implements ReadOnlyLogMetadata {
 
         // Create and add metadata for the new ledger.
         int sequence = this.ledgers.size() == 0 ? INITIAL_LEDGER_SEQUENCE : this.ledgers.get(this.ledgers.size() - 1).getSequence() + 1;
-        newLedgers.add(new LedgerMetadata(ledgerId, sequence));
+        newLedgers.add(newLedgerMetadata(ledgerId, sequence, shared));
         return new LogMetadata(this.epoch + 1, this.enabled, Collections.unmodifiableList(newLedgers), this.truncationAddress, this.updateVersion.get());
     }
 
@@ -201,7 +223,7 @@ class LogMetadata implements ReadOnlyLogMetadata {
                         LedgerMetadata.Status e = lac == Ledgers.NO_ENTRY_ID
                                 ? LedgerMetadata.Status.Empty
                                 : LedgerMetadata.Status.NotEmpty;
-                        lm = new LedgerMetadata(lm.getLedgerId(), lm.getSequence(), e);
+                        lm = lm.withStatus(e);
                     }
 
                     return lm;
@@ -328,6 +350,11 @@ class LogMetadata implements ReadOnlyLogMetadata {
         return CollectionHelpers.binarySearch(this.ledgers, lm -> Long.compare(ledgerId, lm.getLedgerId()));
     }
 
+    private static LedgerMetadata newLedgerMetadata(long ledgerId, int sequence, boolean shared) {
+        val result = new LedgerMetadata(ledgerId, sequence);
+        return shared ? result.asShared() : result;
+    }
+
     //endregion
 
     @Override
@@ -354,7 +381,8 @@ class LogMetadata implements ReadOnlyLogMetadata {
 
         @Override
         protected void declareVersions() {
-            version(0).revision(0, this::write00, this::read00);
+            version(0).revision(0, this::write00, this::read00)
+                      .revision(1, this::write01, this::read01);
         }
 
         private void write00(LogMetadata m, RevisionDataOutput output) throws IOException {
@@ -374,6 +402,22 @@ class LogMetadata implements ReadOnlyLogMetadata {
             builder.updateVersion(INITIAL_VERSION);
         }
 
+        private void write01(LogMetadata m, RevisionDataOutput output) throws IOException {
+            // Shared Ledgers were introduced after Revision 0, so we record their ids separately.
+            val sharedLedgerIds = m.ledgers.stream().filter(LedgerMetadata::isShared).map(LedgerMetadata::getLedgerId).collect(Collectors.toList());
+            output.writeCollection(sharedLedgerIds, RevisionDataOutput::writeCompactLong);
+        }
+
+        private void read01(RevisionDataInput input, LogMetadata.LogMetadataBuilder builder) throws IOException {
+            val sharedLedgerIds = input.readCollection(RevisionDataInput::readCompactLong, HashSet::new);
+            if (!sharedLedgerIds.isEmpty()) {
+                val ledgers = builder.ledgers.stream()
+                        .map(lm -> sharedLedgerIds.contains(lm.getLedgerId()) ? lm.asShared() : lm)
+                        .collect(Collectors.toList());
+                builder.ledgers(Collections.unmodifiableList(ledgers));
+            }
+        }
+
         private void writeLedger00(RevisionDataOutput output, LedgerMetadata m) throws IOException {
             output.writeCompactLong(m.getLedgerId());
             output.writeCompactInt(m.getSequence());
@@ -11,6 +11,7 @@ package io.pravega.segmentstore.storage.impl.bookkeeper;
 
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
@@ -36,6 +37,7 @@ import org.apache.bookkeeper.client.LedgerHandle;
 class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> {
     //region Members
 
+    private final int logId;
     private final BookKeeper bookKeeper;
     private final LogMetadata metadata;
     private final AtomicBoolean closed;
@@ -49,11 +51,13 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     /**
      * Creates a new instance of the LogReader class.
      *
+     * @param logId      The Id of the Log to read. This is used to locate the Log's Records within shared Ledgers.
      * @param metadata   The LogMetadata of the Log to read.
      * @param bookKeeper A reference to the BookKeeper client to use.
      * @param config     Configuration to use.
      */
-    LogReader(LogMetadata metadata, BookKeeper bookKeeper, BookKeeperConfig config) {
+    LogReader(int logId, LogMetadata metadata, BookKeeper bookKeeper, BookKeeperConfig config) {
+        this.logId = logId;
         this.metadata = Preconditions.checkNotNull(metadata, "metadata");
         this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
         this.config = Preconditions.checkNotNull(config, "config");
@@ -93,19 +97,39 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             openNextLedger(this.metadata.getNextAddress(this.metadata.getTruncationAddress(), Long.MAX_VALUE));
         }
 
-        while (this.currentLedger != null && (!this.currentLedger.canRead())) {
-            // We have reached the end of the current ledger. Find next one, and skip over empty ledgers).
-            val lastAddress = new LedgerAddress(this.currentLedger.metadata, this.currentLedger.handle.getLastAddConfirmed());
-            Ledgers.close(this.currentLedger.handle);
-            openNextLedger(this.metadata.getNextAddress(lastAddress, this.currentLedger.handle.getLastAddConfirmed()));
-        }
+        while (true) {
+            while (this.currentLedger != null && (!this.currentLedger.canRead())) {
+                // We have reached the end of the current ledger. Find next one, and skip over empty ledgers).
+                val lastAddress = new LedgerAddress(this.currentLedger.metadata, this.currentLedger.handle.getLastAddConfirmed());
+                Ledgers.close(this.currentLedger.handle);
+                openNextLedger(this.metadata.getNextAddress(lastAddress, this.currentLedger.handle.getLastAddConfirmed()));
+            }
+
+            // Try to read from the current reader.
+            if (this.currentLedger == null || this.currentLedger.reader == null) {
+                return null;
+            }
+
+            LedgerEntry entry = this.currentLedger.reader.nextElement();
+            if (!this.currentLedger.metadata.isShared()) {
+                return new LogReader.ReadItem(entry, this.currentLedger.metadata);
+            }
 
-        // Try to read from the current reader.
-        if (this.currentLedger == null || this.currentLedger.reader == null) {
-            return null;
+            // Shared ledger: only return this Log's Record, if any; skip over entries that do not contain one.
+            ByteArraySegment record = findRecord(entry);
+            if (record != null) {
+                return new LogReader.ReadItem(record, entry.getEntryId(), this.currentLedger.metadata);
+            }
         }
+    }
 
-        return new LogReader.ReadItem(this.currentLedger.reader.nextElement(), this.currentLedger.metadata);
+    private ByteArraySegment findRecord(LedgerEntry entry) throws DurableDataLogException {
+        try {
+            return SharedLedgerEntry.find(entry.getEntry(), this.logId);
+        } catch (IllegalArgumentException ex) {
+            throw new DurableDataLogException(String.format("Unable to parse shared entry %d in Ledger %d.",
+                    entry.getEntryId(), entry.getLedgerId()), ex);
+        }
     }
 
     private void openNextLedger(LedgerAddress address) throws DurableDataLogException {
@@ -174,6 +198,12 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             this.length = this.payload.available();
         }
 
+        ReadItem(ByteArraySegment record, long entryId, LedgerMetadata ledgerMetadata) {
+            this.address = new LedgerAddress(ledgerMetadata, entryId);
+            this.payload = record.getReader();
+            this.length = record.getLength();
+        }
+
         @Override
         public String toString() {
             return String.format("%s, Length = %d.", this.address, this.length);
@@ -0,0 +1,491 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.storage.DataLogDisabledException;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.bookkeeper.client.BookKeeper;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+/**
+ * Apache BookKeeper implementation of the DurableDataLog interface which writes into Ledgers that are shared with other
+ * Logs on the same host (group commit). Writes are multiplexed by a SharedLedgerWriter; see its JavaDoc for details.
+ * <p>
+ * The Log Metadata has the same format as the one used by BookKeeperLog (with shared Ledgers marked as such), and so does
+ * the fencing protocol, which means a Log may switch between this and BookKeeperLog across recoveries. The trade-off is
+ * upon recovery: every shared Ledger needs to be read in its entirety (including other Logs' entries), and the Log's
+ * own Records are then filtered out of it.
+ */
+@Slf4j
+@ThreadSafe
+class SharedBookKeeperLog implements DurableDataLog, SharedLedgerWriter.Participant {
+    //region Members
+
+    private static final long REPORT_INTERVAL = 1000;
+    @Getter
+    private final int logId;
+    private final String logNodePath;
+    private final CuratorFramework zkClient;
+    private final BookKeeper bookKeeper;
+    private final SharedLedgerWriter writer;
+    private final BookKeeperConfig config;
+    private final ScheduledExecutorService executorService;
+    private final AtomicBoolean closed;
+    private final Object lock = new Object();
+    private final String traceObjectId;
+    @GuardedBy("lock")
+    private LogMetadata logMetadata;
+    @GuardedBy("lock")
+    private boolean initialized;
+    private final BookKeeperMetrics.BookKeeperLog metrics;
+    private final ScheduledFuture<?> metricReporter;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SharedBookKeeperLog class.
+     *
+     * @param containerId     The Id of the Container whose SharedBookKeeperLog to open.
+     * @param zkClient        A reference to the CuratorFramework client to use.
+     * @param bookKeeper      A reference to the BookKeeper client to use.
+     * @param writer          A reference to the SharedLedgerWriter to use.
+     * @param config          Configuration to use.
+     * @param executorService An Executor to use for async operations.
+     */
+    SharedBookKeeperLog(int containerId, CuratorFramework zkClient, BookKeeper bookKeeper, SharedLedgerWriter writer,
+                        BookKeeperConfig config, ScheduledExecutorService executorService) {
+        Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative integer.");
+        this.logId = containerId;
+        this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient");
+        this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
+        this.writer = Preconditions.checkNotNull(writer, "writer");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executorService = Preconditions.checkNotNull(executorService, "executorService");
+        this.closed = new AtomicBoolean();
+        this.logNodePath = HierarchyUtils.getPath(containerId, this.config.getZkHierarchyDepth());
+        this.traceObjectId = String.format("SharedLog[%d]", containerId);
+        this.metrics = new BookKeeperMetrics.BookKeeperLog(containerId);
+        this.metricReporter = this.executorService.scheduleWithFixedDelay(this::reportMetrics, REPORT_INTERVAL, REPORT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.metricReporter.cancel(true);
+            this.metrics.close();
+
+            // Stop writing; this cancels any writes that have not yet been sent to BookKeeper.
+            this.writer.detach(this);
+            synchronized (this.lock) {
+                this.logMetadata = null;
+            }
+
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region DurableDataLog Implementation
+
+    /**
+     * Open-Fences this SharedBookKeeperLog using the following protocol:
+     * 1. Read Log Metadata from ZooKeeper.
+     * 2. Fence at least the last 2 ledgers in the Ledger List.
+     * 3. Register with the SharedLedgerWriter, which adds its active Ledger to the Log Metadata, using compare-and-set
+     * (see addSharedLedger()).
+     * 3.1 If CAS fails on metadata update, we were fenced out by some other instance and no other update is performed.
+     *
+     * @param timeout Timeout for the operation.
+     * @throws DataLogWriterNotPrimaryException If we were fenced-out during this process.
+     * @throws DataLogNotAvailableException     If BookKeeper or ZooKeeper are not available.
+     * @throws DataLogDisabledException         If the SharedBookKeeperLog is disabled. No fencing is attempted in this case.
+     * @throws DataLogInitializationException   If a general initialization error occurred.
+     * @throws DurableDataLogException          If another type of exception occurred.
+     */
+    @Override
+    public void initialize(Duration timeout) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        List<LedgerMetadata> ledgersToDelete;
+        LogMetadata newMetadata;
+        synchronized (this.lock) {
+            Preconditions.checkState(!this.initialized, "SharedBookKeeperLog is already initialized.");
+
+            // Get metadata about the current state of the log, if any.
+            LogMetadata oldMetadata = loadMetadata();
+            if (oldMetadata != null) {
+                if (!oldMetadata.isEnabled()) {
+                    throw new DataLogDisabledException("SharedBookKeeperLog is disabled. Cannot initialize.");
+                }
+
+                // Fence out ledgers.
+                val emptyLedgerIds = Ledgers.fenceOut(oldMetadata.getLedgers(), this.bookKeeper, this.config, this.traceObjectId);
+
+                // Update Metadata to reflect those newly found empty ledgers.
+                oldMetadata = oldMetadata.updateLedgerStatus(emptyLedgerIds);
+            }
+
+            // Register with the SharedLedgerWriter. This will invoke addSharedLedger() with its active Ledger.
+            this.logMetadata = oldMetadata;
+            this.writer.attach(this);
+            newMetadata = this.logMetadata;
+            this.initialized = true;
+            ledgersToDelete = getLedgersToDelete(oldMetadata, newMetadata);
+        }
+
+        // Delete the orphaned ledgers from BookKeeper.
+        ledgersToDelete.forEach(lm -> {
+            try {
+                SharedLedgers.delete(lm, this.logId, this.zkClient, this.bookKeeper);
+                log.info("{}: Deleted orphan empty ledger {}.", this.traceObjectId, lm.getLedgerId());
+            } catch (DurableDataLogException ex) {
+                // A failure here has no effect on the initialization of SharedBookKeeperLog. In this case, the (empty)
+                // Ledger will remain in BookKeeper until manually deleted by a cleanup tool.
+                log.warn("{}: Unable to delete orphan empty ledger {}.", this.traceObjectId, lm.getLedgerId(), ex);
+            }
+        });
+        log.info("{}: Initialized (Epoch = {}, UpdateVersion = {}).", this.traceObjectId, newMetadata.getEpoch(), newMetadata.getUpdateVersion());
+    }
+
+    @Override
+    public void enable() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(!this.initialized, "SharedBookKeeperLog is already initialized; cannot re-enable.");
+
+            // Load existing metadata. Inexistent metadata means the Log has never been accessed, and therefore enabled
+            // by default.
+            LogMetadata metadata = loadMetadata();
+            Preconditions.checkState(metadata != null && !metadata.isEnabled(), "SharedBookKeeperLog is already enabled.");
+            metadata = metadata.asEnabled();
+            persistMetadata(metadata, false);
+            log.info("{}: Enabled (Epoch = {}, UpdateVersion = {}).", this.traceObjectId, metadata.getEpoch(), metadata.getUpdateVersion());
+        }
+    }
+
+    @Override
+    public void disable() throws DurableDataLogException {
+        // Get the current metadata, disable it, and then persist it back.
+        synchronized (this.lock) {
+            ensurePreconditions();
+            LogMetadata metadata = getLogMetadata();
+            Preconditions.checkState(metadata.isEnabled(), "SharedBookKeeperLog is already disabled.");
+            metadata = this.logMetadata.asDisabled();
+            persistMetadata(metadata, false);
+            this.logMetadata = metadata;
+            log.info("{}: Disabled (Epoch = {}, UpdateVersion = {}).", this.traceObjectId, metadata.getEpoch(), metadata.getUpdateVersion());
+        }
+
+        // Close this instance of the SharedBookKeeperLog. This ensures the proper cancellation of any ongoing writes.
+        close();
+    }
+
+    @Override
+    public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
+        ensurePreconditions();
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "append", data.getLength());
+        if (data.getLength() > getMaxAppendLength()) {
+            return Futures.failedFuture(new WriteTooLongException(data.getLength(), getMaxAppendLength()));
+        }
+
+        Timer timer = new Timer();
+        CompletableFuture<LogAddress> result = this.writer.append(this, data);
+        result.whenCompleteAsync((address, ex) -> {
+            if (ex != null) {
+                // A failed write leaves a gap in the Log; we cannot accept any further writes.
+                log.warn("{}: Write failed; closing.", this.traceObjectId, ex);
+                close();
+            } else {
+                this.metrics.writeCompleted(timer.getElapsed());
+                this.metrics.bookKeeperWriteCompleted(data.getLength(), timer.getElapsed());
+                LoggerHelpers.traceLeave(log, this.traceObjectId, "append", traceId, data.getLength(), address);
+            }
+        }, this.executorService);
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+        ensurePreconditions();
+        Preconditions.checkArgument(upToAddress instanceof LedgerAddress, "upToAddress must be of type LedgerAddress.");
+        return CompletableFuture.runAsync(() -> tryTruncate((LedgerAddress) upToAddress), this.executorService);
+    }
+
+    @Override
+    public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
+        ensurePreconditions();
+        return new LogReader(this.logId, getLogMetadata(), this.bookKeeper, this.config);
+    }
+
+    @Override
+    public int getMaxAppendLength() {
+        return SharedLedgerWriter.getMaxAppendLength();
+    }
+
+    @Override
+    public long getEpoch() {
+        ensurePreconditions();
+        return getLogMetadata().getEpoch();
+    }
+
+    @Override
+    public QueueStats getQueueStatistics() {
+        return this.writer.getQueueStatistics();
+    }
+
+    //endregion
+
+    //region SharedLedgerWriter.Participant Implementation
+
+    @Override
+    public long getLastLedgerId() {
+        synchronized (this.lock) {
+            if (this.logMetadata == null || this.logMetadata.getLedgers().isEmpty()) {
+                return Ledgers.NO_ENTRY_ID;
+            }
+
+            val ledgers = this.logMetadata.getLedgers();
+            return ledgers.get(ledgers.size() - 1).getLedgerId();
+        }
+    }
+
+    /**
+     * Adds the given shared Ledger to the Log Metadata and persists it to ZooKeeper using compare-and-set.
+     *
+     * @param ledgerId The Id of the Ledger to add.
+     * @return The LedgerMetadata for the given Ledger.
+     * @throws DataLogWriterNotPrimaryException If we were fenced out.
+     * @throws DurableDataLogException          If another kind of exception occurred.
+     */
+    @Override
+    public LedgerMetadata addSharedLedger(long ledgerId) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            LogMetadata metadata = this.logMetadata;
+            boolean create = metadata == null;
+            if (create) {
+                // This is the first ledger ever in the metadata.
+                metadata = new LogMetadata(ledgerId, true);
+            } else {
+                metadata = metadata.addLedger(ledgerId, true);
+                if (!this.initialized) {
+                    // Remove those ledgers from the metadata that are empty (only upon initialization).
+                    metadata = metadata.removeEmptyLedgers(Ledgers.MIN_FENCE_LEDGER_COUNT);
+                }
+            }
+
+            persistMetadata(metadata, create);
+            this.logMetadata = metadata;
+            LedgerMetadata ledgerMetadata = metadata.getLedger(ledgerId);
+            assert ledgerMetadata != null : "cannot find newly added ledger metadata";
+            log.info("{}: Added shared Ledger {} ({}).", this.traceObjectId, ledgerId, metadata);
+            return ledgerMetadata;
+        }
+    }
+
+    //endregion
+
+    //region Truncation
+
+    /**
+     * Attempts to truncate the Log. The general steps are:
+     * 1. Create an in-memory copy of the metadata reflecting the truncation.
+     * 2. Attempt to persist the metadata to ZooKeeper.
+     * 2.1. This is the only operation that can fail the process. If this fails, the operation stops here.
+     * 3. Swap in-memory metadata pointers.
+     * 4. Delete truncated-out ledgers (shared ledgers are only deleted once no other Log refers to them).
+     * 4.1. If any of the ledgers cannot be deleted, no further attempt to clean them up is done.
+     *
+     * @param upToAddress The address up to which to truncate.
+     */
+    @SneakyThrows(DurableDataLogException.class)
+    private void tryTruncate(LedgerAddress upToAddress) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "tryTruncate", upToAddress);
+        LogMetadata oldMetadata;
+        LogMetadata newMetadata;
+        synchronized (this.lock) {
+            // Metadata updates are also made by the SharedLedgerWriter, so the whole update must be done under the lock.
+            oldMetadata = getLogMetadata();
+            newMetadata = oldMetadata.truncate(upToAddress);
+            persistMetadata(newMetadata, false);
+            this.logMetadata = newMetadata;
+        }
+
+        // Determine ledgers to delete and delete them.
+        for (LedgerMetadata lm : getLedgersToDelete(oldMetadata, newMetadata)) {
+            try {
+                SharedLedgers.delete(lm, this.logId, this.zkClient, this.bookKeeper);
+            } catch (DurableDataLogException ex) {
+                // Nothing we can do if we can't delete a ledger; we've already updated the metadata. Log the error and
+                // move on.
+                log.error("{}: Unable to delete truncated ledger {}.", this.traceObjectId, lm.getLedgerId(), ex);
+            }
+        }
+
+        log.info("{}: Truncated up to {}.", this.traceObjectId, upToAddress);
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "tryTruncate", traceId, upToAddress);
+    }
+
+    /**
+     * Determines which Ledgers are no longer referenced by this Log.
+     *
+     * @param oldMetadata     A pointer to the previous version of the metadata.
+     * @param currentMetadata A pointer to the current version of the metadata. No Ledger that is referenced here will
+     *                        be selected.
+     * @return A List that contains the LedgerMetadata of the Ledgers to remove. May be empty.
+     */
+    private List<LedgerMetadata> getLedgersToDelete(LogMetadata oldMetadata, LogMetadata currentMetadata) {
+        if (oldMetadata == null) {
+            return Collections.emptyList();
+        }
+
+        val existingIds = currentMetadata.getLedgers().stream()
+                .map(LedgerMetadata::getLedgerId)
+                .collect(Collectors.toSet());
+        return oldMetadata.getLedgers().stream()
+                .filter(lm -> !existingIds.contains(lm.getLedgerId()))
+                .collect(Collectors.toList());
+    }
+
+    //endregion
+
+    //region Metadata Management
+
+    /**
+     * Loads the metadata for the current log, as stored in ZooKeeper.
+     *
+     * @return A new LogMetadata object with the desired information, or null if no such node exists.
+     * @throws DataLogInitializationException If an Exception (other than NoNodeException) occurred.
+     */
+    @VisibleForTesting
+    LogMetadata loadMetadata() throws DataLogInitializationException {
+        try {
+            Stat storingStatIn = new Stat();
+            byte[] serializedMetadata = this.zkClient.getData().storingStatIn(storingStatIn).forPath(this.logNodePath);
+            LogMetadata result = LogMetadata.SERIALIZER.deserialize(serializedMetadata);
+            result.withUpdateVersion(storingStatIn.getVersion());
+            return result;
+        } catch (KeeperException.NoNodeException nne) {
+            // Node does not exist: this is the first time we are accessing this log.
+            log.warn("{}: No ZNode found for path '{}{}'. This is OK if this is the first time accessing this log.",
+                    this.traceObjectId, this.zkClient.getNamespace(), this.logNodePath);
+            return null;
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to load ZNode contents for path '%s%s'.",
+                    this.zkClient.getNamespace(), this.logNodePath), ex);
+        }
+    }
+
+    /**
+     * Persists the given metadata into ZooKeeper.
+     *
+     * @param metadata The LogMetadata to persist. At the end of this method, this metadata will have its Version updated
+     *                 to the one in ZooKeeper.
+     * @param create   Whether to create (true) or update (false) the data in ZooKeeper.
+     * @throws DataLogWriterNotPrimaryException If the metadata update failed (if we were asked to create and the node
+     *                                          already exists or if we had to update and there was a version mismatch).
+     * @throws DurableDataLogException          If another kind of exception occurred.
+     */
+    private void persistMetadata(LogMetadata metadata, boolean create) throws DurableDataLogException {
+        try {
+            byte[] serializedMetadata = LogMetadata.SERIALIZER.serialize(metadata).getCopy();
+            if (create) {
+                this.zkClient.create()
+                             .creatingParentsIfNeeded()
+                             .forPath(this.logNodePath, serializedMetadata);
+                // Set version to 0 as that will match the ZNode's version.
+                metadata.withUpdateVersion(0);
+            } else {
+                this.zkClient.setData()
+                             .withVersion(metadata.getUpdateVersion())
+                             .forPath(this.logNodePath, serializedMetadata);
+
+                // Increment the version to keep up with the ZNode's value (after writing it to ZK).
+                metadata.withUpdateVersion(metadata.getUpdateVersion() + 1);
+            }
+        } catch (KeeperException.NodeExistsException | KeeperException.BadVersionException keeperEx) {
+            // We were fenced out.
+            throw new DataLogWriterNotPrimaryException(
+                    String.format("Unable to acquire exclusive write lock for log (path = '%s%s').", this.zkClient.getNamespace(), this.logNodePath),
+                    keeperEx);
+        } catch (Exception generalEx) {
+            throw new DataLogInitializationException(
+                    String.format("Unable to update ZNode for path '%s%s'.", this.zkClient.getNamespace(), this.logNodePath),
+                    generalEx);
+        }
+
+        log.info("{} Metadata persisted ({}).", this.traceObjectId, metadata);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void reportMetrics() {
+        LogMetadata metadata = getLogMetadata();
+        if (metadata != null) {
+            this.metrics.ledgerCount(metadata.getLedgers().size());
+        }
+    }
+
+    private LogMetadata getLogMetadata() {
+        synchronized (this.lock) {
+            return this.logMetadata;
+        }
+    }
+
+    private void ensurePreconditions() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(this.initialized, "SharedBookKeeperLog is not initialized.");
+            assert this.logMetadata != null : "initialized but logMetadata == null";
+        }
+    }
+
+    //endregion
+}
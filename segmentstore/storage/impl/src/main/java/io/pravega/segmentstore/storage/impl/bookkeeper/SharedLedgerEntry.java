@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serialization format for BookKeeper Ledger Entries that are shared between multiple Logs (see SharedLedgerWriter).
+ * Every such entry contains one or more Records, each belonging to a different Log:
+ * * Header: Version (1 byte), Record Count (4 bytes).
+ * * Records: LogId (4 bytes), Length (4 bytes), Data (Length bytes).
+ */
+final class SharedLedgerEntry {
+    static final int HEADER_LENGTH = Byte.BYTES + Integer.BYTES;
+    static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final byte CURRENT_VERSION = 0;
+
+    /**
+     * Serializes the given Records into a single Ledger Entry.
+     *
+     * @param records The Records to serialize. There must be at most one Record for each Log.
+     * @return A ByteArraySegment containing the serialized Entry.
+     */
+    static ByteArraySegment serialize(List<? extends Record> records) {
+        Preconditions.checkArgument(!records.isEmpty(), "records must not be empty.");
+        int length = HEADER_LENGTH;
+        for (Record r : records) {
+            length += RECORD_HEADER_LENGTH + r.getData().getLength();
+        }
+
+        byte[] result = new byte[length];
+        result[0] = CURRENT_VERSION;
+        int offset = 1 + BitConverter.writeInt(result, 1, records.size());
+        for (Record r : records) {
+            offset += BitConverter.writeInt(result, offset, r.getLogId());
+            offset += BitConverter.writeInt(result, offset, r.getData().getLength());
+            System.arraycopy(r.getData().array(), r.getData().arrayOffset(), result, offset, r.getData().getLength());
+            offset += r.getData().getLength();
+        }
+
+        assert offset == result.length : "serialization length mismatch";
+        return new ByteArraySegment(result);
+    }
+
+    /**
+     * Locates the Record belonging to the given Log within the given serialized Entry.
+     *
+     * @param entry The serialized Entry, as returned by serialize().
+     * @param logId The Id of the Log to locate the Record for.
+     * @return A ByteArraySegment wrapping the Record's data, or null if the Entry does not contain any Record for the Log.
+     * @throws IllegalArgumentException If the Entry is not a valid serialization.
+     */
+    static ByteArraySegment find(byte[] entry, int logId) {
+        Preconditions.checkArgument(entry.length >= HEADER_LENGTH && entry[0] == CURRENT_VERSION, "Invalid or unsupported shared entry.");
+        int count = BitConverter.readInt(entry, 1);
+        int offset = HEADER_LENGTH;
+        for (int i = 0; i < count; i++) {
+            Preconditions.checkArgument(offset + RECORD_HEADER_LENGTH <= entry.length, "Shared entry is truncated.");
+            int recordLogId = BitConverter.readInt(entry, offset);
+            int recordLength = BitConverter.readInt(entry, offset + Integer.BYTES);
+            offset += RECORD_HEADER_LENGTH;
+            Preconditions.checkArgument(recordLength >= 0 && offset + recordLength <= entry.length, "Shared entry is truncated.");
+            if (recordLogId == logId) {
+                return new ByteArraySegment(entry, offset, recordLength, true);
+            }
+
+            offset += recordLength;
+        }
+
+        return null;
+    }
+
+    /**
+     * A single Record within a shared Ledger Entry.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    static class Record {
+        /**
+         * The Id of the Log this Record belongs to.
+         */
+        private final int logId;
+        /**
+         * The Record's data.
+         */
+        private final ArrayView data;
+    }
+}
@@ -0,0 +1,781 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.SequentialAsyncProcessor;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.RetriesExhaustedException;
+import io.pravega.common.util.Retry;
+import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.segmentstore.storage.WriteFailureException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.bookkeeper.client.BKException;
+import org.apache.bookkeeper.client.BookKeeper;
+import org.apache.bookkeeper.client.LedgerHandle;
+import org.apache.curator.framework.CuratorFramework;
+
+/**
+ * Multiplexes the writes of multiple Logs (Participants) into a single BookKeeper Ledger (group commit). Each BookKeeper
+ * Entry contains at most one Record from each Participant (see SharedLedgerEntry), which means that a host with many
+ * Logs under modest load will issue much fewer (but larger) BookKeeper writes than if each Log had its own Ledger.
+ * <p>
+ * Fencing and Rollovers:
+ * * Before a Participant may write to a Ledger, the Ledger must be added to that Participant's metadata (using the
+ * Participant's compare-and-set metadata update).
+ * * When a Participant is recovered elsewhere, the new owner will fence out the shared Ledger, which will cause all writes
+ * to it to fail. When that happens, this class creates a new Ledger and adds it to every Participant's metadata; the
+ * Participant that was fenced out will fail to do so (since its metadata has been changed by its new owner) and will be
+ * closed, while everyone else will resume writing to the new Ledger.
+ * * Writes that failed are retried (in order) on the new Ledger, unless they made it into the old Ledger before it was
+ * fenced (which we determine using the Ledger's LastAddConfirmed).
+ * * Rollovers are executed by a separate processor, since they involve a metadata update for every Participant. Writes
+ * continue to the old Ledger while a rollover is in progress, unless that Ledger has failed.
+ */
+@Slf4j
+@ThreadSafe
+class SharedLedgerWriter implements AutoCloseable {
+    //region Members
+
+    private static final String WRITER_OWNER = "writer";
+    private static final int IN_PROGRESS = Integer.MIN_VALUE;
+    private final CuratorFramework zkClient;
+    private final BookKeeper bookKeeper;
+    private final BookKeeperConfig config;
+    private final AtomicBoolean closed;
+    private final String traceObjectId;
+    private final Object lock = new Object();
+    private final Object registrationLock = new Object();
+    @GuardedBy("lock")
+    private ActiveLedger activeLedger;
+    @GuardedBy("lock")
+    private final Deque<PendingRecord> pendingRecords;
+    @GuardedBy("lock")
+    private final Deque<PendingEntry> inFlightEntries;
+    @GuardedBy("lock")
+    private long totalLength;
+    @GuardedBy("lock")
+    private int totalCount;
+    @GuardedBy("lock")
+    private int lastDurationMillis;
+    private final SequentialAsyncProcessor writeProcessor;
+    private final SequentialAsyncProcessor rolloverProcessor;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the SharedLedgerWriter class.
+     *
+     * @param zkClient        A reference to the CuratorFramework client to use.
+     * @param bookKeeper      A reference to the BookKeeper client to use.
+     * @param config          Configuration to use.
+     * @param executorService An Executor to use for async operations.
+     */
+    SharedLedgerWriter(CuratorFramework zkClient, BookKeeper bookKeeper, BookKeeperConfig config, ScheduledExecutorService executorService) {
+        this.zkClient = Preconditions.checkNotNull(zkClient, "zkClient");
+        this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.closed = new AtomicBoolean();
+        this.traceObjectId = "SharedLedgerWriter";
+        this.pendingRecords = new ArrayDeque<>();
+        this.inFlightEntries = new ArrayDeque<>();
+        Preconditions.checkNotNull(executorService, "executorService");
+        val retry = createRetryPolicy(this.config.getMaxWriteAttempts(), this.config.getBkWriteTimeoutMillis());
+        this.writeProcessor = new SequentialAsyncProcessor(this::processWritesSync, retry, this::handleWriteProcessorFailures, executorService);
+        this.rolloverProcessor = new SequentialAsyncProcessor(this::rolloverIfNeeded, retry, this::handleRolloverFailure, executorService);
+    }
+
+    private Retry.RetryAndThrowBase<? extends Exception> createRetryPolicy(int maxWriteAttempts, int writeTimeout) {
+        int initialDelay = writeTimeout / maxWriteAttempts;
+        int maxDelay = writeTimeout * maxWriteAttempts;
+        return Retry.withExpBackoff(initialDelay, 2, maxWriteAttempts, maxDelay)
+                    .retryWhen(ex -> true); // Retry for every exception.
+    }
+
+    private void handleWriteProcessorFailures(Throwable exception) {
+        // Unlike a BookKeeperLog, we cannot close ourselves as that would disable every Log on this host. Fail whatever
+        // is currently queued up and start over with a new Ledger.
+        log.warn("{}: Too many write processor failures; failing all pending writes.", this.traceObjectId, exception);
+        List<PendingRecord> toFail = new ArrayList<>();
+        synchronized (this.lock) {
+            this.inFlightEntries.forEach(e -> toFail.addAll(e.records));
+            this.inFlightEntries.clear();
+            toFail.addAll(this.pendingRecords);
+            this.pendingRecords.clear();
+            this.totalLength = 0;
+            this.totalCount = 0;
+            if (this.activeLedger != null) {
+                this.activeLedger.failed.set(true);
+            }
+        }
+
+        toFail.forEach(r -> r.result.completeExceptionally(exception));
+    }
+
+    private void handleRolloverFailure(Throwable exception) {
+        // We cannot write anything if the current Ledger has failed and we are unable to replace it. Fail whatever is
+        // queued up; the next write will trigger another rollover attempt.
+        log.warn("{}: Too many rollover failures.", this.traceObjectId, exception);
+        handleWriteProcessorFailures(exception);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.rolloverProcessor.close();
+            this.writeProcessor.close();
+            ActiveLedger ledger;
+            List<PendingRecord> toFail = new ArrayList<>();
+            synchronized (this.lock) {
+                ledger = this.activeLedger;
+                this.activeLedger = null;
+                this.inFlightEntries.forEach(e -> toFail.addAll(e.records));
+                this.inFlightEntries.clear();
+                toFail.addAll(this.pendingRecords);
+                this.pendingRecords.clear();
+            }
+
+            toFail.forEach(r -> r.result.completeExceptionally(new CancellationException("SharedLedgerWriter has been closed.")));
+            if (ledger != null) {
+                closeLedger(ledger);
+            }
+
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region Participants
+
+    /**
+     * Registers the given Participant with this SharedLedgerWriter. Upon successful completion of this method, the
+     * Participant's metadata will contain the active Ledger and it may begin appending Records.
+     *
+     * @param participant The Participant to register.
+     * @throws DataLogWriterNotPrimaryException If the Participant was fenced out while updating its metadata.
+     * @throws DurableDataLogException          If another kind of exception occurred.
+     */
+    void attach(Participant participant) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.registrationLock) {
+            ActiveLedger ledger = getActiveLedger();
+            if (ledger != null && ledger.registrations.remove(participant.getLogId()) != null) {
+                // Another instance of this Log was registered. This one is about to fence it out, so reject its writes.
+                log.info("{}: Replacing registration for Log {}.", this.traceObjectId, participant.getLogId());
+            }
+
+            if (ledger == null || ledger.failed.get() || ledger.handle.getId() <= participant.getLastLedgerId()) {
+                // We either do not have a Ledger yet, or the Participant's metadata refers to a newer Ledger than ours
+                // (Ledger Ids must be increasing within each Log). Begin a new Ledger.
+                ledger = rollover(participant);
+            } else {
+                register(participant, ledger);
+            }
+
+            log.info("{}: Attached Log {} (LedgerId = {}).", this.traceObjectId, participant.getLogId(), ledger.handle.getId());
+        }
+    }
+
+    /**
+     * Unregisters the given Participant from this SharedLedgerWriter. Any of its Records that have not yet been written
+     * will be cancelled.
+     *
+     * @param participant The Participant to unregister.
+     */
+    void detach(Participant participant) {
+        synchronized (this.registrationLock) {
+            ActiveLedger ledger = getActiveLedger();
+            if (ledger != null) {
+                ledger.registrations.computeIfPresent(participant.getLogId(), (id, r) -> r.participant == participant ? null : r);
+            }
+        }
+
+        List<PendingRecord> toFail = new ArrayList<>();
+        synchronized (this.lock) {
+            Iterator<PendingRecord> iterator = this.pendingRecords.iterator();
+            while (iterator.hasNext()) {
+                PendingRecord r = iterator.next();
+                if (r.participant == participant) {
+                    iterator.remove();
+                    recordRemoved(r);
+                    toFail.add(r);
+                }
+            }
+        }
+
+        toFail.forEach(r -> r.result.completeExceptionally(new CancellationException("Log has been closed.")));
+        log.info("{}: Detached Log {}.", this.traceObjectId, participant.getLogId());
+    }
+
+    @GuardedBy("registrationLock")
+    private void register(Participant participant, ActiveLedger ledger) throws DurableDataLogException {
+        long ledgerId = ledger.handle.getId();
+        String owner = SharedLedgers.getLogOwner(participant.getLogId());
+        SharedLedgers.addReference(ledgerId, owner, false, this.zkClient);
+        LedgerMetadata ledgerMetadata;
+        try {
+            ledgerMetadata = participant.addSharedLedger(ledgerId);
+        } catch (DurableDataLogException ex) {
+            // The Participant did not add the Ledger to its metadata, so it must not keep it around.
+            try {
+                SharedLedgers.removeReference(ledgerId, owner, this.zkClient, this.bookKeeper);
+            } catch (DurableDataLogException refEx) {
+                ex.addSuppressed(refEx);
+            }
+
+            throw ex;
+        }
+
+        ledger.registrations.put(participant.getLogId(), new Registration(participant, ledgerMetadata));
+    }
+
+    //endregion
+
+    //region Writes
+
+    /**
+     * Queues the given data to be written on behalf of the given Participant.
+     *
+     * @param participant The Participant to write on behalf of. This must have been attached.
+     * @param data        The data to write.
+     * @return A CompletableFuture that will be completed with the LogAddress of the write.
+     */
+    CompletableFuture<LogAddress> append(Participant participant, ArrayView data) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkArgument(data.getLength() <= getMaxAppendLength(), "data is too long.");
+        PendingRecord record = new PendingRecord(participant, data);
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            this.pendingRecords.addLast(record);
+            this.totalLength += data.getLength();
+            this.totalCount++;
+        }
+
+        this.writeProcessor.runAsync();
+        return record.result;
+    }
+
+    /**
+     * Gets a value representing the maximum length of a Record.
+     */
+    static int getMaxAppendLength() {
+        return BookKeeperConfig.MAX_APPEND_LENGTH - SharedLedgerEntry.HEADER_LENGTH - SharedLedgerEntry.RECORD_HEADER_LENGTH;
+    }
+
+    /**
+     * Gets a snapshot of the write queue, which is shared between all Participants.
+     *
+     * @return The snapshot.
+     */
+    QueueStats getQueueStatistics() {
+        synchronized (this.lock) {
+            double fillRatio = this.totalCount == 0 ? 0 : Math.min(1, (double) this.totalLength / this.totalCount / BookKeeperConfig.MAX_APPEND_LENGTH);
+            return new QueueStats(this.totalCount, fillRatio, this.lastDurationMillis);
+        }
+    }
+
+    /**
+     * Write Processor main loop. This method is not thread safe and should only be invoked as part of the Write Processor.
+     */
+    @SneakyThrows(DurableDataLogException.class)
+    private void processWritesSync() {
+        if (this.closed.get()) {
+            // We are closed. No point in trying anything else.
+            return;
+        }
+
+        if (!processInFlightEntries()) {
+            // Some in-flight entries are still pending; we will be invoked again once they complete.
+            return;
+        }
+
+        ActiveLedger ledger = getActiveLedger();
+        if (ledger == null) {
+            // Nobody attached yet.
+            return;
+        }
+
+        if (needsRollover(ledger)) {
+            // The Rollover Processor will invoke us again once it is done.
+            this.rolloverProcessor.runAsync();
+        }
+
+        if (!ledger.failed.get() && !ledger.handle.isClosed()) {
+            // The Ledger may be full, but we can keep writing to it until it is replaced.
+            executeWrites(ledger);
+        }
+    }
+
+    /**
+     * Completes all in-flight entries that have been acknowledged and resolves failed ones.
+     *
+     * @return True if new writes may be executed, false if we are waiting on in-flight entries to resolve a failure.
+     */
+    private boolean processInFlightEntries() throws DurableDataLogException {
+        List<PendingEntry> completed = new ArrayList<>();
+        PendingEntry firstFailed = null;
+        synchronized (this.lock) {
+            while (!this.inFlightEntries.isEmpty() && this.inFlightEntries.peekFirst().isSuccessful()) {
+                completed.add(this.inFlightEntries.removeFirst());
+            }
+
+            if (!this.inFlightEntries.isEmpty() && this.inFlightEntries.stream().allMatch(PendingEntry::isDone)) {
+                // We have a failure. We need to wait for all in-flight entries to be done before we can resolve them.
+                firstFailed = this.inFlightEntries.peekFirst();
+            }
+        }
+
+        completed.forEach(this::completeEntry);
+        if (firstFailed != null) {
+            // Determine what actually made it into the Ledger. This may throw, in which case we will retry later.
+            ActiveLedger ledger = firstFailed.ledger;
+            long lac = ledger.rolledOver.get()
+                    ? ledger.handle.getLastAddConfirmed()
+                    : Ledgers.readLastAddConfirmed(ledger.handle.getId(), this.bookKeeper, this.config);
+            ledger.failed.set(!ledger.rolledOver.get());
+            resolveFailedEntries(lac);
+        }
+
+        synchronized (this.lock) {
+            return this.inFlightEntries.isEmpty() || !this.inFlightEntries.peekFirst().isDone();
+        }
+    }
+
+    /**
+     * Resolves all in-flight entries after a failure. Those that made it into the Ledger are completed, while the others
+     * will have their Records requeued (in order) at the front of the queue.
+     *
+     * @param lastAddConfirmed The LastAddConfirmed of the Ledger the in-flight entries were written to.
+     */
+    private void resolveFailedEntries(long lastAddConfirmed) {
+        List<PendingEntry> entries;
+        synchronized (this.lock) {
+            entries = new ArrayList<>(this.inFlightEntries);
+            this.inFlightEntries.clear();
+        }
+
+        List<PendingRecord> toRetry = new ArrayList<>();
+        List<PendingRecord> toFail = new ArrayList<>();
+        for (PendingEntry e : entries) {
+            long entryId = e.entryId.get();
+            if (e.isSuccessful() || (entryId >= 0 && entryId <= lastAddConfirmed)) {
+                // This entry did make it in.
+                completeEntry(e);
+                continue;
+            }
+
+            Throwable cause = new WriteFailureException("Unable to write to shared Ledger.", BKException.create(e.responseCode.get()));
+            for (PendingRecord r : e.records) {
+                r.failureCause = cause;
+                if (++r.attemptCount >= this.config.getMaxWriteAttempts()) {
+                    toFail.add(r);
+                } else {
+                    toRetry.add(r);
+                }
+            }
+        }
+
+        synchronized (this.lock) {
+            for (int i = toRetry.size() - 1; i >= 0; i--) {
+                this.pendingRecords.addFirst(toRetry.get(i));
+            }
+
+            toFail.forEach(this::recordRemoved);
+        }
+
+        toFail.forEach(r -> r.result.completeExceptionally(new RetriesExhaustedException(r.failureCause)));
+        log.info("{}: Resolved {} failed entries (LastAddConfirmed = {}, Retried = {}, Failed = {}).",
+                this.traceObjectId, entries.size(), lastAddConfirmed, toRetry.size(), toFail.size());
+    }
+
+    /**
+     * Completes the Records in the given entry.
+     *
+     * @param entry The entry to complete.
+     */
+    private void completeEntry(PendingEntry entry) {
+        synchronized (this.lock) {
+            entry.records.forEach(this::recordRemoved);
+            this.lastDurationMillis = (int) entry.timer.getElapsedMillis();
+        }
+
+        for (PendingRecord r : entry.records) {
+            r.result.complete(new LedgerAddress(r.ledgerMetadata, entry.entryId.get()));
+        }
+    }
+
+    /**
+     * Creates and executes as many entries as allowed, using the Records in the queue.
+     *
+     * @param ledger The ActiveLedger to write to.
+     */
+    private void executeWrites(ActiveLedger ledger) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "executeWrites");
+        int count = 0;
+        List<PendingRecord> rejected = new ArrayList<>();
+        while (true) {
+            PendingEntry entry;
+            synchronized (this.lock) {
+                entry = canExecute(ledger) ? createEntry(ledger, rejected) : null;
+                if (entry != null) {
+                    this.inFlightEntries.addLast(entry);
+                }
+            }
+
+            if (entry == null) {
+                break;
+            }
+
+            try {
+                ledger.handle.asyncAddEntry(entry.data.array(), entry.data.arrayOffset(), entry.data.getLength(), this::addCallback, entry);
+                count++;
+            } catch (Throwable ex) {
+                // Synchronous failure. This will be resolved with the next run of the Write Processor.
+                log.warn("{}: Unable to write to Ledger {}.", this.traceObjectId, ledger.handle.getId(), ex);
+                entry.complete(Ledgers.NO_ENTRY_ID, BKException.Code.UnexpectedConditionException);
+                this.writeProcessor.runAsync();
+                break;
+            }
+        }
+
+        rejected.forEach(r -> r.result.completeExceptionally(new DataLogWriterNotPrimaryException(
+                String.format("Log %d is not registered with shared Ledger %d.", r.getLogId(), ledger.handle.getId()))));
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "executeWrites", traceId, count);
+    }
+
+    /**
+     * Determines whether a new entry may be written to the given Ledger. We cannot initiate writes in a new Ledger until
+     * all writes in the previous Ledger completed, and we also limit the number of in-flight entries so that Records
+     * can accumulate (and be grouped together) while the current entries are being written.
+     *
+     * @param ledger The ActiveLedger to write to.
+     * @return True if a new entry may be written, false otherwise.
+     */
+    @GuardedBy("lock")
+    private boolean canExecute(ActiveLedger ledger) {
+        return this.inFlightEntries.size() < this.config.getBkGroupCommitMaxOutstandingEntries()
+                && (this.inFlightEntries.isEmpty() || this.inFlightEntries.peekLast().ledger == ledger);
+    }
+
+    /**
+     * Creates a new entry from the Records in the queue. Each entry may contain at most one Record for each Log; the order
+     * of Records within each Log is preserved.
+     *
+     * @param ledger   The ActiveLedger to write to.
+     * @param rejected A List where to collect Records that were removed from the queue because their Logs are not
+     *                 registered with the given Ledger.
+     * @return The new entry, or null if there are no eligible Records in the queue.
+     */
+    @GuardedBy("lock")
+    private PendingEntry createEntry(ActiveLedger ledger, List<PendingRecord> rejected) {
+        Set<Integer> includedLogs = new HashSet<>();
+        Set<Integer> skippedLogs = new HashSet<>();
+        List<PendingRecord> records = new ArrayList<>();
+        int length = SharedLedgerEntry.HEADER_LENGTH;
+        Iterator<PendingRecord> iterator = this.pendingRecords.iterator();
+        while (iterator.hasNext() && length < BookKeeperConfig.MAX_APPEND_LENGTH) {
+            PendingRecord r = iterator.next();
+            int recordLength = SharedLedgerEntry.RECORD_HEADER_LENGTH + r.getData().getLength();
+            Registration registration = ledger.registrations.get(r.getLogId());
+            if (registration == null || registration.participant != r.participant) {
+                // This Log was detached or fenced out.
+                iterator.remove();
+                recordRemoved(r);
+                rejected.add(r);
+            } else if (includedLogs.contains(r.getLogId()) || skippedLogs.contains(r.getLogId())
+                    || length + recordLength > BookKeeperConfig.MAX_APPEND_LENGTH) {
+                // Either already have a Record for this Log or this one does not fit. In either case, we cannot pick up
+                // any subsequent Records for this Log either.
+                skippedLogs.add(r.getLogId());
+            } else {
+                iterator.remove();
+                r.ledgerMetadata = registration.ledgerMetadata;
+                records.add(r);
+                includedLogs.add(r.getLogId());
+                length += recordLength;
+            }
+        }
+
+        return records.isEmpty() ? null : new PendingEntry(ledger, records);
+    }
+
+    /**
+     * Callback for BookKeeper appends.
+     *
+     * @param rc      Response Code.
+     * @param handle  LedgerHandle.
+     * @param entryId Assigned EntryId.
+     * @param ctx     Write Context. In our case, the PendingEntry we were writing.
+     */
+    private void addCallback(int rc, LedgerHandle handle, long entryId, Object ctx) {
+        PendingEntry entry = (PendingEntry) ctx;
+        entry.complete(entryId, rc);
+        if (rc != BKException.Code.OK) {
+            log.warn("{}: Unable to write to Ledger {} (ResponseCode = {}).", this.traceObjectId, handle.getId(), rc);
+        }
+
+        try {
+            this.writeProcessor.runAsync();
+        } catch (ObjectClosedException ex) {
+            // We don't want the exception to propagate to BookKeeper.
+            log.warn("{}: Not running WriteProcessor as part of callback due to SharedLedgerWriter being closed.", this.traceObjectId, ex);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void recordRemoved(PendingRecord record) {
+        this.totalLength = Math.max(0, this.totalLength - record.getData().getLength());
+        this.totalCount = Math.max(0, this.totalCount - 1);
+    }
+
+    //endregion
+
+    //region Ledger Rollover
+
+    /**
+     * Rollover Processor main loop. Rolls over the active Ledger if it has failed or is full. This method is not thread
+     * safe and should only be invoked as part of the Rollover Processor.
+     */
+    @SneakyThrows(DurableDataLogException.class)
+    private void rolloverIfNeeded() {
+        if (this.closed.get()) {
+            // We are closed. No point in trying anything else.
+            return;
+        }
+
+        synchronized (this.registrationLock) {
+            ActiveLedger ledger = getActiveLedger();
+            if (ledger != null && needsRollover(ledger)) {
+                // Nobody has rolled over in the meantime (i.e., as part of attach()).
+                rollover(null);
+            }
+        }
+
+        this.writeProcessor.runAsync();
+    }
+
+    private boolean needsRollover(ActiveLedger ledger) {
+        return ledger.failed.get() || ledger.handle.isClosed() || ledger.handle.getLength() >= this.config.getBkLedgerMaxSize();
+    }
+
+    /**
+     * Creates a new Ledger, adds it to every registered Participant's metadata and makes it the active Ledger. The previous
+     * Ledger (if any) is closed. Participants that cannot add the new Ledger to their metadata are closed.
+     *
+     * @param newParticipant (Optional) A Participant that is not yet registered and which should be registered with the
+     *                       new Ledger.
+     * @return The new ActiveLedger.
+     * @throws DurableDataLogException If an exception occurred.
+     */
+    @GuardedBy("registrationLock")
+    private ActiveLedger rollover(Participant newParticipant) throws DurableDataLogException {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "rollover");
+        LedgerHandle handle = Ledgers.create(this.bookKeeper, this.config);
+        ActiveLedger newLedger = new ActiveLedger(handle);
+        try {
+            SharedLedgers.addReference(handle.getId(), WRITER_OWNER, true, this.zkClient);
+        } catch (DurableDataLogException ex) {
+            try {
+                Ledgers.delete(handle.getId(), this.bookKeeper);
+            } catch (DurableDataLogException deleteEx) {
+                ex.addSuppressed(deleteEx);
+            }
+
+            throw ex;
+        }
+
+        ActiveLedger oldLedger = getActiveLedger();
+        if (oldLedger != null) {
+            for (Registration r : oldLedger.registrations.values()) {
+                try {
+                    register(r.participant, newLedger);
+                } catch (DurableDataLogException ex) {
+                    // Most likely this Log has been fenced out by another instance.
+                    log.warn("{}: Unable to add Ledger {} to Log {}; closing it.", this.traceObjectId, handle.getId(), r.participant.getLogId(), ex);
+                    r.participant.close();
+                }
+            }
+
+            // Only mark the old ledger as Rolled Over if it is still healthy. Otherwise its LastAddConfirmed cannot be relied upon.
+            oldLedger.rolledOver.set(!oldLedger.failed.get() && !oldLedger.handle.isClosed());
+        }
+
+        synchronized (this.lock) {
+            this.activeLedger = newLedger;
+        }
+
+        if (oldLedger != null) {
+            closeLedger(oldLedger);
+        }
+
+        log.info("{}: Rollover: created Ledger {} for {} Log(s).", this.traceObjectId, handle.getId(), newLedger.registrations.size());
+        if (newParticipant != null) {
+            register(newParticipant, newLedger);
+        }
+
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "rollover", traceId, handle.getId());
+        return newLedger;
+    }
+
+    private void closeLedger(ActiveLedger ledger) {
+        try {
+            Ledgers.close(ledger.handle);
+        } catch (DurableDataLogException ex) {
+            log.warn("{}: Unable to close Ledger {}.", this.traceObjectId, ledger.handle.getId(), ex);
+        }
+
+        try {
+            SharedLedgers.removeReference(ledger.handle.getId(), WRITER_OWNER, this.zkClient, this.bookKeeper);
+        } catch (DurableDataLogException ex) {
+            log.warn("{}: Unable to remove reference to Ledger {}.", this.traceObjectId, ledger.handle.getId(), ex);
+        }
+    }
+
+    private ActiveLedger getActiveLedger() {
+        synchronized (this.lock) {
+            return this.activeLedger;
+        }
+    }
+
+    //endregion
+
+    //region Participant
+
+    /**
+     * Defines a Log that can write using a SharedLedgerWriter.
+     */
+    interface Participant {
+        /**
+         * Gets the Id of the Log.
+         */
+        int getLogId();
+
+        /**
+         * Gets the Id of the last Ledger in the Log's metadata, or a negative value if there are no Ledgers in it.
+         */
+        long getLastLedgerId();
+
+        /**
+         * Adds the given shared Ledger to the Log's metadata and persists it (using compare-and-set). No Records will be
+         * written to this Ledger on behalf of this Log before this method completes successfully.
+         *
+         * @param ledgerId The Id of the Ledger to add.
+         * @return The Log's LedgerMetadata for the given Ledger.
+         * @throws DataLogWriterNotPrimaryException If the Log has been fenced out.
+         * @throws DurableDataLogException          If another kind of exception occurred.
+         */
+        LedgerMetadata addSharedLedger(long ledgerId) throws DurableDataLogException;
+
+        /**
+         * Closes the Log. This is invoked if the Log cannot use the SharedLedgerWriter anymore.
+         */
+        void close();
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    private static class ActiveLedger {
+        final LedgerHandle handle;
+        final Map<Integer, Registration> registrations = new ConcurrentHashMap<>();
+        final AtomicBoolean rolledOver = new AtomicBoolean();
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        ActiveLedger(LedgerHandle handle) {
+            this.handle = handle;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Registration {
+        final Participant participant;
+        final LedgerMetadata ledgerMetadata;
+    }
+
+    private static class PendingRecord extends SharedLedgerEntry.Record {
+        final Participant participant;
+        final CompletableFuture<LogAddress> result = new CompletableFuture<>();
+        // These are only accessed from the Write Processor.
+        LedgerMetadata ledgerMetadata;
+        int attemptCount;
+        Throwable failureCause;
+
+        PendingRecord(Participant participant, ArrayView data) {
+            super(participant.getLogId(), data);
+            this.participant = participant;
+        }
+    }
+
+    private static class PendingEntry {
+        final ActiveLedger ledger;
+        final List<PendingRecord> records;
+        final ByteArraySegment data;
+        final Timer timer = new Timer();
+        final AtomicLong entryId = new AtomicLong(Ledgers.NO_ENTRY_ID);
+        final AtomicInteger responseCode = new AtomicInteger(IN_PROGRESS);
+
+        PendingEntry(ActiveLedger ledger, List<PendingRecord> records) {
+            this.ledger = ledger;
+            this.records = records;
+            this.data = SharedLedgerEntry.serialize(records);
+        }
+
+        void complete(long entryId, int responseCode) {
+            this.entryId.set(entryId);
+            this.responseCode.set(responseCode);
+        }
+
+        boolean isDone() {
+            return this.responseCode.get() != IN_PROGRESS;
+        }
+
+        boolean isSuccessful() {
+            return this.responseCode.get() == BKException.Code.OK;
+        }
+    }
+
+    //endregion
+}
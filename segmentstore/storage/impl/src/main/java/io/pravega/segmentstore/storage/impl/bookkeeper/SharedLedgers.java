@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.bookkeeper.client.BookKeeper;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * General utilities pertaining to BookKeeper Ledgers that are shared between multiple Logs.
+ * <p>
+ * A shared Ledger cannot be deleted when a single Log truncates it out, since other Logs may still need it. Every shared
+ * Ledger has a ZNode in ZooKeeper (under ROOT_PATH) which has one child for each of its users (Logs or the SharedLedgerWriter
+ * writing to it). A Log adds a reference before it adds the Ledger to its metadata and removes it after it removed the Ledger
+ * from its metadata; the last one to remove its reference deletes the Ledger.
+ */
+@Slf4j
+final class SharedLedgers {
+    private static final String ROOT_PATH = "/sharedledgers";
+
+    /**
+     * Records the fact that the given owner is using the given Ledger.
+     *
+     * @param ledgerId  The Id of the Ledger.
+     * @param owner     The name of the owner.
+     * @param ephemeral If true, the reference will be removed automatically if the current ZooKeeper session expires.
+     * @param zkClient  A reference to the CuratorFramework client to use.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static void addReference(long ledgerId, String owner, boolean ephemeral, CuratorFramework zkClient) throws DurableDataLogException {
+        try {
+            zkClient.create()
+                    .creatingParentsIfNeeded()
+                    .withMode(ephemeral ? CreateMode.EPHEMERAL : CreateMode.PERSISTENT)
+                    .forPath(getPath(ledgerId, owner));
+        } catch (KeeperException.NodeExistsException ex) {
+            // Already referenced. Nothing else to do.
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to add reference '%s' to shared Ledger %d.", owner, ledgerId), ex);
+        }
+    }
+
+    /**
+     * Removes the given owner's reference to the given Ledger and deletes the Ledger if there are no more references to it.
+     *
+     * @param ledgerId   The Id of the Ledger.
+     * @param owner      The name of the owner.
+     * @param zkClient   A reference to the CuratorFramework client to use.
+     * @param bookKeeper A reference to the BookKeeper client to use.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static void removeReference(long ledgerId, String owner, CuratorFramework zkClient, BookKeeper bookKeeper) throws DurableDataLogException {
+        try {
+            zkClient.delete().forPath(getPath(ledgerId, owner));
+        } catch (KeeperException.NoNodeException ex) {
+            // Already removed.
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to remove reference '%s' from shared Ledger %d.", owner, ledgerId), ex);
+        }
+
+        try {
+            zkClient.delete().forPath(getPath(ledgerId));
+        } catch (KeeperException.NotEmptyException | KeeperException.NoNodeException ex) {
+            // Still in use by someone else (or already deleted by someone else).
+            return;
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to remove references for shared Ledger %d.", ledgerId), ex);
+        }
+
+        Ledgers.delete(ledgerId, bookKeeper);
+        log.info("Deleted shared Ledger {} (no more references).", ledgerId);
+    }
+
+    /**
+     * Deletes the given Ledger on behalf of the given Log. If the Ledger is shared, only the Log's reference is removed
+     * (and the Ledger is deleted only if there are no more references to it). Otherwise the Ledger is deleted right away.
+     *
+     * @param ledgerMetadata The LedgerMetadata for the Ledger to delete.
+     * @param logId          The Id of the Log that no longer needs the Ledger.
+     * @param zkClient       A reference to the CuratorFramework client to use.
+     * @param bookKeeper     A reference to the BookKeeper client to use.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static void delete(LedgerMetadata ledgerMetadata, int logId, CuratorFramework zkClient, BookKeeper bookKeeper) throws DurableDataLogException {
+        if (ledgerMetadata.isShared()) {
+            removeReference(ledgerMetadata.getLedgerId(), getLogOwner(logId), zkClient, bookKeeper);
+        } else {
+            Ledgers.delete(ledgerMetadata.getLedgerId(), bookKeeper);
+        }
+    }
+
+    /**
+     * Gets the name to use for a Log when referencing a shared Ledger.
+     *
+     * @param logId The Id of the Log.
+     * @return The owner name.
+     */
+    static String getLogOwner(int logId) {
+        return "log-" + logId;
+    }
+
+    private static String getPath(long ledgerId) {
+        return ROOT_PATH + "/" + ledgerId;
+    }
+
+    private static String getPath(long ledgerId, String owner) {
+        return getPath(ledgerId) + "/" + owner;
+    }
+}
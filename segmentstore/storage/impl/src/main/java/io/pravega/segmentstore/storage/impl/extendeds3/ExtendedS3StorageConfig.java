@@ -31,6 +31,7 @@ public class ExtendedS3StorageConfig {
     public static final Property<String> BUCKET = Property.named("bucket", "");
     public static final Property<String> NAMESPACE = Property.named("namespace", ""); // use default namespace
     public static final Property<Boolean> USENONEMATCH = Property.named("useNoneMatch", false);
+    public static final Property<Integer> COMPRESSION_BLOCK_SIZE = Property.named("compressionBlockSize", 0);
 
     private static final String COMPONENT_CODE = "extendeds3";
 
@@ -81,6 +82,13 @@ public class ExtendedS3StorageConfig {
     @Getter
     private final boolean useNoneMatch;
 
+    /**
+     * The maximum (logical) length of a compressed block, in bytes, if data is to be stored in compressed form. A value
+     * of 0 disables compression.
+     */
+    @Getter
+    private final int compressionBlockSize;
+
     //endregion
 
     //region Constructor
@@ -98,6 +106,10 @@ public class ExtendedS3StorageConfig {
         this.bucket = properties.get(BUCKET);
         this.namespace = properties.get(NAMESPACE);
         this.useNoneMatch = properties.getBoolean(USENONEMATCH);
+        this.compressionBlockSize = properties.getInt(COMPRESSION_BLOCK_SIZE);
+        if (this.compressionBlockSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", COMPRESSION_BLOCK_SIZE));
+        }
     }
 
     /**
@@ -15,6 +15,8 @@ import com.google.common.base.Preconditions;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.SyncStorage;
+import io.pravega.segmentstore.storage.compression.CompressedStorage;
 import io.pravega.segmentstore.storage.rolling.RollingStorage;
 import java.util.concurrent.ExecutorService;
 
@@ -46,7 +48,11 @@ public class ExtendedS3StorageFactory implements StorageFactory {
                 .withNamespace(config.getNamespace());
 
         S3JerseyClient client = new S3JerseyClient(s3Config);
-        ExtendedS3Storage s = new ExtendedS3Storage(client, this.config);
+        SyncStorage s = new ExtendedS3Storage(client, this.config);
+        if (this.config.getCompressionBlockSize() > 0) {
+            s = new CompressedStorage(s, this.config.getCompressionBlockSize());
+        }
+
         return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
     }
 }
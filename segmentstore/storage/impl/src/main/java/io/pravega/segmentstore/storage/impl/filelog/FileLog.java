@@ -0,0 +1,671 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.concurrent.SequentialAsyncProcessor;
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.Retry;
+import io.pravega.segmentstore.storage.DataLogDisabledException;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.segmentstore.storage.WriteFailureException;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * DurableDataLog implementation which stores its data in Files on the local file system. Meant for single-node deployments
+ * (where a BookKeeper cluster is not available or desired) and as a baseline when comparing BookKeeper overheads.
+ * <p>
+ * Each Log has its own directory (under FileLogConfig.getRoot()) which contains a metadata file and a sequence of fixed-size,
+ * preallocated data Files (see LogFiles). Pending appends are written in batches (group commit): all Records in a batch
+ * are written with a single write call and made durable with a single fsync. Truncation is done by deleting entire Files.
+ * <p>
+ * Exclusive write access is ensured by using the Log's epoch (stored in the metadata file), similarly to BookKeeperLog:
+ * * Upon initialization, a new instance increments the epoch, then seals the last File (at the end of its last valid
+ * Record) and creates a new File to write to.
+ * * Every metadata update is conditioned on the epoch not having changed, and every batch of writes is only acknowledged
+ * after verifying (post-fsync) that the epoch has not changed. Any writes a fenced-out instance makes after the last File
+ * has been sealed are ignored.
+ */
+@Slf4j
+@ThreadSafe
+class FileLog implements DurableDataLog {
+    //region Members
+
+    @VisibleForTesting
+    static final String METADATA_FILE_NAME = "metadata";
+    @VisibleForTesting
+    static final String METADATA_TEMP_FILE_NAME = "metadata.tmp";
+    private static final String LOCK_FILE_NAME = "lock";
+    private static final long NO_EPOCH = 0;
+
+    /**
+     * In-process locks for each Log directory. FileLocks are held on behalf of the entire JVM, so they cannot be used
+     * to arbitrate between multiple instances of the same Log within the same process.
+     */
+    private static final ConcurrentHashMap<Path, Object> METADATA_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path logDirectory;
+    private final FileLogConfig config;
+    private final ScheduledExecutorService executorService;
+    private final AtomicBoolean closed;
+    private final Object lock = new Object();
+    private final Object metadataLock;
+    private final String traceObjectId;
+    private final SequentialAsyncProcessor writeProcessor;
+    @GuardedBy("lock")
+    private FileLogMetadata metadata;
+    @GuardedBy("lock")
+    private boolean initialized;
+    @GuardedBy("writes")
+    private final ArrayDeque<PendingWrite> writes;
+    @GuardedBy("writes")
+    private long totalLength;
+    @GuardedBy("writes")
+    private int lastDurationMillis;
+    /**
+     * The File currently being written to. This is only accessed from the write processor, except during initialization
+     * and closing.
+     */
+    private volatile WriteFile activeFile;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLog class.
+     *
+     * @param logId           The Id of the Log to open.
+     * @param config          Configuration to use.
+     * @param executorService An Executor to use for async operations.
+     */
+    FileLog(int logId, FileLogConfig config, ScheduledExecutorService executorService) {
+        Preconditions.checkArgument(logId >= 0, "logId must be a non-negative integer.");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executorService = Preconditions.checkNotNull(executorService, "executorService");
+        this.logDirectory = Paths.get(this.config.getRoot(), Integer.toString(logId)).toAbsolutePath().normalize();
+        this.metadataLock = METADATA_LOCKS.computeIfAbsent(this.logDirectory, p -> new Object());
+        this.closed = new AtomicBoolean();
+        this.writes = new ArrayDeque<>();
+        this.traceObjectId = String.format("FileLog[%d]", logId);
+
+        // Errors are handled within processWrites(), so there is no point in retrying.
+        val retry = Retry.withExpBackoff(1, 1, 1).retryWhen(ex -> false);
+        this.writeProcessor = new SequentialAsyncProcessor(this::processWrites, retry, this::handleWriteProcessorFailures, this.executorService);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.writeProcessor.close();
+            failPendingWrites(new ObjectClosedException(this));
+            val file = this.activeFile;
+            this.activeFile = null;
+            if (file != null) {
+                LogFiles.close(file.channel, file.path);
+            }
+
+            synchronized (this.lock) {
+                this.metadata = null;
+            }
+
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region DurableDataLog Implementation
+
+    /**
+     * Open-Fences this FileLog using the following protocol:
+     * 1. Read the Log Metadata from the file system.
+     * 2. Increment the epoch and persist the Log Metadata. This prevents any other instance from acknowledging writes or
+     * making further metadata changes.
+     * 3. Seal the last File at the end of its last valid Record.
+     * 4. Create a new File and add it to the Log Metadata.
+     *
+     * @param timeout Timeout for the operation.
+     * @throws DataLogWriterNotPrimaryException If we were fenced-out during this process.
+     * @throws DataLogDisabledException         If the FileLog is disabled. No fencing is attempted in this case.
+     * @throws DataLogInitializationException   If a general initialization error occurred.
+     * @throws DurableDataLogException          If another type of exception occurred.
+     */
+    @Override
+    public void initialize(Duration timeout) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        List<FileLogMetadata.FileMetadata> filesToDelete;
+        FileLogMetadata newMetadata;
+        synchronized (this.lock) {
+            Preconditions.checkState(!this.initialized, "FileLog is already initialized.");
+            createLogDirectory();
+            FileLogMetadata oldMetadata = loadMetadata();
+            long expectedEpoch;
+            if (oldMetadata == null) {
+                // This is the first time this Log is accessed.
+                newMetadata = new FileLogMetadata();
+                expectedEpoch = NO_EPOCH;
+            } else {
+                if (!oldMetadata.isEnabled()) {
+                    throw new DataLogDisabledException("FileLog is disabled. Cannot initialize.");
+                }
+
+                // Fence out any other instance, then seal the last File (it may still be written to by a fenced-out
+                // instance, but nothing beyond this point will be read or acknowledged).
+                newMetadata = oldMetadata.fence();
+                persistMetadata(newMetadata, oldMetadata.getEpoch(), false);
+                val lastFile = newMetadata.getLastFile();
+                if (lastFile != null && !lastFile.isSealed()) {
+                    newMetadata = newMetadata.sealLastFile(scan(lastFile));
+                }
+
+                expectedEpoch = newMetadata.getEpoch();
+            }
+
+            newMetadata = newMetadata.addFile();
+            val newFile = newMetadata.getLastFile();
+            FileChannel channel = persistMetadata(newMetadata, expectedEpoch, true);
+            this.activeFile = new WriteFile(newFile.getFileId(), LogFiles.getPath(this.logDirectory, newFile.getFileId()), channel);
+            this.metadata = newMetadata;
+            this.initialized = true;
+            filesToDelete = getFilesToDelete(oldMetadata, newMetadata);
+        }
+
+        // Delete the Files that have been removed from the metadata (i.e., empty Files).
+        filesToDelete.forEach(fm -> deleteFile(fm, "empty"));
+        log.info("{}: Initialized ({}).", this.traceObjectId, newMetadata);
+    }
+
+    @Override
+    public void enable() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(!this.initialized, "FileLog is already initialized; cannot re-enable.");
+
+            // Load existing metadata. Inexistent metadata means the Log has never been accessed, and therefore enabled
+            // by default.
+            FileLogMetadata metadata = loadMetadata();
+            Preconditions.checkState(metadata != null && !metadata.isEnabled(), "FileLog is already enabled.");
+            metadata = metadata.asEnabled();
+            persistMetadata(metadata, metadata.getEpoch(), false);
+            log.info("{}: Enabled ({}).", this.traceObjectId, metadata);
+        }
+    }
+
+    @Override
+    public void disable() throws DurableDataLogException {
+        // Get the current metadata, disable it, and then persist it back.
+        synchronized (this.lock) {
+            ensurePreconditions();
+            Preconditions.checkState(this.metadata.isEnabled(), "FileLog is already disabled.");
+            FileLogMetadata metadata = this.metadata.asDisabled();
+            persistMetadata(metadata, metadata.getEpoch(), false);
+            this.metadata = metadata;
+            log.info("{}: Disabled ({}).", this.traceObjectId, metadata);
+        }
+
+        // Close this instance of the FileLog. This ensures the proper cancellation of any ongoing writes.
+        close();
+    }
+
+    @Override
+    public CompletableFuture<LogAddress> append(ArrayView data, Duration timeout) {
+        ensurePreconditions();
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "append", data.getLength());
+        if (data.getLength() > getMaxAppendLength()) {
+            return Futures.failedFuture(new WriteTooLongException(data.getLength(), getMaxAppendLength()));
+        }
+
+        PendingWrite write = new PendingWrite(data, new CompletableFuture<>(), new Timer());
+        synchronized (this.writes) {
+            this.writes.addLast(write);
+            this.totalLength += data.getLength();
+        }
+
+        this.writeProcessor.runAsync();
+        write.result.thenAccept(address -> LoggerHelpers.traceLeave(log, this.traceObjectId, "append", traceId, data.getLength(), address));
+        return write.result;
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+        ensurePreconditions();
+        Preconditions.checkArgument(upToAddress instanceof FileLogAddress, "upToAddress must be of type FileLogAddress.");
+        return CompletableFuture.runAsync(() -> tryTruncate((FileLogAddress) upToAddress), this.executorService);
+    }
+
+    @Override
+    public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
+        ensurePreconditions();
+        synchronized (this.lock) {
+            return new FileLogReader(this.logDirectory, this.metadata);
+        }
+    }
+
+    @Override
+    public int getMaxAppendLength() {
+        return FileLogConfig.MAX_APPEND_LENGTH;
+    }
+
+    @Override
+    public long getEpoch() {
+        ensurePreconditions();
+        synchronized (this.lock) {
+            return this.metadata.getEpoch();
+        }
+    }
+
+    @Override
+    public QueueStats getQueueStatistics() {
+        synchronized (this.writes) {
+            int size = this.writes.size();
+            double fillRatio = size == 0 ? 0 : (double) this.totalLength / size / getMaxAppendLength();
+            return new QueueStats(size, fillRatio, this.lastDurationMillis);
+        }
+    }
+
+    //endregion
+
+    //region Writes
+
+    /**
+     * Write Processor main loop. Writes all pending appends, in batches of at most FileLogConfig.getMaxWriteBatchSize()
+     * bytes. Each batch is written using a single write and fsync; the appends are only completed after verifying that
+     * this instance has not been fenced out in the meantime. Any failure will fail all pending appends and close the Log.
+     */
+    private void processWrites() {
+        if (this.closed.get()) {
+            // The FileLog is closed. No point in trying anything else.
+            return;
+        }
+
+        List<PendingWrite> batch;
+        while (!(batch = getWriteBatch()).isEmpty()) {
+            List<FileLogAddress> addresses;
+            try {
+                addresses = writeBatch(batch);
+                checkEpoch();
+            } catch (Exception ex) {
+                log.error("{}: Unable to write batch of {} append(s).", this.traceObjectId, batch.size(), ex);
+                Throwable failure = ex instanceof DurableDataLogException ? ex : new WriteFailureException("Unable to write to file.", ex);
+                batch.forEach(w -> w.result.completeExceptionally(failure));
+                failPendingWrites(failure);
+                close();
+                return;
+            }
+
+            completeBatch(batch, addresses);
+        }
+    }
+
+    private List<PendingWrite> getWriteBatch() {
+        synchronized (this.writes) {
+            List<PendingWrite> result = new ArrayList<>();
+            long batchLength = 0;
+            while (!this.writes.isEmpty()) {
+                int length = LogFiles.RECORD_HEADER_LENGTH + this.writes.peekFirst().data.getLength();
+                if (!result.isEmpty() && batchLength + length > this.config.getMaxWriteBatchSize()) {
+                    break;
+                }
+
+                result.add(this.writes.removeFirst());
+                batchLength += length;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Writes the given batch to the active File (rolling over to new Files as needed) and fsyncs it.
+     *
+     * @param batch The PendingWrites to write.
+     * @return A List of FileLogAddresses, one for each PendingWrite.
+     */
+    private List<FileLogAddress> writeBatch(List<PendingWrite> batch) throws IOException, DurableDataLogException {
+        List<FileLogAddress> addresses = new ArrayList<>(batch.size());
+        int batchLength = batch.stream().mapToInt(w -> LogFiles.RECORD_HEADER_LENGTH + w.data.getLength()).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(batchLength);
+        WriteFile file = getActiveFile();
+        for (PendingWrite w : batch) {
+            int recordLength = LogFiles.RECORD_HEADER_LENGTH + w.data.getLength();
+            if (file.position + buffer.position() + recordLength > this.config.getFileSize()) {
+                // Not enough room in this File. Flush whatever we have so far and move on to the next one.
+                flush(buffer, file);
+                buffer.clear();
+                file = rollover(file);
+            }
+
+            addresses.add(new FileLogAddress(file.fileId, file.position + buffer.position()));
+            LogFiles.writeRecord(w.data, buffer);
+        }
+
+        flush(buffer, file);
+        return addresses;
+    }
+
+    private void flush(ByteBuffer buffer, WriteFile file) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            file.position += file.channel.write(buffer, file.position);
+        }
+
+        // No need to force metadata updates: the File has been preallocated.
+        file.channel.force(false);
+    }
+
+    /**
+     * Seals the given File and creates a new one, which will become the active File.
+     *
+     * @param file The File to seal.
+     * @return The new active File.
+     */
+    private WriteFile rollover(WriteFile file) throws DurableDataLogException {
+        WriteFile newFile;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            FileLogMetadata newMetadata = this.metadata.sealLastFile(file.position).addFile();
+            val fm = newMetadata.getLastFile();
+            FileChannel channel = persistMetadata(newMetadata, newMetadata.getEpoch(), true);
+            newFile = new WriteFile(fm.getFileId(), LogFiles.getPath(this.logDirectory, fm.getFileId()), channel);
+            this.metadata = newMetadata;
+            this.activeFile = newFile;
+        }
+
+        LogFiles.close(file.channel, file.path);
+        log.info("{}: Rolled over from File {} to File {}.", this.traceObjectId, file.fileId, newFile.fileId);
+        return newFile;
+    }
+
+    /**
+     * Verifies that this instance has not been fenced out.
+     *
+     * @throws DataLogWriterNotPrimaryException If another instance has initialized the Log since we did.
+     * @throws DurableDataLogException          If the metadata could not be loaded.
+     */
+    private void checkEpoch() throws DurableDataLogException {
+        long expectedEpoch;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            expectedEpoch = this.metadata.getEpoch();
+        }
+
+        FileLogMetadata currentMetadata = loadMetadata();
+        if (currentMetadata == null || currentMetadata.getEpoch() != expectedEpoch) {
+            throw new DataLogWriterNotPrimaryException(String.format("FileLog has been fenced out (Epoch = %d).", expectedEpoch));
+        }
+    }
+
+    private void completeBatch(List<PendingWrite> batch, List<FileLogAddress> addresses) {
+        long batchLength = batch.stream().mapToLong(w -> w.data.getLength()).sum();
+        synchronized (this.writes) {
+            this.totalLength -= batchLength;
+            this.lastDurationMillis = (int) batch.get(0).timer.getElapsedMillis();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result.complete(addresses.get(i));
+        }
+    }
+
+    private void failPendingWrites(Throwable cause) {
+        List<PendingWrite> toFail;
+        synchronized (this.writes) {
+            toFail = new ArrayList<>(this.writes);
+            this.writes.clear();
+            this.totalLength = 0;
+        }
+
+        toFail.forEach(w -> w.result.completeExceptionally(cause));
+    }
+
+    private void handleWriteProcessorFailures(Throwable exception) {
+        log.warn("{}: Unexpected write processor failure; closing.", this.traceObjectId, exception);
+        failPendingWrites(exception);
+        close();
+    }
+
+    private WriteFile getActiveFile() {
+        WriteFile file = this.activeFile;
+        Exceptions.checkNotClosed(file == null, this);
+        return file;
+    }
+
+    //endregion
+
+    //region Truncation
+
+    /**
+     * Truncates the Log. The metadata is updated first; the Files that have been truncated out are deleted afterwards.
+     * Failure to delete a File has no effect on the Log, other than the space it takes up.
+     *
+     * @param upToAddress The address up to which to truncate.
+     */
+    @SneakyThrows(DurableDataLogException.class)
+    private void tryTruncate(FileLogAddress upToAddress) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "tryTruncate", upToAddress);
+        FileLogMetadata oldMetadata;
+        FileLogMetadata newMetadata;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            oldMetadata = this.metadata;
+            newMetadata = oldMetadata.truncate(upToAddress);
+            persistMetadata(newMetadata, newMetadata.getEpoch(), false);
+            this.metadata = newMetadata;
+        }
+
+        getFilesToDelete(oldMetadata, newMetadata).forEach(fm -> deleteFile(fm, "truncated"));
+        log.info("{}: Truncated up to {}.", this.traceObjectId, upToAddress);
+        LoggerHelpers.traceLeave(log, this.traceObjectId, "tryTruncate", traceId, upToAddress);
+    }
+
+    private List<FileLogMetadata.FileMetadata> getFilesToDelete(FileLogMetadata oldMetadata, FileLogMetadata currentMetadata) {
+        if (oldMetadata == null) {
+            return Collections.emptyList();
+        }
+
+        val existingIds = currentMetadata.getFiles().stream()
+                .map(FileLogMetadata.FileMetadata::getFileId)
+                .collect(Collectors.toSet());
+        return oldMetadata.getFiles().stream()
+                .filter(fm -> !existingIds.contains(fm.getFileId()))
+                .collect(Collectors.toList());
+    }
+
+    private void deleteFile(FileLogMetadata.FileMetadata fm, String reason) {
+        try {
+            LogFiles.delete(LogFiles.getPath(this.logDirectory, fm.getFileId()));
+            log.info("{}: Deleted {} File {}.", this.traceObjectId, reason, fm.getFileId());
+        } catch (DurableDataLogException ex) {
+            // Nothing we can do if we can't delete a File; we've already updated the metadata. It will remain on disk
+            // until manually deleted.
+            log.error("{}: Unable to delete {} File {}.", this.traceObjectId, reason, fm.getFileId(), ex);
+        }
+    }
+
+    //endregion
+
+    //region Metadata Management
+
+    /**
+     * Loads the metadata for the current Log.
+     *
+     * @return A new FileLogMetadata object with the desired information, or null if no metadata exists.
+     * @throws DataLogInitializationException If an Exception occurred.
+     */
+    @VisibleForTesting
+    FileLogMetadata loadMetadata() throws DataLogInitializationException {
+        try {
+            byte[] serializedMetadata = Files.readAllBytes(this.logDirectory.resolve(METADATA_FILE_NAME));
+            return FileLogMetadata.SERIALIZER.deserialize(serializedMetadata);
+        } catch (NoSuchFileException ex) {
+            // This is the first time we are accessing this log.
+            return null;
+        } catch (Exception ex) {
+            throw new DataLogInitializationException(String.format("Unable to load metadata for '%s'.", this.logDirectory), ex);
+        }
+    }
+
+    /**
+     * Persists the given metadata, but only if the currently persisted metadata has the given epoch. The metadata file is
+     * replaced atomically.
+     *
+     * @param metadata       The FileLogMetadata to persist.
+     * @param expectedEpoch  The expected epoch of the currently persisted metadata, or NO_EPOCH if no metadata is expected
+     *                       to exist.
+     * @param createLastFile If true, the last File in the metadata will be created before the metadata is persisted.
+     * @return A FileChannel for the newly created File, if createLastFile is true, or null otherwise.
+     * @throws DataLogWriterNotPrimaryException If the metadata has been modified by another instance.
+     * @throws DurableDataLogException          If another kind of exception occurred.
+     */
+    private FileChannel persistMetadata(FileLogMetadata metadata, long expectedEpoch, boolean createLastFile) throws DurableDataLogException {
+        synchronized (this.metadataLock) {
+            try (FileChannel lockChannel = FileChannel.open(this.logDirectory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                FileLogMetadata currentMetadata = loadMetadata();
+                long currentEpoch = currentMetadata == null ? NO_EPOCH : currentMetadata.getEpoch();
+                if (currentEpoch != expectedEpoch) {
+                    // We were fenced out.
+                    throw new DataLogWriterNotPrimaryException(String.format("Unable to acquire exclusive write lock for '%s' (Epoch = %d, Expected = %d).",
+                            this.logDirectory, currentEpoch, expectedEpoch));
+                }
+
+                // Files are only created while holding the lock (and after verifying the epoch), so that fenced-out
+                // instances cannot interfere with them.
+                Path filePath = createLastFile ? LogFiles.getPath(this.logDirectory, metadata.getLastFile().getFileId()) : null;
+                FileChannel fileChannel = createLastFile ? LogFiles.create(filePath, this.config.getFileSize()) : null;
+                try {
+                    Path tempPath = this.logDirectory.resolve(METADATA_TEMP_FILE_NAME);
+                    try (FileChannel metadataChannel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                        ByteBuffer serialized = ByteBuffer.wrap(FileLogMetadata.SERIALIZER.serialize(metadata).getCopy());
+                        while (serialized.hasRemaining()) {
+                            metadataChannel.write(serialized);
+                        }
+
+                        metadataChannel.force(true);
+                    }
+
+                    Files.move(tempPath, this.logDirectory.resolve(METADATA_FILE_NAME), StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+
+                    // The rename is only durable once the directory has been flushed as well.
+                    LogFiles.syncDirectory(this.logDirectory);
+                } catch (Exception ex) {
+                    LogFiles.close(fileChannel, filePath);
+                    throw ex;
+                }
+
+                log.info("{}: Metadata persisted ({}).", this.traceObjectId, metadata);
+                return fileChannel;
+            } catch (DurableDataLogException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new DataLogInitializationException(String.format("Unable to persist metadata for '%s'.", this.logDirectory), ex);
+            }
+        }
+    }
+
+    private int scan(FileLogMetadata.FileMetadata fm) throws DurableDataLogException {
+        Path path = LogFiles.getPath(this.logDirectory, fm.getFileId());
+        return Files.exists(path) ? LogFiles.scan(path) : 0;
+    }
+
+    private void createLogDirectory() throws DataLogInitializationException {
+        try {
+            if (!Files.isDirectory(this.logDirectory)) {
+                Files.createDirectories(this.logDirectory);
+                LogFiles.syncDirectory(this.logDirectory.toAbsolutePath().getParent());
+            }
+        } catch (IOException ex) {
+            throw new DataLogInitializationException(String.format("Unable to create directory '%s'.", this.logDirectory), ex);
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void ensurePreconditions() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        synchronized (this.lock) {
+            Preconditions.checkState(this.initialized, "FileLog is not initialized.");
+            assert this.metadata != null : "initialized but metadata == null";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.traceObjectId;
+    }
+
+    //endregion
+
+    //region PendingWrite and WriteFile
+
+    @RequiredArgsConstructor
+    private static class PendingWrite {
+        final ArrayView data;
+        final CompletableFuture<LogAddress> result;
+        final Timer timer;
+    }
+
+    @RequiredArgsConstructor
+    private static class WriteFile {
+        final int fileId;
+        final Path path;
+        final FileChannel channel;
+        int position;
+    }
+
+    //endregion
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.LogAddress;
+
+/**
+ * LogAddress for FileLog. The Sequence is made up of the File Id (high 32 bits) and the offset of the Record within that
+ * File (low 32 bits), which makes it monotonically increasing throughout the Log.
+ */
+class FileLogAddress extends LogAddress implements Comparable<FileLogAddress> {
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Creates a new instance of the FileLogAddress class.
+     *
+     * @param fileId The Id of the File this Address corresponds to.
+     * @param offset The offset within the File where the Record begins.
+     */
+    FileLogAddress(int fileId, int offset) {
+        this(calculateSequence(fileId, offset));
+    }
+
+    /**
+     * Creates a new instance of the FileLogAddress class.
+     *
+     * @param sequence The sequence of the Address.
+     */
+    FileLogAddress(long sequence) {
+        super(sequence);
+    }
+
+    /**
+     * Gets the Id of the File this Address corresponds to.
+     *
+     * @return The File Id.
+     */
+    int getFileId() {
+        return (int) (getSequence() >>> 32);
+    }
+
+    /**
+     * Gets the offset within the File where the Record begins.
+     *
+     * @return The offset.
+     */
+    int getOffset() {
+        return (int) (getSequence() & INT_MASK);
+    }
+
+    private static long calculateSequence(int fileId, int offset) {
+        Preconditions.checkArgument(fileId >= 0, "fileId must be a non-negative integer.");
+        Preconditions.checkArgument(offset >= 0, "offset must be a non-negative integer.");
+        return ((long) fileId << 32) + offset;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, FileId = %d, Offset = %d", super.toString(), getFileId(), getOffset());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getSequence());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof FileLogAddress) {
+            return this.getSequence() == ((FileLogAddress) obj).getSequence();
+        }
+
+        return false;
+    }
+
+    @Override
+    public int compareTo(FileLogAddress address) {
+        return Long.compare(this.getSequence(), address.getSequence());
+    }
+}
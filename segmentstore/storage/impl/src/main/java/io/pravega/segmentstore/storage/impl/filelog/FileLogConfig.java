@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import lombok.Getter;
+
+/**
+ * Configuration for the local file-based DurableDataLog.
+ */
+public class FileLogConfig {
+    //region Config Names
+
+    public static final Property<String> ROOT = Property.named("root", "/pravega/filelog/");
+    public static final Property<Integer> FILE_SIZE = Property.named("fileSizeBytes", 256 * 1024 * 1024);
+    public static final Property<Integer> MAX_WRITE_BATCH_SIZE = Property.named("maxWriteBatchSizeBytes", 4 * 1024 * 1024);
+    public static final String COMPONENT_CODE = "filelog";
+
+    /**
+     * Maximum append length, as specified by the DurableDataLog contract. This has been chosen to match the limit imposed
+     * by BookKeeperLog, so that the two are interchangeable.
+     */
+    static final int MAX_APPEND_LENGTH = 1024 * 1024 - 1024;
+
+    //endregion
+
+    //region Members
+
+    /**
+     * Root directory where all Log files are stored. Each Log will have its own sub-directory. All the directories/files
+     * under this path will be exclusively owned by Pravega.
+     */
+    @Getter
+    private final String root;
+
+    /**
+     * The size, in bytes, of each Log File. Files are preallocated to this size upon creation; once a File is full,
+     * a new one is created.
+     */
+    @Getter
+    private final int fileSize;
+
+    /**
+     * The maximum number of bytes to write to a Log File before issuing a single fsync (group commit).
+     */
+    @Getter
+    private final int maxWriteBatchSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private FileLogConfig(TypedProperties properties) throws ConfigurationException {
+        this.root = properties.get(ROOT);
+        this.fileSize = properties.getInt(FILE_SIZE);
+        if (this.fileSize < 2 * MAX_APPEND_LENGTH) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be at least %d.",
+                    FILE_SIZE, this.fileSize, 2 * MAX_APPEND_LENGTH));
+        }
+
+        this.maxWriteBatchSize = properties.getInt(MAX_WRITE_BATCH_SIZE);
+        if (this.maxWriteBatchSize <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    MAX_WRITE_BATCH_SIZE, this.maxWriteBatchSize));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<FileLogConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, FileLogConfig::new);
+    }
+
+    //endregion
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.DurableDataLogFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Factory for FileLogs.
+ */
+public class FileLogFactory implements DurableDataLogFactory {
+    //region Members
+
+    private final FileLogConfig config;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean initialized;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogFactory class.
+     *
+     * @param config   The configuration to use for all instances created.
+     * @param executor An executor to use for async operations.
+     */
+    public FileLogFactory(FileLogConfig config, ScheduledExecutorService executor) {
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.initialized = new AtomicBoolean();
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+    }
+
+    //endregion
+
+    //region DurableDataLogFactory Implementation
+
+    @Override
+    public void initialize() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(!this.initialized.get(), "FileLogFactory is already initialized.");
+        try {
+            Files.createDirectories(Paths.get(this.config.getRoot()));
+        } catch (IOException ex) {
+            throw new DataLogNotAvailableException(String.format("Unable to access root directory '%s'.", this.config.getRoot()), ex);
+        }
+
+        this.initialized.set(true);
+    }
+
+    @Override
+    public DurableDataLog createDurableDataLog(int logId) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.initialized.get(), "FileLogFactory is not initialized.");
+        return new FileLog(logId, this.config, this.executor);
+    }
+
+    //endregion
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Metadata for a FileLog.
+ */
+class FileLogMetadata {
+    //region Members
+
+    static final VersionedSerializer.WithBuilder<FileLogMetadata, FileLogMetadataBuilder> SERIALIZER = new Serializer();
+
+    /**
+     * The initial epoch to use for the Log.
+     */
+    private static final long INITIAL_EPOCH = 1;
+
+    /**
+     * A LogAddress to be used when the log is not truncated (initially). File Ids begin at 1, so this will never overlap
+     * with the first Record in the log.
+     */
+    private static final FileLogAddress INITIAL_TRUNCATION_ADDRESS = new FileLogAddress(0, 0);
+
+    /**
+     * The current epoch of the metadata. The epoch is incremented upon every successful recovery.
+     */
+    @Getter
+    private final long epoch;
+
+    /**
+     * Whether the Log described by this FileLogMetadata is enabled or not.
+     */
+    @Getter
+    private final boolean enabled;
+
+    /**
+     * An ordered list of FileMetadata instances that represent the Files in the log.
+     */
+    @Getter
+    private final List<FileMetadata> files;
+
+    /**
+     * The Address of the last Record that was truncated out of the log. Every read will start from the next Record.
+     */
+    @Getter
+    private final FileLogAddress truncationAddress;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogMetadata class with no Files and the epoch set to the default value.
+     */
+    FileLogMetadata() {
+        this(INITIAL_EPOCH, true, Collections.emptyList(), INITIAL_TRUNCATION_ADDRESS);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class.
+     *
+     * @param epoch             The current Log epoch.
+     * @param enabled           Whether this Log is enabled or not.
+     * @param files             The ordered list of Files making up this log.
+     * @param truncationAddress The truncation address for this log.
+     */
+    @Builder
+    private FileLogMetadata(long epoch, boolean enabled, List<FileMetadata> files, FileLogAddress truncationAddress) {
+        Preconditions.checkArgument(epoch > 0, "epoch must be a positive number");
+        this.epoch = epoch;
+        this.enabled = enabled;
+        this.files = Preconditions.checkNotNull(files, "files");
+        this.truncationAddress = Preconditions.checkNotNull(truncationAddress, "truncationAddress");
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Creates a new instance of the FileLogMetadata class with an incremented epoch.
+     *
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata fence() {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        return new FileLogMetadata(this.epoch + 1, this.enabled, this.files, this.truncationAddress);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which contains an additional (unsealed) File. All existing
+     * Files must be sealed.
+     *
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata addFile() {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        FileMetadata lastFile = getLastFile();
+        Preconditions.checkState(lastFile == null || lastFile.isSealed(), "Last File is not sealed.");
+
+        List<FileMetadata> newFiles = new ArrayList<>(this.files.size() + 1);
+        newFiles.addAll(this.files);
+        int fileId = lastFile == null ? this.truncationAddress.getFileId() + 1 : lastFile.getFileId() + 1;
+        newFiles.add(new FileMetadata(fileId, FileMetadata.UNSEALED));
+        return new FileLogMetadata(this.epoch, this.enabled, Collections.unmodifiableList(newFiles), this.truncationAddress);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which has its last File sealed at the given length. If the
+     * length is 0, the File will be removed altogether.
+     *
+     * @param length The length of the last File.
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata sealLastFile(int length) {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        FileMetadata lastFile = getLastFile();
+        Preconditions.checkState(lastFile != null && !lastFile.isSealed(), "No unsealed File to seal.");
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+
+        List<FileMetadata> newFiles = new ArrayList<>(this.files.subList(0, this.files.size() - 1));
+        if (length > 0) {
+            newFiles.add(new FileMetadata(lastFile.getFileId(), length));
+        }
+
+        return new FileLogMetadata(this.epoch, this.enabled, Collections.unmodifiableList(newFiles), this.truncationAddress);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which contains all the Files after (and including) the one
+     * referred to by the given address.
+     *
+     * @param upToAddress The address to truncate to.
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata truncate(FileLogAddress upToAddress) {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        List<FileMetadata> newFiles = this.files.stream()
+                .filter(fm -> fm.getFileId() >= upToAddress.getFileId())
+                .collect(Collectors.toList());
+        return new FileLogMetadata(this.epoch, this.enabled, Collections.unmodifiableList(newFiles), upToAddress);
+    }
+
+    /**
+     * Returns a FileLogMetadata class with the exact contents of this instance, but the enabled flag set to true.
+     *
+     * @return This instance, if isEnabled() == true, of a new instance of the FileLogMetadata class which will have
+     * isEnabled() == true, otherwise.
+     */
+    FileLogMetadata asEnabled() {
+        return this.enabled ? this : new FileLogMetadata(this.epoch, true, this.files, this.truncationAddress);
+    }
+
+    /**
+     * Returns a FileLogMetadata class with the exact contents of this instance, but the enabled flag set to false.
+     *
+     * @return This instance, if isEnabled() == false, of a new instance of the FileLogMetadata class which will have
+     * isEnabled() == false, otherwise.
+     */
+    FileLogMetadata asDisabled() {
+        return this.enabled ? new FileLogMetadata(this.epoch, false, this.files, this.truncationAddress) : this;
+    }
+
+    /**
+     * Gets the last File in this FileLogMetadata.
+     *
+     * @return The last File, or null if there are no Files.
+     */
+    FileMetadata getLastFile() {
+        return this.files.isEmpty() ? null : this.files.get(this.files.size() - 1);
+    }
+
+    //endregion
+
+    @Override
+    public String toString() {
+        return String.format("Epoch = %d, Enabled = %s, FileCount = %d, Truncate = (%d-%d)",
+                this.epoch, this.enabled, this.files.size(), this.truncationAddress.getFileId(), this.truncationAddress.getOffset());
+    }
+
+    //region FileMetadata
+
+    /**
+     * Metadata about a single File in the Log.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    static class FileMetadata {
+        /**
+         * Length of an unsealed File (the actual length must be determined by scanning it).
+         */
+        static final int UNSEALED = -1;
+
+        /**
+         * The Id of the File.
+         */
+        private final int fileId;
+
+        /**
+         * The length of the File (where the last Record ends), or UNSEALED if the File may still be written to.
+         */
+        private final int length;
+
+        /**
+         * Gets a value indicating whether this File is sealed (i.e., no more Records can be written to it).
+         *
+         * @return True if sealed, false otherwise.
+         */
+        boolean isSealed() {
+            return this.length != UNSEALED;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Id = %d, Length = %d", this.fileId, this.length);
+        }
+    }
+
+    //endregion
+
+    //region Serialization
+
+    static class FileLogMetadataBuilder implements ObjectBuilder<FileLogMetadata> {
+    }
+
+    private static class Serializer extends VersionedSerializer.WithBuilder<FileLogMetadata, FileLogMetadataBuilder> {
+        @Override
+        protected FileLogMetadataBuilder newBuilder() {
+            return FileLogMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(FileLogMetadata m, RevisionDataOutput output) throws IOException {
+            output.writeBoolean(m.isEnabled());
+            output.writeCompactLong(m.getEpoch());
+            output.writeLong(m.truncationAddress.getSequence());
+            output.writeCollection(m.files, this::writeFile00);
+        }
+
+        private void read00(RevisionDataInput input, FileLogMetadataBuilder builder) throws IOException {
+            builder.enabled(input.readBoolean());
+            builder.epoch(input.readCompactLong());
+            builder.truncationAddress(new FileLogAddress(input.readLong()));
+            List<FileMetadata> files = input.readCollection(this::readFile00, ArrayList::new);
+            builder.files(Collections.unmodifiableList(files));
+        }
+
+        private void writeFile00(RevisionDataOutput output, FileMetadata m) throws IOException {
+            output.writeInt(m.getFileId());
+            output.writeInt(m.getLength());
+        }
+
+        private FileMetadata readFile00(RevisionDataInput input) throws IOException {
+            return new FileMetadata(input.readInt(), input.readInt());
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.concurrent.NotThreadSafe;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Performs reads from FileLogs. Each File is memory-mapped (read-only) and its Records are parsed in place; only the
+ * Records' contents are copied out.
+ */
+@NotThreadSafe
+class FileLogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> {
+    //region Members
+
+    private final Path logDirectory;
+    private final FileLogMetadata metadata;
+    private final Iterator<FileLogMetadata.FileMetadata> files;
+    private final AtomicBoolean closed;
+    private ReadFile currentFile;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogReader class.
+     *
+     * @param logDirectory The directory where the Log's Files are located.
+     * @param metadata     The FileLogMetadata of the Log to read.
+     */
+    FileLogReader(Path logDirectory, FileLogMetadata metadata) {
+        this.logDirectory = Preconditions.checkNotNull(logDirectory, "logDirectory");
+        this.metadata = Preconditions.checkNotNull(metadata, "metadata");
+        this.files = this.metadata.getFiles().iterator();
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            // Mapped buffers are released when garbage-collected.
+            this.currentFile = null;
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DurableDataLog.ReadItem getNext() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        while (true) {
+            if (this.currentFile == null) {
+                if (!this.files.hasNext()) {
+                    // We have reached the end.
+                    close();
+                    return null;
+                }
+
+                FileLogMetadata.FileMetadata fm = this.files.next();
+                this.currentFile = new ReadFile(fm, LogFiles.map(LogFiles.getPath(this.logDirectory, fm.getFileId()), fm.getLength()));
+            }
+
+            FileLogAddress address = new FileLogAddress(this.currentFile.metadata.getFileId(), this.currentFile.offset);
+            int length = LogFiles.readRecordLength(this.currentFile.buffer, this.currentFile.offset);
+            if (length < 0) {
+                if (this.currentFile.metadata.isSealed() && this.currentFile.offset < this.currentFile.metadata.getLength()) {
+                    throw new DurableDataLogException(String.format("Unable to read Record at %s; data is corrupted.", address));
+                }
+
+                // End of this File.
+                this.currentFile = null;
+                continue;
+            }
+
+            this.currentFile.offset += LogFiles.RECORD_HEADER_LENGTH + length;
+            if (address.getSequence() > this.metadata.getTruncationAddress().getSequence()) {
+                byte[] data = new byte[length];
+                ByteBuffer source = this.currentFile.buffer.duplicate();
+                source.position(address.getOffset() + LogFiles.RECORD_HEADER_LENGTH);
+                source.get(data);
+                return new ReadItem(data, address);
+            }
+        }
+    }
+
+    //endregion
+
+    //region ReadItem
+
+    private static class ReadItem implements DurableDataLog.ReadItem {
+        @Getter
+        private final InputStream payload;
+        @Getter
+        private final int length;
+        @Getter
+        private final FileLogAddress address;
+
+        ReadItem(byte[] data, FileLogAddress address) {
+            this.address = address;
+            this.payload = new ByteArrayInputStream(data);
+            this.length = data.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, Length = %d.", this.address, this.length);
+        }
+    }
+
+    //endregion
+
+    //region ReadFile
+
+    @RequiredArgsConstructor
+    private static class ReadFile {
+        final FileLogMetadata.FileMetadata metadata;
+        final MappedByteBuffer buffer;
+        int offset;
+    }
+
+    //endregion
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import io.pravega.common.util.ArrayView;
+import io.pravega.common.util.BitConverter;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * General utilities pertaining to FileLog Files.
+ * <p>
+ * Every File is preallocated (zero-filled) to a fixed size upon creation, so that appending to it (and fsync-ing it) does
+ * not require any file system metadata changes. Records are written back-to-back, each in the following format:
+ * * Length (4 bytes): the length of the Record's data.
+ * * Checksum (4 bytes): CRC32 of the Length and Data.
+ * * Data (Length bytes).
+ * The end of the written portion of a File is the first position where a valid Record cannot be found (the Checksum also
+ * guards against torn writes at the end of the File).
+ */
+@Slf4j
+final class LogFiles {
+    static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final int PREALLOCATE_BUFFER_SIZE = 1024 * 1024;
+    private static final String FILE_NAME_FORMAT = "%010d.log";
+
+    /**
+     * Gets the Path to the File with given Id.
+     *
+     * @param logDirectory The Log's directory.
+     * @param fileId       The Id of the File.
+     * @return The Path.
+     */
+    static Path getPath(Path logDirectory, int fileId) {
+        return logDirectory.resolve(String.format(FILE_NAME_FORMAT, fileId));
+    }
+
+    /**
+     * Creates and preallocates a new File. If a File with the same name already exists, it is deleted first (this can
+     * happen if an empty File was removed from the metadata but not deleted). Both the File and its directory entry are
+     * durable when this method returns.
+     *
+     * @param path     The Path of the File to create.
+     * @param fileSize The size to preallocate.
+     * @return A FileChannel which can be used to write to the File.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static FileChannel create(Path path, int fileSize) throws DurableDataLogException {
+        FileChannel channel = null;
+        try {
+            // Never truncate and reuse an existing File: a fenced-out writer may still have it open.
+            Files.deleteIfExists(path);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer zeroes = ByteBuffer.allocate(Math.min(PREALLOCATE_BUFFER_SIZE, fileSize));
+            long position = 0;
+            while (position < fileSize) {
+                zeroes.clear();
+                zeroes.limit((int) Math.min(zeroes.capacity(), fileSize - position));
+                position += channel.write(zeroes, position);
+            }
+
+            channel.force(true);
+            syncDirectory(path.getParent());
+            return channel;
+        } catch (IOException ex) {
+            close(channel, path);
+            throw new DataLogInitializationException(String.format("Unable to create file '%s'.", path), ex);
+        }
+    }
+
+    /**
+     * Serializes the given data as a Record into the given buffer, at its current position.
+     *
+     * @param data   The data to serialize.
+     * @param target The buffer to serialize into. Its position will be advanced by RECORD_HEADER_LENGTH + data.getLength().
+     */
+    static void writeRecord(ArrayView data, ByteBuffer target) {
+        byte[] lengthBytes = new byte[Integer.BYTES];
+        BitConverter.writeInt(lengthBytes, 0, data.getLength());
+        CRC32 crc = new CRC32();
+        crc.update(lengthBytes);
+        crc.update(data.array(), data.arrayOffset(), data.getLength());
+        target.put(lengthBytes);
+        target.putInt((int) crc.getValue());
+        target.put(data.array(), data.arrayOffset(), data.getLength());
+    }
+
+    /**
+     * Attempts to read the header of a Record located at the given offset.
+     *
+     * @param buffer The buffer to read from (usually a memory-mapped File).
+     * @param offset The offset in the buffer where the Record begins.
+     * @return The length of the Record's data, or -1 if there is no valid Record at this offset.
+     */
+    static int readRecordLength(ByteBuffer buffer, int offset) {
+        if (offset + RECORD_HEADER_LENGTH > buffer.limit()) {
+            return -1;
+        }
+
+        int length = buffer.getInt(offset);
+        if (length < 0 || length > FileLogConfig.MAX_APPEND_LENGTH || offset + RECORD_HEADER_LENGTH + length > buffer.limit()) {
+            return -1;
+        }
+
+        // The Checksum covers both the Length and the Data.
+        CRC32 crc = new CRC32();
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + Integer.BYTES).position(offset);
+        crc.update(view);
+        view.limit(offset + RECORD_HEADER_LENGTH + length).position(offset + RECORD_HEADER_LENGTH);
+        crc.update(view);
+        return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    /**
+     * Memory-maps the given File (read-only).
+     *
+     * @param path   The Path of the File to map.
+     * @param length The number of bytes to map, or a negative value to map the entire File.
+     * @return A MappedByteBuffer.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static MappedByteBuffer map(Path path, int length) throws DurableDataLogException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long mapLength = length < 0 ? channel.size() : Math.min(length, channel.size());
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, mapLength);
+        } catch (IOException ex) {
+            throw new DurableDataLogException(String.format("Unable to open file '%s'.", path), ex);
+        }
+    }
+
+    /**
+     * Determines the length of the written portion of the given File by scanning all its Records.
+     *
+     * @param path The Path of the File to scan.
+     * @return The offset where the last valid Record ends.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static int scan(Path path) throws DurableDataLogException {
+        MappedByteBuffer buffer = map(path, -1);
+        int offset = 0;
+        int length;
+        while ((length = readRecordLength(buffer, offset)) >= 0) {
+            offset += RECORD_HEADER_LENGTH + length;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Deletes the given File. No exception is thrown if it does not exist. The deletion is durable when this method returns.
+     *
+     * @param path The Path of the File to delete.
+     * @throws DurableDataLogException If an exception occurred. The causing exception is wrapped inside it.
+     */
+    static void delete(Path path) throws DurableDataLogException {
+        try {
+            if (Files.deleteIfExists(path)) {
+                syncDirectory(path.getParent());
+            }
+        } catch (IOException ex) {
+            throw new DurableDataLogException(String.format("Unable to delete file '%s'.", path), ex);
+        }
+    }
+
+    /**
+     * Flushes the given directory to disk. Creating, renaming or deleting a File only updates its directory, so these
+     * changes are not guaranteed to survive a crash (even if the File itself has been fsync-ed) until this is done.
+     *
+     * @param directory The Path of the directory to flush.
+     * @throws IOException If an exception occurred.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Closes the given FileChannel, logging any exceptions.
+     *
+     * @param channel The FileChannel to close. May be null.
+     * @param path    The Path of the File (for logging purposes).
+     */
+    static void close(FileChannel channel, Path path) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.error("Unable to close file '{}'.", path, ex);
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class HDFSStorageConfig {
     public static final Property<Integer> REPLICATION = Property.named("replication", 3);
     public static final Property<Integer> BLOCK_SIZE = Property.named("blockSize", 1024 * 1024);
     public static final Property<Boolean> REPLACE_DATANODES_ON_FAILURE = Property.named("replaceDataNodesOnFailure", true);
+    public static final Property<Integer> COMPRESSION_BLOCK_SIZE = Property.named("compressionBlockSize", 0);
     private static final String COMPONENT_CODE = "hdfs";
 
     //endregion
@@ -67,6 +68,13 @@ public class HDFSStorageConfig {
     @Getter
     private final boolean replaceDataNodesOnFailure;
 
+    /**
+     * The maximum (logical) length of a compressed block, in bytes, if data is to be stored in compressed form. A value
+     * of 0 disables compression.
+     */
+    @Getter
+    private final int compressionBlockSize;
+
     //endregion
 
     //region Constructor
@@ -82,6 +90,10 @@ public class HDFSStorageConfig {
         this.replication = (short) properties.getInt(REPLICATION);
         this.blockSize = properties.getInt(BLOCK_SIZE);
         this.replaceDataNodesOnFailure = properties.getBoolean(REPLACE_DATANODES_ON_FAILURE);
+        this.compressionBlockSize = properties.getInt(COMPRESSION_BLOCK_SIZE);
+        if (this.compressionBlockSize < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", COMPRESSION_BLOCK_SIZE));
+        }
     }
 
     /**
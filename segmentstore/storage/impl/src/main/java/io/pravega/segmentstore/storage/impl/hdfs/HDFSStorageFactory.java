@@ -12,7 +12,9 @@ package io.pravega.segmentstore.storage.impl.hdfs;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.SyncStorage;
 import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.compression.CompressedStorage;
 import io.pravega.segmentstore.storage.rolling.RollingStorage;
 import java.util.concurrent.Executor;
 
@@ -38,7 +40,11 @@ public class HDFSStorageFactory implements StorageFactory {
 
     @Override
     public Storage createStorageAdapter() {
-        HDFSStorage s = new HDFSStorage(this.config);
+        SyncStorage s = new HDFSStorage(this.config);
+        if (this.config.getCompressionBlockSize() > 0) {
+            s = new CompressedStorage(s, this.config.getCompressionBlockSize());
+        }
+
         return new AsyncStorageWrapper(new RollingStorage(s), this.executor);
     }
 }
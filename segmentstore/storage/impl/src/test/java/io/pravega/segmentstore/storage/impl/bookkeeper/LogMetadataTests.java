@@ -198,7 +198,8 @@ public class LogMetadataTests {
             if (m1 == null) {
                 m1 = new LogMetadata(ledgerId).withUpdateVersion(i);
             } else {
-                m1 = m1.addLedger(ledgerId).withUpdateVersion(i);
+                // Mix in some shared Ledgers.
+                m1 = m1.addLedger(ledgerId, i % 3 == 0).withUpdateVersion(i);
             }
 
             if (i % 2 == 0) {
@@ -215,7 +216,8 @@ public class LogMetadataTests {
         Assert.assertEquals("Unexpected TruncationAddress.", m1.getTruncationAddress().getSequence(), m2.getTruncationAddress().getSequence());
         Assert.assertEquals("Unexpected TruncationAddress.", m1.getTruncationAddress().getLedgerId(), m2.getTruncationAddress().getLedgerId());
         AssertExtensions.assertListEquals("Unexpected ledgers.", m1.getLedgers(), m2.getLedgers(),
-                (l1, l2) -> l1.getSequence() == l2.getSequence() && l1.getLedgerId() == l2.getLedgerId() && l1.getStatus() == l2.getStatus());
+                (l1, l2) -> l1.getSequence() == l2.getSequence() && l1.getLedgerId() == l2.getLedgerId() && l1.getStatus() == l2.getStatus()
+                        && l1.isShared() == l2.isShared());
     }
 
     private void checkLedgerIds(List<Long> expectedLedgerIds, LogMetadata metadata) {
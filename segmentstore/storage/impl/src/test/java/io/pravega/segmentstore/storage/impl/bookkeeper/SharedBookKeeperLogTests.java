@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogTestBase;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.TestUtils;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for SharedBookKeeperLog (BookKeeperLogs with group commit enabled). These require that a compiled BookKeeper
+ * distribution exists on the local filesystem. It starts up the local sandbox and uses that for testing purposes.
+ */
+public class SharedBookKeeperLogTests extends DurableDataLogTestBase {
+    //region Setup, Config and Cleanup
+
+    private static final int CONTAINER_ID = 9999;
+    private static final int OTHER_CONTAINER_ID = 9998;
+    private static final int WRITE_COUNT = 500;
+    private static final int BOOKIE_COUNT = 1;
+    private static final int THREAD_POOL_SIZE = 3;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final int MAX_LEDGER_SIZE = WRITE_MAX_LENGTH * Math.max(10, WRITE_COUNT / 20);
+
+    private static final AtomicReference<BookKeeperServiceRunner> BK_SERVICE = new AtomicReference<>();
+    private static final AtomicInteger BK_PORT = new AtomicInteger();
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+    private final AtomicReference<BookKeeperConfig> config = new AtomicReference<>();
+    private final AtomicReference<CuratorFramework> zkClient = new AtomicReference<>();
+    private final AtomicReference<BookKeeperLogFactory> factory = new AtomicReference<>();
+
+    /**
+     * Start BookKeeper once for the duration of this class. This is pretty strenuous, so in the interest of running time
+     * we only do it once.
+     */
+    @BeforeClass
+    public static void setUpBookKeeper() throws Exception {
+        // Pick a random port to reduce chances of collisions during concurrent test executions.
+        BK_PORT.set(TestUtils.getAvailableListenPort());
+        val bookiePorts = new ArrayList<Integer>();
+        for (int i = 0; i < BOOKIE_COUNT; i++) {
+            bookiePorts.add(TestUtils.getAvailableListenPort());
+        }
+
+        val runner = BookKeeperServiceRunner.builder()
+                                            .startZk(true)
+                                            .zkPort(BK_PORT.get())
+                                            .ledgersPath("/pravega/bookkeeper/ledgers")
+                                            .secureBK(false)
+                                            .bookiePorts(bookiePorts)
+                                            .build();
+        runner.startAll();
+        BK_SERVICE.set(runner);
+    }
+
+    @AfterClass
+    public static void tearDownBookKeeper() throws Exception {
+        val process = BK_SERVICE.getAndSet(null);
+        if (process != null) {
+            process.close();
+        }
+    }
+
+    /**
+     * Before each test, we create a new namespace; this ensures that data created from a previous test does not leak
+     * into the current one (namespaces cannot be deleted (at least not through the API)).
+     */
+    @Before
+    public void setUp() throws Exception {
+        // Create a ZKClient with a unique namespace.
+        String namespace = "pravega/segmentstore/unittest_" + Long.toHexString(System.nanoTime());
+        this.zkClient.set(CuratorFrameworkFactory
+                .builder()
+                .connectString("localhost:" + BK_PORT.get())
+                .namespace(namespace)
+                .retryPolicy(new ExponentialBackoffRetry(1000, 5))
+                .build());
+        this.zkClient.get().start();
+
+        // Setup config to use the port and namespace.
+        this.config.set(BookKeeperConfig
+                .builder()
+                .with(BookKeeperConfig.ZK_ADDRESS, "localhost:" + BK_PORT.get())
+                .with(BookKeeperConfig.MAX_WRITE_ATTEMPTS, MAX_WRITE_ATTEMPTS)
+                .with(BookKeeperConfig.BK_LEDGER_MAX_SIZE, MAX_LEDGER_SIZE)
+                .with(BookKeeperConfig.ZK_METADATA_PATH, namespace)
+                .with(BookKeeperConfig.BK_LEDGER_PATH, "/pravega/bookkeeper/ledgers")
+                .with(BookKeeperConfig.BK_ENSEMBLE_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_WRITE_QUORUM_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_ACK_QUORUM_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_WRITE_TIMEOUT, 1000) // This is the minimum we can set anyway.
+                .with(BookKeeperConfig.BK_GROUP_COMMIT_ENABLED, true)
+                .build());
+
+        // Create default factory.
+        val factory = new BookKeeperLogFactory(this.config.get(), this.zkClient.get(), executorService());
+        factory.initialize();
+        this.factory.set(factory);
+    }
+
+    @After
+    public void tearDown() {
+        val factory = this.factory.getAndSet(null);
+        if (factory != null) {
+            factory.close();
+        }
+
+        val zkClient = this.zkClient.getAndSet(null);
+        if (zkClient != null) {
+            zkClient.close();
+        }
+    }
+
+    //endregion
+
+    //region Shared Ledger Tests
+
+    /**
+     * Tests the ability of multiple Logs to write (in parallel) to the same shared Ledgers, across multiple rollovers.
+     */
+    @Test
+    public void testRolloverWithMultipleLogs() throws Exception {
+        TreeMap<LogAddress, byte[]> writeData1;
+        TreeMap<LogAddress, byte[]> writeData2;
+        try (DurableDataLog log1 = createDurableDataLog();
+             DurableDataLog log2 = createOtherDurableDataLog()) {
+            log1.initialize(TIMEOUT);
+            log2.initialize(TIMEOUT);
+
+            // Interleave the writes of both Logs, without waiting for them.
+            val data1 = new ArrayList<byte[]>();
+            val data2 = new ArrayList<byte[]>();
+            val futures1 = new ArrayList<CompletableFuture<LogAddress>>();
+            val futures2 = new ArrayList<CompletableFuture<LogAddress>>();
+            for (int i = 0; i < getWriteCount(); i++) {
+                data1.add(getWriteData());
+                futures1.add(log1.append(new ByteArraySegment(data1.get(i)), TIMEOUT));
+                data2.add(getWriteData());
+                futures2.add(log2.append(new ByteArraySegment(data2.get(i)), TIMEOUT));
+            }
+
+            writeData1 = toWriteData(Futures.allOfWithResults(futures1).join(), data1);
+            writeData2 = toWriteData(Futures.allOfWithResults(futures2).join(), data2);
+
+            // Both Logs should have rolled over the same (shared) Ledgers.
+            val ledgers1 = ((SharedBookKeeperLog) log1).loadMetadata().getLedgers();
+            val ledgers2 = ((SharedBookKeeperLog) log2).loadMetadata().getLedgers();
+            AssertExtensions.assertGreaterThan("Expected at least one rollover.", 1, ledgers1.size());
+            Assert.assertTrue("Expected all Ledgers to be shared.", ledgers1.stream().allMatch(LedgerMetadata::isShared));
+            Assert.assertEquals("Expected the last Ledger to be shared by both Logs.",
+                    ledgers1.get(ledgers1.size() - 1).getLedgerId(), ledgers2.get(ledgers2.size() - 1).getLedgerId());
+        }
+
+        // Each Log should only read back its own data.
+        try (DurableDataLog log1 = createDurableDataLog();
+             DurableDataLog log2 = createOtherDurableDataLog()) {
+            log1.initialize(TIMEOUT);
+            log2.initialize(TIMEOUT);
+            verifyReads(log1, writeData1);
+            verifyReads(log2, writeData2);
+        }
+    }
+
+    /**
+     * Tests that fencing out one Log (by initializing a second instance of it) does not affect any other Logs that share
+     * the same Ledgers.
+     */
+    @Test
+    public void testFencingWithMultipleLogs() throws Exception {
+        TreeMap<LogAddress, byte[]> writeData = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        TreeMap<LogAddress, byte[]> otherWriteData = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        try (DurableDataLog otherLog = createOtherDurableDataLog()) {
+            otherLog.initialize(TIMEOUT);
+            try (DurableDataLog log1 = createDurableDataLog()) {
+                log1.initialize(TIMEOUT);
+                writeData.putAll(populate(log1, getWriteCount() / 4));
+                otherWriteData.putAll(populate(otherLog, getWriteCount() / 4));
+
+                try (DurableDataLog log2 = createDurableDataLog()) {
+                    log2.initialize(TIMEOUT);
+
+                    // Verify we cannot write to the first instance anymore.
+                    AssertExtensions.assertThrows(
+                            "The first log was not fenced out.",
+                            () -> log1.append(new ByteArraySegment(new byte[1]), TIMEOUT),
+                            ex -> ex instanceof DataLogWriterNotPrimaryException || ex instanceof ObjectClosedException);
+
+                    // Verify both the second instance and the other Log can still write.
+                    writeData.putAll(populate(log2, getWriteCount() / 4));
+                    otherWriteData.putAll(populate(otherLog, getWriteCount() / 4));
+                }
+            }
+        }
+
+        try (DurableDataLog log = createDurableDataLog();
+             DurableDataLog otherLog = createOtherDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            otherLog.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            verifyReads(otherLog, otherWriteData);
+        }
+    }
+
+    /**
+     * Tests the ability to recover from a Bookie failure while writes from multiple Logs are in flight. Writes that made
+     * it into a failed Ledger (based on its LastAddConfirmed) must not be retried, so no Log may contain duplicates.
+     */
+    @Test
+    public void testAppendTransientBookieFailure() throws Exception {
+        TreeMap<LogAddress, byte[]> writeData1;
+        TreeMap<LogAddress, byte[]> writeData2;
+        try (DurableDataLog log1 = createDurableDataLog();
+             DurableDataLog log2 = createOtherDurableDataLog()) {
+            log1.initialize(TIMEOUT);
+            log2.initialize(TIMEOUT);
+
+            val data1 = new ArrayList<byte[]>();
+            val data2 = new ArrayList<byte[]>();
+            val futures1 = new ArrayList<CompletableFuture<LogAddress>>();
+            val futures2 = new ArrayList<CompletableFuture<LogAddress>>();
+            try {
+                // Suspend a bookie (this will trigger write errors).
+                stopFirstBookie();
+
+                // Issue appends in parallel, without waiting for them.
+                int writeCount = getWriteCount() / 2;
+                for (int i = 0; i < writeCount; i++) {
+                    data1.add(getWriteData());
+                    futures1.add(log1.append(new ByteArraySegment(data1.get(i)), TIMEOUT));
+                    data2.add(getWriteData());
+                    futures2.add(log2.append(new ByteArraySegment(data2.get(i)), TIMEOUT));
+                }
+            } finally {
+                // Resume the bookie with the appends still in flight.
+                restartFirstBookie();
+            }
+
+            writeData1 = toWriteData(Futures.allOfWithResults(futures1).join(), data1);
+            writeData2 = toWriteData(Futures.allOfWithResults(futures2).join(), data2);
+        }
+
+        // Verify data (verifyReads will detect any duplicates).
+        try (DurableDataLog log1 = createDurableDataLog();
+             DurableDataLog log2 = createOtherDurableDataLog()) {
+            log1.initialize(TIMEOUT);
+            log2.initialize(TIMEOUT);
+            verifyReads(log1, writeData1);
+            verifyReads(log2, writeData2);
+        }
+    }
+
+    /**
+     * Tests that shared Ledgers are only deleted once every Log that refers to them has truncated them out.
+     */
+    @Test
+    public void testTruncateSharedLedgers() throws Exception {
+        try (DurableDataLog log1 = createDurableDataLog();
+             DurableDataLog log2 = createOtherDurableDataLog()) {
+            log1.initialize(TIMEOUT);
+            log2.initialize(TIMEOUT);
+            val firstLedgerId = ((SharedBookKeeperLog) log1).loadMetadata().getLedgers().get(0).getLedgerId();
+
+            // Write enough to both Logs so that they roll over (both Logs are registered with every new Ledger).
+            val writeData1 = populate(log1, getWriteCount());
+            val writeData2 = populate(log2, getWriteCount());
+            val lastAddress1 = (LedgerAddress) writeData1.lastKey();
+            val lastAddress2 = (LedgerAddress) writeData2.lastKey();
+            AssertExtensions.assertGreaterThan("Expected at least one rollover.", firstLedgerId, lastAddress1.getLedgerId());
+
+            // Truncate the first Log. The first Ledger is still referenced by the second Log, so it must not be deleted.
+            log1.truncate(lastAddress1, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertNotNull("Not expecting the shared Ledger references to be removed.",
+                    this.zkClient.get().checkExists().forPath("/sharedledgers/" + firstLedgerId));
+            Ledgers.openFence(firstLedgerId, this.factory.get().getBookKeeperClient(), this.config.get());
+
+            // Truncate the second Log. Nobody refers to the first Ledger anymore, so it must be deleted.
+            log2.truncate(lastAddress2, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertNull("Expected the shared Ledger references to be removed.",
+                    this.zkClient.get().checkExists().forPath("/sharedledgers/" + firstLedgerId));
+            AssertExtensions.assertThrows(
+                    "Shared Ledger not deleted from BookKeeper.",
+                    () -> Ledgers.openFence(firstLedgerId, this.factory.get().getBookKeeperClient(), this.config.get()),
+                    ex -> true);
+        }
+    }
+
+    @Override
+    protected int getThreadPoolSize() {
+        return THREAD_POOL_SIZE;
+    }
+
+    private static void stopFirstBookie() {
+        BK_SERVICE.get().stopBookie(0);
+    }
+
+    @SneakyThrows
+    private static void restartFirstBookie() {
+        BK_SERVICE.get().startBookie(0);
+    }
+
+    private DurableDataLog createOtherDurableDataLog() {
+        return this.factory.get().createDurableDataLog(OTHER_CONTAINER_ID);
+    }
+
+    private TreeMap<LogAddress, byte[]> toWriteData(List<LogAddress> addresses, List<byte[]> data) {
+        TreeMap<LogAddress, byte[]> result = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        for (int i = 0; i < data.size(); i++) {
+            result.put(addresses.get(i), data.get(i));
+        }
+
+        return result;
+    }
+
+    //endregion
+
+    //region DurableDataLogTestBase implementation
+
+    @Override
+    protected DurableDataLog createDurableDataLog() {
+        return this.factory.get().createDurableDataLog(CONTAINER_ID);
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog(Object sharedContext) {
+        return createDurableDataLog(); // Nothing different for shared context.
+    }
+
+    @Override
+    protected Object createSharedContext() {
+        return null; // No need for shared context.
+    }
+
+    @Override
+    protected LogAddress createLogAddress(long seqNo) {
+        return new LedgerAddress(seqNo, seqNo);
+    }
+
+    @Override
+    protected int getWriteCount() {
+        return WRITE_COUNT;
+    }
+
+    //endregion
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.bookkeeper;
+
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the SharedLedgerEntry class.
+ */
+public class SharedLedgerEntryTests {
+    private static final int LOG_COUNT = 10;
+    private static final int MAX_RECORD_LENGTH = 1000;
+
+    /**
+     * Tests the ability to serialize multiple Records into an Entry and locate each of them afterwards.
+     */
+    @Test(timeout = 5000)
+    public void testSerializeFind() {
+        val rnd = new Random(0);
+        val records = new ArrayList<SharedLedgerEntry.Record>();
+        for (int logId = 0; logId < LOG_COUNT; logId++) {
+            // Include some empty Records too.
+            byte[] data = new byte[logId % 3 == 0 ? 0 : rnd.nextInt(MAX_RECORD_LENGTH) + 1];
+            rnd.nextBytes(data);
+            records.add(new SharedLedgerEntry.Record(logId * 2, new ByteArraySegment(data)));
+        }
+
+        byte[] entry = SharedLedgerEntry.serialize(records).getCopy();
+        for (val r : records) {
+            val found = SharedLedgerEntry.find(entry, r.getLogId());
+            Assert.assertNotNull("Unable to find Record for Log " + r.getLogId(), found);
+            Assert.assertArrayEquals("Unexpected Record data for Log " + r.getLogId(), r.getData().getCopy(), found.getCopy());
+        }
+
+        Assert.assertNull("Not expecting a Record for a Log that was not included.", SharedLedgerEntry.find(entry, 1));
+    }
+
+    /**
+     * Tests the ability to detect corrupted Entries.
+     */
+    @Test(timeout = 5000)
+    public void testCorruption() {
+        val records = Arrays.asList(
+                new SharedLedgerEntry.Record(1, new ByteArraySegment(new byte[10])),
+                new SharedLedgerEntry.Record(2, new ByteArraySegment(new byte[20])));
+        byte[] entry = SharedLedgerEntry.serialize(records).getCopy();
+
+        AssertExtensions.assertThrows(
+                "find() accepted an empty Entry.",
+                () -> SharedLedgerEntry.find(new byte[0], 1),
+                ex -> ex instanceof IllegalArgumentException);
+
+        byte[] badVersion = entry.clone();
+        badVersion[0] = 1;
+        AssertExtensions.assertThrows(
+                "find() accepted an Entry with an unsupported version.",
+                () -> SharedLedgerEntry.find(badVersion, 1),
+                ex -> ex instanceof IllegalArgumentException);
+
+        byte[] truncated = Arrays.copyOf(entry, entry.length - 1);
+        Assert.assertNotNull("Expected to locate a Record before the truncation point.", SharedLedgerEntry.find(truncated, 1));
+        AssertExtensions.assertThrows(
+                "find() accepted a truncated Entry.",
+                () -> SharedLedgerEntry.find(truncated, 2),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filelog;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogTestBase;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import io.pravega.test.common.AssertExtensions;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for FileLog.
+ */
+public class FileLogTests extends DurableDataLogTestBase {
+    private static final int WRITE_COUNT = 500;
+    private static final int FILE_SIZE = 2 * FileLogConfig.MAX_APPEND_LENGTH;
+    private static final int LARGE_WRITE_COUNT = 10;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+    private final Supplier<Integer> nextLogId = new AtomicInteger()::incrementAndGet;
+    private File baseDir;
+    private FileLogFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        this.baseDir = Files.createTempDirectory("test_filelog").toFile().getAbsoluteFile();
+        val config = FileLogConfig
+                .builder()
+                .with(FileLogConfig.ROOT, this.baseDir.getAbsolutePath())
+                .with(FileLogConfig.FILE_SIZE, FILE_SIZE)
+                .build();
+        this.factory = new FileLogFactory(config, executorService());
+        this.factory.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.factory != null) {
+            this.factory.close();
+            this.factory = null;
+        }
+
+        FileHelpers.deleteFileOrDirectory(this.baseDir);
+        this.baseDir = null;
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog() {
+        return this.factory.createDurableDataLog(this.nextLogId.get());
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog(Object sharedContext) {
+        Preconditions.checkArgument(sharedContext instanceof Integer);
+        return this.factory.createDurableDataLog((Integer) sharedContext);
+    }
+
+    @Override
+    protected Object createSharedContext() {
+        return this.nextLogId.get();
+    }
+
+    @Override
+    protected LogAddress createLogAddress(long seqNo) {
+        return new FileLogAddress(seqNo);
+    }
+
+    @Override
+    protected int getWriteCount() {
+        return WRITE_COUNT;
+    }
+
+    /**
+     * Tests the ability to roll over to new Files when the current one is full, read across Files upon recovery, and
+     * delete Files that have been entirely truncated out.
+     */
+    @Test
+    public void testRollover() throws Exception {
+        int logId = this.nextLogId.get();
+        val rnd = new Random(0);
+        TreeMap<LogAddress, byte[]> writeData = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            AssertExtensions.assertThrows(
+                    "append() accepted a write that was too long.",
+                    () -> log.append(new ByteArraySegment(new byte[log.getMaxAppendLength() + 1]), TIMEOUT),
+                    ex -> ex instanceof WriteTooLongException);
+
+            val futures = new ArrayList<CompletableFuture<LogAddress>>();
+            val data = new ArrayList<byte[]>();
+            for (int i = 0; i < LARGE_WRITE_COUNT; i++) {
+                byte[] appendData = new byte[log.getMaxAppendLength() - rnd.nextInt(1000)];
+                rnd.nextBytes(appendData);
+                futures.add(log.append(new ByteArraySegment(appendData), TIMEOUT));
+                data.add(appendData);
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                writeData.put(futures.get(i).join(), data.get(i));
+            }
+        }
+
+        val addresses = new ArrayList<FileLogAddress>();
+        writeData.keySet().forEach(a -> addresses.add((FileLogAddress) a));
+        int firstFileId = addresses.get(0).getFileId();
+        int lastFileId = addresses.get(addresses.size() - 1).getFileId();
+        AssertExtensions.assertGreaterThan("Expected multiple Files to be used.", firstFileId, lastFileId);
+
+        // Recover and verify that we can read everything back, then truncate everything but the last File.
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+
+            FileLogAddress truncationAddress = addresses.stream().filter(a -> a.getFileId() < lastFileId).reduce((a, b) -> b).get();
+            log.truncate(truncationAddress, TIMEOUT).join();
+            writeData.headMap(truncationAddress, true).clear();
+            verifyReads(log, writeData);
+        }
+
+        val logDirectory = this.baseDir.toPath().resolve(Integer.toString(logId));
+        for (int fileId = firstFileId; fileId < lastFileId - 1; fileId++) {
+            Assert.assertFalse("Truncated File was not deleted: " + fileId, Files.exists(LogFiles.getPath(logDirectory, fileId)));
+        }
+
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    /**
+     * Tests that the metadata is atomically replaced (via its temporary File) every time it is persisted, and that a new
+     * instance can reload it, even if a stale temporary File was left behind by a crash in the middle of an update.
+     */
+    @Test
+    public void testMetadataReload() throws Exception {
+        int logId = this.nextLogId.get();
+        val logDirectory = this.baseDir.toPath().resolve(Integer.toString(logId));
+        FileLogMetadata persistedMetadata;
+        TreeMap<LogAddress, byte[]> writeData;
+        try (FileLog log = (FileLog) createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+            log.disable();
+            persistedMetadata = log.loadMetadata();
+        }
+
+        Assert.assertTrue("Metadata File does not exist.", Files.exists(logDirectory.resolve(FileLog.METADATA_FILE_NAME)));
+        Assert.assertFalse("Temporary Metadata File was not renamed.", Files.exists(logDirectory.resolve(FileLog.METADATA_TEMP_FILE_NAME)));
+        Assert.assertFalse("Unexpected enabled flag after disable().", persistedMetadata.isEnabled());
+
+        // Simulate a crash after writing the temporary File but before renaming it over the existing one.
+        Files.write(logDirectory.resolve(FileLog.METADATA_TEMP_FILE_NAME), new byte[]{1, 2, 3});
+        try (FileLog log = (FileLog) createDurableDataLog(logId)) {
+            val reloadedMetadata = log.loadMetadata();
+            Assert.assertEquals("Unexpected epoch after reload.", persistedMetadata.getEpoch(), reloadedMetadata.getEpoch());
+            Assert.assertFalse("Unexpected enabled flag after reload.", reloadedMetadata.isEnabled());
+            Assert.assertEquals("Unexpected File count after reload.", persistedMetadata.getFiles().size(), reloadedMetadata.getFiles().size());
+            for (int i = 0; i < persistedMetadata.getFiles().size(); i++) {
+                val expected = persistedMetadata.getFiles().get(i);
+                val actual = reloadedMetadata.getFiles().get(i);
+                Assert.assertEquals("Unexpected File Id after reload.", expected.getFileId(), actual.getFileId());
+                Assert.assertEquals("Unexpected File length after reload.", expected.getLength(), actual.getLength());
+            }
+
+            log.enable();
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            Assert.assertEquals("Unexpected epoch after fencing.", persistedMetadata.getEpoch() + 1, log.loadMetadata().getEpoch());
+            Assert.assertFalse("Temporary Metadata File was not replaced.", Files.exists(logDirectory.resolve(FileLog.METADATA_TEMP_FILE_NAME)));
+        }
+    }
+
+    /**
+     * Tests the ability to recover from a torn write at the end of a File (i.e., a crash in the middle of a write).
+     */
+    @Test
+    public void testTornWrite() throws Exception {
+        int logId = this.nextLogId.get();
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+        }
+
+        // Simulate a partial write after the last Record by writing a valid-looking Length with garbage after it.
+        val lastAddress = (FileLogAddress) writeData.lastKey();
+        int endOffset = lastAddress.getOffset() + LogFiles.RECORD_HEADER_LENGTH + writeData.lastEntry().getValue().length;
+        val filePath = LogFiles.getPath(this.baseDir.toPath().resolve(Integer.toString(logId)), lastAddress.getFileId());
+        try (RandomAccessFile file = new RandomAccessFile(filePath.toFile(), "rw")) {
+            file.seek(endOffset);
+            file.writeInt(WRITE_MAX_LENGTH);
+            file.writeInt(12345);
+            file.write(new byte[WRITE_MAX_LENGTH / 2]);
+        }
+
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            writeData.putAll(populate(log, getWriteCount()));
+        }
+
+        try (DurableDataLog log = createDurableDataLog(logId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.compression;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.BitConverter;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * A block of data within a compressed Segment. Every block is stored in the data Segment as a Header (Length (4 bytes),
+ * Stored Length (4 bytes)) followed by its (compressed) contents. If the Stored Length equals the Length, the block
+ * contents are stored uncompressed.
+ * <p>
+ * The Block Index Segment is made up of a copy of the Headers of all the blocks, in order, which allows locating any
+ * block without having to scan the data Segment.
+ */
+@Data
+class CompressedBlock {
+    static final int HEADER_LENGTH = 2 * Integer.BYTES;
+
+    /**
+     * The logical offset (as perceived by users of the Storage) where this block begins.
+     */
+    private final long offset;
+    /**
+     * The logical (uncompressed) length of this block.
+     */
+    private final int length;
+    /**
+     * The offset within the data Segment where this block's Header begins.
+     */
+    private final long physicalOffset;
+    /**
+     * The length of this block's contents, as stored in the data Segment (excluding the Header).
+     */
+    private final int storedLength;
+
+    /**
+     * Gets a value indicating the logical offset right after the end of this block.
+     */
+    long getLastOffset() {
+        return this.offset + this.length;
+    }
+
+    /**
+     * Gets a value indicating the offset within the data Segment right after the end of this block.
+     */
+    long getPhysicalLastOffset() {
+        return this.physicalOffset + HEADER_LENGTH + this.storedLength;
+    }
+
+    /**
+     * Gets a value indicating whether this block's contents are compressed.
+     */
+    boolean isCompressed() {
+        return this.storedLength != this.length;
+    }
+
+    /**
+     * Creates a new CompressedBlock with the same lengths as this one, but located at the given offsets.
+     *
+     * @param offset         The new logical offset.
+     * @param physicalOffset The new physical offset.
+     * @return The new CompressedBlock.
+     */
+    CompressedBlock withOffsets(long offset, long physicalOffset) {
+        return new CompressedBlock(offset, this.length, physicalOffset, this.storedLength);
+    }
+
+    /**
+     * Serializes the Header of this block into the given array.
+     *
+     * @param target       The array to serialize into.
+     * @param targetOffset The offset within the array to serialize at.
+     * @return The number of bytes written.
+     */
+    int writeHeader(byte[] target, int targetOffset) {
+        int count = BitConverter.writeInt(target, targetOffset, this.length);
+        return count + BitConverter.writeInt(target, targetOffset + count, this.storedLength);
+    }
+
+    /**
+     * Parses a sequence of block Headers, such as the contents of a Block Index Segment.
+     *
+     * @param source         The array to parse from.
+     * @param sourceOffset   The offset within the array to start parsing at.
+     * @param sourceLength   The number of bytes to parse. Must be a multiple of HEADER_LENGTH.
+     * @param offset         The logical offset of the first block.
+     * @param physicalOffset The physical offset of the first block.
+     * @return A List of CompressedBlocks, in order.
+     * @throws IllegalArgumentException If the serialization is invalid.
+     */
+    static List<CompressedBlock> parseHeaders(byte[] source, int sourceOffset, int sourceLength, long offset, long physicalOffset) {
+        Preconditions.checkArgument(sourceLength % HEADER_LENGTH == 0,
+                "Block Index length (%s) is not a multiple of %s.", sourceLength, HEADER_LENGTH);
+        ArrayList<CompressedBlock> result = new ArrayList<>(sourceLength / HEADER_LENGTH);
+        for (int pos = sourceOffset; pos < sourceOffset + sourceLength; pos += HEADER_LENGTH) {
+            CompressedBlock b = parseHeader(source, pos, offset, physicalOffset);
+            result.add(b);
+            offset = b.getLastOffset();
+            physicalOffset = b.getPhysicalLastOffset();
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a single block Header.
+     *
+     * @param source         The array to parse from.
+     * @param sourceOffset   The offset within the array where the Header begins.
+     * @param offset         The logical offset of the block.
+     * @param physicalOffset The physical offset of the block.
+     * @return A new CompressedBlock.
+     * @throws IllegalArgumentException If the Header is invalid.
+     */
+    static CompressedBlock parseHeader(byte[] source, int sourceOffset, long offset, long physicalOffset) {
+        int length = BitConverter.readInt(source, sourceOffset);
+        int storedLength = BitConverter.readInt(source, sourceOffset + Integer.BYTES);
+        Preconditions.checkArgument(length > 0 && storedLength > 0 && storedLength <= length,
+                "Invalid block header at physical offset %s (Length = %s, StoredLength = %s).", physicalOffset, length, storedLength);
+        return new CompressedBlock(offset, length, physicalOffset, storedLength);
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.compression;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.CollectionHelpers;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+
+/**
+ * SegmentHandle for CompressedStorage. Keeps track of the (in-memory) Block Index of a compressed Segment.
+ */
+@ThreadSafe
+class CompressedSegmentHandle implements SegmentHandle {
+    //region Members
+
+    /**
+     * The name of the Segment for this Handle.
+     */
+    @Getter
+    private final String segmentName;
+    @Getter
+    private final boolean readOnly;
+    /**
+     * A pointer to the Handle for this Segment's data, in the base Storage.
+     */
+    @Getter
+    private final SegmentHandle dataHandle;
+    /**
+     * A pointer to the Handle for this Segment's Block Index, in the base Storage. This is null if the Segment is not
+     * compressed.
+     */
+    @Getter
+    private final SegmentHandle indexHandle;
+    @GuardedBy("this")
+    private final ArrayList<CompressedBlock> blocks;
+    @GuardedBy("this")
+    private int indexedBlockCount;
+    @GuardedBy("this")
+    private boolean sealed;
+    @GuardedBy("this")
+    private boolean deleted;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the CompressedSegmentHandle class for a compressed Segment.
+     *
+     * @param dataHandle  A SegmentHandle for the data Segment.
+     * @param indexHandle A SegmentHandle for the Block Index Segment.
+     * @param blocks      An ordered list of the blocks that are recorded in the Block Index Segment.
+     */
+    CompressedSegmentHandle(SegmentHandle dataHandle, SegmentHandle indexHandle, List<CompressedBlock> blocks) {
+        this.dataHandle = Preconditions.checkNotNull(dataHandle, "dataHandle");
+        this.indexHandle = Preconditions.checkNotNull(indexHandle, "indexHandle");
+        this.segmentName = dataHandle.getSegmentName();
+        this.readOnly = dataHandle.isReadOnly();
+        this.blocks = new ArrayList<>();
+        addBlocks(blocks);
+        this.indexedBlockCount = this.blocks.size();
+    }
+
+    /**
+     * Creates a new instance of the CompressedSegmentHandle class for a Segment that is not compressed (i.e., it was
+     * created before CompressedStorage was applied).
+     *
+     * @param dataHandle A SegmentHandle for the Segment.
+     */
+    CompressedSegmentHandle(SegmentHandle dataHandle) {
+        this.dataHandle = Preconditions.checkNotNull(dataHandle, "dataHandle");
+        this.indexHandle = null;
+        this.segmentName = dataHandle.getSegmentName();
+        this.readOnly = dataHandle.isReadOnly();
+        this.blocks = new ArrayList<>();
+    }
+
+    //endregion
+
+    /**
+     * Updates the contents of this handle with information from the given one.
+     *
+     * @param source The CompressedSegmentHandle to update from.
+     */
+    synchronized void refresh(CompressedSegmentHandle source) {
+        Preconditions.checkArgument(source.getSegmentName().equals(this.segmentName), "SegmentName mismatch.");
+        Preconditions.checkArgument(source.isCompressed() == isCompressed(), "Compression mismatch.");
+        List<CompressedBlock> sourceBlocks = source.blocks();
+        this.blocks.clear();
+        this.blocks.addAll(sourceBlocks);
+        this.indexedBlockCount = Math.min(source.getIndexedBlockCount(), this.blocks.size());
+        if (source.isSealed()) {
+            markSealed();
+        }
+        if (source.isDeleted()) {
+            markDeleted();
+        }
+    }
+
+    //region Properties
+
+    /**
+     * Gets a value indicating whether the Segment is stored in compressed form (it has a Block Index).
+     */
+    boolean isCompressed() {
+        return this.indexHandle != null;
+    }
+
+    /**
+     * Gets an unmodifiable copy of the blocks in this Segment, in order.
+     */
+    synchronized List<CompressedBlock> blocks() {
+        return Collections.unmodifiableList(new ArrayList<>(this.blocks));
+    }
+
+    /**
+     * Locates the block that contains the given logical offset.
+     *
+     * @param blocks The blocks to search, as returned by blocks().
+     * @param offset The offset to search for.
+     * @return The index of the block within the given list, or a negative value if no such block exists.
+     */
+    static int findBlock(List<CompressedBlock> blocks, long offset) {
+        return CollectionHelpers.binarySearch(blocks, b -> offset < b.getOffset() ? -1 : (offset >= b.getLastOffset() ? 1 : 0));
+    }
+
+    /**
+     * Adds the given blocks at the end of this Segment. These will not be considered indexed until markIndexed() is invoked.
+     *
+     * @param newBlocks The blocks to add. These must be in continuity of any existing blocks.
+     */
+    synchronized void addBlocks(List<CompressedBlock> newBlocks) {
+        long expectedOffset = length();
+        long expectedPhysicalOffset = getPhysicalLength();
+        for (CompressedBlock b : newBlocks) {
+            Preconditions.checkArgument(b.getOffset() == expectedOffset && b.getPhysicalOffset() == expectedPhysicalOffset,
+                    "Invalid block offsets. Expected %s/%s, given %s.", expectedOffset, expectedPhysicalOffset, b);
+            expectedOffset = b.getLastOffset();
+            expectedPhysicalOffset = b.getPhysicalLastOffset();
+        }
+
+        this.blocks.addAll(newBlocks);
+    }
+
+    /**
+     * Gets the blocks that have not yet been recorded in the Block Index Segment.
+     */
+    synchronized List<CompressedBlock> getUnindexedBlocks() {
+        return new ArrayList<>(this.blocks.subList(this.indexedBlockCount, this.blocks.size()));
+    }
+
+    /**
+     * Records the fact that the given number of blocks have been recorded in the Block Index Segment.
+     *
+     * @param count The number of blocks, as returned by getUnindexedBlocks().
+     */
+    synchronized void markIndexed(int count) {
+        Preconditions.checkArgument(count >= 0 && this.indexedBlockCount + count <= this.blocks.size(), "Invalid count.");
+        this.indexedBlockCount += count;
+    }
+
+    /**
+     * Gets the number of blocks that have been recorded in the Block Index Segment.
+     */
+    synchronized int getIndexedBlockCount() {
+        return this.indexedBlockCount;
+    }
+
+    /**
+     * Gets a value indicating the length of the Block Index Segment, in bytes.
+     */
+    synchronized long getIndexLength() {
+        return (long) this.indexedBlockCount * CompressedBlock.HEADER_LENGTH;
+    }
+
+    /**
+     * Gets a value indicating the logical length of the Segment (as perceived by users of the Storage), in bytes.
+     */
+    synchronized long length() {
+        return this.blocks.isEmpty() ? 0L : this.blocks.get(this.blocks.size() - 1).getLastOffset();
+    }
+
+    /**
+     * Gets a value indicating the length of the data Segment, in bytes.
+     */
+    synchronized long getPhysicalLength() {
+        return this.blocks.isEmpty() ? 0L : this.blocks.get(this.blocks.size() - 1).getPhysicalLastOffset();
+    }
+
+    /**
+     * Records the fact that the Segment represented by this Handle has been sealed.
+     */
+    synchronized void markSealed() {
+        this.sealed = true;
+    }
+
+    /**
+     * Records the fact that the Segment represented by this Handle has been unsealed.
+     */
+    synchronized void markUnsealed() {
+        this.sealed = false;
+    }
+
+    /**
+     * Gets a value indicating whether the Segment represented by this Handle is sealed.
+     */
+    synchronized boolean isSealed() {
+        return this.sealed;
+    }
+
+    /**
+     * Records the fact that the Segment represented by this Handle has been deleted.
+     */
+    synchronized void markDeleted() {
+        this.deleted = true;
+    }
+
+    /**
+     * Gets a value indicating whether the Segment represented by this Handle is deleted.
+     */
+    synchronized boolean isDeleted() {
+        return this.deleted;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (this.deleted) {
+            return String.format("%s (Deleted)", this.segmentName);
+        } else if (!isCompressed()) {
+            return String.format("%s (%s, %s, Uncompressed)", this.segmentName, this.sealed ? "Sealed" : "Not Sealed",
+                    isReadOnly() ? "R" : "RW");
+        } else {
+            return String.format("%s (%s, %s, Length=%d, PhysicalLength=%d, Blocks=%d)", this.segmentName,
+                    this.sealed ? "Sealed" : "Not Sealed", isReadOnly() ? "R" : "RW", length(), getPhysicalLength(), this.blocks.size());
+        }
+    }
+
+    //endregion
+}
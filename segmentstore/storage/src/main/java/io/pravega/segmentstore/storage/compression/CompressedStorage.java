@@ -0,0 +1,599 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.compression;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.LoggerHelpers;
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.common.io.StreamHelpers;
+import io.pravega.segmentstore.contracts.BadOffsetException;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentException;
+import io.pravega.segmentstore.contracts.StreamSegmentExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentInformation;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.StorageNotPrimaryException;
+import io.pravega.segmentstore.storage.SyncStorage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+/**
+ * A layer on top of a general SyncStorage implementation that stores Segments in compressed form.
+ *
+ * Every Segment that is created using this Storage is made up of a data Segment and a Block Index Segment.
+ * * Every write is split into blocks of at most a fixed (logical) length, which are compressed individually and appended
+ * to the data Segment (see CompressedBlock for the format). Blocks that do not compress well are stored uncompressed.
+ * * The Block Index Segment contains a copy of all the block Headers, which allows locating the blocks that contain any
+ * given logical offset without scanning the data Segment. As such, reads only need to fetch and decompress the blocks
+ * that overlap the requested range, and all offsets exposed by this class are logical (uncompressed) offsets.
+ * * Blocks are self-describing, and the Block Index Segment is always updated after the data Segment. Should the Block
+ * Index Segment not be updated (i.e., due to a failure), the missing entries are recovered by scanning the end of the
+ * data Segment the next time the Segment is opened.
+ * * A Segment is considered to be Sealed if its data Segment is sealed.
+ *
+ * A note about compatibility:
+ * * Segments that do not have a Block Index Segment (i.e., created before this wrapper was applied) are accessed and
+ * modified as-is, without any compression. Concatenating a compressed Segment into an uncompressed one (or vice-versa)
+ * is done by copying the data.
+ * * This class does not support truncation. It is meant to be used underneath RollingStorage, which implements truncation
+ * by deleting whole SegmentChunks (each of which is then compressed and indexed individually).
+ */
+@Slf4j
+public class CompressedStorage implements SyncStorage {
+    //region Members
+
+    /**
+     * The default maximum (logical) length of a block.
+     */
+    public static final int DEFAULT_BLOCK_LENGTH = 128 * 1024;
+    private final SyncStorage baseStorage;
+    private final int blockLength;
+    private final AtomicBoolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the CompressedStorage class with a default block length.
+     *
+     * @param baseStorage A SyncStorage that will be used to execute operations.
+     */
+    public CompressedStorage(SyncStorage baseStorage) {
+        this(baseStorage, DEFAULT_BLOCK_LENGTH);
+    }
+
+    /**
+     * Creates a new instance of the CompressedStorage class.
+     *
+     * @param baseStorage A SyncStorage that will be used to execute operations.
+     * @param blockLength The maximum (logical) length of a compressed block. Smaller values improve the efficiency of
+     *                    small reads, while larger values improve the compression ratio.
+     */
+    public CompressedStorage(SyncStorage baseStorage, int blockLength) {
+        this.baseStorage = Preconditions.checkNotNull(baseStorage, "baseStorage");
+        Preconditions.checkArgument(blockLength > 0, "blockLength must be a positive integer.");
+        this.blockLength = blockLength;
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.baseStorage.close();
+            log.info("Closed");
+        }
+    }
+
+    //endregion
+
+    //region ReadOnlyStorage Implementation
+
+    @Override
+    public void initialize(long containerEpoch) {
+        this.baseStorage.initialize(containerEpoch);
+    }
+
+    @Override
+    public SegmentHandle openRead(String segmentName) throws StreamSegmentException {
+        long traceId = LoggerHelpers.traceEnter(log, "openRead", segmentName);
+        val handle = openHandle(segmentName, true);
+        LoggerHelpers.traceLeave(log, "openRead", traceId, handle);
+        return handle;
+    }
+
+    @Override
+    public int read(SegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length) throws StreamSegmentException {
+        val h = asReadableHandle(handle);
+        ensureNotDeleted(h);
+        Exceptions.checkArrayRange(bufferOffset, length, buffer.length, "bufferOffset", "length");
+        if (!h.isCompressed()) {
+            return this.baseStorage.read(h.getDataHandle(), offset, buffer, bufferOffset, length);
+        }
+
+        long traceId = LoggerHelpers.traceEnter(log, "read", handle, offset, length);
+        if (h.isReadOnly() && !h.isSealed() && offset + length > h.length()) {
+            // We have a non-sealed read-only handle. The Segment may have been modified since the last time we refreshed
+            // it; reload the handle before attempting the read.
+            h.refresh(openHandle(handle.getSegmentName(), true));
+            log.debug("Handle refreshed: {}.", h);
+        }
+
+        Preconditions.checkArgument(offset >= 0 && offset + length <= h.length(),
+                "Offset %s + length %s is beyond the last offset %s of the segment.", offset, length, h.length());
+
+        // Only fetch and decompress those blocks that overlap the requested range.
+        val blocks = h.blocks();
+        int blockIndex = CompressedSegmentHandle.findBlock(blocks, offset);
+        int bytesRead = 0;
+        while (bytesRead < length) {
+            assert blockIndex >= 0 && blockIndex < blocks.size() : "unable to locate block for offset " + (offset + bytesRead);
+            CompressedBlock block = blocks.get(blockIndex);
+            byte[] blockContents = readBlock(h, block);
+            int blockOffset = (int) (offset + bytesRead - block.getOffset());
+            int count = Math.min(length - bytesRead, block.getLength() - blockOffset);
+            System.arraycopy(blockContents, blockOffset, buffer, bufferOffset + bytesRead, count);
+            bytesRead += count;
+            blockIndex++;
+        }
+
+        LoggerHelpers.traceLeave(log, "read", traceId, handle, offset, bytesRead);
+        return bytesRead;
+    }
+
+    @Override
+    public SegmentProperties getStreamSegmentInfo(String segmentName) throws StreamSegmentException {
+        val handle = openHandle(segmentName, true);
+        if (!handle.isCompressed()) {
+            return this.baseStorage.getStreamSegmentInfo(segmentName);
+        }
+
+        return StreamSegmentInformation
+                .builder()
+                .name(handle.getSegmentName())
+                .sealed(handle.isSealed())
+                .length(handle.length())
+                .build();
+    }
+
+    @Override
+    public boolean exists(String segmentName) {
+        return this.baseStorage.exists(segmentName);
+    }
+
+    //endregion
+
+    //region SyncStorage Implementation
+
+    @Override
+    public SegmentProperties create(String segmentName) throws StreamSegmentException {
+        long traceId = LoggerHelpers.traceEnter(log, "create", segmentName);
+        if (this.baseStorage.exists(segmentName)) {
+            throw new StreamSegmentExistsException(segmentName);
+        }
+
+        // Create the Block Index first. The Segment only exists once its data Segment is created, so a Block Index without
+        // a data Segment is a remnant of a previously failed attempt (or of a deletion); in that case we replace it.
+        String indexName = StreamSegmentNameUtils.getBlockIndexSegmentName(segmentName);
+        try {
+            this.baseStorage.create(indexName);
+        } catch (StreamSegmentExistsException ex) {
+            log.debug("Stale Block Index found for '{}'; replacing.", segmentName);
+            this.baseStorage.delete(this.baseStorage.openWrite(indexName));
+            this.baseStorage.create(indexName);
+        }
+
+        this.baseStorage.create(segmentName);
+        LoggerHelpers.traceLeave(log, "create", traceId, segmentName);
+        return StreamSegmentInformation.builder().name(segmentName).build();
+    }
+
+    @Override
+    public SegmentHandle openWrite(String segmentName) throws StreamSegmentException {
+        long traceId = LoggerHelpers.traceEnter(log, "openWrite", segmentName);
+        val handle = openHandle(segmentName, false);
+        LoggerHelpers.traceLeave(log, "openWrite", traceId, handle);
+        return handle;
+    }
+
+    @Override
+    public void write(SegmentHandle handle, long offset, InputStream data, int length) throws StreamSegmentException {
+        val h = asWritableHandle(handle);
+        ensureNotDeleted(h);
+        ensureNotSealed(h);
+        if (!h.isCompressed()) {
+            this.baseStorage.write(h.getDataHandle(), offset, data, length);
+            return;
+        }
+
+        ensureOffset(h, offset);
+        long traceId = LoggerHelpers.traceEnter(log, "write", handle, offset, length);
+
+        // Split the write into blocks and compress each of them; then write them all using a single call to the base
+        // Storage, after which we update the Block Index.
+        val blocks = new ArrayList<CompressedBlock>();
+        val contents = new EnhancedByteArrayOutputStream();
+        compress(data, length, h.length(), h.getPhysicalLength(), blocks, contents);
+        val contentsData = contents.getData();
+        try {
+            this.baseStorage.write(h.getDataHandle(), h.getPhysicalLength(), contentsData.getReader(), contentsData.getLength());
+        } catch (BadOffsetException ex) {
+            // The logical offset matched, but the physical one did not: the Segment has been modified externally.
+            throw new StorageNotPrimaryException(h.getSegmentName(), ex);
+        }
+
+        h.addBlocks(blocks);
+        updateIndex(h);
+        LoggerHelpers.traceLeave(log, "write", traceId, handle, offset, length);
+    }
+
+    @Override
+    public void seal(SegmentHandle handle) throws StreamSegmentException {
+        val h = asWritableHandle(handle);
+        ensureNotDeleted(h);
+        long traceId = LoggerHelpers.traceEnter(log, "seal", handle);
+        if (h.isCompressed()) {
+            // Make sure the Block Index is complete before sealing anything. The data Segment determines whether the
+            // Segment is sealed, so seal that first.
+            updateIndex(h);
+            this.baseStorage.seal(h.getDataHandle());
+            this.baseStorage.seal(h.getIndexHandle());
+        } else {
+            this.baseStorage.seal(h.getDataHandle());
+        }
+
+        h.markSealed();
+        LoggerHelpers.traceLeave(log, "seal", traceId, handle);
+    }
+
+    @Override
+    public void unseal(SegmentHandle handle) throws StreamSegmentException {
+        val h = asWritableHandle(handle);
+        ensureNotDeleted(h);
+        if (h.isCompressed()) {
+            this.baseStorage.unseal(h.getIndexHandle());
+        }
+
+        this.baseStorage.unseal(h.getDataHandle());
+        h.markUnsealed();
+    }
+
+    @Override
+    public void concat(SegmentHandle targetHandle, long offset, String sourceSegment) throws StreamSegmentException {
+        val target = asWritableHandle(targetHandle);
+        ensureNotDeleted(target);
+        ensureNotSealed(target);
+        long traceId = LoggerHelpers.traceEnter(log, "concat", target, offset, sourceSegment);
+
+        val source = openHandle(sourceSegment, true);
+        Preconditions.checkState(source.isSealed(), "Cannot concat segment '%s' into '%s' because it is not sealed.",
+                sourceSegment, target.getSegmentName());
+        if (target.isCompressed() && source.isCompressed()) {
+            // Both Segments are made of blocks: concatenate the data Segments and append the Source's block Headers to
+            // the Target's Block Index.
+            ensureOffset(target, offset);
+            updateIndex(target);
+            this.baseStorage.concat(target.getDataHandle(), target.getPhysicalLength(), sourceSegment);
+            target.addBlocks(rebase(source.blocks(), target.length(), target.getPhysicalLength()));
+            updateIndex(target);
+            deleteIndex(sourceSegment);
+        } else if (!target.isCompressed() && !source.isCompressed()) {
+            this.baseStorage.concat(target.getDataHandle(), offset, sourceSegment);
+        } else {
+            // One is compressed and the other is not. There is no way to concatenate these natively.
+            log.debug("Concat '{}' into '{}' by copying.", source, target);
+            concatByCopy(target, offset, source);
+        }
+
+        LoggerHelpers.traceLeave(log, "concat", traceId, target, offset, sourceSegment);
+    }
+
+    @Override
+    public void delete(SegmentHandle handle) throws StreamSegmentException {
+        val h = asReadableHandle(handle);
+        long traceId = LoggerHelpers.traceEnter(log, "delete", handle);
+        try {
+            this.baseStorage.delete(h.isReadOnly() ? this.baseStorage.openWrite(h.getSegmentName()) : h.getDataHandle());
+            h.markDeleted();
+        } catch (StreamSegmentNotExistsException ex) {
+            h.markDeleted();
+            throw ex;
+        }
+
+        // The Block Index does not mean anything without the data Segment, so we delete it last.
+        if (h.isCompressed()) {
+            deleteIndex(h.getSegmentName());
+        }
+
+        LoggerHelpers.traceLeave(log, "delete", traceId, handle);
+    }
+
+    @Override
+    public void truncate(SegmentHandle handle, long offset) {
+        throw new UnsupportedOperationException("CompressedStorage does not support truncate().");
+    }
+
+    @Override
+    public boolean supportsTruncation() {
+        return false;
+    }
+
+    //endregion
+
+    //region Block Operations
+
+    @SneakyThrows(IOException.class)
+    private void compress(InputStream data, int length, long offset, long physicalOffset, List<CompressedBlock> blocks,
+                          EnhancedByteArrayOutputStream target) {
+        byte[] input = new byte[Math.min(length, this.blockLength)];
+        byte[] output = new byte[CompressedBlock.HEADER_LENGTH + input.length];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            int bytesCompressed = 0;
+            while (bytesCompressed < length) {
+                int blockLength = Math.min(length - bytesCompressed, input.length);
+                int count = StreamHelpers.readAll(data, input, 0, blockLength);
+                if (count != blockLength) {
+                    throw new IOException(String.format("Reached the end of the InputStream after %d bytes; expected %d.",
+                            bytesCompressed + count, length));
+                }
+
+                // Compress the block. If it does not shrink, store it as-is.
+                deflater.reset();
+                deflater.setInput(input, 0, blockLength);
+                deflater.finish();
+                int storedLength = 0;
+                while (!deflater.finished() && storedLength < blockLength) {
+                    storedLength += deflater.deflate(output, CompressedBlock.HEADER_LENGTH + storedLength, blockLength - storedLength);
+                }
+
+                if (!deflater.finished() || storedLength >= blockLength) {
+                    storedLength = blockLength;
+                    System.arraycopy(input, 0, output, CompressedBlock.HEADER_LENGTH, blockLength);
+                }
+
+                CompressedBlock block = new CompressedBlock(offset, blockLength, physicalOffset, storedLength);
+                block.writeHeader(output, 0);
+                target.write(output, 0, CompressedBlock.HEADER_LENGTH + storedLength);
+                blocks.add(block);
+                offset = block.getLastOffset();
+                physicalOffset = block.getPhysicalLastOffset();
+                bytesCompressed += blockLength;
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] readBlock(CompressedSegmentHandle handle, CompressedBlock block) throws StreamSegmentException {
+        byte[] stored = new byte[block.getStoredLength()];
+        readFully(handle.getDataHandle(), block.getPhysicalOffset() + CompressedBlock.HEADER_LENGTH, stored);
+        if (!block.isCompressed()) {
+            return stored;
+        }
+
+        byte[] result = new byte[block.getLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            int length = 0;
+            while (!inflater.finished() && length < result.length) {
+                int count = inflater.inflate(result, length, result.length - length);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                length += count;
+            }
+
+            Preconditions.checkState(inflater.finished() && length == result.length,
+                    "Block %s of '%s' is corrupt. Expected %s bytes after decompression, found %s.",
+                    block, handle.getSegmentName(), result.length, length);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException(String.format("Block %s of '%s' is corrupt.", block, handle.getSegmentName()), ex);
+        } finally {
+            inflater.end();
+        }
+
+        return result;
+    }
+
+    private void concatByCopy(CompressedSegmentHandle target, long offset, CompressedSegmentHandle source) throws StreamSegmentException {
+        val sourceInfo = getStreamSegmentInfo(source.getSegmentName());
+        byte[] buffer = new byte[(int) Math.min(sourceInfo.getLength(), this.blockLength)];
+        long bytesCopied = 0;
+        while (bytesCopied < sourceInfo.getLength()) {
+            int length = (int) Math.min(sourceInfo.getLength() - bytesCopied, buffer.length);
+            length = read(source, bytesCopied, buffer, 0, length);
+            Preconditions.checkState(length > 0, "Unable to read from '%s' at offset %s.", source.getSegmentName(), bytesCopied);
+            write(target, offset + bytesCopied, new ByteArrayInputStream(buffer, 0, length), length);
+            bytesCopied += length;
+        }
+
+        delete(source);
+    }
+
+    private List<CompressedBlock> rebase(List<CompressedBlock> blocks, long offset, long physicalOffset) {
+        val result = new ArrayList<CompressedBlock>(blocks.size());
+        for (CompressedBlock b : blocks) {
+            CompressedBlock rebased = b.withOffsets(offset, physicalOffset);
+            result.add(rebased);
+            offset = rebased.getLastOffset();
+            physicalOffset = rebased.getPhysicalLastOffset();
+        }
+
+        return result;
+    }
+
+    //endregion
+
+    //region Block Index Operations
+
+    private CompressedSegmentHandle openHandle(String segmentName, boolean readOnly) throws StreamSegmentException {
+        val dataHandle = readOnly ? this.baseStorage.openRead(segmentName) : this.baseStorage.openWrite(segmentName);
+        val dataInfo = this.baseStorage.getStreamSegmentInfo(segmentName);
+        String indexName = StreamSegmentNameUtils.getBlockIndexSegmentName(segmentName);
+        SegmentProperties indexInfo;
+        SegmentHandle indexHandle;
+        try {
+            indexInfo = this.baseStorage.getStreamSegmentInfo(indexName);
+            indexHandle = readOnly ? this.baseStorage.openRead(indexName) : this.baseStorage.openWrite(indexName);
+        } catch (StreamSegmentNotExistsException ex) {
+            // No Block Index: this Segment is not compressed.
+            val handle = new CompressedSegmentHandle(dataHandle);
+            if (dataInfo.isSealed()) {
+                handle.markSealed();
+            }
+
+            return handle;
+        }
+
+        byte[] indexData = new byte[(int) indexInfo.getLength()];
+        readFully(indexHandle, 0, indexData);
+        val handle = new CompressedSegmentHandle(dataHandle, indexHandle,
+                CompressedBlock.parseHeaders(indexData, 0, indexData.length, 0, 0));
+        Preconditions.checkState(handle.getPhysicalLength() <= dataInfo.getLength(),
+                "Block Index for '%s' points beyond the end of its data Segment (%s).", segmentName, dataInfo.getLength());
+        if (handle.getPhysicalLength() < dataInfo.getLength()) {
+            // The Block Index was not updated after the last write(s) or concat(s) (most likely due to a failure). Recover
+            // the missing entries from the data Segment itself.
+            handle.addBlocks(scanBlocks(handle, dataInfo.getLength()));
+            log.info("Recovered {} Block Index entries for '{}'.", handle.getUnindexedBlocks().size(), segmentName);
+            if (!readOnly && !dataInfo.isSealed()) {
+                updateIndex(handle);
+            }
+        }
+
+        if (dataInfo.isSealed()) {
+            handle.markSealed();
+        }
+
+        return handle;
+    }
+
+    private List<CompressedBlock> scanBlocks(CompressedSegmentHandle handle, long physicalLength) throws StreamSegmentException {
+        val result = new ArrayList<CompressedBlock>();
+        byte[] header = new byte[CompressedBlock.HEADER_LENGTH];
+        long offset = handle.length();
+        long physicalOffset = handle.getPhysicalLength();
+        while (physicalOffset < physicalLength) {
+            readFully(handle.getDataHandle(), physicalOffset, header);
+            CompressedBlock b = CompressedBlock.parseHeader(header, 0, offset, physicalOffset);
+            Preconditions.checkState(b.getPhysicalLastOffset() <= physicalLength,
+                    "Incomplete block %s at the end of '%s' (length %s).", b, handle.getSegmentName(), physicalLength);
+            result.add(b);
+            offset = b.getLastOffset();
+            physicalOffset = b.getPhysicalLastOffset();
+        }
+
+        return result;
+    }
+
+    private void updateIndex(CompressedSegmentHandle handle) throws StreamSegmentException {
+        val blocks = handle.getUnindexedBlocks();
+        if (blocks.isEmpty()) {
+            return;
+        }
+
+        byte[] data = new byte[blocks.size() * CompressedBlock.HEADER_LENGTH];
+        int offset = 0;
+        for (CompressedBlock b : blocks) {
+            offset += b.writeHeader(data, offset);
+        }
+
+        try {
+            this.baseStorage.write(handle.getIndexHandle(), handle.getIndexLength(), new ByteArrayInputStream(data), data.length);
+            handle.markIndexed(blocks.size());
+            log.debug("Block Index for '{}' updated with {} entries.", handle.getSegmentName(), blocks.size());
+        } catch (BadOffsetException ex) {
+            // If we get BadOffsetException when writing the Block Index, it means it was modified externally.
+            throw new StorageNotPrimaryException(handle.getSegmentName(), ex);
+        }
+    }
+
+    private void deleteIndex(String segmentName) throws StreamSegmentException {
+        String indexName = StreamSegmentNameUtils.getBlockIndexSegmentName(segmentName);
+        try {
+            this.baseStorage.delete(this.baseStorage.openWrite(indexName));
+        } catch (StreamSegmentNotExistsException ex) {
+            // It's OK if it's not there anymore.
+            log.debug("Block Index '{}' does not exist anymore.", indexName);
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void readFully(SegmentHandle handle, long offset, byte[] target) throws StreamSegmentException {
+        int bytesRead = 0;
+        while (bytesRead < target.length) {
+            int count = this.baseStorage.read(handle, offset + bytesRead, target, bytesRead, target.length - bytesRead);
+            Preconditions.checkState(count > 0, "Unable to read %s bytes at offset %s from '%s'.", target.length, offset,
+                    handle.getSegmentName());
+            bytesRead += count;
+        }
+    }
+
+    private CompressedSegmentHandle asWritableHandle(SegmentHandle handle) {
+        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be read-only.");
+        return asReadableHandle(handle);
+    }
+
+    private CompressedSegmentHandle asReadableHandle(SegmentHandle handle) {
+        Preconditions.checkArgument(handle instanceof CompressedSegmentHandle, "handle must be of type CompressedSegmentHandle.");
+        return (CompressedSegmentHandle) handle;
+    }
+
+    private void ensureNotDeleted(CompressedSegmentHandle handle) throws StreamSegmentNotExistsException {
+        if (handle.isDeleted()) {
+            throw new StreamSegmentNotExistsException(handle.getSegmentName());
+        }
+    }
+
+    private void ensureNotSealed(CompressedSegmentHandle handle) throws StreamSegmentSealedException {
+        if (handle.isSealed()) {
+            throw new StreamSegmentSealedException(handle.getSegmentName());
+        }
+    }
+
+    private void ensureOffset(CompressedSegmentHandle handle, long offset) throws StreamSegmentException {
+        if (offset != handle.length()) {
+            // Force-refresh the handle to make sure it is still in sync with reality. Make sure we open a read handle
+            // so that we don't force any sort of fencing during this process.
+            handle.refresh(openHandle(handle.getSegmentName(), true));
+            log.debug("Handle refreshed: {}.", handle);
+            if (offset != handle.length()) {
+                // Still in disagreement; throw exception.
+                throw new BadOffsetException(handle.getSegmentName(), handle.length(), offset);
+            }
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.compression;
+
+import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.storage.AsyncStorageWrapper;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.SyncStorage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorage;
+import io.pravega.segmentstore.storage.rolling.RollingStorage;
+import io.pravega.segmentstore.storage.rolling.RollingStorageTestBase;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the CompressedStorage class.
+ */
+public class CompressedStorageTests extends RollingStorageTestBase {
+    private static final int BLOCK_LENGTH = 100;
+    private static final String SEGMENT_NAME = "CompressedSegment";
+    private static final int WRITE_COUNT = 20;
+    private static final int MAX_WRITE_LENGTH = BLOCK_LENGTH * 3;
+
+    /**
+     * Tests the ability to write data in compressed form and read it back, at arbitrary offsets.
+     */
+    @Test
+    public void testWriteRead() throws Exception {
+        @Cleanup
+        val baseStorage = new InMemoryStorage();
+        @Cleanup
+        val s = new CompressedStorage(baseStorage, BLOCK_LENGTH);
+        s.initialize(1);
+        s.create(SEGMENT_NAME);
+        Assert.assertTrue("Expected a Block Index to be created.",
+                baseStorage.exists(StreamSegmentNameUtils.getBlockIndexSegmentName(SEGMENT_NAME)));
+        val writeHandle = s.openWrite(SEGMENT_NAME);
+        val readHandle = s.openRead(SEGMENT_NAME); // Open now, before writing, so we force a refresh.
+        byte[] writtenData = populate(s, writeHandle, true);
+
+        Assert.assertEquals("Unexpected logical length.", writtenData.length, s.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        AssertExtensions.assertLessThan("Expected data to be compressed.", writtenData.length,
+                baseStorage.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        checkWrittenData(writtenData, readHandle, s);
+        checkWrittenData(writtenData, s.openRead(SEGMENT_NAME), s);
+
+        // Incompressible data should be stored as-is (plus block headers).
+        s.create(SEGMENT_NAME + "_random");
+        byte[] randomData = populate(s, s.openWrite(SEGMENT_NAME + "_random"), false);
+        AssertExtensions.assertGreaterThan("Not expecting incompressible data to be compressed.", randomData.length,
+                baseStorage.getStreamSegmentInfo(SEGMENT_NAME + "_random").getLength());
+        checkWrittenData(randomData, s.openRead(SEGMENT_NAME + "_random"), s);
+
+        // Seal and verify we can't write anymore.
+        s.seal(writeHandle);
+        Assert.assertTrue("Expected Segment to be sealed.", s.getStreamSegmentInfo(SEGMENT_NAME).isSealed());
+        AssertExtensions.assertThrows(
+                "write() worked on a sealed Segment.",
+                () -> s.write(writeHandle, writtenData.length, new ByteArrayInputStream(new byte[1]), 1),
+                ex -> ex instanceof StreamSegmentSealedException);
+        checkWrittenData(writtenData, s.openRead(SEGMENT_NAME), s);
+
+        // Delete and verify both the data and the Block Index are gone.
+        s.delete(s.openWrite(SEGMENT_NAME));
+        Assert.assertFalse("Segment still exists after deletion.", s.exists(SEGMENT_NAME));
+        Assert.assertFalse("Block Index still exists after deletion.",
+                baseStorage.exists(StreamSegmentNameUtils.getBlockIndexSegmentName(SEGMENT_NAME)));
+    }
+
+    /**
+     * Tests the ability to recover Block Index entries that were not persisted (i.e., due to a failure after writing the
+     * data, but before updating the Block Index).
+     */
+    @Test
+    public void testBlockIndexRecovery() throws Exception {
+        @Cleanup
+        val baseStorage = new InMemoryStorage();
+        @Cleanup
+        val s = new CompressedStorage(baseStorage, BLOCK_LENGTH);
+        s.initialize(1);
+        s.create(SEGMENT_NAME);
+        byte[] writtenData = populate(s, s.openWrite(SEGMENT_NAME), true);
+
+        // Wipe the Block Index.
+        String indexName = StreamSegmentNameUtils.getBlockIndexSegmentName(SEGMENT_NAME);
+        long indexLength = baseStorage.getStreamSegmentInfo(indexName).getLength();
+        baseStorage.delete(baseStorage.openWrite(indexName));
+        baseStorage.create(indexName);
+
+        // Read-only handles should recover the Block Index in memory.
+        checkWrittenData(writtenData, s.openRead(SEGMENT_NAME), s);
+        Assert.assertEquals("Not expecting the Block Index to be updated by a read-only handle.",
+                0, baseStorage.getStreamSegmentInfo(indexName).getLength());
+
+        // Writable handles should also persist it.
+        val writeHandle = s.openWrite(SEGMENT_NAME);
+        Assert.assertEquals("Expected the Block Index to be recovered.", indexLength, baseStorage.getStreamSegmentInfo(indexName).getLength());
+        byte[] moreData = new byte[BLOCK_LENGTH];
+        s.write(writeHandle, writtenData.length, new ByteArrayInputStream(moreData), moreData.length);
+        val expectedData = new ByteArrayOutputStream();
+        expectedData.write(writtenData);
+        expectedData.write(moreData);
+        checkWrittenData(expectedData.toByteArray(), s.openRead(SEGMENT_NAME), s);
+    }
+
+    /**
+     * Tests the ability to access Segments that were created before CompressedStorage was applied, as well as concatenating
+     * compressed and uncompressed Segments.
+     */
+    @Test
+    public void testUncompressedSegments() throws Exception {
+        @Cleanup
+        val baseStorage = new InMemoryStorage();
+        @Cleanup
+        val s = new CompressedStorage(baseStorage, BLOCK_LENGTH);
+        s.initialize(1);
+
+        // Create an uncompressed Segment and write to it via CompressedStorage.
+        baseStorage.create(SEGMENT_NAME);
+        val writeHandle = s.openWrite(SEGMENT_NAME);
+        byte[] writtenData = populate(s, writeHandle, true);
+        Assert.assertEquals("Not expecting an uncompressed Segment to be compressed.", writtenData.length,
+                baseStorage.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        checkWrittenData(writtenData, s.openRead(SEGMENT_NAME), s);
+
+        // Concat a compressed Segment into it.
+        val expectedData = new ByteArrayOutputStream();
+        expectedData.write(writtenData);
+        String sourceName = SEGMENT_NAME + "_source";
+        s.create(sourceName);
+        val sourceHandle = s.openWrite(sourceName);
+        expectedData.write(populate(s, sourceHandle, true));
+        s.seal(sourceHandle);
+        s.concat(writeHandle, writtenData.length, sourceName);
+        Assert.assertFalse("Source Segment still exists after concat.", s.exists(sourceName));
+        Assert.assertFalse("Source Block Index still exists after concat.",
+                baseStorage.exists(StreamSegmentNameUtils.getBlockIndexSegmentName(sourceName)));
+        checkWrittenData(expectedData.toByteArray(), s.openRead(SEGMENT_NAME), s);
+    }
+
+    //region StorageTestBase Implementation
+
+    @Override
+    protected Storage createStorage() {
+        return wrap(new InMemoryStorage());
+    }
+
+    @Override
+    protected Storage wrap(SyncStorage storage) {
+        val compressedStorage = new CompressedStorage(storage, BLOCK_LENGTH);
+        return new AsyncStorageWrapper(new RollingStorage(compressedStorage, new SegmentRollingPolicy(DEFAULT_ROLLING_SIZE)), executorService());
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private byte[] populate(CompressedStorage s, SegmentHandle writeHandle, boolean compressible) throws Exception {
+        final Random rnd = new Random(0);
+        val writeStream = new ByteArrayOutputStream();
+        int offset = (int) s.getStreamSegmentInfo(writeHandle.getSegmentName()).getLength();
+        for (int i = 0; i < WRITE_COUNT; i++) {
+            byte[] appendData = new byte[rnd.nextInt(MAX_WRITE_LENGTH) + 1];
+            rnd.nextBytes(appendData);
+            if (compressible) {
+                for (int j = 0; j < appendData.length; j++) {
+                    appendData[j] = (byte) (appendData[j] & 3);
+                }
+            }
+
+            s.write(writeHandle, offset, new ByteArrayInputStream(appendData), appendData.length);
+            offset += appendData.length;
+            writeStream.write(appendData);
+        }
+
+        return writeStream.toByteArray();
+    }
+
+    private void checkWrittenData(byte[] writtenData, SegmentHandle readHandle, CompressedStorage s) throws Exception {
+        // Read everything at once.
+        byte[] readBuffer = new byte[writtenData.length];
+        int bytesRead = s.read(readHandle, 0, readBuffer, 0, readBuffer.length);
+        Assert.assertEquals("Unexpected number of bytes read.", writtenData.length, bytesRead);
+        Assert.assertArrayEquals("Unexpected data read back.", writtenData, readBuffer);
+
+        // Read at various offsets, with lengths that may or may not be aligned to block boundaries.
+        for (int offset = 0; offset < writtenData.length; offset += BLOCK_LENGTH / 3) {
+            int length = Math.min(writtenData.length - offset, BLOCK_LENGTH + 7);
+            readBuffer = new byte[length];
+            bytesRead = s.read(readHandle, offset, readBuffer, 0, length);
+            Assert.assertEquals("Unexpected number of bytes read at offset " + offset, length, bytesRead);
+            for (int i = 0; i < length; i++) {
+                Assert.assertEquals("Unexpected data read at offset " + (offset + i), writtenData[offset + i], readBuffer[i]);
+            }
+        }
+    }
+
+    //endregion
+}
@@ -18,6 +18,13 @@ public final class MetricsNames {
     public static final String SEGMENT_READ_BYTES = "segmentstore.segment_read_bytes";            // Dynamic Counter
     public static final String SEGMENT_WRITE_BYTES = "segmentstore.segment_write_bytes";          // Dynamic Counter
     public static final String SEGMENT_WRITE_EVENTS = "segmentstore.segment_write_events";        // Dynamic Counter
+    public static final String SEGMENT_HOT_WRITE_RATE = "segmentstore.segment_hot_write_bytes_per_sec"; // Dynamic Gauge
+    public static final String SEGMENT_HOT_READ_RATE = "segmentstore.segment_hot_read_bytes_per_sec";   // Dynamic Gauge
+
+    // Connection-related stats (aggregated across all connections)
+    public static final String CONNECTION_READ_PAUSED_LATENCY = "connection_read_paused_ms";    // Timer
+    public static final String CONNECTION_OUTSTANDING_BYTES = "connection_outstanding_bytes";  // Histogram
+    public static final String APPEND_THROTTLE_HINT = "append_throttle_hint_ms";                // Histogram
 
     //storage stats
     public static final String STORAGE_READ_LATENCY = "tier2_read_latency_ms";   // Timer
@@ -22,18 +22,34 @@ public class Append implements Request, Comparable<Append> {
     final int eventCount;
     final ByteBuf data;
     final Long expectedLength;
+    /**
+     * True if data has been compressed by the writer, in which case it is sent as a CompressedEvent rather than an
+     * Event. This is only meaningful on the writer: it is not sent over the wire as a part of the append itself.
+     * Conditional appends are never compressed.
+     */
+    final boolean compressed;
 
     public Append(String segment, UUID writerId, long eventNumber, ByteBuf data, Long expectedLength) {
-        this(segment, writerId, eventNumber, 1, data, expectedLength);
+        this(segment, writerId, eventNumber, 1, data, expectedLength, false);
+    }
+
+    public Append(String segment, UUID writerId, long eventNumber, ByteBuf data, boolean compressed) {
+        this(segment, writerId, eventNumber, 1, data, null, compressed);
     }
 
     public Append(String segment, UUID writerId, long eventNumber, int eventCount, ByteBuf data, Long expectedLength) {
+        this(segment, writerId, eventNumber, eventCount, data, expectedLength, false);
+    }
+
+    private Append(String segment, UUID writerId, long eventNumber, int eventCount, ByteBuf data, Long expectedLength,
+                   boolean compressed) {
         this.segment = segment;
         this.writerId = writerId;
         this.eventNumber = eventNumber;
         this.eventCount = eventCount;
         this.data = data;
         this.expectedLength = expectedLength;
+        this.compressed = compressed;
     }
     
     public int getDataLength() {
@@ -40,4 +40,14 @@ public interface AppendBatchSizeTracker {
      */
     int getBatchTimeout();
 
+    /**
+     * Records that an append block has been closed and sent.
+     *
+     * @param blockSize the number of bytes of event data the block contained
+     * @param waitNanos the time between the block being opened and it being closed
+     * @param timedOut  true if the block was closed before it was full because its batch timeout elapsed
+     */
+    default void recordAppendBlock(int blockSize, long waitNanos, boolean timedOut) {
+    }
+
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.pravega.shared.protocol.netty.WireCommands.AppendBlock;
 import io.pravega.shared.protocol.netty.WireCommands.AppendBlockEnd;
+import io.pravega.shared.protocol.netty.WireCommands.CompressedEvent;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalAppend;
 import io.pravega.shared.protocol.netty.WireCommands.Event;
 import io.pravega.shared.protocol.netty.WireCommands.Flush;
@@ -57,7 +58,8 @@ import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
  * have to be parsed individually. Events inside the block are encoded normally (with their Type and
  * Length). If an event does not fully fit inside of a block it can be wrapped in a PartialEvent
  * command. In this case the fist part of the Event is written as the value of the PartialEvent and
- * the remainder goes in the AppendBlockEnd.
+ * the remainder goes in the AppendBlockEnd. Events whose data was compressed by the writer are encoded as
+ * CompressedEvents instead of Events, which the server stores like any other event.
  *
  * The AppendBlockEnd contains metadata about the block that was just appended so that it does not
  * need to be parsed out of individual messages. Notably this includes the event number of the last
@@ -75,6 +77,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
     private String segmentBeingAppendedTo;
     private int currentBlockSize;
     private int bytesLeftInBlock;
+    private long blockStartNanos;
 
     @Data
     private static final class Session {
@@ -112,6 +115,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 if (bytesLeftInBlock == 0) {
                     currentBlockSize = Math.max(TYPE_PLUS_LENGTH_SIZE, blockSizeSupplier.getAppendBlockSize());
                     bytesLeftInBlock = currentBlockSize;
+                    blockStartNanos = System.nanoTime();
                     segmentBeingAppendedTo = append.segment;
                     writeMessage(new AppendBlock(session.id), out);
                     if (ctx != null) {
@@ -124,13 +128,15 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 session.lastEventNumber = append.getEventNumber();
                 session.eventCount++;
                 ByteBuf data = append.getData();
+                WireCommand event = append.isCompressed() ? new CompressedEvent(data) : new Event(data);
                 int msgSize = TYPE_PLUS_LENGTH_SIZE + data.readableBytes();
                 // Is there enough space for a subsequent message after this one?
                 if (bytesLeftInBlock - msgSize > TYPE_PLUS_LENGTH_SIZE) {
-                    bytesLeftInBlock -= serializeEvent(new Event(data), new ByteBufOutputStream(out));
+                    serializeEvent(event, new ByteBufOutputStream(out));
+                    bytesLeftInBlock -= msgSize;
                 } else {
                     ByteArrayOutputStream bout = new ByteArrayOutputStream();
-                    serializeEvent(new Event(data), bout);
+                    serializeEvent(event, bout);
                     byte[] serializedMessage = bout.toByteArray(); 
                     int bytesInBlock = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
                     ByteBuf dataInsideBlock = wrappedBuffer(serializedMessage, 0, bytesInBlock);
@@ -144,6 +150,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                                                     session.eventCount,
                                                     session.lastEventNumber,
                                                     0L), out);
+                    blockSizeSupplier.recordAppendBlock(currentBlockSize, System.nanoTime() - blockStartNanos, false);
                     bytesLeftInBlock = 0;
                     session.eventCount = 0;
                 }
@@ -156,7 +163,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         } else if (msg instanceof Flush) {
             Flush flush = (Flush) msg;
             if (currentBlockSize == flush.getBlockSize()) {
-                breakFromAppend(out);
+                breakFromAppend(out, true);
             }
         } else if (msg instanceof WireCommand) {
             breakFromAppend(out);
@@ -167,6 +174,10 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
     }
 
     private void breakFromAppend(ByteBuf out) {
+        breakFromAppend(out, false);
+    }
+
+    private void breakFromAppend(ByteBuf out, boolean timedOut) {
         if (bytesLeftInBlock != 0) {
             writeMessage(new Padding(bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE), out);
             Session session = setupSegments.get(segmentBeingAppendedTo);
@@ -175,6 +186,8 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                     null,
                     session.eventCount,
                     session.lastEventNumber, 0L), out);
+            blockSizeSupplier.recordAppendBlock(currentBlockSize - bytesLeftInBlock, System.nanoTime() - blockStartNanos,
+                                                timedOut);
             bytesLeftInBlock = 0;
             currentBlockSize = 0;
             session.eventCount = 0;
@@ -183,12 +196,10 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
     }
 
     @SneakyThrows(IOException.class)
-    private int serializeEvent(Event event, OutputStream out) {
-        int result = event.getData().readableBytes() + TYPE_PLUS_LENGTH_SIZE;
+    private void serializeEvent(WireCommand event, OutputStream out) {
         DataOutputStream dout = new DataOutputStream(out);
         event.writeFields(dout);
         dout.flush();
-        return result;
     }
 
     @SneakyThrows(IOException.class)
@@ -74,6 +74,11 @@ public abstract class DelegatingReplyProcessor implements ReplyProcessor {
         getNextReplyProcessor().segmentAttribute(segmentAttribute);
     }
 
+    @Override
+    public void segmentAttributes(WireCommands.SegmentAttributes segmentAttributes) {
+        getNextReplyProcessor().segmentAttributes(segmentAttributes);
+    }
+
     @Override
     public void streamSegmentInfo(WireCommands.StreamSegmentInfo streamInfo) {
         getNextReplyProcessor().streamSegmentInfo(streamInfo);
@@ -104,6 +109,11 @@ public abstract class DelegatingReplyProcessor implements ReplyProcessor {
         getNextReplyProcessor().segmentPolicyUpdated(segment);
     }
 
+    @Override
+    public void segmentsBatchProcessed(WireCommands.SegmentsBatchProcessed segmentsBatchProcessed) {
+        getNextReplyProcessor().segmentsBatchProcessed(segmentsBatchProcessed);
+    }
+
     @Override
     public void keepAlive(WireCommands.KeepAlive keepAlive) {
         getNextReplyProcessor().keepAlive(keepAlive);
@@ -11,16 +11,21 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.MergeSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
+import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttributes;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
+import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentsPolicy;
 
 /**
  * A RequestProcessor that hands off all implementation to another RequestProcessor.
@@ -54,6 +59,11 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
     public void getSegmentAttribute(GetSegmentAttribute getSegmentAttribute) {
         getNextRequestProcessor().getSegmentAttribute(getSegmentAttribute);
     }
+
+    @Override
+    public void getSegmentAttributes(GetSegmentAttributes getSegmentAttributes) {
+        getNextRequestProcessor().getSegmentAttributes(getSegmentAttributes);
+    }
     
     @Override
     public void getStreamSegmentInfo(GetStreamSegmentInfo getStreamInfo) {
@@ -90,6 +100,26 @@ public abstract class DelegatingRequestProcessor implements RequestProcessor {
         getNextRequestProcessor().deleteSegment(deleteSegment);
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        getNextRequestProcessor().createSegments(createSegments);
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        getNextRequestProcessor().sealSegments(sealSegments);
+    }
+
+    @Override
+    public void deleteSegments(DeleteSegments deleteSegments) {
+        getNextRequestProcessor().deleteSegments(deleteSegments);
+    }
+
+    @Override
+    public void updateSegmentsPolicy(UpdateSegmentsPolicy updateSegmentsPolicy) {
+        getNextRequestProcessor().updateSegmentsPolicy(updateSegmentsPolicy);
+    }
+
     @Override
     public void keepAlive(KeepAlive keepAlive) {
         getNextRequestProcessor().keepAlive(keepAlive);
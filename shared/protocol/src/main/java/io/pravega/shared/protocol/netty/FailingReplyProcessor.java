@@ -114,6 +114,11 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
         throw new IllegalStateException("Unexpected operation: " + segmentAttribute);
     }
 
+    @Override
+    public void segmentAttributes(WireCommands.SegmentAttributes segmentAttributes) {
+        throw new IllegalStateException("Unexpected operation: " + segmentAttributes);
+    }
+
     @Override
     public void streamSegmentInfo(StreamSegmentInfo streamInfo) {
         throw new IllegalStateException("Unexpected operation: " + streamInfo);
@@ -149,6 +154,11 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
         throw new IllegalStateException("Unexpected operation: " + segment);
     }
 
+    @Override
+    public void segmentsBatchProcessed(WireCommands.SegmentsBatchProcessed segmentsBatchProcessed) {
+        throw new IllegalStateException("Unexpected operation: " + segmentsBatchProcessed);
+    }
+
     @Override
     public void keepAlive(KeepAlive keepAlive) {
         throw new IllegalStateException("Unexpected operation: " + keepAlive);
@@ -10,17 +10,22 @@
 package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
+import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttributes;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
+import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentsPolicy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -58,6 +63,11 @@ public class FailingRequestProcessor implements RequestProcessor {
     public void getSegmentAttribute(GetSegmentAttribute getSegmentAttribute) {
         throw new IllegalStateException("Unexpected operation");
     }
+
+    @Override
+    public void getSegmentAttributes(GetSegmentAttributes getSegmentAttributes) {
+        throw new IllegalStateException("Unexpected operation");
+    }
     
     @Override
     public void getStreamSegmentInfo(GetStreamSegmentInfo getStreamInfo) {
@@ -94,6 +104,26 @@ public class FailingRequestProcessor implements RequestProcessor {
         throw new IllegalStateException("Unexpected operation");
     }
 
+    @Override
+    public void createSegments(CreateSegments createSegments) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void sealSegments(SealSegments sealSegments) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void deleteSegments(DeleteSegments deleteSegments) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
+    @Override
+    public void updateSegmentsPolicy(UpdateSegmentsPolicy updateSegmentsPolicy) {
+        throw new IllegalStateException("Unexpected operation");
+    }
+
     @Override
     public void keepAlive(KeepAlive keepAlive) {
         log.debug("Received KeepAlive");
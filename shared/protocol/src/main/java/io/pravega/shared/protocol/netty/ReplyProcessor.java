@@ -45,6 +45,8 @@ public interface ReplyProcessor {
     void segmentAttributeUpdated(WireCommands.SegmentAttributeUpdated segmentAttributeUpdated);
     
     void segmentAttribute(WireCommands.SegmentAttribute segmentAttribute);
+
+    void segmentAttributes(WireCommands.SegmentAttributes segmentAttributes);
     
     void streamSegmentInfo(WireCommands.StreamSegmentInfo streamInfo);
     
@@ -65,6 +67,8 @@ public interface ReplyProcessor {
     void connectionDropped();
 
     void segmentPolicyUpdated(WireCommands.SegmentPolicyUpdated segmentPolicyUpdated);
+
+    void segmentsBatchProcessed(WireCommands.SegmentsBatchProcessed segmentsBatchProcessed);
     
     void processingFailure(Exception error);
 
@@ -11,17 +11,22 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.MergeSegments;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.CreateSegments;
 import io.pravega.shared.protocol.netty.WireCommands.DeleteSegment;
+import io.pravega.shared.protocol.netty.WireCommands.DeleteSegments;
 import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
+import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttributes;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.ReadSegment;
 import io.pravega.shared.protocol.netty.WireCommands.SealSegment;
+import io.pravega.shared.protocol.netty.WireCommands.SealSegments;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
+import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentsPolicy;
 
 /**
  * A class that handles each type of Request. (Visitor pattern)
@@ -39,6 +44,8 @@ public interface RequestProcessor {
     
     void getSegmentAttribute(GetSegmentAttribute getSegmentAttribute);
 
+    void getSegmentAttributes(GetSegmentAttributes getSegmentAttributes);
+
     void getStreamSegmentInfo(GetStreamSegmentInfo getStreamInfo);
 
     void createSegment(CreateSegment createSegment);
@@ -54,4 +61,12 @@ public interface RequestProcessor {
     void keepAlive(KeepAlive keepAlive);
 
     void updateSegmentPolicy(UpdateSegmentPolicy updateSegmentPolicy);
+
+    void createSegments(CreateSegments createSegments);
+
+    void sealSegments(SealSegments sealSegments);
+
+    void deleteSegments(DeleteSegments deleteSegments);
+
+    void updateSegmentsPolicy(UpdateSegmentsPolicy updateSegmentsPolicy);
 }
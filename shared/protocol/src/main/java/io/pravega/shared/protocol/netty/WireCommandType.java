@@ -27,6 +27,8 @@ public enum WireCommandType {
 
     PARTIAL_EVENT(-2, WireCommands.PartialEvent::readFrom),
 
+    COMPRESSED_EVENT(-3, null), // Is read manually. Only written by writers that opt in, as older readers reject it.
+
     EVENT(0, null), // Is read manually.
 
     SETUP_APPEND(1, WireCommands.SetupAppend::readFrom),
@@ -66,6 +68,15 @@ public enum WireCommandType {
     TRUNCATE_SEGMENT(38, WireCommands.TruncateSegment::readFrom),
     SEGMENT_TRUNCATED(39, WireCommands.SegmentTruncated::readFrom),
 
+    CREATE_SEGMENTS(40, WireCommands.CreateSegments::readFrom),
+    SEAL_SEGMENTS(41, WireCommands.SealSegments::readFrom),
+    DELETE_SEGMENTS(42, WireCommands.DeleteSegments::readFrom),
+    UPDATE_SEGMENTS_POLICY(43, WireCommands.UpdateSegmentsPolicy::readFrom),
+    SEGMENTS_BATCH_PROCESSED(44, WireCommands.SegmentsBatchProcessed::readFrom),
+
+    GET_SEGMENT_ATTRIBUTES(45, WireCommands.GetSegmentAttributes::readFrom),
+    SEGMENT_ATTRIBUTES(46, WireCommands.SegmentAttributes::readFrom),
+
     WRONG_HOST(50, WireCommands.WrongHost::readFrom),
     SEGMENT_IS_SEALED(51, WireCommands.SegmentIsSealed::readFrom),
     SEGMENT_ALREADY_EXISTS(52, WireCommands.SegmentAlreadyExists::readFrom),
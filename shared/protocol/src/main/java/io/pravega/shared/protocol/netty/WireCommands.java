@@ -21,10 +21,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
@@ -44,13 +48,19 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
  * Incompatible changes should instead create a new WireCommand object.
  */
 public final class WireCommands {
-    public static final int WIRE_VERSION = 5;
+    public static final int WIRE_VERSION = 7;
     public static final int OLDEST_COMPATIBLE_VERSION = 5;
     public static final int TYPE_SIZE = 4;
     public static final int TYPE_PLUS_LENGTH_SIZE = 8;
     public static final int MAX_WIRECOMMAND_SIZE = 0x007FFFFF; // 8MB
     
     public static final long NULL_ATTRIBUTE_VALUE = Long.MIN_VALUE; //This is the same as Attributes.NULL_ATTRIBUTE_VALUE
+
+    /**
+     * The credit (in bytes) granted to a writer by servers that do not limit it. This is also what is assumed when talking
+     * to servers that do not grant credit at all.
+     */
+    public static final long UNLIMITED_CREDIT = Long.MAX_VALUE;
     
     private static final Map<Integer, WireCommandType> MAPPING;
     static {
@@ -411,6 +421,25 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * An event whose payload has been compressed by the writer. It is framed exactly like an {@link Event} (so it is
+     * stored by the segment store like any other event), but with a different type so that readers know to decompress
+     * it. Readers that predate this type cannot read segments that contain it, so writers only produce it if they have
+     * been explicitly configured to (see EventWriterConfig.enableCompression).
+     */
+    @Data
+    public static final class CompressedEvent implements WireCommand {
+        final WireCommandType type = WireCommandType.COMPRESSED_EVENT;
+        final ByteBuf data;
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeInt(type.getCode());
+            out.writeInt(data.readableBytes());
+            data.getBytes(data.readerIndex(), (OutputStream) out, data.readableBytes());
+        }
+    }
+
     @Data
     public static final class SetupAppend implements Request, WireCommand {
         final WireCommandType type = WireCommandType.SETUP_APPEND;
@@ -556,12 +585,21 @@ public final class WireCommands {
     }
 
     @Data
+    @AllArgsConstructor
     public static final class AppendSetup implements Reply, WireCommand {
         final WireCommandType type = WireCommandType.APPEND_SETUP;
         final long requestId;
         final String segment;
         final UUID writerId;
         final long lastEventNumber;
+        /**
+         * The number of bytes of appends the writer may have outstanding (sent but not yet acknowledged) at any time.
+         */
+        final long credit;
+
+        public AppendSetup(long requestId, String segment, UUID writerId, long lastEventNumber) {
+            this(requestId, segment, writerId, lastEventNumber, UNLIMITED_CREDIT);
+        }
 
         @Override
         public void process(ReplyProcessor cp) {
@@ -575,23 +613,47 @@ public final class WireCommands {
             out.writeLong(writerId.getMostSignificantBits());
             out.writeLong(writerId.getLeastSignificantBits());
             out.writeLong(lastEventNumber);
+            out.writeLong(credit);
         }
 
-        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+        public static <T extends InputStream & DataInput> WireCommand readFrom(T in, int length) throws IOException {
             long requestId = in.readLong();
             String segment = in.readUTF();
             UUID writerId = new UUID(in.readLong(), in.readLong());
             long lastEventNumber = in.readLong();
-            return new AppendSetup(requestId, segment, writerId, lastEventNumber);
+            long credit = UNLIMITED_CREDIT;
+            if (in.available() >= Long.BYTES) {
+                // Versioning workaround until PDP-21 is implemented (https://github.com/pravega/pravega/issues/1948).
+                credit = in.readLong();
+            }
+            return new AppendSetup(requestId, segment, writerId, lastEventNumber, credit);
         }
     }
 
     @Data
+    @AllArgsConstructor
     public static final class DataAppended implements Reply, WireCommand {
         final WireCommandType type = WireCommandType.DATA_APPENDED;
         final UUID writerId;
         final long eventNumber;
         final long previousEventNumber;
+        /**
+         * The number of bytes of appends the writer may have outstanding (sent but not yet acknowledged) at any time.
+         */
+        final long credit;
+        /**
+         * The delay (in milliseconds) the Segment Container is currently applying to writes because it is throttling, or 0
+         * if it is not. This is a hint for the writer to slow down.
+         */
+        final long throttleDelayMillis;
+
+        public DataAppended(UUID writerId, long eventNumber, long previousEventNumber) {
+            this(writerId, eventNumber, previousEventNumber, UNLIMITED_CREDIT);
+        }
+
+        public DataAppended(UUID writerId, long eventNumber, long previousEventNumber, long credit) {
+            this(writerId, eventNumber, previousEventNumber, credit, 0);
+        }
 
         @Override
         public void process(ReplyProcessor cp) {
@@ -604,6 +666,8 @@ public final class WireCommands {
             out.writeLong(writerId.getLeastSignificantBits());
             out.writeLong(eventNumber);
             out.writeLong(previousEventNumber);
+            out.writeLong(credit);
+            out.writeLong(throttleDelayMillis);
         }
 
         public static WireCommand readFrom(DataInput in, int length) throws IOException {
@@ -613,8 +677,16 @@ public final class WireCommands {
             if (length >= 32) {
                 previousEventNumber = in.readLong();
             }
+            long credit = UNLIMITED_CREDIT;
+            if (length >= 40) {
+                credit = in.readLong();
+            }
+            long throttleDelayMillis = 0;
+            if (length >= 48) {
+                throttleDelayMillis = in.readLong();
+            }
 
-            return new DataAppended(writerId, offset, previousEventNumber);
+            return new DataAppended(writerId, offset, previousEventNumber, credit, throttleDelayMillis);
         }
         
         @Override
@@ -848,6 +920,90 @@ public final class WireCommands {
             return new SegmentAttributeUpdated(requestId, success);
         }
     }
+
+    /**
+     * Requests the (Extended) Attributes of a segment whose Ids lie in [fromId, toId], in ascending order of their Ids. At
+     * most maxCount Attributes are returned in the SegmentAttributes reply; if exactly maxCount are returned, the next page
+     * can be requested with a range that begins right after the last returned Id. Requests with a maxCount larger than
+     * {@link #MAX_COUNT} are rejected with an OperationUnsupported reply.
+     */
+    @Data
+    public static final class GetSegmentAttributes implements Request, WireCommand {
+        /**
+         * The maximum number of attributes that can be requested at once (24 bytes each in the reply).
+         */
+        public static final int MAX_COUNT = 64 * 1024;
+        final WireCommandType type = WireCommandType.GET_SEGMENT_ATTRIBUTES;
+        final long requestId;
+        final String segmentName;
+        final UUID fromId;
+        final UUID toId;
+        final int maxCount;
+        final String delegationToken;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.getSegmentAttributes(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeUTF(segmentName);
+            out.writeLong(fromId.getMostSignificantBits());
+            out.writeLong(fromId.getLeastSignificantBits());
+            out.writeLong(toId.getMostSignificantBits());
+            out.writeLong(toId.getLeastSignificantBits());
+            out.writeInt(maxCount);
+            out.writeUTF(delegationToken == null ? "" : delegationToken);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            String segment = in.readUTF();
+            UUID fromId = new UUID(in.readLong(), in.readLong());
+            UUID toId = new UUID(in.readLong(), in.readLong());
+            int maxCount = in.readInt();
+            String delegationToken = in.readUTF();
+            return new GetSegmentAttributes(requestId, segment, fromId, toId, maxCount, delegationToken);
+        }
+    }
+
+    @Data
+    public static final class SegmentAttributes implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.SEGMENT_ATTRIBUTES;
+        final long requestId;
+        final String segmentName;
+        final Map<UUID, Long> attributes;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.segmentAttributes(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeUTF(segmentName);
+            out.writeInt(attributes.size());
+            for (Map.Entry<UUID, Long> e : attributes.entrySet()) {
+                out.writeLong(e.getKey().getMostSignificantBits());
+                out.writeLong(e.getKey().getLeastSignificantBits());
+                out.writeLong(e.getValue());
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            String segment = in.readUTF();
+            int count = in.readInt();
+            Map<UUID, Long> attributes = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                attributes.put(new UUID(in.readLong(), in.readLong()), in.readLong());
+            }
+            return new SegmentAttributes(requestId, segment, attributes);
+        }
+    }
     
     @Data
     public static final class GetStreamSegmentInfo implements Request, WireCommand {
@@ -1257,6 +1413,172 @@ public final class WireCommands {
         }
     }
 
+    @Data
+    public static final class CreateSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.CREATE_SEGMENTS;
+        final long requestId;
+        final List<String> segments;
+        final byte scaleType;
+        final int targetRate;
+        final String delegationToken;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.createSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegmentNames(out, segments);
+            out.writeInt(targetRate);
+            out.writeByte(scaleType);
+            out.writeUTF(delegationToken == null ? "" : delegationToken);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegmentNames(in);
+            int desiredRate = in.readInt();
+            byte scaleType = in.readByte();
+            String delegationToken = in.readUTF();
+            return new CreateSegments(requestId, segments, scaleType, desiredRate, delegationToken);
+        }
+    }
+
+    @Data
+    public static final class SealSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.SEAL_SEGMENTS;
+        final long requestId;
+        final List<String> segments;
+        final String delegationToken;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.sealSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegmentNames(out, segments);
+            out.writeUTF(delegationToken == null ? "" : delegationToken);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegmentNames(in);
+            String delegationToken = in.readUTF();
+            return new SealSegments(requestId, segments, delegationToken);
+        }
+    }
+
+    @Data
+    public static final class DeleteSegments implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.DELETE_SEGMENTS;
+        final long requestId;
+        final List<String> segments;
+        final String delegationToken;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.deleteSegments(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegmentNames(out, segments);
+            out.writeUTF(delegationToken == null ? "" : delegationToken);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegmentNames(in);
+            String delegationToken = in.readUTF();
+            return new DeleteSegments(requestId, segments, delegationToken);
+        }
+    }
+
+    @Data
+    public static final class UpdateSegmentsPolicy implements Request, WireCommand {
+        final WireCommandType type = WireCommandType.UPDATE_SEGMENTS_POLICY;
+        final long requestId;
+        final List<String> segments;
+        final byte scaleType;
+        final int targetRate;
+        final String delegationToken;
+
+        @Override
+        public void process(RequestProcessor cp) {
+            cp.updateSegmentsPolicy(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            writeSegmentNames(out, segments);
+            out.writeInt(targetRate);
+            out.writeByte(scaleType);
+            out.writeUTF(delegationToken == null ? "" : delegationToken);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            List<String> segments = readSegmentNames(in);
+            int desiredRate = in.readInt();
+            byte scaleType = in.readByte();
+            String delegationToken = in.readUTF();
+            return new UpdateSegmentsPolicy(requestId, segments, scaleType, desiredRate, delegationToken);
+        }
+    }
+
+    /**
+     * Reply to any of the batch segment requests (CreateSegments, SealSegments, DeleteSegments, UpdateSegmentsPolicy).
+     * It is only sent once every segment in the batch has been processed. Outcomes that leave a segment in the
+     * requested state (i.e., it already exists, is already sealed or was already deleted) count as processed. If any
+     * segment fails, the regular single-segment error reply is sent instead, tagged with the batch's requestId.
+     */
+    @Data
+    public static final class SegmentsBatchProcessed implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.SEGMENTS_BATCH_PROCESSED;
+        final long requestId;
+        final int segmentCount;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.segmentsBatchProcessed(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeInt(segmentCount);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            int segmentCount = in.readInt();
+            return new SegmentsBatchProcessed(requestId, segmentCount);
+        }
+    }
+
+    private static void writeSegmentNames(DataOutput out, List<String> segments) throws IOException {
+        out.writeInt(segments.size());
+        for (String segment : segments) {
+            out.writeUTF(segment);
+        }
+    }
+
+    private static List<String> readSegmentNames(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<String> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments.add(in.readUTF());
+        }
+        return segments;
+    }
+
     @Data
     public static final class KeepAlive implements Request, Reply, WireCommand {
         final WireCommandType type = WireCommandType.KEEP_ALIVE;
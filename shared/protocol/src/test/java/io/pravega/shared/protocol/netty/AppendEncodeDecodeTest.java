@@ -16,6 +16,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetector.Level;
+import io.pravega.shared.protocol.netty.WireCommands.Flush;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import org.junit.Test;
 
 import static io.pravega.shared.protocol.netty.WireCommandType.EVENT;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
+import static io.pravega.shared.protocol.netty.WireCommands.TYPE_SIZE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -57,6 +59,8 @@ public class AppendEncodeDecodeTest {
     @RequiredArgsConstructor
     private static final class FixedBatchSizeTracker implements AppendBatchSizeTracker {
         private final int appendBlockSize;  
+        private final List<Integer> blockSizes = new ArrayList<>();
+        private final List<Boolean> blocksTimedOut = new ArrayList<>();
 
         @Override
         public int getAppendBlockSize() {
@@ -76,6 +80,13 @@ public class AppendEncodeDecodeTest {
         public int getBatchTimeout() {
             return 10;
         }
+
+        @Override
+        public void recordAppendBlock(int blockSize, long waitNanos, boolean timedOut) {
+            assertTrue(waitNanos >= 0);
+            blockSizes.add(blockSize);
+            blocksTimedOut.add(timedOut);
+        }
         
     }
     
@@ -179,6 +190,55 @@ public class AppendEncodeDecodeTest {
         assertEquals(keepAlive, two);
     }
 
+    @Test
+    public void testCompressedAppend() throws Exception {
+        int size = 100;
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        ArrayList<Object> received = setupAppend(streamName, writerId, fakeNetwork);
+        encoder.encode(null, new Append(streamName, writerId, 1, Unpooled.wrappedBuffer(new byte[size]), true), fakeNetwork);
+        append(streamName, writerId, size, 2, size, fakeNetwork);
+        encoder.encode(null, new KeepAlive(), fakeNetwork);
+        read(fakeNetwork, received);
+        assertEquals(2, received.size());
+
+        // Compressed events are framed like any other event, but with a different type, and may share a block.
+        Append readAppend = (Append) received.get(0);
+        assertEquals(2, readAppend.getEventCount());
+        ByteBuf data = readAppend.getData();
+        assertEquals(2 * (size + TYPE_PLUS_LENGTH_SIZE), data.readableBytes());
+        assertEquals(WireCommandType.COMPRESSED_EVENT.getCode(), data.getInt(0));
+        assertEquals(size, data.getInt(TYPE_SIZE));
+        assertEquals(EVENT.getCode(), data.getInt(size + TYPE_PLUS_LENGTH_SIZE));
+    }
+
+    @Test
+    public void testBlocksRecorded() throws Exception {
+        FixedBatchSizeTracker tracker = new FixedBatchSizeTracker(appendBlockSize);
+        CommandEncoder commandEncoder = new CommandEncoder(tracker);
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        commandEncoder.encode(null, new SetupAppend(1, writerId, streamName, ""), fakeNetwork);
+
+        // A block that is only partially filled is closed by the flusher once the batch timeout elapses.
+        int size = appendBlockSize / 2;
+        commandEncoder.encode(null, new Append(streamName, writerId, 1, Unpooled.wrappedBuffer(new byte[size]), null),
+                              fakeNetwork);
+        commandEncoder.encode(null, new Flush(appendBlockSize), fakeNetwork);
+        assertEquals(Arrays.asList(size + TYPE_PLUS_LENGTH_SIZE), tracker.blockSizes);
+        assertEquals(Arrays.asList(true), tracker.blocksTimedOut);
+
+        // A block that fills up is closed immediately.
+        commandEncoder.encode(null, new Append(streamName, writerId, 2, Unpooled.wrappedBuffer(new byte[appendBlockSize]), null),
+                              fakeNetwork);
+        assertEquals(Arrays.asList(size + TYPE_PLUS_LENGTH_SIZE, appendBlockSize), tracker.blockSizes);
+        assertEquals(Arrays.asList(true, false), tracker.blocksTimedOut);
+
+        // A stale flush for a block that is no longer open does not close anything.
+        commandEncoder.encode(null, new Flush(appendBlockSize), fakeNetwork);
+        assertEquals(2, tracker.blockSizes.size());
+    }
+
     @Test
     public void testSmallAppends() throws Exception {
         int eventSize = 10;
@@ -18,6 +18,10 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.Data;
@@ -56,6 +60,18 @@ public class WireCommandsTest {
     @Test
     public void testAppendSetup() throws IOException {
         testCommand(new WireCommands.AppendSetup(l, testString1, uuid, l));
+        testCommand(new WireCommands.AppendSetup(l, testString1, uuid, l, i));
+
+        // Test that we are able to decode a message from a server that does not grant credit.
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bout);
+        out.writeLong(l);
+        out.writeUTF(testString1);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeLong(l);
+        testCommandFromByteArray(bout.toByteArray(), new WireCommands.AppendSetup(l, testString1, uuid, l,
+                WireCommands.UNLIMITED_CREDIT));
     }
 
     @Test
@@ -126,9 +142,26 @@ public class WireCommandsTest {
         commandV2.writeFields(new DataOutputStream(bout));
         testCommandFromByteArray(bout.toByteArray(), new WireCommands.DataAppended(uuid, l, -1));
 
+        // Test that we are able to decode a message from a server that does not grant credit.
+        bout = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bout);
+        commandV2.writeFields(out);
+        out.writeLong(l);
+        testCommandFromByteArray(bout.toByteArray(), new WireCommands.DataAppended(uuid, l, l, WireCommands.UNLIMITED_CREDIT));
+
         // Test that we are able to encode and decode the current response
         // to append data correctly.
         testCommand(new WireCommands.DataAppended(uuid, l, Long.MIN_VALUE));
+        testCommand(new WireCommands.DataAppended(uuid, l, Long.MIN_VALUE, i));
+        testCommand(new WireCommands.DataAppended(uuid, l, Long.MIN_VALUE, i, l));
+
+        // Test that we are able to decode a message from a server that does not send throttle hints.
+        bout = new ByteArrayOutputStream();
+        out = new DataOutputStream(bout);
+        commandV2.writeFields(out);
+        out.writeLong(l);
+        out.writeLong(i);
+        testCommandFromByteArray(bout.toByteArray(), new WireCommands.DataAppended(uuid, l, l, i, 0));
     }
 
     @Test
@@ -166,6 +199,20 @@ public class WireCommandsTest {
     public void testSegmentAttribute() throws IOException {
         testCommand(new WireCommands.SegmentAttribute(l, l+1));
     }
+
+    @Test
+    public void testGetSegmentAttributes() throws IOException {
+        testCommand(new WireCommands.GetSegmentAttributes(l, testString1, uuid, new UUID(Long.MAX_VALUE, Long.MAX_VALUE), i, ""));
+    }
+
+    @Test
+    public void testSegmentAttributes() throws IOException {
+        Map<UUID, Long> attributes = new TreeMap<>();
+        attributes.put(uuid, l);
+        attributes.put(new UUID(l, l + 1), Long.MIN_VALUE);
+        testCommand(new WireCommands.SegmentAttributes(l, testString1, attributes));
+        testCommand(new WireCommands.SegmentAttributes(l, testString1, Collections.emptyMap()));
+    }
     
     @Test
     public void testGetStreamSegmentInfo() throws IOException {
@@ -242,6 +289,31 @@ public class WireCommandsTest {
         testCommand(new WireCommands.SegmentPolicyUpdated(l, testString1));
     }
 
+    @Test
+    public void testCreateSegments() throws IOException {
+        testCommand(new WireCommands.CreateSegments(l, Arrays.asList(testString1, testString2), b, i, ""));
+    }
+
+    @Test
+    public void testSealSegments() throws IOException {
+        testCommand(new WireCommands.SealSegments(l, Arrays.asList(testString1, testString2), ""));
+    }
+
+    @Test
+    public void testDeleteSegments() throws IOException {
+        testCommand(new WireCommands.DeleteSegments(l, Collections.singletonList(testString1), ""));
+    }
+
+    @Test
+    public void testUpdateSegmentsPolicy() throws IOException {
+        testCommand(new WireCommands.UpdateSegmentsPolicy(l, Arrays.asList(testString1, testString2), b, i, ""));
+    }
+
+    @Test
+    public void testSegmentsBatchProcessed() throws IOException {
+        testCommand(new WireCommands.SegmentsBatchProcessed(l, i));
+    }
+
     @Test
     public void testWrongHost() throws IOException {
         testCommand(new WireCommands.WrongHost(l, "Foo", testString1));
@@ -37,11 +37,21 @@ public final class StreamSegmentNameUtils {
      */
     private static final String HEADER_SUFFIX = "$header";
 
+    /**
+     * This is appended to the end of the Segment/Transaction name to indicate it stores its Compressed Storage Block Index.
+     */
+    private static final String BLOCK_INDEX_SUFFIX = "$blockindex";
+
     /**
      * This is appended to the end of the Segment/Transaction name to indicate it represents a SegmentChunk.
      */
     private static final String OFFSET_SUFFIX = "$offset.";
 
+    /**
+     * Format of the name of the Segment that holds the Segment States of all the Segments owned by a Segment Container.
+     */
+    private static final String STATE_TABLE_FORMAT = "_system/containers/state_table_%d";
+
     /**
      * This is appended to the end of the Parent Segment Name, then we append a unique identifier.
      */
@@ -147,6 +157,16 @@ public final class StreamSegmentNameUtils {
         return segmentName + STATE_SUFFIX;
     }
 
+    /**
+     * Gets the name of the system Segment that stores the Segment States of all Segments owned by the given Container.
+     *
+     * @param containerId The Id of the Segment Container.
+     * @return The result.
+     */
+    public static String getStateTableSegmentName(int containerId) {
+        return String.format(STATE_TABLE_FORMAT, containerId);
+    }
+
     /**
      * Gets the name of the meta-Segment mapped to the given Segment Name that is responsible with storing extended attributes.
      *
@@ -171,6 +191,19 @@ public final class StreamSegmentNameUtils {
         return segmentName + HEADER_SUFFIX;
     }
 
+    /**
+     * Gets the name of the meta-Segment mapped to the given Segment Name that is responsible with storing the index of
+     * its compressed blocks.
+     * Existence of this file should also indicate that the Segment with this name is stored in compressed form.
+     *
+     * @param segmentName The name of the Segment to get the Block Index segment name for.
+     * @return The result.
+     */
+    public static String getBlockIndexSegmentName(String segmentName) {
+        Preconditions.checkArgument(!segmentName.endsWith(BLOCK_INDEX_SUFFIX), "segmentName is already a block index segment name");
+        return segmentName + BLOCK_INDEX_SUFFIX;
+    }
+
     /**
      * Gets the name of the Segment name from its Header Segment Name.
      *
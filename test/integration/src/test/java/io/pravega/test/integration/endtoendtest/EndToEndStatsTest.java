@@ -157,6 +157,11 @@ public class EndToEndStatsTest {
             });
         }
 
+        @Override
+        public void read(String streamSegmentName, long dataLength) {
+
+        }
+
         @Override
         public void merge(String streamSegmentName, long dataLength, int numOfEvents, long txnCreationTime) {
             segments.computeIfPresent(streamSegmentName, (x, y) -> {